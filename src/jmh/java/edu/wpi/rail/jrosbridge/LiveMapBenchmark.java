@@ -0,0 +1,87 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.geometry.Pose;
+import edu.wpi.rail.jrosbridge.messages.map.OccupancyGridUpdate;
+import edu.wpi.rail.jrosbridge.messages.nav.MapMetaData;
+import edu.wpi.rail.jrosbridge.messages.nav.OccupancyGrid;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+/**
+ * Compares keeping a map current by decoding the whole nav_msgs/OccupancyGrid
+ * on every change against decoding a small map_msgs/OccupancyGridUpdate and
+ * patching a {@link LiveMap} with it. Run with:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="LiveMapBenchmark -f 1"
+ * </pre>
+ *
+ * @version October 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LiveMapBenchmark {
+
+	/**
+	 * The number of cells along each side of the map.
+	 */
+	@Param({ "1024", "2048" })
+	public int size;
+
+	private String mapJson;
+	private String updateJson;
+	private LiveMap map;
+
+	/**
+	 * Build a square map of random cells, a 64x64 update, and their JSON.
+	 */
+	@Setup
+	public void setup() {
+		Random random = new Random(1);
+		byte[] data = new byte[this.size * this.size];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) (random.nextInt(102) - 1);
+		}
+		OccupancyGrid grid = new OccupancyGrid(new Header(), new MapMetaData(
+				new Time(), 0.05f, this.size, this.size, new Pose()), data);
+		byte[] patch = new byte[64 * 64];
+		random.nextBytes(patch);
+		OccupancyGridUpdate update = new OccupancyGridUpdate(new Header(),
+				this.size / 2, this.size / 2, 64, 64, patch);
+		this.mapJson = grid.toString();
+		this.updateJson = update.toString();
+		this.map = new LiveMap(new Ros(), "/map");
+		this.map.setMap(grid);
+	}
+
+	@Benchmark
+	public OccupancyGrid decodeMap() {
+		return MessageDecoders.decode(OccupancyGrid.class, this.mapJson);
+	}
+
+	@Benchmark
+	public boolean applyUpdate() {
+		return this.map.applyUpdate(MessageDecoders.decode(
+				OccupancyGridUpdate.class, this.updateJson));
+	}
+}
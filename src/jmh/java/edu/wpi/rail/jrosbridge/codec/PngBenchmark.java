@@ -0,0 +1,115 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.imageio.ImageIO;
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.wpi.rail.jrosbridge.JRosbridge;
+
+/**
+ * Compares decompressing a "png" frame holding an occupancy grid through
+ * ImageIO (reading the raster and rebuilding the text one character at a time)
+ * against the {@link PngDecoder}. Run with:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="PngBenchmark -f 1"
+ * </pre>
+ *
+ * @version October 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PngBenchmark {
+
+	/**
+	 * The width and height of the occupancy grid.
+	 */
+	@Param({ "64", "512" })
+	public int size;
+
+	private String data;
+	private PngDecoder decoder;
+
+	/**
+	 * Build the base64 data of a "png" frame as rosbridge does.
+	 *
+	 * @throws IOException
+	 *             If the image could not be written.
+	 */
+	@Setup
+	public void setup() throws IOException {
+		StringBuilder json = new StringBuilder("{\"" + JRosbridge.FIELD_OP
+				+ "\": \"" + JRosbridge.OP_CODE_PUBLISH + "\", \""
+				+ JRosbridge.FIELD_TOPIC + "\": \"/map\", \""
+				+ JRosbridge.FIELD_MESSAGE + "\": {\"data\": [");
+		Random random = new Random(1);
+		for (int i = 0; i < this.size * this.size; i++) {
+			json.append(i == 0 ? "" : ", ").append(
+					random.nextInt(10) == 0 ? 100 : (random.nextInt(4) == 0 ? -1
+							: 0));
+		}
+		json.append("]}}");
+
+		byte[] bytes = json.toString().getBytes(StandardCharsets.UTF_8);
+		int width = (int) Math.floor(Math.sqrt(bytes.length / 3.0));
+		int height = (int) Math.ceil((bytes.length / 3.0) / width);
+		byte[] samples = Arrays.copyOf(bytes, width * height * 3);
+		Arrays.fill(samples, bytes.length, samples.length, (byte) '\n');
+		BufferedImage image = new BufferedImage(width, height,
+				BufferedImage.TYPE_3BYTE_BGR);
+		image.getRaster().setDataElements(0, 0, width, height, samples);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		this.data = Base64.getEncoder().encodeToString(out.toByteArray());
+		this.decoder = new PngDecoder();
+	}
+
+	@Benchmark
+	public JsonObject imageIO() throws IOException {
+		byte[] bytes = Base64.getDecoder().decode(this.data);
+		Raster raster = ImageIO.read(new ByteArrayInputStream(bytes))
+				.getRaster();
+		int[] pixels = raster.getPixels(0, 0, raster.getWidth(),
+				raster.getHeight(), (int[]) null);
+		StringBuffer buffer = new StringBuffer();
+		for (int i = 0; i < pixels.length; i++) {
+			buffer.append(Character.toString((char) pixels[i]));
+		}
+		return Json.createReader(new StringReader(buffer.toString()))
+				.readObject();
+	}
+
+	@Benchmark
+	public JsonObject pngDecoder() throws IOException {
+		int length = this.decoder.decodeBase64(this.data);
+		return JsonStreams.readObject(this.decoder.getBuffer(), 0, length);
+	}
+}
@@ -0,0 +1,159 @@
+package edu.wpi.rail.jrosbridge.messages;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.wpi.rail.jrosbridge.JRosbridge;
+import edu.wpi.rail.jrosbridge.messages.actionlib.GoalID;
+import edu.wpi.rail.jrosbridge.messages.actionlib.GoalStatus;
+import edu.wpi.rail.jrosbridge.messages.actionlib.GoalStatusArray;
+import edu.wpi.rail.jrosbridge.messages.geometry.Point;
+import edu.wpi.rail.jrosbridge.messages.geometry.Pose;
+import edu.wpi.rail.jrosbridge.messages.geometry.PoseWithCovariance;
+import edu.wpi.rail.jrosbridge.messages.geometry.PoseWithCovarianceStamped;
+import edu.wpi.rail.jrosbridge.messages.geometry.Quaternion;
+import edu.wpi.rail.jrosbridge.messages.std.Float64MultiArray;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.messages.std.MultiArrayDimension;
+import edu.wpi.rail.jrosbridge.messages.std.MultiArrayLayout;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+/**
+ * Compares decoding the message of a publish frame through a JSON object (the
+ * fromJsonObject path) against the streaming decoders in
+ * {@link MessageDecoders}. Run with:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="DecodeBenchmark -f 1"
+ * </pre>
+ *
+ * @version October 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecodeBenchmark {
+
+	/**
+	 * The number of values in the Float64MultiArray and statuses in the
+	 * GoalStatusArray.
+	 */
+	@Param({ "16", "1024" })
+	public int size;
+
+	private String pose;
+	private String array;
+	private String status;
+
+	/**
+	 * Build the publish frames to decode.
+	 */
+	@Setup
+	public void setup() {
+		Header header = new Header(1, new Time(2, 3), "base_link");
+
+		double[] covariance = new double[PoseWithCovariance.COVARIANCE_SIZE];
+		for (int i = 0; i < covariance.length; i++) {
+			covariance[i] = i * 0.125;
+		}
+		this.pose = DecodeBenchmark.frame(new PoseWithCovarianceStamped(header,
+				new PoseWithCovariance(new Pose(new Point(1.5, -2.25, 0.5),
+						new Quaternion(0, 0, 0.7071, 0.7071)), covariance)));
+
+		double[] data = new double[this.size];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = i * 1.0001;
+		}
+		this.array = DecodeBenchmark.frame(new Float64MultiArray(
+				new MultiArrayLayout(
+						new MultiArrayDimension[] { new MultiArrayDimension(
+								"x", this.size, this.size) }, 0), data));
+
+		GoalStatus[] statuses = new GoalStatus[this.size];
+		for (int i = 0; i < statuses.length; i++) {
+			statuses[i] = new GoalStatus(new GoalID(new Time(i, i), "goal_"
+					+ i), GoalStatus.SUCCEEDED, "done");
+		}
+		this.status = DecodeBenchmark.frame(new GoalStatusArray(header,
+				statuses));
+	}
+
+	@Benchmark
+	public PoseWithCovarianceStamped treePoseWithCovarianceStamped() {
+		return PoseWithCovarianceStamped.fromJsonObject(DecodeBenchmark
+				.tree(this.pose));
+	}
+
+	@Benchmark
+	public PoseWithCovarianceStamped streamPoseWithCovarianceStamped() {
+		return MessageDecoders.decodeMessage(PoseWithCovarianceStamped.class,
+				this.pose);
+	}
+
+	@Benchmark
+	public Float64MultiArray treeFloat64MultiArray() {
+		return Float64MultiArray.fromJsonObject(DecodeBenchmark
+				.tree(this.array));
+	}
+
+	@Benchmark
+	public Float64MultiArray streamFloat64MultiArray() {
+		return MessageDecoders.decodeMessage(Float64MultiArray.class,
+				this.array);
+	}
+
+	@Benchmark
+	public GoalStatusArray treeGoalStatusArray() {
+		return GoalStatusArray.fromJsonObject(DecodeBenchmark.tree(this.status));
+	}
+
+	@Benchmark
+	public GoalStatusArray streamGoalStatusArray() {
+		return MessageDecoders.decodeMessage(GoalStatusArray.class,
+				this.status);
+	}
+
+	/**
+	 * Wrap the given message in a publish frame.
+	 *
+	 * @param message
+	 *            The message.
+	 * @return The JSON text of the frame.
+	 */
+	private static String frame(Message message) {
+		return "{\"" + JRosbridge.FIELD_OP + "\": \""
+				+ JRosbridge.OP_CODE_PUBLISH + "\", \""
+				+ JRosbridge.FIELD_TOPIC + "\": \"/bench\", \""
+				+ JRosbridge.FIELD_MESSAGE + "\": " + message.toString() + "}";
+	}
+
+	/**
+	 * Parse the given frame as the Ros connection does and get its message.
+	 *
+	 * @param frame
+	 *            The JSON text of the frame.
+	 * @return The JSON object of the message.
+	 */
+	private static JsonObject tree(String frame) {
+		return Json.createReader(new StringReader(frame)).readObject()
+				.getJsonObject(JRosbridge.FIELD_MESSAGE);
+	}
+}
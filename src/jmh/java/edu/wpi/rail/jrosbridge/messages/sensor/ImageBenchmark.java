@@ -0,0 +1,113 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+
+/**
+ * Compares reading an rgb8 sensor_msgs/Image sent as an array of numbers
+ * through the generic {@link Message} against streaming the base64 data
+ * straight into an {@link Image}, and measures writing and scanning the rows
+ * of an image. Run with:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ImageBenchmark -f 1"
+ * </pre>
+ *
+ * @version October 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageBenchmark {
+
+	/**
+	 * The width and height of the image.
+	 */
+	@Param({ "640x480", "1920x1080" })
+	public String size;
+
+	private Image image;
+	private String numbers, base64;
+
+	/**
+	 * Build an image of random pixels and its JSON, both as an array of
+	 * numbers and as base64.
+	 */
+	@Setup
+	public void setup() {
+		String[] dimensions = this.size.split("x");
+		int width = Integer.parseInt(dimensions[0]);
+		int height = Integer.parseInt(dimensions[1]);
+		byte[] data = new byte[width * height * 3];
+		new Random(1).nextBytes(data);
+		this.image = new Image(new Header(), height, width,
+				ImageEncodings.RGB8, false, width * 3, data);
+		this.base64 = this.image.toString();
+
+		StringBuilder array = new StringBuilder("[");
+		for (int i = 0; i < data.length; i++) {
+			array.append(i == 0 ? "" : ",").append(data[i] & 0xFF);
+		}
+		array.append("]");
+		int start = this.base64.indexOf("\"data\":\"") + 7;
+		int end = this.base64.indexOf('"', start + 1) + 1;
+		this.numbers = this.base64.substring(0, start) + array
+				+ this.base64.substring(end);
+	}
+
+	@Benchmark
+	public byte[] decodeNumbers() {
+		JsonObject json = new Message(this.numbers).toJsonObject();
+		JsonArray array = json.getJsonArray(Image.FIELD_DATA);
+		byte[] data = new byte[array.size()];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) array.getInt(i);
+		}
+		return data;
+	}
+
+	@Benchmark
+	public Image decodeBase64() {
+		return MessageDecoders.decode(Image.class, this.base64);
+	}
+
+	@Benchmark
+	public String encode() {
+		return this.image.clone().toString();
+	}
+
+	@Benchmark
+	public long sumRows() {
+		long sum = 0;
+		for (int i = 0; i < this.image.getHeight(); i++) {
+			ByteBuffer row = this.image.getRow(i);
+			while (row.hasRemaining()) {
+				sum += row.get() & 0xFF;
+			}
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,97 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+
+/**
+ * Compares projecting a sensor_msgs/LaserScan with a sine and cosine per beam
+ * against the cached tables of a {@link LaserProjection}, and measures
+ * decoding the scan. Run with:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="LaserScanBenchmark -f 1"
+ * </pre>
+ *
+ * @version October 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LaserScanBenchmark {
+
+	/**
+	 * The number of beams in the scan.
+	 */
+	@Param({ "720", "1440" })
+	public int beams;
+
+	private LaserScan scan;
+	private String json;
+	private LaserProjection projection;
+	private float[] x, y;
+
+	/**
+	 * Build a full circle scan of random ranges and its JSON.
+	 */
+	@Setup
+	public void setup() {
+		float[] ranges = new float[this.beams];
+		Random random = new Random(1);
+		for (int i = 0; i < ranges.length; i++) {
+			ranges[i] = random.nextInt(20) == 0 ? Float.POSITIVE_INFINITY
+					: 0.1f + random.nextFloat() * 20;
+		}
+		float increment = (float) (2 * Math.PI / this.beams);
+		this.scan = new LaserScan(new Header(), (float) -Math.PI,
+				(float) Math.PI - increment, increment, 0, 0.025f, 0.1f, 30f,
+				ranges, ranges);
+		this.json = this.scan.toString();
+		this.projection = new LaserProjection();
+		this.x = new float[this.beams];
+		this.y = new float[this.beams];
+	}
+
+	@Benchmark
+	public int projectTrig() {
+		float[] ranges = this.scan.getRanges();
+		int count = 0;
+		for (int i = 0; i < ranges.length; i++) {
+			if (this.scan.isValid(i)) {
+				double angle = this.scan.getAngleMin() + (double) i
+						* this.scan.getAngleIncrement();
+				this.x[count] = (float) (ranges[i] * Math.cos(angle));
+				this.y[count] = (float) (ranges[i] * Math.sin(angle));
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int projectTables() {
+		return this.projection.project(this.scan, this.x, this.y);
+	}
+
+	@Benchmark
+	public LaserScan decode() {
+		return MessageDecoders.decode(LaserScan.class, this.json);
+	}
+}
@@ -0,0 +1,90 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+
+/**
+ * Measures decoding a sensor_msgs/PointCloud2 with x, y, z, and intensity
+ * fields, and reading every point in place with a {@link PointCursor}. Run
+ * with:
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="PointCloud2Benchmark -f 1"
+ * </pre>
+ *
+ * @version October 18, 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PointCloud2Benchmark {
+
+	/**
+	 * The number of points in the cloud.
+	 */
+	@Param({ "100000", "300000" })
+	public int points;
+
+	private PointCloud2 cloud;
+	private String json;
+
+	/**
+	 * Build a cloud of random points and its JSON.
+	 */
+	@Setup
+	public void setup() {
+		PointField[] fields = new PointField[] {
+				new PointField("x", 0, PointField.FLOAT32, 1),
+				new PointField("y", 4, PointField.FLOAT32, 1),
+				new PointField("z", 8, PointField.FLOAT32, 1),
+				new PointField("intensity", 16, PointField.FLOAT32, 1) };
+		ByteBuffer data = ByteBuffer.allocate(this.points * 32).order(
+				ByteOrder.LITTLE_ENDIAN);
+		Random random = new Random(1);
+		for (int i = 0; i < this.points; i++) {
+			data.putFloat(i * 32, random.nextFloat());
+			data.putFloat(i * 32 + 4, random.nextFloat());
+			data.putFloat(i * 32 + 8, random.nextFloat());
+			data.putFloat(i * 32 + 16, random.nextFloat());
+		}
+		this.cloud = new PointCloud2(new Header(), 1, this.points, fields,
+				false, 32, this.points * 32, data, true);
+		this.json = this.cloud.toString();
+	}
+
+	@Benchmark
+	public PointCloud2 decode() {
+		return MessageDecoders.decode(PointCloud2.class, this.json);
+	}
+
+	@Benchmark
+	public double readPoints() {
+		double sum = 0;
+		PointCursor cursor = this.cloud.cursor();
+		while (cursor.next()) {
+			sum += cursor.getX() + cursor.getY() + cursor.getZ()
+					+ cursor.getIntensity();
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,126 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * The CallbackRegistry routes incoming messages to callbacks by key (e.g., the
+ * topic name). It is a copy-on-write table: lookups read an immutable snapshot
+ * without locking, so the WebSocket thread never waits on or races with
+ * threads that register or deregister callbacks. Changes copy the affected
+ * list and publish a new snapshot while holding a lock, which keeps them
+ * atomic with respect to each other.
+ *
+ * @param <T>
+ *            The type of callback.
+ * @version October 18, 2026
+ */
+class CallbackRegistry<T> {
+
+	// the current snapshot; neither the map nor its lists are ever modified
+	private volatile HashMap<String, List<T>> routes;
+
+	// serializes writers
+	private final Object lock;
+
+	/**
+	 * Create a new, empty registry.
+	 */
+	CallbackRegistry() {
+		this.routes = new HashMap<String, List<T>>();
+		this.lock = new Object();
+	}
+
+	/**
+	 * Get the callbacks for the given key. The returned list is an immutable
+	 * snapshot and is safe to iterate while callbacks are being changed.
+	 *
+	 * @param key
+	 *            The key to look up.
+	 * @return The callbacks for the key, or null if there are none.
+	 */
+	List<T> get(String key) {
+		return this.routes.get(key);
+	}
+
+	/**
+	 * Check if there are no callbacks at all.
+	 *
+	 * @return If there are no callbacks.
+	 */
+	boolean isEmpty() {
+		return this.routes.isEmpty();
+	}
+
+	/**
+	 * Get the number of keys with at least one callback.
+	 *
+	 * @return The number of keys.
+	 */
+	int size() {
+		return this.routes.size();
+	}
+
+	/**
+	 * Add a callback for the given key.
+	 *
+	 * @param key
+	 *            The key to add the callback to.
+	 * @param cb
+	 *            The callback to add.
+	 */
+	void add(String key, T cb) {
+		synchronized (this.lock) {
+			List<T> old = this.routes.get(key);
+			ArrayList<T> callbacks = old == null ? new ArrayList<T>(1)
+					: new ArrayList<T>(old);
+			callbacks.add(cb);
+			this.publish(key, callbacks);
+		}
+	}
+
+	/**
+	 * Remove a callback for the given key. The key is removed once it has no
+	 * callbacks left.
+	 *
+	 * @param key
+	 *            The key to remove the callback from.
+	 * @param cb
+	 *            The callback to remove.
+	 * @return If the callback was found.
+	 */
+	boolean remove(String key, T cb) {
+		synchronized (this.lock) {
+			List<T> old = this.routes.get(key);
+			if (old == null || !old.contains(cb)) {
+				return false;
+			}
+			ArrayList<T> callbacks = new ArrayList<T>(old);
+			callbacks.remove(cb);
+			this.publish(key, callbacks);
+			return true;
+		}
+	}
+
+	/**
+	 * Publish a new snapshot with the given callbacks for a key. Must be called
+	 * while holding the lock.
+	 *
+	 * @param key
+	 *            The key to replace.
+	 * @param callbacks
+	 *            The new callbacks for the key.
+	 */
+	private void publish(String key, ArrayList<T> callbacks) {
+		HashMap<String, List<T>> next = new HashMap<String, List<T>>(
+				this.routes);
+		if (callbacks.isEmpty()) {
+			next.remove(key);
+		} else {
+			next.put(key, Collections.unmodifiableList(callbacks));
+		}
+		this.routes = next;
+	}
+}
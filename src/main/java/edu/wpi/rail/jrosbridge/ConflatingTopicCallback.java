@@ -0,0 +1,260 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+
+import edu.wpi.rail.jrosbridge.callback.TopicCallback;
+import edu.wpi.rail.jrosbridge.messages.Message;
+
+/**
+ * The ConflatingTopicCallback hands messages to a slow callback without
+ * building up a backlog. Incoming messages are only stored, and the callback is
+ * run on its own thread with the newest stored message whenever it is free.
+ * Only the newest undelivered message is kept, either for the whole topic or
+ * for each value of a key field (e.g., "header.frame_id"); a message replaced
+ * before it was delivered is counted as superseded.
+ *
+ * @version October 18, 2026
+ */
+public class ConflatingTopicCallback implements TopicCallback {
+
+	private final TopicCallback callback;
+	private final String[] keyPath;
+	private final ExecutorService executor;
+
+	// the newest undelivered message for each key, guarded by itself
+	private final LinkedHashMap<String, Message> pending;
+	private boolean scheduled;
+	private boolean closed;
+
+	private final AtomicLong received;
+	private final AtomicLong superseded;
+	private final AtomicLong delivered;
+
+	/**
+	 * Create a new conflating callback which keeps only the newest undelivered
+	 * message of the topic.
+	 *
+	 * @param callback
+	 *            The callback to hand the newest message to.
+	 */
+	public ConflatingTopicCallback(TopicCallback callback) {
+		this(callback, null);
+	}
+
+	/**
+	 * Create a new conflating callback which keeps the newest undelivered
+	 * message for each value of the given key field. Messages without the key
+	 * field share a single entry.
+	 *
+	 * @param callback
+	 *            The callback to hand the newest messages to.
+	 * @param key
+	 *            The dot separated path of the key field in the message (e.g.,
+	 *            "header.frame_id"), or null to keep a single message.
+	 */
+	public ConflatingTopicCallback(TopicCallback callback, String key) {
+		this.callback = callback;
+		this.keyPath = key == null ? null : key.split("\\.");
+		this.executor = Executors.newSingleThreadExecutor(ThreadSupport
+				.newThreadFactory("jrosbridge-conflate"));
+		this.pending = new LinkedHashMap<String, Message>();
+		this.scheduled = false;
+		this.closed = false;
+		this.received = new AtomicLong();
+		this.superseded = new AtomicLong();
+		this.delivered = new AtomicLong();
+	}
+
+	/**
+	 * Get the callback the newest messages are handed to.
+	 *
+	 * @return The wrapped callback.
+	 */
+	public TopicCallback getCallback() {
+		return this.callback;
+	}
+
+	/**
+	 * Get the path of the key field.
+	 *
+	 * @return The dot separated path of the key field, or null if only a
+	 *         single message is kept.
+	 */
+	public String getKey() {
+		if (this.keyPath == null) {
+			return null;
+		}
+		StringBuilder sb = new StringBuilder(this.keyPath[0]);
+		for (int i = 1; i < this.keyPath.length; i++) {
+			sb.append('.').append(this.keyPath[i]);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Get the number of messages received.
+	 *
+	 * @return The number of messages received.
+	 */
+	public long getReceived() {
+		return this.received.get();
+	}
+
+	/**
+	 * Get the number of messages replaced by a newer message before they were
+	 * delivered.
+	 *
+	 * @return The number of superseded messages.
+	 */
+	public long getSuperseded() {
+		return this.superseded.get();
+	}
+
+	/**
+	 * Get the number of messages handed to the callback.
+	 *
+	 * @return The number of delivered messages.
+	 */
+	public long getDelivered() {
+		return this.delivered.get();
+	}
+
+	/**
+	 * Get the number of messages waiting to be delivered.
+	 *
+	 * @return The number of pending messages (at most one per key).
+	 */
+	public int getPending() {
+		synchronized (this.pending) {
+			return this.pending.size();
+		}
+	}
+
+	/**
+	 * Check if this callback has been closed.
+	 *
+	 * @return If this callback has been closed.
+	 */
+	public boolean isClosed() {
+		synchronized (this.pending) {
+			return this.closed;
+		}
+	}
+
+	/**
+	 * Store the given message, replacing any undelivered message with the same
+	 * key, and schedule delivery if the callback is free. This never blocks on
+	 * the callback.
+	 *
+	 * @param message
+	 *            The message that was received.
+	 */
+	@Override
+	public void handleMessage(Message message) {
+		String key = this.keyOf(message.toJsonObject());
+		synchronized (this.pending) {
+			if (this.closed) {
+				return;
+			}
+			this.received.incrementAndGet();
+			if (this.pending.put(key, message) != null) {
+				this.superseded.incrementAndGet();
+			}
+			if (this.scheduled) {
+				return;
+			}
+			this.scheduled = true;
+		}
+
+		try {
+			this.executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					ConflatingTopicCallback.this.drain();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// closed in the meantime
+			synchronized (this.pending) {
+				this.scheduled = false;
+			}
+		}
+	}
+
+	/**
+	 * Deliver pending messages, oldest key first, until there are none left.
+	 */
+	private void drain() {
+		while (true) {
+			Message message;
+			synchronized (this.pending) {
+				Iterator<Map.Entry<String, Message>> it = this.pending
+						.entrySet().iterator();
+				if (this.closed || !it.hasNext()) {
+					this.scheduled = false;
+					return;
+				}
+				message = it.next().getValue();
+				it.remove();
+			}
+
+			this.delivered.incrementAndGet();
+			try {
+				this.callback.handleMessage(message);
+			} catch (RuntimeException e) {
+				System.err.println("[ERROR]: Conflated callback failed: "
+						+ e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Stop delivering messages. Pending messages are discarded; a message that
+	 * is being delivered is allowed to finish.
+	 */
+	public void close() {
+		synchronized (this.pending) {
+			this.closed = true;
+			this.pending.clear();
+		}
+		this.executor.shutdown();
+	}
+
+	/**
+	 * Get the key of the given message.
+	 *
+	 * @param json
+	 *            The JSON of the message.
+	 * @return The value of the key field, or the empty String if there is no
+	 *         key field or the message does not have it.
+	 */
+	private String keyOf(JsonObject json) {
+		if (this.keyPath == null) {
+			return "";
+		}
+		JsonValue value = json;
+		for (String field : this.keyPath) {
+			if (!(value instanceof JsonObject)) {
+				return "";
+			}
+			value = ((JsonObject) value).get(field);
+		}
+		if (value == null) {
+			return "";
+		} else if (value instanceof JsonString) {
+			return ((JsonString) value).getString();
+		} else {
+			return value.toString();
+		}
+	}
+}
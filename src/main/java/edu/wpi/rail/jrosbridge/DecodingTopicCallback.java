@@ -0,0 +1,126 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.io.StringReader;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.json.stream.JsonParser;
+
+import edu.wpi.rail.jrosbridge.callback.TopicCallback;
+import edu.wpi.rail.jrosbridge.callback.TypedTopicCallback;
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoder;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+
+/**
+ * The DecodingTopicCallback is the single topic callback registered for all
+ * typed callbacks of a typed topic. Each incoming message is decoded once and
+ * the same instance is handed to every typed callback. When all callbacks of
+ * a topic decode, the Ros connection decodes text frames straight from the
+ * frame (see {@link #decode(String)}), without building a JSON object for the
+ * frame at all; otherwise the message is decoded from the generic message.
+ *
+ * @param <T>
+ *            The type of message decoded.
+ * @version October 18, 2026
+ */
+class DecodingTopicCallback<T extends Message> implements TopicCallback {
+
+	private final MessageDecoder<T> decoder;
+	private final CopyOnWriteArrayList<TypedTopicCallback<? super T>> callbacks;
+
+	/**
+	 * Create a new decoding callback without typed callbacks.
+	 *
+	 * @param decoder
+	 *            The decoder of the message type.
+	 */
+	DecodingTopicCallback(MessageDecoder<T> decoder) {
+		this.decoder = decoder;
+		this.callbacks = new CopyOnWriteArrayList<TypedTopicCallback<? super T>>();
+	}
+
+	/**
+	 * Get the decoder of the message type.
+	 *
+	 * @return The decoder.
+	 */
+	MessageDecoder<T> getDecoder() {
+		return this.decoder;
+	}
+
+	/**
+	 * Add a typed callback.
+	 *
+	 * @param cb
+	 *            The callback to add.
+	 * @return If it is the first callback.
+	 */
+	boolean add(TypedTopicCallback<? super T> cb) {
+		this.callbacks.add(cb);
+		return this.callbacks.size() == 1;
+	}
+
+	/**
+	 * Remove all typed callbacks.
+	 */
+	void clear() {
+		this.callbacks.clear();
+	}
+
+	/**
+	 * Get the number of typed callbacks.
+	 *
+	 * @return The number of typed callbacks.
+	 */
+	int size() {
+		return this.callbacks.size();
+	}
+
+	/**
+	 * Decode the message of the given publish frame.
+	 *
+	 * @param frame
+	 *            The JSON text of the frame.
+	 * @return The decoded message, or null if the frame has no message.
+	 */
+	T decode(String frame) {
+		return MessageDecoders.decodeMessage(this.decoder, frame);
+	}
+
+	/**
+	 * Decode the given generic message and call each typed callback with it.
+	 * This is used when the frame was already parsed for other callbacks.
+	 *
+	 * @param message
+	 *            The message that was received.
+	 */
+	@Override
+	public void handleMessage(Message message) {
+		T decoded;
+		// the message keeps its JSON text, so stream it again
+		try (JsonParser parser = JsonStreams.createParser(new StringReader(
+				message.toString()))) {
+			JsonStreams.beginObject(parser);
+			decoded = this.decoder.decode(parser);
+		} catch (RuntimeException e) {
+			// decoders also throw (e.g.) NumberFormatException on bad values
+			System.err.println("[WARN]: Invalid incoming rosbridge protocol: "
+					+ message);
+			return;
+		}
+		this.handleDecoded(decoded);
+	}
+
+	/**
+	 * Call each typed callback with the given decoded message.
+	 *
+	 * @param message
+	 *            The decoded message.
+	 */
+	void handleDecoded(T message) {
+		for (TypedTopicCallback<? super T> cb : this.callbacks) {
+			cb.handleMessage(message);
+		}
+	}
+}
@@ -0,0 +1,193 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The DecompressionExecutor decompresses large incoming frames (e.g., "png"
+ * frames holding maps) on a pool of worker threads instead of the WebSocket
+ * I/O thread. Frames are decompressed in parallel, but the decompressed frames
+ * are still handled one at a time in the order they were submitted. Frames
+ * that need no decompression can be queued behind them as well.
+ *
+ * @version October 18, 2026
+ */
+class DecompressionExecutor {
+
+	private final int workers;
+	private final int threshold;
+	private final ExecutorService pool;
+
+	// completes once the last submitted frame has been handled
+	private CompletableFuture<Void> last;
+
+	/**
+	 * Create a new decompression executor and start its worker threads.
+	 *
+	 * @param name
+	 *            The name used for the worker threads.
+	 * @param workers
+	 *            The number of worker threads.
+	 * @param threshold
+	 *            The minimum size, in characters, of the frames to decompress
+	 *            on the workers.
+	 */
+	DecompressionExecutor(String name, int workers, int threshold) {
+		if (workers <= 0) {
+			throw new IllegalArgumentException(
+					"Number of workers must be positive: " + workers);
+		} else if (threshold < 0) {
+			throw new IllegalArgumentException(
+					"Threshold must not be negative: " + threshold);
+		}
+		this.workers = workers;
+		this.threshold = threshold;
+		this.last = CompletableFuture.completedFuture(null);
+
+		this.pool = Executors.newFixedThreadPool(workers,
+				ThreadSupport.newThreadFactory("jrosbridge-decompress-" + name));
+	}
+
+	/**
+	 * Get the number of worker threads.
+	 *
+	 * @return The number of worker threads.
+	 */
+	int getWorkers() {
+		return this.workers;
+	}
+
+	/**
+	 * Get the minimum size of the frames to decompress on the workers.
+	 *
+	 * @return The minimum size, in characters.
+	 */
+	int getThreshold() {
+		return this.threshold;
+	}
+
+	/**
+	 * Decompress a frame on the workers, then handle it once all frames
+	 * submitted before it have been handled. The decompression may give null
+	 * for frames that could not be decompressed, which are passed on to the
+	 * handler as is. If it throws, null is passed on instead so later frames
+	 * are still handled; a RuntimeException is logged, while an Error is
+	 * rethrown on the worker thread.
+	 *
+	 * @param decompress
+	 *            Decompresses the frame.
+	 * @param handle
+	 *            Handles the decompressed frame.
+	 * @return If the frame was submitted, or false if the workers have been
+	 *         stopped.
+	 */
+	<T> boolean submit(final Supplier<T> decompress, final Consumer<T> handle) {
+		final CompletableFuture<T> decompressed = new CompletableFuture<T>();
+		try {
+			this.pool.execute(new Runnable() {
+				@Override
+				public void run() {
+					T frame = null;
+					try {
+						frame = decompress.get();
+					} catch (RuntimeException e) {
+						System.err.println("[ERROR]: Could not decompress frame: "
+								+ e);
+					} finally {
+						// never break the chain for later frames
+						decompressed.complete(frame);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			return false;
+		}
+		synchronized (this) {
+			this.last = this.last.thenAcceptBoth(decompressed,
+					new BiConsumer<Void, T>() {
+						@Override
+						public void accept(Void ignored, T frame) {
+							try {
+								handle.accept(frame);
+							} catch (RuntimeException e) {
+								// never break the chain for later frames
+								System.err.println("[ERROR]: Could not handle decompressed frame: "
+										+ e);
+							}
+						}
+					});
+		}
+		return true;
+	}
+
+	/**
+	 * Check if any submitted frame has not been handled yet.
+	 *
+	 * @return If frames are pending.
+	 */
+	synchronized boolean isPending() {
+		return !this.last.isDone();
+	}
+
+	/**
+	 * Handle a frame that needs no decompression after the frames submitted
+	 * before it, if any of them has not been handled yet, so it does not
+	 * overtake them.
+	 *
+	 * @param handle
+	 *            Handles the frame.
+	 * @return If the frame was queued; false if no frames are pending, in
+	 *         which case the caller should handle it right away.
+	 */
+	boolean submitIfPending(final Runnable handle) {
+		synchronized (this) {
+			if (this.last.isDone()) {
+				return false;
+			}
+			this.last = this.last.thenRun(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						handle.run();
+					} catch (RuntimeException e) {
+						// never break the chain for later frames
+						System.err.println("[ERROR]: Could not handle frame: "
+								+ e);
+					}
+				}
+			});
+		}
+		return true;
+	}
+
+	/**
+	 * Stop accepting frames, and wait for the workers to handle the frames
+	 * already submitted.
+	 *
+	 * @param timeout
+	 *            The maximum time to wait in milliseconds.
+	 * @return If all frames were handled in time.
+	 */
+	boolean shutdown(long timeout) {
+		CompletableFuture<Void> pending;
+		synchronized (this) {
+			pending = this.last;
+		}
+		this.pool.shutdown();
+		try {
+			pending.get(timeout, TimeUnit.MILLISECONDS);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+}
@@ -0,0 +1,502 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.glassfish.tyrus.core.extension.ExtendedExtension;
+import org.glassfish.tyrus.core.frame.Frame;
+
+/**
+ * The DeflateExtension implements the WebSocket permessage-deflate extension
+ * (RFC 7692) for the client side of a rosbridge connection. It is opt-in: set
+ * it on a {@link Ros} object with
+ * {@link Ros#setDeflateExtension(DeflateExtension) setDeflateExtension} before
+ * connecting. If the server does not accept the extension, the connection
+ * falls back to uncompressed frames.
+ * <p>
+ * The compression level, the window size the server should use, and context
+ * takeover in either direction can be configured. Outgoing messages smaller
+ * than a threshold are sent uncompressed; the threshold can be overridden per
+ * topic with {@link Ros#setDeflateThreshold(String, int) setDeflateThreshold}.
+ * The window size of the client cannot be lowered since {@link Deflater}
+ * always uses the full 32K window, so client_max_window_bits is never offered.
+ *
+ * @version October 18, 2026
+ */
+public class DeflateExtension implements ExtendedExtension {
+
+	/**
+	 * The name of the extension.
+	 */
+	public static final String NAME = "permessage-deflate";
+
+	/**
+	 * The parameter asking the server to reset its compression context after
+	 * each message.
+	 */
+	public static final String SERVER_NO_CONTEXT_TAKEOVER = "server_no_context_takeover";
+
+	/**
+	 * The parameter stating that the client resets its compression context
+	 * after each message.
+	 */
+	public static final String CLIENT_NO_CONTEXT_TAKEOVER = "client_no_context_takeover";
+
+	/**
+	 * The parameter limiting the LZ77 window size used by the server.
+	 */
+	public static final String SERVER_MAX_WINDOW_BITS = "server_max_window_bits";
+
+	/**
+	 * The default threshold, in bytes, below which messages are not
+	 * compressed.
+	 */
+	public static final int DEFAULT_THRESHOLD = 64;
+
+	/**
+	 * The largest (and default) window size, in bits.
+	 */
+	public static final int MAX_WINDOW_BITS = 15;
+
+	/**
+	 * The smallest window size, in bits, that can be requested.
+	 */
+	public static final int MIN_WINDOW_BITS = 9;
+
+	// the tail removed from (and restored to) each compressed message
+	private static final byte[] TAIL = new byte[] { 0x00, 0x00, (byte) 0xff,
+			(byte) 0xff };
+
+	// WebSocket opcodes for the frames that start a message
+	private static final byte OPCODE_CONTINUATION = 0x00;
+	private static final byte OPCODE_TEXT = 0x01;
+	private static final byte OPCODE_BINARY = 0x02;
+
+	// keys of the per connection state in the extension context
+	private static final String DEFLATER = DeflateExtension.class.getName()
+			+ ".deflater";
+	private static final String INFLATER = DeflateExtension.class.getName()
+			+ ".inflater";
+	private static final String RESET_DEFLATER = DeflateExtension.class
+			.getName() + ".resetDeflater";
+	private static final String RESET_INFLATER = DeflateExtension.class
+			.getName() + ".resetInflater";
+	private static final String INCOMING_COMPRESSED = DeflateExtension.class
+			.getName() + ".incomingCompressed";
+
+	private volatile int compressionLevel;
+	private volatile int serverMaxWindowBits;
+	private volatile boolean clientNoContextTakeover;
+	private volatile boolean serverNoContextTakeover;
+	private volatile int threshold;
+
+	// the threshold for the next outgoing message (set by Ros before writing)
+	private volatile int nextThreshold;
+
+	/**
+	 * Create a new permessage-deflate extension with the default compression
+	 * level, the full window size, context takeover in both directions, and
+	 * the default threshold.
+	 */
+	public DeflateExtension() {
+		this.compressionLevel = Deflater.DEFAULT_COMPRESSION;
+		this.serverMaxWindowBits = DeflateExtension.MAX_WINDOW_BITS;
+		this.clientNoContextTakeover = false;
+		this.serverNoContextTakeover = false;
+		this.threshold = DeflateExtension.DEFAULT_THRESHOLD;
+		this.nextThreshold = -1;
+	}
+
+	/**
+	 * Get the compression level used for outgoing messages.
+	 *
+	 * @return The compression level (0-9, or -1 for the default).
+	 */
+	public int getCompressionLevel() {
+		return this.compressionLevel;
+	}
+
+	/**
+	 * Set the compression level used for outgoing messages. Lower levels are
+	 * faster; higher levels compress better.
+	 *
+	 * @param compressionLevel
+	 *            The compression level (0-9, or -1 for the default).
+	 */
+	public void setCompressionLevel(int compressionLevel) {
+		if (compressionLevel < Deflater.DEFAULT_COMPRESSION
+				|| compressionLevel > Deflater.BEST_COMPRESSION) {
+			throw new IllegalArgumentException("Invalid compression level: "
+					+ compressionLevel);
+		}
+		this.compressionLevel = compressionLevel;
+	}
+
+	/**
+	 * Get the window size, in bits, the server is asked to use.
+	 *
+	 * @return The window size of the server in bits.
+	 */
+	public int getServerMaxWindowBits() {
+		return this.serverMaxWindowBits;
+	}
+
+	/**
+	 * Set the window size, in bits, the server is asked to use. Smaller
+	 * windows use less memory on the server at the cost of compression.
+	 *
+	 * @param serverMaxWindowBits
+	 *            The window size of the server in bits (9-15).
+	 */
+	public void setServerMaxWindowBits(int serverMaxWindowBits) {
+		if (serverMaxWindowBits < DeflateExtension.MIN_WINDOW_BITS
+				|| serverMaxWindowBits > DeflateExtension.MAX_WINDOW_BITS) {
+			throw new IllegalArgumentException("Invalid window bits: "
+					+ serverMaxWindowBits);
+		}
+		this.serverMaxWindowBits = serverMaxWindowBits;
+	}
+
+	/**
+	 * Check if the client resets its compression context after each message.
+	 *
+	 * @return If the client resets its compression context.
+	 */
+	public boolean isClientNoContextTakeover() {
+		return this.clientNoContextTakeover;
+	}
+
+	/**
+	 * Set if the client resets its compression context after each message.
+	 * This lowers memory use and allows messages to be decompressed on their
+	 * own, but compresses repetitive streams less well.
+	 *
+	 * @param clientNoContextTakeover
+	 *            If the client resets its compression context.
+	 */
+	public void setClientNoContextTakeover(boolean clientNoContextTakeover) {
+		this.clientNoContextTakeover = clientNoContextTakeover;
+	}
+
+	/**
+	 * Check if the server is asked to reset its compression context after each
+	 * message.
+	 *
+	 * @return If the server is asked to reset its compression context.
+	 */
+	public boolean isServerNoContextTakeover() {
+		return this.serverNoContextTakeover;
+	}
+
+	/**
+	 * Set if the server is asked to reset its compression context after each
+	 * message.
+	 *
+	 * @param serverNoContextTakeover
+	 *            If the server is asked to reset its compression context.
+	 */
+	public void setServerNoContextTakeover(boolean serverNoContextTakeover) {
+		this.serverNoContextTakeover = serverNoContextTakeover;
+	}
+
+	/**
+	 * Get the size, in bytes, below which outgoing messages are not
+	 * compressed.
+	 *
+	 * @return The compression threshold in bytes.
+	 */
+	public int getThreshold() {
+		return this.threshold;
+	}
+
+	/**
+	 * Set the size, in bytes, below which outgoing messages are not
+	 * compressed. Small messages rarely shrink enough to be worth the effort.
+	 *
+	 * @param threshold
+	 *            The compression threshold in bytes.
+	 */
+	public void setThreshold(int threshold) {
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Set the threshold to use for the next outgoing message. {@link Ros}
+	 * calls this (while holding its write lock) before writing each message so
+	 * that per topic thresholds apply.
+	 *
+	 * @param nextThreshold
+	 *            The threshold in bytes, or -1 to use the default threshold.
+	 */
+	void setNextThreshold(int nextThreshold) {
+		this.nextThreshold = nextThreshold;
+	}
+
+	/**
+	 * Get the name of this extension.
+	 *
+	 * @return The name of this extension.
+	 */
+	@Override
+	public String getName() {
+		return DeflateExtension.NAME;
+	}
+
+	/**
+	 * Get the parameters offered to the server.
+	 *
+	 * @return The parameters offered to the server.
+	 */
+	@Override
+	public List<Parameter> getParameters() {
+		List<Parameter> parameters = new ArrayList<Parameter>();
+		if (this.clientNoContextTakeover) {
+			parameters.add(new DeflateParameter(
+					DeflateExtension.CLIENT_NO_CONTEXT_TAKEOVER, null));
+		}
+		if (this.serverNoContextTakeover) {
+			parameters.add(new DeflateParameter(
+					DeflateExtension.SERVER_NO_CONTEXT_TAKEOVER, null));
+		}
+		if (this.serverMaxWindowBits < DeflateExtension.MAX_WINDOW_BITS) {
+			parameters.add(new DeflateParameter(
+					DeflateExtension.SERVER_MAX_WINDOW_BITS, Integer
+							.toString(this.serverMaxWindowBits)));
+		}
+		return parameters;
+	}
+
+	/**
+	 * Called on the server side only; the client offers its parameters and
+	 * does not negotiate.
+	 *
+	 * @param context
+	 *            The extension context.
+	 * @param requestedParameters
+	 *            The parameters requested by the client.
+	 * @return An empty list.
+	 */
+	@Override
+	public List<Parameter> onExtensionNegotiation(ExtensionContext context,
+			List<Parameter> requestedParameters) {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Set up the compression state for a new connection based on the
+	 * parameters accepted by the server.
+	 *
+	 * @param context
+	 *            The extension context of the connection.
+	 * @param responseParameters
+	 *            The parameters in the response of the server.
+	 */
+	@Override
+	public void onHandshakeResponse(ExtensionContext context,
+			List<Parameter> responseParameters) {
+		// the server may require the client not to take over its context
+		boolean resetDeflater = this.clientNoContextTakeover;
+		boolean resetInflater = false;
+		for (Parameter p : responseParameters) {
+			if (p.getName().equals(DeflateExtension.CLIENT_NO_CONTEXT_TAKEOVER)) {
+				resetDeflater = true;
+			} else if (p.getName().equals(
+					DeflateExtension.SERVER_NO_CONTEXT_TAKEOVER)) {
+				resetInflater = true;
+			}
+		}
+		context.getProperties().put(DEFLATER,
+				new Deflater(this.compressionLevel, true));
+		context.getProperties().put(INFLATER, new Inflater(true));
+		context.getProperties().put(RESET_DEFLATER, resetDeflater);
+		context.getProperties().put(RESET_INFLATER, resetInflater);
+		context.getProperties().put(INCOMING_COMPRESSED, false);
+	}
+
+	/**
+	 * Decompress an incoming frame if it belongs to a compressed message.
+	 *
+	 * @param context
+	 *            The extension context of the connection.
+	 * @param frame
+	 *            The incoming frame.
+	 * @return The decompressed frame, or the original frame if it was not
+	 *         compressed.
+	 */
+	@Override
+	public Frame processIncoming(ExtensionContext context, Frame frame) {
+		Inflater inflater = (Inflater) context.getProperties().get(INFLATER);
+		if (inflater == null || frame.isControlFrame()) {
+			return frame;
+		}
+
+		// only the first frame of a message carries the compressed bit
+		boolean compressed;
+		if (frame.getOpcode() == OPCODE_CONTINUATION) {
+			compressed = (Boolean) context.getProperties().get(
+					INCOMING_COMPRESSED);
+		} else {
+			compressed = frame.isRsv1();
+			context.getProperties().put(INCOMING_COMPRESSED, compressed);
+		}
+		if (!compressed) {
+			return frame;
+		}
+
+		byte[] data;
+		synchronized (inflater) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(
+					frame.getPayloadData().length * 4);
+			try {
+				inflate(inflater, frame.getPayloadData(), out);
+				if (frame.isFin()) {
+					inflate(inflater, TAIL, out);
+					if ((Boolean) context.getProperties().get(RESET_INFLATER)) {
+						inflater.reset();
+					}
+				}
+			} catch (DataFormatException e) {
+				throw new IllegalStateException("Invalid compressed frame: "
+						+ e.getMessage());
+			}
+			data = out.toByteArray();
+		}
+		return Frame.builder(frame).rsv1(false).payloadData(data)
+				.payloadLength(data.length).build();
+	}
+
+	/**
+	 * Compress an outgoing frame if it is a complete text or binary message at
+	 * least as large as the threshold.
+	 *
+	 * @param context
+	 *            The extension context of the connection.
+	 * @param frame
+	 *            The outgoing frame.
+	 * @return The compressed frame, or the original frame if it is not
+	 *         compressed.
+	 */
+	@Override
+	public Frame processOutgoing(ExtensionContext context, Frame frame) {
+		Deflater deflater = (Deflater) context.getProperties().get(DEFLATER);
+		int limit = this.nextThreshold >= 0 ? this.nextThreshold
+				: this.threshold;
+		// messages split over several frames are never compressed
+		if (deflater == null
+				|| !frame.isFin()
+				|| (frame.getOpcode() != OPCODE_TEXT && frame.getOpcode() != OPCODE_BINARY)
+				|| frame.getPayloadLength() < limit) {
+			return frame;
+		}
+
+		byte[] data;
+		synchronized (deflater) {
+			deflater.setInput(frame.getPayloadData());
+			ByteArrayOutputStream out = new ByteArrayOutputStream(
+					(int) frame.getPayloadLength() / 2 + 16);
+			byte[] buffer = new byte[4096];
+			int n;
+			do {
+				n = deflater.deflate(buffer, 0, buffer.length,
+						Deflater.SYNC_FLUSH);
+				out.write(buffer, 0, n);
+			} while (n == buffer.length);
+			if ((Boolean) context.getProperties().get(RESET_DEFLATER)) {
+				deflater.reset();
+			}
+			data = out.toByteArray();
+		}
+
+		// remove the empty block added by the flush
+		int length = data.length;
+		if (length >= TAIL.length && data[length - 4] == TAIL[0]
+				&& data[length - 3] == TAIL[1] && data[length - 2] == TAIL[2]
+				&& data[length - 1] == TAIL[3]) {
+			length -= TAIL.length;
+		}
+		byte[] payload = new byte[length];
+		System.arraycopy(data, 0, payload, 0, length);
+		return Frame.builder(frame).rsv1(true).payloadData(payload)
+				.payloadLength(length).build();
+	}
+
+	/**
+	 * Release the compression state of a closed connection.
+	 *
+	 * @param context
+	 *            The extension context of the connection.
+	 */
+	@Override
+	public void destroy(ExtensionContext context) {
+		Deflater deflater = (Deflater) context.getProperties().remove(DEFLATER);
+		if (deflater != null) {
+			deflater.end();
+		}
+		Inflater inflater = (Inflater) context.getProperties().remove(INFLATER);
+		if (inflater != null) {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Inflate all of the given input.
+	 *
+	 * @param inflater
+	 *            The inflater to use.
+	 * @param input
+	 *            The compressed input.
+	 * @param out
+	 *            The stream to write the decompressed output to.
+	 * @throws DataFormatException
+	 *             If the input is not valid compressed data.
+	 */
+	private static void inflate(Inflater inflater, byte[] input,
+			ByteArrayOutputStream out) throws DataFormatException {
+		inflater.setInput(input);
+		byte[] buffer = new byte[4096];
+		int n;
+		do {
+			n = inflater.inflate(buffer);
+			out.write(buffer, 0, n);
+		} while (n > 0);
+	}
+
+	/**
+	 * A single parameter of the extension.
+	 *
+	 * @version October 18, 2026
+	 */
+	private static class DeflateParameter implements Parameter {
+
+		private final String name;
+		private final String value;
+
+		/**
+		 * Create a new parameter.
+		 *
+		 * @param name
+		 *            The name of the parameter.
+		 * @param value
+		 *            The value of the parameter, or null for flags.
+		 */
+		private DeflateParameter(String name, String value) {
+			this.name = name;
+			this.value = value;
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public String getValue() {
+			return this.value;
+		}
+	}
+}
@@ -0,0 +1,300 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The DispatchExecutor runs incoming message callbacks on a pool of worker
+ * threads instead of the WebSocket I/O thread. Tasks are grouped into lanes by
+ * key (e.g., the topic name): tasks in the same lane run one at a time in the
+ * order they were dispatched, while different lanes run in parallel. Each lane
+ * holds a bounded number of pending tasks and applies an overflow policy when
+ * it is full, so one slow topic cannot exhaust memory or hold up the others.
+ * On Java 21 and newer, the workers are virtual threads.
+ *
+ * @version October 18, 2026
+ */
+class DispatchExecutor {
+
+	// the number of tasks a lane runs before giving other lanes a turn
+	private static final int BATCH_SIZE = 16;
+
+	private final int workers;
+	private final int queueDepth;
+	private final JRosbridge.OverflowPolicy policy;
+	private final ExecutorService pool;
+
+	// lanes with pending or running tasks, guarded by the lock
+	private final HashMap<String, Lane> lanes;
+	private final ReentrantLock lock;
+	private final Condition notFull;
+	private boolean running;
+
+	/**
+	 * Create a new dispatch executor and start its worker threads.
+	 *
+	 * @param name
+	 *            The name used for the worker threads.
+	 * @param workers
+	 *            The number of worker threads.
+	 * @param queueDepth
+	 *            The maximum number of pending tasks in each lane.
+	 * @param policy
+	 *            The policy to apply when a lane is full.
+	 */
+	DispatchExecutor(String name, int workers, int queueDepth,
+			JRosbridge.OverflowPolicy policy) {
+		if (workers <= 0) {
+			throw new IllegalArgumentException(
+					"Number of workers must be positive: " + workers);
+		} else if (queueDepth <= 0) {
+			throw new IllegalArgumentException(
+					"Queue depth must be positive: " + queueDepth);
+		}
+		this.workers = workers;
+		this.queueDepth = queueDepth;
+		this.policy = policy;
+		this.lanes = new HashMap<String, Lane>();
+		this.lock = new ReentrantLock();
+		this.notFull = this.lock.newCondition();
+		this.running = true;
+
+		this.pool = Executors.newFixedThreadPool(workers,
+				ThreadSupport.newThreadFactory("jrosbridge-dispatch-" + name));
+	}
+
+	/**
+	 * Get the number of worker threads.
+	 *
+	 * @return The number of worker threads.
+	 */
+	int getWorkers() {
+		return this.workers;
+	}
+
+	/**
+	 * Get the maximum number of pending tasks in each lane.
+	 *
+	 * @return The maximum number of pending tasks in each lane.
+	 */
+	int getQueueDepth() {
+		return this.queueDepth;
+	}
+
+	/**
+	 * Get the policy applied when a lane is full.
+	 *
+	 * @return The policy applied when a lane is full.
+	 */
+	JRosbridge.OverflowPolicy getPolicy() {
+		return this.policy;
+	}
+
+	/**
+	 * Get the number of lanes with pending or running tasks.
+	 *
+	 * @return The number of active lanes.
+	 */
+	int getActiveLanes() {
+		this.lock.lock();
+		try {
+			return this.lanes.size();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Run the given task after all tasks previously dispatched with the same
+	 * key. If the lane is full, the overflow policy is applied: blocking waits
+	 * for room (holding up the caller, and so the connection), while the other
+	 * policies drop a task without waiting.
+	 *
+	 * @param key
+	 *            The key of the lane (e.g., the topic name).
+	 * @param task
+	 *            The task to run.
+	 * @return If the task was accepted.
+	 */
+	boolean dispatch(String key, Runnable task) {
+		Lane toSchedule = null;
+		this.lock.lock();
+		try {
+			Lane lane;
+			while (true) {
+				if (!this.running) {
+					return false;
+				}
+
+				// look the lane up again after waiting since an empty lane is
+				// removed once its worker finishes
+				lane = this.lanes.get(key);
+				if (lane == null) {
+					lane = new Lane(key);
+					this.lanes.put(key, lane);
+				}
+				if (lane.tasks.size() < this.queueDepth) {
+					break;
+				} else if (this.policy == JRosbridge.OverflowPolicy.BLOCK) {
+					try {
+						this.notFull.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return false;
+					}
+				} else if (this.policy == JRosbridge.OverflowPolicy.DROP_OLDEST) {
+					lane.tasks.pollFirst();
+				} else if (this.policy == JRosbridge.OverflowPolicy.FAIL) {
+					System.err.println("[ERROR]: Dispatch queue for " + key
+							+ " is full");
+					return false;
+				} else {
+					System.err.println("[WARN]: Dispatch queue for " + key
+							+ " is full, dropping message");
+					return false;
+				}
+			}
+
+			lane.tasks.addLast(task);
+			if (!lane.scheduled) {
+				lane.scheduled = true;
+				toSchedule = lane;
+			}
+		} finally {
+			this.lock.unlock();
+		}
+
+		if (toSchedule != null) {
+			this.schedule(toSchedule);
+		}
+		return true;
+	}
+
+	/**
+	 * Stop accepting tasks. Tasks that are already pending still run.
+	 *
+	 * @param timeout
+	 *            The time, in milliseconds, to wait for pending tasks.
+	 * @return If all pending tasks finished within the timeout.
+	 */
+	boolean shutdown(long timeout) {
+		this.lock.lock();
+		try {
+			this.running = false;
+			this.notFull.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+
+		// wait for the lanes to drain before stopping the workers
+		long deadline = System.currentTimeMillis() + timeout;
+		try {
+			while (this.getActiveLanes() > 0
+					&& System.currentTimeMillis() < deadline) {
+				Thread.sleep(1);
+			}
+			this.pool.shutdown();
+			return this.pool.awaitTermination(
+					Math.max(0, deadline - System.currentTimeMillis()),
+					TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Hand the given lane to the worker pool.
+	 *
+	 * @param lane
+	 *            The lane to run.
+	 */
+	private void schedule(final Lane lane) {
+		try {
+			this.pool.execute(new Runnable() {
+				@Override
+				public void run() {
+					drain(lane);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// the pool was stopped, drop whatever is left
+			this.lock.lock();
+			try {
+				lane.tasks.clear();
+				this.lanes.remove(lane.key);
+				this.notFull.signalAll();
+			} finally {
+				this.lock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Run a batch of tasks from the given lane, then either reschedule it (if
+	 * more tasks are pending) or remove it.
+	 *
+	 * @param lane
+	 *            The lane to run.
+	 */
+	private void drain(Lane lane) {
+		for (int i = 0; i < DispatchExecutor.BATCH_SIZE; i++) {
+			Runnable task;
+			this.lock.lock();
+			try {
+				task = lane.tasks.pollFirst();
+				if (task == null) {
+					// nothing left, so the lane is no longer needed
+					lane.scheduled = false;
+					this.lanes.remove(lane.key);
+					return;
+				}
+				this.notFull.signalAll();
+			} finally {
+				this.lock.unlock();
+			}
+
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				System.err.println("[ERROR]: Callback for " + lane.key
+						+ " failed: " + e);
+			}
+		}
+
+		// give other lanes a turn
+		this.schedule(lane);
+	}
+
+	/**
+	 * The pending tasks for a single key.
+	 *
+	 * @version October 18, 2026
+	 */
+	private static class Lane {
+
+		private final String key;
+		private final ArrayDeque<Runnable> tasks;
+
+		// if the lane has been handed to the pool
+		private boolean scheduled;
+
+		/**
+		 * Create a new, empty lane.
+		 *
+		 * @param key
+		 *            The key of the lane.
+		 */
+		private Lane(String key) {
+			this.key = key;
+			this.tasks = new ArrayDeque<Runnable>();
+			this.scheduled = false;
+		}
+	}
+}
@@ -0,0 +1,302 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * The FragmentAssembler reassembles messages that rosbridge has split into
+ * "fragment" operations (e.g., for subscriptions with a fragment size).
+ * Fragments are grouped by message ID and kept by index, so each piece is
+ * stored exactly once and the complete message is built in a single pass.
+ * Only the fragments actually received take memory, whatever total the
+ * fragments declare. Partial messages expire after a timeout, and the total
+ * number of characters held by partial messages is capped; when the cap would
+ * be exceeded, the oldest partial messages are discarded first.
+ *
+ * @version October 18, 2026
+ */
+class FragmentAssembler {
+
+	/**
+	 * The default time, in milliseconds, a partial message is kept without
+	 * receiving a new fragment.
+	 */
+	static final long DEFAULT_TIMEOUT = 10000;
+
+	/**
+	 * The default maximum number of characters held by all partial messages.
+	 */
+	static final int DEFAULT_MAX_BUFFERED = 64 * 1024 * 1024;
+
+	private long timeout;
+	private int maxBuffered;
+
+	// partial messages by ID, oldest first
+	private final LinkedHashMap<String, Partial> partials;
+
+	// the number of characters currently held by all partial messages
+	private long buffered;
+
+	/**
+	 * Create a new assembler with the default timeout and memory cap.
+	 */
+	FragmentAssembler() {
+		this(FragmentAssembler.DEFAULT_TIMEOUT,
+				FragmentAssembler.DEFAULT_MAX_BUFFERED);
+	}
+
+	/**
+	 * Create a new assembler with the given timeout and memory cap.
+	 *
+	 * @param timeout
+	 *            The time, in milliseconds, a partial message is kept without
+	 *            receiving a new fragment.
+	 * @param maxBuffered
+	 *            The maximum number of characters held by all partial
+	 *            messages.
+	 */
+	FragmentAssembler(long timeout, int maxBuffered) {
+		this.timeout = timeout;
+		this.maxBuffered = maxBuffered;
+		this.partials = new LinkedHashMap<String, Partial>();
+		this.buffered = 0;
+	}
+
+	/**
+	 * Get the time, in milliseconds, a partial message is kept without
+	 * receiving a new fragment.
+	 *
+	 * @return The timeout in milliseconds.
+	 */
+	synchronized long getTimeout() {
+		return this.timeout;
+	}
+
+	/**
+	 * Set the time, in milliseconds, a partial message is kept without
+	 * receiving a new fragment.
+	 *
+	 * @param timeout
+	 *            The timeout in milliseconds.
+	 */
+	synchronized void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Get the maximum number of characters held by all partial messages.
+	 *
+	 * @return The maximum number of characters held by all partial messages.
+	 */
+	synchronized int getMaxBuffered() {
+		return this.maxBuffered;
+	}
+
+	/**
+	 * Set the maximum number of characters held by all partial messages.
+	 *
+	 * @param maxBuffered
+	 *            The maximum number of characters held by all partial
+	 *            messages.
+	 */
+	synchronized void setMaxBuffered(int maxBuffered) {
+		this.maxBuffered = maxBuffered;
+	}
+
+	/**
+	 * Get the number of messages currently waiting for more fragments.
+	 *
+	 * @return The number of partial messages.
+	 */
+	synchronized int size() {
+		return this.partials.size();
+	}
+
+	/**
+	 * Get the number of characters currently held by all partial messages.
+	 *
+	 * @return The number of buffered characters.
+	 */
+	synchronized long getBuffered() {
+		return this.buffered;
+	}
+
+	/**
+	 * Add a fragment using the current time.
+	 *
+	 * @param id
+	 *            The ID of the message the fragment belongs to.
+	 * @param num
+	 *            The index of the fragment.
+	 * @param total
+	 *            The total number of fragments in the message.
+	 * @param data
+	 *            The fragment data.
+	 * @return The complete message if this was the last missing fragment, or
+	 *         null otherwise.
+	 */
+	String add(String id, int num, int total, String data) {
+		return this.add(id, num, total, data,
+				System.nanoTime() / 1000000L);
+	}
+
+	/**
+	 * Add a fragment.
+	 *
+	 * @param id
+	 *            The ID of the message the fragment belongs to.
+	 * @param num
+	 *            The index of the fragment.
+	 * @param total
+	 *            The total number of fragments in the message.
+	 * @param data
+	 *            The fragment data.
+	 * @param now
+	 *            The current time in milliseconds.
+	 * @return The complete message if this was the last missing fragment, or
+	 *         null otherwise.
+	 * @throws IllegalArgumentException
+	 *             If the fragment index or count is invalid.
+	 */
+	synchronized String add(String id, int num, int total, String data,
+			long now) {
+		if (total <= 0 || num < 0 || num >= total) {
+			throw new IllegalArgumentException("Invalid fragment " + num
+					+ " of " + total + " for message " + id);
+		}
+		this.expire(now);
+
+		// a single fragment needs no buffering
+		Partial partial = this.partials.get(id);
+		if (partial == null && total == 1) {
+			return data;
+		}
+
+		// a different total means the ID was reused for a new message
+		if (partial != null && partial.total != total) {
+			this.remove(id);
+			partial = null;
+		}
+		if (partial == null) {
+			// every fragment holds at least one character, so a total above
+			// the limit could never fit
+			if (total > this.maxBuffered) {
+				System.err.println("[WARN]: Dropping fragmented message " + id
+						+ ": " + total + " fragments exceed the buffer limit");
+				return null;
+			}
+			partial = new Partial(total);
+			this.partials.put(id, partial);
+		}
+
+		// replace any duplicate of this fragment
+		String old = partial.parts.put(num, data);
+		if (old != null) {
+			partial.chars -= FragmentAssembler.cost(old);
+			this.buffered -= FragmentAssembler.cost(old);
+		}
+		partial.chars += FragmentAssembler.cost(data);
+		partial.updated = now;
+		this.buffered += FragmentAssembler.cost(data);
+
+		if (partial.parts.size() == total) {
+			this.remove(id);
+			StringBuilder sb = new StringBuilder((int) partial.chars);
+			for (int i = 0; i < total; i++) {
+				sb.append(partial.parts.get(i));
+			}
+			return sb.toString();
+		}
+
+		// make room by discarding the oldest partial messages
+		Iterator<String> it = this.partials.keySet().iterator();
+		while (this.buffered > this.maxBuffered && it.hasNext()) {
+			String oldest = it.next();
+			System.err.println("[WARN]: Dropping fragmented message " + oldest
+					+ ": buffer limit exceeded");
+			this.buffered -= this.partials.get(oldest).chars;
+			it.remove();
+		}
+		return null;
+	}
+
+	/**
+	 * Discard all partial messages that have not received a fragment within
+	 * the timeout.
+	 *
+	 * @param now
+	 *            The current time in milliseconds.
+	 */
+	synchronized void expire(long now) {
+		Iterator<Partial> it = this.partials.values().iterator();
+		while (it.hasNext()) {
+			Partial partial = it.next();
+			if (now - partial.updated > this.timeout) {
+				this.buffered -= partial.chars;
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Discard all partial messages.
+	 */
+	synchronized void clear() {
+		this.partials.clear();
+		this.buffered = 0;
+	}
+
+	/**
+	 * Get the number of characters a fragment counts against the buffer limit.
+	 * Each fragment counts as at least one character, so empty fragments
+	 * cannot be buffered without limit.
+	 *
+	 * @param data
+	 *            The fragment data.
+	 * @return The number of characters counted for the fragment.
+	 */
+	private static int cost(String data) {
+		return Math.max(data.length(), 1);
+	}
+
+	/**
+	 * Remove a partial message and release its characters.
+	 *
+	 * @param id
+	 *            The ID of the message.
+	 */
+	private void remove(String id) {
+		Partial partial = this.partials.remove(id);
+		if (partial != null) {
+			this.buffered -= partial.chars;
+		}
+	}
+
+	/**
+	 * A message that is still waiting for fragments.
+	 *
+	 * @version October 18, 2026
+	 */
+	private static class Partial {
+
+		// the received fragments by index
+		private final HashMap<Integer, String> parts;
+		private final int total;
+		private long chars;
+		private long updated;
+
+		/**
+		 * Create a new partial message.
+		 *
+		 * @param total
+		 *            The total number of fragments in the message.
+		 */
+		private Partial(int total) {
+			this.parts = new HashMap<Integer, String>();
+			this.total = total;
+			this.chars = 0;
+			this.updated = 0;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.io.StringReader;
+import java.util.NoSuchElementException;
+
+import javax.json.Json;
+import javax.json.JsonException;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+
+/**
+ * The FrameHeader holds the op code, topic, and ID of an incoming JSON frame,
+ * read by a streaming pre-scan of the start of the frame. The scan stops at
+ * the first object or array value (e.g., the message of a publish call), so it
+ * costs the same for a small message and a large point cloud. This lets a
+ * frame nobody listens to be dropped without building its JSON tree.
+ *
+ * @version October 18, 2026
+ */
+final class FrameHeader {
+
+	// looking up the JSON provider for every frame is expensive
+	private static final JsonParserFactory PARSER_FACTORY = Json
+			.createParserFactory(null);
+
+	private final String op;
+	private final String topic;
+	private final String id;
+
+	/**
+	 * Create a new frame header.
+	 *
+	 * @param op
+	 *            The op code (or null if not found).
+	 * @param topic
+	 *            The topic (or null if not found).
+	 * @param id
+	 *            The ID (or null if not found).
+	 */
+	FrameHeader(String op, String topic, String id) {
+		this.op = op;
+		this.topic = topic;
+		this.id = id;
+	}
+
+	/**
+	 * Get the op code of the frame.
+	 *
+	 * @return The op code, or null if it was not found before the first
+	 *         object or array value.
+	 */
+	String getOp() {
+		return this.op;
+	}
+
+	/**
+	 * Get the topic of the frame.
+	 *
+	 * @return The topic, or null if it was not found before the first object
+	 *         or array value.
+	 */
+	String getTopic() {
+		return this.topic;
+	}
+
+	/**
+	 * Get the ID of the frame.
+	 *
+	 * @return The ID, or null if it was not found before the first object or
+	 *         array value.
+	 */
+	String getId() {
+		return this.id;
+	}
+
+	/**
+	 * Scan the start of the given frame for its op code, topic, and ID. Only
+	 * top level String values are read; the scan stops once all three are
+	 * found or at the first object or array value. Invalid JSON is not
+	 * reported here, the fields found so far are simply returned.
+	 *
+	 * @param frame
+	 *            The JSON frame.
+	 * @return The header of the frame.
+	 */
+	static FrameHeader scan(String frame) {
+		String op = null, topic = null, id = null;
+		try (JsonParser parser = FrameHeader.PARSER_FACTORY
+				.createParser(new StringReader(frame))) {
+			if (parser.hasNext()
+					&& parser.next() == JsonParser.Event.START_OBJECT) {
+				while (parser.hasNext()
+						&& (op == null || topic == null || id == null)) {
+					if (parser.next() != JsonParser.Event.KEY_NAME) {
+						break;
+					}
+					String key = parser.getString();
+					JsonParser.Event value = parser.next();
+					if (value == JsonParser.Event.START_OBJECT
+							|| value == JsonParser.Event.START_ARRAY) {
+						break;
+					} else if (value == JsonParser.Event.VALUE_STRING) {
+						if (key.equals(JRosbridge.FIELD_OP)) {
+							op = parser.getString();
+						} else if (key.equals(JRosbridge.FIELD_TOPIC)) {
+							topic = parser.getString();
+						} else if (key.equals(JRosbridge.FIELD_ID)) {
+							id = parser.getString();
+						}
+					}
+				}
+			}
+		} catch (JsonException | NoSuchElementException e) {
+			// the full parse reports invalid frames
+		}
+		return new FrameHeader(op, topic, id);
+	}
+}
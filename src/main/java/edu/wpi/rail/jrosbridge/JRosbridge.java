@@ -39,6 +39,11 @@ public class JRosbridge {
 	 */
 	public static final String FIELD_END_TIME = "end";
 
+	/**
+	 * The fragment size field for the rosbridge protocol.
+	 */
+	public static final String FIELD_FRAGMENT_SIZE = "fragment_size";
+
 	/**
 	 * The ID field for the rosbridge protocol.
 	 */
@@ -59,11 +64,21 @@ public class JRosbridge {
 	 */
 	public static final String FIELD_MESSAGE = "msg";
 
+	/**
+	 * The fragment number field for the rosbridge protocol.
+	 */
+	public static final String FIELD_NUM = "num";
+
 	/**
 	 * The op code field for the rosbridge protocol.
 	 */
 	public static final String FIELD_OP = "op";
 
+	/**
+	 * The queue length field for the rosbridge protocol.
+	 */
+	public static final String FIELD_QUEUE_LENGTH = "queue_length";
+
 	/**
 	 * The random field for the rosbridge protocol.
 	 */
@@ -84,6 +99,21 @@ public class JRosbridge {
 	 */
 	public static final String FIELD_THROTTLE_RATE = "throttle_rate";
 
+	/**
+	 * The raw message bytes field for the rosbridge protocol.
+	 */
+	public static final String FIELD_BYTES = "bytes";
+
+	/**
+	 * The nanoseconds field for the rosbridge protocol.
+	 */
+	public static final String FIELD_NSECS = "nsecs";
+
+	/**
+	 * The seconds field for the rosbridge protocol.
+	 */
+	public static final String FIELD_SECS = "secs";
+
 	/**
 	 * The time field for the rosbridge protocol.
 	 */
@@ -94,6 +124,11 @@ public class JRosbridge {
 	 */
 	public static final String FIELD_TOPIC = "topic";
 
+	/**
+	 * The fragment count field for the rosbridge protocol.
+	 */
+	public static final String FIELD_TOTAL = "total";
+
 	/**
 	 * The message/service type field for the rosbridge protocol.
 	 */
@@ -129,6 +164,11 @@ public class JRosbridge {
 	 */
 	public static final String OP_CODE_CALL_SERVICE = "call_service";
 
+	/**
+	 * The fragment op code for the rosbridge protocol.
+	 */
+	public static final String OP_CODE_FRAGMENT = "fragment";
+
 	/**
 	 * The png compression op code for the rosbridge protocol.
 	 */
@@ -170,12 +210,56 @@ public class JRosbridge {
 	}
 
 	/**
-	 * The types of compression supported by jrosbridge and rosbridge.
+	 * The policies that can be applied when a bounded outbound queue is full.
+	 * 
+	 * @version October 18, 2026
+	 */
+	public enum OverflowPolicy {
+		/**
+		 * Block the calling thread until space is available.
+		 */
+		BLOCK,
+
+		/**
+		 * Discard the oldest queued entry to make room for the new one.
+		 */
+		DROP_OLDEST,
+
+		/**
+		 * Discard the new entry and keep the queue as it is.
+		 */
+		DROP_NEWEST,
+
+		/**
+		 * Reject the new entry with an error.
+		 */
+		FAIL
+	}
+
+	/**
+	 * The types of compression supported by jrosbridge and rosbridge. The
+	 * String representation of each type is its name in the rosbridge
+	 * protocol.
 	 * 
 	 * @author Russell Toris - russell.toris@gmail.com
 	 * @version April 1, 2014
 	 */
 	public enum CompressionType {
-		png, none
+		png, cbor, cbor_raw {
+			@Override
+			public String toString() {
+				return "cbor-raw";
+			}
+		},
+		none
+	}
+
+	/**
+	 * The wire encodings jrosbridge can use for outgoing frames.
+	 * 
+	 * @version October 18, 2026
+	 */
+	public enum EncodingType {
+		json, cbor, bson
 	}
 }
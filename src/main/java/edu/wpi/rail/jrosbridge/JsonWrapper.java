@@ -1,9 +1,15 @@
 package edu.wpi.rail.jrosbridge;
 
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Map;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 
 /**
  * JsonWrapper objects are used as a wrapper around JSON objects. That is, they
@@ -20,8 +26,9 @@ public abstract class JsonWrapper {
 	 */
 	public static final String EMPTY_JSON = "{}";
 
-	private final JsonObject jsonObject;
-	private final String jsonString;
+	// created on first use if the subclass writes its own fields
+	private volatile JsonObject jsonObject;
+	private volatile String jsonString;
 
 	/**
 	 * Create a new, empty JSON object.
@@ -43,7 +50,10 @@ public abstract class JsonWrapper {
 	}
 
 	/**
-	 * Create a Message based on the given JSON object.
+	 * Create a Message based on the given JSON object. A subclass that keeps
+	 * its data in fields of its own may pass null and override
+	 * {@link #writeJsonFields(JsonGenerator)} instead; the JSON is then only
+	 * written once it is needed.
 	 * 
 	 * @param jsonObject
 	 *            The JSON object containing the message data.
@@ -51,7 +61,7 @@ public abstract class JsonWrapper {
 	public JsonWrapper(JsonObject jsonObject) {
 		this.jsonObject = jsonObject;
 		// only need to do this once
-		this.jsonString = this.jsonObject.toString();
+		this.jsonString = jsonObject == null ? null : jsonObject.toString();
 	}
 
 	/**
@@ -60,7 +70,13 @@ public abstract class JsonWrapper {
 	 * @return The JSON object.
 	 */
 	public JsonObject toJsonObject() {
-		return this.jsonObject;
+		JsonObject json = this.jsonObject;
+		if (json == null) {
+			json = Json.createReader(new StringReader(this.toString()))
+					.readObject();
+			this.jsonObject = json;
+		}
+		return json;
 	}
 
 	/**
@@ -70,7 +86,37 @@ public abstract class JsonWrapper {
 	 */
 	@Override
 	public String toString() {
-		return this.jsonString;
+		String json = this.jsonString;
+		if (json == null) {
+			StringWriter writer = new StringWriter();
+			try (JsonGenerator generator = JsonStreams.createGenerator(writer)) {
+				generator.writeStartObject();
+				this.writeJsonFields(generator);
+				generator.writeEnd();
+			}
+			json = writer.toString();
+			this.jsonString = json;
+		}
+		return json;
+	}
+
+	/**
+	 * Write the fields of this JSON object to the given generator, which must
+	 * be inside an object (e.g., to write this object as a field of another).
+	 * 
+	 * @param generator
+	 *            The generator to write to.
+	 */
+	public void writeJsonFields(JsonGenerator generator) {
+		JsonObject json = this.jsonObject;
+		if (json == null) {
+			throw new IllegalStateException(
+					"No JSON object given and no fields written by "
+							+ this.getClass().getName());
+		}
+		for (Map.Entry<String, JsonValue> field : json.entrySet()) {
+			generator.write(field.getKey(), field.getValue());
+		}
 	}
 
 	/**
@@ -86,7 +132,7 @@ public abstract class JsonWrapper {
 	 */
 	@Override
 	public int hashCode() {
-		return this.jsonString.hashCode();
+		return this.toString().hashCode();
 	}
 
 	/**
@@ -100,7 +146,7 @@ public abstract class JsonWrapper {
 	@Override
 	public boolean equals(Object o) {
 		return o == this
-				|| (o instanceof JsonWrapper && this.jsonString.equals(o
+				|| (o instanceof JsonWrapper && this.toString().equals(o
 						.toString()));
 	}
 }
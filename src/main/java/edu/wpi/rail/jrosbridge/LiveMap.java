@@ -0,0 +1,354 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import edu.wpi.rail.jrosbridge.callback.MapUpdateCallback;
+import edu.wpi.rail.jrosbridge.callback.TypedTopicCallback;
+import edu.wpi.rail.jrosbridge.messages.map.OccupancyGridUpdate;
+import edu.wpi.rail.jrosbridge.messages.nav.MapMetaData;
+import edu.wpi.rail.jrosbridge.messages.nav.OccupancyGrid;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+
+/**
+ * The LiveMap keeps the newest occupancy grid of a map topic (e.g., "/map")
+ * and patches it in place with the rectangles received on its updates topic
+ * (e.g., "/map_updates"), as published by map servers and costmaps. Only the
+ * first map, and any later map that replaces it, is received in full; each
+ * change after that costs just the cells of its rectangle.
+ *
+ * @version October 18, 2026
+ */
+public class LiveMap {
+
+	private final TypedTopic<OccupancyGrid> mapTopic;
+	private final TypedTopic<OccupancyGridUpdate> updatesTopic;
+	private final CopyOnWriteArrayList<MapUpdateCallback> callbacks;
+
+	// if both topics are subscribed, guarded by the map topic
+	private boolean subscribed;
+
+	// the current map, guarded by this
+	private Header header;
+	private MapMetaData info;
+	private byte[] grid;
+	private long version;
+
+	/**
+	 * Create a live map of the given map topic, patched by the updates
+	 * published on the topic of the same name followed by "_updates". No
+	 * compression is used.
+	 *
+	 * @param ros
+	 *            A handle to the ROS connection.
+	 * @param name
+	 *            The name of the map topic (e.g., "/map").
+	 */
+	public LiveMap(Ros ros, String name) {
+		this(ros, name, name + "_updates", JRosbridge.CompressionType.none);
+	}
+
+	/**
+	 * Create a live map of the given map and updates topics.
+	 *
+	 * @param ros
+	 *            A handle to the ROS connection.
+	 * @param name
+	 *            The name of the map topic (e.g., "/map").
+	 * @param updatesName
+	 *            The name of the updates topic (e.g., "/map_updates").
+	 * @param compression
+	 *            The type of compression used for both topics.
+	 */
+	public LiveMap(Ros ros, String name, String updatesName,
+			JRosbridge.CompressionType compression) {
+		this.mapTopic = new TypedTopic<OccupancyGrid>(ros, name,
+				OccupancyGrid.TYPE, OccupancyGrid.class, compression, 0);
+		this.updatesTopic = new TypedTopic<OccupancyGridUpdate>(ros,
+				updatesName, OccupancyGridUpdate.TYPE,
+				OccupancyGridUpdate.class, compression, 0);
+		this.callbacks = new CopyOnWriteArrayList<MapUpdateCallback>();
+		this.subscribed = false;
+		this.header = null;
+		this.info = null;
+		this.grid = null;
+		this.version = 0;
+	}
+
+	/**
+	 * Get the map topic.
+	 *
+	 * @return The topic the full maps are received on.
+	 */
+	public Topic getMapTopic() {
+		return this.mapTopic;
+	}
+
+	/**
+	 * Get the updates topic.
+	 *
+	 * @return The topic the rectangle updates are received on.
+	 */
+	public Topic getUpdatesTopic() {
+		return this.updatesTopic;
+	}
+
+	/**
+	 * Subscribe to both the map and the updates topics. Subscribing again
+	 * while subscribed has no effect.
+	 */
+	public void subscribe() {
+		synchronized (this.mapTopic) {
+			if (this.subscribed) {
+				return;
+			}
+			this.mapTopic
+					.subscribeTyped(new TypedTopicCallback<OccupancyGrid>() {
+						@Override
+						public void handleMessage(OccupancyGrid message) {
+							setMap(message);
+						}
+					});
+			this.updatesTopic
+					.subscribeTyped(new TypedTopicCallback<OccupancyGridUpdate>() {
+						@Override
+						public void handleMessage(OccupancyGridUpdate message) {
+							applyUpdate(message);
+						}
+					});
+			this.subscribed = true;
+		}
+	}
+
+	/**
+	 * Unsubscribe from both the map and the updates topics. The current map is
+	 * kept.
+	 */
+	public void unsubscribe() {
+		synchronized (this.mapTopic) {
+			this.mapTopic.unsubscribe();
+			this.updatesTopic.unsubscribe();
+			this.subscribed = false;
+		}
+	}
+
+	/**
+	 * Check if both the map and the updates topics are subscribed.
+	 *
+	 * @return If this live map is subscribed.
+	 */
+	public boolean isSubscribed() {
+		synchronized (this.mapTopic) {
+			return this.subscribed;
+		}
+	}
+
+	/**
+	 * Add a callback to be called after the cells of the map have changed.
+	 *
+	 * @param cb
+	 *            The callback to add.
+	 */
+	public void addCallback(MapUpdateCallback cb) {
+		this.callbacks.add(cb);
+	}
+
+	/**
+	 * Remove a callback added with {@link #addCallback(MapUpdateCallback)}.
+	 *
+	 * @param cb
+	 *            The callback to remove.
+	 * @return If the callback was removed.
+	 */
+	public boolean removeCallback(MapUpdateCallback cb) {
+		return this.callbacks.remove(cb);
+	}
+
+	/**
+	 * Replace the current map with the given one. Its cells are copied into
+	 * the array of the current map when the sizes match, so a republished map
+	 * does not allocate a new grid.
+	 *
+	 * @param map
+	 *            The new map.
+	 * @return If the map was used; false if its data does not cover its width
+	 *         and height.
+	 */
+	public boolean setMap(OccupancyGrid map) {
+		MapMetaData info = map.getInfo();
+		byte[] data = map.getData();
+		int width = info.getWidth();
+		int height = info.getHeight();
+		if (width < 0 || height < 0 || (long) width * height > data.length) {
+			return false;
+		}
+
+		int size = width * height;
+		synchronized (this) {
+			if (this.grid == null || this.grid.length != size) {
+				this.grid = new byte[size];
+			}
+			System.arraycopy(data, 0, this.grid, 0, size);
+			this.header = map.getHeader();
+			this.info = info;
+			this.version++;
+		}
+		this.changed(0, 0, width, height);
+		return true;
+	}
+
+	/**
+	 * Patch the current map with the given update. The rectangle of the update
+	 * is clipped to the map, and only the cells inside both are copied.
+	 *
+	 * @param update
+	 *            The update to apply.
+	 * @return If any cell was patched; false if there is no map yet, if the
+	 *         rectangle lies outside of the map, or if the data of the update
+	 *         does not cover its width and height.
+	 */
+	public boolean applyUpdate(OccupancyGridUpdate update) {
+		long updateWidth = update.getWidth() & 0xFFFFFFFFL;
+		long updateHeight = update.getHeight() & 0xFFFFFFFFL;
+		byte[] data = update.getData();
+		if (updateWidth * updateHeight > data.length) {
+			return false;
+		}
+
+		int x0, y0, x1, y1;
+		synchronized (this) {
+			if (this.grid == null) {
+				return false;
+			}
+
+			// clip the rectangle to the map
+			int width = this.info.getWidth();
+			int height = this.info.getHeight();
+			x0 = Math.max(update.getX(), 0);
+			y0 = Math.max(update.getY(), 0);
+			x1 = (int) Math.min(update.getX() + updateWidth, width);
+			y1 = (int) Math.min(update.getY() + updateHeight, height);
+			if (x0 >= x1 || y0 >= y1) {
+				return false;
+			}
+
+			// copy each row of the rectangle into its place
+			int length = x1 - x0;
+			int offset = (int) (((long) y0 - update.getY()) * updateWidth
+					+ ((long) x0 - update.getX()));
+			for (int row = y0; row < y1; row++) {
+				System.arraycopy(data, offset, this.grid, row * width + x0,
+						length);
+				offset += updateWidth;
+			}
+			this.header = update.getHeader();
+			this.version++;
+		}
+		this.changed(x0, y0, x1 - x0, y1 - y0);
+		return true;
+	}
+
+	/**
+	 * Call each callback with the given changed rectangle, outside of the lock
+	 * of the map.
+	 *
+	 * @param x
+	 *            The column of the first changed cell.
+	 * @param y
+	 *            The row of the first changed cell.
+	 * @param width
+	 *            The number of changed columns.
+	 * @param height
+	 *            The number of changed rows.
+	 */
+	private void changed(int x, int y, int width, int height) {
+		for (MapUpdateCallback cb : this.callbacks) {
+			cb.handleUpdate(this, x, y, width, height);
+		}
+	}
+
+	/**
+	 * Check if a map has been received.
+	 *
+	 * @return If there is a current map.
+	 */
+	public synchronized boolean hasMap() {
+		return this.grid != null;
+	}
+
+	/**
+	 * Get the header of the newest map or update applied.
+	 *
+	 * @return The header, or null if there is no map yet.
+	 */
+	public synchronized Header getHeader() {
+		return this.header;
+	}
+
+	/**
+	 * Get the description of the current map.
+	 *
+	 * @return The description, or null if there is no map yet.
+	 */
+	public synchronized MapMetaData getInfo() {
+		return this.info;
+	}
+
+	/**
+	 * Get the number of columns of the current map.
+	 *
+	 * @return The width, or 0 if there is no map yet.
+	 */
+	public synchronized int getWidth() {
+		return this.info == null ? 0 : this.info.getWidth();
+	}
+
+	/**
+	 * Get the number of rows of the current map.
+	 *
+	 * @return The height, or 0 if there is no map yet.
+	 */
+	public synchronized int getHeight() {
+		return this.info == null ? 0 : this.info.getHeight();
+	}
+
+	/**
+	 * Get the number of times the cells of the map have changed, by a new map
+	 * or by an update.
+	 *
+	 * @return The version of the map.
+	 */
+	public synchronized long getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * Get the value of the given cell of the current map.
+	 *
+	 * @param x
+	 *            The column of the cell.
+	 * @param y
+	 *            The row of the cell.
+	 * @return The probability of occupancy in percent, or
+	 *         {@link OccupancyGrid#UNKNOWN} if there is no map yet or the cell
+	 *         is outside of the map.
+	 */
+	public synchronized byte get(int x, int y) {
+		if (this.grid == null || x < 0 || y < 0 || x >= this.info.getWidth()
+				|| y >= this.info.getHeight()) {
+			return OccupancyGrid.UNKNOWN;
+		}
+		return this.grid[y * this.info.getWidth() + x];
+	}
+
+	/**
+	 * Create a copy of the current map as a message.
+	 *
+	 * @return The current map, or null if there is no map yet.
+	 */
+	public synchronized OccupancyGrid toOccupancyGrid() {
+		if (this.grid == null) {
+			return null;
+		}
+		return new OccupancyGrid(this.header, this.info, this.grid);
+	}
+}
@@ -1,21 +1,35 @@
 package edu.wpi.rail.jrosbridge;
 
-import java.awt.image.Raster;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.StringReader;
+import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
-import javax.imageio.ImageIO;
 import javax.json.Json;
+import javax.json.JsonException;
 import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
 import javax.json.stream.JsonParsingException;
 import javax.websocket.ClientEndpoint;
+import javax.websocket.ClientEndpointConfig;
 import javax.websocket.ContainerProvider;
 import javax.websocket.DeploymentException;
+import javax.websocket.Extension;
 import javax.websocket.OnClose;
 import javax.websocket.OnError;
 import javax.websocket.OnMessage;
@@ -23,13 +37,21 @@ import javax.websocket.OnOpen;
 import javax.websocket.Session;
 
 import edu.wpi.rail.jrosbridge.callback.CallServiceCallback;
+import edu.wpi.rail.jrosbridge.callback.RawTopicCallback;
 import edu.wpi.rail.jrosbridge.services.ServiceRequest;
-import org.glassfish.grizzly.http.util.Base64Utils;
 
 import edu.wpi.rail.jrosbridge.callback.ServiceCallback;
 import edu.wpi.rail.jrosbridge.callback.TopicCallback;
+import edu.wpi.rail.jrosbridge.codec.BsonDecoder;
+import edu.wpi.rail.jrosbridge.codec.BsonEncoder;
+import edu.wpi.rail.jrosbridge.codec.CborDecoder;
+import edu.wpi.rail.jrosbridge.codec.CborEncoder;
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.codec.PngDecoder;
 import edu.wpi.rail.jrosbridge.handler.RosHandler;
 import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.metrics.RosMetrics;
+import edu.wpi.rail.jrosbridge.primitives.Time;
 import edu.wpi.rail.jrosbridge.services.ServiceResponse;
 
 /**
@@ -54,27 +76,78 @@ public class Ros {
 	 */
 	public static final int DEFAULT_PORT = 9090;
 
+	// time, in milliseconds, to let pending callbacks finish when dispatch
+	// workers are replaced
+	private static final long DISPATCH_SHUTDOWN_TIMEOUT = 1000;
+
+	// each thread decoding PNG frames reuses its decoder and its buffers
+	private static final ThreadLocal<PngDecoder> PNG_DECODERS = new ThreadLocal<PngDecoder>() {
+		@Override
+		protected PngDecoder initialValue() {
+			return new PngDecoder();
+		}
+	};
+
 	private final String hostname;
 	private final int port;
 	private final JRosbridge.WebSocketType protocol;
 
 	// active session (stored upon connection)
-	private Session session;
+	private volatile Session session;
 
 	// used throughout the library to create unique IDs for requests.
-	private long idCounter;
+	private final AtomicLong idCounter;
 
 	// keeps track of callback functions for a given topic
-	private final HashMap<String, ArrayList<TopicCallback>> topicCallbacks;
+	private final CallbackRegistry<TopicCallback> topicCallbacks;
+
+	// keeps track of raw (cbor-raw) callback functions for a given topic
+	private final CallbackRegistry<RawTopicCallback> rawTopicCallbacks;
 
 	// keeps track of callback functions for a given service request
-	private final HashMap<String, ServiceCallback> serviceCallbacks;
+	private final ConcurrentHashMap<String, ServiceCallback> serviceCallbacks;
 
 	// keeps track of callback functions for a given advertised service
-	private final HashMap<String, CallServiceCallback> callServiceCallbacks;
+	private final ConcurrentHashMap<String, CallServiceCallback> callServiceCallbacks;
 
 	// keeps track of handlers for this connection
-	private final ArrayList<RosHandler> handlers;
+	private final CopyOnWriteArrayList<RosHandler> handlers;
+
+	// outbound queue used for non-blocking sends (null if sends are blocking)
+	private volatile SendQueue sendQueue;
+
+	// the encoding used for outgoing frames
+	private volatile JRosbridge.EncodingType encoding;
+
+	// reassembles incoming fragmented messages
+	private final FragmentAssembler fragments;
+
+	// the size above which outgoing messages are fragmented (0 for never)
+	private volatile int fragmentSize;
+
+	// the permessage-deflate extension to offer (null if not used)
+	private volatile DeflateExtension deflate;
+
+	// compression thresholds for specific topics
+	private final HashMap<String, Integer> deflateThresholds;
+
+	// serializes writes so compressed frames reach the wire in order
+	private final Object writeLock;
+
+	// runs incoming callbacks off the I/O thread (null if run inline)
+	private volatile DispatchExecutor dispatcher;
+
+	// decompresses large incoming frames off the I/O thread (null if inline)
+	private volatile DecompressionExecutor decompressor;
+
+	// pipeline instrumentation (null if not collected)
+	private volatile RosMetrics metrics;
+
+	// shares server subscriptions between topics
+	private final SubscriptionManager subscriptions;
+
+	// the number of incoming frames dropped after checking their header
+	private final AtomicLong skipped;
 
 	/**
 	 * Create a connection to ROS with the default hostname and port. A call to
@@ -126,11 +199,24 @@ public class Ros {
 		this.port = port;
 		this.protocol = protocol;
 		this.session = null;
-		this.idCounter = 0;
-		this.topicCallbacks = new HashMap<String, ArrayList<TopicCallback>>();
-		this.serviceCallbacks = new HashMap<String, ServiceCallback>();
-		this.callServiceCallbacks = new HashMap<String, CallServiceCallback>();
-		this.handlers = new ArrayList<RosHandler>();
+		this.idCounter = new AtomicLong();
+		this.topicCallbacks = new CallbackRegistry<TopicCallback>();
+		this.rawTopicCallbacks = new CallbackRegistry<RawTopicCallback>();
+		this.serviceCallbacks = new ConcurrentHashMap<String, ServiceCallback>();
+		this.callServiceCallbacks = new ConcurrentHashMap<String, CallServiceCallback>();
+		this.handlers = new CopyOnWriteArrayList<RosHandler>();
+		this.sendQueue = null;
+		this.encoding = JRosbridge.EncodingType.json;
+		this.fragments = new FragmentAssembler();
+		this.fragmentSize = 0;
+		this.deflate = null;
+		this.deflateThresholds = new HashMap<String, Integer>();
+		this.writeLock = new Object();
+		this.dispatcher = null;
+		this.decompressor = null;
+		this.metrics = null;
+		this.subscriptions = new SubscriptionManager(this);
+		this.skipped = new AtomicLong();
 	}
 
 	/**
@@ -170,13 +256,211 @@ public class Ros {
 				+ this.port;
 	}
 
+	/**
+	 * Get the encoding used for outgoing frames.
+	 * 
+	 * @return The encoding used for outgoing frames.
+	 */
+	public JRosbridge.EncodingType getEncoding() {
+		return this.encoding;
+	}
+
+	/**
+	 * Set the encoding used for outgoing frames. By default, frames are sent
+	 * as JSON text. Any other encoding sends binary frames, which the
+	 * rosbridge server must be configured to accept. Incoming binary frames
+	 * are decoded as BSON when using BSON (i.e., for servers running in BSON
+	 * only mode) and as CBOR otherwise.
+	 * 
+	 * @param encoding
+	 *            The encoding to use for outgoing frames.
+	 */
+	public void setEncoding(JRosbridge.EncodingType encoding) {
+		this.encoding = encoding;
+	}
+
+	/**
+	 * Get the time, in milliseconds, a partially received fragmented message
+	 * is kept without receiving a new fragment.
+	 * 
+	 * @return The fragment timeout in milliseconds.
+	 */
+	public long getFragmentTimeout() {
+		return this.fragments.getTimeout();
+	}
+
+	/**
+	 * Set the time, in milliseconds, a partially received fragmented message
+	 * is kept without receiving a new fragment. Expired messages are dropped.
+	 * 
+	 * @param timeout
+	 *            The fragment timeout in milliseconds.
+	 */
+	public void setFragmentTimeout(long timeout) {
+		this.fragments.setTimeout(timeout);
+	}
+
+	/**
+	 * Get the maximum number of characters held by all partially received
+	 * fragmented messages.
+	 * 
+	 * @return The maximum number of characters held by partial messages.
+	 */
+	public int getMaxFragmentBuffer() {
+		return this.fragments.getMaxBuffered();
+	}
+
+	/**
+	 * Set the maximum number of characters held by all partially received
+	 * fragmented messages. When the limit is exceeded, the oldest partial
+	 * messages are dropped.
+	 * 
+	 * @param maxBuffered
+	 *            The maximum number of characters held by partial messages.
+	 */
+	public void setMaxFragmentBuffer(int maxBuffered) {
+		this.fragments.setMaxBuffered(maxBuffered);
+	}
+
+	/**
+	 * Get the size, in characters, above which outgoing messages are split
+	 * into fragments.
+	 * 
+	 * @return The outgoing fragment size (0 if messages are never split).
+	 */
+	public int getFragmentSize() {
+		return this.fragmentSize;
+	}
+
+	/**
+	 * Set the size, in characters, above which outgoing publishes, service
+	 * calls, and service responses are split into "fragment" operations. When
+	 * non-blocking sends are enabled, fragments are written one at a time and
+	 * any smaller message queued in the meantime is written between them, so a
+	 * large message does not hold up small ones.
+	 * 
+	 * @param fragmentSize
+	 *            The outgoing fragment size (0 to never split messages).
+	 */
+	public void setFragmentSize(int fragmentSize) {
+		this.fragmentSize = fragmentSize;
+	}
+
+	/**
+	 * Get the permessage-deflate extension offered to the server.
+	 * 
+	 * @return The permessage-deflate extension, or null if compression is not
+	 *         used.
+	 */
+	public DeflateExtension getDeflateExtension() {
+		return this.deflate;
+	}
+
+	/**
+	 * Set the permessage-deflate extension to offer to the server. This must
+	 * be set before connecting and takes effect on the next connection. By
+	 * default, no extension is offered and frames are not compressed.
+	 * 
+	 * @param deflate
+	 *            The permessage-deflate extension, or null to not use
+	 *            compression.
+	 */
+	public void setDeflateExtension(DeflateExtension deflate) {
+		this.deflate = deflate;
+	}
+
+	/**
+	 * Get the size, in bytes, below which outgoing messages for the given
+	 * topic are not compressed.
+	 * 
+	 * @param topic
+	 *            The name of the topic.
+	 * @return The threshold for the topic, or -1 if the default threshold of
+	 *         the extension is used.
+	 */
+	public int getDeflateThreshold(String topic) {
+		synchronized (this.deflateThresholds) {
+			Integer threshold = this.deflateThresholds.get(topic);
+			return threshold != null ? threshold : -1;
+		}
+	}
+
+	/**
+	 * Set the size, in bytes, below which outgoing messages for the given
+	 * topic are not compressed. This overrides the threshold of the
+	 * permessage-deflate extension for messages published to (or subscribe
+	 * calls for) the topic. For example, a high-rate topic of small messages
+	 * can be excluded from compression entirely with a large threshold.
+	 * 
+	 * @param topic
+	 *            The name of the topic.
+	 * @param threshold
+	 *            The threshold for the topic, or -1 to use the default
+	 *            threshold of the extension.
+	 */
+	public void setDeflateThreshold(String topic, int threshold) {
+		synchronized (this.deflateThresholds) {
+			if (threshold < 0) {
+				this.deflateThresholds.remove(topic);
+			} else {
+				this.deflateThresholds.put(topic, threshold);
+			}
+		}
+	}
+
+	/**
+	 * Get the metrics collected for this connection.
+	 * 
+	 * @return The metrics, or null if metrics are not collected.
+	 */
+	public RosMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * Set the metrics to collect for this connection. Once set, the latency of
+	 * each stage of the message pipeline (receiving, parsing, decompressing,
+	 * routing, and running callbacks for incoming frames, and serializing and
+	 * writing outgoing frames) is recorded, tagged by op code and topic. By
+	 * default, no metrics are collected.
+	 * 
+	 * @param metrics
+	 *            The metrics to record into, or null to stop collecting
+	 *            metrics.
+	 */
+	public void setMetrics(RosMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	/**
 	 * Get the next unique ID number for this connection.
 	 * 
 	 * @return The next unique ID number for this connection.
 	 */
 	public long nextId() {
-		return this.idCounter++;
+		return this.idCounter.getAndIncrement();
+	}
+
+	/**
+	 * Get the manager that shares server subscriptions between the topics of
+	 * this connection.
+	 * 
+	 * @return The subscription manager of this connection.
+	 */
+	SubscriptionManager getSubscriptions() {
+		return this.subscriptions;
+	}
+
+	/**
+	 * Get the number of incoming frames dropped without being parsed, because
+	 * their header showed that no callback was interested in them (e.g.,
+	 * messages that are still sent after unsubscribing, or messages rejected
+	 * by every throttled callback).
+	 * 
+	 * @return The number of skipped frames.
+	 */
+	public long getSkippedMessages() {
+		return this.skipped.get();
 	}
 
 	/**
@@ -201,8 +485,14 @@ public class Ros {
 		try {
 			// create a WebSocket connection here
 			URI uri = new URI(this.getURL());
-			ContainerProvider.getWebSocketContainer()
-					.connectToServer(this, uri);
+			List<Extension> extensions = new ArrayList<Extension>();
+			if (this.deflate != null) {
+				extensions.add(this.deflate);
+			}
+			ClientEndpointConfig config = ClientEndpointConfig.Builder
+					.create().extensions(extensions).build();
+			ContainerProvider.getWebSocketContainer().connectToServer(
+					new RosEndpoint(this), config, uri);
 			return true;
 		} catch (DeploymentException | URISyntaxException | IOException e) {
 			// failed connection, return false
@@ -270,6 +560,9 @@ public class Ros {
 		// remove the session
 		this.session = null;
 
+		// partial messages can never be completed now
+		this.fragments.clear();
+
 		// call the handlers
 		for (RosHandler handler : this.handlers) {
 			handler.handleDisconnection(session);
@@ -301,41 +594,358 @@ public class Ros {
 	 *            The incoming JSON message from rosbridge.
 	 */
 	@OnMessage
-	public void onMessage(String message) {
+	public void onMessage(final String message) {
+		DecompressionExecutor executor = this.decompressor;
+		if (executor != null && executor.submitIfPending(new Runnable() {
+			@Override
+			public void run() {
+				Ros.this.receive(message);
+			}
+		})) {
+			// handled after the frames still being decompressed
+			return;
+		}
+		this.receive(message);
+	}
+
+	/**
+	 * Parse and handle an incoming JSON message from rosbridge.
+	 * 
+	 * @param message
+	 *            The incoming JSON message from rosbridge.
+	 */
+	private void receive(String message) {
+		RosMetrics m = this.metrics;
+		long start = m == null ? 0 : System.nanoTime();
+		String op = null, topic = null;
 		try {
+			// check the header first to drop frames nobody listens to
+			FrameHeader header = FrameHeader.scan(message);
+			List<TopicCallback> accepted = null;
+			if (JRosbridge.OP_CODE_PUBLISH.equals(header.getOp())
+					&& header.getTopic() != null) {
+				accepted = Ros.accepted(this.topicCallbacks.get(header
+						.getTopic()));
+				if (accepted == null) {
+					this.skip(m, header.getOp(), header.getTopic(), start);
+					return;
+				} else if (Ros.decoding(accepted)) {
+					// only typed callbacks, decode straight from the frame
+					op = header.getOp();
+					topic = header.getTopic();
+					this.handleDecoded(message, topic, accepted, m, start);
+					if (m != null) {
+						m.recordSince(RosMetrics.Stage.RECEIVE, op, topic, start);
+					}
+					return;
+				}
+			} else if (JRosbridge.OP_CODE_SERVICE_RESPONSE.equals(header
+					.getOp())
+					&& header.getId() != null
+					&& !this.serviceCallbacks.containsKey(header.getId())) {
+				this.skip(m, header.getOp(), null, start);
+				return;
+			}
+
 			// parse the JSON
 			JsonObject jsonObject = Json
 					.createReader(new StringReader(message)).readObject();
 
 			// check for compression
-			String op = jsonObject.getString(JRosbridge.FIELD_OP);
+			op = jsonObject.getString(JRosbridge.FIELD_OP);
+			if (m != null) {
+				topic = Ros.topicOf(jsonObject);
+				m.recordSince(RosMetrics.Stage.PARSE, op, topic, start);
+			}
 			if (op.equals(JRosbridge.OP_CODE_PNG)) {
-				String data = jsonObject.getString(JRosbridge.FIELD_DATA);
-				// decompress the PNG data
-				byte[] bytes = Base64Utils.decode(data.getBytes());
-				Raster imageData = ImageIO
-						.read(new ByteArrayInputStream(bytes)).getRaster();
-
-				// read the RGB data
-				int[] rawData = null;
-				rawData = imageData.getPixels(0, 0, imageData.getWidth(),
-						imageData.getHeight(), rawData);
-				StringBuffer buffer = new StringBuffer();
-				for (int i = 0; i < rawData.length; i++) {
-					buffer.append(Character.toString((char) rawData[i]));
+				this.handlePng(jsonObject.getString(JRosbridge.FIELD_DATA));
+			} else {
+				handleMessage(jsonObject, accepted);
+			}
+		} catch (NullPointerException | IOException | JsonException e) {
+			// only occurs if there was an error with the JSON or PNG data
+			System.err.println("[WARN]: Invalid incoming rosbridge protocol: "
+					+ message);
+		}
+		if (m != null) {
+			m.recordSince(RosMetrics.Stage.RECEIVE, op, topic, start);
+		}
+	}
+
+	/**
+	 * This method is called once an entire binary message has been read in by
+	 * the connection from rosbridge. Binary frames are BSON encoded if this
+	 * connection uses the BSON encoding and CBOR encoded (e.g., for topics
+	 * using CBOR compression) otherwise. Either way they are decoded and
+	 * handled just like text frames. Raw messages (from the "cbor-raw"
+	 * compression type) are handed to the raw callbacks of the topic without
+	 * being decoded.
+	 * 
+	 * @param data
+	 *            The incoming binary message from rosbridge.
+	 */
+	@OnMessage
+	public void onMessage(ByteBuffer data) {
+		DecompressionExecutor executor = this.decompressor;
+		if (executor != null && executor.isPending()) {
+			// the buffer may be reused once this returns
+			final ByteBuffer copy = ByteBuffer.allocate(data.remaining());
+			copy.put(data.duplicate()).flip();
+			if (executor.submitIfPending(new Runnable() {
+				@Override
+				public void run() {
+					Ros.this.receive(copy);
 				}
+			})) {
+				// handled after the frames still being decompressed
+				return;
+			}
+		}
+		this.receive(data);
+	}
 
-				// reparse the JSON
-				JsonObject newJsonObject = Json.createReader(
-						new StringReader(buffer.toString())).readObject();
-				handleMessage(newJsonObject);
+	/**
+	 * Decode and handle an incoming binary message from rosbridge.
+	 * 
+	 * @param data
+	 *            The incoming binary message from rosbridge.
+	 */
+	private void receive(ByteBuffer data) {
+		RosMetrics m = this.metrics;
+		long start = m == null ? 0 : System.nanoTime();
+		String op = null, topic = null;
+		try {
+			JsonObject jsonObject = null;
+			if (this.encoding == JRosbridge.EncodingType.bson) {
+				jsonObject = BsonDecoder.decodeObject(data);
 			} else {
+				topic = handleRawMessage(data);
+				if (topic != null) {
+					op = JRosbridge.OP_CODE_PUBLISH;
+				} else {
+					jsonObject = CborDecoder.decodeObject(data);
+				}
+			}
+
+			if (jsonObject != null) {
+				if (m != null) {
+					op = jsonObject.getString(JRosbridge.FIELD_OP, null);
+					topic = Ros.topicOf(jsonObject);
+					m.recordSince(RosMetrics.Stage.PARSE, op, topic, start);
+				}
 				handleMessage(jsonObject);
 			}
-		} catch (NullPointerException | IOException | JsonParsingException e) {
-			// only occurs if there was an error with the JSON
+		} catch (NullPointerException | IOException | ClassCastException
+				| BufferUnderflowException e) {
+			// only occurs if there was an error with the BSON or CBOR
 			System.err.println("[WARN]: Invalid incoming rosbridge protocol: "
-					+ message);
+					+ e.getMessage());
+		}
+		if (m != null) {
+			m.recordSince(RosMetrics.Stage.RECEIVE, op, topic, start);
+		}
+	}
+
+	/**
+	 * Handle the data of a "png" frame. The frame is decompressed and handled
+	 * inline unless decompression workers are enabled and the data is large
+	 * enough, in which case this returns right away.
+	 * 
+	 * @param data
+	 *            The base64 encoded PNG image holding the frame.
+	 * @throws IOException
+	 *             If the frame is decompressed inline and the data is not a
+	 *             valid PNG image.
+	 */
+	private void handlePng(final String data) throws IOException {
+		DecompressionExecutor executor = this.decompressor;
+		if (executor != null && data.length() >= executor.getThreshold()) {
+			boolean submitted = executor.submit(new Supplier<JsonObject>() {
+				@Override
+				public JsonObject get() {
+					try {
+						return Ros.this.decompressPng(data);
+					} catch (IOException | RuntimeException e) {
+						System.err.println("[WARN]: Invalid incoming rosbridge protocol: "
+								+ e.getMessage());
+						return null;
+					}
+				}
+			}, new Consumer<JsonObject>() {
+				@Override
+				public void accept(JsonObject jsonObject) {
+					if (jsonObject == null) {
+						return;
+					}
+					try {
+						Ros.this.handleMessage(jsonObject);
+					} catch (NullPointerException | ClassCastException e) {
+						System.err.println("[WARN]: Invalid incoming rosbridge protocol: "
+								+ jsonObject);
+					}
+				}
+			});
+			if (submitted) {
+				return;
+			}
+		}
+		this.handleMessage(this.decompressPng(data));
+	}
+
+	/**
+	 * Decompress the data of a "png" frame. The image is decoded into the
+	 * buffer of the decoder of the current thread, which the JSON is then read
+	 * from directly.
+	 * 
+	 * @param data
+	 *            The base64 encoded PNG image holding the frame.
+	 * @return The decompressed frame.
+	 * @throws IOException
+	 *             If the data is not a valid PNG image.
+	 */
+	private JsonObject decompressPng(String data) throws IOException {
+		RosMetrics m = this.metrics;
+		long start = m == null ? 0 : System.nanoTime();
+		PngDecoder decoder = Ros.PNG_DECODERS.get();
+		int length = decoder.decodeBase64(data);
+		JsonObject jsonObject = JsonStreams.readObject(decoder.getBuffer(), 0,
+				length);
+		if (m != null) {
+			m.recordSince(RosMetrics.Stage.DECOMPRESS, JRosbridge.OP_CODE_PNG,
+					Ros.topicOf(jsonObject), start);
+		}
+		return jsonObject;
+	}
+
+	/**
+	 * Get the topic (or, failing that, the service) of the given message, used
+	 * to tag metrics.
+	 * 
+	 * @param jsonObject
+	 *            The message.
+	 * @return The topic or service, or null if the message has neither.
+	 */
+	private static String topicOf(JsonObject jsonObject) {
+		String topic = jsonObject.getString(JRosbridge.FIELD_TOPIC, null);
+		return topic != null ? topic : jsonObject.getString(
+				JRosbridge.FIELD_SERVICE, null);
+	}
+
+	/**
+	 * Check if the given binary frame is a raw message for a topic with raw
+	 * callbacks and, if so, call them with a read-only view of the serialized
+	 * message bytes. Only the top level of the frame is scanned; the message
+	 * bytes are neither copied nor decoded.
+	 * 
+	 * @param data
+	 *            The incoming binary message from rosbridge.
+	 * @return The topic if the frame was a raw message and has been handled,
+	 *         or null otherwise.
+	 * @throws IOException
+	 *             If the frame is not valid CBOR.
+	 */
+	private String handleRawMessage(ByteBuffer data) throws IOException {
+		RosMetrics m = this.metrics;
+		long start = m == null ? 0 : System.nanoTime();
+		if (this.rawTopicCallbacks.isEmpty()) {
+			return null;
+		}
+
+		// scan the top level map for the op, topic, and message position
+		CborDecoder decoder = new CborDecoder(data);
+		int initial = decoder.readInitialByte();
+		long count = decoder.readArgument(initial);
+		if ((initial >>> 5) != CborDecoder.MAJOR_MAP || count < 0) {
+			return null;
+		}
+		String op = null, topic = null;
+		int msg = -1;
+		for (long i = 0; i < count; i++) {
+			String key = decoder.readText();
+			if (key.equals(JRosbridge.FIELD_OP)) {
+				op = decoder.readText();
+			} else if (key.equals(JRosbridge.FIELD_TOPIC)) {
+				topic = decoder.readText();
+			} else {
+				if (key.equals(JRosbridge.FIELD_MESSAGE)) {
+					msg = decoder.position();
+				}
+				decoder.skip();
+			}
+		}
+
+		final List<RawTopicCallback> callbacks = this.rawTopicCallbacks
+				.get(topic);
+		if (!JRosbridge.OP_CODE_PUBLISH.equals(op) || callbacks == null
+				|| msg < 0) {
+			return null;
+		}
+
+		// a raw message only contains the receive time and the bytes
+		decoder.position(msg);
+		initial = decoder.readInitialByte();
+		count = decoder.readArgument(initial);
+		if ((initial >>> 5) != CborDecoder.MAJOR_MAP || count < 0) {
+			return null;
+		}
+		long secs = 0, nsecs = 0;
+		ByteBuffer bytes = null;
+		for (long i = 0; i < count; i++) {
+			String key = decoder.readText();
+			if (key.equals(JRosbridge.FIELD_SECS)) {
+				secs = decoder.readLong();
+			} else if (key.equals(JRosbridge.FIELD_NSECS)) {
+				nsecs = decoder.readLong();
+			} else if (key.equals(JRosbridge.FIELD_BYTES)) {
+				bytes = decoder.readBytes();
+			} else {
+				// not a raw message
+				return null;
+			}
+		}
+		if (bytes == null) {
+			return null;
+		}
+
+		final Time receiveTime = new Time((int) secs, (int) nsecs);
+		final ByteBuffer view = bytes;
+		final String name = topic;
+		final RosMetrics metrics = m;
+		if (m != null) {
+			m.recordSince(RosMetrics.Stage.ROUTE, op, topic, start);
+		}
+		this.dispatch(topic, new Runnable() {
+			@Override
+			public void run() {
+				for (RawTopicCallback cb : callbacks) {
+					long called = metrics == null ? 0 : System.nanoTime();
+					cb.handleRawMessage(view.duplicate(), receiveTime);
+					if (metrics != null) {
+						metrics.recordSince(RosMetrics.Stage.CALLBACK,
+								JRosbridge.OP_CODE_PUBLISH, name, called);
+					}
+				}
+			}
+		});
+		return topic;
+	}
+
+	/**
+	 * Drop an incoming frame without parsing it, as found by its header.
+	 * 
+	 * @param m
+	 *            The metrics to record into (or null).
+	 * @param op
+	 *            The op code of the frame.
+	 * @param topic
+	 *            The topic of the frame (or null if none).
+	 * @param start
+	 *            The time the frame was received.
+	 */
+	private void skip(RosMetrics m, String op, String topic, long start) {
+		this.skipped.incrementAndGet();
+		if (m != null) {
+			m.recordSince(RosMetrics.Stage.RECEIVE, op, topic, start);
 		}
 	}
 
@@ -347,27 +957,60 @@ public class Ros {
 	 *            The JSON object from the incoming rosbridge message.
 	 */
 	private void handleMessage(JsonObject jsonObject) {
+		this.handleMessage(jsonObject, null);
+	}
+
+	/**
+	 * Handle the incoming rosbridge message by calling the appropriate
+	 * callbacks.
+	 * 
+	 * @param jsonObject
+	 *            The JSON object from the incoming rosbridge message.
+	 * @param accepted
+	 *            The topic callbacks that accepted a publish message when its
+	 *            header was checked, or null if they still need to be found.
+	 */
+	private void handleMessage(JsonObject jsonObject,
+			List<TopicCallback> accepted) {
+		final RosMetrics m = this.metrics;
+		long start = m == null ? 0 : System.nanoTime();
+
 		// check for the correct fields
 		String op = jsonObject.getString(JRosbridge.FIELD_OP);
 		if (op.equals(JRosbridge.OP_CODE_PUBLISH)) {
 			// check for the topic name
-			String topic = jsonObject.getString(JRosbridge.FIELD_TOPIC);
+			final String topic = jsonObject.getString(JRosbridge.FIELD_TOPIC);
 
-			// call each callback with the message
-			ArrayList<TopicCallback> callbacks = topicCallbacks.get(topic);
+			// call each callback that is not throttled with the message
+			final List<TopicCallback> callbacks = accepted != null ? accepted
+					: Ros.accepted(topicCallbacks.get(topic));
 			if (callbacks != null) {
-				Message msg = new Message(
+				final Message msg = new Message(
 						jsonObject.getJsonObject(JRosbridge.FIELD_MESSAGE));
-				for (TopicCallback cb : callbacks) {
-					cb.handleMessage(msg);
+				if (m != null) {
+					m.recordSince(RosMetrics.Stage.ROUTE, op, topic, start);
 				}
+				this.dispatch(topic, new Runnable() {
+					@Override
+					public void run() {
+						for (TopicCallback cb : callbacks) {
+							long called = m == null ? 0 : System.nanoTime();
+							cb.handleMessage(msg);
+							if (m != null) {
+								m.recordSince(RosMetrics.Stage.CALLBACK,
+										JRosbridge.OP_CODE_PUBLISH, topic,
+										called);
+							}
+						}
+					}
+				});
 			}
 		} else if (op.equals(JRosbridge.OP_CODE_SERVICE_RESPONSE)) {
 			// check for the request ID
 			String id = jsonObject.getString(JRosbridge.FIELD_ID);
 
-			// call the callback for the request
-			ServiceCallback cb = serviceCallbacks.get(id);
+			// call the callback for the request (each request gets one response)
+			final ServiceCallback cb = serviceCallbacks.remove(id);
 			if (cb != null) {
 				// check if a success code was given
 				boolean success = jsonObject
@@ -376,23 +1019,78 @@ public class Ros {
 				// get the response
 				JsonObject values = jsonObject
 						.getJsonObject(JRosbridge.FIELD_VALUES);
-				ServiceResponse response = new ServiceResponse(values, success);
-				cb.handleServiceResponse(response);
+				final ServiceResponse response = new ServiceResponse(values,
+						success);
+				final String service = jsonObject.getString(
+						JRosbridge.FIELD_SERVICE, null);
+				if (m != null) {
+					m.recordSince(RosMetrics.Stage.ROUTE, op, service, start);
+				}
+				if (cb instanceof Service.BlockingCallback) {
+					// only releases a waiting caller, which may itself be a
+					// dispatch worker, so never queue it behind other callbacks
+					cb.handleServiceResponse(response);
+				} else {
+					this.dispatch(JRosbridge.OP_CODE_SERVICE_RESPONSE + ":"
+							+ id, new Runnable() {
+						@Override
+						public void run() {
+							long called = m == null ? 0 : System.nanoTime();
+							cb.handleServiceResponse(response);
+							if (m != null) {
+								m.recordSince(RosMetrics.Stage.CALLBACK,
+										JRosbridge.OP_CODE_SERVICE_RESPONSE,
+										service, called);
+							}
+						}
+					});
+				}
 			}
 		} else if (op.equals(JRosbridge.OP_CODE_CALL_SERVICE)) {
 			// check for the request ID
 			String id = jsonObject.getString("id");
-			String service = jsonObject.getString("service");
+			final String service = jsonObject.getString("service");
 
 			// call the callback for the request
-			CallServiceCallback cb = callServiceCallbacks.get(service);
+			final CallServiceCallback cb = callServiceCallbacks.get(service);
 			if (cb != null) {
 				// get the response
 				JsonObject args = jsonObject
 						.getJsonObject(JRosbridge.FIELD_ARGS);
-				ServiceRequest request = new ServiceRequest(args);
+				final ServiceRequest request = new ServiceRequest(args);
 				request.setId(id);
-				cb.handleServiceCall(request);
+				if (m != null) {
+					m.recordSince(RosMetrics.Stage.ROUTE, op, service, start);
+				}
+				this.dispatch(JRosbridge.OP_CODE_CALL_SERVICE + ":" + service,
+						new Runnable() {
+							@Override
+							public void run() {
+								long called = m == null ? 0 : System
+										.nanoTime();
+								cb.handleServiceCall(request);
+								if (m != null) {
+									m.recordSince(RosMetrics.Stage.CALLBACK,
+											JRosbridge.OP_CODE_CALL_SERVICE,
+											service, called);
+								}
+							}
+						});
+			}
+		} else if (op.equals(JRosbridge.OP_CODE_FRAGMENT)) {
+			// add the fragment and handle the message once it is complete
+			try {
+				String message = this.fragments.add(
+						jsonObject.getString(JRosbridge.FIELD_ID),
+						jsonObject.getInt(JRosbridge.FIELD_NUM),
+						jsonObject.getInt(JRosbridge.FIELD_TOTAL),
+						jsonObject.getString(JRosbridge.FIELD_DATA));
+				if (message != null) {
+					this.onMessage(message);
+				}
+			} catch (IllegalArgumentException e) {
+				System.err.println("[WARN]: Invalid fragment: "
+						+ e.getMessage());
 			}
 		} else {
 			System.err.println("[WARN]: Unrecognized op code: "
@@ -402,18 +1100,457 @@ public class Ros {
 	}
 
 	/**
-	 * Send the given JSON object to rosbridge.
+	 * Decode the message of the given publish frame once for each decoder of
+	 * the given typed callbacks (usually just one), and call the callbacks
+	 * with the decoded messages. No JSON object is built for the frame.
+	 * 
+	 * @param frame
+	 *            The JSON text of the publish frame.
+	 * @param topic
+	 *            The topic of the frame.
+	 * @param callbacks
+	 *            The accepted callbacks of the topic, all of which decode.
+	 * @param m
+	 *            The metrics to record into (or null).
+	 * @param start
+	 *            The time the frame was received.
+	 */
+	private void handleDecoded(String frame, final String topic,
+			final List<TopicCallback> callbacks, final RosMetrics m, long start) {
+		final ArrayList<Object> messages = new ArrayList<Object>(
+				callbacks.size());
+		try {
+			for (int i = 0; i < callbacks.size(); i++) {
+				DecodingTopicCallback<?> cb = (DecodingTopicCallback<?>) callbacks
+						.get(i);
+				// reuse the message of an earlier callback with the same
+				// decoder
+				Object msg = null;
+				for (int j = 0; j < i && msg == null; j++) {
+					if (((DecodingTopicCallback<?>) callbacks.get(j))
+							.getDecoder() == cb.getDecoder()) {
+						msg = messages.get(j);
+					}
+				}
+				if (msg == null) {
+					msg = cb.decode(frame);
+					if (msg == null) {
+						throw new JsonParsingException(
+								"No message in publish call", null);
+					}
+				}
+				messages.add(msg);
+			}
+		} catch (RuntimeException e) {
+			// decoders also throw (e.g.) NumberFormatException on bad values
+			System.err.println("[WARN]: Invalid incoming rosbridge protocol: "
+					+ frame);
+			return;
+		}
+		if (m != null) {
+			m.recordSince(RosMetrics.Stage.PARSE, JRosbridge.OP_CODE_PUBLISH,
+					topic, start);
+			m.recordSince(RosMetrics.Stage.ROUTE, JRosbridge.OP_CODE_PUBLISH,
+					topic, start);
+		}
+
+		this.dispatch(topic, new Runnable() {
+			@Override
+			public void run() {
+				for (int i = 0; i < callbacks.size(); i++) {
+					long called = m == null ? 0 : System.nanoTime();
+					Ros.handleDecoded(callbacks.get(i), messages.get(i));
+					if (m != null) {
+						m.recordSince(RosMetrics.Stage.CALLBACK,
+								JRosbridge.OP_CODE_PUBLISH, topic, called);
+					}
+				}
+			}
+		});
+	}
+
+	/**
+	 * Call the given decoding callback with a message it decoded.
+	 * 
+	 * @param cb
+	 *            The decoding callback.
+	 * @param message
+	 *            The message decoded by the callback's decoder.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T extends Message> void handleDecoded(TopicCallback cb,
+			Object message) {
+		((DecodingTopicCallback<T>) cb).handleDecoded((T) message);
+	}
+
+	/**
+	 * Check if all of the given callbacks decode typed messages themselves.
+	 * 
+	 * @param callbacks
+	 *            The callbacks of a topic.
+	 * @return If all callbacks decode.
+	 */
+	private static boolean decoding(List<TopicCallback> callbacks) {
+		for (int i = 0; i < callbacks.size(); i++) {
+			if (!(callbacks.get(i) instanceof DecodingTopicCallback)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Filter out the throttled callbacks that reject a message arriving now.
+	 * This runs before the message is decoded, so a message no callback
+	 * accepts is dropped without creating a message object for it.
+	 * 
+	 * @param callbacks
+	 *            The callbacks of the topic (or null if there are none).
+	 * @return The callbacks that accept the message, or null if there are
+	 *         none.
+	 */
+	private static List<TopicCallback> accepted(List<TopicCallback> callbacks) {
+		if (callbacks == null) {
+			return null;
+		}
+
+		// only copy the list once a callback rejects the message
+		ArrayList<TopicCallback> accepted = null;
+		long now = 0;
+		for (int i = 0; i < callbacks.size(); i++) {
+			TopicCallback cb = callbacks.get(i);
+			if (cb instanceof ThrottledTopicCallback) {
+				if (now == 0) {
+					now = System.nanoTime();
+				}
+				if (!((ThrottledTopicCallback) cb).accept(now)) {
+					if (accepted == null) {
+						accepted = new ArrayList<TopicCallback>(
+								callbacks.subList(0, i));
+					}
+					continue;
+				}
+			}
+			if (accepted != null) {
+				accepted.add(cb);
+			}
+		}
+
+		if (accepted == null) {
+			return callbacks;
+		} else {
+			return accepted.isEmpty() ? null : accepted;
+		}
+	}
+
+	/**
+	 * Run the given callbacks, either inline or, if parallel dispatch is
+	 * enabled, on the dispatch workers after any earlier callbacks with the
+	 * same key.
+	 * 
+	 * @param key
+	 *            The key that orders the callbacks (e.g., the topic name).
+	 * @param task
+	 *            The callbacks to run.
+	 */
+	private void dispatch(String key, Runnable task) {
+		DispatchExecutor executor = this.dispatcher;
+		if (executor == null) {
+			task.run();
+		} else {
+			executor.dispatch(key, task);
+		}
+	}
+
+	/**
+	 * Enable parallel callback dispatch. Once enabled, topic callbacks are no
+	 * longer run on the WebSocket thread but on a pool of worker threads.
+	 * Messages for the same topic are still handled one at a time in the order
+	 * they arrived, while different topics are handled in parallel. Service
+	 * responses and incoming service calls are dispatched the same way, keyed
+	 * by request and by service respectively. Enabling again replaces the
+	 * current workers; callbacks still pending for the old workers still run.
+	 * 
+	 * @param workers
+	 *            The number of worker threads.
+	 * @param queueDepth
+	 *            The maximum number of messages waiting for each topic.
+	 * @param policy
+	 *            What to do when a message arrives while the queue for its
+	 *            topic is full. Blocking holds up the connection until there
+	 *            is room.
+	 */
+	public void enableDispatch(int workers, int queueDepth,
+			JRosbridge.OverflowPolicy policy) {
+		DispatchExecutor executor = new DispatchExecutor(this.hostname + ":"
+				+ this.port, workers, queueDepth, policy);
+		DispatchExecutor old = this.dispatcher;
+		this.dispatcher = executor;
+		if (old != null) {
+			old.shutdown(Ros.DISPATCH_SHUTDOWN_TIMEOUT);
+		}
+	}
+
+	/**
+	 * Disable parallel callback dispatch. Subsequent callbacks run on the
+	 * WebSocket thread. Callbacks still pending for the workers still run.
+	 */
+	public void disableDispatch() {
+		DispatchExecutor old = this.dispatcher;
+		this.dispatcher = null;
+		if (old != null) {
+			old.shutdown(Ros.DISPATCH_SHUTDOWN_TIMEOUT);
+		}
+	}
+
+	/**
+	 * Check if parallel callback dispatch is enabled.
+	 * 
+	 * @return If parallel callback dispatch is enabled.
+	 */
+	public boolean isDispatchEnabled() {
+		return this.dispatcher != null;
+	}
+
+	/**
+	 * Get the number of worker threads used for parallel callback dispatch.
+	 * 
+	 * @return The number of worker threads, or 0 if parallel dispatch is not
+	 *         enabled.
+	 */
+	public int getDispatchWorkers() {
+		DispatchExecutor executor = this.dispatcher;
+		return executor == null ? 0 : executor.getWorkers();
+	}
+
+	/**
+	 * Get the maximum number of messages waiting for each topic when parallel
+	 * callback dispatch is enabled.
+	 * 
+	 * @return The queue depth, or 0 if parallel dispatch is not enabled.
+	 */
+	public int getDispatchQueueDepth() {
+		DispatchExecutor executor = this.dispatcher;
+		return executor == null ? 0 : executor.getQueueDepth();
+	}
+
+	/**
+	 * Enable decompression workers. Once enabled, "png" frames with at least
+	 * the given amount of data are no longer decompressed on the WebSocket
+	 * thread but on a pool of worker threads, so large frames (e.g., maps) do
+	 * not hold up the connection. These frames are decompressed in parallel
+	 * but still handled in the order they arrived. While any of them is
+	 * pending, every other incoming frame is handled after them as well, so
+	 * no frame overtakes an earlier one. Enabling again replaces the current
+	 * workers; frames still pending for the old workers are still handled.
+	 * 
+	 * @param workers
+	 *            The number of worker threads.
+	 * @param threshold
+	 *            The minimum size, in characters, of the base64 data of the
+	 *            frames to decompress on the workers.
+	 */
+	public void enableDecompressionWorkers(int workers, int threshold) {
+		DecompressionExecutor executor = new DecompressionExecutor(
+				this.hostname + ":" + this.port, workers, threshold);
+		DecompressionExecutor old = this.decompressor;
+		this.decompressor = executor;
+		if (old != null) {
+			old.shutdown(Ros.DISPATCH_SHUTDOWN_TIMEOUT);
+		}
+	}
+
+	/**
+	 * Disable decompression workers. Subsequent frames are decompressed on the
+	 * WebSocket thread. Frames still pending for the workers are still
+	 * handled.
+	 */
+	public void disableDecompressionWorkers() {
+		DecompressionExecutor old = this.decompressor;
+		this.decompressor = null;
+		if (old != null) {
+			old.shutdown(Ros.DISPATCH_SHUTDOWN_TIMEOUT);
+		}
+	}
+
+	/**
+	 * Get the number of worker threads used to decompress large frames.
+	 * 
+	 * @return The number of worker threads, or 0 if decompression workers are
+	 *         not enabled.
+	 */
+	public int getDecompressionWorkers() {
+		DecompressionExecutor executor = this.decompressor;
+		return executor == null ? 0 : executor.getWorkers();
+	}
+
+	/**
+	 * Get the minimum size of the frames decompressed on the workers.
+	 * 
+	 * @return The minimum size, in characters, of the base64 data, or 0 if
+	 *         decompression workers are not enabled.
+	 */
+	public int getDecompressionThreshold() {
+		DecompressionExecutor executor = this.decompressor;
+		return executor == null ? 0 : executor.getThreshold();
+	}
+
+	/**
+	 * Enable non-blocking sends. Once enabled, every call to
+	 * {@link #send(JsonObject) send} places the message in a bounded outbound
+	 * queue which is drained in order by a dedicated writer thread. Enabling
+	 * again replaces the current queue; messages still pending in the old
+	 * queue are completed as unsuccessful.
+	 * 
+	 * @param capacity
+	 *            The maximum number of messages that may be waiting to be
+	 *            written.
+	 * @param policy
+	 *            What to do when a message is sent while the queue is full.
+	 */
+	public void enableAsyncSend(int capacity, JRosbridge.OverflowPolicy policy) {
+		SendQueue queue = new SendQueue(this, capacity, policy);
+		queue.start();
+		SendQueue old;
+		synchronized (this) {
+			old = this.sendQueue;
+			this.sendQueue = queue;
+		}
+		if (old != null) {
+			old.stop();
+		}
+	}
+
+	/**
+	 * Disable non-blocking sends. Subsequent sends will block the calling
+	 * thread until the message is written. Messages still pending in the
+	 * outbound queue are completed as unsuccessful.
+	 */
+	public void disableAsyncSend() {
+		SendQueue old;
+		synchronized (this) {
+			old = this.sendQueue;
+			this.sendQueue = null;
+		}
+		if (old != null) {
+			old.stop();
+		}
+	}
+
+	/**
+	 * Check if non-blocking sends are enabled.
+	 * 
+	 * @return If non-blocking sends are enabled.
+	 */
+	public boolean isAsyncSendEnabled() {
+		return this.sendQueue != null;
+	}
+
+	/**
+	 * Get the outbound queue of non-blocking sends. If its writer thread has
+	 * exited (e.g., because it was interrupted), the queue is replaced by a
+	 * new one with the same capacity and policy, so sends do not keep failing
+	 * until non-blocking sends are enabled again.
+	 * 
+	 * @return The outbound queue, or null if non-blocking sends are disabled.
+	 */
+	private SendQueue getSendQueue() {
+		SendQueue queue = this.sendQueue;
+		if (queue == null || !queue.isStopped()) {
+			return queue;
+		}
+		synchronized (this) {
+			// unless it was already replaced or disabled
+			if (this.sendQueue == queue) {
+				SendQueue restarted = new SendQueue(this, queue.getCapacity(),
+						queue.getPolicy());
+				restarted.start();
+				this.sendQueue = restarted;
+			}
+			return this.sendQueue;
+		}
+	}
+
+	/**
+	 * Send the given JSON object to rosbridge. If non-blocking sends are
+	 * enabled, the message is only queued and the return value indicates if it
+	 * was accepted by the queue. Otherwise, this call blocks until the message
+	 * is written.
 	 * 
 	 * @param jsonObject
 	 *            The JSON object to send to rosbridge.
-	 * @return If the sending of the message was successful.
+	 * @return If the sending (or queueing) of the message was successful.
 	 */
 	public boolean send(JsonObject jsonObject) {
+		// nothing to encode if it cannot be written or queued
+		if (this.sendQueue == null && !this.isConnected()) {
+			return false;
+		}
+		return this.send(this.encode(jsonObject));
+	}
+
+	/**
+	 * Publish the given message to rosbridge on the given topic. The publish
+	 * operation is streamed into the outgoing frame and the message writes
+	 * its own fields into it, so no JSON object is built for either.
+	 * Otherwise, this behaves like {@link #send(JsonObject)}.
+	 * 
+	 * @param topic
+	 *            The name of the topic.
+	 * @param id
+	 *            The ID of the publish operation.
+	 * @param message
+	 *            The message to publish.
+	 * @return If the sending (or queueing) of the message was successful.
+	 */
+	boolean publish(String topic, String id, JsonWrapper message) {
+		if (this.sendQueue == null && !this.isConnected()) {
+			return false;
+		}
+		return this.send(this.encodePublish(topic, id, message));
+	}
+
+	/**
+	 * Send the given encoded frame to rosbridge, or queue it if non-blocking
+	 * sends are enabled.
+	 * 
+	 * @param frame
+	 *            The frame to send to rosbridge.
+	 * @return If the sending (or queueing) of the frame was successful.
+	 */
+	private boolean send(SendQueue.Frame frame) {
+		SendQueue queue = this.getSendQueue();
+		if (queue != null) {
+			// accepted unless the overflow policy already rejected it
+			CompletableFuture<Boolean> result = queue.offer(frame);
+			return !result.isDone()
+					|| (!result.isCompletedExceptionally() && result
+							.getNow(false));
+		}
+
 		// check the connection
 		if (this.isConnected()) {
 			try {
-				// send it as text
-				this.session.getBasicRemote().sendText(jsonObject.toString());
+				SendQueue.Frame[] frames = frame.isFragmented() ? frame
+						.getParts() : new SendQueue.Frame[] { frame };
+				RosMetrics m = this.metrics;
+				for (SendQueue.Frame f : frames) {
+					synchronized (this.writeLock) {
+						long start = m == null ? 0 : System.nanoTime();
+						this.prepareWrite(f);
+						if (f.isBinary()) {
+							this.session.getBasicRemote().sendBinary(
+									f.getBinary());
+						} else {
+							// send it as text
+							this.session.getBasicRemote().sendText(f.getText());
+						}
+						if (m != null) {
+							m.recordSince(RosMetrics.Stage.WRITE, f.getOp(),
+									f.getTopic(), start);
+						}
+					}
+				}
 				return true;
 			} catch (IOException e) {
 				System.err.println("[ERROR]: Could not send message: "
@@ -424,6 +1561,326 @@ public class Ros {
 		return false;
 	}
 
+	/**
+	 * Send the given JSON object to rosbridge without waiting for it to be
+	 * written. If non-blocking sends are not enabled, the message is written
+	 * on the calling thread and the returned future is already complete.
+	 * 
+	 * @param jsonObject
+	 *            The JSON object to send to rosbridge.
+	 * @return A future which is completed with true once the message has been
+	 *         written, with false if it could not be written or was dropped,
+	 *         or exceptionally if it was rejected by the overflow policy.
+	 */
+	public CompletableFuture<Boolean> sendAsync(JsonObject jsonObject) {
+		SendQueue queue = this.getSendQueue();
+		if (queue != null) {
+			return queue.offer(this.encode(jsonObject));
+		} else {
+			return CompletableFuture.completedFuture(this.send(jsonObject));
+		}
+	}
+
+	/**
+	 * Encode the given JSON object as an outgoing frame using the current
+	 * encoding. Messages larger than the outgoing fragment size are split
+	 * into fragments, and the compression threshold of the topic (if any) is
+	 * attached to the frame.
+	 * 
+	 * @param jsonObject
+	 *            The JSON object to encode.
+	 * @return The encoded frame.
+	 */
+	private SendQueue.Frame encode(JsonObject jsonObject) {
+		RosMetrics m = this.metrics;
+		long start = m == null ? 0 : System.nanoTime();
+		SendQueue.Frame frame = this.encodeMessage(jsonObject);
+
+		// apply any compression threshold of the topic
+		if (this.deflate != null
+				&& jsonObject.containsKey(JRosbridge.FIELD_TOPIC)) {
+			this.applyDeflateThreshold(frame,
+					jsonObject.getString(JRosbridge.FIELD_TOPIC));
+		}
+
+		// tag the frame so its write can be attributed
+		if (m != null) {
+			Ros.tag(frame, m, jsonObject.getString(JRosbridge.FIELD_OP, null),
+					Ros.topicOf(jsonObject), start);
+		}
+		return frame;
+	}
+
+	/**
+	 * Encode a publish operation of the given message as an outgoing frame
+	 * using the current encoding. The operation is written straight into the
+	 * generator of the encoding, which the message writes its fields into.
+	 * Like {@link #encode(JsonObject)}, large messages are fragmented and the
+	 * compression threshold of the topic is attached to the frame.
+	 * 
+	 * @param topic
+	 *            The name of the topic.
+	 * @param id
+	 *            The ID of the publish operation.
+	 * @param message
+	 *            The message to publish.
+	 * @return The encoded frame.
+	 */
+	private SendQueue.Frame encodePublish(String topic, String id,
+			JsonWrapper message) {
+		RosMetrics m = this.metrics;
+		long start = m == null ? 0 : System.nanoTime();
+
+		// the JSON text is needed to send or fragment it
+		int size = this.fragmentSize;
+		String text = null;
+		if (this.encoding == JRosbridge.EncodingType.json || size > 0) {
+			StringWriter writer = new StringWriter();
+			try (JsonGenerator generator = JsonStreams.createGenerator(writer)) {
+				Ros.writePublish(generator, topic, id, message);
+			}
+			text = writer.toString();
+		}
+
+		SendQueue.Frame frame;
+		if (size > 0 && text.length() > size) {
+			frame = this.fragment(id, text, size);
+		} else if (this.encoding == JRosbridge.EncodingType.cbor) {
+			CborEncoder encoder = new CborEncoder();
+			try (JsonGenerator generator = encoder.createGenerator()) {
+				Ros.writePublish(generator, topic, id, message);
+			}
+			frame = new SendQueue.Frame(encoder.toByteBuffer());
+		} else if (this.encoding == JRosbridge.EncodingType.bson) {
+			BsonEncoder encoder = new BsonEncoder();
+			try (JsonGenerator generator = encoder.createGenerator()) {
+				Ros.writePublish(generator, topic, id, message);
+			}
+			frame = new SendQueue.Frame(encoder.toByteBuffer());
+		} else {
+			frame = new SendQueue.Frame(text);
+		}
+
+		if (this.deflate != null) {
+			this.applyDeflateThreshold(frame, topic);
+		}
+		if (m != null) {
+			Ros.tag(frame, m, JRosbridge.OP_CODE_PUBLISH, topic, start);
+		}
+		return frame;
+	}
+
+	/**
+	 * Write a publish operation of the given message.
+	 * 
+	 * @param generator
+	 *            The generator to write the operation to.
+	 * @param topic
+	 *            The name of the topic.
+	 * @param id
+	 *            The ID of the publish operation.
+	 * @param message
+	 *            The message to publish.
+	 */
+	private static void writePublish(JsonGenerator generator, String topic,
+			String id, JsonWrapper message) {
+		generator.writeStartObject();
+		generator.write(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_PUBLISH);
+		generator.write(JRosbridge.FIELD_ID, id);
+		generator.write(JRosbridge.FIELD_TOPIC, topic);
+		JsonStreams.writeObject(generator, JRosbridge.FIELD_MESSAGE, message);
+		generator.writeEnd();
+	}
+
+	/**
+	 * Attach the compression threshold of the given topic to the frame and
+	 * any fragments of it.
+	 * 
+	 * @param frame
+	 *            The encoded frame.
+	 * @param topic
+	 *            The name of the topic.
+	 */
+	private void applyDeflateThreshold(SendQueue.Frame frame, String topic) {
+		int threshold = this.getDeflateThreshold(topic);
+		if (frame.isFragmented()) {
+			for (SendQueue.Frame part : frame.getParts()) {
+				part.setDeflateThreshold(threshold);
+			}
+		} else {
+			frame.setDeflateThreshold(threshold);
+		}
+	}
+
+	/**
+	 * Tag the given frame and any fragments of it so their writes can be
+	 * attributed, and record the time taken to encode it.
+	 * 
+	 * @param frame
+	 *            The encoded frame.
+	 * @param m
+	 *            The metrics to record to.
+	 * @param op
+	 *            The operation of the frame.
+	 * @param topic
+	 *            The topic or service of the frame.
+	 * @param start
+	 *            The time the encoding started, in nanoseconds.
+	 */
+	private static void tag(SendQueue.Frame frame, RosMetrics m, String op,
+			String topic, long start) {
+		frame.setTag(op, topic);
+		if (frame.isFragmented()) {
+			for (SendQueue.Frame part : frame.getParts()) {
+				part.setTag(op, topic);
+			}
+		}
+		m.recordSince(RosMetrics.Stage.SERIALIZE, op, topic, start);
+	}
+
+	/**
+	 * Encode the given JSON object using the current encoding, splitting it
+	 * into fragments if it is larger than the outgoing fragment size.
+	 * 
+	 * @param jsonObject
+	 *            The JSON object to encode.
+	 * @return The encoded frame.
+	 */
+	private SendQueue.Frame encodeMessage(JsonObject jsonObject) {
+		int size = this.fragmentSize;
+		if (size > 0) {
+			String op = jsonObject.getString(JRosbridge.FIELD_OP, "");
+			if (op.equals(JRosbridge.OP_CODE_PUBLISH)
+					|| op.equals(JRosbridge.OP_CODE_CALL_SERVICE)
+					|| op.equals(JRosbridge.OP_CODE_SERVICE_RESPONSE)) {
+				String text = jsonObject.toString();
+				if (text.length() > size) {
+					JsonValue id = jsonObject.get(JRosbridge.FIELD_ID);
+					return this.fragment(id == null ? null
+							: id instanceof JsonString ? ((JsonString) id)
+									.getString() : id.toString(), text, size);
+				} else if (this.encoding == JRosbridge.EncodingType.json) {
+					return new SendQueue.Frame(text);
+				}
+			}
+		}
+		return this.encodeFrame(jsonObject);
+	}
+
+	/**
+	 * Split the given message into "fragment" operations of at most the given
+	 * size. The fragments reuse the ID of the message, if it has one, so
+	 * rosbridge can reassemble them.
+	 * 
+	 * @param id
+	 *            The ID of the message, or null if it has none.
+	 * @param text
+	 *            The JSON text of the message.
+	 * @param size
+	 *            The maximum number of characters in each fragment.
+	 * @return The fragmented frame.
+	 */
+	private SendQueue.Frame fragment(String id, String text, int size) {
+		if (id == null) {
+			id = "fragment:" + this.nextId();
+		}
+
+		// never split a surrogate pair across fragments
+		ArrayList<String> pieces = new ArrayList<String>(text.length() / size
+				+ 1);
+		int start = 0;
+		while (start < text.length()) {
+			int end = Math.min(start + size, text.length());
+			if (end < text.length() && end - start > 1
+					&& Character.isHighSurrogate(text.charAt(end - 1))) {
+				end--;
+			}
+			pieces.add(text.substring(start, end));
+			start = end;
+		}
+
+		SendQueue.Frame[] parts = new SendQueue.Frame[pieces.size()];
+		for (int i = 0; i < parts.length; i++) {
+			parts[i] = this.encodeFrame(Json.createObjectBuilder()
+					.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_FRAGMENT)
+					.add(JRosbridge.FIELD_ID, id)
+					.add(JRosbridge.FIELD_DATA, pieces.get(i))
+					.add(JRosbridge.FIELD_NUM, i)
+					.add(JRosbridge.FIELD_TOTAL, parts.length).build());
+		}
+		return new SendQueue.Frame(parts);
+	}
+
+	/**
+	 * Encode the given JSON object as a single outgoing frame using the
+	 * current encoding.
+	 * 
+	 * @param jsonObject
+	 *            The JSON object to encode.
+	 * @return The encoded frame.
+	 */
+	private SendQueue.Frame encodeFrame(JsonObject jsonObject) {
+		if (this.encoding == JRosbridge.EncodingType.cbor) {
+			return new SendQueue.Frame(CborEncoder.encode(jsonObject));
+		} else if (this.encoding == JRosbridge.EncodingType.bson) {
+			return new SendQueue.Frame(BsonEncoder.encode(jsonObject));
+		} else {
+			return new SendQueue.Frame(jsonObject.toString());
+		}
+	}
+
+	/**
+	 * Write the given frame to the socket using the asynchronous remote and
+	 * wait for the write to complete. This is used by the writer thread of the
+	 * outbound queue.
+	 * 
+	 * @param frame
+	 *            The frame to write.
+	 * @return If the write was successful.
+	 */
+	boolean write(SendQueue.Frame frame) {
+		Session s = this.session;
+		if (s != null && s.isOpen()) {
+			try {
+				RosMetrics m = this.metrics;
+				synchronized (this.writeLock) {
+					long start = m == null ? 0 : System.nanoTime();
+					this.prepareWrite(frame);
+					if (frame.isBinary()) {
+						s.getAsyncRemote().sendBinary(frame.getBinary()).get();
+					} else {
+						s.getAsyncRemote().sendText(frame.getText()).get();
+					}
+					if (m != null) {
+						m.recordSince(RosMetrics.Stage.WRITE, frame.getOp(),
+								frame.getTopic(), start);
+					}
+				}
+				return true;
+			} catch (ExecutionException e) {
+				System.err.println("[ERROR]: Could not send message: "
+						+ e.getCause().getMessage());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Pass the compression threshold of the given frame to the
+	 * permessage-deflate extension. The caller must hold the write lock.
+	 * 
+	 * @param frame
+	 *            The frame about to be written.
+	 */
+	private void prepareWrite(SendQueue.Frame frame) {
+		DeflateExtension d = this.deflate;
+		if (d != null) {
+			d.setNextThreshold(frame.getDeflateThreshold());
+		}
+	}
+
 	/**
 	 * Sends an authorization request to the server.
 	 * 
@@ -466,13 +1923,8 @@ public class Ros {
 	 *            associated topic.
 	 */
 	public void registerTopicCallback(String topic, TopicCallback cb) {
-		// check if any callbacks exist yet
-		if (!this.topicCallbacks.containsKey(topic)) {
-			this.topicCallbacks.put(topic, new ArrayList<TopicCallback>());
-		}
-
 		// add the callback
-		this.topicCallbacks.get(topic).add(cb);
+		this.topicCallbacks.add(topic, cb);
 	}
 
 	/**
@@ -484,19 +1936,37 @@ public class Ros {
 	 *            The callback to remove.
 	 */
 	public void deregisterTopicCallback(String topic, TopicCallback cb) {
-		// check if any exist for this topic
-		if (this.topicCallbacks.containsKey(topic)) {
-			// remove the callback if it exists
-			ArrayList<TopicCallback> callbacks = this.topicCallbacks.get(topic);
-			if (callbacks.contains(cb)) {
-				callbacks.remove(cb);
-			}
+		// remove the callback if it exists (and the topic once it is empty)
+		this.topicCallbacks.remove(topic, cb);
+	}
 
-			// remove the list if it is empty
-			if (callbacks.size() == 0) {
-				this.topicCallbacks.remove(topic);
-			}
-		}
+	/**
+	 * Register a raw callback for a given topic. Raw callbacks are called with
+	 * the serialized message bytes of topics subscribed to with the "cbor-raw"
+	 * compression type.
+	 * 
+	 * @param topic
+	 *            The topic to register this callback with.
+	 * @param cb
+	 *            The callback that will be called when raw messages come in for
+	 *            the associated topic.
+	 */
+	public void registerRawTopicCallback(String topic, RawTopicCallback cb) {
+		// add the callback
+		this.rawTopicCallbacks.add(topic, cb);
+	}
+
+	/**
+	 * Deregister a raw callback for a given topic.
+	 * 
+	 * @param topic
+	 *            The topic associated with the callback.
+	 * @param cb
+	 *            The callback to remove.
+	 */
+	public void deregisterRawTopicCallback(String topic, RawTopicCallback cb) {
+		// remove the callback if it exists (and the topic once it is empty)
+		this.rawTopicCallbacks.remove(topic, cb);
 	}
 
 	/**
@@ -513,6 +1983,17 @@ public class Ros {
 		this.serviceCallbacks.put(serviceCallId, cb);
 	}
 
+	/**
+	 * Deregister a callback for a given outgoing service call.
+	 *
+	 * @param serviceCallId
+	 *            The unique ID of the service call.
+	 */
+	public void deregisterServiceCallback(String serviceCallId) {
+		// remove the callback
+		this.serviceCallbacks.remove(serviceCallId);
+	}
+
 	/**
 	 * Register a callback for a given incoming service request.
 	 *
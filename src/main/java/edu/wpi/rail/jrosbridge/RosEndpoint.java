@@ -0,0 +1,83 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.nio.ByteBuffer;
+
+import javax.websocket.CloseReason;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.MessageHandler;
+import javax.websocket.Session;
+
+/**
+ * The RosEndpoint is a programmatic WebSocket endpoint which forwards all
+ * events to a {@link Ros} object. It is used to connect with a
+ * ClientEndpointConfig so that extensions (e.g., permessage-deflate) can be
+ * negotiated, which is not possible for annotated endpoints.
+ *
+ * @version October 18, 2026
+ */
+class RosEndpoint extends Endpoint {
+
+	private final Ros ros;
+
+	/**
+	 * Create a new endpoint for the given connection.
+	 *
+	 * @param ros
+	 *            The connection to forward events to.
+	 */
+	RosEndpoint(Ros ros) {
+		this.ros = ros;
+	}
+
+	/**
+	 * Register the message handlers and notify the connection.
+	 *
+	 * @param session
+	 *            The session that was opened.
+	 * @param config
+	 *            The configuration of the endpoint.
+	 */
+	@Override
+	public void onOpen(Session session, EndpointConfig config) {
+		session.addMessageHandler(new MessageHandler.Whole<String>() {
+			@Override
+			public void onMessage(String message) {
+				ros.onMessage(message);
+			}
+		});
+		session.addMessageHandler(new MessageHandler.Whole<ByteBuffer>() {
+			@Override
+			public void onMessage(ByteBuffer data) {
+				ros.onMessage(data);
+			}
+		});
+		this.ros.onOpen(session);
+	}
+
+	/**
+	 * Notify the connection that the session was closed.
+	 *
+	 * @param session
+	 *            The session that was closed.
+	 * @param closeReason
+	 *            The reason the session was closed.
+	 */
+	@Override
+	public void onClose(Session session, CloseReason closeReason) {
+		this.ros.onClose(session);
+	}
+
+	/**
+	 * Notify the connection that an error occurred.
+	 *
+	 * @param session
+	 *            The session for the error.
+	 * @param t
+	 *            The error.
+	 */
+	@Override
+	public void onError(Session session, Throwable t) {
+		this.ros.onError(session, t);
+	}
+}
@@ -0,0 +1,623 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The SendQueue is a bounded outbound queue for a single {@link Ros}
+ * connection. Frames are added by any number of publishing threads and drained
+ * in order by a single dedicated writer thread, so callers never wait on the
+ * socket itself.
+ * <p>
+ * Fragmented messages are kept in a separate bulk lane. Between any two
+ * fragments the writer first sends everything waiting in the normal lane, so
+ * small (e.g., control) messages are never stuck behind a large message. Each
+ * message counts once against the capacity, however many fragments it has.
+ *
+ * @version October 18, 2026
+ */
+class SendQueue {
+
+	private final Ros ros;
+	private final int capacity;
+	private final JRosbridge.OverflowPolicy policy;
+
+	// pending frames, guarded by the lock
+	private final ArrayDeque<Frame> frames;
+
+	// pending fragmented messages, guarded by the lock
+	private final ArrayDeque<Frame> bulk;
+	private final ReentrantLock lock;
+	private final Condition notEmpty;
+	private final Condition notFull;
+
+	// the dedicated writer thread (created on start)
+	private Thread writer;
+	private boolean running;
+
+	// set once the queue is stopped, after which frames are rejected
+	private boolean stopped;
+
+	/**
+	 * Create a new send queue for the given connection. The writer thread is
+	 * not started until {@link #start()} is called.
+	 *
+	 * @param ros
+	 *            The connection to write frames to.
+	 * @param capacity
+	 *            The maximum number of frames that may be pending.
+	 * @param policy
+	 *            The policy to apply when the queue is full.
+	 */
+	SendQueue(Ros ros, int capacity, JRosbridge.OverflowPolicy policy) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("Capacity must be positive: "
+					+ capacity);
+		}
+		this.ros = ros;
+		this.capacity = capacity;
+		this.policy = policy;
+		this.frames = new ArrayDeque<Frame>();
+		this.bulk = new ArrayDeque<Frame>();
+		this.lock = new ReentrantLock();
+		this.notEmpty = this.lock.newCondition();
+		this.notFull = this.lock.newCondition();
+		this.writer = null;
+		this.running = false;
+		this.stopped = false;
+	}
+
+	/**
+	 * Get the maximum number of frames that may be pending.
+	 *
+	 * @return The maximum number of frames that may be pending.
+	 */
+	int getCapacity() {
+		return this.capacity;
+	}
+
+	/**
+	 * Get the policy applied when the queue is full.
+	 *
+	 * @return The policy applied when the queue is full.
+	 */
+	JRosbridge.OverflowPolicy getPolicy() {
+		return this.policy;
+	}
+
+	/**
+	 * Get the number of frames currently waiting to be written. A fragmented
+	 * message counts as a single frame.
+	 *
+	 * @return The number of frames currently waiting to be written.
+	 */
+	int size() {
+		this.lock.lock();
+		try {
+			return this.frames.size() + this.bulk.size();
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Start the dedicated writer thread. Calling this more than once, or after
+	 * the queue was stopped, has no effect.
+	 */
+	void start() {
+		this.lock.lock();
+		try {
+			if (this.writer == null && !this.stopped) {
+				this.running = true;
+				this.writer = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						drain();
+					}
+				}, "jrosbridge-writer-" + this.ros.getURL());
+				this.writer.setDaemon(true);
+				this.writer.start();
+			}
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Stop the writer thread. Any frames that have not been written yet, and
+	 * any frames offered afterwards, are completed as unsuccessful.
+	 */
+	void stop() {
+		Thread toJoin;
+		this.lock.lock();
+		try {
+			this.running = false;
+			this.stopped = true;
+			toJoin = this.writer;
+			this.writer = null;
+			// wake up anyone waiting on the queue
+			this.notEmpty.signalAll();
+			this.notFull.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+
+		if (toJoin != null && toJoin != Thread.currentThread()) {
+			try {
+				toJoin.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		this.failPending();
+	}
+
+	/**
+	 * Check if the queue has been stopped, either by {@link #stop()} or
+	 * because its writer thread exited. A stopped queue rejects all frames.
+	 *
+	 * @return If the queue has been stopped.
+	 */
+	boolean isStopped() {
+		this.lock.lock();
+		try {
+			return this.stopped;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Stop the queue from the writer thread once its loop has ended (e.g.,
+	 * because the thread was interrupted), so that pending frames and waiting
+	 * producers are not left behind. Unless the queue was stopped on purpose,
+	 * the exit is logged.
+	 *
+	 * @param failure
+	 *            What ended the loop, or null if it ended without an error.
+	 */
+	private void writerExited(Throwable failure) {
+		this.lock.lock();
+		try {
+			if (!this.stopped) {
+				System.err.println("[ERROR]: The writer thread of "
+						+ this.ros.getURL()
+						+ " exited"
+						+ (failure == null ? " after an interrupt" : ": "
+								+ failure));
+			}
+			this.running = false;
+			this.stopped = true;
+			if (this.writer == Thread.currentThread()) {
+				this.writer = null;
+			}
+			this.notFull.signalAll();
+		} finally {
+			this.lock.unlock();
+		}
+		this.failPending();
+	}
+
+	/**
+	 * Complete every frame still in the queue as unsuccessful.
+	 */
+	private void failPending() {
+		Frame f;
+		while ((f = this.poll()) != null) {
+			f.getResult().complete(false);
+		}
+	}
+
+	/**
+	 * Add the given frame to the queue, applying the overflow policy if the
+	 * queue is full. Frames offered after the queue was stopped are completed
+	 * as unsuccessful right away.
+	 *
+	 * @param frame
+	 *            The frame to send.
+	 * @return The future that is completed once the frame has been written (or
+	 *         dropped).
+	 */
+	CompletableFuture<Boolean> offer(Frame frame) {
+		Frame dropped = null;
+
+		this.lock.lock();
+		try {
+			if (this.stopped) {
+				frame.getResult().complete(false);
+				return frame.getResult();
+			}
+			while (this.frames.size() + this.bulk.size() >= this.capacity) {
+				if (this.policy == JRosbridge.OverflowPolicy.BLOCK
+						&& this.running) {
+					try {
+						this.notFull.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						frame.getResult().complete(false);
+						return frame.getResult();
+					}
+				} else if (this.policy == JRosbridge.OverflowPolicy.DROP_OLDEST) {
+					dropped = this.pollOldest();
+					if (dropped == null) {
+						// only a message being written is pending
+						frame.getResult().complete(false);
+						return frame.getResult();
+					}
+				} else if (this.policy == JRosbridge.OverflowPolicy.FAIL) {
+					frame.getResult().completeExceptionally(
+							new RejectedExecutionException(
+									"Outbound queue is full (capacity "
+											+ this.capacity + ")"));
+					return frame.getResult();
+				} else {
+					// drop newest (or blocking on a stopped queue)
+					frame.getResult().complete(false);
+					return frame.getResult();
+				}
+			}
+			if (this.stopped) {
+				// stopped while waiting for room
+				frame.getResult().complete(false);
+				return frame.getResult();
+			}
+			if (frame.isFragmented()) {
+				this.bulk.addLast(frame);
+			} else {
+				this.frames.addLast(frame);
+			}
+			this.notEmpty.signal();
+		} finally {
+			this.lock.unlock();
+		}
+
+		// complete outside of the lock to avoid running user code under it
+		if (dropped != null) {
+			dropped.getResult().complete(false);
+		}
+		return frame.getResult();
+	}
+
+	/**
+	 * Remove the oldest frame that can still be dropped. The caller must hold
+	 * the lock. A fragmented message that the writer has started on is never
+	 * dropped.
+	 *
+	 * @return The removed frame, or null if there is none.
+	 */
+	private Frame pollOldest() {
+		if (!this.frames.isEmpty()) {
+			return this.frames.pollFirst();
+		}
+		Frame head = this.bulk.peekFirst();
+		if (head == null || !head.taken) {
+			return this.bulk.pollFirst();
+		}
+		// skip the message currently being written
+		Frame f = null;
+		if (this.bulk.size() > 1) {
+			this.bulk.pollFirst();
+			f = this.bulk.pollFirst();
+			this.bulk.addFirst(head);
+		}
+		return f;
+	}
+
+	/**
+	 * Remove the next frame without waiting.
+	 *
+	 * @return The next frame, or null if the queue is empty.
+	 */
+	private Frame poll() {
+		this.lock.lock();
+		try {
+			Frame f = this.frames.pollFirst();
+			if (f == null) {
+				f = this.bulk.pollFirst();
+			}
+			if (f != null) {
+				this.notFull.signal();
+			}
+			return f;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Get the next frame to write, waiting until one is available or the queue
+	 * is stopped. Frames in the normal lane are removed. A fragmented message
+	 * is left at the head of the bulk lane until all of its fragments have
+	 * been written, and is marked as taken so it can no longer be dropped.
+	 *
+	 * @return The next frame, or null if the queue was stopped or the writer
+	 *         thread was interrupted.
+	 */
+	private Frame take() {
+		this.lock.lock();
+		try {
+			if (Thread.currentThread().isInterrupted()) {
+				return null;
+			}
+			while (this.running && this.frames.isEmpty()
+					&& this.bulk.isEmpty()) {
+				try {
+					this.notEmpty.await();
+				} catch (InterruptedException e) {
+					return null;
+				}
+			}
+			Frame f = this.frames.pollFirst();
+			if (f != null) {
+				this.notFull.signal();
+				return f;
+			}
+			f = this.bulk.peekFirst();
+			if (f != null) {
+				// owned by the writer from here on, even before its first
+				// fragment is written
+				f.taken = true;
+			}
+			return f;
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * Remove a fully written (or failed) fragmented message from the head of
+	 * the bulk lane.
+	 *
+	 * @param f
+	 *            The fragmented message.
+	 */
+	private void finish(Frame f) {
+		this.lock.lock();
+		try {
+			if (this.bulk.peekFirst() == f) {
+				this.bulk.pollFirst();
+				this.notFull.signal();
+			}
+		} finally {
+			this.lock.unlock();
+		}
+	}
+
+	/**
+	 * The writer loop. Frames are written one at a time so their order on the
+	 * wire matches the order they were queued in. Fragmented messages are
+	 * written one fragment per pass so the normal lane is checked between
+	 * fragments; small messages may therefore overtake a large one. A failed
+	 * write only fails its own frame. Once the loop ends, whether stopped,
+	 * interrupted, or ended by an error, the frame being written and the
+	 * frames still pending are failed.
+	 */
+	private void drain() {
+		Throwable failure = null;
+		Frame f = null;
+		try {
+			while ((f = this.take()) != null) {
+				if (!f.isFragmented()) {
+					f.getResult().complete(this.write(f));
+				} else {
+					Frame[] parts = f.getParts();
+					boolean written = this.write(parts[f.next++]);
+					if (!written || f.next == parts.length) {
+						this.finish(f);
+						f.getResult().complete(written);
+					}
+				}
+			}
+		} catch (RuntimeException | Error e) {
+			failure = e;
+			// the frame being written is no longer in the queue
+			if (f != null) {
+				f.getResult().complete(false);
+			}
+			throw e;
+		} finally {
+			this.writerExited(failure);
+		}
+	}
+
+	/**
+	 * Write a single frame to the connection. Unchecked exceptions (e.g., an
+	 * IllegalStateException if the session closed just before the write) fail
+	 * the frame rather than the writer thread.
+	 *
+	 * @param f
+	 *            The frame to write.
+	 * @return If the write was successful.
+	 */
+	private boolean write(Frame f) {
+		try {
+			return this.ros.write(f);
+		} catch (RuntimeException e) {
+			System.err.println("[ERROR]: Could not send message: "
+					+ e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * A single outbound frame, either text or binary, and its completion
+	 * result.
+	 *
+	 * @version October 18, 2026
+	 */
+	static class Frame {
+
+		private final String text;
+		private final ByteBuffer binary;
+		private final Frame[] parts;
+		private final CompletableFuture<Boolean> result;
+
+		// the next fragment to write (only used by the writer thread)
+		private int next;
+
+		// if the writer has started on this fragmented message, guarded by
+		// the lock of the queue
+		private boolean taken;
+
+		// the compression threshold for this frame (-1 for the default)
+		private int deflateThreshold;
+
+		// the op code and topic of the message, used to tag metrics
+		private String op;
+		private String topic;
+
+		/**
+		 * Create a new text frame.
+		 *
+		 * @param text
+		 *            The text to send.
+		 */
+		Frame(String text) {
+			this.text = text;
+			this.binary = null;
+			this.parts = null;
+			this.result = new CompletableFuture<Boolean>();
+			this.deflateThreshold = -1;
+		}
+
+		/**
+		 * Create a new binary frame.
+		 *
+		 * @param binary
+		 *            The data to send.
+		 */
+		Frame(ByteBuffer binary) {
+			this.text = null;
+			this.binary = binary;
+			this.parts = null;
+			this.result = new CompletableFuture<Boolean>();
+			this.deflateThreshold = -1;
+		}
+
+		/**
+		 * Create a new fragmented message. The fragments are written in order
+		 * and the result is completed once all of them have been written.
+		 *
+		 * @param parts
+		 *            The frames holding each fragment.
+		 */
+		Frame(Frame[] parts) {
+			this.text = null;
+			this.binary = null;
+			this.parts = parts;
+			this.result = new CompletableFuture<Boolean>();
+			this.deflateThreshold = -1;
+		}
+
+		/**
+		 * Check if this is a fragmented message.
+		 *
+		 * @return If this is a fragmented message.
+		 */
+		boolean isFragmented() {
+			return this.parts != null;
+		}
+
+		/**
+		 * Get the fragments of this message.
+		 *
+		 * @return The fragments of this message, or null if it is not
+		 *         fragmented.
+		 */
+		Frame[] getParts() {
+			return this.parts;
+		}
+
+		/**
+		 * Check if this is a binary frame.
+		 *
+		 * @return If this is a binary frame.
+		 */
+		boolean isBinary() {
+			return this.binary != null;
+		}
+
+		/**
+		 * Get the text of this frame.
+		 *
+		 * @return The text of this frame, or null for binary frames.
+		 */
+		String getText() {
+			return this.text;
+		}
+
+		/**
+		 * Get the data of this frame.
+		 *
+		 * @return The data of this frame, or null for text frames.
+		 */
+		ByteBuffer getBinary() {
+			return this.binary;
+		}
+
+		/**
+		 * Get the compression threshold for this frame.
+		 *
+		 * @return The compression threshold in bytes, or -1 to use the
+		 *         default threshold.
+		 */
+		int getDeflateThreshold() {
+			return this.deflateThreshold;
+		}
+
+		/**
+		 * Set the compression threshold for this frame.
+		 *
+		 * @param deflateThreshold
+		 *            The compression threshold in bytes, or -1 to use the
+		 *            default threshold.
+		 */
+		void setDeflateThreshold(int deflateThreshold) {
+			this.deflateThreshold = deflateThreshold;
+		}
+
+		/**
+		 * Get the op code of the message in this frame.
+		 *
+		 * @return The op code, or null if the frame is not tagged.
+		 */
+		String getOp() {
+			return this.op;
+		}
+
+		/**
+		 * Get the topic (or service) of the message in this frame.
+		 *
+		 * @return The topic, or null if the frame is not tagged.
+		 */
+		String getTopic() {
+			return this.topic;
+		}
+
+		/**
+		 * Tag this frame with the op code and topic of its message.
+		 *
+		 * @param op
+		 *            The op code of the message.
+		 * @param topic
+		 *            The topic (or service) of the message.
+		 */
+		void setTag(String op, String topic) {
+			this.op = op;
+			this.topic = topic;
+		}
+
+		/**
+		 * Get the result that is completed once this frame is written.
+		 *
+		 * @return The result that is completed once this frame is written.
+		 */
+		CompletableFuture<Boolean> getResult() {
+			return this.result;
+		}
+	}
+}
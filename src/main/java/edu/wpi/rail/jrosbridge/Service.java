@@ -1,5 +1,8 @@
 package edu.wpi.rail.jrosbridge;
 
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 import javax.json.Json;
 import javax.json.JsonObject;
 
@@ -19,7 +22,7 @@ public class Service {
 	private final Ros ros;
 	private final String name;
 	private final String type;
-	private boolean isAdvertised;
+	private volatile boolean isAdvertised;
 
 	/**
 	 * Create a ROS service with the given information.
@@ -84,6 +87,35 @@ public class Service {
 	 *            The callback used when the associated response comes back.
 	 */
 	public void callService(ServiceRequest request, ServiceCallback cb) {
+		this.call(request, cb);
+	}
+
+	/**
+	 * Call this service, reporting if the call could be sent. The callback
+	 * function will be called with the associated service response.
+	 * 
+	 * @param request
+	 *            The service request to send.
+	 * @param cb
+	 *            The callback used when the associated response comes back.
+	 * @return If the call was sent (or queued); if not, the callback is never
+	 *         called.
+	 */
+	public boolean tryCallService(ServiceRequest request, ServiceCallback cb) {
+		return this.call(request, cb) != null;
+	}
+
+	/**
+	 * Send a call of this service.
+	 * 
+	 * @param request
+	 *            The service request to send.
+	 * @param cb
+	 *            The callback used when the associated response comes back.
+	 * @return The ID of the call, or null if it could not be sent (in which
+	 *         case the callback is deregistered again).
+	 */
+	private String call(ServiceRequest request, ServiceCallback cb) {
 		// construct the unique ID
 		String callServceId = "call_service:" + this.name + ":"
 				+ this.ros.nextId();
@@ -98,7 +130,12 @@ public class Service {
 				.add(JRosbridge.FIELD_TYPE, this.type)
 				.add(JRosbridge.FIELD_SERVICE, this.name)
 				.add(JRosbridge.FIELD_ARGS, request.toJsonObject()).build();
-		this.ros.send(call);
+		if (!this.ros.send(call)) {
+			// no response will come back for it
+			this.ros.deregisterServiceCallback(callServceId);
+			return null;
+		}
+		return callServceId;
 	}
 
 	/**
@@ -123,7 +160,7 @@ public class Service {
 	/**
 	 * Registers as service advertiser.
 	 */
-	public void advertiseService(CallServiceCallback cb) {
+	public synchronized void advertiseService(CallServiceCallback cb) {
 		// register the callback
 		this.ros.registerCallServiceCallback(this.name, cb);
 
@@ -141,7 +178,7 @@ public class Service {
 	/**
 	 * Unregisters as service advertiser.
 	 */
-	public void unadvertiseService() {
+	public synchronized void unadvertiseService() {
 		this.ros.deregisterCallServiceCallback(this.name);
 
 		// build and send the rosbridge call
@@ -156,64 +193,84 @@ public class Service {
 
 	/**
 	 * Call the service and wait for a response. This is a blocking call and
-	 * will only return once rosbridge returns the service response. For an
-	 * asynchronous version of this call, see the
+	 * will only return once rosbridge returns the service response, or right
+	 * away if the call could not be sent. No lock is held while waiting, so
+	 * any number of threads (e.g., virtual threads on Java 21) may wait on
+	 * calls to the same service at once. For an asynchronous version of this
+	 * call, see the
 	 * {@link #callService(ServiceRequest request, ServiceCallback cb)
 	 * callService} method.
 	 * 
 	 * @param request
 	 *            The service request to send.
-	 * @return The corresponding service response from ROS.
+	 * @return The corresponding service response from ROS, or null if the
+	 *         call could not be sent.
 	 */
-	public synchronized ServiceResponse callServiceAndWait(
-			ServiceRequest request) {
-
-		// private inner class to use as a callback
-		BlockingCallback cb = new BlockingCallback(this);
+	public ServiceResponse callServiceAndWait(ServiceRequest request) {
+		// inner class to use as a callback
+		BlockingCallback cb = new BlockingCallback();
 		// use the asynchronous version and block on the result
-		this.callService(request, cb);
+		if (this.call(request, cb) == null) {
+			return null;
+		}
 
 		// wait for a response
-		while (cb.getResponse() == null) {
-			try {
-				this.wait();
-			} catch (InterruptedException e) {
-				// continue on
-			}
+		return cb.await();
+	}
+
+	/**
+	 * Call the service and wait for a response for at most the given time.
+	 * This is a blocking call and will only return once rosbridge returns the
+	 * service response, the call could not be sent, or the timeout has
+	 * passed. A response that arrives after the timeout is dropped.
+	 * 
+	 * @param request
+	 *            The service request to send.
+	 * @param timeout
+	 *            The longest time to wait in milliseconds.
+	 * @return The corresponding service response from ROS, or null if the
+	 *         call could not be sent or no response arrived in time.
+	 */
+	public ServiceResponse callServiceAndWait(ServiceRequest request,
+			long timeout) {
+		BlockingCallback cb = new BlockingCallback();
+		String id = this.call(request, cb);
+		if (id == null) {
+			return null;
 		}
 
-		return cb.getResponse();
+		ServiceResponse response = cb.await(timeout);
+		if (response == null) {
+			// stop waiting on it
+			this.ros.deregisterServiceCallback(id);
+		}
+		return response;
 	}
 
 	/**
-	 * A private {@link edu.wpi.rail.jrosbridge.callback.ServiceCallback
+	 * A {@link edu.wpi.rail.jrosbridge.callback.ServiceCallback
 	 * ServiceCallback} used to block and wait for a response from rosbridge.
+	 * Each call waits on its own latch, so concurrent calls do not contend.
 	 * 
 	 * @author Russell Toris - russell.toris@gmail.com
-	 * @version April 1, 2014
+	 * @version October 18, 2026
 	 */
-	private class BlockingCallback implements ServiceCallback {
+	static class BlockingCallback implements ServiceCallback {
 
-		private ServiceResponse response;
-		private Service service;
+		private volatile ServiceResponse response;
+		private final CountDownLatch done;
 
 		/**
-		 * Create a new callback function which will notify the given
-		 * {@link edu.wpi.rail.jrosbridge.Service Service} once a response
-		 * has been received.
-		 * 
-		 * @param service
-		 *            The {@link edu.wpi.rail.jrosbridge.Service Service}
-		 *            to notify once a response has been received.
+		 * Create a new callback function which will release the waiting
+		 * caller once a response has been received.
 		 */
-		public BlockingCallback(Service service) {
+		public BlockingCallback() {
 			this.response = null;
-			this.service = service;
+			this.done = new CountDownLatch(1);
 		}
 
 		/**
-		 * Store the response internally and notify the corresponding
-		 * {@link edu.wpi.rail.jrosbridge.Service Service}.
+		 * Store the response internally and release the waiting caller.
 		 * 
 		 * @param response
 		 *            The incoming service response from ROS.
@@ -221,9 +278,7 @@ public class Service {
 		@Override
 		public void handleServiceResponse(ServiceResponse response) {
 			this.response = response;
-			synchronized (this.service) {
-				this.service.notifyAll();
-			}
+			this.done.countDown();
 		}
 
 		/**
@@ -236,5 +291,59 @@ public class Service {
 		public ServiceResponse getResponse() {
 			return this.response;
 		}
+
+		/**
+		 * Wait until the response has been received. Interrupts do not end the
+		 * wait, but the interrupt status is restored before returning.
+		 * 
+		 * @return The resulting service response from ROS.
+		 */
+		public ServiceResponse await() {
+			boolean interrupted = false;
+			while (this.done.getCount() > 0) {
+				try {
+					this.done.await();
+				} catch (InterruptedException e) {
+					// continue on
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			return this.response;
+		}
+
+		/**
+		 * Wait until the response has been received or the timeout has
+		 * passed. Interrupts do not end the wait, but the interrupt status is
+		 * restored before returning.
+		 * 
+		 * @param timeout
+		 *            The longest time to wait in milliseconds.
+		 * @return The resulting service response from ROS, or null if it was
+		 *         not received in time.
+		 */
+		public ServiceResponse await(long timeout) {
+			long deadline = System.nanoTime()
+					+ TimeUnit.MILLISECONDS.toNanos(timeout);
+			boolean interrupted = false;
+			while (this.done.getCount() > 0) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					break;
+				}
+				try {
+					this.done.await(remaining, TimeUnit.NANOSECONDS);
+				} catch (InterruptedException e) {
+					// continue on
+					interrupted = true;
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+			return this.response;
+		}
 	}
 }
@@ -0,0 +1,301 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+
+/**
+ * The SubscriptionManager shares server subscriptions between the local
+ * subscribers of a connection. Local subscribers are reference counted per
+ * topic, message type, and compression type, and only the first one sends a
+ * subscribe call; the last one to leave sends the unsubscribe call. The server
+ * subscription uses the merged settings of all local subscribers (the lowest
+ * throttle rate, the longest queue, and the smallest fragment size), and is
+ * replaced whenever the merged settings change.
+ *
+ * @version October 18, 2026
+ */
+class SubscriptionManager {
+
+	private final Ros ros;
+
+	// the server subscriptions by key, guarded by this object
+	private final HashMap<String, Entry> entries;
+
+	/**
+	 * Create a new subscription manager for the given connection.
+	 *
+	 * @param ros
+	 *            The connection to send subscribe and unsubscribe calls on.
+	 */
+	SubscriptionManager(Ros ros) {
+		this.ros = ros;
+		this.entries = new HashMap<String, Entry>();
+	}
+
+	/**
+	 * Add a local subscriber, subscribing on the server if it is the first one
+	 * for its topic, type, and compression type.
+	 *
+	 * @param topic
+	 *            The name of the topic.
+	 * @param type
+	 *            The message type.
+	 * @param compression
+	 *            The compression type.
+	 * @param throttleRate
+	 *            The throttle rate the subscriber wants.
+	 * @param queueLength
+	 *            The queue length the subscriber wants (0 if not set).
+	 * @param fragmentSize
+	 *            The fragment size the subscriber wants (0 if not set).
+	 * @return The handle used to remove the subscriber again.
+	 */
+	synchronized Subscriber acquire(String topic, String type,
+			JRosbridge.CompressionType compression, int throttleRate,
+			int queueLength, int fragmentSize) {
+		String key = SubscriptionManager.key(topic, type, compression);
+		Entry entry = this.entries.get(key);
+		if (entry == null) {
+			entry = new Entry(topic, type, compression);
+			this.entries.put(key, entry);
+		}
+
+		Subscriber subscriber = new Subscriber(key, throttleRate, queueLength,
+				fragmentSize);
+		entry.subscribers.add(subscriber);
+		this.update(entry);
+		return subscriber;
+	}
+
+	/**
+	 * Remove a local subscriber, unsubscribing on the server if it was the
+	 * last one for its topic, type, and compression type. Removing a
+	 * subscriber twice has no effect.
+	 *
+	 * @param subscriber
+	 *            The handle returned when the subscriber was added.
+	 */
+	synchronized void release(Subscriber subscriber) {
+		Entry entry = this.entries.get(subscriber.key);
+		if (entry == null || !entry.subscribers.remove(subscriber)) {
+			return;
+		}
+
+		if (entry.subscribers.isEmpty()) {
+			this.entries.remove(subscriber.key);
+			this.sendUnsubscribe(entry, entry.id);
+		} else {
+			this.update(entry);
+		}
+	}
+
+	/**
+	 * Get the number of local subscribers sharing a server subscription.
+	 *
+	 * @param topic
+	 *            The name of the topic.
+	 * @param type
+	 *            The message type.
+	 * @param compression
+	 *            The compression type.
+	 * @return The number of local subscribers.
+	 */
+	synchronized int getSubscriberCount(String topic, String type,
+			JRosbridge.CompressionType compression) {
+		Entry entry = this.entries.get(SubscriptionManager.key(topic, type,
+				compression));
+		return entry == null ? 0 : entry.subscribers.size();
+	}
+
+	/**
+	 * Get the ID of the current server subscription.
+	 *
+	 * @param topic
+	 *            The name of the topic.
+	 * @param type
+	 *            The message type.
+	 * @param compression
+	 *            The compression type.
+	 * @return The ID of the subscribe call, or null if not subscribed.
+	 */
+	synchronized String getId(String topic, String type,
+			JRosbridge.CompressionType compression) {
+		Entry entry = this.entries.get(SubscriptionManager.key(topic, type,
+				compression));
+		return entry == null ? null : entry.id;
+	}
+
+	/**
+	 * Get the number of server subscriptions.
+	 *
+	 * @return The number of server subscriptions.
+	 */
+	synchronized int size() {
+		return this.entries.size();
+	}
+
+	/**
+	 * Subscribe on the server with the merged settings of the entry's
+	 * subscribers if they differ from the current server subscription. The new
+	 * subscription is made before the old one is removed, so no messages are
+	 * missed. Must be called while holding the lock.
+	 *
+	 * @param entry
+	 *            The entry to update.
+	 */
+	private void update(Entry entry) {
+		int throttleRate = Integer.MAX_VALUE;
+		int queueLength = 0;
+		int fragmentSize = 0;
+		for (Subscriber s : entry.subscribers) {
+			throttleRate = Math.min(throttleRate, s.throttleRate);
+			queueLength = Math.max(queueLength, s.queueLength);
+			if (s.fragmentSize > 0
+					&& (fragmentSize == 0 || s.fragmentSize < fragmentSize)) {
+				fragmentSize = s.fragmentSize;
+			}
+		}
+
+		if (entry.id != null && throttleRate == entry.throttleRate
+				&& queueLength == entry.queueLength
+				&& fragmentSize == entry.fragmentSize) {
+			return;
+		}
+
+		String old = entry.id;
+		entry.id = "subscribe:" + entry.topic + ":" + this.ros.nextId();
+		entry.throttleRate = throttleRate;
+		entry.queueLength = queueLength;
+		entry.fragmentSize = fragmentSize;
+
+		// build and send the rosbridge call
+		JsonObjectBuilder builder = Json.createObjectBuilder()
+				.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_SUBSCRIBE)
+				.add(JRosbridge.FIELD_ID, entry.id)
+				.add(JRosbridge.FIELD_TYPE, entry.type)
+				.add(JRosbridge.FIELD_TOPIC, entry.topic)
+				.add(JRosbridge.FIELD_COMPRESSION,
+						entry.compression.toString())
+				.add(JRosbridge.FIELD_THROTTLE_RATE, throttleRate);
+		// optional fields are only sent when set
+		if (queueLength > 0) {
+			builder.add(JRosbridge.FIELD_QUEUE_LENGTH, queueLength);
+		}
+		if (fragmentSize > 0) {
+			builder.add(JRosbridge.FIELD_FRAGMENT_SIZE, fragmentSize);
+		}
+		this.ros.send(builder.build());
+
+		if (old != null) {
+			this.sendUnsubscribe(entry, old);
+		}
+	}
+
+	/**
+	 * Send an unsubscribe call for the given server subscription. Must be
+	 * called while holding the lock.
+	 *
+	 * @param entry
+	 *            The entry of the subscription.
+	 * @param id
+	 *            The ID of the subscribe call.
+	 */
+	private void sendUnsubscribe(Entry entry, String id) {
+		JsonObject call = Json.createObjectBuilder()
+				.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_UNSUBSCRIBE)
+				.add(JRosbridge.FIELD_ID, id)
+				.add(JRosbridge.FIELD_TOPIC, entry.topic).build();
+		this.ros.send(call);
+	}
+
+	/**
+	 * Get the key of a server subscription.
+	 *
+	 * @param topic
+	 *            The name of the topic.
+	 * @param type
+	 *            The message type.
+	 * @param compression
+	 *            The compression type.
+	 * @return The key.
+	 */
+	private static String key(String topic, String type,
+			JRosbridge.CompressionType compression) {
+		return topic + "\n" + type + "\n" + compression;
+	}
+
+	/**
+	 * A Subscriber is the handle of a single local subscriber.
+	 *
+	 * @version October 18, 2026
+	 */
+	static class Subscriber {
+
+		private final String key;
+		private final int throttleRate;
+		private final int queueLength;
+		private final int fragmentSize;
+
+		/**
+		 * Create a new subscriber handle.
+		 *
+		 * @param key
+		 *            The key of the server subscription.
+		 * @param throttleRate
+		 *            The throttle rate the subscriber wants.
+		 * @param queueLength
+		 *            The queue length the subscriber wants.
+		 * @param fragmentSize
+		 *            The fragment size the subscriber wants.
+		 */
+		private Subscriber(String key, int throttleRate, int queueLength,
+				int fragmentSize) {
+			this.key = key;
+			this.throttleRate = throttleRate;
+			this.queueLength = queueLength;
+			this.fragmentSize = fragmentSize;
+		}
+	}
+
+	/**
+	 * An Entry is a server subscription and its local subscribers.
+	 *
+	 * @version October 18, 2026
+	 */
+	private static class Entry {
+
+		private final String topic;
+		private final String type;
+		private final JRosbridge.CompressionType compression;
+		private final ArrayList<Subscriber> subscribers;
+
+		// the current server subscription (null until subscribed)
+		private String id;
+		private int throttleRate;
+		private int queueLength;
+		private int fragmentSize;
+
+		/**
+		 * Create a new entry without subscribers.
+		 *
+		 * @param topic
+		 *            The name of the topic.
+		 * @param type
+		 *            The message type.
+		 * @param compression
+		 *            The compression type.
+		 */
+		private Entry(String topic, String type,
+				JRosbridge.CompressionType compression) {
+			this.topic = topic;
+			this.type = type;
+			this.compression = compression;
+			this.subscribers = new ArrayList<Subscriber>();
+			this.id = null;
+		}
+	}
+}
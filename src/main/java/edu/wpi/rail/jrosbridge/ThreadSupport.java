@@ -0,0 +1,50 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The ThreadSupport creates the threads used to run callbacks. This is the
+ * Java 8 version, which uses daemon platform threads. The multi-release JAR
+ * contains a Java 21 version of this class which uses virtual threads instead,
+ * so blocking callbacks and blocking service calls only park a virtual thread.
+ *
+ * @version October 18, 2026
+ */
+final class ThreadSupport {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private ThreadSupport() {
+	}
+
+	/**
+	 * Check if callbacks run on virtual threads.
+	 *
+	 * @return If callbacks run on virtual threads.
+	 */
+	static boolean isVirtual() {
+		return false;
+	}
+
+	/**
+	 * Create a thread factory for callback threads.
+	 *
+	 * @param name
+	 *            The prefix for the names of the threads.
+	 * @return A thread factory creating daemon threads named after the prefix
+	 *         and a counter.
+	 */
+	static ThreadFactory newThreadFactory(final String name) {
+		final AtomicInteger count = new AtomicInteger();
+		return new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable r) {
+				Thread t = new Thread(r, name + "-" + count.getAndIncrement());
+				t.setDaemon(true);
+				return t;
+			}
+		};
+	}
+}
@@ -0,0 +1,237 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.wpi.rail.jrosbridge.callback.TopicCallback;
+import edu.wpi.rail.jrosbridge.messages.Message;
+
+/**
+ * The ThrottledTopicCallback limits how often a single callback is called,
+ * independent of the throttle rate the topic requests from rosbridge (which is
+ * shared by every callback of the topic). The Ros connection checks the
+ * throttle as soon as it knows the topic of an incoming message, before the
+ * message is decoded or dispatched, so a rejected message costs the callback
+ * nothing. Once accepted, the message is handed to the wrapped callback as is.
+ *
+ * @version October 18, 2026
+ */
+public class ThrottledTopicCallback implements TopicCallback {
+
+	/**
+	 * The ways a callback can be throttled.
+	 *
+	 * @version October 18, 2026
+	 */
+	public enum Mode {
+		/**
+		 * Accept every Nth message.
+		 */
+		EVERY_NTH,
+
+		/**
+		 * Accept a message only if a minimum interval has passed since the
+		 * last accepted message.
+		 */
+		MIN_INTERVAL,
+
+		/**
+		 * Accept messages at a maximum average rate. Unlike MIN_INTERVAL,
+		 * time left over from a late message is credited to the next one, so
+		 * jitter in the incoming messages does not lower the rate.
+		 */
+		MAX_RATE
+	}
+
+	private final TopicCallback callback;
+	private final Mode mode;
+	private final long n;
+	private final long interval;
+
+	// throttle state, guarded by this object
+	private long seen;
+	private long next;
+	private boolean started;
+
+	private final AtomicLong accepted;
+	private final AtomicLong rejected;
+
+	/**
+	 * Create a new throttled callback.
+	 *
+	 * @param callback
+	 *            The callback to throttle.
+	 * @param mode
+	 *            The way to throttle the callback.
+	 * @param n
+	 *            N for EVERY_NTH (unused otherwise).
+	 * @param interval
+	 *            The interval between messages in nanoseconds for MIN_INTERVAL
+	 *            and MAX_RATE (unused otherwise).
+	 */
+	private ThrottledTopicCallback(TopicCallback callback, Mode mode, long n,
+			long interval) {
+		this.callback = callback;
+		this.mode = mode;
+		this.n = n;
+		this.interval = interval;
+		this.seen = 0;
+		this.next = 0;
+		this.started = false;
+		this.accepted = new AtomicLong();
+		this.rejected = new AtomicLong();
+	}
+
+	/**
+	 * Throttle the given callback to every Nth message, starting with the
+	 * first.
+	 *
+	 * @param callback
+	 *            The callback to throttle.
+	 * @param n
+	 *            The number of messages per accepted message (1 accepts all).
+	 * @return The throttled callback.
+	 */
+	public static ThrottledTopicCallback everyNth(TopicCallback callback, int n) {
+		if (n <= 0) {
+			throw new IllegalArgumentException("N must be positive: " + n);
+		}
+		return new ThrottledTopicCallback(callback, Mode.EVERY_NTH, n, 0);
+	}
+
+	/**
+	 * Throttle the given callback so at least the given interval passes
+	 * between two accepted messages.
+	 *
+	 * @param callback
+	 *            The callback to throttle.
+	 * @param interval
+	 *            The minimum interval in milliseconds.
+	 * @return The throttled callback.
+	 */
+	public static ThrottledTopicCallback minInterval(TopicCallback callback,
+			long interval) {
+		if (interval < 0) {
+			throw new IllegalArgumentException(
+					"Interval must not be negative: " + interval);
+		}
+		return new ThrottledTopicCallback(callback, Mode.MIN_INTERVAL, 0,
+				interval * 1000000L);
+	}
+
+	/**
+	 * Throttle the given callback to a maximum average rate.
+	 *
+	 * @param callback
+	 *            The callback to throttle.
+	 * @param rate
+	 *            The maximum rate in messages per second.
+	 * @return The throttled callback.
+	 */
+	public static ThrottledTopicCallback maxRate(TopicCallback callback,
+			double rate) {
+		if (!(rate > 0)) {
+			throw new IllegalArgumentException("Rate must be positive: "
+					+ rate);
+		}
+		return new ThrottledTopicCallback(callback, Mode.MAX_RATE, 0,
+				(long) (1000000000.0 / rate));
+	}
+
+	/**
+	 * Get the callback being throttled.
+	 *
+	 * @return The wrapped callback.
+	 */
+	public TopicCallback getCallback() {
+		return this.callback;
+	}
+
+	/**
+	 * Get the way this callback is throttled.
+	 *
+	 * @return The throttle mode.
+	 */
+	public Mode getMode() {
+		return this.mode;
+	}
+
+	/**
+	 * Get the number of accepted messages.
+	 *
+	 * @return The number of accepted messages.
+	 */
+	public long getAccepted() {
+		return this.accepted.get();
+	}
+
+	/**
+	 * Get the number of messages rejected by the throttle.
+	 *
+	 * @return The number of rejected messages.
+	 */
+	public long getRejected() {
+		return this.rejected.get();
+	}
+
+	/**
+	 * Check if a message arriving now should be handed to the callback. This
+	 * is called by the Ros connection for every incoming message of the topic.
+	 *
+	 * @return If the message is accepted.
+	 */
+	public boolean accept() {
+		return this.accept(System.nanoTime());
+	}
+
+	/**
+	 * Check if a message arriving at the given time should be handed to the
+	 * callback.
+	 *
+	 * @param now
+	 *            The arrival time from {@link System#nanoTime()}.
+	 * @return If the message is accepted.
+	 */
+	synchronized boolean accept(long now) {
+		boolean accept;
+		switch (this.mode) {
+		case EVERY_NTH:
+			accept = this.seen++ % this.n == 0;
+			break;
+		case MIN_INTERVAL:
+			accept = !this.started || now - this.next >= 0;
+			if (accept) {
+				this.next = now + this.interval;
+			}
+			break;
+		default:
+			accept = !this.started || now - this.next >= 0;
+			if (accept) {
+				// credit lateness, but never more than one interval
+				this.next = this.started && now - this.next < this.interval ? this.next
+						+ this.interval
+						: now + this.interval;
+			}
+			break;
+		}
+		this.started = true;
+
+		if (accept) {
+			this.accepted.incrementAndGet();
+		} else {
+			this.rejected.incrementAndGet();
+		}
+		return accept;
+	}
+
+	/**
+	 * Hand the given message to the wrapped callback. The throttle has already
+	 * been checked by the time this is called.
+	 *
+	 * @param message
+	 *            The message that was received.
+	 */
+	@Override
+	public void handleMessage(Message message) {
+		this.callback.handleMessage(message);
+	}
+}
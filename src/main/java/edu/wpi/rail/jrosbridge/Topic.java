@@ -1,10 +1,12 @@
 package edu.wpi.rail.jrosbridge;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 
 import javax.json.Json;
 import javax.json.JsonObject;
 
+import edu.wpi.rail.jrosbridge.callback.RawTopicCallback;
 import edu.wpi.rail.jrosbridge.callback.TopicCallback;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
@@ -20,16 +22,25 @@ public class Topic {
 	private final Ros ros;
 	private final String name;
 	private final String type;
-	private boolean isAdvertised;
-	private boolean isSubscribed;
+	private volatile boolean isAdvertised;
+	private volatile boolean isSubscribed;
 	private final JRosbridge.CompressionType compression;
 	private final int throttleRate;
+	private final int queueLength;
+	private final int fragmentSize;
 
 	// used to keep track of this object's callbacks
 	private final ArrayList<TopicCallback> callbacks;
 
-	// used to keep track of the subscription IDs
-	private final ArrayList<String> ids;
+	// used to keep track of this object's raw callbacks
+	private final ArrayList<RawTopicCallback> rawCallbacks;
+
+	// used to keep track of the shared server subscriptions, one for each
+	// compression type in use
+	private final HashMap<JRosbridge.CompressionType, SubscriptionManager.Subscriber> subscribers;
+
+	// guards the lists above and orders (un)subscribe and (un)advertise calls
+	private final Object lock;
 
 	/**
 	 * Create a ROS topic with the given information. No compression or
@@ -95,6 +106,36 @@ public class Topic {
 	 */
 	public Topic(Ros ros, String name, String type,
 			JRosbridge.CompressionType compression, int throttleRate) {
+		this(ros, name, type, compression, throttleRate, 0, 0);
+	}
+
+	/**
+	 * Create a ROS topic with the given information, including the queue
+	 * length and fragment size rosbridge should use when sending messages on
+	 * this topic. A queue length or fragment size of 0 leaves the choice to
+	 * rosbridge.
+	 * 
+	 * @param ros
+	 *            A handle to the ROS connection.
+	 * @param name
+	 *            The name of the topic (e.g., "/cmd_vel").
+	 * @param type
+	 *            The message type (e.g., "std_msgs/String").
+	 * @param compression
+	 *            The type of compression used for this topic.
+	 * @param throttleRate
+	 *            The throttle rate to use for this topic.
+	 * @param queueLength
+	 *            The number of messages rosbridge queues for this topic when
+	 *            throttling.
+	 * @param fragmentSize
+	 *            The maximum size, in characters, of each message rosbridge
+	 *            sends on this topic; larger messages are split into
+	 *            fragments.
+	 */
+	public Topic(Ros ros, String name, String type,
+			JRosbridge.CompressionType compression, int throttleRate,
+			int queueLength, int fragmentSize) {
 		this.ros = ros;
 		this.name = name;
 		this.type = type;
@@ -102,8 +143,12 @@ public class Topic {
 		this.isSubscribed = false;
 		this.compression = compression;
 		this.throttleRate = throttleRate;
+		this.queueLength = queueLength;
+		this.fragmentSize = fragmentSize;
 		this.callbacks = new ArrayList<TopicCallback>();
-		this.ids = new ArrayList<String>();
+		this.rawCallbacks = new ArrayList<RawTopicCallback>();
+		this.subscribers = new HashMap<JRosbridge.CompressionType, SubscriptionManager.Subscriber>();
+		this.lock = new Object();
 	}
 
 	/**
@@ -169,6 +214,24 @@ public class Topic {
 		return this.throttleRate;
 	}
 
+	/**
+	 * Get the queue length for this topic.
+	 * 
+	 * @return The queue length for this topic (0 if not set).
+	 */
+	public int getQueueLength() {
+		return this.queueLength;
+	}
+
+	/**
+	 * Get the fragment size for this topic.
+	 * 
+	 * @return The fragment size for this topic (0 if not set).
+	 */
+	public int getFragmentSize() {
+		return this.fragmentSize;
+	}
+
 	/**
 	 * Subscribe to this topic. A callback function is required and will be
 	 * called with any incoming message for this topic.
@@ -178,23 +241,91 @@ public class Topic {
 	 *            received.
 	 */
 	public void subscribe(TopicCallback cb) {
-		// register the callback function
-		this.ros.registerTopicCallback(this.name, cb);
-		// internal reference used during unsubscribe
-		this.callbacks.add(cb);
-
-		String subscribeId = "subscribe:" + this.name + ":" + this.ros.nextId();
-		this.ids.add(subscribeId);
-
-		// build and send the rosbridge call
-		JsonObject call = Json.createObjectBuilder()
-				.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_SUBSCRIBE)
-				.add(JRosbridge.FIELD_ID, subscribeId)
-				.add(JRosbridge.FIELD_TYPE, this.type)
-				.add(JRosbridge.FIELD_TOPIC, this.name)
-				.add(JRosbridge.FIELD_COMPRESSION, this.compression.toString())
-				.add(JRosbridge.FIELD_THROTTLE_RATE, this.throttleRate).build();
-		this.ros.send(call);
+		synchronized (this.lock) {
+			// register the callback function
+			this.ros.registerTopicCallback(this.name, cb);
+			// internal reference used during unsubscribe
+			this.callbacks.add(cb);
+
+			this.sendSubscribe(this.compression);
+		}
+	}
+
+	/**
+	 * Subscribe to this topic with a conflating callback. Messages are not
+	 * queued for the callback: it runs on its own thread and, whenever it is
+	 * free, is called with the newest message received so far. Messages
+	 * replaced before the callback got to them are skipped and counted.
+	 * 
+	 * @param cb
+	 *            The callback that will be called with the newest message.
+	 * @return The conflating callback, which reports the number of received,
+	 *         superseded, and delivered messages.
+	 */
+	public ConflatingTopicCallback subscribeLatest(TopicCallback cb) {
+		return this.subscribeLatest(cb, null);
+	}
+
+	/**
+	 * Subscribe to this topic with a conflating callback that keeps the newest
+	 * message for each value of the given key field (e.g., "header.frame_id").
+	 * Messages are not queued for the callback: it runs on its own thread and,
+	 * whenever it is free, is called with the newest message of the key that
+	 * has waited the longest.
+	 * 
+	 * @param cb
+	 *            The callback that will be called with the newest messages.
+	 * @param key
+	 *            The dot separated path of the key field, or null to keep only
+	 *            the newest message of the topic.
+	 * @return The conflating callback, which reports the number of received,
+	 *         superseded, and delivered messages.
+	 */
+	public ConflatingTopicCallback subscribeLatest(TopicCallback cb, String key) {
+		ConflatingTopicCallback conflating = new ConflatingTopicCallback(cb,
+				key);
+		this.subscribe(conflating);
+		return conflating;
+	}
+
+	/**
+	 * Subscribe to this topic in raw mode. The "cbor-raw" compression type is
+	 * requested regardless of the compression type of this topic, and the
+	 * callback will be called with the ROS serialized bytes of any incoming
+	 * message for this topic. No JSON is created for these messages.
+	 * 
+	 * @param cb
+	 *            The callback that will be called when incoming raw messages
+	 *            are received.
+	 */
+	public void subscribe(RawTopicCallback cb) {
+		synchronized (this.lock) {
+			// register the callback function
+			this.ros.registerRawTopicCallback(this.name, cb);
+			// internal reference used during unsubscribe
+			this.rawCallbacks.add(cb);
+
+			this.sendSubscribe(JRosbridge.CompressionType.cbor_raw);
+		}
+	}
+
+	/**
+	 * Subscribe on the server with the given compression type, unless this
+	 * topic already does. The server subscription is shared with other topics
+	 * of the same connection, name, type, and compression type. Must be called
+	 * while holding the lock.
+	 * 
+	 * @param compression
+	 *            The compression type to request.
+	 */
+	private void sendSubscribe(JRosbridge.CompressionType compression) {
+		if (!this.subscribers.containsKey(compression)) {
+			this.subscribers.put(
+					compression,
+					this.ros.getSubscriptions().acquire(this.name, this.type,
+							compression, this.throttleRate, this.queueLength,
+							this.fragmentSize));
+		}
 
 		// set the flag indicating we have subscribed
 		this.isSubscribed = true;
@@ -202,26 +333,33 @@ public class Topic {
 
 	/**
 	 * Unregisters as a subscriber for the topic. Unsubscribing will remove all
-	 * the associated subscribe callbacks.
+	 * the associated subscribe callbacks and close any conflating callbacks.
 	 */
 	public void unsubscribe() {
-		// remove this object's associated callbacks.
-		for (TopicCallback cb : this.callbacks) {
-			this.ros.deregisterTopicCallback(this.name, cb);
-		}
-		this.callbacks.clear();
+		synchronized (this.lock) {
+			// remove this object's associated callbacks.
+			for (TopicCallback cb : this.callbacks) {
+				this.ros.deregisterTopicCallback(this.name, cb);
+				// stop the delivery thread of conflating callbacks
+				if (cb instanceof ConflatingTopicCallback) {
+					((ConflatingTopicCallback) cb).close();
+				}
+			}
+			this.callbacks.clear();
+			for (RawTopicCallback cb : this.rawCallbacks) {
+				this.ros.deregisterRawTopicCallback(this.name, cb);
+			}
+			this.rawCallbacks.clear();
 
-		// build and send the rosbridge calls
-		for (String id : this.ids) {
-			JsonObject call = Json.createObjectBuilder()
-					.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_UNSUBSCRIBE)
-					.add(JRosbridge.FIELD_ID, id)
-					.add(JRosbridge.FIELD_TOPIC, this.name).build();
-			this.ros.send(call);
-		}
+			// the server subscriptions end once no other topic uses them
+			for (SubscriptionManager.Subscriber s : this.subscribers.values()) {
+				this.ros.getSubscriptions().release(s);
+			}
+			this.subscribers.clear();
 
-		// set the flag indicating we are not longer subscribed
-		this.isSubscribed = false;
+			// set the flag indicating we are not longer subscribed
+			this.isSubscribed = false;
+		}
 	}
 
 	/**
@@ -229,34 +367,39 @@ public class Topic {
 	 * called by publish if you do not explicitly call it.
 	 */
 	public void advertise() {
-		// build and send the rosbridge call
-		String advertiseId = "advertise:" + this.name + ":" + this.ros.nextId();
-		JsonObject call = Json.createObjectBuilder()
-				.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_ADVERTISE)
-				.add(JRosbridge.FIELD_ID, advertiseId)
-				.add(JRosbridge.FIELD_TYPE, this.type)
-				.add(JRosbridge.FIELD_TOPIC, this.name).build();
-		this.ros.send(call);
-
-		// set the flag indicating we are registered
-		this.isAdvertised = true;
+		synchronized (this.lock) {
+			// build and send the rosbridge call
+			String advertiseId = "advertise:" + this.name + ":"
+					+ this.ros.nextId();
+			JsonObject call = Json.createObjectBuilder()
+					.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_ADVERTISE)
+					.add(JRosbridge.FIELD_ID, advertiseId)
+					.add(JRosbridge.FIELD_TYPE, this.type)
+					.add(JRosbridge.FIELD_TOPIC, this.name).build();
+			this.ros.send(call);
+
+			// set the flag indicating we are registered
+			this.isAdvertised = true;
+		}
 	}
 
 	/**
 	 * Unregister as a publisher for the topic.
 	 */
 	public void unadvertise() {
-		// build and send the rosbridge call
-		String unadvertiseId = "unadvertise:" + this.name + ":"
-				+ this.ros.nextId();
-		JsonObject call = Json.createObjectBuilder()
-				.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_UNADVERTISE)
-				.add(JRosbridge.FIELD_ID, unadvertiseId)
-				.add(JRosbridge.FIELD_TOPIC, this.name).build();
-		this.ros.send(call);
-
-		// set the flag indicating we are no longer registered
-		this.isAdvertised = false;
+		synchronized (this.lock) {
+			// build and send the rosbridge call
+			String unadvertiseId = "unadvertise:" + this.name + ":"
+					+ this.ros.nextId();
+			JsonObject call = Json.createObjectBuilder()
+					.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_UNADVERTISE)
+					.add(JRosbridge.FIELD_ID, unadvertiseId)
+					.add(JRosbridge.FIELD_TOPIC, this.name).build();
+			this.ros.send(call);
+
+			// set the flag indicating we are no longer registered
+			this.isAdvertised = false;
+		}
 	}
 
 	/**
@@ -267,18 +410,18 @@ public class Topic {
 	 *            The message to publish.
 	 */
 	public void publish(Message message) {
-		// check if we have advertised yet.
-		if (!this.isAdvertised()) {
-			this.advertise();
+		// check if we have advertised yet (only the first publisher does so,
+		// the others wait for it rather than publishing too early)
+		if (!this.isAdvertised) {
+			synchronized (this.lock) {
+				if (!this.isAdvertised) {
+					this.advertise();
+				}
+			}
 		}
 
-		// build and send the rosbridge call
+		// stream the rosbridge call without building the message as JSON
 		String publishId = "publish:" + this.name + ":" + this.ros.nextId();
-		JsonObject call = Json.createObjectBuilder()
-				.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_PUBLISH)
-				.add(JRosbridge.FIELD_ID, publishId)
-				.add(JRosbridge.FIELD_TOPIC, this.name)
-				.add(JRosbridge.FIELD_MESSAGE, message.toJsonObject()).build();
-		this.ros.send(call);
+		this.ros.publish(this.name, publishId, message);
 	}
 }
@@ -0,0 +1,162 @@
+package edu.wpi.rail.jrosbridge;
+
+import edu.wpi.rail.jrosbridge.callback.TypedTopicCallback;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoder;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+
+/**
+ * The TypedTopic is a topic whose incoming messages are decoded into a message
+ * class (e.g., Pose) before its typed callbacks are called. Each message is
+ * decoded exactly once, and the same immutable instance is shared by all typed
+ * callbacks of the topic, rather than every callback converting the generic
+ * message itself. Typed callbacks are added with
+ * {@link #subscribeTyped(TypedTopicCallback)}, and untyped callbacks can
+ * still be added with
+ * {@link Topic#subscribe(edu.wpi.rail.jrosbridge.callback.TopicCallback)}.
+ *
+ * @param <T>
+ *            The type of message of the topic.
+ * @version October 18, 2026
+ */
+public class TypedTopic<T extends Message> extends Topic {
+
+	// the single callback registered for all typed callbacks, guards them
+	private final DecodingTopicCallback<T> decoding;
+
+	/**
+	 * Create a typed ROS topic with the given information. No compression or
+	 * throttling is used.
+	 *
+	 * @param ros
+	 *            A handle to the ROS connection.
+	 * @param name
+	 *            The name of the topic (e.g., "/cmd_vel").
+	 * @param type
+	 *            The message type (e.g., "geometry_msgs/Twist").
+	 * @param messageClass
+	 *            The message class to decode into (e.g., Twist.class), which
+	 *            must have a decoder registered in {@link MessageDecoders}.
+	 */
+	public TypedTopic(Ros ros, String name, String type, Class<T> messageClass) {
+		this(ros, name, type, messageClass, JRosbridge.CompressionType.none, 0);
+	}
+
+	/**
+	 * Create a typed ROS topic with the given information.
+	 *
+	 * @param ros
+	 *            A handle to the ROS connection.
+	 * @param name
+	 *            The name of the topic (e.g., "/cmd_vel").
+	 * @param type
+	 *            The message type (e.g., "geometry_msgs/Twist").
+	 * @param messageClass
+	 *            The message class to decode into (e.g., Twist.class), which
+	 *            must have a decoder registered in {@link MessageDecoders}.
+	 * @param compression
+	 *            The type of compression used for this topic.
+	 * @param throttleRate
+	 *            The throttle rate to use for this topic.
+	 */
+	public TypedTopic(Ros ros, String name, String type, Class<T> messageClass,
+			JRosbridge.CompressionType compression, int throttleRate) {
+		this(ros, name, type, TypedTopic.decoderOf(messageClass), compression,
+				throttleRate, 0, 0);
+	}
+
+	/**
+	 * Create a typed ROS topic with the given information and decoder.
+	 *
+	 * @param ros
+	 *            A handle to the ROS connection.
+	 * @param name
+	 *            The name of the topic (e.g., "/cmd_vel").
+	 * @param type
+	 *            The message type (e.g., "geometry_msgs/Twist").
+	 * @param decoder
+	 *            The decoder of the message type.
+	 * @param compression
+	 *            The type of compression used for this topic.
+	 * @param throttleRate
+	 *            The throttle rate to use for this topic.
+	 * @param queueLength
+	 *            The number of messages rosbridge queues for this topic when
+	 *            throttling.
+	 * @param fragmentSize
+	 *            The maximum size, in characters, of each message rosbridge
+	 *            sends on this topic; larger messages are split into
+	 *            fragments.
+	 */
+	public TypedTopic(Ros ros, String name, String type,
+			MessageDecoder<T> decoder, JRosbridge.CompressionType compression,
+			int throttleRate, int queueLength, int fragmentSize) {
+		super(ros, name, type, compression, throttleRate, queueLength,
+				fragmentSize);
+		if (decoder == null) {
+			throw new IllegalArgumentException("A decoder must be given.");
+		}
+		this.decoding = new DecodingTopicCallback<T>(decoder);
+	}
+
+	/**
+	 * Get the decoder used for incoming messages.
+	 *
+	 * @return The decoder of the message type.
+	 */
+	public MessageDecoder<T> getDecoder() {
+		return this.decoding.getDecoder();
+	}
+
+	/**
+	 * Subscribe to this topic with a typed callback. The callback will be
+	 * called with the decoded message of any incoming message for this topic.
+	 * It is named apart from
+	 * {@link Topic#subscribe(edu.wpi.rail.jrosbridge.callback.TopicCallback)}
+	 * so that either can be given a lambda.
+	 *
+	 * @param cb
+	 *            The callback that will be called when incoming messages are
+	 *            received.
+	 */
+	public void subscribeTyped(TypedTopicCallback<? super T> cb) {
+		synchronized (this.decoding) {
+			// all typed callbacks share one registered callback
+			if (this.decoding.add(cb)) {
+				this.subscribe(this.decoding);
+			}
+		}
+	}
+
+	/**
+	 * Unregisters as a subscriber for the topic. Unsubscribing will remove all
+	 * the associated subscribe callbacks, typed or not.
+	 */
+	@Override
+	public void unsubscribe() {
+		synchronized (this.decoding) {
+			super.unsubscribe();
+			this.decoding.clear();
+		}
+	}
+
+	/**
+	 * Get the decoder registered for the given message class.
+	 *
+	 * @param messageClass
+	 *            The message class.
+	 * @return The decoder.
+	 * @throws IllegalArgumentException
+	 *             If no decoder is registered for the message class.
+	 */
+	private static <T extends Message> MessageDecoder<T> decoderOf(
+			Class<T> messageClass) {
+		MessageDecoder<T> decoder = messageClass == null ? null
+				: MessageDecoders.get(messageClass);
+		if (decoder == null) {
+			throw new IllegalArgumentException("No decoder registered for "
+					+ (messageClass == null ? null : messageClass.getName()));
+		}
+		return decoder;
+	}
+}
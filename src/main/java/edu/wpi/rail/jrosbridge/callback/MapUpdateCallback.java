@@ -0,0 +1,31 @@
+package edu.wpi.rail.jrosbridge.callback;
+
+import edu.wpi.rail.jrosbridge.LiveMap;
+
+/**
+ * The MapUpdateCallback interface defines a single method which will be called
+ * when the cells of a live map have changed, either because a new map was
+ * received or because a rectangle of it was patched by an update.
+ *
+ * @version October 18, 2026
+ */
+public interface MapUpdateCallback {
+
+	/**
+	 * This function is called after the given rectangle of cells of the map
+	 * has changed. A new map is reported as the rectangle covering all of its
+	 * cells. The map may have changed again by the time it is read.
+	 *
+	 * @param map
+	 *            The live map that changed.
+	 * @param x
+	 *            The column of the first changed cell.
+	 * @param y
+	 *            The row of the first changed cell.
+	 * @param width
+	 *            The number of changed columns.
+	 * @param height
+	 *            The number of changed rows.
+	 */
+	public void handleUpdate(LiveMap map, int x, int y, int width, int height);
+}
@@ -0,0 +1,28 @@
+package edu.wpi.rail.jrosbridge.callback;
+
+import java.nio.ByteBuffer;
+
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+/**
+ * The RawTopicCallback interface defines a single method which will be called
+ * when an incoming raw (serialized) message is received for an associated
+ * topic subscribed to with the "cbor-raw" compression type.
+ * 
+ * @version October 18, 2026
+ */
+public interface RawTopicCallback {
+
+	/**
+	 * This function is called when an incoming raw message is received for a
+	 * given topic. The data is a read-only view of the ROS serialized message
+	 * within the incoming frame; it is only valid for the duration of this
+	 * call and must be copied if it is needed afterwards.
+	 * 
+	 * @param data
+	 *            The ROS serialized message bytes.
+	 * @param receiveTime
+	 *            The time the message was received by rosbridge.
+	 */
+	public void handleRawMessage(ByteBuffer data, Time receiveTime);
+}
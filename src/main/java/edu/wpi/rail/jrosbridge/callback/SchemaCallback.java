@@ -0,0 +1,20 @@
+package edu.wpi.rail.jrosbridge.callback;
+
+import edu.wpi.rail.jrosbridge.messages.dynamic.MessageSchema;
+
+/**
+ * The SchemaCallback interface defines a single method which will be called
+ * when the schema of a message type has been fetched.
+ *
+ * @version October 18, 2026
+ */
+public interface SchemaCallback {
+
+	/**
+	 * This function is called when the schema of a message type is available.
+	 *
+	 * @param schema
+	 *            The schema, or null if it could not be fetched.
+	 */
+	public void handleSchema(MessageSchema schema);
+}
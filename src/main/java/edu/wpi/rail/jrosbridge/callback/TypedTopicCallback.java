@@ -0,0 +1,25 @@
+package edu.wpi.rail.jrosbridge.callback;
+
+import edu.wpi.rail.jrosbridge.messages.Message;
+
+/**
+ * The TypedTopicCallback interface defines a single method which will be
+ * called when an incoming message is received for a typed topic. The message
+ * has already been decoded into its message class, and the same instance is
+ * shared by all callbacks of the topic.
+ *
+ * @param <T>
+ *            The type of message received.
+ * @version October 18, 2026
+ */
+public interface TypedTopicCallback<T extends Message> {
+
+	/**
+	 * This function is called when an incoming message is received for a given
+	 * typed topic. No ROS type checking is done on the internal data.
+	 *
+	 * @param message
+	 *            The decoded message that was received.
+	 */
+	public void handleMessage(T message);
+}
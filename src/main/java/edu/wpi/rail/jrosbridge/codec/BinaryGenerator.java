@@ -0,0 +1,357 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerationException;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * The BinaryGenerator is the base of the generators of the binary encoders. It
+ * keeps track of the open objects and arrays, checks that fields are only
+ * named inside of objects, and reduces the many write methods of a
+ * {@link JsonGenerator} to a few kinds of values. The name passed to each of
+ * those is the name of the field, or null for the elements of an array and
+ * the top level value.
+ *
+ * @version October 18, 2026
+ */
+abstract class BinaryGenerator implements JsonGenerator {
+
+	// the initial nesting depth
+	private static final int INITIAL_DEPTH = 8;
+
+	// for each open object or array, if it is an array
+	private boolean[] arrays;
+	// for each open array, the number of elements written so far
+	private int[] counts;
+	private int depth;
+	private boolean done;
+
+	/**
+	 * Create a new generator at the top level.
+	 */
+	BinaryGenerator() {
+		this.arrays = new boolean[BinaryGenerator.INITIAL_DEPTH];
+		this.counts = new int[BinaryGenerator.INITIAL_DEPTH];
+		this.depth = 0;
+		this.done = false;
+	}
+
+	/**
+	 * Get the index of the array element being written.
+	 *
+	 * @return The index of the element in the innermost array.
+	 */
+	int index() {
+		return this.counts[this.depth - 1] - 1;
+	}
+
+	/**
+	 * Check that a value may be written with the given name at this point.
+	 *
+	 * @param name
+	 *            The name of the field, or null for an array element or the
+	 *            top level value.
+	 */
+	private void value(String name) {
+		if (this.depth == 0) {
+			if (name != null || this.done) {
+				throw new JsonGenerationException(
+						"Only one unnamed value may be written at the top level");
+			}
+			this.done = true;
+		} else if (this.arrays[this.depth - 1]) {
+			if (name != null) {
+				throw new JsonGenerationException("Named value in an array: "
+						+ name);
+			}
+			this.counts[this.depth - 1]++;
+		} else if (name == null) {
+			throw new JsonGenerationException("Unnamed value in an object");
+		}
+	}
+
+	/**
+	 * Open an object or array after its start has been written.
+	 *
+	 * @param array
+	 *            If an array was started.
+	 */
+	private void open(boolean array) {
+		if (this.depth == this.arrays.length) {
+			this.arrays = Arrays.copyOf(this.arrays, this.depth * 2);
+			this.counts = Arrays.copyOf(this.counts, this.depth * 2);
+		}
+		this.arrays[this.depth] = array;
+		this.counts[this.depth] = 0;
+		this.depth++;
+	}
+
+	/**
+	 * Check that the given double can be written.
+	 *
+	 * @param value
+	 *            The value to check.
+	 * @return The value.
+	 */
+	private static double finite(double value) {
+		if (Double.isNaN(value) || Double.isInfinite(value)) {
+			throw new NumberFormatException("Not a JSON number: " + value);
+		}
+		return value;
+	}
+
+	/**
+	 * Start an object.
+	 *
+	 * @param name
+	 *            The name of the field, or null.
+	 */
+	abstract void startObject(String name);
+
+	/**
+	 * Start an array.
+	 *
+	 * @param name
+	 *            The name of the field, or null.
+	 */
+	abstract void startArray(String name);
+
+	/**
+	 * End the innermost object or array.
+	 *
+	 * @param array
+	 *            If an array is ended.
+	 */
+	abstract void end(boolean array);
+
+	/**
+	 * Write a JSON value in full.
+	 *
+	 * @param name
+	 *            The name of the field, or null.
+	 * @param value
+	 *            The value to write.
+	 */
+	abstract void writeValue(String name, JsonValue value);
+
+	/**
+	 * Write a string.
+	 *
+	 * @param name
+	 *            The name of the field, or null.
+	 * @param value
+	 *            The value to write.
+	 */
+	abstract void writeString(String name, String value);
+
+	/**
+	 * Write an integral number.
+	 *
+	 * @param name
+	 *            The name of the field, or null.
+	 * @param value
+	 *            The value to write.
+	 */
+	abstract void writeInteger(String name, long value);
+
+	/**
+	 * Write an integral number which may not fit in 64 bits.
+	 *
+	 * @param name
+	 *            The name of the field, or null.
+	 * @param value
+	 *            The value to write.
+	 */
+	abstract void writeInteger(String name, BigInteger value);
+
+	/**
+	 * Write a non-integral number.
+	 *
+	 * @param name
+	 *            The name of the field, or null.
+	 * @param value
+	 *            The value to write.
+	 */
+	abstract void writeDouble(String name, double value);
+
+	/**
+	 * Write a boolean, or null if the value is null.
+	 *
+	 * @param name
+	 *            The name of the field, or null.
+	 * @param value
+	 *            The value to write.
+	 */
+	abstract void writeLiteral(String name, Boolean value);
+
+	@Override
+	public JsonGenerator writeStartObject() {
+		return this.writeStartObject(null);
+	}
+
+	@Override
+	public JsonGenerator writeStartObject(String name) {
+		this.value(name);
+		this.startObject(name);
+		this.open(false);
+		return this;
+	}
+
+	@Override
+	public JsonGenerator writeStartArray() {
+		return this.writeStartArray(null);
+	}
+
+	@Override
+	public JsonGenerator writeStartArray(String name) {
+		this.value(name);
+		this.startArray(name);
+		this.open(true);
+		return this;
+	}
+
+	@Override
+	public JsonGenerator writeEnd() {
+		if (this.depth == 0) {
+			throw new JsonGenerationException("No object or array to end");
+		}
+		this.end(this.arrays[this.depth - 1]);
+		this.depth--;
+		return this;
+	}
+
+	@Override
+	public JsonGenerator write(String name, JsonValue value) {
+		this.value(name);
+		this.writeValue(name, value);
+		return this;
+	}
+
+	@Override
+	public JsonGenerator write(String name, String value) {
+		this.value(name);
+		this.writeString(name, value);
+		return this;
+	}
+
+	@Override
+	public JsonGenerator write(String name, BigInteger value) {
+		this.value(name);
+		this.writeInteger(name, value);
+		return this;
+	}
+
+	@Override
+	public JsonGenerator write(String name, BigDecimal value) {
+		this.value(name);
+		// the same rule as JsonNumber.isIntegral
+		if (value.scale() == 0) {
+			this.writeInteger(name, value.toBigInteger());
+		} else {
+			this.writeDouble(name, BinaryGenerator.finite(value.doubleValue()));
+		}
+		return this;
+	}
+
+	@Override
+	public JsonGenerator write(String name, int value) {
+		this.value(name);
+		this.writeInteger(name, value);
+		return this;
+	}
+
+	@Override
+	public JsonGenerator write(String name, long value) {
+		this.value(name);
+		this.writeInteger(name, value);
+		return this;
+	}
+
+	@Override
+	public JsonGenerator write(String name, double value) {
+		this.value(name);
+		this.writeDouble(name, BinaryGenerator.finite(value));
+		return this;
+	}
+
+	@Override
+	public JsonGenerator write(String name, boolean value) {
+		this.value(name);
+		this.writeLiteral(name, value);
+		return this;
+	}
+
+	@Override
+	public JsonGenerator writeNull(String name) {
+		this.value(name);
+		this.writeLiteral(name, null);
+		return this;
+	}
+
+	@Override
+	public JsonGenerator write(JsonValue value) {
+		return this.write(null, value);
+	}
+
+	@Override
+	public JsonGenerator write(String value) {
+		return this.write(null, value);
+	}
+
+	@Override
+	public JsonGenerator write(BigDecimal value) {
+		return this.write(null, value);
+	}
+
+	@Override
+	public JsonGenerator write(BigInteger value) {
+		return this.write(null, value);
+	}
+
+	@Override
+	public JsonGenerator write(int value) {
+		return this.write(null, value);
+	}
+
+	@Override
+	public JsonGenerator write(long value) {
+		return this.write(null, value);
+	}
+
+	@Override
+	public JsonGenerator write(double value) {
+		return this.write(null, value);
+	}
+
+	@Override
+	public JsonGenerator write(boolean value) {
+		return this.write(null, value);
+	}
+
+	@Override
+	public JsonGenerator writeNull() {
+		return this.writeNull(null);
+	}
+
+	/**
+	 * Check that every object and array has been ended. The encoded data is
+	 * kept in the encoder.
+	 */
+	@Override
+	public void close() {
+		if (this.depth > 0) {
+			throw new JsonGenerationException("Incomplete JSON value");
+		}
+	}
+
+	/**
+	 * Does nothing, the encoded data is kept in the encoder.
+	 */
+	@Override
+	public void flush() {
+	}
+}
@@ -0,0 +1,395 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+
+/**
+ * The BsonDecoder converts BSON documents, as sent by a rosbridge server
+ * running in BSON only mode, directly into JSON objects. Numbers are read from
+ * their binary representation, so double arrays (e.g., covariances and
+ * multi-arrays) never pass through decimal text. Binary fields (uint8[] and
+ * char[]) are converted to base64 strings just as they would be in a JSON
+ * frame.
+ *
+ * @version October 18, 2026
+ */
+public class BsonDecoder {
+
+	/**
+	 * BSON element type for 64-bit floats.
+	 */
+	public static final byte TYPE_DOUBLE = 0x01;
+
+	/**
+	 * BSON element type for UTF-8 strings.
+	 */
+	public static final byte TYPE_STRING = 0x02;
+
+	/**
+	 * BSON element type for embedded documents.
+	 */
+	public static final byte TYPE_DOCUMENT = 0x03;
+
+	/**
+	 * BSON element type for arrays.
+	 */
+	public static final byte TYPE_ARRAY = 0x04;
+
+	/**
+	 * BSON element type for binary data.
+	 */
+	public static final byte TYPE_BINARY = 0x05;
+
+	/**
+	 * BSON element type for undefined (deprecated).
+	 */
+	public static final byte TYPE_UNDEFINED = 0x06;
+
+	/**
+	 * BSON element type for object IDs.
+	 */
+	public static final byte TYPE_OBJECT_ID = 0x07;
+
+	/**
+	 * BSON element type for booleans.
+	 */
+	public static final byte TYPE_BOOLEAN = 0x08;
+
+	/**
+	 * BSON element type for UTC date times.
+	 */
+	public static final byte TYPE_DATE_TIME = 0x09;
+
+	/**
+	 * BSON element type for null.
+	 */
+	public static final byte TYPE_NULL = 0x0a;
+
+	/**
+	 * BSON element type for 32-bit integers.
+	 */
+	public static final byte TYPE_INT32 = 0x10;
+
+	/**
+	 * BSON element type for timestamps (unsigned 64-bit).
+	 */
+	public static final byte TYPE_TIMESTAMP = 0x11;
+
+	/**
+	 * BSON element type for 64-bit integers.
+	 */
+	public static final byte TYPE_INT64 = 0x12;
+
+	/**
+	 * BSON element type for the min key.
+	 */
+	public static final byte TYPE_MIN_KEY = (byte) 0xff;
+
+	/**
+	 * BSON element type for the max key.
+	 */
+	public static final byte TYPE_MAX_KEY = 0x7f;
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * Create a new decoder reading from the current position of the given
+	 * buffer. The buffer's position and byte order are not modified.
+	 *
+	 * @param buffer
+	 *            The buffer containing the BSON data.
+	 */
+	public BsonDecoder(ByteBuffer buffer) {
+		this.buffer = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	/**
+	 * Decode the BSON document in the given buffer into a JSON object.
+	 *
+	 * @param buffer
+	 *            The buffer containing the BSON document.
+	 * @return The decoded JSON object.
+	 * @throws IOException
+	 *             If the data is not a valid BSON document.
+	 */
+	public static JsonObject decodeObject(ByteBuffer buffer) throws IOException {
+		try {
+			return new BsonDecoder(buffer).readDocument().build();
+		} catch (BufferUnderflowException | IllegalArgumentException e) {
+			throw new IOException("Truncated or invalid BSON data");
+		}
+	}
+
+	/**
+	 * Read an embedded document (or the top level document).
+	 *
+	 * @return The builder holding the decoded fields.
+	 * @throws IOException
+	 *             If the data is not valid BSON.
+	 */
+	private JsonObjectBuilder readDocument() throws IOException {
+		int end = this.documentEnd();
+		JsonObjectBuilder builder = Json.createObjectBuilder();
+		byte type;
+		while ((type = this.buffer.get()) != 0) {
+			String key = this.readCString();
+			switch (type) {
+			case TYPE_DOUBLE:
+				double d = this.buffer.getDouble();
+				if (Double.isNaN(d) || Double.isInfinite(d)) {
+					builder.addNull(key);
+				} else {
+					builder.add(key, d);
+				}
+				break;
+			case TYPE_STRING:
+				builder.add(key, this.readString());
+				break;
+			case TYPE_DOCUMENT:
+				builder.add(key, this.readDocument());
+				break;
+			case TYPE_ARRAY:
+				builder.add(key, this.readArray());
+				break;
+			case TYPE_BINARY:
+				builder.add(key, this.readBinary());
+				break;
+			case TYPE_OBJECT_ID:
+				builder.add(key, this.readObjectId());
+				break;
+			case TYPE_BOOLEAN:
+				builder.add(key, this.buffer.get() != 0);
+				break;
+			case TYPE_INT32:
+				builder.add(key, this.buffer.getInt());
+				break;
+			case TYPE_DATE_TIME:
+			case TYPE_INT64:
+				builder.add(key, this.buffer.getLong());
+				break;
+			case TYPE_TIMESTAMP:
+				builder.add(key, unsigned(this.buffer.getLong()));
+				break;
+			case TYPE_UNDEFINED:
+			case TYPE_NULL:
+			case TYPE_MIN_KEY:
+			case TYPE_MAX_KEY:
+				builder.addNull(key);
+				break;
+			default:
+				throw new IOException("Unsupported BSON element type: " + type);
+			}
+		}
+		this.checkEnd(end);
+		return builder;
+	}
+
+	/**
+	 * Read an array. BSON arrays are documents whose keys are the indices, so
+	 * the keys are skipped.
+	 *
+	 * @return The builder holding the decoded elements.
+	 * @throws IOException
+	 *             If the data is not valid BSON.
+	 */
+	private JsonArrayBuilder readArray() throws IOException {
+		int end = this.documentEnd();
+		JsonArrayBuilder builder = Json.createArrayBuilder();
+		byte type;
+		while ((type = this.buffer.get()) != 0) {
+			this.skipCString();
+			switch (type) {
+			case TYPE_DOUBLE:
+				double d = this.buffer.getDouble();
+				if (Double.isNaN(d) || Double.isInfinite(d)) {
+					builder.addNull();
+				} else {
+					builder.add(d);
+				}
+				break;
+			case TYPE_STRING:
+				builder.add(this.readString());
+				break;
+			case TYPE_DOCUMENT:
+				builder.add(this.readDocument());
+				break;
+			case TYPE_ARRAY:
+				builder.add(this.readArray());
+				break;
+			case TYPE_BINARY:
+				builder.add(this.readBinary());
+				break;
+			case TYPE_OBJECT_ID:
+				builder.add(this.readObjectId());
+				break;
+			case TYPE_BOOLEAN:
+				builder.add(this.buffer.get() != 0);
+				break;
+			case TYPE_INT32:
+				builder.add(this.buffer.getInt());
+				break;
+			case TYPE_DATE_TIME:
+			case TYPE_INT64:
+				builder.add(this.buffer.getLong());
+				break;
+			case TYPE_TIMESTAMP:
+				builder.add(unsigned(this.buffer.getLong()));
+				break;
+			case TYPE_UNDEFINED:
+			case TYPE_NULL:
+			case TYPE_MIN_KEY:
+			case TYPE_MAX_KEY:
+				builder.addNull();
+				break;
+			default:
+				throw new IOException("Unsupported BSON element type: " + type);
+			}
+		}
+		this.checkEnd(end);
+		return builder;
+	}
+
+	/**
+	 * Read the size prefix of a document and compute where it ends.
+	 *
+	 * @return The position just after the document.
+	 * @throws IOException
+	 *             If the size is invalid.
+	 */
+	private int documentEnd() throws IOException {
+		int start = this.buffer.position();
+		int size = this.buffer.getInt();
+		if (size < 5 || size > this.buffer.limit() - start) {
+			throw new IOException("Invalid BSON document size: " + size);
+		}
+		return start + size;
+	}
+
+	/**
+	 * Make sure a document ended where its size prefix said it would.
+	 *
+	 * @param end
+	 *            The expected end position.
+	 * @throws IOException
+	 *             If the document did not end at the expected position.
+	 */
+	private void checkEnd(int end) throws IOException {
+		if (this.buffer.position() != end) {
+			throw new IOException("BSON document size mismatch");
+		}
+	}
+
+	/**
+	 * Read a length prefixed, null terminated UTF-8 string.
+	 *
+	 * @return The string.
+	 * @throws IOException
+	 *             If the length is invalid.
+	 */
+	private String readString() throws IOException {
+		int length = this.buffer.getInt();
+		if (length < 1 || length > this.buffer.remaining()) {
+			throw new IOException("Invalid BSON string length: " + length);
+		}
+		String s = this.decode(this.buffer.position(), length - 1);
+		this.buffer.position(this.buffer.position() + length);
+		return s;
+	}
+
+	/**
+	 * Read a null terminated UTF-8 string (used for keys).
+	 *
+	 * @return The string.
+	 */
+	private String readCString() {
+		int start = this.buffer.position();
+		while (this.buffer.get() != 0) {
+			// find the terminator
+		}
+		return this.decode(start, this.buffer.position() - start - 1);
+	}
+
+	/**
+	 * Skip over a null terminated string.
+	 */
+	private void skipCString() {
+		while (this.buffer.get() != 0) {
+			// find the terminator
+		}
+	}
+
+	/**
+	 * Read a binary element as a base64 string.
+	 *
+	 * @return The base64 string.
+	 * @throws IOException
+	 *             If the length is invalid.
+	 */
+	private String readBinary() throws IOException {
+		int length = this.buffer.getInt();
+		// skip the subtype
+		this.buffer.get();
+		if (length < 0 || length > this.buffer.remaining()) {
+			throw new IOException("Invalid BSON binary length: " + length);
+		}
+		ByteBuffer data = this.buffer.slice();
+		data.limit(length);
+		this.buffer.position(this.buffer.position() + length);
+		return StandardCharsets.ISO_8859_1.decode(
+				Base64.getEncoder().encode(data)).toString();
+	}
+
+	/**
+	 * Read an object ID as a hex string.
+	 *
+	 * @return The hex string.
+	 */
+	private String readObjectId() {
+		StringBuilder sb = new StringBuilder(24);
+		for (int i = 0; i < 12; i++) {
+			sb.append(String.format("%02x", this.buffer.get() & 0xff));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Decode a range of the buffer as UTF-8.
+	 *
+	 * @param start
+	 *            The start position.
+	 * @param length
+	 *            The number of bytes.
+	 * @return The decoded string.
+	 */
+	private String decode(int start, int length) {
+		if (this.buffer.hasArray()) {
+			return new String(this.buffer.array(), this.buffer.arrayOffset()
+					+ start, length, StandardCharsets.UTF_8);
+		}
+		ByteBuffer slice = this.buffer.duplicate();
+		slice.position(start);
+		slice.limit(start + length);
+		return StandardCharsets.UTF_8.decode(slice).toString();
+	}
+
+	/**
+	 * Convert an unsigned 64-bit value to a BigInteger.
+	 *
+	 * @param value
+	 *            The unsigned value.
+	 * @return The value as a BigInteger.
+	 */
+	private static BigInteger unsigned(long value) {
+		return new BigInteger(Long.toUnsignedString(value));
+	}
+}
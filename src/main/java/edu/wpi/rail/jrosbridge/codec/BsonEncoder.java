@@ -0,0 +1,432 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerationException;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * The BsonEncoder converts JSON objects into BSON documents so they can be sent
+ * to a rosbridge server running in BSON only mode. Non-integral numbers are
+ * written as binary 64-bit floats, so double arrays keep their exact values.
+ * Integral numbers are written as 32-bit or 64-bit integers depending on their
+ * size; integers that do not fit in 64 bits are written as doubles.
+ *
+ * @version October 18, 2026
+ */
+public class BsonEncoder {
+
+	// initial size of the output buffer
+	private static final int INITIAL_CAPACITY = 256;
+
+	// the range of a signed 64-bit integer
+	private static final BigInteger MIN_LONG = BigInteger.valueOf(Long.MIN_VALUE);
+	private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
+
+	private byte[] out;
+	private int size;
+
+	/**
+	 * Create a new, empty encoder.
+	 */
+	public BsonEncoder() {
+		this.out = new byte[BsonEncoder.INITIAL_CAPACITY];
+		this.size = 0;
+	}
+
+	/**
+	 * Encode the given JSON object as a BSON document.
+	 *
+	 * @param jsonObject
+	 *            The JSON object to encode.
+	 * @return A buffer containing the BSON document, ready to be read.
+	 */
+	public static ByteBuffer encode(JsonObject jsonObject) {
+		BsonEncoder encoder = new BsonEncoder();
+		encoder.write(jsonObject);
+		return encoder.toByteBuffer();
+	}
+
+	/**
+	 * Get the encoded data written so far.
+	 *
+	 * @return A buffer wrapping the encoded data, ready to be read.
+	 */
+	public ByteBuffer toByteBuffer() {
+		return ByteBuffer.wrap(this.out, 0, this.size);
+	}
+
+	/**
+	 * Create a generator which writes its values into this encoder, so a
+	 * message can be encoded field by field without building a JSON object
+	 * first. The top level value must be an object.
+	 *
+	 * @return A new generator writing into this encoder.
+	 */
+	public JsonGenerator createGenerator() {
+		return new Generator();
+	}
+
+	/**
+	 * Write the given JSON object as a BSON document.
+	 *
+	 * @param jsonObject
+	 *            The JSON object to write.
+	 */
+	public void write(JsonObject jsonObject) {
+		int start = this.beginDocument();
+		for (Map.Entry<String, JsonValue> e : jsonObject.entrySet()) {
+			this.writeElement(e.getKey(), e.getValue());
+		}
+		this.endDocument(start);
+	}
+
+	/**
+	 * Write the given JSON array as a BSON array (a document keyed by index).
+	 *
+	 * @param array
+	 *            The JSON array to write.
+	 */
+	private void write(JsonArray array) {
+		int start = this.beginDocument();
+		for (int i = 0; i < array.size(); i++) {
+			this.writeElement(Integer.toString(i), array.get(i));
+		}
+		this.endDocument(start);
+	}
+
+	/**
+	 * Write a single named element.
+	 *
+	 * @param key
+	 *            The name of the element.
+	 * @param value
+	 *            The value of the element.
+	 */
+	private void writeElement(String key, JsonValue value) {
+		switch (value.getValueType()) {
+		case OBJECT:
+			this.writeByte(BsonDecoder.TYPE_DOCUMENT);
+			this.writeCString(key);
+			this.write((JsonObject) value);
+			break;
+		case ARRAY:
+			this.writeByte(BsonDecoder.TYPE_ARRAY);
+			this.writeCString(key);
+			this.write((JsonArray) value);
+			break;
+		case STRING:
+			this.writeString(key, ((JsonString) value).getString());
+			break;
+		case NUMBER:
+			this.writeNumber(key, (JsonNumber) value);
+			break;
+		case TRUE:
+		case FALSE:
+			this.writeByte(BsonDecoder.TYPE_BOOLEAN);
+			this.writeCString(key);
+			this.writeByte(value.getValueType() == JsonValue.ValueType.TRUE ? 1
+					: 0);
+			break;
+		default:
+			this.writeByte(BsonDecoder.TYPE_NULL);
+			this.writeCString(key);
+			break;
+		}
+	}
+
+	/**
+	 * Write a single named number using the smallest exact BSON type.
+	 *
+	 * @param key
+	 *            The name of the element.
+	 * @param number
+	 *            The number to write.
+	 */
+	private void writeNumber(String key, JsonNumber number) {
+		if (number.isIntegral()) {
+			this.writeInteger(key, number.bigIntegerValue());
+		} else {
+			this.writeDouble(key, number.doubleValue());
+		}
+	}
+
+	/**
+	 * Write a single named integer, as a double if it does not fit in 64
+	 * bits.
+	 *
+	 * @param key
+	 *            The name of the element.
+	 * @param big
+	 *            The integer to write.
+	 */
+	private void writeInteger(String key, BigInteger big) {
+		if (big.compareTo(MIN_LONG) >= 0 && big.compareTo(MAX_LONG) <= 0) {
+			this.writeInteger(key, big.longValue());
+		} else {
+			this.writeDouble(key, big.doubleValue());
+		}
+	}
+
+	/**
+	 * Write a single named integer as a 32-bit integer if it fits, or as a
+	 * 64-bit integer otherwise.
+	 *
+	 * @param key
+	 *            The name of the element.
+	 * @param l
+	 *            The integer to write.
+	 */
+	private void writeInteger(String key, long l) {
+		if (l == (int) l) {
+			this.writeByte(BsonDecoder.TYPE_INT32);
+			this.writeCString(key);
+			this.writeInt((int) l);
+		} else {
+			this.writeByte(BsonDecoder.TYPE_INT64);
+			this.writeCString(key);
+			this.writeLong(l);
+		}
+	}
+
+	/**
+	 * Write a single named double.
+	 *
+	 * @param key
+	 *            The name of the element.
+	 * @param d
+	 *            The value to write.
+	 */
+	private void writeDouble(String key, double d) {
+		this.writeByte(BsonDecoder.TYPE_DOUBLE);
+		this.writeCString(key);
+		this.writeLong(Double.doubleToLongBits(d));
+	}
+
+	/**
+	 * Write a single named string.
+	 *
+	 * @param key
+	 *            The name of the element.
+	 * @param s
+	 *            The string to write.
+	 */
+	private void writeString(String key, String s) {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		this.writeByte(BsonDecoder.TYPE_STRING);
+		this.writeCString(key);
+		this.writeInt(bytes.length + 1);
+		this.writeBytes(bytes);
+		this.writeByte(0);
+	}
+
+	/**
+	 * Reserve room for the size of a document.
+	 *
+	 * @return The position of the document.
+	 */
+	private int beginDocument() {
+		int start = this.size;
+		this.writeInt(0);
+		return start;
+	}
+
+	/**
+	 * Terminate a document and fill in its size.
+	 *
+	 * @param start
+	 *            The position of the document.
+	 */
+	private void endDocument(int start) {
+		this.writeByte(0);
+		int length = this.size - start;
+		for (int i = 0; i < 4; i++) {
+			this.out[start + i] = (byte) (length >>> (8 * i));
+		}
+	}
+
+	/**
+	 * Write a null terminated UTF-8 string.
+	 *
+	 * @param s
+	 *            The string to write.
+	 */
+	private void writeCString(String s) {
+		this.writeBytes(s.getBytes(StandardCharsets.UTF_8));
+		this.writeByte(0);
+	}
+
+	/**
+	 * Write a little endian 32-bit integer.
+	 *
+	 * @param i
+	 *            The integer to write.
+	 */
+	private void writeInt(int i) {
+		this.ensure(4);
+		for (int j = 0; j < 4; j++) {
+			this.out[this.size++] = (byte) (i >>> (8 * j));
+		}
+	}
+
+	/**
+	 * Write a little endian 64-bit integer.
+	 *
+	 * @param l
+	 *            The integer to write.
+	 */
+	private void writeLong(long l) {
+		this.ensure(8);
+		for (int j = 0; j < 8; j++) {
+			this.out[this.size++] = (byte) (l >>> (8 * j));
+		}
+	}
+
+	/**
+	 * Write a single byte.
+	 *
+	 * @param b
+	 *            The byte to write.
+	 */
+	private void writeByte(int b) {
+		this.ensure(1);
+		this.out[this.size++] = (byte) b;
+	}
+
+	/**
+	 * Write an array of bytes.
+	 *
+	 * @param bytes
+	 *            The bytes to write.
+	 */
+	private void writeBytes(byte[] bytes) {
+		this.ensure(bytes.length);
+		System.arraycopy(bytes, 0, this.out, this.size, bytes.length);
+		this.size += bytes.length;
+	}
+
+	/**
+	 * Make sure there is room for the given number of additional bytes.
+	 *
+	 * @param extra
+	 *            The number of additional bytes needed.
+	 */
+	private void ensure(int extra) {
+		if (this.size + extra > this.out.length) {
+			this.out = Arrays.copyOf(this.out,
+					Math.max(this.out.length * 2, this.size + extra));
+		}
+	}
+	/**
+	 * The generator of the encoder. The size of each document is filled in
+	 * once the document ends.
+	 */
+	private class Generator extends BinaryGenerator {
+
+		// the positions of the open documents
+		private int[] starts = new int[8];
+		private int open = 0;
+
+		/**
+		 * Write the type and name of the next element.
+		 *
+		 * @param type
+		 *            The BSON type of the element.
+		 * @param name
+		 *            The name of the field, or null for an array element.
+		 */
+		private void key(int type, String name) {
+			String key = this.name(name);
+			BsonEncoder.this.writeByte(type);
+			BsonEncoder.this.writeCString(key);
+		}
+
+		/**
+		 * Get the name of the next element.
+		 *
+		 * @param name
+		 *            The name of the field, or null for an array element.
+		 * @return The name, or the index of the array element.
+		 */
+		private String name(String name) {
+			if (this.open == 0) {
+				throw new JsonGenerationException(
+						"BSON documents must be objects");
+			}
+			return name != null ? name : Integer.toString(this.index());
+		}
+
+		/**
+		 * Start a document and remember its position.
+		 */
+		private void begin() {
+			if (this.open == this.starts.length) {
+				this.starts = Arrays.copyOf(this.starts, this.open * 2);
+			}
+			this.starts[this.open++] = BsonEncoder.this.beginDocument();
+		}
+
+		@Override
+		void startObject(String name) {
+			if (this.open > 0) {
+				this.key(BsonDecoder.TYPE_DOCUMENT, name);
+			}
+			this.begin();
+		}
+
+		@Override
+		void startArray(String name) {
+			this.key(BsonDecoder.TYPE_ARRAY, name);
+			this.begin();
+		}
+
+		@Override
+		void end(boolean array) {
+			BsonEncoder.this.endDocument(this.starts[--this.open]);
+		}
+
+		@Override
+		void writeValue(String name, JsonValue value) {
+			BsonEncoder.this.writeElement(this.name(name), value);
+		}
+
+		@Override
+		void writeString(String name, String value) {
+			BsonEncoder.this.writeString(this.name(name), value);
+		}
+
+		@Override
+		void writeInteger(String name, long value) {
+			BsonEncoder.this.writeInteger(this.name(name), value);
+		}
+
+		@Override
+		void writeInteger(String name, BigInteger value) {
+			BsonEncoder.this.writeInteger(this.name(name), value);
+		}
+
+		@Override
+		void writeDouble(String name, double value) {
+			BsonEncoder.this.writeDouble(this.name(name), value);
+		}
+
+		@Override
+		void writeLiteral(String name, Boolean value) {
+			if (value == null) {
+				this.key(BsonDecoder.TYPE_NULL, name);
+			} else {
+				this.key(BsonDecoder.TYPE_BOOLEAN, name);
+				BsonEncoder.this.writeByte(value ? 1 : 0);
+			}
+		}
+	}
+}
@@ -0,0 +1,687 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonValue;
+
+/**
+ * The CborDecoder converts CBOR (RFC 7049) encoded rosbridge frames into JSON
+ * objects so they can be handled exactly like text frames. This matches what
+ * rosbridge sends for the "cbor" compression type: numeric arrays arrive as
+ * typed arrays (RFC 8746) and are expanded into JSON arrays, while byte
+ * strings (uint8[] and char[] fields) are converted to base64 strings just as
+ * they would be in a JSON frame.
+ *
+ * @version October 18, 2026
+ */
+public class CborDecoder {
+
+	/**
+	 * CBOR major type for unsigned integers.
+	 */
+	public static final int MAJOR_UNSIGNED = 0;
+
+	/**
+	 * CBOR major type for negative integers.
+	 */
+	public static final int MAJOR_NEGATIVE = 1;
+
+	/**
+	 * CBOR major type for byte strings.
+	 */
+	public static final int MAJOR_BYTES = 2;
+
+	/**
+	 * CBOR major type for text strings.
+	 */
+	public static final int MAJOR_TEXT = 3;
+
+	/**
+	 * CBOR major type for arrays.
+	 */
+	public static final int MAJOR_ARRAY = 4;
+
+	/**
+	 * CBOR major type for maps.
+	 */
+	public static final int MAJOR_MAP = 5;
+
+	/**
+	 * CBOR major type for tagged items.
+	 */
+	public static final int MAJOR_TAG = 6;
+
+	/**
+	 * CBOR major type for floats and simple values.
+	 */
+	public static final int MAJOR_SIMPLE = 7;
+
+	/**
+	 * The additional information value marking an indefinite length item.
+	 */
+	public static final int INDEFINITE = 31;
+
+	// the "break" stop code for indefinite length items
+	private static final int BREAK = 0xff;
+
+	private final ByteBuffer buffer;
+
+	/**
+	 * Create a new decoder reading from the current position of the given
+	 * buffer. The buffer's position and byte order are not modified.
+	 *
+	 * @param buffer
+	 *            The buffer containing the CBOR data.
+	 */
+	public CborDecoder(ByteBuffer buffer) {
+		this.buffer = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+	}
+
+	/**
+	 * Decode the CBOR map in the given buffer into a JSON object.
+	 *
+	 * @param buffer
+	 *            The buffer containing the CBOR data.
+	 * @return The decoded JSON object.
+	 * @throws IOException
+	 *             If the data is not a valid CBOR map.
+	 */
+	public static JsonObject decodeObject(ByteBuffer buffer) throws IOException {
+		JsonValue value = new CborDecoder(buffer).readValue();
+		if (value.getValueType() != JsonValue.ValueType.OBJECT) {
+			throw new IOException("CBOR data is not a map: "
+					+ value.getValueType());
+		}
+		return (JsonObject) value;
+	}
+
+	/**
+	 * Get the current read position of this decoder.
+	 *
+	 * @return The current read position of this decoder.
+	 */
+	public int position() {
+		return this.buffer.position();
+	}
+
+	/**
+	 * Move the read position of this decoder, e.g., back to a position
+	 * previously returned by {@link #position()}.
+	 *
+	 * @param position
+	 *            The new read position.
+	 */
+	public void position(int position) {
+		this.buffer.position(position);
+	}
+
+	/**
+	 * Read the next complete item as a JSON value.
+	 *
+	 * @return The decoded JSON value.
+	 * @throws IOException
+	 *             If the data is not valid CBOR.
+	 */
+	public JsonValue readValue() throws IOException {
+		try {
+			return this.readValue(this.readInitialByte());
+		} catch (BufferUnderflowException e) {
+			throw new IOException("Truncated CBOR data");
+		}
+	}
+
+	/**
+	 * Read the initial byte of the next item.
+	 *
+	 * @return The initial byte of the next item (0-255).
+	 */
+	public int readInitialByte() {
+		return this.buffer.get() & 0xff;
+	}
+
+	/**
+	 * Read the argument (length, count or value) of an item with the given
+	 * initial byte.
+	 *
+	 * @param initial
+	 *            The initial byte of the item.
+	 * @return The argument, or -1 for indefinite length items.
+	 * @throws IOException
+	 *             If the additional information is reserved.
+	 */
+	public long readArgument(int initial) throws IOException {
+		int info = initial & 0x1f;
+		if (info < 24) {
+			return info;
+		} else if (info == 24) {
+			return this.buffer.get() & 0xffL;
+		} else if (info == 25) {
+			return this.buffer.getShort() & 0xffffL;
+		} else if (info == 26) {
+			return this.buffer.getInt() & 0xffffffffL;
+		} else if (info == 27) {
+			return this.buffer.getLong();
+		} else if (info == INDEFINITE) {
+			return -1;
+		} else {
+			throw new IOException("Reserved CBOR additional information: "
+					+ info);
+		}
+	}
+
+	/**
+	 * Read an integer item.
+	 *
+	 * @return The integer value. Unsigned values above Long.MAX_VALUE wrap
+	 *         around.
+	 * @throws IOException
+	 *             If the next item is not an integer.
+	 */
+	public long readLong() throws IOException {
+		int initial = this.readInitialByte();
+		int major = initial >>> 5;
+		if (major != MAJOR_UNSIGNED && major != MAJOR_NEGATIVE) {
+			throw new IOException("Expected CBOR integer");
+		}
+		return this.readInteger(initial).longValue();
+	}
+
+	/**
+	 * Read a text string item.
+	 *
+	 * @return The decoded string.
+	 * @throws IOException
+	 *             If the next item is not a text string.
+	 */
+	public String readText() throws IOException {
+		int initial = this.readInitialByte();
+		if ((initial >>> 5) != MAJOR_TEXT) {
+			throw new IOException("Expected CBOR text string");
+		}
+		return this.readText(initial);
+	}
+
+	/**
+	 * Read a byte string item and return a read-only view of its contents. No
+	 * data is copied unless the string uses indefinite length chunks.
+	 *
+	 * @return A read-only view of the bytes.
+	 * @throws IOException
+	 *             If the next item is not a byte string.
+	 */
+	public ByteBuffer readBytes() throws IOException {
+		int initial = this.readInitialByte();
+		if ((initial >>> 5) != MAJOR_BYTES) {
+			throw new IOException("Expected CBOR byte string");
+		}
+		return this.readBytes(initial);
+	}
+
+	/**
+	 * Skip over the next complete item.
+	 *
+	 * @throws IOException
+	 *             If the data is not valid CBOR.
+	 */
+	public void skip() throws IOException {
+		this.skip(this.readInitialByte());
+	}
+
+	/**
+	 * Read the next item (with the given initial byte) as a JSON value.
+	 *
+	 * @param initial
+	 *            The initial byte of the item.
+	 * @return The decoded JSON value.
+	 * @throws IOException
+	 *             If the data is not valid CBOR.
+	 */
+	private JsonValue readValue(int initial) throws IOException {
+		// scalars are wrapped through a single element array
+		JsonArrayBuilder builder = Json.createArrayBuilder();
+		this.add(builder, initial);
+		return builder.build().get(0);
+	}
+
+	/**
+	 * Read the item with the given initial byte and add it to the array being
+	 * built.
+	 *
+	 * @param builder
+	 *            The array to add the item to.
+	 * @param initial
+	 *            The initial byte of the item.
+	 * @throws IOException
+	 *             If the data is not valid CBOR.
+	 */
+	private void add(JsonArrayBuilder builder, int initial) throws IOException {
+		switch (initial >>> 5) {
+		case MAJOR_UNSIGNED:
+		case MAJOR_NEGATIVE:
+			Number n = this.readInteger(initial);
+			if (n instanceof Long) {
+				builder.add(n.longValue());
+			} else {
+				builder.add((BigInteger) n);
+			}
+			break;
+		case MAJOR_BYTES:
+			builder.add(base64(this.readBytes(initial)));
+			break;
+		case MAJOR_TEXT:
+			builder.add(this.readText(initial));
+			break;
+		case MAJOR_ARRAY:
+			builder.add(this.readArray(initial));
+			break;
+		case MAJOR_MAP:
+			builder.add(this.readMap(initial));
+			break;
+		case MAJOR_TAG:
+			long tag = this.readArgument(initial);
+			int next = this.readInitialByte();
+			if (TypedArrays.isTypedArray(tag) && (next >>> 5) == MAJOR_BYTES) {
+				builder.add(TypedArrays.toJsonArray((int) tag,
+						this.readBytes(next)));
+			} else if ((tag == 2 || tag == 3) && (next >>> 5) == MAJOR_BYTES) {
+				builder.add(readBignum(tag, this.readBytes(next)));
+			} else {
+				// other tags carry no meaning for rosbridge
+				this.add(builder, next);
+			}
+			break;
+		default:
+			int info = initial & 0x1f;
+			if (info == 20) {
+				builder.add(false);
+			} else if (info == 21) {
+				builder.add(true);
+			} else if (info >= 25 && info <= 27) {
+				double d = this.readFloat(info);
+				if (Double.isNaN(d) || Double.isInfinite(d)) {
+					builder.addNull();
+				} else {
+					builder.add(d);
+				}
+			} else {
+				this.skipSimple(info);
+				builder.addNull();
+			}
+			break;
+		}
+	}
+
+	/**
+	 * Read the item with the given initial byte and add it to the object being
+	 * built under the given key.
+	 *
+	 * @param builder
+	 *            The object to add the item to.
+	 * @param key
+	 *            The key of the item.
+	 * @param initial
+	 *            The initial byte of the item.
+	 * @throws IOException
+	 *             If the data is not valid CBOR.
+	 */
+	private void add(JsonObjectBuilder builder, String key, int initial)
+			throws IOException {
+		switch (initial >>> 5) {
+		case MAJOR_UNSIGNED:
+		case MAJOR_NEGATIVE:
+			Number n = this.readInteger(initial);
+			if (n instanceof Long) {
+				builder.add(key, n.longValue());
+			} else {
+				builder.add(key, (BigInteger) n);
+			}
+			break;
+		case MAJOR_BYTES:
+			builder.add(key, base64(this.readBytes(initial)));
+			break;
+		case MAJOR_TEXT:
+			builder.add(key, this.readText(initial));
+			break;
+		case MAJOR_ARRAY:
+			builder.add(key, this.readArray(initial));
+			break;
+		case MAJOR_MAP:
+			builder.add(key, this.readMap(initial));
+			break;
+		case MAJOR_TAG:
+			long tag = this.readArgument(initial);
+			int next = this.readInitialByte();
+			if (TypedArrays.isTypedArray(tag) && (next >>> 5) == MAJOR_BYTES) {
+				builder.add(key, TypedArrays.toJsonArray((int) tag,
+						this.readBytes(next)));
+			} else if ((tag == 2 || tag == 3) && (next >>> 5) == MAJOR_BYTES) {
+				builder.add(key, readBignum(tag, this.readBytes(next)));
+			} else {
+				// other tags carry no meaning for rosbridge
+				this.add(builder, key, next);
+			}
+			break;
+		default:
+			int info = initial & 0x1f;
+			if (info == 20) {
+				builder.add(key, false);
+			} else if (info == 21) {
+				builder.add(key, true);
+			} else if (info >= 25 && info <= 27) {
+				double d = this.readFloat(info);
+				if (Double.isNaN(d) || Double.isInfinite(d)) {
+					builder.addNull(key);
+				} else {
+					builder.add(key, d);
+				}
+			} else {
+				this.skipSimple(info);
+				builder.addNull(key);
+			}
+			break;
+		}
+	}
+
+	/**
+	 * Read an integer item.
+	 *
+	 * @param initial
+	 *            The initial byte of the item.
+	 * @return The value as a Long or BigInteger.
+	 * @throws IOException
+	 *             If the item has an indefinite length.
+	 */
+	private Number readInteger(int initial) throws IOException {
+		long arg = this.readArgument(initial);
+		if ((initial & 0x1f) == INDEFINITE) {
+			throw new IOException("Invalid indefinite length integer");
+		}
+		boolean negative = (initial >>> 5) == MAJOR_NEGATIVE;
+		if (arg >= 0) {
+			return negative ? -1 - arg : arg;
+		}
+		// the argument did not fit in a signed long
+		BigInteger big = new BigInteger(Long.toUnsignedString(arg));
+		return negative ? BigInteger.ONE.negate().subtract(big) : big;
+	}
+
+	/**
+	 * Convert the contents of a bignum (tag 2 or 3) to an integer.
+	 *
+	 * @param tag
+	 *            The bignum tag (2 for positive, 3 for negative).
+	 * @param bytes
+	 *            The big endian magnitude.
+	 * @return The integer value.
+	 */
+	private static BigInteger readBignum(long tag, ByteBuffer bytes) {
+		byte[] magnitude = new byte[bytes.remaining()];
+		bytes.get(magnitude);
+		BigInteger big = new BigInteger(1, magnitude);
+		return tag == 2 ? big : BigInteger.ONE.negate().subtract(big);
+	}
+
+	/**
+	 * Read a floating point value of the size given by the additional
+	 * information.
+	 *
+	 * @param info
+	 *            The additional information (25, 26 or 27).
+	 * @return The value.
+	 */
+	private double readFloat(int info) {
+		if (info == 25) {
+			return halfToFloat(this.buffer.getShort());
+		} else if (info == 26) {
+			return this.buffer.getFloat();
+		} else {
+			return this.buffer.getDouble();
+		}
+	}
+
+	/**
+	 * Skip over the payload of a simple value.
+	 *
+	 * @param info
+	 *            The additional information of the value.
+	 * @throws IOException
+	 *             If the additional information is reserved.
+	 */
+	private void skipSimple(int info) throws IOException {
+		if (info == 24) {
+			this.buffer.get();
+		} else if (info == 25) {
+			this.buffer.getShort();
+		} else if (info == 26) {
+			this.buffer.getInt();
+		} else if (info == 27) {
+			this.buffer.getLong();
+		} else if (info > 27) {
+			throw new IOException("Unexpected CBOR simple value: " + info);
+		}
+	}
+
+	/**
+	 * Read a text string with the given initial byte.
+	 *
+	 * @param initial
+	 *            The initial byte of the item.
+	 * @return The decoded string.
+	 * @throws IOException
+	 *             If the data is not valid CBOR.
+	 */
+	private String readText(int initial) throws IOException {
+		ByteBuffer bytes = this.readBytes(initial);
+		if (bytes.hasArray()) {
+			return new String(bytes.array(), bytes.arrayOffset()
+					+ bytes.position(), bytes.remaining(),
+					StandardCharsets.UTF_8);
+		}
+		return StandardCharsets.UTF_8.decode(bytes).toString();
+	}
+
+	/**
+	 * Read the contents of a byte or text string with the given initial byte.
+	 * Definite length strings are returned as read-only slices of the frame.
+	 *
+	 * @param initial
+	 *            The initial byte of the item.
+	 * @return A read-only view of the string contents.
+	 * @throws IOException
+	 *             If the data is not valid CBOR.
+	 */
+	private ByteBuffer readBytes(int initial) throws IOException {
+		long length = this.readArgument(initial);
+		if (length >= 0) {
+			return this.slice(length);
+		}
+
+		// indefinite length, concatenate the chunks
+		int major = initial >>> 5;
+		ByteBuffer joined = ByteBuffer.allocate(0);
+		int chunk;
+		while ((chunk = this.readInitialByte()) != BREAK) {
+			if ((chunk >>> 5) != major || (chunk & 0x1f) == INDEFINITE) {
+				throw new IOException("Invalid CBOR string chunk");
+			}
+			ByteBuffer part = this.slice(this.readArgument(chunk));
+			ByteBuffer grown = ByteBuffer.allocate(joined.remaining()
+					+ part.remaining());
+			grown.put(joined).put(part).flip();
+			joined = grown;
+		}
+		return joined.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Take a read-only slice of the given length at the current position and
+	 * advance past it.
+	 *
+	 * @param length
+	 *            The number of bytes in the slice.
+	 * @return The read-only slice.
+	 * @throws IOException
+	 *             If the length exceeds the remaining data.
+	 */
+	private ByteBuffer slice(long length) throws IOException {
+		if (length > this.buffer.remaining()) {
+			throw new IOException("Truncated CBOR data");
+		}
+		ByteBuffer slice = this.buffer.slice().asReadOnlyBuffer();
+		slice.limit((int) length);
+		this.buffer.position(this.buffer.position() + (int) length);
+		return slice;
+	}
+
+	/**
+	 * Read an array with the given initial byte.
+	 *
+	 * @param initial
+	 *            The initial byte of the item.
+	 * @return The decoded JSON array.
+	 * @throws IOException
+	 *             If the data is not valid CBOR.
+	 */
+	private JsonArrayBuilder readArray(int initial) throws IOException {
+		long count = this.readArgument(initial);
+		JsonArrayBuilder builder = Json.createArrayBuilder();
+		if (count >= 0) {
+			for (long i = 0; i < count; i++) {
+				this.add(builder, this.readInitialByte());
+			}
+		} else {
+			int next;
+			while ((next = this.readInitialByte()) != BREAK) {
+				this.add(builder, next);
+			}
+		}
+		return builder;
+	}
+
+	/**
+	 * Read a map with the given initial byte. Non-string keys are converted to
+	 * their JSON string form.
+	 *
+	 * @param initial
+	 *            The initial byte of the item.
+	 * @return The decoded JSON object.
+	 * @throws IOException
+	 *             If the data is not valid CBOR.
+	 */
+	private JsonObjectBuilder readMap(int initial) throws IOException {
+		long count = this.readArgument(initial);
+		JsonObjectBuilder builder = Json.createObjectBuilder();
+		if (count >= 0) {
+			for (long i = 0; i < count; i++) {
+				String key = this.readKey(this.readInitialByte());
+				this.add(builder, key, this.readInitialByte());
+			}
+		} else {
+			int next;
+			while ((next = this.readInitialByte()) != BREAK) {
+				String key = this.readKey(next);
+				this.add(builder, key, this.readInitialByte());
+			}
+		}
+		return builder;
+	}
+
+	/**
+	 * Read a map key with the given initial byte.
+	 *
+	 * @param initial
+	 *            The initial byte of the key.
+	 * @return The key as a string.
+	 * @throws IOException
+	 *             If the data is not valid CBOR.
+	 */
+	private String readKey(int initial) throws IOException {
+		if ((initial >>> 5) == MAJOR_TEXT) {
+			return this.readText(initial);
+		}
+		return this.readValue(initial).toString();
+	}
+
+	/**
+	 * Skip over the item with the given initial byte.
+	 *
+	 * @param initial
+	 *            The initial byte of the item.
+	 * @throws IOException
+	 *             If the data is not valid CBOR.
+	 */
+	private void skip(int initial) throws IOException {
+		int major = initial >>> 5;
+		if (major == MAJOR_SIMPLE) {
+			this.skipSimple(initial & 0x1f);
+		} else if (major == MAJOR_BYTES || major == MAJOR_TEXT) {
+			this.readBytes(initial);
+		} else if (major == MAJOR_TAG) {
+			this.readArgument(initial);
+			this.skip(this.readInitialByte());
+		} else if (major == MAJOR_ARRAY || major == MAJOR_MAP) {
+			long count = this.readArgument(initial);
+			int perEntry = major == MAJOR_MAP ? 2 : 1;
+			if (count >= 0) {
+				for (long i = 0; i < count * perEntry; i++) {
+					this.skip(this.readInitialByte());
+				}
+			} else {
+				int next;
+				while ((next = this.readInitialByte()) != BREAK) {
+					this.skip(next);
+					if (perEntry == 2) {
+						this.skip(this.readInitialByte());
+					}
+				}
+			}
+		} else {
+			// integers have no content beyond the argument
+			this.readArgument(initial);
+		}
+	}
+
+	/**
+	 * Convert an IEEE 754 half precision value to a float.
+	 *
+	 * @param half
+	 *            The half precision bits.
+	 * @return The float value.
+	 */
+	static float halfToFloat(short half) {
+		int h = half & 0xffff;
+		int sign = (h & 0x8000) << 16;
+		int exp = (h >>> 10) & 0x1f;
+		int mant = h & 0x3ff;
+		if (exp == 0) {
+			// zero or subnormal
+			float value = mant * (1.0f / (1 << 24));
+			return sign == 0 ? value : -value;
+		} else if (exp == 0x1f) {
+			return Float.intBitsToFloat(sign | 0x7f800000 | (mant << 13));
+		}
+		return Float.intBitsToFloat(sign | ((exp + 112) << 23) | (mant << 13));
+	}
+
+	/**
+	 * Base64 encode the remaining contents of the given buffer.
+	 *
+	 * @param bytes
+	 *            The bytes to encode.
+	 * @return The base64 string.
+	 */
+	private static String base64(ByteBuffer bytes) {
+		return StandardCharsets.ISO_8859_1.decode(
+				Base64.getEncoder().encode(bytes)).toString();
+	}
+}
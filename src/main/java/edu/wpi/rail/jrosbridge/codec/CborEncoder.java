@@ -0,0 +1,444 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.json.JsonArray;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+
+/**
+ * The CborEncoder converts JSON objects into CBOR (RFC 7049) so they can be
+ * sent to rosbridge as binary frames. Arrays made up entirely of non-integral
+ * numbers are packed as little endian float64 typed arrays (RFC 8746), which
+ * avoids both decimal text and per-element headers.
+ *
+ * @version October 18, 2026
+ */
+public class CborEncoder {
+
+	// initial size of the output buffer
+	private static final int INITIAL_CAPACITY = 256;
+
+	private byte[] out;
+	private int size;
+
+	/**
+	 * Create a new, empty encoder.
+	 */
+	public CborEncoder() {
+		this.out = new byte[CborEncoder.INITIAL_CAPACITY];
+		this.size = 0;
+	}
+
+	/**
+	 * Encode the given JSON object as CBOR.
+	 *
+	 * @param jsonObject
+	 *            The JSON object to encode.
+	 * @return A buffer containing the CBOR data, ready to be read.
+	 */
+	public static ByteBuffer encode(JsonObject jsonObject) {
+		CborEncoder encoder = new CborEncoder();
+		encoder.write(jsonObject);
+		return encoder.toByteBuffer();
+	}
+
+	/**
+	 * Get the encoded data written so far.
+	 *
+	 * @return A buffer wrapping the encoded data, ready to be read.
+	 */
+	public ByteBuffer toByteBuffer() {
+		return ByteBuffer.wrap(this.out, 0, this.size);
+	}
+
+	/**
+	 * Create a generator which writes its values into this encoder, so a
+	 * message can be encoded field by field without building a JSON object
+	 * first. Objects and arrays are written with indefinite lengths, except
+	 * that arrays made up entirely of non-integral numbers are still packed
+	 * as typed arrays.
+	 *
+	 * @return A new generator writing into this encoder.
+	 */
+	public JsonGenerator createGenerator() {
+		return new Generator();
+	}
+
+	/**
+	 * Write the given JSON value.
+	 *
+	 * @param value
+	 *            The JSON value to write.
+	 */
+	public void write(JsonValue value) {
+		switch (value.getValueType()) {
+		case OBJECT:
+			JsonObject object = (JsonObject) value;
+			this.writeHeader(CborDecoder.MAJOR_MAP, object.size());
+			for (Map.Entry<String, JsonValue> e : object.entrySet()) {
+				this.write(e.getKey());
+				this.write(e.getValue());
+			}
+			break;
+		case ARRAY:
+			this.write((JsonArray) value);
+			break;
+		case STRING:
+			this.write(((JsonString) value).getString());
+			break;
+		case NUMBER:
+			this.write((JsonNumber) value);
+			break;
+		case TRUE:
+			this.writeByte(0xf5);
+			break;
+		case FALSE:
+			this.writeByte(0xf4);
+			break;
+		default:
+			this.writeByte(0xf6);
+			break;
+		}
+	}
+
+	/**
+	 * Write the given text string.
+	 *
+	 * @param text
+	 *            The string to write.
+	 */
+	public void write(String text) {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		this.writeHeader(CborDecoder.MAJOR_TEXT, bytes.length);
+		this.writeBytes(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Write the given bytes as a byte string.
+	 *
+	 * @param bytes
+	 *            The bytes to write.
+	 */
+	public void write(byte[] bytes) {
+		this.writeHeader(CborDecoder.MAJOR_BYTES, bytes.length);
+		this.writeBytes(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Write the given array of doubles as a little endian float64 typed array.
+	 *
+	 * @param values
+	 *            The values to write.
+	 */
+	public void write(double[] values) {
+		this.writeHeader(CborDecoder.MAJOR_TAG, TypedArrays.TAG_FLOAT64_LE);
+		this.writeHeader(CborDecoder.MAJOR_BYTES, values.length * 8L);
+		this.ensure(values.length * 8);
+		for (double d : values) {
+			long bits = Double.doubleToLongBits(d);
+			for (int i = 0; i < 8; i++) {
+				this.out[this.size++] = (byte) (bits >>> (8 * i));
+			}
+		}
+	}
+
+	/**
+	 * Write the given JSON array.
+	 *
+	 * @param array
+	 *            The array to write.
+	 */
+	private void write(JsonArray array) {
+		// pack arrays of real numbers as typed arrays
+		double[] packed = array.isEmpty() ? null : new double[array.size()];
+		for (int i = 0; packed != null && i < packed.length; i++) {
+			JsonValue v = array.get(i);
+			if (v.getValueType() == JsonValue.ValueType.NUMBER
+					&& !((JsonNumber) v).isIntegral()) {
+				packed[i] = ((JsonNumber) v).doubleValue();
+			} else {
+				packed = null;
+			}
+		}
+
+		if (packed != null) {
+			this.write(packed);
+		} else {
+			this.writeHeader(CborDecoder.MAJOR_ARRAY, array.size());
+			for (JsonValue v : array) {
+				this.write(v);
+			}
+		}
+	}
+
+	/**
+	 * Write the given JSON number. Integral values are written as CBOR
+	 * integers (or bignums if they do not fit in 64 bits) and all other values
+	 * as 64-bit floats.
+	 *
+	 * @param number
+	 *            The number to write.
+	 */
+	private void write(JsonNumber number) {
+		if (number.isIntegral()) {
+			this.writeInteger(number.bigIntegerValue());
+		} else {
+			this.writeDouble(number.doubleValue());
+		}
+	}
+
+	/**
+	 * Write the given integer, as a bignum if it does not fit in 64 bits.
+	 *
+	 * @param big
+	 *            The integer to write.
+	 */
+	private void writeInteger(BigInteger big) {
+		boolean negative = big.signum() < 0;
+		// negative values are encoded as -1 - n
+		BigInteger magnitude = negative ? BigInteger.ONE.negate().subtract(big)
+				: big;
+		if (magnitude.bitLength() <= 64) {
+			this.writeHeader(negative ? CborDecoder.MAJOR_NEGATIVE
+					: CborDecoder.MAJOR_UNSIGNED, magnitude.longValue());
+		} else {
+			// tag 2 (positive) or 3 (negative) bignum
+			byte[] bytes = magnitude.toByteArray();
+			int skip = bytes[0] == 0 ? 1 : 0;
+			this.writeHeader(CborDecoder.MAJOR_TAG, negative ? 3 : 2);
+			this.writeHeader(CborDecoder.MAJOR_BYTES, bytes.length - skip);
+			this.writeBytes(bytes, skip, bytes.length - skip);
+		}
+	}
+
+	/**
+	 * Write the given integer.
+	 *
+	 * @param l
+	 *            The integer to write.
+	 */
+	private void writeInteger(long l) {
+		// negative values are encoded as -1 - n
+		if (l < 0) {
+			this.writeHeader(CborDecoder.MAJOR_NEGATIVE, ~l);
+		} else {
+			this.writeHeader(CborDecoder.MAJOR_UNSIGNED, l);
+		}
+	}
+
+	/**
+	 * Write the given value as a 64-bit float.
+	 *
+	 * @param d
+	 *            The value to write.
+	 */
+	private void writeDouble(double d) {
+		this.writeByte(0xfb);
+		long bits = Double.doubleToLongBits(d);
+		this.ensure(8);
+		for (int i = 7; i >= 0; i--) {
+			this.out[this.size++] = (byte) (bits >>> (8 * i));
+		}
+	}
+
+	/**
+	 * Write the initial byte and argument of an item.
+	 *
+	 * @param major
+	 *            The major type.
+	 * @param arg
+	 *            The argument, treated as unsigned.
+	 */
+	private void writeHeader(int major, long arg) {
+		int type = major << 5;
+		this.ensure(9);
+		if (arg >= 0 && arg < 24) {
+			this.out[this.size++] = (byte) (type | arg);
+		} else if (arg >= 0 && arg <= 0xff) {
+			this.out[this.size++] = (byte) (type | 24);
+			this.out[this.size++] = (byte) arg;
+		} else if (arg >= 0 && arg <= 0xffff) {
+			this.out[this.size++] = (byte) (type | 25);
+			this.out[this.size++] = (byte) (arg >>> 8);
+			this.out[this.size++] = (byte) arg;
+		} else if (arg >= 0 && arg <= 0xffffffffL) {
+			this.out[this.size++] = (byte) (type | 26);
+			for (int i = 3; i >= 0; i--) {
+				this.out[this.size++] = (byte) (arg >>> (8 * i));
+			}
+		} else {
+			this.out[this.size++] = (byte) (type | 27);
+			for (int i = 7; i >= 0; i--) {
+				this.out[this.size++] = (byte) (arg >>> (8 * i));
+			}
+		}
+	}
+
+	/**
+	 * Write a single byte.
+	 *
+	 * @param b
+	 *            The byte to write.
+	 */
+	private void writeByte(int b) {
+		this.ensure(1);
+		this.out[this.size++] = (byte) b;
+	}
+
+	/**
+	 * Write a range of bytes.
+	 *
+	 * @param bytes
+	 *            The source array.
+	 * @param offset
+	 *            The offset of the first byte.
+	 * @param length
+	 *            The number of bytes.
+	 */
+	private void writeBytes(byte[] bytes, int offset, int length) {
+		this.ensure(length);
+		System.arraycopy(bytes, offset, this.out, this.size, length);
+		this.size += length;
+	}
+
+	/**
+	 * Make sure there is room for the given number of additional bytes.
+	 *
+	 * @param extra
+	 *            The number of additional bytes needed.
+	 */
+	private void ensure(int extra) {
+		if (this.size + extra > this.out.length) {
+			this.out = Arrays.copyOf(this.out,
+					Math.max(this.out.length * 2, this.size + extra));
+		}
+	}
+
+	/**
+	 * The generator of the encoder. The elements of the innermost array are
+	 * held back while they are all non-integral numbers, so the array can be
+	 * packed once it ends.
+	 */
+	private class Generator extends BinaryGenerator {
+
+		// the start of an indefinite length item and the break which ends it
+		private static final int INDEFINITE_ARRAY = (CborDecoder.MAJOR_ARRAY << 5)
+				| CborDecoder.INDEFINITE;
+		private static final int INDEFINITE_MAP = (CborDecoder.MAJOR_MAP << 5)
+				| CborDecoder.INDEFINITE;
+		private static final int BREAK = 0xff;
+
+		// the held back elements of the innermost array
+		private double[] pending = new double[CborEncoder.INITIAL_CAPACITY];
+		private int pendingSize = 0;
+		private boolean packing = false;
+
+		/**
+		 * Write the start of the innermost array and its held back elements,
+		 * since it can no longer be packed.
+		 */
+		private void unpack() {
+			if (this.packing) {
+				CborEncoder.this.writeByte(Generator.INDEFINITE_ARRAY);
+				for (int i = 0; i < this.pendingSize; i++) {
+					CborEncoder.this.writeDouble(this.pending[i]);
+				}
+				this.packing = false;
+			}
+		}
+
+		/**
+		 * Get ready to write a value other than a non-integral number.
+		 *
+		 * @param name
+		 *            The name of the field, or null.
+		 */
+		private void key(String name) {
+			this.unpack();
+			if (name != null) {
+				CborEncoder.this.write(name);
+			}
+		}
+
+		@Override
+		void startObject(String name) {
+			this.key(name);
+			CborEncoder.this.writeByte(Generator.INDEFINITE_MAP);
+		}
+
+		@Override
+		void startArray(String name) {
+			this.key(name);
+			this.pendingSize = 0;
+			this.packing = true;
+		}
+
+		@Override
+		void end(boolean array) {
+			if (this.packing) {
+				if (this.pendingSize > 0) {
+					CborEncoder.this.write(Arrays.copyOf(this.pending,
+							this.pendingSize));
+				} else {
+					CborEncoder.this.writeHeader(CborDecoder.MAJOR_ARRAY, 0);
+				}
+				this.packing = false;
+			} else {
+				CborEncoder.this.writeByte(Generator.BREAK);
+			}
+		}
+
+		@Override
+		void writeValue(String name, JsonValue value) {
+			this.key(name);
+			CborEncoder.this.write(value);
+		}
+
+		@Override
+		void writeString(String name, String value) {
+			this.key(name);
+			CborEncoder.this.write(value);
+		}
+
+		@Override
+		void writeInteger(String name, long value) {
+			this.key(name);
+			CborEncoder.this.writeInteger(value);
+		}
+
+		@Override
+		void writeInteger(String name, BigInteger value) {
+			this.key(name);
+			CborEncoder.this.writeInteger(value);
+		}
+
+		@Override
+		void writeDouble(String name, double value) {
+			if (this.packing) {
+				if (this.pendingSize == this.pending.length) {
+					this.pending = Arrays.copyOf(this.pending,
+							this.pendingSize * 2);
+				}
+				this.pending[this.pendingSize++] = value;
+			} else {
+				this.key(name);
+				CborEncoder.this.writeDouble(value);
+			}
+		}
+
+		@Override
+		void writeLiteral(String name, Boolean value) {
+			this.key(name);
+			CborEncoder.this.writeByte(value == null ? 0xf6
+					: value ? 0xf5 : 0xf4);
+		}
+	}
+}
@@ -0,0 +1,1111 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
+import javax.json.JsonNumber;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReaderFactory;
+import javax.json.JsonString;
+import javax.json.JsonValue;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonGeneratorFactory;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParserFactory;
+import javax.json.stream.JsonParsingException;
+
+import edu.wpi.rail.jrosbridge.JsonWrapper;
+import edu.wpi.rail.jrosbridge.primitives.Primitive;
+
+/**
+ * The JsonStreams class reads values from the events of a streaming
+ * {@link JsonParser}, so messages can be decoded straight from a frame without
+ * building a JSON tree first. Objects are read field by field: once the
+ * START_OBJECT event of an object has been read, {@link #nextField} returns
+ * each of its field names, and one of the read methods reads the value that
+ * follows. A value of an unexpected type is reported with a
+ * {@link JsonParsingException}. The write methods do the reverse for a
+ * streaming {@link JsonGenerator}.
+ *
+ * @version October 18, 2026
+ */
+public final class JsonStreams {
+
+	// looking up the JSON provider for every parser is expensive
+	private static final JsonParserFactory PARSER_FACTORY = Json
+			.createParserFactory(null);
+
+	private static final JsonReaderFactory READER_FACTORY = Json
+			.createReaderFactory(null);
+
+	private static final JsonGeneratorFactory GENERATOR_FACTORY = Json
+			.createGeneratorFactory(null);
+
+	// the initial capacity of arrays of unknown size
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * This class only has static methods.
+	 */
+	private JsonStreams() {
+	}
+
+	/**
+	 * Create a new streaming parser for the given JSON.
+	 *
+	 * @param json
+	 *            The JSON to parse.
+	 * @return The parser.
+	 */
+	public static JsonParser createParser(Reader json) {
+		return JsonStreams.PARSER_FACTORY.createParser(json);
+	}
+
+	/**
+	 * Read a JSON object from the given UTF-8 encoded JSON, read straight from
+	 * part of the given array.
+	 *
+	 * @param json
+	 *            The array holding the JSON.
+	 * @param offset
+	 *            The position of the JSON in the array.
+	 * @param length
+	 *            The length of the JSON in bytes.
+	 * @return The object.
+	 * @throws JsonParsingException
+	 *             If the JSON is not a valid object.
+	 */
+	public static JsonObject readObject(byte[] json, int offset, int length) {
+		return JsonStreams.READER_FACTORY.createReader(
+				new ByteArrayInputStream(json, offset, length),
+				StandardCharsets.UTF_8).readObject();
+	}
+
+	/**
+	 * Create a new streaming generator that writes JSON to the given writer.
+	 *
+	 * @param json
+	 *            The writer to write the JSON to.
+	 * @return The generator.
+	 */
+	public static JsonGenerator createGenerator(Writer json) {
+		return JsonStreams.GENERATOR_FACTORY.createGenerator(json);
+	}
+
+	/**
+	 * Read the START_OBJECT event of an object.
+	 *
+	 * @param parser
+	 *            The parser.
+	 */
+	public static void beginObject(JsonParser parser) {
+		JsonStreams.expect(parser, JsonParser.Event.START_OBJECT);
+	}
+
+	/**
+	 * Read the START_ARRAY event of an array.
+	 *
+	 * @param parser
+	 *            The parser.
+	 */
+	public static void beginArray(JsonParser parser) {
+		JsonStreams.expect(parser, JsonParser.Event.START_ARRAY);
+	}
+
+	/**
+	 * Read the next field name of the current object.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The name of the next field, or null once the END_OBJECT event of
+	 *         the object has been read.
+	 */
+	public static String nextField(JsonParser parser) {
+		JsonParser.Event event = parser.next();
+		if (event == JsonParser.Event.KEY_NAME) {
+			return parser.getString();
+		} else if (event == JsonParser.Event.END_OBJECT) {
+			return null;
+		} else {
+			throw JsonStreams.unexpected(parser, event, "a field name");
+		}
+	}
+
+	/**
+	 * Read the START_OBJECT event of the next element of the current array.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return True if an object element follows, or false once the END_ARRAY
+	 *         event of the array has been read.
+	 */
+	public static boolean nextElement(JsonParser parser) {
+		JsonParser.Event event = parser.next();
+		if (event == JsonParser.Event.START_OBJECT) {
+			return true;
+		} else if (event == JsonParser.Event.END_ARRAY) {
+			return false;
+		} else {
+			throw JsonStreams.unexpected(parser, event, "an object");
+		}
+	}
+
+	/**
+	 * Read a boolean value.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The value.
+	 */
+	public static boolean readBoolean(JsonParser parser) {
+		JsonParser.Event event = parser.next();
+		if (event == JsonParser.Event.VALUE_TRUE) {
+			return true;
+		} else if (event == JsonParser.Event.VALUE_FALSE) {
+			return false;
+		} else {
+			throw JsonStreams.unexpected(parser, event, "a boolean");
+		}
+	}
+
+	/**
+	 * Read a String value.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The value.
+	 */
+	public static String readString(JsonParser parser) {
+		JsonStreams.expect(parser, JsonParser.Event.VALUE_STRING);
+		return parser.getString();
+	}
+
+	/**
+	 * Read a number value as a double.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The value.
+	 */
+	public static double readDouble(JsonParser parser) {
+		JsonStreams.expect(parser, JsonParser.Event.VALUE_NUMBER);
+		return JsonStreams.doubleValue(parser);
+	}
+
+	/**
+	 * Read a number value as a float.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The value.
+	 */
+	public static float readFloat(JsonParser parser) {
+		return (float) JsonStreams.readDouble(parser);
+	}
+
+	/**
+	 * Read a number value as a long. Fractions are truncated.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The value.
+	 */
+	public static long readLong(JsonParser parser) {
+		JsonStreams.expect(parser, JsonParser.Event.VALUE_NUMBER);
+		return JsonStreams.longValue(parser);
+	}
+
+	/**
+	 * Read a number value as an int. Fractions are truncated.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The value.
+	 */
+	public static int readInt(JsonParser parser) {
+		return (int) JsonStreams.readLong(parser);
+	}
+
+	/**
+	 * Read a number value as a BigInteger (e.g., for unsigned 64-bit values).
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The value.
+	 */
+	public static BigInteger readBigInteger(JsonParser parser) {
+		JsonStreams.expect(parser, JsonParser.Event.VALUE_NUMBER);
+		return parser.getBigDecimal().toBigInteger();
+	}
+
+	/**
+	 * Read an array of numbers as doubles.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The values.
+	 */
+	public static double[] readDoubleArray(JsonParser parser) {
+		JsonStreams.beginArray(parser);
+		double[] values = new double[JsonStreams.INITIAL_CAPACITY];
+		int size = 0;
+		JsonParser.Event event;
+		while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+			JsonStreams.check(parser, event, JsonParser.Event.VALUE_NUMBER);
+			if (size == values.length) {
+				double[] grown = new double[size * 2];
+				System.arraycopy(values, 0, grown, 0, size);
+				values = grown;
+			}
+			values[size++] = JsonStreams.doubleValue(parser);
+		}
+		if (size == values.length) {
+			return values;
+		}
+		double[] trimmed = new double[size];
+		System.arraycopy(values, 0, trimmed, 0, size);
+		return trimmed;
+	}
+
+	/**
+	 * Read an array of numbers as floats.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The values.
+	 */
+	public static float[] readFloatArray(JsonParser parser) {
+		JsonStreams.beginArray(parser);
+		float[] values = new float[JsonStreams.INITIAL_CAPACITY];
+		int size = 0;
+		JsonParser.Event event;
+		while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+			JsonStreams.check(parser, event, JsonParser.Event.VALUE_NUMBER);
+			if (size == values.length) {
+				float[] grown = new float[size * 2];
+				System.arraycopy(values, 0, grown, 0, size);
+				values = grown;
+			}
+			values[size++] = (float) JsonStreams.doubleValue(parser);
+		}
+		if (size == values.length) {
+			return values;
+		}
+		float[] trimmed = new float[size];
+		System.arraycopy(values, 0, trimmed, 0, size);
+		return trimmed;
+	}
+
+	/**
+	 * Read an array of numbers as floats, where null values (which rosbridge
+	 * sends for NaN and infinite values) are read as NaN.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The values.
+	 */
+	public static float[] readNullableFloatArray(JsonParser parser) {
+		JsonStreams.beginArray(parser);
+		float[] values = new float[JsonStreams.INITIAL_CAPACITY];
+		int size = 0;
+		JsonParser.Event event;
+		while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+			if (event != JsonParser.Event.VALUE_NULL) {
+				JsonStreams.check(parser, event, JsonParser.Event.VALUE_NUMBER);
+			}
+			if (size == values.length) {
+				float[] grown = new float[size * 2];
+				System.arraycopy(values, 0, grown, 0, size);
+				values = grown;
+			}
+			values[size++] = event == JsonParser.Event.VALUE_NULL ? Float.NaN
+					: (float) JsonStreams.doubleValue(parser);
+		}
+		if (size == values.length) {
+			return values;
+		}
+		float[] trimmed = new float[size];
+		System.arraycopy(values, 0, trimmed, 0, size);
+		return trimmed;
+	}
+
+	/**
+	 * Read an array of numbers as floats from a JSON value, where null
+	 * elements (which rosbridge sends for NaN and infinite values) are read as
+	 * NaN.
+	 *
+	 * @param value
+	 *            The JSON value, or null.
+	 * @return The values, or an empty array if the value is null.
+	 * @throws JsonException
+	 *             If the value is not an array of numbers and nulls.
+	 */
+	public static float[] readNullableFloatArray(JsonValue value) {
+		if (value == null) {
+			return new float[0];
+		} else if (value.getValueType() != JsonValue.ValueType.ARRAY) {
+			throw new JsonException("Expected ARRAY but got "
+					+ value.getValueType());
+		}
+		JsonArray array = (JsonArray) value;
+		float[] values = new float[array.size()];
+		for (int i = 0; i < values.length; i++) {
+			JsonValue element = array.get(i);
+			if (element.getValueType() == JsonValue.ValueType.NULL) {
+				values[i] = Float.NaN;
+			} else if (element.getValueType() == JsonValue.ValueType.NUMBER) {
+				values[i] = (float) ((JsonNumber) element).doubleValue();
+			} else {
+				throw new JsonException("Expected NUMBER but got "
+						+ element.getValueType());
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Read an array of numbers as longs. Fractions are truncated.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The values.
+	 */
+	public static long[] readLongArray(JsonParser parser) {
+		JsonStreams.beginArray(parser);
+		long[] values = new long[JsonStreams.INITIAL_CAPACITY];
+		int size = 0;
+		JsonParser.Event event;
+		while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+			JsonStreams.check(parser, event, JsonParser.Event.VALUE_NUMBER);
+			if (size == values.length) {
+				long[] grown = new long[size * 2];
+				System.arraycopy(values, 0, grown, 0, size);
+				values = grown;
+			}
+			values[size++] = JsonStreams.longValue(parser);
+		}
+		if (size == values.length) {
+			return values;
+		}
+		long[] trimmed = new long[size];
+		System.arraycopy(values, 0, trimmed, 0, size);
+		return trimmed;
+	}
+
+	/**
+	 * Read an array of numbers as ints. Fractions are truncated.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The values.
+	 */
+	public static int[] readIntArray(JsonParser parser) {
+		JsonStreams.beginArray(parser);
+		int[] values = new int[JsonStreams.INITIAL_CAPACITY];
+		int size = 0;
+		JsonParser.Event event;
+		while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+			JsonStreams.check(parser, event, JsonParser.Event.VALUE_NUMBER);
+			if (size == values.length) {
+				int[] grown = new int[size * 2];
+				System.arraycopy(values, 0, grown, 0, size);
+				values = grown;
+			}
+			values[size++] = (int) JsonStreams.longValue(parser);
+		}
+		if (size == values.length) {
+			return values;
+		}
+		int[] trimmed = new int[size];
+		System.arraycopy(values, 0, trimmed, 0, size);
+		return trimmed;
+	}
+
+	/**
+	 * Read an array of numbers as BigIntegers (e.g., for unsigned 64-bit
+	 * values).
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The values.
+	 */
+	public static BigInteger[] readBigIntegerArray(JsonParser parser) {
+		JsonStreams.beginArray(parser);
+		BigInteger[] values = new BigInteger[JsonStreams.INITIAL_CAPACITY];
+		int size = 0;
+		JsonParser.Event event;
+		while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+			JsonStreams.check(parser, event, JsonParser.Event.VALUE_NUMBER);
+			if (size == values.length) {
+				BigInteger[] grown = new BigInteger[size * 2];
+				System.arraycopy(values, 0, grown, 0, size);
+				values = grown;
+			}
+			values[size++] = parser.getBigDecimal().toBigInteger();
+		}
+		BigInteger[] trimmed = new BigInteger[size];
+		System.arraycopy(values, 0, trimmed, 0, size);
+		return trimmed;
+	}
+
+	/**
+	 * Read an array of numbers as shorts. Fractions are truncated.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The values.
+	 */
+	public static short[] readShortArray(JsonParser parser) {
+		int[] values = JsonStreams.readIntArray(parser);
+		short[] shorts = new short[values.length];
+		for (int i = 0; i < values.length; i++) {
+			shorts[i] = (short) values[i];
+		}
+		return shorts;
+	}
+
+	/**
+	 * Read an array of bytes. Both an array of numbers and a base64 string
+	 * (which is how rosbridge sends uint8[] values) are accepted.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The values.
+	 */
+	public static byte[] readByteArray(JsonParser parser) {
+		JsonParser.Event event = parser.next();
+		if (event == JsonParser.Event.VALUE_STRING) {
+			try {
+				return Base64.getDecoder().decode(parser.getString());
+			} catch (IllegalArgumentException e) {
+				throw new JsonParsingException("Invalid base64 data: "
+						+ e.getMessage(), e, parser.getLocation());
+			}
+		} else if (event != JsonParser.Event.START_ARRAY) {
+			throw JsonStreams.unexpected(parser, event,
+					"START_ARRAY or VALUE_STRING");
+		}
+		byte[] values = new byte[JsonStreams.INITIAL_CAPACITY];
+		int size = 0;
+		while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+			JsonStreams.check(parser, event, JsonParser.Event.VALUE_NUMBER);
+			if (size == values.length) {
+				byte[] grown = new byte[size * 2];
+				System.arraycopy(values, 0, grown, 0, size);
+				values = grown;
+			}
+			values[size++] = (byte) JsonStreams.longValue(parser);
+		}
+		byte[] trimmed = new byte[size];
+		System.arraycopy(values, 0, trimmed, 0, size);
+		return trimmed;
+	}
+
+	/**
+	 * Read an array of bytes from a JSON value, which may be either a base64
+	 * string (as rosbridge sends uint8[] and char[] fields) or an array of
+	 * numbers. The bytes are decoded straight into the returned array.
+	 *
+	 * @param value
+	 *            The JSON value, or null.
+	 * @return The values, or an empty array if the value is null.
+	 * @throws JsonException
+	 *             If the value is neither a base64 string nor an array of
+	 *             numbers.
+	 */
+	public static byte[] readByteArray(JsonValue value) {
+		if (value == null) {
+			return new byte[0];
+		} else if (value.getValueType() == JsonValue.ValueType.STRING) {
+			try {
+				return Base64.getDecoder().decode(
+						((JsonString) value).getString());
+			} catch (IllegalArgumentException e) {
+				throw new JsonException("Invalid base64 data: "
+						+ e.getMessage(), e);
+			}
+		} else if (value.getValueType() != JsonValue.ValueType.ARRAY) {
+			throw new JsonException("Expected ARRAY or STRING but got "
+					+ value.getValueType());
+		}
+		JsonArray array = (JsonArray) value;
+		byte[] values = new byte[array.size()];
+		for (int i = 0; i < values.length; i++) {
+			JsonValue element = array.get(i);
+			if (element.getValueType() != JsonValue.ValueType.NUMBER) {
+				throw new JsonException("Expected NUMBER but got "
+						+ element.getValueType());
+			}
+			values[i] = (byte) ((JsonNumber) element).longValue();
+		}
+		return values;
+	}
+
+	/**
+	 * Read an array of booleans.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The values.
+	 */
+	public static boolean[] readBooleanArray(JsonParser parser) {
+		JsonStreams.beginArray(parser);
+		boolean[] values = new boolean[JsonStreams.INITIAL_CAPACITY];
+		int size = 0;
+		JsonParser.Event event;
+		while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+			if (event != JsonParser.Event.VALUE_TRUE
+					&& event != JsonParser.Event.VALUE_FALSE) {
+				throw JsonStreams.unexpected(parser, event, "a boolean");
+			}
+			if (size == values.length) {
+				boolean[] grown = new boolean[size * 2];
+				System.arraycopy(values, 0, grown, 0, size);
+				values = grown;
+			}
+			values[size++] = event == JsonParser.Event.VALUE_TRUE;
+		}
+		boolean[] trimmed = new boolean[size];
+		System.arraycopy(values, 0, trimmed, 0, size);
+		return trimmed;
+	}
+
+	/**
+	 * Read an array of strings.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @return The values.
+	 */
+	public static String[] readStringArray(JsonParser parser) {
+		JsonStreams.beginArray(parser);
+		String[] values = new String[JsonStreams.INITIAL_CAPACITY];
+		int size = 0;
+		JsonParser.Event event;
+		while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+			JsonStreams.check(parser, event, JsonParser.Event.VALUE_STRING);
+			if (size == values.length) {
+				String[] grown = new String[size * 2];
+				System.arraycopy(values, 0, grown, 0, size);
+				values = grown;
+			}
+			values[size++] = parser.getString();
+		}
+		String[] trimmed = new String[size];
+		System.arraycopy(values, 0, trimmed, 0, size);
+		return trimmed;
+	}
+
+	/**
+	 * Write an array field of bytes as a base64 string, which is how rosbridge
+	 * expects uint8[] and char[] fields. This is about a quarter the size of
+	 * an array of numbers and much faster to parse on either end.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeBinary(JsonGenerator generator, String name,
+			byte[] values) {
+		generator.write(name, Base64.getEncoder().encodeToString(values));
+	}
+
+	/**
+	 * Write the remaining bytes of the given buffer as a base64 string field.
+	 * The position of the buffer is not changed.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The buffer holding the values to write.
+	 */
+	public static void writeBinary(JsonGenerator generator, String name,
+			ByteBuffer values) {
+		ByteBuffer encoded = Base64.getEncoder().encode(values.duplicate());
+		generator.write(name, new String(encoded.array(),
+				encoded.arrayOffset() + encoded.position(),
+				encoded.remaining(), StandardCharsets.ISO_8859_1));
+	}
+
+	/**
+	 * Write an object field with the fields of the given JSON object.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param value
+	 *            The JSON object to write.
+	 */
+	public static void writeObject(JsonGenerator generator, String name,
+			JsonWrapper value) {
+		generator.writeStartObject(name);
+		value.writeJsonFields(generator);
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of JSON objects.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The JSON objects to write.
+	 */
+	public static void writeArray(JsonGenerator generator, String name,
+			JsonWrapper[] values) {
+		generator.writeStartArray(name);
+		for (JsonWrapper value : values) {
+			generator.writeStartObject();
+			value.writeJsonFields(generator);
+			generator.writeEnd();
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of doubles.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeArray(JsonGenerator generator, String name,
+			double[] values) {
+		generator.writeStartArray(name);
+		for (double value : values) {
+			generator.write(value);
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of floats.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeArray(JsonGenerator generator, String name,
+			float[] values) {
+		generator.writeStartArray(name);
+		for (float value : values) {
+			generator.write(value);
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of floats, with NaN and infinite values (which JSON
+	 * cannot hold) written as null.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeNullableArray(JsonGenerator generator,
+			String name, float[] values) {
+		generator.writeStartArray(name);
+		for (float value : values) {
+			if (Float.isNaN(value) || Float.isInfinite(value)) {
+				generator.writeNull();
+			} else {
+				generator.write(value);
+			}
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of longs.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeArray(JsonGenerator generator, String name,
+			long[] values) {
+		generator.writeStartArray(name);
+		for (long value : values) {
+			generator.write(value);
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of ints.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeArray(JsonGenerator generator, String name,
+			int[] values) {
+		generator.writeStartArray(name);
+		for (int value : values) {
+			generator.write(value);
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of shorts.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeArray(JsonGenerator generator, String name,
+			short[] values) {
+		generator.writeStartArray(name);
+		for (short value : values) {
+			generator.write(value);
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of bytes as numbers.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeArray(JsonGenerator generator, String name,
+			byte[] values) {
+		generator.writeStartArray(name);
+		for (byte value : values) {
+			generator.write(value);
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of booleans.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeArray(JsonGenerator generator, String name,
+			boolean[] values) {
+		generator.writeStartArray(name);
+		for (boolean value : values) {
+			generator.write(value);
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of strings.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeArray(JsonGenerator generator, String name,
+			String[] values) {
+		generator.writeStartArray(name);
+		for (String value : values) {
+			generator.write(value);
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of bytes treated as unsigned 8-bit integers.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeUnsignedArray(JsonGenerator generator,
+			String name, byte[] values) {
+		generator.writeStartArray(name);
+		for (byte value : values) {
+			generator.write(Primitive.fromUInt8(value));
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of shorts treated as unsigned 16-bit integers.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeUnsignedArray(JsonGenerator generator,
+			String name, short[] values) {
+		generator.writeStartArray(name);
+		for (short value : values) {
+			generator.write(Primitive.fromUInt16(value));
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of ints treated as unsigned 32-bit integers.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeUnsignedArray(JsonGenerator generator,
+			String name, int[] values) {
+		generator.writeStartArray(name);
+		for (int value : values) {
+			generator.write(Primitive.fromUInt32(value));
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Write an array field of longs treated as unsigned 64-bit integers.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param name
+	 *            The name of the field.
+	 * @param values
+	 *            The values to write.
+	 */
+	public static void writeUnsignedArray(JsonGenerator generator,
+			String name, long[] values) {
+		generator.writeStartArray(name);
+		for (long value : values) {
+			if (value >= 0) {
+				generator.write(value);
+			} else {
+				generator.write(Primitive.fromUInt64(value));
+			}
+		}
+		generator.writeEnd();
+	}
+
+	/**
+	 * Skip the next value, including all of its nested values.
+	 *
+	 * @param parser
+	 *            The parser.
+	 */
+	public static void skipValue(JsonParser parser) {
+		int depth = 0;
+		do {
+			switch (parser.next()) {
+			case START_OBJECT:
+			case START_ARRAY:
+				depth++;
+				break;
+			case END_OBJECT:
+			case END_ARRAY:
+				depth--;
+				break;
+			default:
+				break;
+			}
+		} while (depth > 0);
+	}
+
+	/**
+	 * Read the rest of the current object into a JSON object. This is the
+	 * fallback for values without a streaming decoder.
+	 *
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the object.
+	 * @return The JSON object.
+	 */
+	public static JsonObject readObject(JsonParser parser) {
+		JsonObjectBuilder builder = Json.createObjectBuilder();
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			JsonParser.Event event = parser.next();
+			switch (event) {
+			case START_OBJECT:
+				builder.add(field, JsonStreams.readObject(parser));
+				break;
+			case START_ARRAY:
+				builder.add(field, JsonStreams.readArray(parser));
+				break;
+			case VALUE_STRING:
+				builder.add(field, parser.getString());
+				break;
+			case VALUE_NUMBER:
+				// exact, like the JSON reader (e.g., for uint64 values)
+				builder.add(field, parser.getBigDecimal());
+				break;
+			case VALUE_TRUE:
+				builder.add(field, true);
+				break;
+			case VALUE_FALSE:
+				builder.add(field, false);
+				break;
+			default:
+				builder.addNull(field);
+				break;
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Read the rest of the current array into a JSON array.
+	 *
+	 * @param parser
+	 *            The parser, after the START_ARRAY event of the array.
+	 * @return The JSON array.
+	 */
+	public static JsonArray readArray(JsonParser parser) {
+		JsonArrayBuilder builder = Json.createArrayBuilder();
+		JsonParser.Event event;
+		while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
+			switch (event) {
+			case START_OBJECT:
+				builder.add(JsonStreams.readObject(parser));
+				break;
+			case START_ARRAY:
+				builder.add(JsonStreams.readArray(parser));
+				break;
+			case VALUE_STRING:
+				builder.add(parser.getString());
+				break;
+			case VALUE_NUMBER:
+				builder.add(parser.getBigDecimal());
+				break;
+			case VALUE_TRUE:
+				builder.add(true);
+				break;
+			case VALUE_FALSE:
+				builder.add(false);
+				break;
+			default:
+				builder.addNull();
+				break;
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Get the current number as a double.
+	 *
+	 * @param parser
+	 *            The parser, on a VALUE_NUMBER event.
+	 * @return The value.
+	 */
+	private static double doubleValue(JsonParser parser) {
+		// cheaper than going through a BigDecimal
+		return Double.parseDouble(parser.getString());
+	}
+
+	/**
+	 * Get the current number as a long.
+	 *
+	 * @param parser
+	 *            The parser, on a VALUE_NUMBER event.
+	 * @return The value.
+	 */
+	private static long longValue(JsonParser parser) {
+		return parser.isIntegralNumber() ? parser.getLong() : parser
+				.getBigDecimal().longValue();
+	}
+
+	/**
+	 * Read the next event and check that it is the expected one.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @param expected
+	 *            The expected event.
+	 */
+	private static void expect(JsonParser parser, JsonParser.Event expected) {
+		JsonStreams.check(parser, parser.next(), expected);
+	}
+
+	/**
+	 * Check that an event is the expected one.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @param event
+	 *            The event that was read.
+	 * @param expected
+	 *            The expected event.
+	 */
+	private static void check(JsonParser parser, JsonParser.Event event,
+			JsonParser.Event expected) {
+		if (event != expected) {
+			throw JsonStreams.unexpected(parser, event, expected.toString());
+		}
+	}
+
+	/**
+	 * Create the exception for an unexpected event.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @param event
+	 *            The event that was read.
+	 * @param expected
+	 *            A description of what was expected.
+	 * @return The exception.
+	 */
+	private static JsonParsingException unexpected(JsonParser parser,
+			JsonParser.Event event, String expected) {
+		return new JsonParsingException("Expected " + expected + " but got "
+				+ event, parser.getLocation());
+	}
+}
@@ -0,0 +1,439 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * The PngDecoder decodes the PNG images rosbridge sends for the "png"
+ * compression type. rosbridge packs the JSON text of a frame into the samples
+ * of an 8-bit RGB image (padded with newlines), so only the raw samples are
+ * needed: the image data is inflated and unfiltered straight into a buffer
+ * that is reused from one image to the next, with no intermediate image,
+ * raster, or pixel array. Non-interlaced 8-bit images of any color type are
+ * supported; palette images give their indices. Chunk checksums are not
+ * verified.
+ *
+ * A decoder is not thread safe, but may be reused for any number of images.
+ * The samples of an image are only valid until the next image is decoded.
+ *
+ * @version October 18, 2026
+ */
+public class PngDecoder {
+
+	/**
+	 * The color type of grayscale images.
+	 */
+	public static final int COLOR_GRAYSCALE = 0;
+
+	/**
+	 * The color type of RGB images.
+	 */
+	public static final int COLOR_RGB = 2;
+
+	/**
+	 * The color type of palette images.
+	 */
+	public static final int COLOR_PALETTE = 3;
+
+	/**
+	 * The color type of grayscale images with an alpha channel.
+	 */
+	public static final int COLOR_GRAYSCALE_ALPHA = 4;
+
+	/**
+	 * The color type of RGB images with an alpha channel.
+	 */
+	public static final int COLOR_RGBA = 6;
+
+	private static final byte[] SIGNATURE = new byte[] { (byte) 137, 80, 78,
+			71, 13, 10, 26, 10 };
+
+	private static final int CHUNK_IHDR = 0x49484452;
+	private static final int CHUNK_IDAT = 0x49444154;
+	private static final int CHUNK_IEND = 0x49454e44;
+
+	private static final int FILTER_NONE = 0;
+	private static final int FILTER_SUB = 1;
+	private static final int FILTER_UP = 2;
+	private static final int FILTER_AVERAGE = 3;
+	private static final int FILTER_PAETH = 4;
+
+	// the value of each base64 character, or -1
+	private static final byte[] BASE64 = new byte[128];
+	static {
+		Arrays.fill(BASE64, (byte) -1);
+		String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+		for (int i = 0; i < alphabet.length(); i++) {
+			BASE64[alphabet.charAt(i)] = (byte) i;
+		}
+	}
+
+	// the largest image accepted (256 MiB), to reject corrupt headers early
+	private static final long MAX_SAMPLES = 1L << 28;
+
+	// the most a deflate stream can inflate to per compressed byte
+	private static final long MAX_RATIO = 1032;
+
+	private final Inflater inflater;
+	private byte[] compressed;
+	private byte[] samples;
+	private int width, height, channels, length;
+
+	/**
+	 * Create a new decoder with empty buffers.
+	 */
+	public PngDecoder() {
+		this.inflater = new Inflater();
+		this.compressed = new byte[0];
+		this.samples = new byte[0];
+	}
+
+	/**
+	 * Get the width of the last decoded image.
+	 *
+	 * @return The width in pixels.
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * Get the height of the last decoded image.
+	 *
+	 * @return The height in pixels.
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Get the number of samples per pixel of the last decoded image.
+	 *
+	 * @return The number of samples per pixel (e.g., 3 for RGB).
+	 */
+	public int getChannels() {
+		return this.channels;
+	}
+
+	/**
+	 * Get the number of samples of the last decoded image.
+	 *
+	 * @return The number of samples, row by row.
+	 */
+	public int getLength() {
+		return this.length;
+	}
+
+	/**
+	 * Get the buffer holding the samples of the last decoded image, one byte
+	 * per sample, row by row. Only the first {@link #getLength() getLength()}
+	 * bytes are samples. The buffer is reused by the next decode.
+	 *
+	 * @return The buffer holding the samples.
+	 */
+	public byte[] getBuffer() {
+		return this.samples;
+	}
+
+	/**
+	 * Decode the given base64 encoded PNG image (as found in the data field of
+	 * a "png" frame). The base64 text is decoded into a reused buffer as well.
+	 * Decoding stops at the first padding character.
+	 *
+	 * @param data
+	 *            The base64 encoded PNG image.
+	 * @return The number of samples, which are held by the buffer.
+	 * @throws IOException
+	 *             If the data is not valid base64 or not a supported PNG
+	 *             image.
+	 */
+	public int decodeBase64(String data) throws IOException {
+		int n = data.length();
+		// at most three bytes for every four characters
+		int max = (n / 4) * 3 + 3;
+		if (this.compressed.length < max) {
+			this.compressed = new byte[max];
+		}
+		byte[] dst = this.compressed;
+		int size = 0, bits = 0, count = 0;
+		for (int i = 0; i < n; i++) {
+			char c = data.charAt(i);
+			if (c == '=') {
+				break;
+			}
+			int v = c < 128 ? BASE64[c] : -1;
+			if (v < 0) {
+				throw new IOException("Invalid base64 data at " + i + ".");
+			}
+			bits = (bits << 6) | v;
+			if (++count == 4) {
+				dst[size++] = (byte) (bits >> 16);
+				dst[size++] = (byte) (bits >> 8);
+				dst[size++] = (byte) bits;
+				bits = count = 0;
+			}
+		}
+		if (count == 1) {
+			throw new IOException("Invalid base64 data length.");
+		} else if (count == 2) {
+			dst[size++] = (byte) (bits >> 4);
+		} else if (count == 3) {
+			dst[size++] = (byte) (bits >> 10);
+			dst[size++] = (byte) (bits >> 2);
+		}
+		return this.decode(dst, 0, size);
+	}
+
+	/**
+	 * Decode the given PNG image.
+	 *
+	 * @param png
+	 *            The PNG image.
+	 * @return The number of samples, which are held by the buffer.
+	 * @throws IOException
+	 *             If the data is not a supported PNG image.
+	 */
+	public int decode(byte[] png) throws IOException {
+		return this.decode(png, 0, png.length);
+	}
+
+	/**
+	 * Decode the PNG image held by part of the given array.
+	 *
+	 * @param png
+	 *            The array holding the PNG image.
+	 * @param offset
+	 *            The position of the image in the array.
+	 * @param size
+	 *            The size of the image in bytes.
+	 * @return The number of samples, which are held by the buffer.
+	 * @throws IOException
+	 *             If the data is not a supported PNG image.
+	 */
+	public int decode(byte[] png, int offset, int size) throws IOException {
+		int end = offset + size;
+		if (size < SIGNATURE.length) {
+			throw new IOException("Not a PNG image.");
+		}
+		for (int i = 0; i < SIGNATURE.length; i++) {
+			if (png[offset + i] != SIGNATURE[i]) {
+				throw new IOException("Not a PNG image.");
+			}
+		}
+
+		this.width = this.height = this.channels = this.length = 0;
+		this.inflater.reset();
+		int stride = 0, filtered = 0, inflated = 0;
+		boolean header = false;
+		int pos = offset + SIGNATURE.length;
+		try {
+			while (true) {
+				if (end - pos < 12) {
+					throw new IOException("Truncated PNG image.");
+				}
+				int chunkLength = PngDecoder.readInt(png, pos);
+				int chunkType = PngDecoder.readInt(png, pos + 4);
+				int data = pos + 8;
+				if (chunkLength < 0 || end - data - 4 < chunkLength) {
+					throw new IOException("Truncated PNG image.");
+				}
+
+				if (chunkType == CHUNK_IHDR) {
+					stride = this.readHeader(png, data, chunkLength);
+					filtered = this.height * (stride + 1);
+					// the image data could never fill a larger buffer
+					if (filtered > (long) size * MAX_RATIO) {
+						throw new IOException("Invalid PNG size: "
+								+ this.width + "x" + this.height);
+					}
+					if (this.samples.length < filtered) {
+						this.samples = new byte[filtered];
+					}
+					header = true;
+				} else if (chunkType == CHUNK_IDAT) {
+					if (!header) {
+						throw new IOException("PNG image data before header.");
+					}
+					this.inflater.setInput(png, data, chunkLength);
+					while (inflated < filtered && !this.inflater.needsInput()
+							&& !this.inflater.finished()) {
+						int n = this.inflater.inflate(this.samples, inflated,
+								filtered - inflated);
+						if (n == 0 && this.inflater.needsDictionary()) {
+							throw new IOException("Invalid PNG image data.");
+						}
+						inflated += n;
+					}
+				} else if (chunkType == CHUNK_IEND) {
+					break;
+				}
+				pos = data + chunkLength + 4;
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Invalid PNG image data: " + e.getMessage());
+		}
+		if (!header) {
+			throw new IOException("PNG image has no header.");
+		} else if (inflated < filtered) {
+			throw new IOException("Truncated PNG image data.");
+		}
+
+		this.unfilter(stride);
+		this.length = this.height * stride;
+		return this.length;
+	}
+
+	/**
+	 * Read the header of an image.
+	 *
+	 * @param png
+	 *            The array holding the image.
+	 * @param pos
+	 *            The position of the header data.
+	 * @param size
+	 *            The size of the header data.
+	 * @return The number of samples in each row.
+	 * @throws IOException
+	 *             If the image is not supported.
+	 */
+	private int readHeader(byte[] png, int pos, int size) throws IOException {
+		if (size != 13) {
+			throw new IOException("Invalid PNG header.");
+		}
+		int w = PngDecoder.readInt(png, pos);
+		int h = PngDecoder.readInt(png, pos + 4);
+		int depth = png[pos + 8] & 0xff;
+		int color = png[pos + 9] & 0xff;
+		int interlace = png[pos + 12] & 0xff;
+		int c;
+		switch (color) {
+		case COLOR_GRAYSCALE:
+		case COLOR_PALETTE:
+			c = 1;
+			break;
+		case COLOR_GRAYSCALE_ALPHA:
+			c = 2;
+			break;
+		case COLOR_RGB:
+			c = 3;
+			break;
+		case COLOR_RGBA:
+			c = 4;
+			break;
+		default:
+			throw new IOException("Invalid PNG color type: " + color);
+		}
+		if (depth != 8) {
+			throw new IOException("Unsupported PNG bit depth: " + depth);
+		} else if (interlace != 0) {
+			throw new IOException("Interlaced PNG images are not supported.");
+		} else if (w <= 0 || h <= 0
+				|| (long) h * ((long) w * c + 1) > MAX_SAMPLES) {
+			throw new IOException("Invalid PNG size: " + w + "x" + h);
+		}
+		this.width = w;
+		this.height = h;
+		this.channels = c;
+		return w * c;
+	}
+
+	/**
+	 * Reverse the filter of each row in place. Each row is moved down over
+	 * the filter type bytes as it goes, so the samples end up packed at the
+	 * start of the buffer and the previous row is always right behind the
+	 * current one.
+	 *
+	 * @param stride
+	 *            The number of samples in each row.
+	 * @throws IOException
+	 *             If a row has an invalid filter type.
+	 */
+	private void unfilter(int stride) throws IOException {
+		byte[] b = this.samples;
+		int bpp = this.channels;
+		for (int row = 0; row < this.height; row++) {
+			int src = row * (stride + 1);
+			int filter = b[src++];
+			int dst = row * stride;
+			int up = dst - stride;
+			switch (row == 0 && filter == FILTER_UP ? FILTER_NONE : filter) {
+			case FILTER_NONE:
+				System.arraycopy(b, src, b, dst, stride);
+				break;
+			case FILTER_SUB:
+				for (int i = 0; i < bpp; i++) {
+					b[dst + i] = b[src + i];
+				}
+				for (int i = bpp; i < stride; i++) {
+					b[dst + i] = (byte) (b[src + i] + b[dst + i - bpp]);
+				}
+				break;
+			case FILTER_UP:
+				for (int i = 0; i < stride; i++) {
+					b[dst + i] = (byte) (b[src + i] + b[up + i]);
+				}
+				break;
+			case FILTER_AVERAGE:
+				for (int i = 0; i < stride; i++) {
+					int left = i < bpp ? 0 : b[dst + i - bpp] & 0xff;
+					int above = row == 0 ? 0 : b[up + i] & 0xff;
+					b[dst + i] = (byte) (b[src + i] + ((left + above) >>> 1));
+				}
+				break;
+			case FILTER_PAETH:
+				for (int i = 0; i < stride; i++) {
+					int left = i < bpp ? 0 : b[dst + i - bpp] & 0xff;
+					int above = row == 0 ? 0 : b[up + i] & 0xff;
+					int corner = i < bpp || row == 0 ? 0
+							: b[up + i - bpp] & 0xff;
+					b[dst + i] = (byte) (b[src + i] + PngDecoder.paeth(left,
+							above, corner));
+				}
+				break;
+			default:
+				throw new IOException("Invalid PNG filter type: " + filter);
+			}
+		}
+	}
+
+	/**
+	 * The Paeth predictor of the PNG specification.
+	 *
+	 * @param a
+	 *            The sample to the left.
+	 * @param b
+	 *            The sample above.
+	 * @param c
+	 *            The sample above and to the left.
+	 * @return Whichever sample is closest to a + b - c.
+	 */
+	private static int paeth(int a, int b, int c) {
+		int p = a + b - c;
+		int pa = Math.abs(p - a);
+		int pb = Math.abs(p - b);
+		int pc = Math.abs(p - c);
+		if (pa <= pb && pa <= pc) {
+			return a;
+		} else if (pb <= pc) {
+			return b;
+		} else {
+			return c;
+		}
+	}
+
+	/**
+	 * Read a big-endian 32-bit integer.
+	 *
+	 * @param b
+	 *            The array to read from.
+	 * @param pos
+	 *            The position of the integer.
+	 * @return The integer.
+	 */
+	private static int readInt(byte[] b, int pos) {
+		return ((b[pos] & 0xff) << 24) | ((b[pos + 1] & 0xff) << 16)
+				| ((b[pos + 2] & 0xff) << 8) | (b[pos + 3] & 0xff);
+	}
+}
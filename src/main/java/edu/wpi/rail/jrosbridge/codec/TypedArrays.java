@@ -0,0 +1,149 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+
+/**
+ * Helpers for CBOR typed arrays (RFC 8746), which rosbridge uses to send
+ * numeric arrays as packed binary data. A typed array tag in the range 64-87
+ * encodes the element type in its low bits: bit 4 marks floating point, bit 3
+ * marks signed integers, bit 2 marks little endian, and bits 0-1 give the
+ * element size.
+ *
+ * @version October 18, 2026
+ */
+class TypedArrays {
+
+	/**
+	 * The first typed array tag (uint8).
+	 */
+	static final int TAG_MIN = 64;
+
+	/**
+	 * The last typed array tag (float128, little endian).
+	 */
+	static final int TAG_MAX = 87;
+
+	/**
+	 * The tag for unsigned 8-bit integers.
+	 */
+	static final int TAG_UINT8 = 64;
+
+	/**
+	 * The tag for little endian 64-bit floats.
+	 */
+	static final int TAG_FLOAT64_LE = 86;
+
+	/**
+	 * Check if the given tag is a supported typed array tag. 128-bit floats are
+	 * not supported.
+	 *
+	 * @param tag
+	 *            The tag to check.
+	 * @return If the given tag is a supported typed array tag.
+	 */
+	static boolean isTypedArray(long tag) {
+		return tag >= TAG_MIN && tag <= TAG_MAX && tag != 83 && tag != 87;
+	}
+
+	/**
+	 * Check if elements of the given typed array are floating point.
+	 *
+	 * @param tag
+	 *            The typed array tag.
+	 * @return If the elements are floating point.
+	 */
+	static boolean isFloat(int tag) {
+		return ((tag - TAG_MIN) & 0x10) != 0;
+	}
+
+	/**
+	 * Check if elements of the given typed array are signed.
+	 *
+	 * @param tag
+	 *            The typed array tag.
+	 * @return If the elements are signed.
+	 */
+	static boolean isSigned(int tag) {
+		return ((tag - TAG_MIN) & 0x08) != 0;
+	}
+
+	/**
+	 * Get the byte order of the given typed array.
+	 *
+	 * @param tag
+	 *            The typed array tag.
+	 * @return The byte order of the elements.
+	 */
+	static ByteOrder order(int tag) {
+		return ((tag - TAG_MIN) & 0x04) != 0 ? ByteOrder.LITTLE_ENDIAN
+				: ByteOrder.BIG_ENDIAN;
+	}
+
+	/**
+	 * Get the size in bytes of each element of the given typed array.
+	 *
+	 * @param tag
+	 *            The typed array tag.
+	 * @return The size in bytes of each element.
+	 */
+	static int elementSize(int tag) {
+		int ll = (tag - TAG_MIN) & 0x03;
+		return isFloat(tag) ? 2 << ll : 1 << ll;
+	}
+
+	/**
+	 * Expand the given typed array into a JSON array.
+	 *
+	 * @param tag
+	 *            The typed array tag.
+	 * @param data
+	 *            The packed element data.
+	 * @return The JSON array builder holding the elements.
+	 */
+	static JsonArrayBuilder toJsonArray(int tag, ByteBuffer data) {
+		ByteBuffer buf = data.slice().order(order(tag));
+		int size = elementSize(tag);
+		int count = buf.remaining() / size;
+		JsonArrayBuilder builder = Json.createArrayBuilder();
+
+		if (isFloat(tag)) {
+			for (int i = 0; i < count; i++) {
+				double d = size == 2 ? CborDecoder.halfToFloat(buf.getShort())
+						: size == 4 ? buf.getFloat() : buf.getDouble();
+				if (Double.isNaN(d) || Double.isInfinite(d)) {
+					builder.addNull();
+				} else {
+					builder.add(d);
+				}
+			}
+		} else if (isSigned(tag)) {
+			for (int i = 0; i < count; i++) {
+				builder.add(size == 1 ? buf.get() : size == 2 ? buf.getShort()
+						: size == 4 ? buf.getInt() : buf.getLong());
+			}
+		} else {
+			for (int i = 0; i < count; i++) {
+				if (size == 1) {
+					builder.add(buf.get() & 0xff);
+				} else if (size == 2) {
+					builder.add(buf.getShort() & 0xffff);
+				} else if (size == 4) {
+					builder.add(buf.getInt() & 0xffffffffL);
+				} else {
+					long l = buf.getLong();
+					if (l >= 0) {
+						builder.add(l);
+					} else {
+						builder.add(new BigInteger(Long.toUnsignedString(l)));
+					}
+				}
+			}
+		}
+		return builder;
+	}
+}
@@ -0,0 +1,199 @@
+package edu.wpi.rail.jrosbridge.generator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A MessageDefinition is the parsed contents of a .msg file (or of one half of
+ * a .srv file): its fields and constants, in the order they were defined.
+ *
+ * @version October 18, 2026
+ */
+public class MessageDefinition {
+
+	// e.g., "float64", "Point", or "geometry_msgs/Point", then "[]" or "[3]"
+	private static final Pattern TYPE = Pattern
+			.compile("([a-zA-Z][a-zA-Z0-9_]*(?:/[a-zA-Z][a-zA-Z0-9_]*)?)(?:\\[(\\d*)\\])?");
+
+	private static final Pattern NAME = Pattern
+			.compile("[a-zA-Z][a-zA-Z0-9_]*");
+
+	private final String pkg;
+	private final String name;
+	private final List<MessageField> fields;
+	private final List<MessageField> constants;
+
+	/**
+	 * Create a new message definition.
+	 *
+	 * @param pkg
+	 *            The ROS package of the message (e.g., "std_msgs").
+	 * @param name
+	 *            The name of the message (e.g., "Header").
+	 * @param fields
+	 *            The fields and constants of the message.
+	 */
+	public MessageDefinition(String pkg, String name, List<MessageField> fields) {
+		this.pkg = pkg;
+		this.name = name;
+		List<MessageField> values = new ArrayList<MessageField>();
+		List<MessageField> constants = new ArrayList<MessageField>();
+		for (MessageField field : fields) {
+			(field.isConstant() ? constants : values).add(field);
+		}
+		this.fields = Collections.unmodifiableList(values);
+		this.constants = Collections.unmodifiableList(constants);
+	}
+
+	/**
+	 * Get the ROS package of the message.
+	 *
+	 * @return The ROS package of the message.
+	 */
+	public String getPackage() {
+		return this.pkg;
+	}
+
+	/**
+	 * Get the name of the message.
+	 *
+	 * @return The name of the message.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Get the full message type (e.g., "std_msgs/Header").
+	 *
+	 * @return The full message type.
+	 */
+	public String getType() {
+		return this.pkg + "/" + this.name;
+	}
+
+	/**
+	 * Get the fields of the message, in the order they were defined.
+	 *
+	 * @return The fields of the message.
+	 */
+	public List<MessageField> getFields() {
+		return this.fields;
+	}
+
+	/**
+	 * Get the constants of the message, in the order they were defined.
+	 *
+	 * @return The constants of the message.
+	 */
+	public List<MessageField> getConstants() {
+		return this.constants;
+	}
+
+	/**
+	 * Parse the given .msg definition.
+	 *
+	 * @param pkg
+	 *            The ROS package of the message (e.g., "std_msgs").
+	 * @param name
+	 *            The name of the message (e.g., "Header").
+	 * @param definition
+	 *            The contents of the .msg file.
+	 * @return The parsed definition.
+	 * @throws IllegalArgumentException
+	 *             If the definition is not valid.
+	 */
+	public static MessageDefinition parse(String pkg, String name,
+			String definition) {
+		String[] lines = definition.split("\r?\n");
+		return MessageDefinition.parse(pkg, name, lines, 0, lines.length);
+	}
+
+	/**
+	 * Parse the given lines of a .msg or .srv definition.
+	 *
+	 * @param pkg
+	 *            The ROS package of the message.
+	 * @param name
+	 *            The name of the message.
+	 * @param lines
+	 *            The lines of the definition.
+	 * @param from
+	 *            The first line to parse.
+	 * @param to
+	 *            The line after the last line to parse.
+	 * @return The parsed definition.
+	 * @throws IllegalArgumentException
+	 *             If the definition is not valid.
+	 */
+	static MessageDefinition parse(String pkg, String name, String[] lines,
+			int from, int to) {
+		List<MessageField> fields = new ArrayList<MessageField>();
+		for (int i = from; i < to; i++) {
+			String line = lines[i].trim();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			try {
+				fields.add(MessageDefinition.parseLine(line));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException(pkg + "/" + name + " line "
+						+ (i + 1) + ": " + e.getMessage(), e);
+			}
+		}
+		return new MessageDefinition(pkg, name, fields);
+	}
+
+	/**
+	 * Parse a single non-empty line of a definition.
+	 *
+	 * @param line
+	 *            The trimmed line.
+	 * @return The field or constant.
+	 */
+	private static MessageField parseLine(String line) {
+		int space = line.indexOf(' ');
+		int tab = line.indexOf('\t');
+		if (space < 0 || (tab >= 0 && tab < space)) {
+			space = tab;
+		}
+		if (space < 0) {
+			throw new IllegalArgumentException("Missing field name in \""
+					+ line + "\"");
+		}
+		String type = line.substring(0, space);
+		String rest = line.substring(space + 1).trim();
+
+		// string constants take the rest of the line, comments included
+		int equals = rest.indexOf('=');
+		if (!(type.equals("string") && equals >= 0)) {
+			int comment = rest.indexOf('#');
+			if (comment >= 0) {
+				rest = rest.substring(0, comment).trim();
+			}
+			equals = rest.indexOf('=');
+		}
+		String name = equals < 0 ? rest : rest.substring(0, equals).trim();
+		String value = equals < 0 ? null : rest.substring(equals + 1).trim();
+
+		Matcher m = MessageDefinition.TYPE.matcher(type);
+		if (!m.matches()) {
+			throw new IllegalArgumentException("Invalid type \"" + type + "\"");
+		} else if (!MessageDefinition.NAME.matcher(name).matches()) {
+			throw new IllegalArgumentException("Invalid name \"" + name + "\"");
+		}
+		int arrayLength = m.group(2) == null ? MessageField.NOT_AN_ARRAY : (m
+				.group(2).isEmpty() ? MessageField.VARIABLE_LENGTH : Integer
+				.parseInt(m.group(2)));
+		if (value != null
+				&& (arrayLength != MessageField.NOT_AN_ARRAY || !MessageGenerator
+						.isConstantType(m.group(1)))) {
+			throw new IllegalArgumentException("Invalid constant type \""
+					+ type + "\"");
+		}
+		return new MessageField(m.group(1), arrayLength, name, value);
+	}
+}
@@ -0,0 +1,102 @@
+package edu.wpi.rail.jrosbridge.generator;
+
+/**
+ * A MessageField is a single line of a .msg definition: either a field (e.g.,
+ * "float64[] data") or a constant (e.g., "uint8 ACTIVE=1").
+ *
+ * @version October 18, 2026
+ */
+public class MessageField {
+
+	/**
+	 * The array length of a field that is not an array.
+	 */
+	public static final int NOT_AN_ARRAY = -1;
+
+	/**
+	 * The array length of a variable length array.
+	 */
+	public static final int VARIABLE_LENGTH = 0;
+
+	private final String type;
+	private final int arrayLength;
+	private final String name;
+	private final String value;
+
+	/**
+	 * Create a new field or constant.
+	 *
+	 * @param type
+	 *            The type of the field without any array suffix (e.g.,
+	 *            "float64" or "geometry_msgs/Point").
+	 * @param arrayLength
+	 *            The length of a fixed length array, VARIABLE_LENGTH for a
+	 *            variable length array, or NOT_AN_ARRAY.
+	 * @param name
+	 *            The name of the field.
+	 * @param value
+	 *            The value of a constant as written in the definition, or null
+	 *            for a field.
+	 */
+	public MessageField(String type, int arrayLength, String name, String value) {
+		this.type = type;
+		this.arrayLength = arrayLength;
+		this.name = name;
+		this.value = value;
+	}
+
+	/**
+	 * Get the type of the field without any array suffix.
+	 *
+	 * @return The type of the field.
+	 */
+	public String getType() {
+		return this.type;
+	}
+
+	/**
+	 * Check if the field is an array.
+	 *
+	 * @return If the field is an array.
+	 */
+	public boolean isArray() {
+		return this.arrayLength != MessageField.NOT_AN_ARRAY;
+	}
+
+	/**
+	 * Get the array length of the field.
+	 *
+	 * @return The length of a fixed length array, VARIABLE_LENGTH for a
+	 *         variable length array, or NOT_AN_ARRAY.
+	 */
+	public int getArrayLength() {
+		return this.arrayLength;
+	}
+
+	/**
+	 * Get the name of the field.
+	 *
+	 * @return The name of the field.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Check if this is a constant rather than a field.
+	 *
+	 * @return If this is a constant.
+	 */
+	public boolean isConstant() {
+		return this.value != null;
+	}
+
+	/**
+	 * Get the value of a constant as written in the definition.
+	 *
+	 * @return The value of the constant, or null for a field.
+	 */
+	public String getValue() {
+		return this.value;
+	}
+}
@@ -0,0 +1,1053 @@
+package edu.wpi.rail.jrosbridge.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.TreeSet;
+
+import edu.wpi.rail.jrosbridge.messages.Message;
+
+/**
+ * The MessageGenerator generates message and service classes from .msg and
+ * .srv definitions. A generated class keeps its values in typed fields
+ * (primitive arrays for arrays of primitive types, which are not copied),
+ * writes its JSON with a streaming generator only when it is first needed,
+ * and decodes with a streaming parser (see {@link Message}'s
+ * fromJsonParser(JsonParser) convention). Generated message classes register
+ * their decoder in {@link edu.wpi.rail.jrosbridge.messages.MessageDecoders}
+ * when they are initialized, so they can be used with typed topics.
+ * <p>
+ * Message types of the std_msgs, geometry_msgs and actionlib_msgs packages
+ * that already have a class in this library are used as they are; any other
+ * type "pkg/Name" is expected to be generated in the Java package
+ * "basePackage.pkg". The generator is run from a build before compiling, e.g.,
+ * with the exec-maven-plugin:
+ *
+ * <pre>
+ * java edu.wpi.rail.jrosbridge.generator.MessageGenerator -p com.example.msgs \
+ *     -o target/generated-sources/ros src/main/ros/my_msgs
+ * </pre>
+ *
+ * which generates a class for each my_msgs/msg/*.msg and my_msgs/srv/*.srv.
+ *
+ * @version October 18, 2026
+ */
+public class MessageGenerator {
+
+	/**
+	 * The Java package of the message classes of this library.
+	 */
+	public static final String LIBRARY_PACKAGE = "edu.wpi.rail.jrosbridge.messages";
+
+	// the types of the generated code
+	private static final String TIME = "edu.wpi.rail.jrosbridge.primitives.Time";
+	private static final String DURATION = "edu.wpi.rail.jrosbridge.primitives.Duration";
+	private static final String STRING = "java.lang.String";
+	private static final String JSON_OBJECT = "javax.json.JsonObject";
+	private static final String JSON_GENERATOR = "javax.json.stream.JsonGenerator";
+	private static final String JSON_PARSER = "javax.json.stream.JsonParser";
+	private static final String STRING_READER = "java.io.StringReader";
+	private static final String ARRAY_LIST = "java.util.ArrayList";
+	private static final String JSON_STREAMS = "edu.wpi.rail.jrosbridge.codec.JsonStreams";
+	private static final String PRIMITIVE = "edu.wpi.rail.jrosbridge.primitives.Primitive";
+	private static final String MESSAGE = "edu.wpi.rail.jrosbridge.messages.Message";
+	private static final String MESSAGE_DECODER = "edu.wpi.rail.jrosbridge.messages.MessageDecoder";
+	private static final String MESSAGE_DECODERS = "edu.wpi.rail.jrosbridge.messages.MessageDecoders";
+	private static final String SERVICE_REQUEST = "edu.wpi.rail.jrosbridge.services.ServiceRequest";
+	private static final String SERVICE_RESPONSE = "edu.wpi.rail.jrosbridge.services.ServiceResponse";
+
+	// {Java type, default, read, write, array read, array write}; "{F}" is
+	// the field name constant and "{V}" the value
+	private static final HashMap<String, String[]> PRIMITIVES = new HashMap<String, String[]>();
+
+	static {
+		MessageGenerator.primitive("bool", "boolean", "false",
+				"JsonStreams.readBoolean(parser)", "generator.write({F}, {V})",
+				"JsonStreams.readBooleanArray(parser)",
+				"JsonStreams.writeArray(generator, {F}, {V})");
+		MessageGenerator.primitive("int8", "byte", "(byte) 0",
+				"(byte) JsonStreams.readInt(parser)",
+				"generator.write({F}, {V})",
+				"JsonStreams.readByteArray(parser)",
+				"JsonStreams.writeArray(generator, {F}, {V})");
+		MessageGenerator.primitive("uint8", "byte", "(byte) 0",
+				"(byte) JsonStreams.readInt(parser)",
+				"generator.write({F}, Primitive.fromUInt8({V}))",
+				"JsonStreams.readByteArray(parser)",
+				"JsonStreams.writeBinary(generator, {F}, {V})");
+		MessageGenerator.primitive("int16", "short", "(short) 0",
+				"(short) JsonStreams.readInt(parser)",
+				"generator.write({F}, {V})",
+				"JsonStreams.readShortArray(parser)",
+				"JsonStreams.writeArray(generator, {F}, {V})");
+		MessageGenerator.primitive("uint16", "short", "(short) 0",
+				"(short) JsonStreams.readInt(parser)",
+				"generator.write({F}, Primitive.fromUInt16({V}))",
+				"JsonStreams.readShortArray(parser)",
+				"JsonStreams.writeUnsignedArray(generator, {F}, {V})");
+		MessageGenerator.primitive("int32", "int", "0",
+				"JsonStreams.readInt(parser)", "generator.write({F}, {V})",
+				"JsonStreams.readIntArray(parser)",
+				"JsonStreams.writeArray(generator, {F}, {V})");
+		MessageGenerator.primitive("uint32", "int", "0",
+				"Primitive.toUInt32(JsonStreams.readLong(parser))",
+				"generator.write({F}, Primitive.fromUInt32({V}))",
+				"JsonStreams.readIntArray(parser)",
+				"JsonStreams.writeUnsignedArray(generator, {F}, {V})");
+		MessageGenerator.primitive("int64", "long", "0L",
+				"JsonStreams.readLong(parser)", "generator.write({F}, {V})",
+				"JsonStreams.readLongArray(parser)",
+				"JsonStreams.writeArray(generator, {F}, {V})");
+		MessageGenerator.primitive("uint64", "long", "0L",
+				"JsonStreams.readLong(parser)",
+				"generator.write({F}, Primitive.fromUInt64({V}))",
+				"JsonStreams.readLongArray(parser)",
+				"JsonStreams.writeUnsignedArray(generator, {F}, {V})");
+		MessageGenerator.primitive("float32", "float", "0f",
+				"JsonStreams.readFloat(parser)", "generator.write({F}, {V})",
+				"JsonStreams.readFloatArray(parser)",
+				"JsonStreams.writeArray(generator, {F}, {V})");
+		MessageGenerator.primitive("float64", "double", "0.0",
+				"JsonStreams.readDouble(parser)", "generator.write({F}, {V})",
+				"JsonStreams.readDoubleArray(parser)",
+				"JsonStreams.writeArray(generator, {F}, {V})");
+		MessageGenerator.primitive("string", MessageGenerator.STRING, "\"\"",
+				"JsonStreams.readString(parser)", "generator.write({F}, {V})",
+				"JsonStreams.readStringArray(parser)",
+				"JsonStreams.writeArray(generator, {F}, {V})");
+		// deprecated aliases
+		MessageGenerator.PRIMITIVES.put("byte",
+				MessageGenerator.PRIMITIVES.get("int8"));
+		MessageGenerator.PRIMITIVES.put("char",
+				MessageGenerator.PRIMITIVES.get("uint8"));
+	}
+
+	private static final HashSet<String> KEYWORDS = new HashSet<String>(
+			Arrays.asList("abstract", "assert", "boolean", "break", "byte",
+					"case", "catch", "char", "class", "const", "continue",
+					"default", "do", "double", "else", "enum", "extends",
+					"false", "final", "finally", "float", "for", "goto", "if",
+					"implements", "import", "instanceof", "int", "interface",
+					"long", "native", "new", "null", "package", "private",
+					"protected", "public", "return", "short", "static",
+					"strictfp", "super", "switch", "synchronized", "this",
+					"throw", "throws", "transient", "true", "try", "void",
+					"volatile", "while", "parser", "generator", "field",
+					"list", "jsonString"));
+
+	private final String basePackage;
+	private final ClassLoader loader;
+
+	/**
+	 * Create a new generator that generates classes in the given base
+	 * package. Classes of this library are looked up with the class loader of
+	 * this class.
+	 *
+	 * @param basePackage
+	 *            The Java package the package of each ROS package is created
+	 *            in (e.g., "com.example.msgs").
+	 */
+	public MessageGenerator(String basePackage) {
+		this(basePackage, MessageGenerator.class.getClassLoader());
+	}
+
+	/**
+	 * Create a new generator that generates classes in the given base
+	 * package.
+	 *
+	 * @param basePackage
+	 *            The Java package the package of each ROS package is created
+	 *            in (e.g., "com.example.msgs").
+	 * @param loader
+	 *            The class loader to look up existing message classes with.
+	 */
+	public MessageGenerator(String basePackage, ClassLoader loader) {
+		this.basePackage = basePackage;
+		this.loader = loader;
+	}
+
+	/**
+	 * Get the Java package the package of each ROS package is created in.
+	 *
+	 * @return The base package.
+	 */
+	public String getBasePackage() {
+		return this.basePackage;
+	}
+
+	/**
+	 * Get the Java package of the classes generated for the given ROS
+	 * package.
+	 *
+	 * @param pkg
+	 *            The ROS package (e.g., "my_msgs").
+	 * @return The Java package (e.g., "com.example.msgs.my_msgs").
+	 */
+	public String getJavaPackage(String pkg) {
+		return this.basePackage + "." + pkg.replace('-', '_');
+	}
+
+	/**
+	 * Get the Java class used for the given message type.
+	 *
+	 * @param type
+	 *            The message type, either "pkg/Name", or "Name" for a type of
+	 *            the same package (or "Header").
+	 * @param pkg
+	 *            The ROS package the type is used in.
+	 * @return The fully qualified name of the class.
+	 */
+	public String getJavaClass(String type, String pkg) {
+		if (type.equals("time")) {
+			return MessageGenerator.TIME;
+		} else if (type.equals("duration")) {
+			return MessageGenerator.DURATION;
+		}
+
+		int slash = type.indexOf('/');
+		String typePkg = slash >= 0 ? type.substring(0, slash) : (type
+				.equals("Header") ? "std_msgs" : pkg);
+		String name = type.substring(slash + 1);
+
+		// use the classes of this library if there are any
+		String library = MessageGenerator.LIBRARY_PACKAGE
+				+ "."
+				+ (typePkg.endsWith("_msgs") ? typePkg.substring(0,
+						typePkg.length() - "_msgs".length()) : typePkg) + "."
+				+ name;
+		try {
+			if (Message.class.isAssignableFrom(Class.forName(library, false,
+					this.loader))) {
+				return library;
+			}
+		} catch (ClassNotFoundException e) {
+			// generated
+		}
+		return this.getJavaPackage(typePkg) + "." + name;
+	}
+
+	/**
+	 * Generate the source of the message class of the given definition.
+	 *
+	 * @param definition
+	 *            The message definition.
+	 * @return The Java source of the class.
+	 */
+	public String generateMessage(MessageDefinition definition) {
+		String name = definition.getName();
+		Source src = new Source(this.getJavaPackage(definition.getPackage()),
+				name);
+		src.line("/**");
+		src.line(" * The " + definition.getType() + " message, generated from "
+				+ name + ".msg by the");
+		src.line(" * MessageGenerator.");
+		src.line(" */");
+		src.line("public class " + name + " extends "
+				+ src.ref(MessageGenerator.MESSAGE) + " {");
+		src.line();
+		src.line("\t/**");
+		src.line("\t * The message type.");
+		src.line("\t */");
+		src.line("\tpublic static final " + MessageGenerator.STRING
+				+ " TYPE = \"" + definition.getType() + "\";");
+		src.line();
+		src.line("\t/**");
+		src.line("\t * The decoder of the message, which is registered in");
+		src.line("\t * MessageDecoders.");
+		src.line("\t */");
+		src.line("\tpublic static final " + src.ref(MessageGenerator.MESSAGE_DECODER)
+				+ "<" + name + "> DECODER = new "
+				+ src.ref(MessageGenerator.MESSAGE_DECODER) + "<" + name
+				+ ">() {");
+		src.line("\t\t@Override");
+		src.line("\t\tpublic " + name + " decode("
+				+ src.ref(MessageGenerator.JSON_PARSER) + " parser) {");
+		src.line("\t\t\treturn " + name + ".fromJsonParser(parser);");
+		src.line("\t\t}");
+		src.line("\t};");
+		src.line();
+		src.line("\tstatic {");
+		src.line("\t\t" + src.ref(MessageGenerator.MESSAGE_DECODERS)
+				+ ".register(" + name + ".class, " + name + ".DECODER);");
+		src.line("\t}");
+		this.generateBody(src, "\t", definition, name, name, name + ".TYPE",
+				Kind.MESSAGE);
+		src.line("}");
+		return src.toString();
+	}
+
+	/**
+	 * Generate the source of the service class of the given definition. The
+	 * class has a nested Request and Response class.
+	 *
+	 * @param definition
+	 *            The service definition.
+	 * @return The Java source of the class.
+	 */
+	public String generateService(ServiceDefinition definition) {
+		String name = definition.getName();
+		Source src = new Source(this.getJavaPackage(definition.getPackage()),
+				name, "Request", "Response");
+		src.line("/**");
+		src.line(" * The " + definition.getType() + " service, generated from "
+				+ name + ".srv by the");
+		src.line(" * MessageGenerator.");
+		src.line(" */");
+		src.line("public class " + name + " {");
+		src.line();
+		src.line("\t/**");
+		src.line("\t * The service type.");
+		src.line("\t */");
+		src.line("\tpublic static final " + MessageGenerator.STRING
+				+ " TYPE = \"" + definition.getType() + "\";");
+		src.line();
+		src.line("\t/**");
+		src.line("\t * The service request for the " + name + " service.");
+		src.line("\t */");
+		src.line("\tpublic static class Request extends "
+				+ src.ref(MessageGenerator.SERVICE_REQUEST) + " {");
+		this.generateBody(src, "\t\t", definition.getRequest(), "Request",
+				name + ".Request", name + ".TYPE", Kind.REQUEST);
+		src.line("\t}");
+		src.line();
+		src.line("\t/**");
+		src.line("\t * The service response for the " + name + " service.");
+		src.line("\t */");
+		src.line("\tpublic static class Response extends "
+				+ src.ref(MessageGenerator.SERVICE_RESPONSE) + " {");
+		this.generateBody(src, "\t\t", definition.getResponse(), "Response",
+				name + ".Response", name + ".TYPE", Kind.RESPONSE);
+		src.line("\t}");
+		src.line("}");
+		return src.toString();
+	}
+
+	/**
+	 * Generate a class for each .msg file in the "msg" directory and each
+	 * .srv file in the "srv" directory of the given ROS package directory.
+	 * The name of the directory is the name of the ROS package.
+	 *
+	 * @param packageDir
+	 *            The directory of the ROS package.
+	 * @param outputDir
+	 *            The source directory to write the classes to.
+	 * @return The files written.
+	 * @throws IOException
+	 *             If a file could not be read or written.
+	 * @throws IllegalArgumentException
+	 *             If a definition is not valid.
+	 */
+	public List<File> generate(File packageDir, File outputDir)
+			throws IOException {
+		String pkg = packageDir.getName();
+		File javaDir = new File(outputDir, this.getJavaPackage(pkg).replace(
+				'.', File.separatorChar));
+		List<File> written = new ArrayList<File>();
+		for (String kind : new String[] { "msg", "srv" }) {
+			File[] files = new File(packageDir, kind).listFiles();
+			if (files == null) {
+				continue;
+			}
+			Arrays.sort(files);
+			for (File file : files) {
+				String fileName = file.getName();
+				if (!file.isFile() || !fileName.endsWith("." + kind)) {
+					continue;
+				}
+				String name = fileName.substring(0, fileName.length() - 4);
+				String text = new String(Files.readAllBytes(file.toPath()),
+						StandardCharsets.UTF_8);
+				String source = kind.equals("msg") ? this
+						.generateMessage(MessageDefinition
+								.parse(pkg, name, text)) : this
+						.generateService(ServiceDefinition.parse(pkg, name,
+								text));
+
+				javaDir.mkdirs();
+				File out = new File(javaDir, name + ".java");
+				Files.write(out.toPath(),
+						source.getBytes(StandardCharsets.UTF_8));
+				written.add(out);
+			}
+		}
+		return written;
+	}
+
+	/**
+	 * Generate the classes of the given ROS package directories. The
+	 * arguments are "-p basePackage -o outputDir packageDir...".
+	 *
+	 * @param args
+	 *            The arguments.
+	 * @throws IOException
+	 *             If a file could not be read or written.
+	 */
+	public static void main(String[] args) throws IOException {
+		String basePackage = null;
+		File outputDir = null;
+		List<File> packageDirs = new ArrayList<File>();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-p") && i + 1 < args.length) {
+				basePackage = args[++i];
+			} else if (args[i].equals("-o") && i + 1 < args.length) {
+				outputDir = new File(args[++i]);
+			} else {
+				packageDirs.add(new File(args[i]));
+			}
+		}
+		if (basePackage == null || outputDir == null || packageDirs.isEmpty()) {
+			throw new IllegalArgumentException(
+					"Usage: MessageGenerator -p basePackage -o outputDir packageDir...");
+		}
+
+		MessageGenerator generator = new MessageGenerator(basePackage);
+		for (File packageDir : packageDirs) {
+			List<File> written = generator.generate(packageDir, outputDir);
+			System.out.println("Generated " + written.size()
+					+ " classes for " + packageDir.getName());
+		}
+	}
+
+	/**
+	 * Check if constants can be defined with the given type.
+	 *
+	 * @param type
+	 *            The type.
+	 * @return If constants can be defined with the type.
+	 */
+	static boolean isConstantType(String type) {
+		return MessageGenerator.PRIMITIVES.containsKey(type);
+	}
+
+	/**
+	 * Add a primitive type.
+	 */
+	private static void primitive(String type, String... java) {
+		MessageGenerator.PRIMITIVES.put(type, java);
+	}
+
+	/**
+	 * The kind of class a body is generated for.
+	 */
+	private enum Kind {
+		MESSAGE, REQUEST, RESPONSE
+	}
+
+	/**
+	 * Generate the constants, fields, constructors, getters and conversions
+	 * of a message, request or response class.
+	 *
+	 * @param src
+	 *            The source to write to.
+	 * @param indent
+	 *            The indent of the members.
+	 * @param definition
+	 *            The definition of the fields.
+	 * @param name
+	 *            The simple name of the class.
+	 * @param ref
+	 *            The name to refer to the class with (e.g., "Foo.Request").
+	 * @param type
+	 *            The expression of the type of the class.
+	 * @param kind
+	 *            The kind of class.
+	 */
+	private void generateBody(Source src, String indent,
+			MessageDefinition definition, String name, String ref,
+			String type, Kind kind) {
+		// the names that would hide a member of the superclass
+		HashSet<String> reserved = new HashSet<String>();
+		if (kind == Kind.RESPONSE) {
+			reserved.add("result");
+			reserved.add("serviceResponseType");
+		} else if (kind == Kind.REQUEST) {
+			reserved.add("serviceRequestType");
+		} else {
+			reserved.add("messageType");
+		}
+		List<Field> fields = new ArrayList<Field>();
+		for (MessageField field : definition.getFields()) {
+			fields.add(new Field(field, definition.getPackage(), reserved, src));
+		}
+		String json = src.ref(MessageGenerator.JSON_STREAMS);
+		String what = kind == Kind.MESSAGE ? name : (kind == Kind.REQUEST ? type
+				.substring(0, type.indexOf('.')) + " ServiceRequest" : type
+				.substring(0, type.indexOf('.')) + " ServiceResponse");
+
+		// field names and constants
+		for (Field field : fields) {
+			src.line();
+			src.line(indent + "/**");
+			src.line(indent + " * The name of the " + field.rosName
+					+ " field.");
+			src.line(indent + " */");
+			src.line(indent + "public static final " + MessageGenerator.STRING
+					+ " " + field.constant + " = \"" + field.rosName + "\";");
+		}
+		for (MessageField constant : definition.getConstants()) {
+			String[] primitive = MessageGenerator.PRIMITIVES.get(constant
+					.getType());
+			src.line();
+			src.line(indent + "/**");
+			src.line(indent + " * The " + constant.getName() + " constant.");
+			src.line(indent + " */");
+			src.line(indent + "public static final " + primitive[0] + " "
+					+ constant.getName() + " = "
+					+ MessageGenerator.literal(constant) + ";");
+		}
+
+		// fields
+		if (!fields.isEmpty()) {
+			src.line();
+		}
+		for (Field field : fields) {
+			src.line(indent + "private final " + field.javaType + " "
+					+ field.javaName + ";");
+		}
+
+		// constructors
+		StringBuilder defaults = new StringBuilder();
+		StringBuilder params = new StringBuilder();
+		StringBuilder args = new StringBuilder();
+		for (Field field : fields) {
+			String sep = defaults.length() == 0 ? "" : ", ";
+			defaults.append(sep).append(field.defaultValue);
+			params.append(sep).append(field.javaType).append(" ")
+					.append(field.javaName);
+			args.append(sep).append(field.javaName);
+		}
+		String result = fields.isEmpty() ? "" : ", ";
+		String superCall = "super((" + src.ref(MessageGenerator.JSON_OBJECT)
+				+ ") null, " + type + (kind == Kind.RESPONSE ? ", result" : "")
+				+ ");";
+
+		src.line();
+		src.line(indent + "/**");
+		src.line(indent + " * Create a new " + what + " with all empty values.");
+		src.line(indent + " */");
+		if (kind == Kind.RESPONSE) {
+			src.line(indent + "public " + name + "() {");
+			src.line(indent + "\tthis(" + defaults + result + "true);");
+			src.line(indent + "}");
+			if (!fields.isEmpty()) {
+				this.generateConstructor(src, indent, what, name, fields,
+						params.toString(), "this(" + args + ", true);", false);
+			}
+			this.generateConstructor(src, indent, what, name, fields,
+					params + result + "boolean result", superCall, true);
+		} else if (fields.isEmpty()) {
+			src.line(indent + "public " + name + "() {");
+			src.line(indent + "\t// the JSON is written when it is first needed");
+			src.line(indent + "\t" + superCall);
+			src.line(indent + "}");
+		} else {
+			src.line(indent + "public " + name + "() {");
+			src.line(indent + "\tthis(" + defaults + ");");
+			src.line(indent + "}");
+			this.generateConstructor(src, indent, what, name, fields,
+					params.toString(), superCall, false);
+		}
+
+		// getters
+		for (Field field : fields) {
+			src.line();
+			src.line(indent + "/**");
+			src.line(indent + " * Get the " + field.rosName + " value of this "
+					+ what + ".");
+			src.line(indent + " *");
+			src.line(indent + " * @return The " + field.rosName
+					+ " value of this " + what + ".");
+			src.line(indent + " */");
+			src.line(indent + "public " + field.javaType + " "
+					+ field.getter + "() {");
+			src.line(indent + "\treturn this." + field.javaName + ";");
+			src.line(indent + "}");
+		}
+
+		// writing
+		src.line();
+		src.line(indent + "/**");
+		src.line(indent + " * Write the fields of this " + what
+				+ " to the given generator.");
+		src.line(indent + " *");
+		src.line(indent + " * @param generator");
+		src.line(indent + " *            The generator, inside an object.");
+		src.line(indent + " */");
+		src.line(indent + "@Override");
+		src.line(indent + "public void writeJsonFields("
+				+ src.ref(MessageGenerator.JSON_GENERATOR) + " generator) {");
+		for (Field field : fields) {
+			src.line(indent + "\t"
+					+ field.write.replace("{F}", ref + "." + field.constant)
+							.replace("{V}", "this." + field.javaName) + ";");
+		}
+		src.line(indent + "}");
+
+		// clone
+		StringBuilder clones = new StringBuilder();
+		for (Field field : fields) {
+			clones.append(clones.length() == 0 ? "" : ", ").append("this.")
+					.append(field.javaName);
+			if (field.array || field.time) {
+				// arrays and time primitives are mutable
+				clones.append(".clone()");
+			}
+		}
+		if (kind == Kind.RESPONSE) {
+			clones.append(result).append("this.getResult()");
+		}
+		src.line();
+		src.line(indent + "/**");
+		src.line(indent + " * Create a clone of this " + what + ".");
+		src.line(indent + " */");
+		src.line(indent + "@Override");
+		src.line(indent + "public " + ref + " clone() {");
+		src.line(indent + "\treturn new " + ref + "(" + clones + ");");
+		src.line(indent + "}");
+
+		// conversions
+		String reader = src.ref(MessageGenerator.STRING_READER);
+		String parserType = src.ref(MessageGenerator.JSON_PARSER);
+		src.line();
+		src.line(indent + "/**");
+		src.line(indent + " * Create a new " + what
+				+ " based on the given JSON string. Any missing");
+		src.line(indent + " * values will be set to their defaults.");
+		src.line(indent + " *");
+		src.line(indent + " * @param jsonString");
+		src.line(indent + " *            The JSON string to parse.");
+		src.line(indent + " * @return A " + what
+				+ " based on the given JSON string.");
+		src.line(indent + " */");
+		src.line(indent + "public static " + ref + " fromJsonString("
+				+ MessageGenerator.STRING + " jsonString) {");
+		this.generateParse(src, indent, ref, json, reader, parserType,
+				"jsonString", kind == Kind.RESPONSE ? ", true" : "");
+		src.line(indent + "}");
+
+		String from = kind == Kind.MESSAGE ? "Message"
+				: (kind == Kind.REQUEST ? "ServiceRequest" : "ServiceResponse");
+		String fromClass = kind == Kind.MESSAGE ? MessageGenerator.MESSAGE
+				: (kind == Kind.REQUEST ? MessageGenerator.SERVICE_REQUEST
+						: MessageGenerator.SERVICE_RESPONSE);
+		src.line();
+		src.line(indent + "/**");
+		src.line(indent + " * Create a new " + what + " based on the given "
+				+ from + ". Any");
+		src.line(indent + " * missing values will be set to their defaults.");
+		src.line(indent + " *");
+		src.line(indent + " * @param m");
+		src.line(indent + " *            The " + from + " to parse.");
+		src.line(indent + " * @return A " + what + " based on the given "
+				+ from + ".");
+		src.line(indent + " */");
+		src.line(indent + "public static " + ref + " from" + from + "("
+				+ src.ref(fromClass) + " m) {");
+		this.generateParse(src, indent, ref, json, reader, parserType,
+				"m.toString()", kind == Kind.RESPONSE ? ", m.getResult()" : "");
+		src.line(indent + "}");
+
+		if (kind == Kind.RESPONSE) {
+			src.line();
+			src.line(indent + "/**");
+			src.line(indent + " * Create a new successful " + what
+					+ " based on the given streaming JSON");
+			src.line(indent + " * parser. Any missing values will be set to their defaults.");
+			src.line(indent + " *");
+			src.line(indent + " * @param parser");
+			src.line(indent + " *            The parser, after the START_OBJECT event of the");
+			src.line(indent + " *            response. It is left after its END_OBJECT event.");
+			src.line(indent + " * @return A " + what + " based on the parsed JSON.");
+			src.line(indent + " */");
+			src.line(indent + "public static " + ref + " fromJsonParser("
+					+ parserType + " parser) {");
+			src.line(indent + "\treturn " + ref + ".fromJsonParser(parser, true);");
+			src.line(indent + "}");
+		}
+
+		src.line();
+		src.line(indent + "/**");
+		src.line(indent + " * Create a new " + what
+				+ " based on the given streaming JSON parser.");
+		src.line(indent + " * Any missing values will be set to their defaults.");
+		src.line(indent + " *");
+		src.line(indent + " * @param parser");
+		src.line(indent + " *            The parser, after the START_OBJECT event of the");
+		src.line(indent + " *            " + (kind == Kind.MESSAGE ? "message" : kind
+				.name().toLowerCase()) + ". It is left after its END_OBJECT event.");
+		if (kind == Kind.RESPONSE) {
+			src.line(indent + " * @param result");
+			src.line(indent + " *            If the service call was successful.");
+		}
+		src.line(indent + " * @return A " + what + " based on the parsed JSON.");
+		src.line(indent + " */");
+		src.line(indent + "public static " + ref + " fromJsonParser("
+				+ parserType + " parser"
+				+ (kind == Kind.RESPONSE ? ", boolean result" : "") + ") {");
+		for (Field field : fields) {
+			src.line(indent + "\t" + field.javaType + " " + field.javaName
+					+ " = " + (field.message ? "null" : field.defaultValue)
+					+ ";");
+		}
+		if (!fields.isEmpty()) {
+			src.line();
+			src.line(indent + "\t// read each field");
+		}
+		src.line(indent + "\t" + MessageGenerator.STRING + " field;");
+		src.line(indent + "\twhile ((field = " + json
+				+ ".nextField(parser)) != null) {");
+		String keyword = "if";
+		for (Field field : fields) {
+			src.line(indent + "\t\t" + keyword + " (field.equals(" + ref + "."
+					+ field.constant + ")) {");
+			keyword = "} else if";
+			if (!field.message) {
+				src.line(indent + "\t\t\t" + field.javaName + " = "
+						+ field.read + ";");
+			} else if (!field.array) {
+				src.line(indent + "\t\t\t" + json + ".beginObject(parser);");
+				src.line(indent + "\t\t\t" + field.javaName + " = "
+						+ field.elementType + ".fromJsonParser(parser);");
+			} else {
+				String list = src.ref(MessageGenerator.ARRAY_LIST) + "<"
+						+ field.elementType + ">";
+				src.line(indent + "\t\t\t" + list + " list = new " + list
+						+ "();");
+				src.line(indent + "\t\t\t" + json + ".beginArray(parser);");
+				src.line(indent + "\t\t\twhile (" + json
+						+ ".nextElement(parser)) {");
+				src.line(indent + "\t\t\t\tlist.add(" + field.elementType
+						+ ".fromJsonParser(parser));");
+				src.line(indent + "\t\t\t}");
+				src.line(indent + "\t\t\t" + field.javaName
+						+ " = list.toArray(new " + field.elementType
+						+ "[list.size()]);");
+			}
+		}
+		if (fields.isEmpty()) {
+			src.line(indent + "\t\t" + json + ".skipValue(parser);");
+		} else {
+			src.line(indent + "\t\t} else {");
+			src.line(indent + "\t\t\t" + json + ".skipValue(parser);");
+			src.line(indent + "\t\t}");
+		}
+		src.line(indent + "\t}");
+		boolean first = true;
+		for (Field field : fields) {
+			if (field.message) {
+				if (first) {
+					src.line();
+					src.line(indent + "\t// use defaults for missing messages");
+					first = false;
+				}
+				src.line(indent + "\tif (" + field.javaName + " == null) {");
+				src.line(indent + "\t\t" + field.javaName + " = "
+						+ field.defaultValue + ";");
+				src.line(indent + "\t}");
+			}
+		}
+		src.line(indent + "\treturn new " + ref + "(" + args
+				+ (kind == Kind.RESPONSE ? result + "result" : "") + ");");
+		src.line(indent + "}");
+	}
+
+	/**
+	 * Generate a constructor with the given parameters.
+	 */
+	private void generateConstructor(Source src, String indent, String what,
+			String name, List<Field> fields, String params, String call,
+			boolean withResult) {
+		src.line();
+		src.line(indent + "/**");
+		src.line(indent + " * Create a new " + what
+				+ " with the given values. Arrays are not copied.");
+		src.line(indent + " *");
+		for (Field field : fields) {
+			src.line(indent + " * @param " + field.javaName);
+			src.line(indent + " *            The " + field.rosName + " value"
+					+ (field.length > 0 ? " (of length " + field.length + ")"
+							: "") + ".");
+		}
+		if (withResult) {
+			src.line(indent + " * @param result");
+			src.line(indent + " *            If the service call was successful.");
+		}
+		src.line(indent + " */");
+		src.line(indent + "public " + name + "(" + params + ") {");
+		if (call.startsWith("super")) {
+			src.line(indent + "\t// the JSON is written when it is first needed");
+		}
+		src.line(indent + "\t" + call);
+		if (call.startsWith("super")) {
+			for (Field field : fields) {
+				src.line(indent + "\tthis." + field.javaName + " = "
+						+ field.javaName + ";");
+			}
+		}
+		src.line(indent + "}");
+	}
+
+	/**
+	 * Generate the statements that parse a JSON string.
+	 */
+	private void generateParse(Source src, String indent, String ref,
+			String json, String reader, String parserType, String text,
+			String extra) {
+		src.line(indent + "\ttry (" + parserType + " parser = " + json
+				+ ".createParser(new " + reader + "(" + text + "))) {");
+		src.line(indent + "\t\t" + json + ".beginObject(parser);");
+		src.line(indent + "\t\treturn " + ref + ".fromJsonParser(parser"
+				+ extra + ");");
+		src.line(indent + "\t}");
+	}
+
+	/**
+	 * Get the Java literal of the value of the given constant.
+	 *
+	 * @param constant
+	 *            The constant.
+	 * @return The literal.
+	 * @throws IllegalArgumentException
+	 *             If the value is not valid for the type.
+	 */
+	static String literal(MessageField constant) {
+		String javaType = MessageGenerator.PRIMITIVES.get(constant.getType())[0];
+		String value = constant.getValue();
+		if (javaType.equals("boolean")) {
+			return Boolean.toString(value.equalsIgnoreCase("true")
+					|| value.equals("1"));
+		} else if (javaType.equals(MessageGenerator.STRING)) {
+			StringBuilder literal = new StringBuilder("\"");
+			for (char c : value.toCharArray()) {
+				if (c == '"' || c == '\\') {
+					literal.append('\\').append(c);
+				} else if (c < ' ' || c > '~') {
+					literal.append(String.format("\\u%04x", (int) c));
+				} else {
+					literal.append(c);
+				}
+			}
+			return literal.append('"').toString();
+		} else if (javaType.equals("float") || javaType.equals("double")) {
+			double d = Double.parseDouble(value);
+			String suffix = javaType.equals("float") ? "f" : "";
+			if (Double.isNaN(d) || Double.isInfinite(d)) {
+				String boxed = javaType.equals("float") ? "Float" : "Double";
+				return boxed + (Double.isNaN(d) ? ".NaN" : (d > 0
+						? ".POSITIVE_INFINITY" : ".NEGATIVE_INFINITY"));
+			}
+			return (javaType.equals("float") ? Float.toString((float) d)
+					: Double.toString(d)) + suffix;
+		}
+
+		BigInteger i = new BigInteger(value);
+		if (javaType.equals("byte") || javaType.equals("short")) {
+			return "(" + javaType + ") " + i.intValue();
+		} else if (javaType.equals("int")) {
+			return i.bitLength() < Integer.SIZE ? i.toString() : "(int) "
+					+ i.longValue() + "L";
+		} else if (i.bitLength() < Long.SIZE) {
+			return i + "L";
+		}
+		// unsigned 64-bit values above the signed range
+		return "0x" + Long.toHexString(i.longValue()) + "L";
+	}
+
+	/**
+	 * Convert a ROS field name (e.g., "frame_id") to a Java name (e.g.,
+	 * "frameId").
+	 */
+	private static String camelCase(String name) {
+		StringBuilder java = new StringBuilder();
+		boolean upper = false;
+		for (char c : name.toCharArray()) {
+			if (c == '_' && java.length() > 0) {
+				upper = true;
+			} else {
+				java.append(upper ? Character.toUpperCase(c) : c);
+				upper = false;
+			}
+		}
+		return java.toString();
+	}
+
+	/**
+	 * A field of a generated class.
+	 */
+	private class Field {
+
+		private final String rosName;
+		private final String javaName;
+		private final String getter;
+		private final String constant;
+		private final String elementType;
+		private final String javaType;
+		private final String defaultValue;
+		private final String read;
+		private final String write;
+		private final boolean array;
+		private final int length;
+		private final boolean message;
+		private final boolean time;
+
+		/**
+		 * Resolve the Java type and conversions of the given field.
+		 */
+		private Field(MessageField field, String pkg,
+				HashSet<String> reserved, Source src) {
+			this.rosName = field.getName();
+			String javaName = MessageGenerator.camelCase(this.rosName);
+			if (MessageGenerator.KEYWORDS.contains(javaName)
+					|| reserved.contains(javaName)) {
+				javaName += "_";
+			}
+			this.javaName = javaName;
+			this.getter = "get" + Character.toUpperCase(javaName.charAt(0))
+					+ javaName.substring(1);
+			this.constant = "FIELD_" + this.rosName.toUpperCase();
+			this.array = field.isArray();
+			this.length = field.getArrayLength();
+
+			String[] primitive = MessageGenerator.PRIMITIVES.get(field
+					.getType());
+			this.message = primitive == null;
+			if (!this.message) {
+				this.elementType = primitive[0];
+				this.read = src.refs(this.array ? primitive[4] : primitive[2]);
+				this.write = src.refs(this.array ? primitive[5] : primitive[3]);
+				if (!this.array) {
+					this.defaultValue = primitive[1];
+				} else if (this.length > 0) {
+					this.defaultValue = "new " + this.elementType + "["
+							+ this.length + "]";
+				} else {
+					this.defaultValue = "new " + this.elementType + "[] {}";
+				}
+			} else {
+				this.elementType = MessageGenerator.this.getJavaClass(
+						field.getType(), pkg);
+				this.read = null;
+				this.write = src.ref(MessageGenerator.JSON_STREAMS)
+						+ (this.array ? ".writeArray" : ".writeObject")
+						+ "(generator, {F}, {V})";
+				if (!this.array) {
+					this.defaultValue = "new " + this.elementType + "()";
+				} else {
+					StringBuilder values = new StringBuilder();
+					for (int i = 0; i < this.length; i++) {
+						values.append(i == 0 ? " " : ", ").append("new ")
+								.append(this.elementType).append("()");
+					}
+					this.defaultValue = "new " + this.elementType + "[] {"
+							+ values + (this.length > 0 ? " }" : "}");
+				}
+			}
+			this.javaType = this.elementType + (this.array ? "[]" : "");
+			this.time = this.elementType.equals(MessageGenerator.TIME)
+					|| this.elementType.equals(MessageGenerator.DURATION);
+		}
+	}
+
+	/**
+	 * The source of a generated class, which collects the imports it needs.
+	 */
+	private static class Source {
+
+		private final String pkg;
+		private final HashSet<String> declared;
+		private final TreeSet<String> imports;
+		private final StringBuilder body;
+
+		/**
+		 * Create the source of a class in the given package that declares the
+		 * given class names.
+		 */
+		private Source(String pkg, String... declared) {
+			this.pkg = pkg;
+			this.declared = new HashSet<String>(Arrays.asList(declared));
+			// java, then javax, then any other imports
+			this.imports = new TreeSet<String>(new Comparator<String>() {
+				@Override
+				public int compare(String a, String b) {
+					int group = Source.group(a) - Source.group(b);
+					return group != 0 ? group : a.compareTo(b);
+				}
+			});
+			this.body = new StringBuilder();
+		}
+
+		/**
+		 * Get the name to refer to the given class with, importing it unless
+		 * its simple name is declared by the class itself.
+		 */
+		private String ref(String qualified) {
+			String simple = qualified.substring(qualified.lastIndexOf('.') + 1);
+			if (this.declared.contains(simple)) {
+				return qualified;
+			}
+			this.imports.add(qualified);
+			return simple;
+		}
+
+		/**
+		 * Resolve the classes used by a conversion template.
+		 */
+		private String refs(String template) {
+			String resolved = template.replace("JsonStreams.",
+					this.ref(MessageGenerator.JSON_STREAMS) + ".");
+			if (resolved.contains("Primitive.")) {
+				resolved = resolved.replace("Primitive.",
+						this.ref(MessageGenerator.PRIMITIVE) + ".");
+			}
+			return resolved;
+		}
+
+		/**
+		 * Get the import group of the given class.
+		 */
+		private static int group(String qualified) {
+			return qualified.startsWith("java.") ? 0 : (qualified
+					.startsWith("javax.") ? 1 : 2);
+		}
+
+		/**
+		 * Add a line.
+		 */
+		private void line(String line) {
+			this.body.append(line).append('\n');
+		}
+
+		/**
+		 * Add an empty line.
+		 */
+		private void line() {
+			this.body.append('\n');
+		}
+
+		/**
+		 * Get the complete source.
+		 */
+		@Override
+		public String toString() {
+			StringBuilder src = new StringBuilder();
+			src.append("package ").append(this.pkg).append(";\n");
+			int group = -1;
+			for (String imported : this.imports) {
+				if (Source.group(imported) != group) {
+					src.append('\n');
+					group = Source.group(imported);
+				}
+				src.append("import ").append(imported).append(";\n");
+			}
+			return src.append('\n').append(this.body).toString();
+		}
+	}
+}
@@ -0,0 +1,112 @@
+package edu.wpi.rail.jrosbridge.generator;
+
+/**
+ * A ServiceDefinition is the parsed contents of a .srv file: the definitions
+ * of its request and its response, which are separated by a "---" line.
+ *
+ * @version October 18, 2026
+ */
+public class ServiceDefinition {
+
+	private final String pkg;
+	private final String name;
+	private final MessageDefinition request;
+	private final MessageDefinition response;
+
+	/**
+	 * Create a new service definition.
+	 *
+	 * @param pkg
+	 *            The ROS package of the service (e.g., "std_srvs").
+	 * @param name
+	 *            The name of the service (e.g., "SetBool").
+	 * @param request
+	 *            The definition of the request.
+	 * @param response
+	 *            The definition of the response.
+	 */
+	public ServiceDefinition(String pkg, String name,
+			MessageDefinition request, MessageDefinition response) {
+		this.pkg = pkg;
+		this.name = name;
+		this.request = request;
+		this.response = response;
+	}
+
+	/**
+	 * Get the ROS package of the service.
+	 *
+	 * @return The ROS package of the service.
+	 */
+	public String getPackage() {
+		return this.pkg;
+	}
+
+	/**
+	 * Get the name of the service.
+	 *
+	 * @return The name of the service.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Get the full service type (e.g., "std_srvs/SetBool").
+	 *
+	 * @return The full service type.
+	 */
+	public String getType() {
+		return this.pkg + "/" + this.name;
+	}
+
+	/**
+	 * Get the definition of the request.
+	 *
+	 * @return The definition of the request.
+	 */
+	public MessageDefinition getRequest() {
+		return this.request;
+	}
+
+	/**
+	 * Get the definition of the response.
+	 *
+	 * @return The definition of the response.
+	 */
+	public MessageDefinition getResponse() {
+		return this.response;
+	}
+
+	/**
+	 * Parse the given .srv definition.
+	 *
+	 * @param pkg
+	 *            The ROS package of the service (e.g., "std_srvs").
+	 * @param name
+	 *            The name of the service (e.g., "SetBool").
+	 * @param definition
+	 *            The contents of the .srv file.
+	 * @return The parsed definition.
+	 * @throws IllegalArgumentException
+	 *             If the definition is not valid.
+	 */
+	public static ServiceDefinition parse(String pkg, String name,
+			String definition) {
+		String[] lines = definition.split("\r?\n");
+		int separator = -1;
+		for (int i = 0; i < lines.length && separator < 0; i++) {
+			if (lines[i].trim().equals("---")) {
+				separator = i;
+			}
+		}
+		if (separator < 0) {
+			throw new IllegalArgumentException(pkg + "/" + name
+					+ ": Missing \"---\" between request and response");
+		}
+		return new ServiceDefinition(pkg, name, MessageDefinition.parse(pkg,
+				name + "Request", lines, 0, separator),
+				MessageDefinition.parse(pkg, name + "Response", lines,
+						separator + 1, lines.length));
+	}
+}
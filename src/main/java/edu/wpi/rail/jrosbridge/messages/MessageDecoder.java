@@ -0,0 +1,26 @@
+package edu.wpi.rail.jrosbridge.messages;
+
+import javax.json.stream.JsonParser;
+
+/**
+ * A MessageDecoder creates a typed message straight from the events of a
+ * streaming JSON parser. Decoders for user message types can be registered
+ * with {@link MessageDecoders#register}.
+ *
+ * @param <T>
+ *            The type of message decoded.
+ * @version October 18, 2026
+ */
+public interface MessageDecoder<T extends Message> {
+
+	/**
+	 * Decode a message from the given parser. Fields the message does not know
+	 * must be skipped, and missing fields set to their defaults.
+	 *
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            must be left after the END_OBJECT event of the message.
+	 * @return The decoded message.
+	 */
+	public T decode(JsonParser parser);
+}
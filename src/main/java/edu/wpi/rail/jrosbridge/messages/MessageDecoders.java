@@ -0,0 +1,748 @@
+package edu.wpi.rail.jrosbridge.messages;
+
+import java.io.StringReader;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.json.stream.JsonParser;
+
+import edu.wpi.rail.jrosbridge.JRosbridge;
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.actionlib.GoalID;
+import edu.wpi.rail.jrosbridge.messages.actionlib.GoalStatus;
+import edu.wpi.rail.jrosbridge.messages.actionlib.GoalStatusArray;
+import edu.wpi.rail.jrosbridge.messages.geometry.Point;
+import edu.wpi.rail.jrosbridge.messages.geometry.Point32;
+import edu.wpi.rail.jrosbridge.messages.geometry.PointStamped;
+import edu.wpi.rail.jrosbridge.messages.geometry.Polygon;
+import edu.wpi.rail.jrosbridge.messages.geometry.PolygonStamped;
+import edu.wpi.rail.jrosbridge.messages.geometry.Pose;
+import edu.wpi.rail.jrosbridge.messages.geometry.Pose2D;
+import edu.wpi.rail.jrosbridge.messages.geometry.PoseArray;
+import edu.wpi.rail.jrosbridge.messages.geometry.PoseStamped;
+import edu.wpi.rail.jrosbridge.messages.geometry.PoseWithCovariance;
+import edu.wpi.rail.jrosbridge.messages.geometry.PoseWithCovarianceStamped;
+import edu.wpi.rail.jrosbridge.messages.geometry.Quaternion;
+import edu.wpi.rail.jrosbridge.messages.geometry.QuaternionStamped;
+import edu.wpi.rail.jrosbridge.messages.geometry.Transform;
+import edu.wpi.rail.jrosbridge.messages.geometry.TransformStamped;
+import edu.wpi.rail.jrosbridge.messages.geometry.Twist;
+import edu.wpi.rail.jrosbridge.messages.geometry.TwistStamped;
+import edu.wpi.rail.jrosbridge.messages.geometry.TwistWithCovariance;
+import edu.wpi.rail.jrosbridge.messages.geometry.TwistWithCovarianceStamped;
+import edu.wpi.rail.jrosbridge.messages.geometry.Vector3;
+import edu.wpi.rail.jrosbridge.messages.geometry.Vector3Stamped;
+import edu.wpi.rail.jrosbridge.messages.geometry.Wrench;
+import edu.wpi.rail.jrosbridge.messages.geometry.WrenchStamped;
+import edu.wpi.rail.jrosbridge.messages.map.OccupancyGridUpdate;
+import edu.wpi.rail.jrosbridge.messages.nav.MapMetaData;
+import edu.wpi.rail.jrosbridge.messages.nav.OccupancyGrid;
+import edu.wpi.rail.jrosbridge.messages.sensor.CompressedImage;
+import edu.wpi.rail.jrosbridge.messages.sensor.Image;
+import edu.wpi.rail.jrosbridge.messages.sensor.LaserScan;
+import edu.wpi.rail.jrosbridge.messages.sensor.PointCloud2;
+import edu.wpi.rail.jrosbridge.messages.sensor.PointField;
+import edu.wpi.rail.jrosbridge.messages.std.Bool;
+import edu.wpi.rail.jrosbridge.messages.std.ByteMultiArray;
+import edu.wpi.rail.jrosbridge.messages.std.Char;
+import edu.wpi.rail.jrosbridge.messages.std.ColorRGBA;
+import edu.wpi.rail.jrosbridge.messages.std.Duration;
+import edu.wpi.rail.jrosbridge.messages.std.Empty;
+import edu.wpi.rail.jrosbridge.messages.std.Float32;
+import edu.wpi.rail.jrosbridge.messages.std.Float32MultiArray;
+import edu.wpi.rail.jrosbridge.messages.std.Float64;
+import edu.wpi.rail.jrosbridge.messages.std.Float64MultiArray;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.messages.std.Int16;
+import edu.wpi.rail.jrosbridge.messages.std.Int16MultiArray;
+import edu.wpi.rail.jrosbridge.messages.std.Int32;
+import edu.wpi.rail.jrosbridge.messages.std.Int32MultiArray;
+import edu.wpi.rail.jrosbridge.messages.std.Int64;
+import edu.wpi.rail.jrosbridge.messages.std.Int64MultiArray;
+import edu.wpi.rail.jrosbridge.messages.std.Int8;
+import edu.wpi.rail.jrosbridge.messages.std.Int8MultiArray;
+import edu.wpi.rail.jrosbridge.messages.std.MultiArrayDimension;
+import edu.wpi.rail.jrosbridge.messages.std.MultiArrayLayout;
+import edu.wpi.rail.jrosbridge.messages.std.Time;
+import edu.wpi.rail.jrosbridge.messages.std.UInt16;
+import edu.wpi.rail.jrosbridge.messages.std.UInt16MultiArray;
+import edu.wpi.rail.jrosbridge.messages.std.UInt32;
+import edu.wpi.rail.jrosbridge.messages.std.UInt32MultiArray;
+import edu.wpi.rail.jrosbridge.messages.std.UInt64;
+import edu.wpi.rail.jrosbridge.messages.std.UInt64MultiArray;
+import edu.wpi.rail.jrosbridge.messages.std.UInt8;
+import edu.wpi.rail.jrosbridge.messages.std.UInt8MultiArray;
+
+/**
+ * The MessageDecoders registry holds the streaming decoders used to create
+ * typed messages straight from JSON text, without building a JSON object and
+ * then copying it into the message. Decoders for every message in the std,
+ * geometry, actionlib, sensor, nav, and map packages are registered by
+ * default, and the plain {@link Message} class is decoded through a JSON
+ * object. Decoders for user message types can be added with
+ * {@link #register}.
+ *
+ * @version October 18, 2026
+ */
+public final class MessageDecoders {
+
+	private static final ConcurrentHashMap<Class<?>, MessageDecoder<?>> DECODERS =
+			new ConcurrentHashMap<Class<?>, MessageDecoder<?>>();
+
+	static {
+		MessageDecoders.register(Message.class, new MessageDecoder<Message>() {
+			@Override
+			public Message decode(JsonParser parser) {
+				return new Message(JsonStreams.readObject(parser));
+			}
+		});
+		MessageDecoders.register(GoalID.class,
+				new MessageDecoder<GoalID>() {
+					@Override
+					public GoalID decode(JsonParser parser) {
+						return GoalID.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(GoalStatus.class,
+				new MessageDecoder<GoalStatus>() {
+					@Override
+					public GoalStatus decode(JsonParser parser) {
+						return GoalStatus.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(GoalStatusArray.class,
+				new MessageDecoder<GoalStatusArray>() {
+					@Override
+					public GoalStatusArray decode(JsonParser parser) {
+						return GoalStatusArray.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Point.class,
+				new MessageDecoder<Point>() {
+					@Override
+					public Point decode(JsonParser parser) {
+						return Point.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Point32.class,
+				new MessageDecoder<Point32>() {
+					@Override
+					public Point32 decode(JsonParser parser) {
+						return Point32.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(PointStamped.class,
+				new MessageDecoder<PointStamped>() {
+					@Override
+					public PointStamped decode(JsonParser parser) {
+						return PointStamped.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Polygon.class,
+				new MessageDecoder<Polygon>() {
+					@Override
+					public Polygon decode(JsonParser parser) {
+						return Polygon.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(PolygonStamped.class,
+				new MessageDecoder<PolygonStamped>() {
+					@Override
+					public PolygonStamped decode(JsonParser parser) {
+						return PolygonStamped.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Pose.class,
+				new MessageDecoder<Pose>() {
+					@Override
+					public Pose decode(JsonParser parser) {
+						return Pose.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Pose2D.class,
+				new MessageDecoder<Pose2D>() {
+					@Override
+					public Pose2D decode(JsonParser parser) {
+						return Pose2D.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(PoseArray.class,
+				new MessageDecoder<PoseArray>() {
+					@Override
+					public PoseArray decode(JsonParser parser) {
+						return PoseArray.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(PoseStamped.class,
+				new MessageDecoder<PoseStamped>() {
+					@Override
+					public PoseStamped decode(JsonParser parser) {
+						return PoseStamped.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(PoseWithCovariance.class,
+				new MessageDecoder<PoseWithCovariance>() {
+					@Override
+					public PoseWithCovariance decode(JsonParser parser) {
+						return PoseWithCovariance.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(PoseWithCovarianceStamped.class,
+				new MessageDecoder<PoseWithCovarianceStamped>() {
+					@Override
+					public PoseWithCovarianceStamped decode(JsonParser parser) {
+						return PoseWithCovarianceStamped.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Quaternion.class,
+				new MessageDecoder<Quaternion>() {
+					@Override
+					public Quaternion decode(JsonParser parser) {
+						return Quaternion.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(QuaternionStamped.class,
+				new MessageDecoder<QuaternionStamped>() {
+					@Override
+					public QuaternionStamped decode(JsonParser parser) {
+						return QuaternionStamped.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Transform.class,
+				new MessageDecoder<Transform>() {
+					@Override
+					public Transform decode(JsonParser parser) {
+						return Transform.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(TransformStamped.class,
+				new MessageDecoder<TransformStamped>() {
+					@Override
+					public TransformStamped decode(JsonParser parser) {
+						return TransformStamped.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Twist.class,
+				new MessageDecoder<Twist>() {
+					@Override
+					public Twist decode(JsonParser parser) {
+						return Twist.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(TwistStamped.class,
+				new MessageDecoder<TwistStamped>() {
+					@Override
+					public TwistStamped decode(JsonParser parser) {
+						return TwistStamped.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(TwistWithCovariance.class,
+				new MessageDecoder<TwistWithCovariance>() {
+					@Override
+					public TwistWithCovariance decode(JsonParser parser) {
+						return TwistWithCovariance.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(TwistWithCovarianceStamped.class,
+				new MessageDecoder<TwistWithCovarianceStamped>() {
+					@Override
+					public TwistWithCovarianceStamped decode(
+							JsonParser parser) {
+						return TwistWithCovarianceStamped
+								.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Vector3.class,
+				new MessageDecoder<Vector3>() {
+					@Override
+					public Vector3 decode(JsonParser parser) {
+						return Vector3.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Vector3Stamped.class,
+				new MessageDecoder<Vector3Stamped>() {
+					@Override
+					public Vector3Stamped decode(JsonParser parser) {
+						return Vector3Stamped.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Wrench.class,
+				new MessageDecoder<Wrench>() {
+					@Override
+					public Wrench decode(JsonParser parser) {
+						return Wrench.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(WrenchStamped.class,
+				new MessageDecoder<WrenchStamped>() {
+					@Override
+					public WrenchStamped decode(JsonParser parser) {
+						return WrenchStamped.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Bool.class,
+				new MessageDecoder<Bool>() {
+					@Override
+					public Bool decode(JsonParser parser) {
+						return Bool.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(
+				edu.wpi.rail.jrosbridge.messages.std.Byte.class,
+				new MessageDecoder<edu.wpi.rail.jrosbridge.messages.std.Byte>() {
+					@Override
+					public edu.wpi.rail.jrosbridge.messages.std.Byte decode(
+							JsonParser parser) {
+						return edu.wpi.rail.jrosbridge.messages.std.Byte
+								.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(ByteMultiArray.class,
+				new MessageDecoder<ByteMultiArray>() {
+					@Override
+					public ByteMultiArray decode(JsonParser parser) {
+						return ByteMultiArray.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Char.class,
+				new MessageDecoder<Char>() {
+					@Override
+					public Char decode(JsonParser parser) {
+						return Char.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(ColorRGBA.class,
+				new MessageDecoder<ColorRGBA>() {
+					@Override
+					public ColorRGBA decode(JsonParser parser) {
+						return ColorRGBA.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Duration.class,
+				new MessageDecoder<Duration>() {
+					@Override
+					public Duration decode(JsonParser parser) {
+						return Duration.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Empty.class,
+				new MessageDecoder<Empty>() {
+					@Override
+					public Empty decode(JsonParser parser) {
+						return Empty.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Float32.class,
+				new MessageDecoder<Float32>() {
+					@Override
+					public Float32 decode(JsonParser parser) {
+						return Float32.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Float32MultiArray.class,
+				new MessageDecoder<Float32MultiArray>() {
+					@Override
+					public Float32MultiArray decode(JsonParser parser) {
+						return Float32MultiArray.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Float64.class,
+				new MessageDecoder<Float64>() {
+					@Override
+					public Float64 decode(JsonParser parser) {
+						return Float64.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Float64MultiArray.class,
+				new MessageDecoder<Float64MultiArray>() {
+					@Override
+					public Float64MultiArray decode(JsonParser parser) {
+						return Float64MultiArray.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Header.class,
+				new MessageDecoder<Header>() {
+					@Override
+					public Header decode(JsonParser parser) {
+						return Header.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Int16.class,
+				new MessageDecoder<Int16>() {
+					@Override
+					public Int16 decode(JsonParser parser) {
+						return Int16.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Int16MultiArray.class,
+				new MessageDecoder<Int16MultiArray>() {
+					@Override
+					public Int16MultiArray decode(JsonParser parser) {
+						return Int16MultiArray.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Int32.class,
+				new MessageDecoder<Int32>() {
+					@Override
+					public Int32 decode(JsonParser parser) {
+						return Int32.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Int32MultiArray.class,
+				new MessageDecoder<Int32MultiArray>() {
+					@Override
+					public Int32MultiArray decode(JsonParser parser) {
+						return Int32MultiArray.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Int64.class,
+				new MessageDecoder<Int64>() {
+					@Override
+					public Int64 decode(JsonParser parser) {
+						return Int64.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Int64MultiArray.class,
+				new MessageDecoder<Int64MultiArray>() {
+					@Override
+					public Int64MultiArray decode(JsonParser parser) {
+						return Int64MultiArray.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Int8.class,
+				new MessageDecoder<Int8>() {
+					@Override
+					public Int8 decode(JsonParser parser) {
+						return Int8.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Int8MultiArray.class,
+				new MessageDecoder<Int8MultiArray>() {
+					@Override
+					public Int8MultiArray decode(JsonParser parser) {
+						return Int8MultiArray.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(MultiArrayDimension.class,
+				new MessageDecoder<MultiArrayDimension>() {
+					@Override
+					public MultiArrayDimension decode(JsonParser parser) {
+						return MultiArrayDimension.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(MultiArrayLayout.class,
+				new MessageDecoder<MultiArrayLayout>() {
+					@Override
+					public MultiArrayLayout decode(JsonParser parser) {
+						return MultiArrayLayout.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(
+				edu.wpi.rail.jrosbridge.messages.std.String.class,
+				new MessageDecoder<edu.wpi.rail.jrosbridge.messages.std.String>() {
+					@Override
+					public edu.wpi.rail.jrosbridge.messages.std.String decode(
+							JsonParser parser) {
+						return edu.wpi.rail.jrosbridge.messages.std.String
+								.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Time.class,
+				new MessageDecoder<Time>() {
+					@Override
+					public Time decode(JsonParser parser) {
+						return Time.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(UInt16.class,
+				new MessageDecoder<UInt16>() {
+					@Override
+					public UInt16 decode(JsonParser parser) {
+						return UInt16.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(UInt16MultiArray.class,
+				new MessageDecoder<UInt16MultiArray>() {
+					@Override
+					public UInt16MultiArray decode(JsonParser parser) {
+						return UInt16MultiArray.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(UInt32.class,
+				new MessageDecoder<UInt32>() {
+					@Override
+					public UInt32 decode(JsonParser parser) {
+						return UInt32.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(UInt32MultiArray.class,
+				new MessageDecoder<UInt32MultiArray>() {
+					@Override
+					public UInt32MultiArray decode(JsonParser parser) {
+						return UInt32MultiArray.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(UInt64.class,
+				new MessageDecoder<UInt64>() {
+					@Override
+					public UInt64 decode(JsonParser parser) {
+						return UInt64.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(UInt64MultiArray.class,
+				new MessageDecoder<UInt64MultiArray>() {
+					@Override
+					public UInt64MultiArray decode(JsonParser parser) {
+						return UInt64MultiArray.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(UInt8.class,
+				new MessageDecoder<UInt8>() {
+					@Override
+					public UInt8 decode(JsonParser parser) {
+						return UInt8.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(UInt8MultiArray.class,
+				new MessageDecoder<UInt8MultiArray>() {
+					@Override
+					public UInt8MultiArray decode(JsonParser parser) {
+						return UInt8MultiArray.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(CompressedImage.class,
+				new MessageDecoder<CompressedImage>() {
+					@Override
+					public CompressedImage decode(JsonParser parser) {
+						return CompressedImage.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(Image.class,
+				new MessageDecoder<Image>() {
+					@Override
+					public Image decode(JsonParser parser) {
+						return Image.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(LaserScan.class,
+				new MessageDecoder<LaserScan>() {
+					@Override
+					public LaserScan decode(JsonParser parser) {
+						return LaserScan.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(PointCloud2.class,
+				new MessageDecoder<PointCloud2>() {
+					@Override
+					public PointCloud2 decode(JsonParser parser) {
+						return PointCloud2.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(PointField.class,
+				new MessageDecoder<PointField>() {
+					@Override
+					public PointField decode(JsonParser parser) {
+						return PointField.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(MapMetaData.class,
+				new MessageDecoder<MapMetaData>() {
+					@Override
+					public MapMetaData decode(JsonParser parser) {
+						return MapMetaData.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(OccupancyGrid.class,
+				new MessageDecoder<OccupancyGrid>() {
+					@Override
+					public OccupancyGrid decode(JsonParser parser) {
+						return OccupancyGrid.fromJsonParser(parser);
+					}
+				});
+		MessageDecoders.register(OccupancyGridUpdate.class,
+				new MessageDecoder<OccupancyGridUpdate>() {
+					@Override
+					public OccupancyGridUpdate decode(JsonParser parser) {
+						return OccupancyGridUpdate.fromJsonParser(parser);
+					}
+				});
+	}
+
+	/**
+	 * The registry is static and should not be created.
+	 */
+	private MessageDecoders() {
+	}
+
+	/**
+	 * Register a decoder for the given message type, replacing any decoder
+	 * already registered for it.
+	 *
+	 * @param <T>
+	 *            The type of message decoded.
+	 * @param type
+	 *            The class of the message type.
+	 * @param decoder
+	 *            The decoder to use for the type.
+	 */
+	public static <T extends Message> void register(Class<T> type,
+			MessageDecoder<T> decoder) {
+		if (type == null || decoder == null) {
+			throw new IllegalArgumentException(
+					"Message type and decoder must be given.");
+		}
+		MessageDecoders.DECODERS.put(type, decoder);
+	}
+
+	/**
+	 * Remove the decoder registered for the given message type.
+	 *
+	 * @param type
+	 *            The class of the message type.
+	 */
+	public static void unregister(Class<? extends Message> type) {
+		MessageDecoders.DECODERS.remove(type);
+	}
+
+	/**
+	 * Get the decoder registered for the given message type. Generated
+	 * message classes register their decoder when they are initialized, so
+	 * the class is initialized before giving up.
+	 *
+	 * @param <T>
+	 *            The type of message decoded.
+	 * @param type
+	 *            The class of the message type.
+	 * @return The decoder, or null if none is registered.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends Message> MessageDecoder<T> get(Class<T> type) {
+		MessageDecoder<?> decoder = MessageDecoders.DECODERS.get(type);
+		if (decoder == null) {
+			try {
+				Class.forName(type.getName(), true, type.getClassLoader());
+			} catch (ClassNotFoundException e) {
+				return null;
+			}
+			decoder = MessageDecoders.DECODERS.get(type);
+		}
+		return (MessageDecoder<T>) decoder;
+	}
+
+	/**
+	 * Check if a decoder is registered for the given message type.
+	 *
+	 * @param type
+	 *            The class of the message type.
+	 * @return If a decoder is registered.
+	 */
+	public static boolean isRegistered(Class<? extends Message> type) {
+		return MessageDecoders.DECODERS.containsKey(type);
+	}
+
+	/**
+	 * Decode the next JSON object of the given parser as a message of the
+	 * given type.
+	 *
+	 * @param <T>
+	 *            The type of message decoded.
+	 * @param type
+	 *            The class of the message type.
+	 * @param parser
+	 *            The parser, before the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return The decoded message.
+	 */
+	public static <T extends Message> T decode(Class<T> type,
+			JsonParser parser) {
+		MessageDecoder<T> decoder = MessageDecoders.require(type);
+		JsonStreams.beginObject(parser);
+		return decoder.decode(parser);
+	}
+
+	/**
+	 * Decode the given JSON text as a message of the given type.
+	 *
+	 * @param <T>
+	 *            The type of message decoded.
+	 * @param type
+	 *            The class of the message type.
+	 * @param json
+	 *            The JSON text of the message.
+	 * @return The decoded message.
+	 */
+	public static <T extends Message> T decode(Class<T> type, String json) {
+		try (JsonParser parser = JsonStreams.createParser(new StringReader(
+				json))) {
+			return MessageDecoders.decode(type, parser);
+		}
+	}
+
+	/**
+	 * Decode the message of the given rosbridge frame (e.g., a publish call)
+	 * as a message of the given type. The other fields of the frame are
+	 * skipped.
+	 *
+	 * @param <T>
+	 *            The type of message decoded.
+	 * @param type
+	 *            The class of the message type.
+	 * @param frame
+	 *            The JSON text of the rosbridge frame.
+	 * @return The decoded message, or null if the frame has no message.
+	 */
+	public static <T extends Message> T decodeMessage(Class<T> type,
+			String frame) {
+		return MessageDecoders.decodeMessage(MessageDecoders.require(type),
+				frame);
+	}
+
+	/**
+	 * Decode the message of the given rosbridge frame (e.g., a publish call)
+	 * with the given decoder. The other fields of the frame are skipped.
+	 *
+	 * @param <T>
+	 *            The type of message decoded.
+	 * @param decoder
+	 *            The decoder of the message type.
+	 * @param frame
+	 *            The JSON text of the rosbridge frame.
+	 * @return The decoded message, or null if the frame has no message.
+	 */
+	public static <T extends Message> T decodeMessage(
+			MessageDecoder<T> decoder, String frame) {
+		try (JsonParser parser = JsonStreams.createParser(new StringReader(
+				frame))) {
+			JsonStreams.beginObject(parser);
+			String field;
+			while ((field = JsonStreams.nextField(parser)) != null) {
+				if (field.equals(JRosbridge.FIELD_MESSAGE)) {
+					JsonStreams.beginObject(parser);
+					return decoder.decode(parser);
+				} else {
+					JsonStreams.skipValue(parser);
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Get the decoder registered for the given message type.
+	 *
+	 * @param <T>
+	 *            The type of message decoded.
+	 * @param type
+	 *            The class of the message type.
+	 * @return The decoder.
+	 * @throws IllegalArgumentException
+	 *             If no decoder is registered for the type.
+	 */
+	private static <T extends Message> MessageDecoder<T> require(Class<T> type) {
+		MessageDecoder<T> decoder = MessageDecoders.get(type);
+		if (decoder == null) {
+			throw new IllegalArgumentException("No decoder registered for "
+					+ (type == null ? null : type.getName()));
+		}
+		return decoder;
+	}
+}
@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.actionlib;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.primitives.Time;
 
@@ -130,4 +132,38 @@ public class GoalID extends Message {
 				.getString(GoalID.FIELD_ID) : "";
 		return new GoalID(stamp, id);
 	}
+
+	/**
+	 * Create a new GoalID based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A GoalID message based on the parsed JSON.
+	 */
+	public static GoalID fromJsonParser(JsonParser parser) {
+		Time stamp = null;
+		String id = "";
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(GoalID.FIELD_STAMP)) {
+				JsonStreams.beginObject(parser);
+				stamp = Time.fromJsonParser(parser);
+			} else if (field.equals(GoalID.FIELD_ID)) {
+				id = JsonStreams.readString(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (stamp == null) {
+			stamp = new Time();
+		}
+		return new GoalID(stamp, id);
+	}
 }
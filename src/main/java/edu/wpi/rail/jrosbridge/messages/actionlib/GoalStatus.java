@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.actionlib;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.primitives.Primitive;
 
@@ -212,4 +214,41 @@ public class GoalStatus extends Message {
 				.getString(GoalStatus.FIELD_TEXT) : "";
 		return new GoalStatus(goalID, status, text);
 	}
+
+	/**
+	 * Create a new GoalStatus based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A GoalStatus message based on the parsed JSON.
+	 */
+	public static GoalStatus fromJsonParser(JsonParser parser) {
+		GoalID goalID = null;
+		byte status = 0;
+		String text = "";
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(GoalStatus.FIELD_GOAL_ID)) {
+				JsonStreams.beginObject(parser);
+				goalID = GoalID.fromJsonParser(parser);
+			} else if (field.equals(GoalStatus.FIELD_STATUS)) {
+				status = Primitive.toUInt8((short) JsonStreams.readInt(parser));
+			} else if (field.equals(GoalStatus.FIELD_TEXT)) {
+				text = JsonStreams.readString(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (goalID == null) {
+			goalID = new GoalID();
+		}
+		return new GoalStatus(goalID, status, text);
+	}
 }
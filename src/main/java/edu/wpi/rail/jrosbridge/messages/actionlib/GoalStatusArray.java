@@ -1,12 +1,15 @@
 package edu.wpi.rail.jrosbridge.messages.actionlib;
 
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
 
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.messages.std.Header;
 
@@ -175,4 +178,43 @@ public class GoalStatusArray extends Message {
 			return new GoalStatusArray(header, new GoalStatus[] {});
 		}
 	}
+
+	/**
+	 * Create a new GoalStatusArray based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A GoalStatusArray message based on the parsed JSON.
+	 */
+	public static GoalStatusArray fromJsonParser(JsonParser parser) {
+		Header header = null;
+		GoalStatus[] statusList = new GoalStatus[] {};
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(GoalStatusArray.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(GoalStatusArray.FIELD_STATUS_LIST)) {
+				ArrayList<GoalStatus> list = new ArrayList<GoalStatus>();
+				JsonStreams.beginArray(parser);
+				while (JsonStreams.nextElement(parser)) {
+					list.add(GoalStatus.fromJsonParser(parser));
+				}
+				statusList = list.toArray(new GoalStatus[list.size()]);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		return new GoalStatusArray(header, statusList);
+	}
 }
@@ -0,0 +1,614 @@
+package edu.wpi.rail.jrosbridge.messages.dynamic;
+
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+
+import edu.wpi.rail.jrosbridge.messages.Message;
+
+/**
+ * A DynamicMessage is a message of a type that has no message class. Its
+ * values are read by the index of the field in its {@link MessageSchema}
+ * (which can be looked up once with {@link MessageSchema#getFieldIndex}) or by
+ * name. Single numbers and booleans are kept unboxed; arrays of primitive
+ * types are returned as primitive arrays, which are not copied and should not
+ * be modified. The JSON of the message is only written once it is needed.
+ *
+ * @version October 18, 2026
+ */
+public class DynamicMessage extends Message {
+
+	private final MessageSchema schema;
+	// doubles are kept as their bits and booleans as 0 or 1
+	private final long[] primitives;
+	private final Object[] objects;
+
+	/**
+	 * Create a new message with the given values.
+	 *
+	 * @param schema
+	 *            The schema of the message.
+	 * @param primitives
+	 *            The unboxed values, indexed by the slot of each field.
+	 * @param objects
+	 *            The other values, indexed by the slot of each field.
+	 */
+	DynamicMessage(MessageSchema schema, long[] primitives, Object[] objects) {
+		// the JSON is written from the values when it is first needed
+		super((JsonObject) null, schema.getType());
+		this.schema = schema;
+		this.primitives = primitives;
+		this.objects = objects;
+	}
+
+	/**
+	 * Get the schema of this message.
+	 *
+	 * @return The schema of this message.
+	 */
+	public MessageSchema getSchema() {
+		return this.schema;
+	}
+
+	/**
+	 * Get the value of the given boolean field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not a bool.
+	 */
+	public boolean getBoolean(int index) {
+		this.check(index, Boolean.class);
+		return this.primitives[this.schema.getSlot(index)] != 0;
+	}
+
+	/**
+	 * Get the value of the given integer field. Unsigned values are given as
+	 * they are, except uint64 values above the signed range, which are
+	 * negative (see {@link edu.wpi.rail.jrosbridge.primitives.Primitive}).
+	 * Floating point values are truncated.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not a number.
+	 */
+	public long getLong(int index) {
+		if (this.isFloatingPoint(index)) {
+			return (long) this.getDouble(index);
+		}
+		this.check(index, Long.class);
+		return this.primitives[this.schema.getSlot(index)];
+	}
+
+	/**
+	 * Get the value of the given integer field as an int.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not a number.
+	 */
+	public int getInt(int index) {
+		return (int) this.getLong(index);
+	}
+
+	/**
+	 * Get the value of the given number field as a double.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not a number.
+	 */
+	public double getDouble(int index) {
+		if (!this.isFloatingPoint(index)) {
+			return this.getLong(index);
+		}
+		return Double.longBitsToDouble(this.primitives[this.schema
+				.getSlot(index)]);
+	}
+
+	/**
+	 * Get the value of the given number field as a float.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not a number.
+	 */
+	public float getFloat(int index) {
+		return (float) this.getDouble(index);
+	}
+
+	/**
+	 * Get the value of the given string field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not a string.
+	 */
+	public String getString(int index) {
+		return this.getObject(index, String.class);
+	}
+
+	/**
+	 * Get the value of the given message field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not a message.
+	 */
+	public DynamicMessage getMessage(int index) {
+		return this.getObject(index, DynamicMessage.class);
+	}
+
+	/**
+	 * Get the value of the given bool[] field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not a bool[].
+	 */
+	public boolean[] getBooleanArray(int index) {
+		return this.getObject(index, boolean[].class);
+	}
+
+	/**
+	 * Get the value of the given int8[] or uint8[] field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not an int8[] or uint8[].
+	 */
+	public byte[] getByteArray(int index) {
+		return this.getObject(index, byte[].class);
+	}
+
+	/**
+	 * Get the value of the given int16[] or uint16[] field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not an int16[] or uint16[].
+	 */
+	public short[] getShortArray(int index) {
+		return this.getObject(index, short[].class);
+	}
+
+	/**
+	 * Get the value of the given int32[] or uint32[] field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not an int32[] or uint32[].
+	 */
+	public int[] getIntArray(int index) {
+		return this.getObject(index, int[].class);
+	}
+
+	/**
+	 * Get the value of the given int64[] or uint64[] field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not an int64[] or uint64[].
+	 */
+	public long[] getLongArray(int index) {
+		return this.getObject(index, long[].class);
+	}
+
+	/**
+	 * Get the value of the given float32[] field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not a float32[].
+	 */
+	public float[] getFloatArray(int index) {
+		return this.getObject(index, float[].class);
+	}
+
+	/**
+	 * Get the value of the given float64[] field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not a float64[].
+	 */
+	public double[] getDoubleArray(int index) {
+		return this.getObject(index, double[].class);
+	}
+
+	/**
+	 * Get the value of the given string[] field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not a string[].
+	 */
+	public String[] getStringArray(int index) {
+		return this.getObject(index, String[].class);
+	}
+
+	/**
+	 * Get the value of the given message array field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If the field is not a message array.
+	 */
+	public DynamicMessage[] getMessageArray(int index) {
+		return this.getObject(index, DynamicMessage[].class);
+	}
+
+	/**
+	 * Get the value of the given field, boxed if needed.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The value of the field, of the class given by
+	 *         {@link MessageSchema#getFieldClass}.
+	 */
+	public Object get(int index) {
+		if (!this.schema.isUnboxed(index)) {
+			return this.objects[this.schema.getSlot(index)];
+		}
+		Class<?> c = this.schema.getFieldClass(index);
+		if (c == Boolean.class) {
+			return this.getBoolean(index);
+		} else if (c == Double.class) {
+			return this.getDouble(index);
+		} else {
+			return this.getLong(index);
+		}
+	}
+
+	/**
+	 * Get the value of the field with the given name, boxed if needed.
+	 *
+	 * @param name
+	 *            The name of the field.
+	 * @return The value of the field, of the class given by
+	 *         {@link MessageSchema#getFieldClass}.
+	 * @throws IllegalArgumentException
+	 *             If there is no such field.
+	 */
+	public Object get(String name) {
+		return this.get(this.indexOf(name));
+	}
+
+	/**
+	 * Get the value of the number field with the given name as a double.
+	 *
+	 * @param name
+	 *            The name of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If there is no such number field.
+	 */
+	public double getDouble(String name) {
+		return this.getDouble(this.indexOf(name));
+	}
+
+	/**
+	 * Get the value of the integer field with the given name.
+	 *
+	 * @param name
+	 *            The name of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If there is no such number field.
+	 */
+	public long getLong(String name) {
+		return this.getLong(this.indexOf(name));
+	}
+
+	/**
+	 * Get the value of the message field with the given name.
+	 *
+	 * @param name
+	 *            The name of the field.
+	 * @return The value of the field.
+	 * @throws IllegalArgumentException
+	 *             If there is no such message field.
+	 */
+	public DynamicMessage getMessage(String name) {
+		return this.getMessage(this.indexOf(name));
+	}
+
+	/**
+	 * Create a builder that starts with the values of this message.
+	 *
+	 * @return The builder.
+	 */
+	public DynamicMessage.Builder toBuilder() {
+		return new DynamicMessage.Builder(this.schema,
+				this.primitives.clone(), this.objects.clone());
+	}
+
+	/**
+	 * Write the fields of this message to the given generator.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 */
+	@Override
+	public void writeJsonFields(JsonGenerator generator) {
+		this.schema.encode(this.primitives, this.objects, generator);
+	}
+
+	/**
+	 * Create a clone of this message. Arrays and nested messages are shared.
+	 */
+	@Override
+	public DynamicMessage clone() {
+		return new DynamicMessage(this.schema, this.primitives.clone(),
+				this.objects.clone());
+	}
+
+	/**
+	 * Get the index of the field with the given name.
+	 *
+	 * @param name
+	 *            The name of the field.
+	 * @return The index of the field.
+	 * @throws IllegalArgumentException
+	 *             If there is no such field.
+	 */
+	private int indexOf(String name) {
+		int index = this.schema.getFieldIndex(name);
+		if (index < 0) {
+			throw new IllegalArgumentException("No field " + name + " in "
+					+ this.schema.getType());
+		}
+		return index;
+	}
+
+	/**
+	 * Check if the given field is a single floating point number.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return If the field is a single float32 or float64.
+	 */
+	private boolean isFloatingPoint(int index) {
+		return this.schema.getFieldClass(index) == Double.class;
+	}
+
+	/**
+	 * Check that the values of the given field are of the given class.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @param c
+	 *            The expected class.
+	 * @throws IllegalArgumentException
+	 *             If the values are of another class.
+	 */
+	private void check(int index, Class<?> c) {
+		DynamicMessage.check(this.schema, index, c);
+	}
+
+	/**
+	 * Get the value of a field that is not kept unboxed.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @param c
+	 *            The expected class.
+	 * @return The value.
+	 * @throws IllegalArgumentException
+	 *             If the values are of another class.
+	 */
+	private <T> T getObject(int index, Class<T> c) {
+		this.check(index, c);
+		return c.cast(this.objects[this.schema.getSlot(index)]);
+	}
+
+	/**
+	 * Check that the values of the given field are of the given class.
+	 *
+	 * @param schema
+	 *            The schema.
+	 * @param index
+	 *            The index of the field.
+	 * @param c
+	 *            The expected class.
+	 * @throws IllegalArgumentException
+	 *             If the values are of another class.
+	 */
+	private static void check(MessageSchema schema, int index, Class<?> c) {
+		if (schema.getFieldClass(index) != c) {
+			throw new IllegalArgumentException("Field "
+					+ schema.getFieldName(index) + " of " + schema.getType()
+					+ " is not a " + c.getSimpleName());
+		}
+	}
+
+	/**
+	 * A Builder sets the values of a new DynamicMessage. Values that are not
+	 * set keep their defaults (or the values of the message the builder was
+	 * created from).
+	 *
+	 * @version October 18, 2026
+	 */
+	public static class Builder {
+
+		private final MessageSchema schema;
+		private final long[] primitives;
+		private final Object[] objects;
+
+		/**
+		 * Create a new builder with the given values.
+		 *
+		 * @param schema
+		 *            The schema of the message.
+		 * @param primitives
+		 *            The unboxed values, indexed by the slot of each field.
+		 * @param objects
+		 *            The other values, indexed by the slot of each field.
+		 */
+		Builder(MessageSchema schema, long[] primitives, Object[] objects) {
+			this.schema = schema;
+			this.primitives = primitives;
+			this.objects = objects;
+		}
+
+		/**
+		 * Set the value of the given bool field.
+		 *
+		 * @param index
+		 *            The index of the field.
+		 * @param value
+		 *            The value.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             If the field is not a bool.
+		 */
+		public Builder set(int index, boolean value) {
+			DynamicMessage.check(this.schema, index, Boolean.class);
+			this.primitives[this.schema.getSlot(index)] = value ? 1 : 0;
+			return this;
+		}
+
+		/**
+		 * Set the value of the given number field.
+		 *
+		 * @param index
+		 *            The index of the field.
+		 * @param value
+		 *            The value.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             If the field is not a number.
+		 */
+		public Builder set(int index, long value) {
+			if (this.schema.getFieldClass(index) == Double.class) {
+				return this.set(index, (double) value);
+			}
+			DynamicMessage.check(this.schema, index, Long.class);
+			this.primitives[this.schema.getSlot(index)] = value;
+			return this;
+		}
+
+		/**
+		 * Set the value of the given float32 or float64 field.
+		 *
+		 * @param index
+		 *            The index of the field.
+		 * @param value
+		 *            The value.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             If the field is not a float32 or float64.
+		 */
+		public Builder set(int index, double value) {
+			DynamicMessage.check(this.schema, index, Double.class);
+			this.primitives[this.schema.getSlot(index)] = Double
+					.doubleToRawLongBits(value);
+			return this;
+		}
+
+		/**
+		 * Set the value of the given field that is a string, a message or an
+		 * array, which must be of the class given by
+		 * {@link MessageSchema#getFieldClass}. Arrays are not copied.
+		 *
+		 * @param index
+		 *            The index of the field.
+		 * @param value
+		 *            The value.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             If the value is not of the class of the field.
+		 */
+		public Builder set(int index, Object value) {
+			if (value instanceof Boolean) {
+				return this.set(index, ((Boolean) value).booleanValue());
+			} else if (value instanceof Double || value instanceof Float) {
+				return this.set(index, ((Number) value).doubleValue());
+			} else if (value instanceof Number) {
+				return this.set(index, ((Number) value).longValue());
+			}
+			Class<?> c = this.schema.getFieldClass(index);
+			if (!c.isInstance(value)) {
+				throw new IllegalArgumentException("Field "
+						+ this.schema.getFieldName(index) + " of "
+						+ this.schema.getType() + " is not a "
+						+ (value == null ? null : value.getClass()
+								.getSimpleName()));
+			}
+			MessageSchema nested = this.schema.getFieldSchema(index);
+			if (value instanceof DynamicMessage
+					&& ((DynamicMessage) value).getSchema() != nested) {
+				throw new IllegalArgumentException("Field "
+						+ this.schema.getFieldName(index) + " of "
+						+ this.schema.getType() + " is not a "
+						+ ((DynamicMessage) value).getSchema().getType());
+			}
+			this.objects[this.schema.getSlot(index)] = value;
+			return this;
+		}
+
+		/**
+		 * Set the value of the field with the given name.
+		 *
+		 * @param name
+		 *            The name of the field.
+		 * @param value
+		 *            The value, which is either a boolean or a number for
+		 *            single values, or of the class given by
+		 *            {@link MessageSchema#getFieldClass}.
+		 * @return This builder.
+		 * @throws IllegalArgumentException
+		 *             If there is no such field or the value is not of the
+		 *             class of the field.
+		 */
+		public Builder set(String name, Object value) {
+			int index = this.schema.getFieldIndex(name);
+			if (index < 0) {
+				throw new IllegalArgumentException("No field " + name + " in "
+						+ this.schema.getType());
+			}
+			return this.set(index, value);
+		}
+
+		/**
+		 * Create the message with the values set so far.
+		 *
+		 * @return The message.
+		 */
+		public DynamicMessage build() {
+			return new DynamicMessage(this.schema, this.primitives.clone(),
+					this.objects.clone());
+		}
+	}
+}
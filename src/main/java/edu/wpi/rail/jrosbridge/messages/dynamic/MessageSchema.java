@@ -0,0 +1,742 @@
+package edu.wpi.rail.jrosbridge.messages.dynamic;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoder;
+import edu.wpi.rail.jrosbridge.primitives.Primitive;
+
+/**
+ * A MessageSchema is the compiled definition of a message type that has no
+ * message class, built from the type definitions of rosapi (see
+ * {@link MessageSchemas}). Each field gets an index, and the schema decodes
+ * and encodes {@link DynamicMessage}s field by field with a streaming parser
+ * and generator. Scalars are kept unboxed and arrays of primitive types are
+ * kept in primitive arrays. A schema is also a {@link MessageDecoder}, so it
+ * can be used with a {@link edu.wpi.rail.jrosbridge.TypedTopic}.
+ *
+ * @version October 18, 2026
+ */
+public class MessageSchema implements MessageDecoder<DynamicMessage> {
+
+	/**
+	 * The name of the type field of a rosapi type definition.
+	 */
+	public static final String FIELD_TYPE = "type";
+
+	/**
+	 * The name of the field names field of a rosapi type definition.
+	 */
+	public static final String FIELD_FIELD_NAMES = "fieldnames";
+
+	/**
+	 * The name of the field types field of a rosapi type definition.
+	 */
+	public static final String FIELD_FIELD_TYPES = "fieldtypes";
+
+	/**
+	 * The name of the field array lengths field of a rosapi type definition.
+	 */
+	public static final String FIELD_FIELD_ARRAY_LENGTHS = "fieldarraylen";
+
+	/**
+	 * The array length of a field that is not an array.
+	 */
+	public static final int NOT_AN_ARRAY = -1;
+
+	/**
+	 * The array length of a variable length array.
+	 */
+	public static final int VARIABLE_LENGTH = 0;
+
+	// the kinds of fields
+	static final int BOOL = 0;
+	static final int INT8 = 1;
+	static final int UINT8 = 2;
+	static final int INT16 = 3;
+	static final int UINT16 = 4;
+	static final int INT32 = 5;
+	static final int UINT32 = 6;
+	static final int INT64 = 7;
+	static final int UINT64 = 8;
+	static final int FLOAT32 = 9;
+	static final int FLOAT64 = 10;
+	static final int STRING = 11;
+	static final int MESSAGE = 12;
+
+	private static final HashMap<String, Integer> KINDS = new HashMap<String, Integer>();
+
+	static {
+		MessageSchema.KINDS.put("bool", MessageSchema.BOOL);
+		MessageSchema.KINDS.put("int8", MessageSchema.INT8);
+		MessageSchema.KINDS.put("byte", MessageSchema.INT8);
+		MessageSchema.KINDS.put("uint8", MessageSchema.UINT8);
+		MessageSchema.KINDS.put("char", MessageSchema.UINT8);
+		MessageSchema.KINDS.put("int16", MessageSchema.INT16);
+		MessageSchema.KINDS.put("uint16", MessageSchema.UINT16);
+		MessageSchema.KINDS.put("int32", MessageSchema.INT32);
+		MessageSchema.KINDS.put("uint32", MessageSchema.UINT32);
+		MessageSchema.KINDS.put("int64", MessageSchema.INT64);
+		MessageSchema.KINDS.put("uint64", MessageSchema.UINT64);
+		MessageSchema.KINDS.put("float32", MessageSchema.FLOAT32);
+		MessageSchema.KINDS.put("float64", MessageSchema.FLOAT64);
+		MessageSchema.KINDS.put("string", MessageSchema.STRING);
+	}
+
+	private final String type;
+	private final String[] names;
+	private final String[] types;
+	private final int[] kinds;
+	private final int[] arrayLengths;
+	private final MessageSchema[] nested;
+	// the index of each field in the unboxed values or in the other values
+	private final int[] slots;
+	private final int primitiveCount;
+	private final int objectCount;
+	private final HashMap<String, Integer> indices;
+
+	/**
+	 * Create a new schema from the given fields. Types of fields that are not
+	 * primitive types must have their schema given.
+	 *
+	 * @param type
+	 *            The message type (e.g., "geometry_msgs/Point").
+	 * @param names
+	 *            The names of the fields.
+	 * @param types
+	 *            The types of the fields (e.g., "float64" or
+	 *            "geometry_msgs/Point").
+	 * @param arrayLengths
+	 *            The array length of each field: the length of a fixed length
+	 *            array, VARIABLE_LENGTH, or NOT_AN_ARRAY.
+	 * @param nested
+	 *            The schema of each field that is a message, or null for
+	 *            primitive fields.
+	 * @throws IllegalArgumentException
+	 *             If the fields are not consistent.
+	 */
+	public MessageSchema(String type, String[] names, String[] types,
+			int[] arrayLengths, MessageSchema[] nested) {
+		if (names.length != types.length || names.length != arrayLengths.length
+				|| names.length != nested.length) {
+			throw new IllegalArgumentException("Inconsistent fields for "
+					+ type);
+		}
+		this.type = type;
+		this.names = names.clone();
+		this.types = types.clone();
+		this.arrayLengths = arrayLengths.clone();
+		this.nested = nested.clone();
+		this.kinds = new int[names.length];
+		this.slots = new int[names.length];
+		this.indices = new HashMap<String, Integer>();
+
+		int primitives = 0;
+		int objects = 0;
+		for (int i = 0; i < names.length; i++) {
+			Integer kind = MessageSchema.KINDS.get(types[i]);
+			if (kind == null && nested[i] == null) {
+				throw new IllegalArgumentException("No schema given for "
+						+ types[i] + " in " + type);
+			}
+			this.kinds[i] = kind == null ? MessageSchema.MESSAGE : kind;
+			// unboxed scalars are kept apart from everything else
+			this.slots[i] = this.isUnboxed(i) ? primitives++ : objects++;
+			this.indices.put(names[i], i);
+		}
+		this.primitiveCount = primitives;
+		this.objectCount = objects;
+	}
+
+	/**
+	 * Get the message type of this schema.
+	 *
+	 * @return The message type.
+	 */
+	public String getType() {
+		return this.type;
+	}
+
+	/**
+	 * Get the number of fields.
+	 *
+	 * @return The number of fields.
+	 */
+	public int getFieldCount() {
+		return this.names.length;
+	}
+
+	/**
+	 * Get the index of the field with the given name.
+	 *
+	 * @param name
+	 *            The name of the field.
+	 * @return The index of the field, or -1 if there is no such field.
+	 */
+	public int getFieldIndex(String name) {
+		Integer index = this.indices.get(name);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Get the name of the given field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The name of the field.
+	 */
+	public String getFieldName(int index) {
+		return this.names[index];
+	}
+
+	/**
+	 * Get the type of the given field, without any array suffix.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The type of the field (e.g., "float64").
+	 */
+	public String getFieldType(int index) {
+		return this.types[index];
+	}
+
+	/**
+	 * Get the array length of the given field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The length of a fixed length array, VARIABLE_LENGTH, or
+	 *         NOT_AN_ARRAY.
+	 */
+	public int getArrayLength(int index) {
+		return this.arrayLengths[index];
+	}
+
+	/**
+	 * Check if the given field is an array.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return If the field is an array.
+	 */
+	public boolean isArray(int index) {
+		return this.arrayLengths[index] != MessageSchema.NOT_AN_ARRAY;
+	}
+
+	/**
+	 * Get the schema of the given field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The schema of the field, or null if it is of a primitive type.
+	 */
+	public MessageSchema getFieldSchema(int index) {
+		return this.nested[index];
+	}
+
+	/**
+	 * Get the Java class of the values of the given field, as given to and
+	 * returned by a {@link DynamicMessage} (e.g., double[].class for a
+	 * float64[] field, or Long.class for an int32 field). Unsigned types use
+	 * the signed type of the same width for arrays (e.g., short[] for
+	 * uint16[]), while single values are kept in a long.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The Java class of the values of the field.
+	 */
+	public Class<?> getFieldClass(int index) {
+		boolean array = this.isArray(index);
+		switch (this.kinds[index]) {
+		case BOOL:
+			return array ? boolean[].class : Boolean.class;
+		case INT8:
+		case UINT8:
+			return array ? byte[].class : Long.class;
+		case INT16:
+		case UINT16:
+			return array ? short[].class : Long.class;
+		case INT32:
+		case UINT32:
+			return array ? int[].class : Long.class;
+		case INT64:
+		case UINT64:
+			return array ? long[].class : Long.class;
+		case FLOAT32:
+			return array ? float[].class : Double.class;
+		case FLOAT64:
+			return array ? double[].class : Double.class;
+		case STRING:
+			return array ? String[].class : String.class;
+		default:
+			return array ? DynamicMessage[].class : DynamicMessage.class;
+		}
+	}
+
+	/**
+	 * Create a new message of this type with all empty values.
+	 *
+	 * @return The message.
+	 */
+	public DynamicMessage newMessage() {
+		return new DynamicMessage(this, new long[this.primitiveCount],
+				this.defaults());
+	}
+
+	/**
+	 * Create a builder for a message of this type, which starts with all
+	 * empty values.
+	 *
+	 * @return The builder.
+	 */
+	public DynamicMessage.Builder newBuilder() {
+		return new DynamicMessage.Builder(this, new long[this.primitiveCount],
+				this.defaults());
+	}
+
+	/**
+	 * Decode a message of this type from the given JSON string. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param jsonString
+	 *            The JSON string to parse.
+	 * @return The message.
+	 */
+	public DynamicMessage decode(String jsonString) {
+		try (JsonParser parser = JsonStreams.createParser(new StringReader(
+				jsonString))) {
+			JsonStreams.beginObject(parser);
+			return this.decode(parser);
+		}
+	}
+
+	/**
+	 * Decode a message of this type from the given message. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param m
+	 *            The message to decode.
+	 * @return The message.
+	 */
+	public DynamicMessage decode(Message m) {
+		return this.decode(m.toString());
+	}
+
+	/**
+	 * Decode a message of this type with the given streaming parser. Any
+	 * missing values will be set to their defaults.
+	 *
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return The message.
+	 */
+	@Override
+	public DynamicMessage decode(JsonParser parser) {
+		long[] primitives = new long[this.primitiveCount];
+		Object[] objects = new Object[this.objectCount];
+
+		// fields usually arrive in the order they are defined
+		int expected = 0;
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			int index;
+			if (expected < this.names.length
+					&& this.names[expected].equals(field)) {
+				index = expected;
+			} else {
+				index = this.getFieldIndex(field);
+			}
+			if (index < 0) {
+				JsonStreams.skipValue(parser);
+				continue;
+			}
+			expected = index + 1;
+			int slot = this.slots[index];
+			if (this.isUnboxed(index)) {
+				primitives[slot] = this.readPrimitive(parser, index);
+			} else {
+				objects[slot] = this.readObject(parser, index);
+			}
+		}
+
+		// use defaults for missing values
+		for (int i = 0; i < this.names.length; i++) {
+			if (!this.isUnboxed(i) && objects[this.slots[i]] == null) {
+				objects[this.slots[i]] = this.defaultValue(i);
+			}
+		}
+		return new DynamicMessage(this, primitives, objects);
+	}
+
+	/**
+	 * Write the fields of a message of this schema with the given generator.
+	 *
+	 * @param primitives
+	 *            The unboxed values of the message.
+	 * @param objects
+	 *            The other values of the message.
+	 * @param generator
+	 *            The generator, inside an object.
+	 */
+	void encode(long[] primitives, Object[] objects, JsonGenerator generator) {
+		for (int i = 0; i < this.names.length; i++) {
+			String name = this.names[i];
+			int slot = this.slots[i];
+			if (this.isUnboxed(i)) {
+				long value = primitives[slot];
+				switch (this.kinds[i]) {
+				case BOOL:
+					generator.write(name, value != 0);
+					break;
+				case FLOAT32:
+				case FLOAT64:
+					generator.write(name, Double.longBitsToDouble(value));
+					break;
+				case UINT64:
+					if (value < 0) {
+						generator.write(name, Primitive.fromUInt64(value));
+					} else {
+						generator.write(name, value);
+					}
+					break;
+				default:
+					generator.write(name, value);
+				}
+			} else {
+				this.writeObject(generator, i, objects[slot]);
+			}
+		}
+	}
+
+	/**
+	 * Check if the given field is kept unboxed.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return If the field is a single value of a number or boolean type.
+	 */
+	boolean isUnboxed(int index) {
+		return this.arrayLengths[index] == MessageSchema.NOT_AN_ARRAY
+				&& this.kinds[index] != MessageSchema.STRING
+				&& this.kinds[index] != MessageSchema.MESSAGE;
+	}
+
+	/**
+	 * Get the kind of the given field.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The kind of the field.
+	 */
+	int getKind(int index) {
+		return this.kinds[index];
+	}
+
+	/**
+	 * Get the index of the given field in the unboxed or the other values.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The index of the value.
+	 */
+	int getSlot(int index) {
+		return this.slots[index];
+	}
+
+	/**
+	 * Read an unboxed value.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @param index
+	 *            The index of the field.
+	 * @return The value, with doubles as their bits and booleans as 0 or 1.
+	 */
+	private long readPrimitive(JsonParser parser, int index) {
+		switch (this.kinds[index]) {
+		case BOOL:
+			return JsonStreams.readBoolean(parser) ? 1 : 0;
+		case FLOAT32:
+		case FLOAT64:
+			return Double.doubleToRawLongBits(JsonStreams.readDouble(parser));
+		default:
+			return JsonStreams.readLong(parser);
+		}
+	}
+
+	/**
+	 * Read a value that is not kept unboxed.
+	 *
+	 * @param parser
+	 *            The parser.
+	 * @param index
+	 *            The index of the field.
+	 * @return The value.
+	 */
+	private Object readObject(JsonParser parser, int index) {
+		if (!this.isArray(index)) {
+			if (this.kinds[index] == MessageSchema.STRING) {
+				return JsonStreams.readString(parser);
+			}
+			JsonStreams.beginObject(parser);
+			return this.nested[index].decode(parser);
+		}
+		switch (this.kinds[index]) {
+		case BOOL:
+			return JsonStreams.readBooleanArray(parser);
+		case INT8:
+		case UINT8:
+			return JsonStreams.readByteArray(parser);
+		case INT16:
+		case UINT16:
+			return JsonStreams.readShortArray(parser);
+		case INT32:
+		case UINT32:
+			return JsonStreams.readIntArray(parser);
+		case INT64:
+		case UINT64:
+			return JsonStreams.readLongArray(parser);
+		case FLOAT32:
+			return JsonStreams.readFloatArray(parser);
+		case FLOAT64:
+			return JsonStreams.readDoubleArray(parser);
+		case STRING:
+			return JsonStreams.readStringArray(parser);
+		default:
+			ArrayList<DynamicMessage> list = new ArrayList<DynamicMessage>();
+			JsonStreams.beginArray(parser);
+			while (JsonStreams.nextElement(parser)) {
+				list.add(this.nested[index].decode(parser));
+			}
+			return list.toArray(new DynamicMessage[list.size()]);
+		}
+	}
+
+	/**
+	 * Write a value that is not kept unboxed.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 * @param index
+	 *            The index of the field.
+	 * @param value
+	 *            The value.
+	 */
+	private void writeObject(JsonGenerator generator, int index, Object value) {
+		String name = this.names[index];
+		if (!this.isArray(index)) {
+			if (this.kinds[index] == MessageSchema.STRING) {
+				generator.write(name, (String) value);
+			} else {
+				JsonStreams.writeObject(generator, name, (DynamicMessage) value);
+			}
+			return;
+		}
+		switch (this.kinds[index]) {
+		case BOOL:
+			JsonStreams.writeArray(generator, name, (boolean[]) value);
+			break;
+		case INT8:
+			JsonStreams.writeArray(generator, name, (byte[]) value);
+			break;
+		case UINT8:
+			// rosbridge sends and expects uint8[] and char[] as base64
+			JsonStreams.writeBinary(generator, name, (byte[]) value);
+			break;
+		case INT16:
+			JsonStreams.writeArray(generator, name, (short[]) value);
+			break;
+		case UINT16:
+			JsonStreams.writeUnsignedArray(generator, name, (short[]) value);
+			break;
+		case INT32:
+			JsonStreams.writeArray(generator, name, (int[]) value);
+			break;
+		case UINT32:
+			JsonStreams.writeUnsignedArray(generator, name, (int[]) value);
+			break;
+		case INT64:
+			JsonStreams.writeArray(generator, name, (long[]) value);
+			break;
+		case UINT64:
+			JsonStreams.writeUnsignedArray(generator, name, (long[]) value);
+			break;
+		case FLOAT32:
+			JsonStreams.writeArray(generator, name, (float[]) value);
+			break;
+		case FLOAT64:
+			JsonStreams.writeArray(generator, name, (double[]) value);
+			break;
+		case STRING:
+			JsonStreams.writeArray(generator, name, (String[]) value);
+			break;
+		default:
+			JsonStreams.writeArray(generator, name, (DynamicMessage[]) value);
+		}
+	}
+
+	/**
+	 * Create the default values of the fields that are not kept unboxed.
+	 *
+	 * @return The default values.
+	 */
+	private Object[] defaults() {
+		Object[] objects = new Object[this.objectCount];
+		for (int i = 0; i < this.names.length; i++) {
+			if (!this.isUnboxed(i)) {
+				objects[this.slots[i]] = this.defaultValue(i);
+			}
+		}
+		return objects;
+	}
+
+	/**
+	 * Create the default value of a field that is not kept unboxed.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The default value.
+	 */
+	private Object defaultValue(int index) {
+		if (!this.isArray(index)) {
+			return this.kinds[index] == MessageSchema.STRING ? ""
+					: this.nested[index].newMessage();
+		}
+		int length = Math.max(this.arrayLengths[index], 0);
+		switch (this.kinds[index]) {
+		case BOOL:
+			return new boolean[length];
+		case INT8:
+		case UINT8:
+			return new byte[length];
+		case INT16:
+		case UINT16:
+			return new short[length];
+		case INT32:
+		case UINT32:
+			return new int[length];
+		case INT64:
+		case UINT64:
+			return new long[length];
+		case FLOAT32:
+			return new float[length];
+		case FLOAT64:
+			return new double[length];
+		case STRING:
+			String[] strings = new String[length];
+			Arrays.fill(strings, "");
+			return strings;
+		default:
+			DynamicMessage[] messages = new DynamicMessage[length];
+			for (int i = 0; i < length; i++) {
+				messages[i] = this.nested[index].newMessage();
+			}
+			return messages;
+		}
+	}
+
+	/**
+	 * Compile the schema of the given type from the given rosapi type
+	 * definitions (e.g., the "typedefs" of a rosapi/MessageDetails response),
+	 * which must include the definitions of all types it uses. The time and
+	 * duration types may be left out.
+	 *
+	 * @param type
+	 *            The message type to compile.
+	 * @param typedefs
+	 *            The rosapi type definitions.
+	 * @return The schema.
+	 * @throws IllegalArgumentException
+	 *             If a definition is missing or not valid.
+	 */
+	public static MessageSchema fromTypedefs(String type, JsonArray typedefs) {
+		return MessageSchema.compile(type, typedefs,
+				new HashMap<String, MessageSchema>());
+	}
+
+	/**
+	 * Compile the schema of the given type and of the types it uses, reusing
+	 * and adding to the given schemas.
+	 *
+	 * @param type
+	 *            The message type to compile.
+	 * @param typedefs
+	 *            The rosapi type definitions.
+	 * @param schemas
+	 *            The schemas compiled so far, by type.
+	 * @return The schema.
+	 * @throws IllegalArgumentException
+	 *             If a definition is missing or not valid.
+	 */
+	static MessageSchema compile(String type, JsonArray typedefs,
+			Map<String, MessageSchema> schemas) {
+		MessageSchema schema = schemas.get(type);
+		if (schema != null) {
+			return schema;
+		}
+
+		JsonObject typedef = null;
+		for (int i = 0; i < typedefs.size() && typedef == null; i++) {
+			JsonObject candidate = typedefs.getJsonObject(i);
+			if (type.equals(candidate.getString(MessageSchema.FIELD_TYPE, null))) {
+				typedef = candidate;
+			}
+		}
+		if (typedef == null) {
+			if (type.equals("time") || type.equals("duration")) {
+				// the built-in types have fixed fields
+				schema = new MessageSchema(type, new String[] { "secs",
+						"nsecs" }, new String[] { "int32", "int32" },
+						new int[] { MessageSchema.NOT_AN_ARRAY,
+								MessageSchema.NOT_AN_ARRAY },
+						new MessageSchema[2]);
+				schemas.put(type, schema);
+				return schema;
+			}
+			throw new IllegalArgumentException("No definition of " + type);
+		}
+
+		try {
+			JsonArray names = typedef
+					.getJsonArray(MessageSchema.FIELD_FIELD_NAMES);
+			JsonArray types = typedef
+					.getJsonArray(MessageSchema.FIELD_FIELD_TYPES);
+			JsonArray lengths = typedef
+					.getJsonArray(MessageSchema.FIELD_FIELD_ARRAY_LENGTHS);
+			int count = names == null ? 0 : names.size();
+			String[] fieldNames = new String[count];
+			String[] fieldTypes = new String[count];
+			int[] arrayLengths = new int[count];
+			MessageSchema[] nested = new MessageSchema[count];
+			for (int i = 0; i < count; i++) {
+				fieldNames[i] = names.getString(i);
+				fieldTypes[i] = types.getString(i);
+				arrayLengths[i] = lengths == null ? MessageSchema.NOT_AN_ARRAY
+						: lengths.getInt(i);
+				if (!MessageSchema.KINDS.containsKey(fieldTypes[i])) {
+					nested[i] = MessageSchema.compile(fieldTypes[i], typedefs,
+							schemas);
+				}
+			}
+			schema = new MessageSchema(type, fieldNames, fieldTypes,
+					arrayLengths, nested);
+		} catch (ClassCastException | IndexOutOfBoundsException
+				| NullPointerException e) {
+			throw new IllegalArgumentException("Invalid definition of " + type
+					+ ": " + typedef, e);
+		}
+		schemas.put(type, schema);
+		return schema;
+	}
+}
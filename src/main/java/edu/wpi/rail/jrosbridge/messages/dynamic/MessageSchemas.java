@@ -0,0 +1,287 @@
+package edu.wpi.rail.jrosbridge.messages.dynamic;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonException;
+
+import edu.wpi.rail.jrosbridge.Ros;
+import edu.wpi.rail.jrosbridge.Service;
+import edu.wpi.rail.jrosbridge.callback.SchemaCallback;
+import edu.wpi.rail.jrosbridge.callback.ServiceCallback;
+import edu.wpi.rail.jrosbridge.services.ServiceRequest;
+import edu.wpi.rail.jrosbridge.services.ServiceResponse;
+
+/**
+ * The MessageSchemas class fetches the definitions of message types from
+ * rosapi and keeps the compiled {@link MessageSchema} of each type, so each
+ * type is only fetched and compiled once per connection. Schemas of the types
+ * used by a fetched type are kept as well.
+ *
+ * @version October 18, 2026
+ */
+public class MessageSchemas {
+
+	/**
+	 * The name of the rosapi service that gives the definition of a type.
+	 */
+	public static final String SERVICE_NAME = "/rosapi/message_details";
+
+	/**
+	 * The type of the rosapi service that gives the definition of a type.
+	 */
+	public static final String SERVICE_TYPE = "rosapi/MessageDetails";
+
+	/**
+	 * The name of the type field of the service request.
+	 */
+	public static final String FIELD_TYPE = "type";
+
+	/**
+	 * The name of the type definitions field of the service response.
+	 */
+	public static final String FIELD_TYPEDEFS = "typedefs";
+
+	/**
+	 * The default time to wait for a definition in milliseconds.
+	 */
+	public static final long DEFAULT_TIMEOUT = 10000;
+
+	private final Service service;
+	private final ConcurrentHashMap<String, MessageSchema> schemas;
+	// the callbacks waiting on each type that is being fetched
+	private final HashMap<String, List<SchemaCallback>> pending;
+
+	/**
+	 * Create a new cache of schemas fetched over the given connection.
+	 *
+	 * @param ros
+	 *            A handle to the ROS connection.
+	 */
+	public MessageSchemas(Ros ros) {
+		this.service = new Service(ros, MessageSchemas.SERVICE_NAME,
+				MessageSchemas.SERVICE_TYPE);
+		this.schemas = new ConcurrentHashMap<String, MessageSchema>();
+		this.pending = new HashMap<String, List<SchemaCallback>>();
+	}
+
+	/**
+	 * Get the schema of the given type if it has been fetched or registered.
+	 *
+	 * @param type
+	 *            The message type (e.g., "sensor_msgs/Imu").
+	 * @return The schema, or null if it is not known yet.
+	 */
+	public MessageSchema getSchema(String type) {
+		return this.schemas.get(type);
+	}
+
+	/**
+	 * Compile and keep the schema of the given type from the given rosapi
+	 * type definitions, without fetching anything. Schemas that are already
+	 * known are reused for the types it uses.
+	 *
+	 * @param type
+	 *            The message type.
+	 * @param typedefs
+	 *            The rosapi type definitions of the type and the types it
+	 *            uses.
+	 * @return The schema.
+	 * @throws IllegalArgumentException
+	 *             If a definition is missing or not valid.
+	 */
+	public synchronized MessageSchema register(String type, JsonArray typedefs) {
+		// compiled into a copy so a failure leaves no partial schemas behind
+		HashMap<String, MessageSchema> compiled = new HashMap<String, MessageSchema>(
+				this.schemas);
+		MessageSchema schema = MessageSchema.compile(type, typedefs, compiled);
+		this.schemas.putAll(compiled);
+		return schema;
+	}
+
+	/**
+	 * Get the schema of the given type, fetching it from rosapi if it is not
+	 * known yet. The callback is called once the schema is available, with
+	 * null if it could not be fetched (e.g., if the call could not be sent).
+	 * Concurrent requests for the same type share a single service call.
+	 *
+	 * @param type
+	 *            The message type (e.g., "sensor_msgs/Imu").
+	 * @param cb
+	 *            The callback to call with the schema.
+	 */
+	public void fetch(final String type, SchemaCallback cb) {
+		MessageSchema schema = this.schemas.get(type);
+		if (schema != null) {
+			cb.handleSchema(schema);
+			return;
+		}
+		synchronized (this.pending) {
+			List<SchemaCallback> waiting = this.pending.get(type);
+			if (waiting != null) {
+				waiting.add(cb);
+				return;
+			}
+			// it may have arrived in the meantime
+			schema = this.schemas.get(type);
+			if (schema == null) {
+				waiting = new ArrayList<SchemaCallback>();
+				waiting.add(cb);
+				this.pending.put(type, waiting);
+			}
+		}
+		if (schema != null) {
+			cb.handleSchema(schema);
+			return;
+		}
+
+		ServiceRequest request = new ServiceRequest(Json.createObjectBuilder()
+				.add(MessageSchemas.FIELD_TYPE, type).build(),
+				MessageSchemas.SERVICE_TYPE);
+		boolean sent = this.service.tryCallService(request,
+				new ServiceCallback() {
+					@Override
+					public void handleServiceResponse(ServiceResponse response) {
+						MessageSchemas.this.handleResponse(type, response);
+					}
+				});
+		if (!sent) {
+			// no response will come, so the next fetch tries again
+			System.err.println("[WARN]: Could not fetch the definition of "
+					+ type + ": the call could not be sent");
+			this.complete(type, null);
+		}
+	}
+
+	/**
+	 * Get the schema of the given type, fetching it from rosapi if it is not
+	 * known yet. This is a blocking call and will only return once the schema
+	 * is available, could not be fetched, or {@link #DEFAULT_TIMEOUT} has
+	 * passed.
+	 *
+	 * @param type
+	 *            The message type (e.g., "sensor_msgs/Imu").
+	 * @return The schema, or null if it could not be fetched in time.
+	 */
+	public MessageSchema fetchAndWait(String type) {
+		return this.fetchAndWait(type, MessageSchemas.DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Get the schema of the given type, fetching it from rosapi if it is not
+	 * known yet. This is a blocking call and will only return once the schema
+	 * is available, could not be fetched, or the timeout has passed.
+	 *
+	 * @param type
+	 *            The message type (e.g., "sensor_msgs/Imu").
+	 * @param timeout
+	 *            The longest time to wait in milliseconds.
+	 * @return The schema, or null if it could not be fetched in time.
+	 */
+	public MessageSchema fetchAndWait(String type, long timeout) {
+		final MessageSchema[] result = new MessageSchema[1];
+		final CountDownLatch done = new CountDownLatch(1);
+		SchemaCallback cb = new SchemaCallback() {
+			@Override
+			public void handleSchema(MessageSchema schema) {
+				result[0] = schema;
+				done.countDown();
+			}
+		};
+		this.fetch(type, cb);
+
+		long deadline = System.nanoTime()
+				+ TimeUnit.MILLISECONDS.toNanos(timeout);
+		boolean interrupted = false;
+		while (done.getCount() > 0) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				this.cancel(type, cb);
+				break;
+			}
+			try {
+				done.await(remaining, TimeUnit.NANOSECONDS);
+			} catch (InterruptedException e) {
+				// continue on
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		return done.getCount() == 0 ? result[0] : null;
+	}
+
+	/**
+	 * Stop waiting on the given type with the given callback. Once nothing
+	 * waits on the type any more, the next fetch of it makes a new call.
+	 *
+	 * @param type
+	 *            The message type being fetched.
+	 * @param cb
+	 *            The callback to remove.
+	 */
+	private void cancel(String type, SchemaCallback cb) {
+		synchronized (this.pending) {
+			List<SchemaCallback> waiting = this.pending.get(type);
+			if (waiting != null && waiting.remove(cb) && waiting.isEmpty()) {
+				this.pending.remove(type);
+			}
+		}
+	}
+
+	/**
+	 * Compile the schema of a rosapi response and call the callbacks waiting
+	 * on it.
+	 *
+	 * @param type
+	 *            The message type that was fetched.
+	 * @param response
+	 *            The rosapi response.
+	 */
+	private void handleResponse(String type, ServiceResponse response) {
+		MessageSchema schema = null;
+		if (!response.getResult()) {
+			System.err.println("[WARN]: Could not fetch the definition of "
+					+ type + ": " + response.toString());
+		} else {
+			try {
+				schema = this.register(type, response.toJsonObject()
+						.getJsonArray(MessageSchemas.FIELD_TYPEDEFS));
+			} catch (IllegalArgumentException | JsonException
+					| ClassCastException | NullPointerException e) {
+				System.err.println("[WARN]: Could not compile the definition of "
+						+ type + ": " + e.getMessage());
+			}
+		}
+
+		this.complete(type, schema);
+	}
+
+	/**
+	 * Call the callbacks waiting on the given type with the given schema, and
+	 * stop waiting on it.
+	 *
+	 * @param type
+	 *            The message type that was fetched.
+	 * @param schema
+	 *            The schema, or null if it could not be fetched.
+	 */
+	private void complete(String type, MessageSchema schema) {
+		List<SchemaCallback> waiting;
+		synchronized (this.pending) {
+			waiting = this.pending.remove(type);
+		}
+		if (waiting != null) {
+			for (SchemaCallback cb : waiting) {
+				cb.handleSchema(schema);
+			}
+		}
+	}
+}
@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -148,4 +150,35 @@ public class Point32 extends Message {
 				.getJsonNumber(Point32.FIELD_Z).doubleValue() : 0.0f;
 		return new Point32(x, y, z);
 	}
+
+	/**
+	 * Create a new Point32 based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Point32 message based on the parsed JSON.
+	 */
+	public static Point32 fromJsonParser(JsonParser parser) {
+		float x = 0.0f;
+		float y = 0.0f;
+		float z = 0.0f;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Point32.FIELD_X)) {
+				x = JsonStreams.readFloat(parser);
+			} else if (field.equals(Point32.FIELD_Y)) {
+				y = JsonStreams.readFloat(parser);
+			} else if (field.equals(Point32.FIELD_Z)) {
+				z = JsonStreams.readFloat(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new Point32(x, y, z);
+	}
 }
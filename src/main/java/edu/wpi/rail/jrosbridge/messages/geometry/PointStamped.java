@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.messages.std.Header;
 
@@ -129,4 +131,42 @@ public class PointStamped extends Message {
 						.getJsonObject(PointStamped.FIELD_POINT)) : new Point();
 		return new PointStamped(header, point);
 	}
+
+	/**
+	 * Create a new PointStamped based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A PointStamped message based on the parsed JSON.
+	 */
+	public static PointStamped fromJsonParser(JsonParser parser) {
+		Header header = null;
+		Point point = null;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(PointStamped.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(PointStamped.FIELD_POINT)) {
+				JsonStreams.beginObject(parser);
+				point = Point.fromJsonParser(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		if (point == null) {
+			point = new Point();
+		}
+		return new PointStamped(header, point);
+	}
 }
@@ -1,12 +1,15 @@
 package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
 
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -144,4 +147,34 @@ public class Polygon extends Message {
 			return new Polygon();
 		}
 	}
+
+	/**
+	 * Create a new Polygon based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Polygon message based on the parsed JSON.
+	 */
+	public static Polygon fromJsonParser(JsonParser parser) {
+		Point32[] points = new Point32[] {};
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Polygon.FIELD_POINTS)) {
+				ArrayList<Point32> list = new ArrayList<Point32>();
+				JsonStreams.beginArray(parser);
+				while (JsonStreams.nextElement(parser)) {
+					list.add(Point32.fromJsonParser(parser));
+				}
+				points = list.toArray(new Point32[list.size()]);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new Polygon(points);
+	}
 }
@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -128,4 +130,42 @@ public class Pose extends Message {
 				: new Quaternion();
 		return new Pose(position, orientation);
 	}
+
+	/**
+	 * Create a new Pose based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Pose message based on the parsed JSON.
+	 */
+	public static Pose fromJsonParser(JsonParser parser) {
+		Point position = null;
+		Quaternion orientation = null;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Pose.FIELD_POSITION)) {
+				JsonStreams.beginObject(parser);
+				position = Point.fromJsonParser(parser);
+			} else if (field.equals(Pose.FIELD_ORIENTATION)) {
+				JsonStreams.beginObject(parser);
+				orientation = Quaternion.fromJsonParser(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (position == null) {
+			position = new Point();
+		}
+		if (orientation == null) {
+			orientation = new Quaternion();
+		}
+		return new Pose(position, orientation);
+	}
 }
@@ -1,12 +1,15 @@
 package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
 
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.messages.std.Header;
 
@@ -169,4 +172,43 @@ public class PoseArray extends Message {
 			return new PoseArray(header, new Pose[] {});
 		}
 	}
+
+	/**
+	 * Create a new PoseArray based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A PoseArray message based on the parsed JSON.
+	 */
+	public static PoseArray fromJsonParser(JsonParser parser) {
+		Header header = null;
+		Pose[] poses = new Pose[] {};
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(PoseArray.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(PoseArray.FIELD_POSES)) {
+				ArrayList<Pose> list = new ArrayList<Pose>();
+				JsonStreams.beginArray(parser);
+				while (JsonStreams.nextElement(parser)) {
+					list.add(Pose.fromJsonParser(parser));
+				}
+				poses = list.toArray(new Pose[list.size()]);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		return new PoseArray(header, poses);
+	}
 }
@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.messages.std.Header;
 
@@ -129,4 +131,42 @@ public class PoseStamped extends Message {
 						.getJsonObject(PoseStamped.FIELD_POSE)) : new Pose();
 		return new PoseStamped(header, pose);
 	}
+
+	/**
+	 * Create a new PoseStamped based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A PoseStamped message based on the parsed JSON.
+	 */
+	public static PoseStamped fromJsonParser(JsonParser parser) {
+		Header header = null;
+		Pose pose = null;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(PoseStamped.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(PoseStamped.FIELD_POSE)) {
+				JsonStreams.beginObject(parser);
+				pose = Pose.fromJsonParser(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		if (pose == null) {
+			pose = new Pose();
+		}
+		return new PoseStamped(header, pose);
+	}
 }
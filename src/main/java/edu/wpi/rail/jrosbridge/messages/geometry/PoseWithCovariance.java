@@ -6,7 +6,9 @@ import java.util.Arrays;
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -211,4 +213,38 @@ public class PoseWithCovariance extends Message {
 					new double[PoseWithCovariance.COVARIANCE_SIZE]);
 		}
 	}
+
+	/**
+	 * Create a new PoseWithCovariance based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A PoseWithCovariance message based on the parsed JSON.
+	 */
+	public static PoseWithCovariance fromJsonParser(JsonParser parser) {
+		Pose pose = null;
+		double[] covariance = new double[PoseWithCovariance.COVARIANCE_SIZE];
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(PoseWithCovariance.FIELD_POSE)) {
+				JsonStreams.beginObject(parser);
+				pose = Pose.fromJsonParser(parser);
+			} else if (field.equals(PoseWithCovariance.FIELD_COVARIANCE)) {
+				covariance = JsonStreams.readDoubleArray(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (pose == null) {
+			pose = new Pose();
+		}
+		return new PoseWithCovariance(pose, covariance);
+	}
 }
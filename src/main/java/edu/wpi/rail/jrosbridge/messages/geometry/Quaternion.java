@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -161,4 +163,38 @@ public class Quaternion extends Message {
 				.getJsonNumber(Quaternion.FIELD_W).doubleValue() : 0.0;
 		return new Quaternion(x, y, z, w);
 	}
+
+	/**
+	 * Create a new Quaternion based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Quaternion message based on the parsed JSON.
+	 */
+	public static Quaternion fromJsonParser(JsonParser parser) {
+		double x = 0.0;
+		double y = 0.0;
+		double z = 0.0;
+		double w = 0.0;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Quaternion.FIELD_X)) {
+				x = JsonStreams.readDouble(parser);
+			} else if (field.equals(Quaternion.FIELD_Y)) {
+				y = JsonStreams.readDouble(parser);
+			} else if (field.equals(Quaternion.FIELD_Z)) {
+				z = JsonStreams.readDouble(parser);
+			} else if (field.equals(Quaternion.FIELD_W)) {
+				w = JsonStreams.readDouble(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new Quaternion(x, y, z, w);
+	}
 }
@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.messages.std.Header;
 
@@ -133,4 +135,42 @@ public class QuaternionStamped extends Message {
 				: new Quaternion();
 		return new QuaternionStamped(header, quaternion);
 	}
+
+	/**
+	 * Create a new QuaternionStamped based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A QuaternionStamped message based on the parsed JSON.
+	 */
+	public static QuaternionStamped fromJsonParser(JsonParser parser) {
+		Header header = null;
+		Quaternion quaternion = null;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(QuaternionStamped.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(QuaternionStamped.FIELD_QUATERNION)) {
+				JsonStreams.beginObject(parser);
+				quaternion = Quaternion.fromJsonParser(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		if (quaternion == null) {
+			quaternion = new Quaternion();
+		}
+		return new QuaternionStamped(header, quaternion);
+	}
 }
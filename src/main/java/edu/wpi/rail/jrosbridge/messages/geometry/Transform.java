@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -130,4 +132,42 @@ public class Transform extends Message {
 				: new Quaternion();
 		return new Transform(translation, rotation);
 	}
+
+	/**
+	 * Create a new Transform based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Transform message based on the parsed JSON.
+	 */
+	public static Transform fromJsonParser(JsonParser parser) {
+		Vector3 translation = null;
+		Quaternion rotation = null;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Transform.FIELD_TRANSLATION)) {
+				JsonStreams.beginObject(parser);
+				translation = Vector3.fromJsonParser(parser);
+			} else if (field.equals(Transform.FIELD_ROTATION)) {
+				JsonStreams.beginObject(parser);
+				rotation = Quaternion.fromJsonParser(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (translation == null) {
+			translation = new Vector3();
+		}
+		if (rotation == null) {
+			rotation = new Quaternion();
+		}
+		return new Transform(translation, rotation);
+	}
 }
@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.messages.std.Header;
 
@@ -162,4 +164,46 @@ public class TransformStamped extends Message {
 				: new Transform();
 		return new TransformStamped(header, childFrameID, transform);
 	}
+
+	/**
+	 * Create a new TransformStamped based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A TransformStamped message based on the parsed JSON.
+	 */
+	public static TransformStamped fromJsonParser(JsonParser parser) {
+		Header header = null;
+		String childFrameID = "";
+		Transform transform = null;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(TransformStamped.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(TransformStamped.FIELD_CHILD_FRAME_ID)) {
+				childFrameID = JsonStreams.readString(parser);
+			} else if (field.equals(TransformStamped.FIELD_TRANSFORM)) {
+				JsonStreams.beginObject(parser);
+				transform = Transform.fromJsonParser(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		if (transform == null) {
+			transform = new Transform();
+		}
+		return new TransformStamped(header, childFrameID,
+				transform);
+	}
 }
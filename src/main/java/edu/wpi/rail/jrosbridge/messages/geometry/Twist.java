@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -127,4 +129,42 @@ public class Twist extends Message {
 				: new Vector3();
 		return new Twist(linear, angular);
 	}
+
+	/**
+	 * Create a new Twist based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Twist message based on the parsed JSON.
+	 */
+	public static Twist fromJsonParser(JsonParser parser) {
+		Vector3 linear = null;
+		Vector3 angular = null;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Twist.FIELD_LINEAR)) {
+				JsonStreams.beginObject(parser);
+				linear = Vector3.fromJsonParser(parser);
+			} else if (field.equals(Twist.FIELD_ANGULAR)) {
+				JsonStreams.beginObject(parser);
+				angular = Vector3.fromJsonParser(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (linear == null) {
+			linear = new Vector3();
+		}
+		if (angular == null) {
+			angular = new Vector3();
+		}
+		return new Twist(linear, angular);
+	}
 }
@@ -6,7 +6,9 @@ import java.util.Arrays;
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -212,4 +214,38 @@ public class TwistWithCovariance extends Message {
 					new double[TwistWithCovariance.COVARIANCE_SIZE]);
 		}
 	}
+
+	/**
+	 * Create a new TwistWithCovariance based on the given streaming JSON
+	 * parser, without building a JSON object first. Any missing values will be
+	 * set to their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A TwistWithCovariance message based on the parsed JSON.
+	 */
+	public static TwistWithCovariance fromJsonParser(JsonParser parser) {
+		Twist twist = null;
+		double[] covariance = new double[TwistWithCovariance.COVARIANCE_SIZE];
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(TwistWithCovariance.FIELD_TWIST)) {
+				JsonStreams.beginObject(parser);
+				twist = Twist.fromJsonParser(parser);
+			} else if (field.equals(TwistWithCovariance.FIELD_COVARIANCE)) {
+				covariance = JsonStreams.readDoubleArray(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (twist == null) {
+			twist = new Twist();
+		}
+		return new TwistWithCovariance(twist, covariance);
+	}
 }
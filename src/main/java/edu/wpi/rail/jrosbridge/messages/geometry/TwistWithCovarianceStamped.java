@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.messages.std.Header;
 
@@ -138,4 +140,42 @@ public class TwistWithCovarianceStamped extends Message {
 				: new TwistWithCovariance();
 		return new TwistWithCovarianceStamped(header, twist);
 	}
+
+	/**
+	 * Create a new TwistWithCovarianceStamped based on the given streaming JSON
+	 * parser, without building a JSON object first. Any missing values will be
+	 * set to their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A TwistWithCovarianceStamped message based on the parsed JSON.
+	 */
+	public static TwistWithCovarianceStamped fromJsonParser(JsonParser parser) {
+		Header header = null;
+		TwistWithCovariance twist = null;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(TwistWithCovarianceStamped.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(TwistWithCovarianceStamped.FIELD_TWIST)) {
+				JsonStreams.beginObject(parser);
+				twist = TwistWithCovariance.fromJsonParser(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		if (twist == null) {
+			twist = new TwistWithCovariance();
+		}
+		return new TwistWithCovarianceStamped(header, twist);
+	}
 }
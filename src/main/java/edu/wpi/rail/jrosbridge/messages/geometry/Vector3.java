@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -141,4 +143,35 @@ public class Vector3 extends Message {
 				.getJsonNumber(Vector3.FIELD_Z).doubleValue() : 0.0;
 		return new Vector3(x, y, z);
 	}
+
+	/**
+	 * Create a new Vector3 based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Vector3 message based on the parsed JSON.
+	 */
+	public static Vector3 fromJsonParser(JsonParser parser) {
+		double x = 0.0;
+		double y = 0.0;
+		double z = 0.0;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Vector3.FIELD_X)) {
+				x = JsonStreams.readDouble(parser);
+			} else if (field.equals(Vector3.FIELD_Y)) {
+				y = JsonStreams.readDouble(parser);
+			} else if (field.equals(Vector3.FIELD_Z)) {
+				z = JsonStreams.readDouble(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new Vector3(x, y, z);
+	}
 }
@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.messages.std.Header;
 
@@ -130,4 +132,42 @@ public class Vector3Stamped extends Message {
 				: new Vector3();
 		return new Vector3Stamped(header, vector);
 	}
+
+	/**
+	 * Create a new Vector3Stamped based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Vector3Stamped message based on the parsed JSON.
+	 */
+	public static Vector3Stamped fromJsonParser(JsonParser parser) {
+		Header header = null;
+		Vector3 vector = null;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Vector3Stamped.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(Vector3Stamped.FIELD_VECTOR)) {
+				JsonStreams.beginObject(parser);
+				vector = Vector3.fromJsonParser(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		if (vector == null) {
+			vector = new Vector3();
+		}
+		return new Vector3Stamped(header, vector);
+	}
 }
@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -127,4 +129,42 @@ public class Wrench extends Message {
 				: new Vector3();
 		return new Wrench(force, torque);
 	}
+
+	/**
+	 * Create a new Wrench based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Wrench message based on the parsed JSON.
+	 */
+	public static Wrench fromJsonParser(JsonParser parser) {
+		Vector3 force = null;
+		Vector3 torque = null;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Wrench.FIELD_FORCE)) {
+				JsonStreams.beginObject(parser);
+				force = Vector3.fromJsonParser(parser);
+			} else if (field.equals(Wrench.FIELD_TORQUE)) {
+				JsonStreams.beginObject(parser);
+				torque = Vector3.fromJsonParser(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (force == null) {
+			force = new Vector3();
+		}
+		if (torque == null) {
+			torque = new Vector3();
+		}
+		return new Wrench(force, torque);
+	}
 }
@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.messages.std.Header;
 
@@ -131,4 +133,42 @@ public class WrenchStamped extends Message {
 				: new Wrench();
 		return new WrenchStamped(header, wrench);
 	}
+
+	/**
+	 * Create a new WrenchStamped based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A WrenchStamped message based on the parsed JSON.
+	 */
+	public static WrenchStamped fromJsonParser(JsonParser parser) {
+		Header header = null;
+		Wrench wrench = null;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(WrenchStamped.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(WrenchStamped.FIELD_WRENCH)) {
+				JsonStreams.beginObject(parser);
+				wrench = Wrench.fromJsonParser(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		if (wrench == null) {
+			wrench = new Wrench();
+		}
+		return new WrenchStamped(header, wrench);
+	}
 }
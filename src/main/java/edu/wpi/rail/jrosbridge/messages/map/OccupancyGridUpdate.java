@@ -0,0 +1,317 @@
+package edu.wpi.rail.jrosbridge.messages.map;
+
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.primitives.Primitive;
+
+/**
+ * The map_msgs/OccupancyGridUpdate message. A rectangle of new cell values
+ * for an occupancy grid (e.g., as published on "/map_updates" or a costmap's
+ * "costmap_updates"), stored row by row, with (x, y) the cell of the grid at
+ * its first corner.
+ *
+ * @version October 18, 2026
+ */
+public class OccupancyGridUpdate extends Message {
+
+	/**
+	 * The name of the header field for the message.
+	 */
+	public static final String FIELD_HEADER = "header";
+
+	/**
+	 * The name of the x field for the message.
+	 */
+	public static final String FIELD_X = "x";
+
+	/**
+	 * The name of the y field for the message.
+	 */
+	public static final String FIELD_Y = "y";
+
+	/**
+	 * The name of the width field for the message.
+	 */
+	public static final String FIELD_WIDTH = "width";
+
+	/**
+	 * The name of the height field for the message.
+	 */
+	public static final String FIELD_HEIGHT = "height";
+
+	/**
+	 * The name of the data field for the message.
+	 */
+	public static final String FIELD_DATA = "data";
+
+	/**
+	 * The message type.
+	 */
+	public static final String TYPE = "map_msgs/OccupancyGridUpdate";
+
+	private final Header header;
+	private final int x, y, width, height;
+	private final byte[] data;
+
+	/**
+	 * Create a new, empty OccupancyGridUpdate.
+	 */
+	public OccupancyGridUpdate() {
+		this(new Header(), 0, 0, 0, 0, new byte[] {}, true);
+	}
+
+	/**
+	 * Create a new OccupancyGridUpdate with the given values. The array of
+	 * data will be copied into this object.
+	 *
+	 * @param header
+	 *            The header of the update.
+	 * @param x
+	 *            The column of the first cell of the rectangle.
+	 * @param y
+	 *            The row of the first cell of the rectangle.
+	 * @param width
+	 *            The number of columns of the rectangle, treated as an
+	 *            unsigned 32-bit integer.
+	 * @param height
+	 *            The number of rows of the rectangle, treated as an unsigned
+	 *            32-bit integer.
+	 * @param data
+	 *            The new cells of the rectangle, row by row.
+	 */
+	public OccupancyGridUpdate(Header header, int x, int y, int width,
+			int height, byte[] data) {
+		this(header, x, y, width, height, data.clone(), true);
+	}
+
+	/**
+	 * Create a new OccupancyGridUpdate that takes ownership of the given array
+	 * of data instead of copying it.
+	 *
+	 * @param header
+	 *            The header of the update.
+	 * @param x
+	 *            The column of the first cell of the rectangle.
+	 * @param y
+	 *            The row of the first cell of the rectangle.
+	 * @param width
+	 *            The number of columns of the rectangle.
+	 * @param height
+	 *            The number of rows of the rectangle.
+	 * @param data
+	 *            The new cells, which must not be used elsewhere.
+	 * @param owned
+	 *            Marks this constructor; ignored.
+	 */
+	private OccupancyGridUpdate(Header header, int x, int y, int width,
+			int height, byte[] data, boolean owned) {
+		// the JSON is written from the data when it is first needed
+		super((JsonObject) null, OccupancyGridUpdate.TYPE);
+		this.header = header;
+		this.x = x;
+		this.y = y;
+		this.width = width;
+		this.height = height;
+		this.data = data;
+	}
+
+	/**
+	 * Get the header value of this update.
+	 *
+	 * @return The header value of this update.
+	 */
+	public Header getHeader() {
+		return this.header;
+	}
+
+	/**
+	 * Get the x value of this update.
+	 *
+	 * @return The column of the first cell of the rectangle.
+	 */
+	public int getX() {
+		return this.x;
+	}
+
+	/**
+	 * Get the y value of this update.
+	 *
+	 * @return The row of the first cell of the rectangle.
+	 */
+	public int getY() {
+		return this.y;
+	}
+
+	/**
+	 * Get the width value of this update, which should be treated as an
+	 * unsigned 32-bit integer.
+	 *
+	 * @return The number of columns of the rectangle.
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * Get the height value of this update, which should be treated as an
+	 * unsigned 32-bit integer.
+	 *
+	 * @return The number of rows of the rectangle.
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Get the number of cells of this update.
+	 *
+	 * @return The size of the data.
+	 */
+	public int size() {
+		return this.data.length;
+	}
+
+	/**
+	 * Get the data array. Note that this array should never be modified
+	 * directly.
+	 *
+	 * @return The new cells of the rectangle, row by row.
+	 */
+	public byte[] getData() {
+		return this.data;
+	}
+
+	/**
+	 * Write the fields of this OccupancyGridUpdate.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 */
+	@Override
+	public void writeJsonFields(JsonGenerator generator) {
+		JsonStreams.writeObject(generator, OccupancyGridUpdate.FIELD_HEADER,
+				this.header);
+		generator.write(OccupancyGridUpdate.FIELD_X, this.x);
+		generator.write(OccupancyGridUpdate.FIELD_Y, this.y);
+		generator.write(OccupancyGridUpdate.FIELD_WIDTH,
+				Primitive.fromUInt32(this.width));
+		generator.write(OccupancyGridUpdate.FIELD_HEIGHT,
+				Primitive.fromUInt32(this.height));
+		JsonStreams.writeArray(generator, OccupancyGridUpdate.FIELD_DATA,
+				this.data);
+	}
+
+	/**
+	 * Create a clone of this OccupancyGridUpdate.
+	 */
+	@Override
+	public OccupancyGridUpdate clone() {
+		return new OccupancyGridUpdate(this.header, this.x, this.y,
+				this.width, this.height, this.data);
+	}
+
+	/**
+	 * Create a new OccupancyGridUpdate based on the given JSON string. Any
+	 * missing values will be set to their defaults.
+	 *
+	 * @param jsonString
+	 *            The JSON string to parse.
+	 * @return An OccupancyGridUpdate message based on the given JSON string.
+	 */
+	public static OccupancyGridUpdate fromJsonString(String jsonString) {
+		// convert to a message
+		return OccupancyGridUpdate.fromMessage(new Message(jsonString));
+	}
+
+	/**
+	 * Create a new OccupancyGridUpdate based on the given Message. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param m
+	 *            The Message to parse.
+	 * @return An OccupancyGridUpdate message based on the given Message.
+	 */
+	public static OccupancyGridUpdate fromMessage(Message m) {
+		// get it from the JSON object
+		return OccupancyGridUpdate.fromJsonObject(m.toJsonObject());
+	}
+
+	/**
+	 * Create a new OccupancyGridUpdate based on the given JSON object. Any
+	 * missing values will be set to their defaults.
+	 *
+	 * @param jsonObject
+	 *            The JSON object to parse.
+	 * @return An OccupancyGridUpdate message based on the given JSON object.
+	 */
+	public static OccupancyGridUpdate fromJsonObject(JsonObject jsonObject) {
+		// check the fields
+		Header header = jsonObject
+				.containsKey(OccupancyGridUpdate.FIELD_HEADER) ? Header
+				.fromJsonObject(jsonObject
+						.getJsonObject(OccupancyGridUpdate.FIELD_HEADER))
+				: new Header();
+		int x = jsonObject.getInt(OccupancyGridUpdate.FIELD_X, 0);
+		int y = jsonObject.getInt(OccupancyGridUpdate.FIELD_Y, 0);
+		int width = jsonObject.containsKey(OccupancyGridUpdate.FIELD_WIDTH) ? Primitive
+				.toUInt32(jsonObject.getJsonNumber(
+						OccupancyGridUpdate.FIELD_WIDTH).longValue())
+				: 0;
+		int height = jsonObject.containsKey(OccupancyGridUpdate.FIELD_HEIGHT) ? Primitive
+				.toUInt32(jsonObject.getJsonNumber(
+						OccupancyGridUpdate.FIELD_HEIGHT).longValue())
+				: 0;
+		byte[] data = JsonStreams.readByteArray(jsonObject
+				.get(OccupancyGridUpdate.FIELD_DATA));
+		return new OccupancyGridUpdate(header, x, y, width, height, data, true);
+	}
+
+	/**
+	 * Create a new OccupancyGridUpdate based on the given streaming JSON
+	 * parser, without building a JSON object first. The cells are read
+	 * straight into the byte array of the update. Any missing values will be
+	 * set to their defaults.
+	 *
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return An OccupancyGridUpdate message based on the parsed JSON.
+	 */
+	public static OccupancyGridUpdate fromJsonParser(JsonParser parser) {
+		Header header = null;
+		int x = 0, y = 0, width = 0, height = 0;
+		byte[] data = new byte[] {};
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(OccupancyGridUpdate.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(OccupancyGridUpdate.FIELD_X)) {
+				x = JsonStreams.readInt(parser);
+			} else if (field.equals(OccupancyGridUpdate.FIELD_Y)) {
+				y = JsonStreams.readInt(parser);
+			} else if (field.equals(OccupancyGridUpdate.FIELD_WIDTH)) {
+				width = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(OccupancyGridUpdate.FIELD_HEIGHT)) {
+				height = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(OccupancyGridUpdate.FIELD_DATA)) {
+				data = JsonStreams.readByteArray(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		return new OccupancyGridUpdate(header, x, y, width, height, data, true);
+	}
+}
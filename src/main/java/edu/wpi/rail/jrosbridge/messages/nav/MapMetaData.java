@@ -0,0 +1,255 @@
+package edu.wpi.rail.jrosbridge.messages.nav;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.geometry.Pose;
+import edu.wpi.rail.jrosbridge.primitives.Primitive;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+/**
+ * The nav_msgs/MapMetaData message. Describes an occupancy grid: when it was
+ * loaded, the size of each cell, its size in cells, and the pose of cell
+ * (0, 0) in the map frame.
+ *
+ * @version October 18, 2026
+ */
+public class MapMetaData extends Message {
+
+	/**
+	 * The name of the map load time field for the message.
+	 */
+	public static final String FIELD_MAP_LOAD_TIME = "map_load_time";
+
+	/**
+	 * The name of the resolution field for the message.
+	 */
+	public static final String FIELD_RESOLUTION = "resolution";
+
+	/**
+	 * The name of the width field for the message.
+	 */
+	public static final String FIELD_WIDTH = "width";
+
+	/**
+	 * The name of the height field for the message.
+	 */
+	public static final String FIELD_HEIGHT = "height";
+
+	/**
+	 * The name of the origin field for the message.
+	 */
+	public static final String FIELD_ORIGIN = "origin";
+
+	/**
+	 * The message type.
+	 */
+	public static final String TYPE = "nav_msgs/MapMetaData";
+
+	private final Time mapLoadTime;
+	private final float resolution;
+	private final int width, height;
+	private final Pose origin;
+
+	/**
+	 * Create a new MapMetaData with all empty values.
+	 */
+	public MapMetaData() {
+		this(new Time(), 0, 0, 0, new Pose());
+	}
+
+	/**
+	 * Create a new MapMetaData with the given values.
+	 *
+	 * @param mapLoadTime
+	 *            The time the map was loaded.
+	 * @param resolution
+	 *            The size of each cell in meters.
+	 * @param width
+	 *            The number of columns, treated as an unsigned 32-bit
+	 *            integer.
+	 * @param height
+	 *            The number of rows, treated as an unsigned 32-bit integer.
+	 * @param origin
+	 *            The pose of cell (0, 0) in the map frame.
+	 */
+	public MapMetaData(Time mapLoadTime, float resolution, int width,
+			int height, Pose origin) {
+		// build the JSON object
+		super(Json
+				.createObjectBuilder()
+				.add(MapMetaData.FIELD_MAP_LOAD_TIME,
+						mapLoadTime.toJsonObject())
+				.add(MapMetaData.FIELD_RESOLUTION, resolution)
+				.add(MapMetaData.FIELD_WIDTH, Primitive.fromUInt32(width))
+				.add(MapMetaData.FIELD_HEIGHT, Primitive.fromUInt32(height))
+				.add(MapMetaData.FIELD_ORIGIN, origin.toJsonObject()).build(),
+				MapMetaData.TYPE);
+		this.mapLoadTime = mapLoadTime;
+		this.resolution = resolution;
+		this.width = width;
+		this.height = height;
+		this.origin = origin;
+	}
+
+	/**
+	 * Get the map load time value of this message.
+	 *
+	 * @return The time the map was loaded.
+	 */
+	public Time getMapLoadTime() {
+		return this.mapLoadTime;
+	}
+
+	/**
+	 * Get the resolution value of this message.
+	 *
+	 * @return The size of each cell in meters.
+	 */
+	public float getResolution() {
+		return this.resolution;
+	}
+
+	/**
+	 * Get the width value of this message, which should be treated as an
+	 * unsigned 32-bit integer.
+	 *
+	 * @return The number of columns.
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * Get the height value of this message, which should be treated as an
+	 * unsigned 32-bit integer.
+	 *
+	 * @return The number of rows.
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Get the origin value of this message.
+	 *
+	 * @return The pose of cell (0, 0) in the map frame.
+	 */
+	public Pose getOrigin() {
+		return this.origin;
+	}
+
+	/**
+	 * Create a clone of this MapMetaData.
+	 */
+	@Override
+	public MapMetaData clone() {
+		return new MapMetaData(this.mapLoadTime, this.resolution, this.width,
+				this.height, this.origin);
+	}
+
+	/**
+	 * Create a new MapMetaData based on the given JSON string. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param jsonString
+	 *            The JSON string to parse.
+	 * @return A MapMetaData message based on the given JSON string.
+	 */
+	public static MapMetaData fromJsonString(String jsonString) {
+		// convert to a message
+		return MapMetaData.fromMessage(new Message(jsonString));
+	}
+
+	/**
+	 * Create a new MapMetaData based on the given Message. Any missing values
+	 * will be set to their defaults.
+	 *
+	 * @param m
+	 *            The Message to parse.
+	 * @return A MapMetaData message based on the given Message.
+	 */
+	public static MapMetaData fromMessage(Message m) {
+		// get it from the JSON object
+		return MapMetaData.fromJsonObject(m.toJsonObject());
+	}
+
+	/**
+	 * Create a new MapMetaData based on the given JSON object. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param jsonObject
+	 *            The JSON object to parse.
+	 * @return A MapMetaData message based on the given JSON object.
+	 */
+	public static MapMetaData fromJsonObject(JsonObject jsonObject) {
+		// check the fields
+		Time mapLoadTime = jsonObject
+				.containsKey(MapMetaData.FIELD_MAP_LOAD_TIME) ? Time
+				.fromJsonObject(jsonObject
+						.getJsonObject(MapMetaData.FIELD_MAP_LOAD_TIME))
+				: new Time();
+		float resolution = jsonObject
+				.containsKey(MapMetaData.FIELD_RESOLUTION) ? (float) jsonObject
+				.getJsonNumber(MapMetaData.FIELD_RESOLUTION).doubleValue() : 0;
+		int width = jsonObject.containsKey(MapMetaData.FIELD_WIDTH) ? Primitive
+				.toUInt32(jsonObject.getJsonNumber(MapMetaData.FIELD_WIDTH)
+						.longValue()) : 0;
+		int height = jsonObject.containsKey(MapMetaData.FIELD_HEIGHT) ? Primitive
+				.toUInt32(jsonObject.getJsonNumber(MapMetaData.FIELD_HEIGHT)
+						.longValue()) : 0;
+		Pose origin = jsonObject.containsKey(MapMetaData.FIELD_ORIGIN) ? Pose
+				.fromJsonObject(jsonObject
+						.getJsonObject(MapMetaData.FIELD_ORIGIN)) : new Pose();
+		return new MapMetaData(mapLoadTime, resolution, width, height, origin);
+	}
+
+	/**
+	 * Create a new MapMetaData based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 *
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A MapMetaData message based on the parsed JSON.
+	 */
+	public static MapMetaData fromJsonParser(JsonParser parser) {
+		Time mapLoadTime = null;
+		float resolution = 0;
+		int width = 0, height = 0;
+		Pose origin = null;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(MapMetaData.FIELD_MAP_LOAD_TIME)) {
+				JsonStreams.beginObject(parser);
+				mapLoadTime = Time.fromJsonParser(parser);
+			} else if (field.equals(MapMetaData.FIELD_RESOLUTION)) {
+				resolution = JsonStreams.readFloat(parser);
+			} else if (field.equals(MapMetaData.FIELD_WIDTH)) {
+				width = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(MapMetaData.FIELD_HEIGHT)) {
+				height = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(MapMetaData.FIELD_ORIGIN)) {
+				JsonStreams.beginObject(parser);
+				origin = Pose.fromJsonParser(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (mapLoadTime == null) {
+			mapLoadTime = new Time();
+		}
+		if (origin == null) {
+			origin = new Pose();
+		}
+		return new MapMetaData(mapLoadTime, resolution, width, height, origin);
+	}
+}
@@ -0,0 +1,257 @@
+package edu.wpi.rail.jrosbridge.messages.nav;
+
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+
+/**
+ * The nav_msgs/OccupancyGrid message. A 2D grid map, stored row by row
+ * starting at cell (0, 0), where each cell is the probability of occupancy in
+ * percent (0 to 100) or {@link #UNKNOWN}. The cells are kept as one byte each
+ * and are decoded straight into that array by
+ * {@link #fromJsonParser(JsonParser)}.
+ *
+ * @version October 18, 2026
+ */
+public class OccupancyGrid extends Message {
+
+	/**
+	 * The name of the header field for the message.
+	 */
+	public static final String FIELD_HEADER = "header";
+
+	/**
+	 * The name of the info field for the message.
+	 */
+	public static final String FIELD_INFO = "info";
+
+	/**
+	 * The name of the data field for the message.
+	 */
+	public static final String FIELD_DATA = "data";
+
+	/**
+	 * The message type.
+	 */
+	public static final String TYPE = "nav_msgs/OccupancyGrid";
+
+	/**
+	 * The value of a cell whose occupancy is not known.
+	 */
+	public static final byte UNKNOWN = -1;
+
+	private final Header header;
+	private final MapMetaData info;
+	private final byte[] data;
+
+	/**
+	 * Create a new, empty OccupancyGrid.
+	 */
+	public OccupancyGrid() {
+		this(new Header(), new MapMetaData(), new byte[] {}, true);
+	}
+
+	/**
+	 * Create a new OccupancyGrid with the given values. The array of data will
+	 * be copied into this object.
+	 *
+	 * @param header
+	 *            The header of the map.
+	 * @param info
+	 *            The description of the map.
+	 * @param data
+	 *            The cells of the map, row by row.
+	 */
+	public OccupancyGrid(Header header, MapMetaData info, byte[] data) {
+		this(header, info, data.clone(), true);
+	}
+
+	/**
+	 * Create a new OccupancyGrid that takes ownership of the given array of
+	 * data instead of copying it.
+	 *
+	 * @param header
+	 *            The header of the map.
+	 * @param info
+	 *            The description of the map.
+	 * @param data
+	 *            The cells of the map, which must not be used elsewhere.
+	 * @param owned
+	 *            Marks this constructor; ignored.
+	 */
+	private OccupancyGrid(Header header, MapMetaData info, byte[] data,
+			boolean owned) {
+		// the JSON is written from the data when it is first needed
+		super((JsonObject) null, OccupancyGrid.TYPE);
+		this.header = header;
+		this.info = info;
+		this.data = data;
+	}
+
+	/**
+	 * Get the header value of this map.
+	 *
+	 * @return The header value of this map.
+	 */
+	public Header getHeader() {
+		return this.header;
+	}
+
+	/**
+	 * Get the info value of this map.
+	 *
+	 * @return The description of this map.
+	 */
+	public MapMetaData getInfo() {
+		return this.info;
+	}
+
+	/**
+	 * Get the number of cells of this map.
+	 *
+	 * @return The size of the data.
+	 */
+	public int size() {
+		return this.data.length;
+	}
+
+	/**
+	 * Get the value of the given cell.
+	 *
+	 * @param x
+	 *            The column of the cell.
+	 * @param y
+	 *            The row of the cell.
+	 * @return The probability of occupancy in percent, or {@link #UNKNOWN}.
+	 */
+	public byte get(int x, int y) {
+		return this.data[y * this.info.getWidth() + x];
+	}
+
+	/**
+	 * Get the data array. Note that this array should never be modified
+	 * directly.
+	 *
+	 * @return The cells of the map, row by row.
+	 */
+	public byte[] getData() {
+		return this.data;
+	}
+
+	/**
+	 * Write the fields of this OccupancyGrid.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 */
+	@Override
+	public void writeJsonFields(JsonGenerator generator) {
+		JsonStreams.writeObject(generator, OccupancyGrid.FIELD_HEADER,
+				this.header);
+		JsonStreams.writeObject(generator, OccupancyGrid.FIELD_INFO, this.info);
+		JsonStreams.writeArray(generator, OccupancyGrid.FIELD_DATA, this.data);
+	}
+
+	/**
+	 * Create a clone of this OccupancyGrid.
+	 */
+	@Override
+	public OccupancyGrid clone() {
+		return new OccupancyGrid(this.header, this.info, this.data);
+	}
+
+	/**
+	 * Create a new OccupancyGrid based on the given JSON string. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param jsonString
+	 *            The JSON string to parse.
+	 * @return An OccupancyGrid message based on the given JSON string.
+	 */
+	public static OccupancyGrid fromJsonString(String jsonString) {
+		// convert to a message
+		return OccupancyGrid.fromMessage(new Message(jsonString));
+	}
+
+	/**
+	 * Create a new OccupancyGrid based on the given Message. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param m
+	 *            The Message to parse.
+	 * @return An OccupancyGrid message based on the given Message.
+	 */
+	public static OccupancyGrid fromMessage(Message m) {
+		// get it from the JSON object
+		return OccupancyGrid.fromJsonObject(m.toJsonObject());
+	}
+
+	/**
+	 * Create a new OccupancyGrid based on the given JSON object. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param jsonObject
+	 *            The JSON object to parse.
+	 * @return An OccupancyGrid message based on the given JSON object.
+	 */
+	public static OccupancyGrid fromJsonObject(JsonObject jsonObject) {
+		// check the fields
+		Header header = jsonObject.containsKey(OccupancyGrid.FIELD_HEADER) ? Header
+				.fromJsonObject(jsonObject
+						.getJsonObject(OccupancyGrid.FIELD_HEADER))
+				: new Header();
+		MapMetaData info = jsonObject.containsKey(OccupancyGrid.FIELD_INFO) ? MapMetaData
+				.fromJsonObject(jsonObject
+						.getJsonObject(OccupancyGrid.FIELD_INFO))
+				: new MapMetaData();
+		byte[] data = JsonStreams.readByteArray(jsonObject
+				.get(OccupancyGrid.FIELD_DATA));
+		return new OccupancyGrid(header, info, data, true);
+	}
+
+	/**
+	 * Create a new OccupancyGrid based on the given streaming JSON parser,
+	 * without building a JSON object first. The cells are read straight into
+	 * the byte array of the map. Any missing values will be set to their
+	 * defaults.
+	 *
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return An OccupancyGrid message based on the parsed JSON.
+	 */
+	public static OccupancyGrid fromJsonParser(JsonParser parser) {
+		Header header = null;
+		MapMetaData info = null;
+		byte[] data = new byte[] {};
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(OccupancyGrid.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(OccupancyGrid.FIELD_INFO)) {
+				JsonStreams.beginObject(parser);
+				info = MapMetaData.fromJsonParser(parser);
+			} else if (field.equals(OccupancyGrid.FIELD_DATA)) {
+				data = JsonStreams.readByteArray(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		if (info == null) {
+			info = new MapMetaData();
+		}
+		return new OccupancyGrid(header, info, data, true);
+	}
+}
@@ -0,0 +1,233 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import java.nio.ByteBuffer;
+
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+
+/**
+ * The sensor_msgs/CompressedImage message. A compressed image (e.g., JPEG or
+ * PNG, as given by the format). The compressed data is decoded once from the
+ * base64 string rosbridge sends and kept in a read-only buffer.
+ *
+ * @version October 18, 2026
+ */
+public class CompressedImage extends Message {
+
+	/**
+	 * The name of the header field for the message.
+	 */
+	public static final String FIELD_HEADER = "header";
+
+	/**
+	 * The name of the format field for the message.
+	 */
+	public static final String FIELD_FORMAT = "format";
+
+	/**
+	 * The name of the data field for the message.
+	 */
+	public static final String FIELD_DATA = "data";
+
+	/**
+	 * The message type.
+	 */
+	public static final String TYPE = "sensor_msgs/CompressedImage";
+
+	private final Header header;
+	private final String format;
+	private final ByteBuffer data;
+
+	/**
+	 * Create a new, empty CompressedImage.
+	 */
+	public CompressedImage() {
+		this(new Header(), "", new byte[] {});
+	}
+
+	/**
+	 * Create a new CompressedImage with the given values. The array of data
+	 * will be copied into this object.
+	 *
+	 * @param header
+	 *            The header of the image.
+	 * @param format
+	 *            The format of the data (e.g., "jpeg" or "png").
+	 * @param data
+	 *            The compressed image.
+	 */
+	public CompressedImage(Header header, String format, byte[] data) {
+		this(header, format, ByteBuffer.wrap(data.clone()));
+	}
+
+	/**
+	 * Create a new CompressedImage with the given values. The remaining bytes
+	 * of the buffer are used as the data without copying them, so the buffer
+	 * must not be modified afterwards.
+	 *
+	 * @param header
+	 *            The header of the image.
+	 * @param format
+	 *            The format of the data (e.g., "jpeg" or "png").
+	 * @param data
+	 *            The buffer holding the compressed image.
+	 */
+	public CompressedImage(Header header, String format, ByteBuffer data) {
+		// the JSON is written from the data when it is first needed
+		super((JsonObject) null, CompressedImage.TYPE);
+		this.header = header;
+		this.format = format;
+		this.data = data.slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Get the header value of this image.
+	 *
+	 * @return The header value of this image.
+	 */
+	public Header getHeader() {
+		return this.header;
+	}
+
+	/**
+	 * Get the format value of this image.
+	 *
+	 * @return The format of the data (e.g., "jpeg" or "png").
+	 */
+	public String getFormat() {
+		return this.format;
+	}
+
+	/**
+	 * Get the size of the data of this image.
+	 *
+	 * @return The size of the data in bytes.
+	 */
+	public int size() {
+		return this.data.capacity();
+	}
+
+	/**
+	 * Get a read-only view of the data of this image. Each call gives a new
+	 * view, positioned at the start of the data.
+	 *
+	 * @return A view of the data.
+	 */
+	public ByteBuffer getData() {
+		return this.data.duplicate();
+	}
+
+	/**
+	 * Write the fields of this CompressedImage, with the data as a base64
+	 * string.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 */
+	@Override
+	public void writeJsonFields(JsonGenerator generator) {
+		JsonStreams.writeObject(generator, CompressedImage.FIELD_HEADER,
+				this.header);
+		generator.write(CompressedImage.FIELD_FORMAT, this.format);
+		JsonStreams.writeBinary(generator, CompressedImage.FIELD_DATA,
+				this.data);
+	}
+
+	/**
+	 * Create a clone of this CompressedImage. The data is shared, since it is
+	 * read-only.
+	 */
+	@Override
+	public CompressedImage clone() {
+		return new CompressedImage(this.header, this.format, this.data);
+	}
+
+	/**
+	 * Create a new CompressedImage based on the given JSON string. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param jsonString
+	 *            The JSON string to parse.
+	 * @return A CompressedImage message based on the given JSON string.
+	 */
+	public static CompressedImage fromJsonString(String jsonString) {
+		// convert to a message
+		return CompressedImage.fromMessage(new Message(jsonString));
+	}
+
+	/**
+	 * Create a new CompressedImage based on the given Message. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param m
+	 *            The Message to parse.
+	 * @return A CompressedImage message based on the given Message.
+	 */
+	public static CompressedImage fromMessage(Message m) {
+		// get it from the JSON object
+		return CompressedImage.fromJsonObject(m.toJsonObject());
+	}
+
+	/**
+	 * Create a new CompressedImage based on the given JSON object. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param jsonObject
+	 *            The JSON object to parse.
+	 * @return A CompressedImage message based on the given JSON object.
+	 */
+	public static CompressedImage fromJsonObject(JsonObject jsonObject) {
+		// check the fields
+		Header header = jsonObject.containsKey(CompressedImage.FIELD_HEADER) ? Header
+				.fromJsonObject(jsonObject
+						.getJsonObject(CompressedImage.FIELD_HEADER))
+				: new Header();
+		String format = jsonObject.getString(CompressedImage.FIELD_FORMAT, "");
+		byte[] data = JsonStreams.readByteArray(jsonObject
+				.get(CompressedImage.FIELD_DATA));
+		return new CompressedImage(header, format, ByteBuffer.wrap(data));
+	}
+
+	/**
+	 * Create a new CompressedImage based on the given streaming JSON parser,
+	 * without building a JSON object first. The base64 data is decoded
+	 * straight into the buffer of the image. Any missing values will be set to
+	 * their defaults.
+	 *
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A CompressedImage message based on the parsed JSON.
+	 */
+	public static CompressedImage fromJsonParser(JsonParser parser) {
+		Header header = null;
+		String format = "";
+		byte[] data = new byte[] {};
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(CompressedImage.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(CompressedImage.FIELD_FORMAT)) {
+				format = JsonStreams.readString(parser);
+			} else if (field.equals(CompressedImage.FIELD_DATA)) {
+				data = JsonStreams.readByteArray(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		return new CompressedImage(header, format, ByteBuffer.wrap(data));
+	}
+}
@@ -0,0 +1,397 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.primitives.Primitive;
+
+/**
+ * The sensor_msgs/Image message. An uncompressed image, stored row by row with
+ * step bytes per row. The pixel data is decoded once from the base64 string
+ * rosbridge sends and kept in a read-only buffer; rows are read through views
+ * of that buffer without copying.
+ *
+ * @version October 18, 2026
+ */
+public class Image extends Message {
+
+	/**
+	 * The name of the header field for the message.
+	 */
+	public static final String FIELD_HEADER = "header";
+
+	/**
+	 * The name of the height field for the message.
+	 */
+	public static final String FIELD_HEIGHT = "height";
+
+	/**
+	 * The name of the width field for the message.
+	 */
+	public static final String FIELD_WIDTH = "width";
+
+	/**
+	 * The name of the encoding field for the message.
+	 */
+	public static final String FIELD_ENCODING = "encoding";
+
+	/**
+	 * The name of the big endian field for the message.
+	 */
+	public static final String FIELD_IS_BIGENDIAN = "is_bigendian";
+
+	/**
+	 * The name of the step field for the message.
+	 */
+	public static final String FIELD_STEP = "step";
+
+	/**
+	 * The name of the data field for the message.
+	 */
+	public static final String FIELD_DATA = "data";
+
+	/**
+	 * The message type.
+	 */
+	public static final String TYPE = "sensor_msgs/Image";
+
+	private final Header header;
+	private final int height, width, step;
+	private final String encoding;
+	private final boolean bigEndian;
+	private final ByteBuffer data;
+
+	/**
+	 * Create a new, empty Image.
+	 */
+	public Image() {
+		this(new Header(), 0, 0, "", false, 0, new byte[] {});
+	}
+
+	/**
+	 * Create a new Image with the given values. The array of data will be
+	 * copied into this object.
+	 *
+	 * @param header
+	 *            The header of the image.
+	 * @param height
+	 *            The number of rows, treated as an unsigned 32-bit integer.
+	 * @param width
+	 *            The number of columns, treated as an unsigned 32-bit
+	 *            integer.
+	 * @param encoding
+	 *            The encoding of the pixels (see {@link ImageEncodings}).
+	 * @param bigEndian
+	 *            If multi-byte values in the data are big endian.
+	 * @param step
+	 *            The length of a row in bytes, treated as an unsigned 32-bit
+	 *            integer.
+	 * @param data
+	 *            The pixel data, row by row.
+	 */
+	public Image(Header header, int height, int width, String encoding,
+			boolean bigEndian, int step, byte[] data) {
+		this(header, height, width, encoding, bigEndian, step, ByteBuffer
+				.wrap(data.clone()));
+	}
+
+	/**
+	 * Create a new Image with the given values. The remaining bytes of the
+	 * buffer are used as the data without copying them, so the buffer must
+	 * not be modified afterwards.
+	 *
+	 * @param header
+	 *            The header of the image.
+	 * @param height
+	 *            The number of rows, treated as an unsigned 32-bit integer.
+	 * @param width
+	 *            The number of columns, treated as an unsigned 32-bit
+	 *            integer.
+	 * @param encoding
+	 *            The encoding of the pixels (see {@link ImageEncodings}).
+	 * @param bigEndian
+	 *            If multi-byte values in the data are big endian.
+	 * @param step
+	 *            The length of a row in bytes, treated as an unsigned 32-bit
+	 *            integer.
+	 * @param data
+	 *            The buffer holding the pixel data, row by row.
+	 */
+	public Image(Header header, int height, int width, String encoding,
+			boolean bigEndian, int step, ByteBuffer data) {
+		// the JSON is written from the data when it is first needed
+		super((JsonObject) null, Image.TYPE);
+		this.header = header;
+		this.height = height;
+		this.width = width;
+		this.encoding = encoding;
+		this.bigEndian = bigEndian;
+		this.step = step;
+		this.data = data.slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Get the header value of this image.
+	 *
+	 * @return The header value of this image.
+	 */
+	public Header getHeader() {
+		return this.header;
+	}
+
+	/**
+	 * Get the height value of this image, which should be treated as an
+	 * unsigned 32-bit integer.
+	 *
+	 * @return The number of rows.
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Get the width value of this image, which should be treated as an
+	 * unsigned 32-bit integer.
+	 *
+	 * @return The number of columns.
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * Get the encoding value of this image.
+	 *
+	 * @return The encoding of the pixels (see {@link ImageEncodings}).
+	 */
+	public String getEncoding() {
+		return this.encoding;
+	}
+
+	/**
+	 * Check if multi-byte values in the data of this image are big endian.
+	 *
+	 * @return If multi-byte values are big endian.
+	 */
+	public boolean isBigEndian() {
+		return this.bigEndian;
+	}
+
+	/**
+	 * Get the byte order of multi-byte values in the data of this image.
+	 *
+	 * @return The byte order.
+	 */
+	public ByteOrder getByteOrder() {
+		return this.bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+	}
+
+	/**
+	 * Get the step value of this image, which should be treated as an
+	 * unsigned 32-bit integer.
+	 *
+	 * @return The length of a row in bytes.
+	 */
+	public int getStep() {
+		return this.step;
+	}
+
+	/**
+	 * Get the number of bytes of each pixel, based on the encoding.
+	 *
+	 * @return The number of bytes, or 0 if the encoding is not known.
+	 */
+	public int getBytesPerPixel() {
+		return ImageEncodings.getBytesPerPixel(this.encoding);
+	}
+
+	/**
+	 * Get the size of the data of this image.
+	 *
+	 * @return The size of the data in bytes.
+	 */
+	public int size() {
+		return this.data.capacity();
+	}
+
+	/**
+	 * Get a read-only view of the data of this image, in the byte order of the
+	 * image. Each call gives a new view, positioned at the start of the data.
+	 *
+	 * @return A view of the data.
+	 */
+	public ByteBuffer getData() {
+		return this.data.duplicate().order(this.getByteOrder());
+	}
+
+	/**
+	 * Get a read-only view of the given row of this image, in the byte order
+	 * of the image. If the encoding is known, the view covers the pixels of
+	 * the row (width times the bytes per pixel); otherwise it covers the whole
+	 * step, including any padding.
+	 *
+	 * @param row
+	 *            The row, from 0 at the top.
+	 * @return A view of the row.
+	 * @throws IndexOutOfBoundsException
+	 *             If the row is not in the image or the data is too short to
+	 *             hold it.
+	 */
+	public ByteBuffer getRow(int row) {
+		if (row < 0 || row >= this.height) {
+			throw new IndexOutOfBoundsException("Row " + row
+					+ " is not in an image with " + this.height + " rows.");
+		}
+		int bytesPerPixel = this.getBytesPerPixel();
+		long start = (long) row * this.step;
+		long length = bytesPerPixel > 0 ? (long) this.width * bytesPerPixel
+				: this.step;
+		if (start + length > this.data.capacity()) {
+			throw new IndexOutOfBoundsException("Row " + row
+					+ " is past the end of the data.");
+		}
+		ByteBuffer view = this.data.duplicate();
+		view.position((int) start);
+		view.limit((int) (start + length));
+		return view.slice().order(this.getByteOrder());
+	}
+
+	/**
+	 * Write the fields of this Image, with the data as a base64 string.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 */
+	@Override
+	public void writeJsonFields(JsonGenerator generator) {
+		JsonStreams.writeObject(generator, Image.FIELD_HEADER, this.header);
+		generator.write(Image.FIELD_HEIGHT, Primitive.fromUInt32(this.height));
+		generator.write(Image.FIELD_WIDTH, Primitive.fromUInt32(this.width));
+		generator.write(Image.FIELD_ENCODING, this.encoding);
+		generator.write(Image.FIELD_IS_BIGENDIAN, this.bigEndian ? 1 : 0);
+		generator.write(Image.FIELD_STEP, Primitive.fromUInt32(this.step));
+		JsonStreams.writeBinary(generator, Image.FIELD_DATA, this.data);
+	}
+
+	/**
+	 * Create a clone of this Image. The data is shared, since it is read-only.
+	 */
+	@Override
+	public Image clone() {
+		return new Image(this.header, this.height, this.width, this.encoding,
+				this.bigEndian, this.step, this.data);
+	}
+
+	/**
+	 * Create a new Image based on the given JSON string. Any missing values
+	 * will be set to their defaults.
+	 *
+	 * @param jsonString
+	 *            The JSON string to parse.
+	 * @return An Image message based on the given JSON string.
+	 */
+	public static Image fromJsonString(String jsonString) {
+		// convert to a message
+		return Image.fromMessage(new Message(jsonString));
+	}
+
+	/**
+	 * Create a new Image based on the given Message. Any missing values will
+	 * be set to their defaults.
+	 *
+	 * @param m
+	 *            The Message to parse.
+	 * @return An Image message based on the given Message.
+	 */
+	public static Image fromMessage(Message m) {
+		// get it from the JSON object
+		return Image.fromJsonObject(m.toJsonObject());
+	}
+
+	/**
+	 * Create a new Image based on the given JSON object. Any missing values
+	 * will be set to their defaults.
+	 *
+	 * @param jsonObject
+	 *            The JSON object to parse.
+	 * @return An Image message based on the given JSON object.
+	 */
+	public static Image fromJsonObject(JsonObject jsonObject) {
+		// check the fields
+		Header header = jsonObject.containsKey(Image.FIELD_HEADER) ? Header
+				.fromJsonObject(jsonObject.getJsonObject(Image.FIELD_HEADER))
+				: new Header();
+		int height = jsonObject.containsKey(Image.FIELD_HEIGHT) ? Primitive
+				.toUInt32(jsonObject.getJsonNumber(Image.FIELD_HEIGHT)
+						.longValue()) : 0;
+		int width = jsonObject.containsKey(Image.FIELD_WIDTH) ? Primitive
+				.toUInt32(jsonObject.getJsonNumber(Image.FIELD_WIDTH)
+						.longValue()) : 0;
+		String encoding = jsonObject.getString(Image.FIELD_ENCODING, "");
+		boolean bigEndian = jsonObject.containsKey(Image.FIELD_IS_BIGENDIAN)
+				&& jsonObject.getInt(Image.FIELD_IS_BIGENDIAN) != 0;
+		int step = jsonObject.containsKey(Image.FIELD_STEP) ? Primitive
+				.toUInt32(jsonObject.getJsonNumber(Image.FIELD_STEP)
+						.longValue()) : 0;
+		byte[] data = JsonStreams.readByteArray(jsonObject
+				.get(Image.FIELD_DATA));
+		return new Image(header, height, width, encoding, bigEndian, step,
+				ByteBuffer.wrap(data));
+	}
+
+	/**
+	 * Create a new Image based on the given streaming JSON parser, without
+	 * building a JSON object first. The base64 data is decoded straight into
+	 * the buffer of the image. Any missing values will be set to their
+	 * defaults.
+	 *
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return An Image message based on the parsed JSON.
+	 */
+	public static Image fromJsonParser(JsonParser parser) {
+		Header header = null;
+		int height = 0, width = 0, step = 0;
+		String encoding = "";
+		boolean bigEndian = false;
+		byte[] data = new byte[] {};
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Image.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(Image.FIELD_HEIGHT)) {
+				height = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(Image.FIELD_WIDTH)) {
+				width = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(Image.FIELD_ENCODING)) {
+				encoding = JsonStreams.readString(parser);
+			} else if (field.equals(Image.FIELD_IS_BIGENDIAN)) {
+				bigEndian = JsonStreams.readInt(parser) != 0;
+			} else if (field.equals(Image.FIELD_STEP)) {
+				step = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(Image.FIELD_DATA)) {
+				data = JsonStreams.readByteArray(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		return new Image(header, height, width, encoding, bigEndian, step,
+				ByteBuffer.wrap(data));
+	}
+}
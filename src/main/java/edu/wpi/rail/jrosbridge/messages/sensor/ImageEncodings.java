@@ -0,0 +1,191 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import java.util.HashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The ImageEncodings class holds the pixel encodings used by the encoding
+ * field of the sensor_msgs/Image message (as in sensor_msgs/image_encodings.h)
+ * and gives the layout of each: the number of channels and the bit depth of
+ * each channel. Besides the named encodings, the generic OpenCV style
+ * encodings (e.g., "32FC1" or "16UC3") and the Bayer encodings are known.
+ *
+ * @version October 18, 2026
+ */
+public final class ImageEncodings {
+
+	/**
+	 * 8-bit red, green, and blue channels.
+	 */
+	public static final String RGB8 = "rgb8";
+
+	/**
+	 * 8-bit red, green, blue, and alpha channels.
+	 */
+	public static final String RGBA8 = "rgba8";
+
+	/**
+	 * 16-bit red, green, and blue channels.
+	 */
+	public static final String RGB16 = "rgb16";
+
+	/**
+	 * 16-bit red, green, blue, and alpha channels.
+	 */
+	public static final String RGBA16 = "rgba16";
+
+	/**
+	 * 8-bit blue, green, and red channels.
+	 */
+	public static final String BGR8 = "bgr8";
+
+	/**
+	 * 8-bit blue, green, red, and alpha channels.
+	 */
+	public static final String BGRA8 = "bgra8";
+
+	/**
+	 * 16-bit blue, green, and red channels.
+	 */
+	public static final String BGR16 = "bgr16";
+
+	/**
+	 * 16-bit blue, green, red, and alpha channels.
+	 */
+	public static final String BGRA16 = "bgra16";
+
+	/**
+	 * A single 8-bit gray channel.
+	 */
+	public static final String MONO8 = "mono8";
+
+	/**
+	 * A single 16-bit gray channel.
+	 */
+	public static final String MONO16 = "mono16";
+
+	/**
+	 * Packed UYVY, two 8-bit channels per pixel.
+	 */
+	public static final String YUV422 = "yuv422";
+
+	/**
+	 * Packed YUYV, two 8-bit channels per pixel.
+	 */
+	public static final String YUV422_YUY2 = "yuv422_yuy2";
+
+	// {channels, bit depth} of each named encoding
+	private static final HashMap<String, int[]> NAMED = new HashMap<String, int[]>();
+
+	static {
+		ImageEncodings.NAMED.put(RGB8, new int[] { 3, 8 });
+		ImageEncodings.NAMED.put(RGBA8, new int[] { 4, 8 });
+		ImageEncodings.NAMED.put(RGB16, new int[] { 3, 16 });
+		ImageEncodings.NAMED.put(RGBA16, new int[] { 4, 16 });
+		ImageEncodings.NAMED.put(BGR8, new int[] { 3, 8 });
+		ImageEncodings.NAMED.put(BGRA8, new int[] { 4, 8 });
+		ImageEncodings.NAMED.put(BGR16, new int[] { 3, 16 });
+		ImageEncodings.NAMED.put(BGRA16, new int[] { 4, 16 });
+		ImageEncodings.NAMED.put(MONO8, new int[] { 1, 8 });
+		ImageEncodings.NAMED.put(MONO16, new int[] { 1, 16 });
+		ImageEncodings.NAMED.put(YUV422, new int[] { 2, 8 });
+		ImageEncodings.NAMED.put(YUV422_YUY2, new int[] { 2, 8 });
+	}
+
+	// e.g., "bayer_rggb8" or "bayer_gbrg16"
+	private static final Pattern BAYER = Pattern
+			.compile("bayer_(?:rggb|bggr|gbrg|grbg)(8|16)");
+
+	// e.g., "32FC1", "8UC3", or "16SC" (one channel)
+	private static final Pattern GENERIC = Pattern
+			.compile("(8|16|32|64)([USF])C([1-9][0-9]*)?");
+
+	/**
+	 * This class only has static methods.
+	 */
+	private ImageEncodings() {
+	}
+
+	/**
+	 * Get the number of channels of the given encoding.
+	 *
+	 * @param encoding
+	 *            The encoding (e.g., "rgb8").
+	 * @return The number of channels, or 0 if the encoding is not known.
+	 */
+	public static int getChannels(String encoding) {
+		int[] layout = ImageEncodings.layout(encoding);
+		return layout == null ? 0 : layout[0];
+	}
+
+	/**
+	 * Get the bit depth of each channel of the given encoding.
+	 *
+	 * @param encoding
+	 *            The encoding (e.g., "rgb8").
+	 * @return The bit depth, or 0 if the encoding is not known.
+	 */
+	public static int getBitDepth(String encoding) {
+		int[] layout = ImageEncodings.layout(encoding);
+		return layout == null ? 0 : layout[1];
+	}
+
+	/**
+	 * Get the number of bytes of each pixel of the given encoding.
+	 *
+	 * @param encoding
+	 *            The encoding (e.g., "rgb8").
+	 * @return The number of bytes, or 0 if the encoding is not known.
+	 */
+	public static int getBytesPerPixel(String encoding) {
+		int[] layout = ImageEncodings.layout(encoding);
+		return layout == null ? 0 : layout[0] * layout[1] / 8;
+	}
+
+	/**
+	 * Check if the given encoding is known.
+	 *
+	 * @param encoding
+	 *            The encoding.
+	 * @return If the layout of the encoding is known.
+	 */
+	public static boolean isKnown(String encoding) {
+		return ImageEncodings.layout(encoding) != null;
+	}
+
+	/**
+	 * Find the layout of the given encoding.
+	 *
+	 * @param encoding
+	 *            The encoding.
+	 * @return The number of channels and the bit depth, or null if the
+	 *         encoding is not known.
+	 */
+	private static int[] layout(String encoding) {
+		if (encoding == null) {
+			return null;
+		}
+		int[] layout = ImageEncodings.NAMED.get(encoding);
+		if (layout != null) {
+			return layout;
+		}
+		Matcher m = ImageEncodings.BAYER.matcher(encoding);
+		if (m.matches()) {
+			return new int[] { 1, Integer.parseInt(m.group(1)) };
+		}
+		m = ImageEncodings.GENERIC.matcher(encoding);
+		if (m.matches()) {
+			int depth = Integer.parseInt(m.group(1));
+			// floats are 32 or 64 bits, integers 8, 16, or 32 bits
+			boolean floating = m.group(2).equals("F");
+			if ((floating && depth < 32) || (!floating && depth == 64)) {
+				return null;
+			}
+			int channels = m.group(3) == null ? 1 : Integer.parseInt(m
+					.group(3));
+			return new int[] { channels, depth };
+		}
+		return null;
+	}
+}
@@ -0,0 +1,222 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The LaserProjection turns a {@link LaserScan} into the x and y coordinates
+ * of its valid beams, in the frame of the scan. The sine and cosine of each
+ * beam angle are computed once per scan geometry (the minimum angle, the angle
+ * increment, and the number of beams) and kept in a small cache, so projecting
+ * a stream of scans from the same sensor does no trigonometry per beam. A
+ * projection may be shared between threads.
+ *
+ * @version October 18, 2026
+ */
+public class LaserProjection {
+
+	/**
+	 * The default number of scan geometries to keep tables for.
+	 */
+	public static final int DEFAULT_CACHE_SIZE = 8;
+
+	private final LinkedHashMap<Geometry, float[][]> tables;
+
+	/**
+	 * Create a new projection that keeps tables for the default number of
+	 * scan geometries.
+	 */
+	public LaserProjection() {
+		this(LaserProjection.DEFAULT_CACHE_SIZE);
+	}
+
+	/**
+	 * Create a new projection that keeps tables for the given number of scan
+	 * geometries, dropping the least recently used tables past that.
+	 *
+	 * @param cacheSize
+	 *            The number of scan geometries to keep tables for.
+	 */
+	public LaserProjection(final int cacheSize) {
+		if (cacheSize <= 0) {
+			throw new IllegalArgumentException(
+					"Cache size must be positive: " + cacheSize);
+		}
+		this.tables = new LinkedHashMap<Geometry, float[][]>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<Geometry, float[][]> eldest) {
+				return this.size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Get the number of scan geometries tables are kept for.
+	 *
+	 * @return The number of cached tables.
+	 */
+	public synchronized int getCacheSize() {
+		return this.tables.size();
+	}
+
+	/**
+	 * Drop all cached tables.
+	 */
+	public synchronized void clear() {
+		this.tables.clear();
+	}
+
+	/**
+	 * Project the valid beams of the given scan into new arrays. Beams that
+	 * are NaN, infinite, or outside the minimum and maximum range of the scan
+	 * are skipped.
+	 *
+	 * @param scan
+	 *            The scan to project.
+	 * @return The x coordinates and the y coordinates of the valid beams, in
+	 *         meters; both arrays have one entry per valid beam.
+	 */
+	public float[][] project(LaserScan scan) {
+		float[] x = new float[scan.size()];
+		float[] y = new float[scan.size()];
+		int count = this.project(scan, x, y);
+		if (count < x.length) {
+			float[] trimmedX = new float[count];
+			float[] trimmedY = new float[count];
+			System.arraycopy(x, 0, trimmedX, 0, count);
+			System.arraycopy(y, 0, trimmedY, 0, count);
+			x = trimmedX;
+			y = trimmedY;
+		}
+		return new float[][] { x, y };
+	}
+
+	/**
+	 * Project the valid beams of the given scan into the given arrays, so that
+	 * the arrays can be reused from scan to scan. Beams that are NaN,
+	 * infinite, or outside the minimum and maximum range of the scan are
+	 * skipped, and the valid beams are packed at the start of the arrays.
+	 *
+	 * @param scan
+	 *            The scan to project.
+	 * @param x
+	 *            The array to fill with x coordinates in meters, at least as
+	 *            long as the scan.
+	 * @param y
+	 *            The array to fill with y coordinates in meters, at least as
+	 *            long as the scan.
+	 * @return The number of valid beams written to the arrays.
+	 * @throws IllegalArgumentException
+	 *             If either array is shorter than the scan.
+	 */
+	public int project(LaserScan scan, float[] x, float[] y) {
+		float[] ranges = scan.getRanges();
+		if (x.length < ranges.length || y.length < ranges.length) {
+			throw new IllegalArgumentException("Arrays of " + x.length
+					+ " and " + y.length + " entries cannot hold a scan of "
+					+ ranges.length + " beams.");
+		}
+		float[][] table = this.getTable(scan.getAngleMin(),
+				scan.getAngleIncrement(), ranges.length);
+		float[] cos = table[0];
+		float[] sin = table[1];
+		float rangeMin = scan.getRangeMin();
+		float rangeMax = scan.getRangeMax();
+
+		int count = 0;
+		for (int i = 0; i < ranges.length; i++) {
+			float range = ranges[i];
+			// false for NaN as well
+			if (range >= rangeMin && range <= rangeMax
+					&& !Float.isInfinite(range)) {
+				x[count] = range * cos[i];
+				y[count] = range * sin[i];
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Get the cosine and sine tables for the given scan geometry, computing
+	 * and caching them if needed. The tables are shared by every scan of the
+	 * geometry, so they are kept inside of the projection and must not be
+	 * modified.
+	 *
+	 * @param angleMin
+	 *            The angle of the first beam in radians.
+	 * @param angleIncrement
+	 *            The angle between beams in radians.
+	 * @param count
+	 *            The number of beams.
+	 * @return The cosine and the sine of each beam angle.
+	 */
+	float[][] getTable(float angleMin, float angleIncrement, int count) {
+		Geometry geometry = new Geometry(angleMin, angleIncrement, count);
+		synchronized (this) {
+			float[][] table = this.tables.get(geometry);
+			if (table != null) {
+				return table;
+			}
+		}
+
+		// computed outside of the lock; a race only computes it twice
+		float[] cos = new float[count];
+		float[] sin = new float[count];
+		for (int i = 0; i < count; i++) {
+			double angle = (double) angleMin + (double) i * angleIncrement;
+			cos[i] = (float) Math.cos(angle);
+			sin[i] = (float) Math.sin(angle);
+		}
+		float[][] table = new float[][] { cos, sin };
+		synchronized (this) {
+			this.tables.put(geometry, table);
+		}
+		return table;
+	}
+
+	/**
+	 * The Geometry is the key of the cached tables: the minimum angle, the
+	 * angle increment, and the number of beams of a scan.
+	 */
+	private static final class Geometry {
+
+		private final int angleMin, angleIncrement, count;
+
+		/**
+		 * Create a new key for the given scan geometry.
+		 *
+		 * @param angleMin
+		 *            The angle of the first beam in radians.
+		 * @param angleIncrement
+		 *            The angle between beams in radians.
+		 * @param count
+		 *            The number of beams.
+		 */
+		Geometry(float angleMin, float angleIncrement, int count) {
+			// compare the exact bits, as the tables depend on them
+			this.angleMin = Float.floatToIntBits(angleMin);
+			this.angleIncrement = Float.floatToIntBits(angleIncrement);
+			this.count = count;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Geometry)) {
+				return false;
+			}
+			Geometry g = (Geometry) o;
+			return this.angleMin == g.angleMin
+					&& this.angleIncrement == g.angleIncrement
+					&& this.count == g.count;
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.angleMin * 31 + this.angleIncrement) * 31 + this.count;
+		}
+	}
+}
@@ -0,0 +1,462 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+
+/**
+ * The sensor_msgs/LaserScan message. A single scan from a planar laser range
+ * finder, with one range (and optionally one intensity) per beam. The ranges
+ * and intensities are kept as float arrays, and are decoded straight into
+ * them by {@link #fromJsonParser(JsonParser)}. Ranges with no return (NaN or
+ * infinite) are sent by rosbridge as null and are read as NaN. See
+ * {@link LaserProjection} to turn a scan into points.
+ *
+ * @version October 18, 2026
+ */
+public class LaserScan extends Message {
+
+	/**
+	 * The name of the header field for the message.
+	 */
+	public static final String FIELD_HEADER = "header";
+
+	/**
+	 * The name of the minimum angle field for the message.
+	 */
+	public static final String FIELD_ANGLE_MIN = "angle_min";
+
+	/**
+	 * The name of the maximum angle field for the message.
+	 */
+	public static final String FIELD_ANGLE_MAX = "angle_max";
+
+	/**
+	 * The name of the angle increment field for the message.
+	 */
+	public static final String FIELD_ANGLE_INCREMENT = "angle_increment";
+
+	/**
+	 * The name of the time increment field for the message.
+	 */
+	public static final String FIELD_TIME_INCREMENT = "time_increment";
+
+	/**
+	 * The name of the scan time field for the message.
+	 */
+	public static final String FIELD_SCAN_TIME = "scan_time";
+
+	/**
+	 * The name of the minimum range field for the message.
+	 */
+	public static final String FIELD_RANGE_MIN = "range_min";
+
+	/**
+	 * The name of the maximum range field for the message.
+	 */
+	public static final String FIELD_RANGE_MAX = "range_max";
+
+	/**
+	 * The name of the ranges field for the message.
+	 */
+	public static final String FIELD_RANGES = "ranges";
+
+	/**
+	 * The name of the intensities field for the message.
+	 */
+	public static final String FIELD_INTENSITIES = "intensities";
+
+	/**
+	 * The message type.
+	 */
+	public static final String TYPE = "sensor_msgs/LaserScan";
+
+	private final Header header;
+	private final float angleMin, angleMax, angleIncrement, timeIncrement,
+			scanTime, rangeMin, rangeMax;
+	private final float[] ranges, intensities;
+
+	/**
+	 * Create a new, empty LaserScan.
+	 */
+	public LaserScan() {
+		this(new Header(), 0, 0, 0, 0, 0, 0, 0, new float[] {},
+				new float[] {}, true);
+	}
+
+	/**
+	 * Create a new LaserScan with the given values. The arrays of ranges and
+	 * intensities will be copied into this object.
+	 *
+	 * @param header
+	 *            The header of the scan, stamped with the time of the first
+	 *            beam.
+	 * @param angleMin
+	 *            The angle of the first beam in radians.
+	 * @param angleMax
+	 *            The angle of the last beam in radians.
+	 * @param angleIncrement
+	 *            The angle between beams in radians.
+	 * @param timeIncrement
+	 *            The time between beams in seconds.
+	 * @param scanTime
+	 *            The time between scans in seconds.
+	 * @param rangeMin
+	 *            The minimum valid range in meters.
+	 * @param rangeMax
+	 *            The maximum valid range in meters.
+	 * @param ranges
+	 *            The range of each beam in meters.
+	 * @param intensities
+	 *            The intensity of each beam, or an empty array.
+	 */
+	public LaserScan(Header header, float angleMin, float angleMax,
+			float angleIncrement, float timeIncrement, float scanTime,
+			float rangeMin, float rangeMax, float[] ranges, float[] intensities) {
+		this(header, angleMin, angleMax, angleIncrement, timeIncrement,
+				scanTime, rangeMin, rangeMax, ranges.clone(), intensities
+						.clone(), true);
+	}
+
+	/**
+	 * Create a new LaserScan that takes ownership of the given arrays instead
+	 * of copying them.
+	 *
+	 * @param header
+	 *            The header of the scan.
+	 * @param angleMin
+	 *            The angle of the first beam in radians.
+	 * @param angleMax
+	 *            The angle of the last beam in radians.
+	 * @param angleIncrement
+	 *            The angle between beams in radians.
+	 * @param timeIncrement
+	 *            The time between beams in seconds.
+	 * @param scanTime
+	 *            The time between scans in seconds.
+	 * @param rangeMin
+	 *            The minimum valid range in meters.
+	 * @param rangeMax
+	 *            The maximum valid range in meters.
+	 * @param ranges
+	 *            The range of each beam, which must not be used elsewhere.
+	 * @param intensities
+	 *            The intensity of each beam, which must not be used elsewhere.
+	 * @param owned
+	 *            Marks this constructor; ignored.
+	 */
+	private LaserScan(Header header, float angleMin, float angleMax,
+			float angleIncrement, float timeIncrement, float scanTime,
+			float rangeMin, float rangeMax, float[] ranges,
+			float[] intensities, boolean owned) {
+		// the JSON is written from the arrays when it is first needed
+		super((JsonObject) null, LaserScan.TYPE);
+		this.header = header;
+		this.angleMin = angleMin;
+		this.angleMax = angleMax;
+		this.angleIncrement = angleIncrement;
+		this.timeIncrement = timeIncrement;
+		this.scanTime = scanTime;
+		this.rangeMin = rangeMin;
+		this.rangeMax = rangeMax;
+		this.ranges = ranges;
+		this.intensities = intensities;
+	}
+
+	/**
+	 * Get the header value of this scan.
+	 *
+	 * @return The header value of this scan.
+	 */
+	public Header getHeader() {
+		return this.header;
+	}
+
+	/**
+	 * Get the angle of the first beam of this scan.
+	 *
+	 * @return The angle of the first beam in radians.
+	 */
+	public float getAngleMin() {
+		return this.angleMin;
+	}
+
+	/**
+	 * Get the angle of the last beam of this scan.
+	 *
+	 * @return The angle of the last beam in radians.
+	 */
+	public float getAngleMax() {
+		return this.angleMax;
+	}
+
+	/**
+	 * Get the angle between the beams of this scan.
+	 *
+	 * @return The angle between beams in radians.
+	 */
+	public float getAngleIncrement() {
+		return this.angleIncrement;
+	}
+
+	/**
+	 * Get the time between the beams of this scan.
+	 *
+	 * @return The time between beams in seconds.
+	 */
+	public float getTimeIncrement() {
+		return this.timeIncrement;
+	}
+
+	/**
+	 * Get the time between scans.
+	 *
+	 * @return The time between scans in seconds.
+	 */
+	public float getScanTime() {
+		return this.scanTime;
+	}
+
+	/**
+	 * Get the minimum valid range of this scan.
+	 *
+	 * @return The minimum valid range in meters.
+	 */
+	public float getRangeMin() {
+		return this.rangeMin;
+	}
+
+	/**
+	 * Get the maximum valid range of this scan.
+	 *
+	 * @return The maximum valid range in meters.
+	 */
+	public float getRangeMax() {
+		return this.rangeMax;
+	}
+
+	/**
+	 * Get the number of beams in this scan.
+	 *
+	 * @return The number of ranges.
+	 */
+	public int size() {
+		return this.ranges.length;
+	}
+
+	/**
+	 * Get the range of the given beam.
+	 *
+	 * @param index
+	 *            The index of the beam.
+	 * @return The range in meters.
+	 */
+	public float getRange(int index) {
+		return this.ranges[index];
+	}
+
+	/**
+	 * Check if the range of the given beam is valid: finite and within the
+	 * minimum and maximum range of this scan.
+	 *
+	 * @param index
+	 *            The index of the beam.
+	 * @return If the range is valid.
+	 */
+	public boolean isValid(int index) {
+		float range = this.ranges[index];
+		// false for NaN as well
+		return range >= this.rangeMin && range <= this.rangeMax
+				&& !Float.isInfinite(range);
+	}
+
+	/**
+	 * Get the ranges array. Note that this array should never be modified
+	 * directly.
+	 *
+	 * @return The range of each beam in meters.
+	 */
+	public float[] getRanges() {
+		return this.ranges;
+	}
+
+	/**
+	 * Get the intensities array. Note that this array should never be
+	 * modified directly.
+	 *
+	 * @return The intensity of each beam, or an empty array.
+	 */
+	public float[] getIntensities() {
+		return this.intensities;
+	}
+
+	/**
+	 * Write the fields of this LaserScan, with NaN and infinite values in the
+	 * arrays written as null.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 */
+	@Override
+	public void writeJsonFields(JsonGenerator generator) {
+		JsonStreams.writeObject(generator, LaserScan.FIELD_HEADER,
+				this.header);
+		generator.write(LaserScan.FIELD_ANGLE_MIN, this.angleMin);
+		generator.write(LaserScan.FIELD_ANGLE_MAX, this.angleMax);
+		generator.write(LaserScan.FIELD_ANGLE_INCREMENT, this.angleIncrement);
+		generator.write(LaserScan.FIELD_TIME_INCREMENT, this.timeIncrement);
+		generator.write(LaserScan.FIELD_SCAN_TIME, this.scanTime);
+		generator.write(LaserScan.FIELD_RANGE_MIN, this.rangeMin);
+		generator.write(LaserScan.FIELD_RANGE_MAX, this.rangeMax);
+		JsonStreams.writeNullableArray(generator, LaserScan.FIELD_RANGES,
+				this.ranges);
+		JsonStreams.writeNullableArray(generator,
+				LaserScan.FIELD_INTENSITIES, this.intensities);
+	}
+
+	/**
+	 * Create a clone of this LaserScan.
+	 */
+	@Override
+	public LaserScan clone() {
+		return new LaserScan(this.header, this.angleMin, this.angleMax,
+				this.angleIncrement, this.timeIncrement, this.scanTime,
+				this.rangeMin, this.rangeMax, this.ranges, this.intensities);
+	}
+
+	/**
+	 * Create a new LaserScan based on the given JSON string. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param jsonString
+	 *            The JSON string to parse.
+	 * @return A LaserScan message based on the given JSON string.
+	 */
+	public static LaserScan fromJsonString(String jsonString) {
+		// convert to a message
+		return LaserScan.fromMessage(new Message(jsonString));
+	}
+
+	/**
+	 * Create a new LaserScan based on the given Message. Any missing values
+	 * will be set to their defaults.
+	 *
+	 * @param m
+	 *            The Message to parse.
+	 * @return A LaserScan message based on the given Message.
+	 */
+	public static LaserScan fromMessage(Message m) {
+		// get it from the JSON object
+		return LaserScan.fromJsonObject(m.toJsonObject());
+	}
+
+	/**
+	 * Create a new LaserScan based on the given JSON object. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param jsonObject
+	 *            The JSON object to parse.
+	 * @return A LaserScan message based on the given JSON object.
+	 */
+	public static LaserScan fromJsonObject(JsonObject jsonObject) {
+		// check the fields
+		Header header = jsonObject.containsKey(LaserScan.FIELD_HEADER) ? Header
+				.fromJsonObject(jsonObject
+						.getJsonObject(LaserScan.FIELD_HEADER)) : new Header();
+		float angleMin = LaserScan.getFloat(jsonObject,
+				LaserScan.FIELD_ANGLE_MIN);
+		float angleMax = LaserScan.getFloat(jsonObject,
+				LaserScan.FIELD_ANGLE_MAX);
+		float angleIncrement = LaserScan.getFloat(jsonObject,
+				LaserScan.FIELD_ANGLE_INCREMENT);
+		float timeIncrement = LaserScan.getFloat(jsonObject,
+				LaserScan.FIELD_TIME_INCREMENT);
+		float scanTime = LaserScan.getFloat(jsonObject,
+				LaserScan.FIELD_SCAN_TIME);
+		float rangeMin = LaserScan.getFloat(jsonObject,
+				LaserScan.FIELD_RANGE_MIN);
+		float rangeMax = LaserScan.getFloat(jsonObject,
+				LaserScan.FIELD_RANGE_MAX);
+		float[] ranges = JsonStreams.readNullableFloatArray(jsonObject
+				.get(LaserScan.FIELD_RANGES));
+		float[] intensities = JsonStreams.readNullableFloatArray(jsonObject
+				.get(LaserScan.FIELD_INTENSITIES));
+		return new LaserScan(header, angleMin, angleMax, angleIncrement,
+				timeIncrement, scanTime, rangeMin, rangeMax, ranges,
+				intensities, true);
+	}
+
+	/**
+	 * Create a new LaserScan based on the given streaming JSON parser, without
+	 * building a JSON object first. The ranges and intensities are read
+	 * straight into float arrays. Any missing values will be set to their
+	 * defaults.
+	 *
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A LaserScan message based on the parsed JSON.
+	 */
+	public static LaserScan fromJsonParser(JsonParser parser) {
+		Header header = null;
+		float angleMin = 0, angleMax = 0, angleIncrement = 0;
+		float timeIncrement = 0, scanTime = 0, rangeMin = 0, rangeMax = 0;
+		float[] ranges = new float[] {};
+		float[] intensities = new float[] {};
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(LaserScan.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(LaserScan.FIELD_ANGLE_MIN)) {
+				angleMin = JsonStreams.readFloat(parser);
+			} else if (field.equals(LaserScan.FIELD_ANGLE_MAX)) {
+				angleMax = JsonStreams.readFloat(parser);
+			} else if (field.equals(LaserScan.FIELD_ANGLE_INCREMENT)) {
+				angleIncrement = JsonStreams.readFloat(parser);
+			} else if (field.equals(LaserScan.FIELD_TIME_INCREMENT)) {
+				timeIncrement = JsonStreams.readFloat(parser);
+			} else if (field.equals(LaserScan.FIELD_SCAN_TIME)) {
+				scanTime = JsonStreams.readFloat(parser);
+			} else if (field.equals(LaserScan.FIELD_RANGE_MIN)) {
+				rangeMin = JsonStreams.readFloat(parser);
+			} else if (field.equals(LaserScan.FIELD_RANGE_MAX)) {
+				rangeMax = JsonStreams.readFloat(parser);
+			} else if (field.equals(LaserScan.FIELD_RANGES)) {
+				ranges = JsonStreams.readNullableFloatArray(parser);
+			} else if (field.equals(LaserScan.FIELD_INTENSITIES)) {
+				intensities = JsonStreams.readNullableFloatArray(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		return new LaserScan(header, angleMin, angleMax, angleIncrement,
+				timeIncrement, scanTime, rangeMin, rangeMax, ranges,
+				intensities, true);
+	}
+
+	/**
+	 * Read a float field of the given JSON object.
+	 *
+	 * @param jsonObject
+	 *            The JSON object.
+	 * @param name
+	 *            The name of the field.
+	 * @return The value, or 0 if the field is missing.
+	 */
+	private static float getFloat(JsonObject jsonObject, String name) {
+		return jsonObject.containsKey(name) ? (float) jsonObject
+				.getJsonNumber(name).doubleValue() : 0;
+	}
+}
@@ -0,0 +1,507 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.primitives.Primitive;
+
+/**
+ * The sensor_msgs/PointCloud2 message. A cloud of height by width points, each
+ * point_step bytes long with the layout given by its {@link PointField}s. The
+ * point data is decoded once from the base64 string rosbridge sends and kept
+ * in a read-only buffer; the points are read in place with a
+ * {@link PointCursor} rather than as one object per point.
+ *
+ * @version October 18, 2026
+ */
+public class PointCloud2 extends Message {
+
+	/**
+	 * The name of the header field for the message.
+	 */
+	public static final String FIELD_HEADER = "header";
+
+	/**
+	 * The name of the height field for the message.
+	 */
+	public static final String FIELD_HEIGHT = "height";
+
+	/**
+	 * The name of the width field for the message.
+	 */
+	public static final String FIELD_WIDTH = "width";
+
+	/**
+	 * The name of the fields field for the message.
+	 */
+	public static final String FIELD_FIELDS = "fields";
+
+	/**
+	 * The name of the big endian field for the message.
+	 */
+	public static final String FIELD_IS_BIGENDIAN = "is_bigendian";
+
+	/**
+	 * The name of the point step field for the message.
+	 */
+	public static final String FIELD_POINT_STEP = "point_step";
+
+	/**
+	 * The name of the row step field for the message.
+	 */
+	public static final String FIELD_ROW_STEP = "row_step";
+
+	/**
+	 * The name of the data field for the message.
+	 */
+	public static final String FIELD_DATA = "data";
+
+	/**
+	 * The name of the dense field for the message.
+	 */
+	public static final String FIELD_IS_DENSE = "is_dense";
+
+	/**
+	 * The message type.
+	 */
+	public static final String TYPE = "sensor_msgs/PointCloud2";
+
+	private final Header header;
+	private final int height, width, pointStep, rowStep;
+	private final PointField[] fields;
+	private final boolean bigEndian, dense;
+	private final ByteBuffer data;
+
+	/**
+	 * Create a new, empty PointCloud2.
+	 */
+	public PointCloud2() {
+		this(new Header(), 0, 0, new PointField[] {}, false, 0, 0,
+				new byte[] {}, false);
+	}
+
+	/**
+	 * Create a new PointCloud2 with the given values. The array of data will
+	 * be copied into this object.
+	 *
+	 * @param header
+	 *            The header of the cloud.
+	 * @param height
+	 *            The number of rows, treated as an unsigned 32-bit integer (1
+	 *            for unordered clouds).
+	 * @param width
+	 *            The number of points in each row, treated as an unsigned
+	 *            32-bit integer.
+	 * @param fields
+	 *            The layout of each point.
+	 * @param bigEndian
+	 *            If multi-byte values in the data are big endian.
+	 * @param pointStep
+	 *            The length of a point in bytes, treated as an unsigned 32-bit
+	 *            integer.
+	 * @param rowStep
+	 *            The length of a row in bytes, treated as an unsigned 32-bit
+	 *            integer.
+	 * @param data
+	 *            The point data, row by row.
+	 * @param dense
+	 *            If there are no invalid points.
+	 */
+	public PointCloud2(Header header, int height, int width,
+			PointField[] fields, boolean bigEndian, int pointStep,
+			int rowStep, byte[] data, boolean dense) {
+		this(header, height, width, fields, bigEndian, pointStep, rowStep,
+				ByteBuffer.wrap(data.clone()), dense);
+	}
+
+	/**
+	 * Create a new PointCloud2 with the given values. The remaining bytes of
+	 * the buffer are used as the data without copying them, so the buffer must
+	 * not be modified afterwards.
+	 *
+	 * @param header
+	 *            The header of the cloud.
+	 * @param height
+	 *            The number of rows, treated as an unsigned 32-bit integer (1
+	 *            for unordered clouds).
+	 * @param width
+	 *            The number of points in each row, treated as an unsigned
+	 *            32-bit integer.
+	 * @param fields
+	 *            The layout of each point.
+	 * @param bigEndian
+	 *            If multi-byte values in the data are big endian.
+	 * @param pointStep
+	 *            The length of a point in bytes, treated as an unsigned 32-bit
+	 *            integer.
+	 * @param rowStep
+	 *            The length of a row in bytes, treated as an unsigned 32-bit
+	 *            integer.
+	 * @param data
+	 *            The buffer holding the point data, row by row.
+	 * @param dense
+	 *            If there are no invalid points.
+	 */
+	public PointCloud2(Header header, int height, int width,
+			PointField[] fields, boolean bigEndian, int pointStep,
+			int rowStep, ByteBuffer data, boolean dense) {
+		// the JSON is written from the data when it is first needed
+		super((JsonObject) null, PointCloud2.TYPE);
+		this.header = header;
+		this.height = height;
+		this.width = width;
+		this.fields = fields.clone();
+		this.bigEndian = bigEndian;
+		this.pointStep = pointStep;
+		this.rowStep = rowStep;
+		this.data = data.slice().asReadOnlyBuffer();
+		this.dense = dense;
+	}
+
+	/**
+	 * Get the header value of this cloud.
+	 *
+	 * @return The header value of this cloud.
+	 */
+	public Header getHeader() {
+		return this.header;
+	}
+
+	/**
+	 * Get the height value of this cloud, which should be treated as an
+	 * unsigned 32-bit integer.
+	 *
+	 * @return The number of rows.
+	 */
+	public int getHeight() {
+		return this.height;
+	}
+
+	/**
+	 * Get the width value of this cloud, which should be treated as an
+	 * unsigned 32-bit integer.
+	 *
+	 * @return The number of points in each row.
+	 */
+	public int getWidth() {
+		return this.width;
+	}
+
+	/**
+	 * Get the fields of each point in this cloud. The array is a copy.
+	 *
+	 * @return The fields of each point.
+	 */
+	public PointField[] getFields() {
+		return this.fields.clone();
+	}
+
+	/**
+	 * Get the number of fields of each point in this cloud.
+	 *
+	 * @return The number of fields.
+	 */
+	public int getNumFields() {
+		return this.fields.length;
+	}
+
+	/**
+	 * Get the field at the given index.
+	 *
+	 * @param index
+	 *            The index of the field.
+	 * @return The field.
+	 */
+	public PointField getField(int index) {
+		return this.fields[index];
+	}
+
+	/**
+	 * Find the index of the field with the given name.
+	 *
+	 * @param name
+	 *            The name of the field (e.g., "x").
+	 * @return The index of the field, or -1 if there is no such field.
+	 */
+	public int getFieldIndex(String name) {
+		for (int i = 0; i < this.fields.length; i++) {
+			if (this.fields[i].getName().equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Check if multi-byte values in the data of this cloud are big endian.
+	 *
+	 * @return If multi-byte values are big endian.
+	 */
+	public boolean isBigEndian() {
+		return this.bigEndian;
+	}
+
+	/**
+	 * Get the byte order of multi-byte values in the data of this cloud.
+	 *
+	 * @return The byte order.
+	 */
+	public ByteOrder getByteOrder() {
+		return this.bigEndian ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+	}
+
+	/**
+	 * Get the point step value of this cloud, which should be treated as an
+	 * unsigned 32-bit integer.
+	 *
+	 * @return The length of a point in bytes.
+	 */
+	public int getPointStep() {
+		return this.pointStep;
+	}
+
+	/**
+	 * Get the row step value of this cloud, which should be treated as an
+	 * unsigned 32-bit integer.
+	 *
+	 * @return The length of a row in bytes.
+	 */
+	public int getRowStep() {
+		return this.rowStep;
+	}
+
+	/**
+	 * Check if this cloud has no invalid points.
+	 *
+	 * @return If this cloud has no invalid points.
+	 */
+	public boolean isDense() {
+		return this.dense;
+	}
+
+	/**
+	 * Get the number of points in this cloud.
+	 *
+	 * @return The height times the width.
+	 */
+	public int getNumPoints() {
+		return this.height * this.width;
+	}
+
+	/**
+	 * Get the size of the data of this cloud.
+	 *
+	 * @return The size of the data in bytes.
+	 */
+	public int size() {
+		return this.data.capacity();
+	}
+
+	/**
+	 * Get a read-only view of the data of this cloud, in the byte order of the
+	 * cloud. Each call gives a new view, positioned at the start of the data.
+	 *
+	 * @return A view of the data.
+	 */
+	public ByteBuffer getData() {
+		return this.data.duplicate().order(this.getByteOrder());
+	}
+
+	/**
+	 * Create a cursor over the points of this cloud, placed before the first
+	 * point. Each cursor is independent, but a single cursor should not be
+	 * shared between threads.
+	 *
+	 * @return A new cursor.
+	 */
+	public PointCursor cursor() {
+		return new PointCursor(this);
+	}
+
+	/**
+	 * Write the fields of this PointCloud2, with the data as a base64 string.
+	 *
+	 * @param generator
+	 *            The generator, inside an object.
+	 */
+	@Override
+	public void writeJsonFields(JsonGenerator generator) {
+		JsonStreams.writeObject(generator, PointCloud2.FIELD_HEADER,
+				this.header);
+		generator.write(PointCloud2.FIELD_HEIGHT,
+				Primitive.fromUInt32(this.height));
+		generator.write(PointCloud2.FIELD_WIDTH,
+				Primitive.fromUInt32(this.width));
+		JsonStreams.writeArray(generator, PointCloud2.FIELD_FIELDS,
+				this.fields);
+		generator.write(PointCloud2.FIELD_IS_BIGENDIAN, this.bigEndian);
+		generator.write(PointCloud2.FIELD_POINT_STEP,
+				Primitive.fromUInt32(this.pointStep));
+		generator.write(PointCloud2.FIELD_ROW_STEP,
+				Primitive.fromUInt32(this.rowStep));
+		JsonStreams.writeBinary(generator, PointCloud2.FIELD_DATA, this.data);
+		generator.write(PointCloud2.FIELD_IS_DENSE, this.dense);
+	}
+
+	/**
+	 * Create a clone of this PointCloud2. The data is shared, since it is
+	 * read-only.
+	 */
+	@Override
+	public PointCloud2 clone() {
+		return new PointCloud2(this.header, this.height, this.width,
+				this.fields, this.bigEndian, this.pointStep, this.rowStep,
+				this.data, this.dense);
+	}
+
+	/**
+	 * Create a new PointCloud2 based on the given JSON string. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param jsonString
+	 *            The JSON string to parse.
+	 * @return A PointCloud2 message based on the given JSON string.
+	 */
+	public static PointCloud2 fromJsonString(String jsonString) {
+		// convert to a message
+		return PointCloud2.fromMessage(new Message(jsonString));
+	}
+
+	/**
+	 * Create a new PointCloud2 based on the given Message. Any missing values
+	 * will be set to their defaults.
+	 *
+	 * @param m
+	 *            The Message to parse.
+	 * @return A PointCloud2 message based on the given Message.
+	 */
+	public static PointCloud2 fromMessage(Message m) {
+		// get it from the JSON object
+		return PointCloud2.fromJsonObject(m.toJsonObject());
+	}
+
+	/**
+	 * Create a new PointCloud2 based on the given JSON object. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param jsonObject
+	 *            The JSON object to parse.
+	 * @return A PointCloud2 message based on the given JSON object.
+	 */
+	public static PointCloud2 fromJsonObject(JsonObject jsonObject) {
+		// check the fields
+		Header header = jsonObject.containsKey(PointCloud2.FIELD_HEADER) ? Header
+				.fromJsonObject(jsonObject
+						.getJsonObject(PointCloud2.FIELD_HEADER))
+				: new Header();
+		int height = PointCloud2.getUInt32(jsonObject,
+				PointCloud2.FIELD_HEIGHT);
+		int width = PointCloud2.getUInt32(jsonObject, PointCloud2.FIELD_WIDTH);
+
+		// convert each field
+		PointField[] fields = new PointField[] {};
+		JsonArray jsonFields = jsonObject
+				.getJsonArray(PointCloud2.FIELD_FIELDS);
+		if (jsonFields != null) {
+			fields = new PointField[jsonFields.size()];
+			for (int i = 0; i < fields.length; i++) {
+				fields[i] = PointField.fromJsonObject(jsonFields
+						.getJsonObject(i));
+			}
+		}
+
+		boolean bigEndian = jsonObject.getBoolean(
+				PointCloud2.FIELD_IS_BIGENDIAN, false);
+		int pointStep = PointCloud2.getUInt32(jsonObject,
+				PointCloud2.FIELD_POINT_STEP);
+		int rowStep = PointCloud2.getUInt32(jsonObject,
+				PointCloud2.FIELD_ROW_STEP);
+		byte[] data = JsonStreams.readByteArray(jsonObject
+				.get(PointCloud2.FIELD_DATA));
+		boolean dense = jsonObject.getBoolean(PointCloud2.FIELD_IS_DENSE,
+				false);
+		return new PointCloud2(header, height, width, fields, bigEndian,
+				pointStep, rowStep, ByteBuffer.wrap(data), dense);
+	}
+
+	/**
+	 * Create a new PointCloud2 based on the given streaming JSON parser,
+	 * without building a JSON object first. The base64 data is decoded
+	 * straight into the buffer of the cloud. Any missing values will be set to
+	 * their defaults.
+	 *
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A PointCloud2 message based on the parsed JSON.
+	 */
+	public static PointCloud2 fromJsonParser(JsonParser parser) {
+		Header header = null;
+		int height = 0, width = 0, pointStep = 0, rowStep = 0;
+		PointField[] fields = new PointField[] {};
+		boolean bigEndian = false, dense = false;
+		byte[] data = new byte[] {};
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(PointCloud2.FIELD_HEADER)) {
+				JsonStreams.beginObject(parser);
+				header = Header.fromJsonParser(parser);
+			} else if (field.equals(PointCloud2.FIELD_HEIGHT)) {
+				height = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(PointCloud2.FIELD_WIDTH)) {
+				width = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(PointCloud2.FIELD_FIELDS)) {
+				ArrayList<PointField> list = new ArrayList<PointField>();
+				JsonStreams.beginArray(parser);
+				while (JsonStreams.nextElement(parser)) {
+					list.add(PointField.fromJsonParser(parser));
+				}
+				fields = list.toArray(new PointField[list.size()]);
+			} else if (field.equals(PointCloud2.FIELD_IS_BIGENDIAN)) {
+				bigEndian = JsonStreams.readBoolean(parser);
+			} else if (field.equals(PointCloud2.FIELD_POINT_STEP)) {
+				pointStep = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(PointCloud2.FIELD_ROW_STEP)) {
+				rowStep = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(PointCloud2.FIELD_DATA)) {
+				data = JsonStreams.readByteArray(parser);
+			} else if (field.equals(PointCloud2.FIELD_IS_DENSE)) {
+				dense = JsonStreams.readBoolean(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (header == null) {
+			header = new Header();
+		}
+		return new PointCloud2(header, height, width, fields, bigEndian,
+				pointStep, rowStep, ByteBuffer.wrap(data), dense);
+	}
+
+	/**
+	 * Read an unsigned 32-bit field of the given JSON object.
+	 *
+	 * @param jsonObject
+	 *            The JSON object.
+	 * @param name
+	 *            The name of the field.
+	 * @return The value, or 0 if the field is missing.
+	 */
+	private static int getUInt32(JsonObject jsonObject, String name) {
+		return jsonObject.containsKey(name) ? Primitive.toUInt32(jsonObject
+				.getJsonNumber(name).longValue()) : 0;
+	}
+}
@@ -0,0 +1,308 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The PointCursor reads the points of a {@link PointCloud2} in place, straight
+ * from the data of the cloud. The cursor is moved from point to point with
+ * {@link #next()} or {@link #moveTo(int)}, and the fields of the current point
+ * are read with the getters, honoring the offset and datatype of each field,
+ * the byte order of the cloud, and the point and row steps. No object is
+ * created per point.
+ *
+ * <pre>
+ * PointCursor cursor = cloud.cursor();
+ * while (cursor.next()) {
+ * 	float x = cursor.getX();
+ * 	...
+ * }
+ * </pre>
+ *
+ * A cursor is not thread safe; use one cursor per thread.
+ *
+ * @version October 18, 2026
+ */
+public class PointCursor {
+
+	private final ByteBuffer data;
+	private final int width, numPoints, pointStep, rowStep;
+	private final int[] offsets, counts;
+	private final byte[] datatypes;
+	private final int x, y, z, intensity;
+
+	// the current point, and the offset of its first byte
+	private int index, column, row, base;
+
+	/**
+	 * Create a new cursor over the points of the given cloud, placed before
+	 * the first point.
+	 *
+	 * @param cloud
+	 *            The cloud to read.
+	 */
+	PointCursor(PointCloud2 cloud) {
+		this.data = cloud.getData();
+		this.width = cloud.getWidth();
+		this.numPoints = cloud.getNumPoints();
+		this.pointStep = cloud.getPointStep();
+		this.rowStep = cloud.getRowStep();
+
+		// flatten the fields
+		int numFields = cloud.getNumFields();
+		this.offsets = new int[numFields];
+		this.counts = new int[numFields];
+		this.datatypes = new byte[numFields];
+		for (int i = 0; i < numFields; i++) {
+			PointField field = cloud.getField(i);
+			this.offsets[i] = field.getOffset();
+			this.counts[i] = field.getCount();
+			this.datatypes[i] = field.getDatatype();
+		}
+		this.x = cloud.getFieldIndex("x");
+		this.y = cloud.getFieldIndex("y");
+		this.z = cloud.getFieldIndex("z");
+		this.intensity = cloud.getFieldIndex("intensity");
+
+		this.reset();
+	}
+
+	/**
+	 * Get the number of points in the cloud.
+	 *
+	 * @return The number of points.
+	 */
+	public int getNumPoints() {
+		return this.numPoints;
+	}
+
+	/**
+	 * Get the index of the current point, counted row by row.
+	 *
+	 * @return The index of the current point, or -1 if the cursor is before
+	 *         the first point.
+	 */
+	public int getIndex() {
+		return this.index;
+	}
+
+	/**
+	 * Move the cursor back to before the first point.
+	 */
+	public void reset() {
+		this.index = -1;
+		this.column = this.width - 1;
+		this.row = -1;
+		this.base = 0;
+	}
+
+	/**
+	 * Move the cursor to the next point.
+	 *
+	 * @return If there is a next point; if not, the cursor is left after the
+	 *         last point.
+	 */
+	public boolean next() {
+		if (this.index + 1 >= this.numPoints) {
+			this.index = this.numPoints;
+			return false;
+		}
+		this.index++;
+		if (++this.column == this.width) {
+			this.column = 0;
+			this.row++;
+			this.base = this.row * this.rowStep;
+		} else {
+			this.base += this.pointStep;
+		}
+		return true;
+	}
+
+	/**
+	 * Move the cursor to the given point.
+	 *
+	 * @param index
+	 *            The index of the point, counted row by row.
+	 * @throws IndexOutOfBoundsException
+	 *             If there is no such point.
+	 */
+	public void moveTo(int index) {
+		if (index < 0 || index >= this.numPoints) {
+			throw new IndexOutOfBoundsException("Point " + index
+					+ " is not in a cloud with " + this.numPoints + " points.");
+		}
+		this.index = index;
+		this.row = index / this.width;
+		this.column = index % this.width;
+		this.base = this.row * this.rowStep + this.column * this.pointStep;
+	}
+
+	/**
+	 * Check if the cloud has an "x", "y", and "z" field.
+	 *
+	 * @return If the cloud has all three position fields.
+	 */
+	public boolean hasXYZ() {
+		return this.x >= 0 && this.y >= 0 && this.z >= 0;
+	}
+
+	/**
+	 * Check if the cloud has an "intensity" field.
+	 *
+	 * @return If the cloud has an intensity field.
+	 */
+	public boolean hasIntensity() {
+		return this.intensity >= 0;
+	}
+
+	/**
+	 * Get the "x" field of the current point.
+	 *
+	 * @return The value of the field, or NaN if the cloud has no such field.
+	 */
+	public float getX() {
+		return this.x < 0 ? Float.NaN : this.getFloat(this.x, 0);
+	}
+
+	/**
+	 * Get the "y" field of the current point.
+	 *
+	 * @return The value of the field, or NaN if the cloud has no such field.
+	 */
+	public float getY() {
+		return this.y < 0 ? Float.NaN : this.getFloat(this.y, 0);
+	}
+
+	/**
+	 * Get the "z" field of the current point.
+	 *
+	 * @return The value of the field, or NaN if the cloud has no such field.
+	 */
+	public float getZ() {
+		return this.z < 0 ? Float.NaN : this.getFloat(this.z, 0);
+	}
+
+	/**
+	 * Get the "intensity" field of the current point.
+	 *
+	 * @return The value of the field, or NaN if the cloud has no such field.
+	 */
+	public float getIntensity() {
+		return this.intensity < 0 ? Float.NaN : this.getFloat(this.intensity,
+				0);
+	}
+
+	/**
+	 * Get the first element of the given field of the current point as a
+	 * float, converting it from the datatype of the field.
+	 *
+	 * @param field
+	 *            The index of the field (see
+	 *            {@link PointCloud2#getFieldIndex(String)}).
+	 * @return The value of the field.
+	 */
+	public float getFloat(int field) {
+		return this.getFloat(field, 0);
+	}
+
+	/**
+	 * Get an element of the given field of the current point as a float,
+	 * converting it from the datatype of the field.
+	 *
+	 * @param field
+	 *            The index of the field (see
+	 *            {@link PointCloud2#getFieldIndex(String)}).
+	 * @param element
+	 *            The element of the field, for fields with a count above 1.
+	 * @return The value of the element.
+	 * @throws IndexOutOfBoundsException
+	 *             If the cursor is not on a point, the field has no such
+	 *             element, or the point is past the end of the data.
+	 */
+	public float getFloat(int field, int element) {
+		// avoid the round trip through a double for the common case
+		if (this.datatypes[field] == PointField.FLOAT32) {
+			return this.data.getFloat(this.offset(field, element, 4));
+		}
+		return (float) this.getDouble(field, element);
+	}
+
+	/**
+	 * Get the first element of the given field of the current point as a
+	 * double, converting it from the datatype of the field.
+	 *
+	 * @param field
+	 *            The index of the field (see
+	 *            {@link PointCloud2#getFieldIndex(String)}).
+	 * @return The value of the field.
+	 */
+	public double getDouble(int field) {
+		return this.getDouble(field, 0);
+	}
+
+	/**
+	 * Get an element of the given field of the current point as a double,
+	 * converting it from the datatype of the field. Unsigned datatypes are
+	 * read as unsigned values.
+	 *
+	 * @param field
+	 *            The index of the field (see
+	 *            {@link PointCloud2#getFieldIndex(String)}).
+	 * @param element
+	 *            The element of the field, for fields with a count above 1.
+	 * @return The value of the element.
+	 * @throws IndexOutOfBoundsException
+	 *             If the cursor is not on a point, the field has no such
+	 *             element, or the point is past the end of the data.
+	 * @throws IllegalStateException
+	 *             If the datatype of the field is not known.
+	 */
+	public double getDouble(int field, int element) {
+		switch (this.datatypes[field]) {
+		case PointField.INT8:
+			return this.data.get(this.offset(field, element, 1));
+		case PointField.UINT8:
+			return this.data.get(this.offset(field, element, 1)) & 0xFF;
+		case PointField.INT16:
+			return this.data.getShort(this.offset(field, element, 2));
+		case PointField.UINT16:
+			return this.data.getShort(this.offset(field, element, 2)) & 0xFFFF;
+		case PointField.INT32:
+			return this.data.getInt(this.offset(field, element, 4));
+		case PointField.UINT32:
+			return this.data.getInt(this.offset(field, element, 4)) & 0xFFFFFFFFL;
+		case PointField.FLOAT32:
+			return this.data.getFloat(this.offset(field, element, 4));
+		case PointField.FLOAT64:
+			return this.data.getDouble(this.offset(field, element, 8));
+		default:
+			throw new IllegalStateException("Unknown datatype "
+					+ this.datatypes[field] + " of field " + field + ".");
+		}
+	}
+
+	/**
+	 * Get the offset in the data of an element of a field of the current
+	 * point.
+	 *
+	 * @param field
+	 *            The index of the field.
+	 * @param element
+	 *            The element of the field.
+	 * @param size
+	 *            The size of one element in bytes.
+	 * @return The offset in bytes.
+	 * @throws IndexOutOfBoundsException
+	 *             If the cursor is not on a point or the field has no such
+	 *             element.
+	 */
+	private int offset(int field, int element, int size) {
+		if (this.index < 0 || this.index >= this.numPoints) {
+			throw new IndexOutOfBoundsException("The cursor is not on a point.");
+		} else if (element < 0 || element >= this.counts[field]) {
+			throw new IndexOutOfBoundsException("Element " + element
+					+ " is not in field " + field + " with "
+					+ this.counts[field] + " elements.");
+		}
+		return this.base + this.offsets[field] + element * size;
+	}
+}
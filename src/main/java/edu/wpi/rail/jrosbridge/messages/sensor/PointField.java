@@ -0,0 +1,289 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.primitives.Primitive;
+
+/**
+ * The sensor_msgs/PointField message. Describes one field of each point in a
+ * {@link PointCloud2}: its name, its byte offset from the start of the point,
+ * its datatype, and the number of elements.
+ *
+ * @version October 18, 2026
+ */
+public class PointField extends Message {
+
+	/**
+	 * The name of the name field for the message.
+	 */
+	public static final String FIELD_NAME = "name";
+
+	/**
+	 * The name of the offset field for the message.
+	 */
+	public static final String FIELD_OFFSET = "offset";
+
+	/**
+	 * The name of the datatype field for the message.
+	 */
+	public static final String FIELD_DATATYPE = "datatype";
+
+	/**
+	 * The name of the count field for the message.
+	 */
+	public static final String FIELD_COUNT = "count";
+
+	/**
+	 * The message type.
+	 */
+	public static final String TYPE = "sensor_msgs/PointField";
+
+	/**
+	 * The datatype of a signed 8-bit integer.
+	 */
+	public static final byte INT8 = 1;
+
+	/**
+	 * The datatype of an unsigned 8-bit integer.
+	 */
+	public static final byte UINT8 = 2;
+
+	/**
+	 * The datatype of a signed 16-bit integer.
+	 */
+	public static final byte INT16 = 3;
+
+	/**
+	 * The datatype of an unsigned 16-bit integer.
+	 */
+	public static final byte UINT16 = 4;
+
+	/**
+	 * The datatype of a signed 32-bit integer.
+	 */
+	public static final byte INT32 = 5;
+
+	/**
+	 * The datatype of an unsigned 32-bit integer.
+	 */
+	public static final byte UINT32 = 6;
+
+	/**
+	 * The datatype of a 32-bit float.
+	 */
+	public static final byte FLOAT32 = 7;
+
+	/**
+	 * The datatype of a 64-bit float.
+	 */
+	public static final byte FLOAT64 = 8;
+
+	private final String name;
+	private final int offset, count;
+	private final byte datatype;
+
+	/**
+	 * Create a new PointField with all empty values.
+	 */
+	public PointField() {
+		this("", 0, (byte) 0, 0);
+	}
+
+	/**
+	 * Create a new PointField with the given values.
+	 *
+	 * @param name
+	 *            The name of the field (e.g., "x").
+	 * @param offset
+	 *            The offset of the field from the start of the point in
+	 *            bytes, treated as an unsigned 32-bit integer.
+	 * @param datatype
+	 *            The datatype of the field (e.g., {@link #FLOAT32}), treated
+	 *            as an unsigned 8-bit integer.
+	 * @param count
+	 *            The number of elements in the field, treated as an unsigned
+	 *            32-bit integer.
+	 */
+	public PointField(String name, int offset, byte datatype, int count) {
+		// build the JSON object
+		super(Json.createObjectBuilder().add(PointField.FIELD_NAME, name)
+				.add(PointField.FIELD_OFFSET, Primitive.fromUInt32(offset))
+				.add(PointField.FIELD_DATATYPE, Primitive.fromUInt8(datatype))
+				.add(PointField.FIELD_COUNT, Primitive.fromUInt32(count))
+				.build(), PointField.TYPE);
+		this.name = name;
+		this.offset = offset;
+		this.datatype = datatype;
+		this.count = count;
+	}
+
+	/**
+	 * Get the name value of this field.
+	 *
+	 * @return The name value of this field.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Get the offset value of this field, which should be treated as an
+	 * unsigned 32-bit integer.
+	 *
+	 * @return The offset of the field from the start of the point in bytes.
+	 */
+	public int getOffset() {
+		return this.offset;
+	}
+
+	/**
+	 * Get the datatype value of this field, which should be treated as an
+	 * unsigned 8-bit integer.
+	 *
+	 * @return The datatype of the field (e.g., {@link #FLOAT32}).
+	 */
+	public byte getDatatype() {
+		return this.datatype;
+	}
+
+	/**
+	 * Get the count value of this field, which should be treated as an
+	 * unsigned 32-bit integer.
+	 *
+	 * @return The number of elements in the field.
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Get the size of one element of this field.
+	 *
+	 * @return The size in bytes, or 0 if the datatype is not known.
+	 */
+	public int getSize() {
+		return PointField.getSize(this.datatype);
+	}
+
+	/**
+	 * Create a clone of this PointField.
+	 */
+	@Override
+	public PointField clone() {
+		return new PointField(this.name, this.offset, this.datatype,
+				this.count);
+	}
+
+	/**
+	 * Get the size of one element of the given datatype.
+	 *
+	 * @param datatype
+	 *            The datatype (e.g., {@link #FLOAT32}).
+	 * @return The size in bytes, or 0 if the datatype is not known.
+	 */
+	public static int getSize(byte datatype) {
+		switch (datatype) {
+		case INT8:
+		case UINT8:
+			return 1;
+		case INT16:
+		case UINT16:
+			return 2;
+		case INT32:
+		case UINT32:
+		case FLOAT32:
+			return 4;
+		case FLOAT64:
+			return 8;
+		default:
+			return 0;
+		}
+	}
+
+	/**
+	 * Create a new PointField based on the given JSON string. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param jsonString
+	 *            The JSON string to parse.
+	 * @return A PointField message based on the given JSON string.
+	 */
+	public static PointField fromJsonString(String jsonString) {
+		// convert to a message
+		return PointField.fromMessage(new Message(jsonString));
+	}
+
+	/**
+	 * Create a new PointField based on the given Message. Any missing values
+	 * will be set to their defaults.
+	 *
+	 * @param m
+	 *            The Message to parse.
+	 * @return A PointField message based on the given Message.
+	 */
+	public static PointField fromMessage(Message m) {
+		// get it from the JSON object
+		return PointField.fromJsonObject(m.toJsonObject());
+	}
+
+	/**
+	 * Create a new PointField based on the given JSON object. Any missing
+	 * values will be set to their defaults.
+	 *
+	 * @param jsonObject
+	 *            The JSON object to parse.
+	 * @return A PointField message based on the given JSON object.
+	 */
+	public static PointField fromJsonObject(JsonObject jsonObject) {
+		// check the fields
+		String name = jsonObject.getString(PointField.FIELD_NAME, "");
+		int offset = jsonObject.containsKey(PointField.FIELD_OFFSET) ? Primitive
+				.toUInt32(jsonObject.getJsonNumber(PointField.FIELD_OFFSET)
+						.longValue()) : 0;
+		byte datatype = jsonObject.containsKey(PointField.FIELD_DATATYPE) ? Primitive
+				.toUInt8((short) jsonObject.getInt(PointField.FIELD_DATATYPE))
+				: 0;
+		int count = jsonObject.containsKey(PointField.FIELD_COUNT) ? Primitive
+				.toUInt32(jsonObject.getJsonNumber(PointField.FIELD_COUNT)
+						.longValue()) : 0;
+		return new PointField(name, offset, datatype, count);
+	}
+
+	/**
+	 * Create a new PointField based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 *
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A PointField message based on the parsed JSON.
+	 */
+	public static PointField fromJsonParser(JsonParser parser) {
+		String name = "";
+		int offset = 0, count = 0;
+		byte datatype = 0;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(PointField.FIELD_NAME)) {
+				name = JsonStreams.readString(parser);
+			} else if (field.equals(PointField.FIELD_OFFSET)) {
+				offset = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(PointField.FIELD_DATATYPE)) {
+				datatype = Primitive.toUInt8((short) JsonStreams
+						.readInt(parser));
+			} else if (field.equals(PointField.FIELD_COUNT)) {
+				count = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new PointField(name, offset, datatype, count);
+	}
+}
@@ -1,17 +1,17 @@
 package edu.wpi.rail.jrosbridge.messages.std;
 
-import java.io.StringReader;
-import java.util.Arrays;
-
-import javax.json.Json;
-import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
  * The std_msgs/ByteMultiArray message. Please look at the MultiArrayLayout
- * message definition for documentation on all multiarrays.
+ * message definition for documentation on all multiarrays. The data is sent
+ * as an array of numbers, since rosbridge only treats uint8[] and char[] as
+ * binary, but may be read from either an array of numbers or a base64 string.
  * 
  * @author Russell Toris -- russell.toris@gmail.com
  * @version April 1, 2014
@@ -53,18 +53,25 @@ public class ByteMultiArray extends Message {
 	 *            The array of data.
 	 */
 	public ByteMultiArray(MultiArrayLayout layout, byte[] data) {
-		// build the JSON object
-		super(Json
-				.createObjectBuilder()
-				.add(ByteMultiArray.FIELD_LAYOUT, layout.toJsonObject())
-				.add(ByteMultiArray.FIELD_DATA,
-						Json.createReader(
-								new StringReader(Arrays.toString(data)))
-								.readArray()).build(), ByteMultiArray.TYPE);
+		this(layout, data.clone(), true);
+	}
+
+	/**
+	 * Create a new ByteMultiArray that takes ownership of the given array of
+	 * data instead of copying it.
+	 * 
+	 * @param layout
+	 *            The specification of data layout.
+	 * @param data
+	 *            The array of data, which must not be used elsewhere.
+	 * @param owned
+	 *            Marks this constructor; ignored.
+	 */
+	private ByteMultiArray(MultiArrayLayout layout, byte[] data, boolean owned) {
+		// the JSON is written from the data when it is first needed
+		super((JsonObject) null, ByteMultiArray.TYPE);
 		this.layout = layout;
-		// copy the array
-		this.data = new byte[data.length];
-		System.arraycopy(data, 0, this.data, 0, data.length);
+		this.data = data;
 	}
 
 	/**
@@ -106,6 +113,19 @@ public class ByteMultiArray extends Message {
 		return this.data;
 	}
 
+	/**
+	 * Write the fields of this ByteMultiArray.
+	 * 
+	 * @param generator
+	 *            The generator, inside an object.
+	 */
+	@Override
+	public void writeJsonFields(JsonGenerator generator) {
+		JsonStreams.writeObject(generator, ByteMultiArray.FIELD_LAYOUT,
+				this.layout);
+		JsonStreams.writeArray(generator, ByteMultiArray.FIELD_DATA, this.data);
+	}
+
 	/**
 	 * Create a clone of this ByteMultiArray.
 	 */
@@ -156,16 +176,43 @@ public class ByteMultiArray extends Message {
 						.getJsonObject(ByteMultiArray.FIELD_LAYOUT))
 				: new MultiArrayLayout();
 
-		// check the array
+		// check the array (numbers or base64)
+		byte[] data = JsonStreams.readByteArray(jsonObject
+				.get(ByteMultiArray.FIELD_DATA));
+		return new ByteMultiArray(layout, data, true);
+	}
+
+	/**
+	 * Create a new ByteMultiArray based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A ByteMultiArray message based on the parsed JSON.
+	 */
+	public static ByteMultiArray fromJsonParser(JsonParser parser) {
+		MultiArrayLayout layout = null;
 		byte[] data = new byte[] {};
-		JsonArray jsonData = jsonObject.getJsonArray(ByteMultiArray.FIELD_DATA);
-		if (jsonData != null) {
-			// convert each data
-			data = new byte[jsonData.size()];
-			for (int i = 0; i < data.length; i++) {
-				data[i] = (byte) jsonData.getInt(i);
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(ByteMultiArray.FIELD_LAYOUT)) {
+				JsonStreams.beginObject(parser);
+				layout = MultiArrayLayout.fromJsonParser(parser);
+			} else if (field.equals(ByteMultiArray.FIELD_DATA)) {
+				data = JsonStreams.readByteArray(parser);
+			} else {
+				JsonStreams.skipValue(parser);
 			}
 		}
-		return new ByteMultiArray(layout, data);
+
+		// use defaults for missing messages
+		if (layout == null) {
+			layout = new MultiArrayLayout();
+		}
+		return new ByteMultiArray(layout, data, true);
 	}
 }
@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.std;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.primitives.Primitive;
 
@@ -108,4 +110,29 @@ public class Char extends Message {
 		byte data8 = Primitive.toUInt8(data16);
 		return new Char(data8);
 	}
+
+	/**
+	 * Create a new Char based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Char message based on the parsed JSON.
+	 */
+	public static Char fromJsonParser(JsonParser parser) {
+		byte data = 0;
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Char.FIELD_DATA)) {
+				data = Primitive.toUInt8((short) JsonStreams.readInt(parser));
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new Char(data);
+	}
 }
@@ -4,7 +4,9 @@ import java.awt.Color;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -202,4 +204,38 @@ public class ColorRGBA extends Message {
 
 		return new ColorRGBA(r, g, b, a);
 	}
+
+	/**
+	 * Create a new ColorRGBA based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A ColorRGBA message based on the parsed JSON.
+	 */
+	public static ColorRGBA fromJsonParser(JsonParser parser) {
+		float r = 0f;
+		float g = 0f;
+		float b = 0f;
+		float a = 0f;
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(ColorRGBA.FIELD_R)) {
+				r = JsonStreams.readFloat(parser);
+			} else if (field.equals(ColorRGBA.FIELD_G)) {
+				g = JsonStreams.readFloat(parser);
+			} else if (field.equals(ColorRGBA.FIELD_B)) {
+				b = JsonStreams.readFloat(parser);
+			} else if (field.equals(ColorRGBA.FIELD_A)) {
+				a = JsonStreams.readFloat(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new ColorRGBA(r, g, b, a);
+	}
 }
@@ -1,7 +1,9 @@
 package edu.wpi.rail.jrosbridge.messages.std;
 
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -69,4 +71,23 @@ public class Empty extends Message {
 	public static Empty fromJsonObject(JsonObject jsonObject) {
 		return new Empty();
 	}
+
+	/**
+	 * Create a new Empty based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Empty message based on the parsed JSON.
+	 */
+	public static Empty fromJsonParser(JsonParser parser) {
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			JsonStreams.skipValue(parser);
+		}
+		return new Empty();
+	}
 }
@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.std;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -102,4 +104,29 @@ public class Float32 extends Message {
 				.getJsonNumber(Float32.FIELD_DATA).doubleValue() : 0f;
 		return new Float32(data);
 	}
+
+	/**
+	 * Create a new Float32 based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Float32 message based on the parsed JSON.
+	 */
+	public static Float32 fromJsonParser(JsonParser parser) {
+		float data = 0f;
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Float32.FIELD_DATA)) {
+				data = JsonStreams.readFloat(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new Float32(data);
+	}
 }
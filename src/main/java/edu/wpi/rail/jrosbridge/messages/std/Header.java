@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.std;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.primitives.Primitive;
 
@@ -156,4 +158,41 @@ public class Header extends Message {
 		int seq32 = Primitive.toUInt32(seq64);
 		return new Header(seq32, stamp, frameID);
 	}
+
+	/**
+	 * Create a new Header based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Header message based on the parsed JSON.
+	 */
+	public static Header fromJsonParser(JsonParser parser) {
+		int seq = 0;
+		edu.wpi.rail.jrosbridge.primitives.Time stamp = null;
+		java.lang.String frameID = "";
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Header.FIELD_SEQ)) {
+				seq = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(Header.FIELD_STAMP)) {
+				JsonStreams.beginObject(parser);
+				stamp = edu.wpi.rail.jrosbridge.primitives.Time.fromJsonParser(parser);
+			} else if (field.equals(Header.FIELD_FRAME_ID)) {
+				frameID = JsonStreams.readString(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (stamp == null) {
+			stamp = new edu.wpi.rail.jrosbridge.primitives.Time();
+		}
+		return new Header(seq, stamp, frameID);
+	}
 }
@@ -6,7 +6,9 @@ import java.util.Arrays;
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -169,4 +171,38 @@ public class Int32MultiArray extends Message {
 		}
 		return new Int32MultiArray(layout, data);
 	}
+
+	/**
+	 * Create a new Int32MultiArray based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Int32MultiArray message based on the parsed JSON.
+	 */
+	public static Int32MultiArray fromJsonParser(JsonParser parser) {
+		MultiArrayLayout layout = null;
+		int[] data = new int[] {};
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Int32MultiArray.FIELD_LAYOUT)) {
+				JsonStreams.beginObject(parser);
+				layout = MultiArrayLayout.fromJsonParser(parser);
+			} else if (field.equals(Int32MultiArray.FIELD_DATA)) {
+				data = JsonStreams.readIntArray(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (layout == null) {
+			layout = new MultiArrayLayout();
+		}
+		return new Int32MultiArray(layout, data);
+	}
 }
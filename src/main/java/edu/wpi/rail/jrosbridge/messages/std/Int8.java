@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.std;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -102,4 +104,29 @@ public class Int8 extends Message {
 				.getInt(Int8.FIELD_DATA) : 0;
 		return new Int8(data);
 	}
+
+	/**
+	 * Create a new Int8 based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Int8 message based on the parsed JSON.
+	 */
+	public static Int8 fromJsonParser(JsonParser parser) {
+		byte data = 0;
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Int8.FIELD_DATA)) {
+				data = (byte) JsonStreams.readInt(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new Int8(data);
+	}
 }
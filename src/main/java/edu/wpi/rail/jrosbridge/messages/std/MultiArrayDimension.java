@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.std;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.primitives.Primitive;
 
@@ -159,4 +161,35 @@ public class MultiArrayDimension extends Message {
 		int stride32 = Primitive.toUInt32(stride64);
 		return new MultiArrayDimension(label, size32, stride32);
 	}
+
+	/**
+	 * Create a new MultiArrayDimension based on the given streaming JSON
+	 * parser, without building a JSON object first. Any missing values will be
+	 * set to their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A MultiArrayDimension message based on the parsed JSON.
+	 */
+	public static MultiArrayDimension fromJsonParser(JsonParser parser) {
+		java.lang.String label = "";
+		int size = 0;
+		int stride = 0;
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(MultiArrayDimension.FIELD_LABEL)) {
+				label = JsonStreams.readString(parser);
+			} else if (field.equals(MultiArrayDimension.FIELD_SIZE)) {
+				size = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else if (field.equals(MultiArrayDimension.FIELD_STRIDE)) {
+				stride = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new MultiArrayDimension(label, size, stride);
+	}
 }
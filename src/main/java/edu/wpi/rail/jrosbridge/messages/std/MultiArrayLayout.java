@@ -1,12 +1,15 @@
 package edu.wpi.rail.jrosbridge.messages.std;
 
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Arrays;
 
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.primitives.Primitive;
 
@@ -204,4 +207,37 @@ public class MultiArrayLayout extends Message {
 
 		return new MultiArrayLayout(dim, dataOffset);
 	}
+
+	/**
+	 * Create a new MultiArrayLayout based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A MultiArrayLayout message based on the parsed JSON.
+	 */
+	public static MultiArrayLayout fromJsonParser(JsonParser parser) {
+		MultiArrayDimension[] dim = new MultiArrayDimension[] {};
+		int dataOffset = 0;
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(MultiArrayLayout.FIELD_DIM)) {
+				ArrayList<MultiArrayDimension> list = new ArrayList<MultiArrayDimension>();
+				JsonStreams.beginArray(parser);
+				while (JsonStreams.nextElement(parser)) {
+					list.add(MultiArrayDimension.fromJsonParser(parser));
+				}
+				dim = list.toArray(new MultiArrayDimension[list.size()]);
+			} else if (field.equals(MultiArrayLayout.FIELD_DATA_OFFSET)) {
+				dataOffset = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new MultiArrayLayout(dim, dataOffset);
+	}
 }
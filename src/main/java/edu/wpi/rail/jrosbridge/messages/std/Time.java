@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.std;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 /**
@@ -105,4 +107,35 @@ public class Time extends Message {
 				: new edu.wpi.rail.jrosbridge.primitives.Time();
 		return new Time(data);
 	}
+
+	/**
+	 * Create a new Time based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Time message based on the parsed JSON.
+	 */
+	public static Time fromJsonParser(JsonParser parser) {
+		edu.wpi.rail.jrosbridge.primitives.Time data = null;
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Time.FIELD_DATA)) {
+				JsonStreams.beginObject(parser);
+				data = edu.wpi.rail.jrosbridge.primitives.Time.fromJsonParser(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (data == null) {
+			data = new edu.wpi.rail.jrosbridge.primitives.Time();
+		}
+		return new Time(data);
+	}
 }
@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.std;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.primitives.Primitive;
 
@@ -105,4 +107,29 @@ public class UInt16 extends Message {
 				.toUInt16(jsonObject.getInt(UInt16.FIELD_DATA)) : 0;
 		return new UInt16(data);
 	}
+
+	/**
+	 * Create a new UInt16 based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A UInt16 message based on the parsed JSON.
+	 */
+	public static UInt16 fromJsonParser(JsonParser parser) {
+		short data = 0;
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(UInt16.FIELD_DATA)) {
+				data = Primitive.toUInt16(JsonStreams.readInt(parser));
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new UInt16(data);
+	}
 }
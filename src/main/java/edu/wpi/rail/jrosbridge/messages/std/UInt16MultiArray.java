@@ -6,7 +6,9 @@ import java.util.Arrays;
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.primitives.Primitive;
 
@@ -173,4 +175,38 @@ public class UInt16MultiArray extends Message {
 		}
 		return new UInt16MultiArray(layout, data);
 	}
+
+	/**
+	 * Create a new UInt16MultiArray based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A UInt16MultiArray message based on the parsed JSON.
+	 */
+	public static UInt16MultiArray fromJsonParser(JsonParser parser) {
+		MultiArrayLayout layout = null;
+		short[] data = new short[] {};
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(UInt16MultiArray.FIELD_LAYOUT)) {
+				JsonStreams.beginObject(parser);
+				layout = MultiArrayLayout.fromJsonParser(parser);
+			} else if (field.equals(UInt16MultiArray.FIELD_DATA)) {
+				data = Primitive.toUInt16(JsonStreams.readIntArray(parser));
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (layout == null) {
+			layout = new MultiArrayLayout();
+		}
+		return new UInt16MultiArray(layout, data);
+	}
 }
@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.std;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.primitives.Primitive;
 
@@ -106,4 +108,29 @@ public class UInt32 extends Message {
 						.longValue()) : 0;
 		return new UInt32(data);
 	}
+
+	/**
+	 * Create a new UInt32 based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A UInt32 message based on the parsed JSON.
+	 */
+	public static UInt32 fromJsonParser(JsonParser parser) {
+		int data = 0;
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(UInt32.FIELD_DATA)) {
+				data = Primitive.toUInt32(JsonStreams.readLong(parser));
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new UInt32(data);
+	}
 }
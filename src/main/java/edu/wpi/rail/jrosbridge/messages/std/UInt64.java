@@ -2,7 +2,9 @@ package edu.wpi.rail.jrosbridge.messages.std;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.primitives.Primitive;
 
@@ -106,4 +108,29 @@ public class UInt64 extends Message {
 						.bigIntegerValue()) : 0L;
 		return new UInt64(data);
 	}
+
+	/**
+	 * Create a new UInt64 based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A UInt64 message based on the parsed JSON.
+	 */
+	public static UInt64 fromJsonParser(JsonParser parser) {
+		long data = 0L;
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(UInt64.FIELD_DATA)) {
+				data = Primitive.toUInt64(JsonStreams.readBigInteger(parser));
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new UInt64(data);
+	}
 }
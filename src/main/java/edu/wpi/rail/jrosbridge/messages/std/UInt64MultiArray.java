@@ -6,7 +6,9 @@ import java.util.Arrays;
 import javax.json.Json;
 import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.primitives.Primitive;
 
@@ -174,4 +176,39 @@ public class UInt64MultiArray extends Message {
 		}
 		return new UInt64MultiArray(layout, data);
 	}
+
+	/**
+	 * Create a new UInt64MultiArray based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A UInt64MultiArray message based on the parsed JSON.
+	 */
+	public static UInt64MultiArray fromJsonParser(JsonParser parser) {
+		MultiArrayLayout layout = null;
+		long[] data = new long[] {};
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(UInt64MultiArray.FIELD_LAYOUT)) {
+				JsonStreams.beginObject(parser);
+				layout = MultiArrayLayout.fromJsonParser(parser);
+			} else if (field.equals(UInt64MultiArray.FIELD_DATA)) {
+				data = Primitive.toUInt64(JsonStreams
+						.readBigIntegerArray(parser));
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+
+		// use defaults for missing messages
+		if (layout == null) {
+			layout = new MultiArrayLayout();
+		}
+		return new UInt64MultiArray(layout, data);
+	}
 }
@@ -1,18 +1,17 @@
 package edu.wpi.rail.jrosbridge.messages.std;
 
-import java.io.StringReader;
-import java.util.Arrays;
-
-import javax.json.Json;
-import javax.json.JsonArray;
 import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
-import edu.wpi.rail.jrosbridge.primitives.Primitive;
 
 /**
  * The std_msgs/UInt8MultiArray message. Please look at the MultiArrayLayout
- * message definition for documentation on all multiarrays.
+ * message definition for documentation on all multiarrays. The data is sent
+ * as a base64 string, as rosbridge does for uint8[] fields, and may be read
+ * from either a base64 string or an array of numbers.
  * 
  * @author Russell Toris -- russell.toris@gmail.com
  * @version April 1, 2014
@@ -55,20 +54,26 @@ public class UInt8MultiArray extends Message {
 	 *            The array of data.
 	 */
 	public UInt8MultiArray(MultiArrayLayout layout, byte[] data) {
-		// build the JSON object
-		super(Json
-				.createObjectBuilder()
-				.add(UInt8MultiArray.FIELD_LAYOUT, layout.toJsonObject())
-				.add(UInt8MultiArray.FIELD_DATA,
-						Json.createReader(
-								new StringReader(Arrays.toString(Primitive
-										.fromUInt8(data)))).readArray())
-				.build(), UInt8MultiArray.TYPE);
+		this(layout, data.clone(), true);
+	}
 
+	/**
+	 * Create a new UInt8MultiArray that takes ownership of the given array of
+	 * data instead of copying it.
+	 * 
+	 * @param layout
+	 *            The specification of data layout.
+	 * @param data
+	 *            The array of data, which must not be used elsewhere.
+	 * @param owned
+	 *            Marks this constructor; ignored.
+	 */
+	private UInt8MultiArray(MultiArrayLayout layout, byte[] data,
+			boolean owned) {
+		// the JSON is written from the data when it is first needed
+		super((JsonObject) null, UInt8MultiArray.TYPE);
 		this.layout = layout;
-		// copy the array
-		this.data = new byte[data.length];
-		System.arraycopy(data, 0, this.data, 0, data.length);
+		this.data = data;
 	}
 
 	/**
@@ -110,6 +115,21 @@ public class UInt8MultiArray extends Message {
 		return this.data;
 	}
 
+	/**
+	 * Write the fields of this UInt8MultiArray, with the data as a base64
+	 * string.
+	 * 
+	 * @param generator
+	 *            The generator, inside an object.
+	 */
+	@Override
+	public void writeJsonFields(JsonGenerator generator) {
+		JsonStreams.writeObject(generator, UInt8MultiArray.FIELD_LAYOUT,
+				this.layout);
+		JsonStreams.writeBinary(generator, UInt8MultiArray.FIELD_DATA,
+				this.data);
+	}
+
 	/**
 	 * Create a clone of this UInt8MultiArray.
 	 */
@@ -160,17 +180,43 @@ public class UInt8MultiArray extends Message {
 						.getJsonObject(UInt8MultiArray.FIELD_LAYOUT))
 				: new MultiArrayLayout();
 
-		// check the array
+		// check the array (base64 or numbers)
+		byte[] data = JsonStreams.readByteArray(jsonObject
+				.get(UInt8MultiArray.FIELD_DATA));
+		return new UInt8MultiArray(layout, data, true);
+	}
+
+	/**
+	 * Create a new UInt8MultiArray based on the given streaming JSON parser,
+	 * without building a JSON object first. Any missing values will be set to
+	 * their defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A UInt8MultiArray message based on the parsed JSON.
+	 */
+	public static UInt8MultiArray fromJsonParser(JsonParser parser) {
+		MultiArrayLayout layout = null;
 		byte[] data = new byte[] {};
-		JsonArray jsonData = jsonObject
-				.getJsonArray(UInt8MultiArray.FIELD_DATA);
-		if (jsonData != null) {
-			// convert each data
-			data = new byte[jsonData.size()];
-			for (int i = 0; i < data.length; i++) {
-				data[i] = Primitive.toUInt8((short) jsonData.getInt(i));
+
+		// read each field
+		java.lang.String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(UInt8MultiArray.FIELD_LAYOUT)) {
+				JsonStreams.beginObject(parser);
+				layout = MultiArrayLayout.fromJsonParser(parser);
+			} else if (field.equals(UInt8MultiArray.FIELD_DATA)) {
+				data = JsonStreams.readByteArray(parser);
+			} else {
+				JsonStreams.skipValue(parser);
 			}
 		}
-		return new UInt8MultiArray(layout, data);
+
+		// use defaults for missing messages
+		if (layout == null) {
+			layout = new MultiArrayLayout();
+		}
+		return new UInt8MultiArray(layout, data, true);
 	}
 }
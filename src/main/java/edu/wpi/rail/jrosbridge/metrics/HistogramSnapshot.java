@@ -0,0 +1,120 @@
+package edu.wpi.rail.jrosbridge.metrics;
+
+/**
+ * A HistogramSnapshot is an immutable copy of a {@link LatencyHistogram} at a
+ * point in time. All values are in nanoseconds.
+ *
+ * @version October 18, 2026
+ */
+public class HistogramSnapshot {
+
+	private final long[] counts;
+	private final long count;
+	private final long sum;
+	private final long max;
+
+	/**
+	 * Create a new snapshot.
+	 *
+	 * @param counts
+	 *            The number of values in each bucket (not copied).
+	 * @param sum
+	 *            The sum of all values.
+	 * @param max
+	 *            The largest value.
+	 */
+	HistogramSnapshot(long[] counts, long sum, long max) {
+		this.counts = counts;
+		long total = 0;
+		for (long c : counts) {
+			total += c;
+		}
+		this.count = total;
+		this.sum = sum;
+		this.max = max;
+	}
+
+	/**
+	 * Get the number of recorded values.
+	 *
+	 * @return The number of recorded values.
+	 */
+	public long getCount() {
+		return this.count;
+	}
+
+	/**
+	 * Get the sum of all recorded values.
+	 *
+	 * @return The sum of all recorded values.
+	 */
+	public long getSum() {
+		return this.sum;
+	}
+
+	/**
+	 * Get the largest recorded value.
+	 *
+	 * @return The largest recorded value, or 0 if there are none.
+	 */
+	public long getMax() {
+		return this.max;
+	}
+
+	/**
+	 * Get the mean of all recorded values.
+	 *
+	 * @return The mean of all recorded values, or 0 if there are none.
+	 */
+	public double getMean() {
+		return this.count == 0 ? 0 : (double) this.sum / this.count;
+	}
+
+	/**
+	 * Get the number of values recorded in the given bucket.
+	 *
+	 * @param index
+	 *            The index of the bucket.
+	 * @return The number of values in the bucket.
+	 */
+	public long getBucketCount(int index) {
+		return this.counts[index];
+	}
+
+	/**
+	 * Get the value at the given percentile. The result is the upper bound of
+	 * the bucket holding that value (but never more than the largest recorded
+	 * value), so it is at most 6.25% above the actual value.
+	 *
+	 * @param percentile
+	 *            The percentile (between 0 and 100).
+	 * @return The value at the percentile, or 0 if there are no values.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (this.count == 0) {
+			return 0;
+		}
+		double p = Math.min(100, Math.max(0, percentile));
+		long rank = Math.max(1, (long) Math.ceil(p / 100.0 * this.count));
+		long seen = 0;
+		for (int i = 0; i < this.counts.length; i++) {
+			seen += this.counts[i];
+			if (seen >= rank) {
+				return Math.min(LatencyHistogram.upperBound(i), this.max);
+			}
+		}
+		return this.max;
+	}
+
+	/**
+	 * Get a String representation of this snapshot.
+	 *
+	 * @return The count, mean, median, 99th percentile, and maximum.
+	 */
+	@Override
+	public String toString() {
+		return "count=" + this.count + " mean=" + (long) this.getMean()
+				+ "ns p50=" + this.getValueAtPercentile(50) + "ns p99="
+				+ this.getValueAtPercentile(99) + "ns max=" + this.max + "ns";
+	}
+}
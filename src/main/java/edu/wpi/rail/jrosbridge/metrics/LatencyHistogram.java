@@ -0,0 +1,137 @@
+package edu.wpi.rail.jrosbridge.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The LatencyHistogram records latencies, in nanoseconds, into a fixed set of
+ * log-linear buckets (in the style of an HDR histogram). Values below 16 get a
+ * bucket each; above that, every power of two is split into 16 buckets, so a
+ * recorded value is off by at most 1/16 (6.25%). Recording is lock-free and
+ * never allocates, and snapshots can be taken from any thread.
+ *
+ * @version October 18, 2026
+ */
+public class LatencyHistogram {
+
+	// the number of bits used to split each power of two
+	static final int SUB_BUCKET_BITS = 4;
+
+	// the number of buckets for each power of two
+	static final int SUB_BUCKETS = 1 << LatencyHistogram.SUB_BUCKET_BITS;
+
+	// the largest power of two that is tracked (2^40 ns is over 18 minutes)
+	static final int MAX_EXPONENT = 40;
+
+	/**
+	 * The number of buckets in every histogram.
+	 */
+	public static final int BUCKETS = LatencyHistogram.SUB_BUCKETS
+			* (LatencyHistogram.MAX_EXPONENT - LatencyHistogram.SUB_BUCKET_BITS + 2);
+
+	private final AtomicLongArray counts;
+	private final AtomicLong sum;
+	private final AtomicLong max;
+
+	/**
+	 * Create a new, empty histogram.
+	 */
+	public LatencyHistogram() {
+		this.counts = new AtomicLongArray(LatencyHistogram.BUCKETS);
+		this.sum = new AtomicLong();
+		this.max = new AtomicLong();
+	}
+
+	/**
+	 * Record a single latency. Negative values are recorded as 0 and values
+	 * beyond the tracked range are recorded in the last bucket.
+	 *
+	 * @param nanos
+	 *            The latency in nanoseconds.
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		this.counts.incrementAndGet(LatencyHistogram.indexOf(value));
+		this.sum.addAndGet(value);
+		long current = this.max.get();
+		while (value > current && !this.max.compareAndSet(current, value)) {
+			current = this.max.get();
+		}
+	}
+
+	/**
+	 * Discard all recorded values.
+	 */
+	public void reset() {
+		for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+			this.counts.set(i, 0);
+		}
+		this.sum.set(0);
+		this.max.set(0);
+	}
+
+	/**
+	 * Take a snapshot of the recorded values. Values recorded while the
+	 * snapshot is taken may or may not be included.
+	 *
+	 * @return The snapshot.
+	 */
+	public HistogramSnapshot snapshot() {
+		long[] copy = new long[LatencyHistogram.BUCKETS];
+		for (int i = 0; i < copy.length; i++) {
+			copy[i] = this.counts.get(i);
+		}
+		return new HistogramSnapshot(copy, this.sum.get(), this.max.get());
+	}
+
+	/**
+	 * Get the index of the bucket for the given value.
+	 *
+	 * @param value
+	 *            The non-negative value.
+	 * @return The index of the bucket.
+	 */
+	static int indexOf(long value) {
+		if (value < LatencyHistogram.SUB_BUCKETS) {
+			return (int) value;
+		}
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent > LatencyHistogram.MAX_EXPONENT) {
+			return LatencyHistogram.BUCKETS - 1;
+		}
+		int shift = exponent - LatencyHistogram.SUB_BUCKET_BITS;
+		int sub = (int) (value >>> shift) & (LatencyHistogram.SUB_BUCKETS - 1);
+		return LatencyHistogram.SUB_BUCKETS * (shift + 1) + sub;
+	}
+
+	/**
+	 * Get the smallest value which falls into the given bucket.
+	 *
+	 * @param index
+	 *            The index of the bucket.
+	 * @return The smallest value of the bucket.
+	 */
+	static long lowerBound(int index) {
+		if (index < LatencyHistogram.SUB_BUCKETS) {
+			return index;
+		}
+		int shift = index / LatencyHistogram.SUB_BUCKETS - 1;
+		int sub = index % LatencyHistogram.SUB_BUCKETS;
+		return ((long) (LatencyHistogram.SUB_BUCKETS + sub)) << shift;
+	}
+
+	/**
+	 * Get the largest value which falls into the given bucket.
+	 *
+	 * @param index
+	 *            The index of the bucket.
+	 * @return The largest value of the bucket.
+	 */
+	static long upperBound(int index) {
+		if (index == LatencyHistogram.BUCKETS - 1) {
+			return Long.MAX_VALUE;
+		} else {
+			return LatencyHistogram.lowerBound(index + 1) - 1;
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package edu.wpi.rail.jrosbridge.metrics;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The RosMetrics collects latency histograms for each stage of the message
+ * pipeline of a connection, tagged by op code and topic (or service). Once set
+ * on a {@link edu.wpi.rail.jrosbridge.Ros Ros} object, every stage records
+ * into the histogram for its tags; looking up an existing histogram and
+ * recording into it never locks or allocates. The count of each histogram
+ * doubles as a counter of the stage. Snapshots can be taken from any thread.
+ *
+ * @version October 18, 2026
+ */
+public class RosMetrics {
+
+	/**
+	 * The tag used when a stage has no op code or topic.
+	 */
+	public static final String NONE = "";
+
+	/**
+	 * The stages of the message pipeline.
+	 *
+	 * @version October 18, 2026
+	 */
+	public enum Stage {
+		/**
+		 * Handling an incoming frame on the WebSocket thread, from the moment
+		 * it is received until its callbacks are run or dispatched.
+		 */
+		RECEIVE,
+
+		/**
+		 * Parsing an incoming frame (JSON, CBOR, or BSON).
+		 */
+		PARSE,
+
+		/**
+		 * Decompressing an incoming PNG compressed message.
+		 */
+		DECOMPRESS,
+
+		/**
+		 * Routing an incoming message to its callbacks.
+		 */
+		ROUTE,
+
+		/**
+		 * Running a single callback.
+		 */
+		CALLBACK,
+
+		/**
+		 * Encoding an outgoing message into a frame.
+		 */
+		SERIALIZE,
+
+		/**
+		 * Writing an outgoing frame to the socket.
+		 */
+		WRITE
+	}
+
+	// histograms by stage, then op code, then topic
+	private final EnumMap<Stage, ConcurrentHashMap<String, ConcurrentHashMap<String, LatencyHistogram>>> histograms;
+
+	/**
+	 * Create a new, empty set of metrics.
+	 */
+	public RosMetrics() {
+		this.histograms = new EnumMap<Stage, ConcurrentHashMap<String, ConcurrentHashMap<String, LatencyHistogram>>>(
+				Stage.class);
+		for (Stage stage : Stage.values()) {
+			this.histograms
+					.put(stage,
+							new ConcurrentHashMap<String, ConcurrentHashMap<String, LatencyHistogram>>());
+		}
+	}
+
+	/**
+	 * Record a latency for the given stage.
+	 *
+	 * @param stage
+	 *            The stage.
+	 * @param op
+	 *            The op code of the message (or null if unknown).
+	 * @param topic
+	 *            The topic or service of the message (or null if none).
+	 * @param nanos
+	 *            The latency in nanoseconds.
+	 */
+	public void record(Stage stage, String op, String topic, long nanos) {
+		this.histogram(stage, op, topic).record(nanos);
+	}
+
+	/**
+	 * Record the time since the given start for the given stage.
+	 *
+	 * @param stage
+	 *            The stage.
+	 * @param op
+	 *            The op code of the message (or null if unknown).
+	 * @param topic
+	 *            The topic or service of the message (or null if none).
+	 * @param start
+	 *            The start time from {@link System#nanoTime()}.
+	 */
+	public void recordSince(Stage stage, String op, String topic, long start) {
+		this.record(stage, op, topic, System.nanoTime() - start);
+	}
+
+	/**
+	 * Get the histogram for the given tags, creating it if needed.
+	 *
+	 * @param stage
+	 *            The stage.
+	 * @param op
+	 *            The op code of the message (or null if unknown).
+	 * @param topic
+	 *            The topic or service of the message (or null if none).
+	 * @return The histogram for the tags.
+	 */
+	public LatencyHistogram histogram(Stage stage, String op, String topic) {
+		String o = op == null ? RosMetrics.NONE : op;
+		String t = topic == null ? RosMetrics.NONE : topic;
+
+		ConcurrentHashMap<String, ConcurrentHashMap<String, LatencyHistogram>> byOp = this.histograms
+				.get(stage);
+		ConcurrentHashMap<String, LatencyHistogram> byTopic = byOp.get(o);
+		if (byTopic == null) {
+			byTopic = new ConcurrentHashMap<String, LatencyHistogram>();
+			ConcurrentHashMap<String, LatencyHistogram> old = byOp
+					.putIfAbsent(o, byTopic);
+			if (old != null) {
+				byTopic = old;
+			}
+		}
+		LatencyHistogram histogram = byTopic.get(t);
+		if (histogram == null) {
+			histogram = new LatencyHistogram();
+			LatencyHistogram old = byTopic.putIfAbsent(t, histogram);
+			if (old != null) {
+				histogram = old;
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * Get a snapshot of the histogram for the given tags.
+	 *
+	 * @param stage
+	 *            The stage.
+	 * @param op
+	 *            The op code of the message (or null if unknown).
+	 * @param topic
+	 *            The topic or service of the message (or null if none).
+	 * @return The snapshot, or null if nothing was recorded for the tags.
+	 */
+	public HistogramSnapshot getSnapshot(Stage stage, String op, String topic) {
+		ConcurrentHashMap<String, LatencyHistogram> byTopic = this.histograms
+				.get(stage).get(op == null ? RosMetrics.NONE : op);
+		if (byTopic == null) {
+			return null;
+		}
+		LatencyHistogram histogram = byTopic.get(topic == null ? RosMetrics.NONE
+				: topic);
+		return histogram == null ? null : histogram.snapshot();
+	}
+
+	/**
+	 * Get the number of latencies recorded for the given tags.
+	 *
+	 * @param stage
+	 *            The stage.
+	 * @param op
+	 *            The op code of the message (or null if unknown).
+	 * @param topic
+	 *            The topic or service of the message (or null if none).
+	 * @return The number of recorded latencies.
+	 */
+	public long getCount(Stage stage, String op, String topic) {
+		HistogramSnapshot snapshot = this.getSnapshot(stage, op, topic);
+		return snapshot == null ? 0 : snapshot.getCount();
+	}
+
+	/**
+	 * Take a snapshot of every histogram.
+	 *
+	 * @return The snapshots, ordered by stage.
+	 */
+	public List<StageSnapshot> snapshot() {
+		ArrayList<StageSnapshot> snapshots = new ArrayList<StageSnapshot>();
+		for (Stage stage : Stage.values()) {
+			for (Map.Entry<String, ConcurrentHashMap<String, LatencyHistogram>> byOp : this.histograms
+					.get(stage).entrySet()) {
+				for (Map.Entry<String, LatencyHistogram> byTopic : byOp
+						.getValue().entrySet()) {
+					snapshots.add(new StageSnapshot(stage, byOp.getKey(),
+							byTopic.getKey(), byTopic.getValue().snapshot()));
+				}
+			}
+		}
+		return snapshots;
+	}
+
+	/**
+	 * Discard all recorded values.
+	 */
+	public void reset() {
+		for (ConcurrentHashMap<String, ConcurrentHashMap<String, LatencyHistogram>> byOp : this.histograms
+				.values()) {
+			for (ConcurrentHashMap<String, LatencyHistogram> byTopic : byOp
+					.values()) {
+				for (LatencyHistogram histogram : byTopic.values()) {
+					histogram.reset();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package edu.wpi.rail.jrosbridge.metrics;
+
+/**
+ * A StageSnapshot is the snapshot of the histogram of one stage for one op code
+ * and topic.
+ *
+ * @version October 18, 2026
+ */
+public class StageSnapshot {
+
+	private final RosMetrics.Stage stage;
+	private final String op;
+	private final String topic;
+	private final HistogramSnapshot histogram;
+
+	/**
+	 * Create a new snapshot.
+	 *
+	 * @param stage
+	 *            The stage.
+	 * @param op
+	 *            The op code tag.
+	 * @param topic
+	 *            The topic tag.
+	 * @param histogram
+	 *            The snapshot of the histogram.
+	 */
+	public StageSnapshot(RosMetrics.Stage stage, String op, String topic,
+			HistogramSnapshot histogram) {
+		this.stage = stage;
+		this.op = op;
+		this.topic = topic;
+		this.histogram = histogram;
+	}
+
+	/**
+	 * Get the stage.
+	 *
+	 * @return The stage.
+	 */
+	public RosMetrics.Stage getStage() {
+		return this.stage;
+	}
+
+	/**
+	 * Get the op code tag.
+	 *
+	 * @return The op code, or {@link RosMetrics#NONE} if unknown.
+	 */
+	public String getOp() {
+		return this.op;
+	}
+
+	/**
+	 * Get the topic tag.
+	 *
+	 * @return The topic or service, or {@link RosMetrics#NONE} if none.
+	 */
+	public String getTopic() {
+		return this.topic;
+	}
+
+	/**
+	 * Get the snapshot of the histogram.
+	 *
+	 * @return The snapshot of the histogram.
+	 */
+	public HistogramSnapshot getHistogram() {
+		return this.histogram;
+	}
+
+	/**
+	 * Get a String representation of this snapshot.
+	 *
+	 * @return The stage, tags, and histogram summary.
+	 */
+	@Override
+	public String toString() {
+		return this.stage + " " + this.op + " " + this.topic + ": "
+				+ this.histogram;
+	}
+}
@@ -4,6 +4,9 @@ import java.io.StringReader;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 
 /**
  * The ROS duration primitive.
@@ -163,4 +166,32 @@ public class Duration extends TimeBase<Duration> {
 				.getInt(Duration.FIELD_NSECS) : 0;
 		return new Duration(secs, nsecs);
 	}
+
+	/**
+	 * Create a new Duration based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Duration based on the parsed JSON.
+	 */
+	public static Duration fromJsonParser(JsonParser parser) {
+		int secs = 0;
+		int nsecs = 0;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Duration.FIELD_SECS)) {
+				secs = JsonStreams.readInt(parser);
+			} else if (field.equals(Duration.FIELD_NSECS)) {
+				nsecs = JsonStreams.readInt(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new Duration(secs, nsecs);
+	}
 }
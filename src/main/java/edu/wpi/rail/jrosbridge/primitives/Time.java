@@ -6,6 +6,9 @@ import java.util.Date;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 
 /**
  * The ROS time primitive.
@@ -200,4 +203,32 @@ public class Time extends TimeBase<Time> {
 				.getInt(Time.FIELD_NSECS) : 0;
 		return new Time(secs, nsecs);
 	}
+
+	/**
+	 * Create a new Time based on the given streaming JSON parser, without
+	 * building a JSON object first. Any missing values will be set to their
+	 * defaults.
+	 * 
+	 * @param parser
+	 *            The parser, after the START_OBJECT event of the message. It
+	 *            is left after the END_OBJECT event of the message.
+	 * @return A Time based on the parsed JSON.
+	 */
+	public static Time fromJsonParser(JsonParser parser) {
+		int secs = 0;
+		int nsecs = 0;
+
+		// read each field
+		String field;
+		while ((field = JsonStreams.nextField(parser)) != null) {
+			if (field.equals(Time.FIELD_SECS)) {
+				secs = JsonStreams.readInt(parser);
+			} else if (field.equals(Time.FIELD_NSECS)) {
+				nsecs = JsonStreams.readInt(parser);
+			} else {
+				JsonStreams.skipValue(parser);
+			}
+		}
+		return new Time(secs, nsecs);
+	}
 }
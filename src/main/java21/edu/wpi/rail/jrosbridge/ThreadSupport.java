@@ -0,0 +1,40 @@
+package edu.wpi.rail.jrosbridge;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The ThreadSupport creates the threads used to run callbacks. This is the
+ * Java 21 version from the multi-release JAR, which uses virtual threads, so
+ * blocking callbacks and blocking service calls only park a virtual thread.
+ *
+ * @version October 18, 2026
+ */
+final class ThreadSupport {
+
+	/**
+	 * This class only has static methods.
+	 */
+	private ThreadSupport() {
+	}
+
+	/**
+	 * Check if callbacks run on virtual threads.
+	 *
+	 * @return If callbacks run on virtual threads.
+	 */
+	static boolean isVirtual() {
+		return true;
+	}
+
+	/**
+	 * Create a thread factory for callback threads.
+	 *
+	 * @param name
+	 *            The prefix for the names of the threads.
+	 * @return A thread factory creating virtual threads named after the prefix
+	 *         and a counter.
+	 */
+	static ThreadFactory newThreadFactory(String name) {
+		return Thread.ofVirtual().name(name + "-", 0).factory();
+	}
+}
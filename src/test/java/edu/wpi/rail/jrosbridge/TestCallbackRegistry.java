@@ -0,0 +1,113 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+public class TestCallbackRegistry {
+
+	@Test
+	public void testConstructor() {
+		CallbackRegistry<String> r = new CallbackRegistry<String>();
+		assertTrue(r.isEmpty());
+		assertEquals(0, r.size());
+		assertNull(r.get("a"));
+	}
+
+	@Test
+	public void testAdd() {
+		CallbackRegistry<String> r = new CallbackRegistry<String>();
+		r.add("a", "1");
+		r.add("a", "2");
+		r.add("b", "3");
+		assertFalse(r.isEmpty());
+		assertEquals(2, r.size());
+		assertEquals(2, r.get("a").size());
+		assertEquals("1", r.get("a").get(0));
+		assertEquals("2", r.get("a").get(1));
+		assertEquals(1, r.get("b").size());
+	}
+
+	@Test
+	public void testRemove() {
+		CallbackRegistry<String> r = new CallbackRegistry<String>();
+		r.add("a", "1");
+		r.add("a", "2");
+		assertFalse(r.remove("a", "3"));
+		assertFalse(r.remove("b", "1"));
+		assertTrue(r.remove("a", "1"));
+		assertEquals(1, r.get("a").size());
+		assertTrue(r.remove("a", "2"));
+		assertNull(r.get("a"));
+		assertTrue(r.isEmpty());
+	}
+
+	@Test
+	public void testSnapshot() {
+		CallbackRegistry<String> r = new CallbackRegistry<String>();
+		r.add("a", "1");
+		List<String> snapshot = r.get("a");
+		r.add("a", "2");
+		r.remove("a", "1");
+		assertEquals(1, snapshot.size());
+		assertEquals("1", snapshot.get(0));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSnapshotImmutable() {
+		CallbackRegistry<String> r = new CallbackRegistry<String>();
+		r.add("a", "1");
+		r.get("a").add("2");
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		final CallbackRegistry<Integer> r = new CallbackRegistry<Integer>();
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] writers = new Thread[8];
+		for (int i = 0; i < writers.length; i++) {
+			final int id = i;
+			writers[i] = new Thread() {
+				public void run() {
+					try {
+						start.await();
+						for (int j = 0; j < 1000; j++) {
+							Integer cb = id * 1000 + j;
+							r.add("topic" + (j % 4), cb);
+							assertTrue(r.remove("topic" + (j % 4), cb));
+						}
+					} catch (Throwable t) {
+						error.set(t);
+					}
+				}
+			};
+			writers[i].start();
+		}
+
+		// keep reading while the writers change the table
+		start.countDown();
+		boolean alive = true;
+		while (alive) {
+			for (int j = 0; j < 4; j++) {
+				List<Integer> cbs = r.get("topic" + j);
+				if (cbs != null) {
+					for (Integer cb : cbs) {
+						assertNotNull(cb);
+					}
+				}
+			}
+			alive = false;
+			for (Thread t : writers) {
+				alive |= t.isAlive();
+			}
+		}
+
+		assertNull(error.get());
+		assertTrue(r.isEmpty());
+	}
+}
@@ -0,0 +1,198 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.json.Json;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.callback.TopicCallback;
+import edu.wpi.rail.jrosbridge.messages.Message;
+
+public class TestConflatingTopicCallback {
+
+	private CountDownLatch started, release;
+	private List<String> delivered;
+	private TopicCallback slow;
+
+	@Before
+	public void setUp() {
+		started = new CountDownLatch(1);
+		release = new CountDownLatch(1);
+		delivered = Collections.synchronizedList(new ArrayList<String>());
+		// blocks on the first message until released
+		slow = new TopicCallback() {
+			public void handleMessage(Message message) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				delivered.add(message.toJsonObject().getString("data"));
+			}
+		};
+	}
+
+	@After
+	public void tearDown() {
+		release.countDown();
+	}
+
+	private static Message message(String frame, String data) {
+		return new Message(Json
+				.createObjectBuilder()
+				.add("header",
+						Json.createObjectBuilder().add("frame_id", frame))
+				.add("data", data).build());
+	}
+
+	private static void awaitDelivered(ConflatingTopicCallback cb, long n)
+			throws InterruptedException {
+		long end = System.currentTimeMillis() + 5000;
+		while (cb.getDelivered() < n || cb.getPending() > 0) {
+			assertTrue(System.currentTimeMillis() < end);
+			Thread.sleep(1);
+		}
+	}
+
+	@Test
+	public void testConstructor() {
+		ConflatingTopicCallback cb = new ConflatingTopicCallback(slow);
+		assertSame(slow, cb.getCallback());
+		assertNull(cb.getKey());
+		assertEquals(0, cb.getReceived());
+		assertEquals(0, cb.getSuperseded());
+		assertEquals(0, cb.getDelivered());
+		assertEquals(0, cb.getPending());
+		assertFalse(cb.isClosed());
+		cb.close();
+	}
+
+	@Test
+	public void testKeyConstructor() {
+		ConflatingTopicCallback cb = new ConflatingTopicCallback(slow,
+				"header.frame_id");
+		assertEquals("header.frame_id", cb.getKey());
+		cb.close();
+	}
+
+	@Test
+	public void testHandleMessageNotBlocked() throws Exception {
+		ConflatingTopicCallback cb = new ConflatingTopicCallback(slow);
+		cb.handleMessage(message("a", "0"));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		// the callback is busy, so these only replace each other
+		for (int i = 1; i <= 10; i++) {
+			cb.handleMessage(message("a", Integer.toString(i)));
+		}
+		assertEquals(11, cb.getReceived());
+		assertEquals(9, cb.getSuperseded());
+		assertEquals(1, cb.getPending());
+
+		release.countDown();
+		awaitDelivered(cb, 2);
+		assertEquals(2, cb.getDelivered());
+		assertEquals("0", delivered.get(0));
+		assertEquals("10", delivered.get(1));
+		cb.close();
+	}
+
+	@Test
+	public void testHandleMessagePerKey() throws Exception {
+		ConflatingTopicCallback cb = new ConflatingTopicCallback(slow,
+				"header.frame_id");
+		cb.handleMessage(message("a", "a0"));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		cb.handleMessage(message("b", "b1"));
+		cb.handleMessage(message("a", "a1"));
+		cb.handleMessage(message("b", "b2"));
+		cb.handleMessage(message("a", "a2"));
+		cb.handleMessage(message("c", "c1"));
+		assertEquals(3, cb.getPending());
+		assertEquals(2, cb.getSuperseded());
+
+		release.countDown();
+		awaitDelivered(cb, 4);
+		// keys are delivered in the order they first became pending
+		assertEquals(4, delivered.size());
+		assertEquals("a0", delivered.get(0));
+		assertEquals("b2", delivered.get(1));
+		assertEquals("a2", delivered.get(2));
+		assertEquals("c1", delivered.get(3));
+		cb.close();
+	}
+
+	@Test
+	public void testHandleMessageMissingKey() throws Exception {
+		ConflatingTopicCallback cb = new ConflatingTopicCallback(slow,
+				"header.seq");
+		cb.handleMessage(message("a", "0"));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		cb.handleMessage(message("a", "1"));
+		cb.handleMessage(message("b", "2"));
+		assertEquals(1, cb.getPending());
+		assertEquals(1, cb.getSuperseded());
+		cb.close();
+	}
+
+	@Test
+	public void testHandleMessageNumericKey() throws Exception {
+		ConflatingTopicCallback cb = new ConflatingTopicCallback(slow, "id");
+		cb.handleMessage(new Message(Json.createObjectBuilder().add("id", 1)
+				.add("data", "0").build()));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		cb.handleMessage(new Message(Json.createObjectBuilder().add("id", 1)
+				.add("data", "1").build()));
+		cb.handleMessage(new Message(Json.createObjectBuilder().add("id", 2)
+				.add("data", "2").build()));
+		assertEquals(2, cb.getPending());
+		cb.close();
+	}
+
+	@Test
+	public void testCallbackFails() throws Exception {
+		final CountDownLatch done = new CountDownLatch(2);
+		ConflatingTopicCallback cb = new ConflatingTopicCallback(
+				new TopicCallback() {
+					public void handleMessage(Message message) {
+						done.countDown();
+						throw new RuntimeException("fail");
+					}
+				});
+		cb.handleMessage(message("a", "0"));
+		awaitDelivered(cb, 1);
+		cb.handleMessage(message("a", "1"));
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		cb.close();
+	}
+
+	@Test
+	public void testClose() throws Exception {
+		ConflatingTopicCallback cb = new ConflatingTopicCallback(slow);
+		cb.handleMessage(message("a", "0"));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		cb.handleMessage(message("a", "1"));
+		cb.close();
+		assertTrue(cb.isClosed());
+		assertEquals(0, cb.getPending());
+
+		// ignored once closed
+		cb.handleMessage(message("a", "2"));
+		assertEquals(2, cb.getReceived());
+		assertEquals(0, cb.getPending());
+
+		release.countDown();
+		Thread.sleep(50);
+		assertEquals(1, delivered.size());
+		assertEquals("0", delivered.get(0));
+	}
+}
@@ -0,0 +1,117 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.stream.JsonParser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.callback.TypedTopicCallback;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoder;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.std.Float64MultiArray;
+import edu.wpi.rail.jrosbridge.messages.std.MultiArrayDimension;
+import edu.wpi.rail.jrosbridge.messages.std.MultiArrayLayout;
+
+public class TestDecodingTopicCallback {
+
+	private DecodingTopicCallback<Float64MultiArray> cb;
+	private Float64MultiArray a1;
+	private List<Float64MultiArray> received;
+
+	@Before
+	public void setUp() {
+		cb = new DecodingTopicCallback<Float64MultiArray>(
+				MessageDecoders.get(Float64MultiArray.class));
+		a1 = new Float64MultiArray(new MultiArrayLayout(
+				new MultiArrayDimension[] { new MultiArrayDimension("x", 3, 3) },
+				1), new double[] { 0.5, -1.25, 1e10 });
+		received = new ArrayList<Float64MultiArray>();
+	}
+
+	private TypedTopicCallback<Float64MultiArray> recorder() {
+		return new TypedTopicCallback<Float64MultiArray>() {
+			@Override
+			public void handleMessage(Float64MultiArray message) {
+				received.add(message);
+			}
+		};
+	}
+
+	@Test
+	public void testAdd() {
+		assertEquals(0, cb.size());
+		assertTrue(cb.add(recorder()));
+		assertFalse(cb.add(recorder()));
+		assertEquals(2, cb.size());
+		cb.clear();
+		assertEquals(0, cb.size());
+		assertTrue(cb.add(recorder()));
+	}
+
+	@Test
+	public void testGetDecoder() {
+		assertSame(MessageDecoders.get(Float64MultiArray.class),
+				cb.getDecoder());
+	}
+
+	@Test
+	public void testDecode() {
+		Float64MultiArray a = cb.decode("{\"op\": \"publish\", \"msg\": "
+				+ a1.toString() + "}");
+		assertEquals(a1.toString(), a.toString());
+		assertNull(cb.decode("{\"op\": \"publish\"}"));
+	}
+
+	@Test
+	public void testHandleMessage() {
+		cb.add(recorder());
+		cb.add(recorder());
+		cb.handleMessage(new Message(a1.toJsonObject()));
+		assertEquals(2, received.size());
+		assertSame(received.get(0), received.get(1));
+		assertEquals(a1.toString(), received.get(0).toString());
+		assertArrayEquals(a1.getData(), received.get(0).getData(), 0);
+	}
+
+	@Test
+	public void testHandleMessageInvalid() {
+		cb.add(recorder());
+		cb.handleMessage(new Message("{\"data\": [\"a\"]}"));
+		assertTrue(received.isEmpty());
+	}
+
+	@Test
+	public void testHandleMessageDecoderThrows() {
+		DecodingTopicCallback<Float64MultiArray> failing = new DecodingTopicCallback<Float64MultiArray>(
+				new MessageDecoder<Float64MultiArray>() {
+					@Override
+					public Float64MultiArray decode(JsonParser parser) {
+						throw new IllegalStateException("bad decoder");
+					}
+				});
+		failing.add(recorder());
+		failing.handleMessage(new Message(a1.toJsonObject()));
+		assertTrue(received.isEmpty());
+	}
+
+	@Test
+	public void testHandleMessageBadNumber() {
+		cb.add(recorder());
+		cb.handleMessage(new Message("{\"data\": [\"1.5x\"]}"));
+		assertTrue(received.isEmpty());
+	}
+
+	@Test
+	public void testHandleDecoded() {
+		cb.add(recorder());
+		cb.handleDecoded(a1);
+		assertEquals(1, received.size());
+		assertSame(a1, received.get(0));
+	}
+}
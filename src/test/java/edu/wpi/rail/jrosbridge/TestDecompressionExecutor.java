@@ -0,0 +1,247 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class TestDecompressionExecutor {
+
+	private DecompressionExecutor d;
+
+	@After
+	public void tearDown() {
+		if (d != null) {
+			d.shutdown(1000);
+		}
+	}
+
+	@Test
+	public void testConstructor() {
+		d = new DecompressionExecutor("test", 3, 1024);
+		assertEquals(3, d.getWorkers());
+		assertEquals(1024, d.getThreshold());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidWorkers() {
+		new DecompressionExecutor("test", 0, 10);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidThreshold() {
+		new DecompressionExecutor("test", 1, -1);
+	}
+
+	@Test
+	public void testHandledInOrder() {
+		d = new DecompressionExecutor("test", 4, 0);
+		final List<Integer> handled = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		final Random random = new Random(1);
+		Consumer<Integer> handle = new Consumer<Integer>() {
+			@Override
+			public void accept(Integer i) {
+				handled.add(i);
+			}
+		};
+		for (int i = 0; i < 200; i++) {
+			final int value = i;
+			final int delay = random.nextInt(3);
+			assertTrue(d.submit(new Supplier<Integer>() {
+				@Override
+				public Integer get() {
+					try {
+						Thread.sleep(delay);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return value;
+				}
+			}, handle));
+		}
+		assertTrue(d.shutdown(5000));
+		d = null;
+
+		assertEquals(200, handled.size());
+		for (int i = 0; i < 200; i++) {
+			assertEquals(i, (int) handled.get(i));
+		}
+	}
+
+	@Test
+	public void testFailingHandlerDoesNotStopLaterFrames() {
+		d = new DecompressionExecutor("test", 2, 0);
+		final List<String> handled = Collections
+				.synchronizedList(new ArrayList<String>());
+		Consumer<String> handle = new Consumer<String>() {
+			@Override
+			public void accept(String s) {
+				if (s == null) {
+					throw new IllegalStateException("test");
+				}
+				handled.add(s);
+			}
+		};
+		d.submit(new Value("a"), handle);
+		d.submit(new Value(null), handle);
+		d.submit(new Value("b"), handle);
+		assertTrue(d.shutdown(5000));
+		d = null;
+		assertEquals(2, handled.size());
+		assertEquals("a", handled.get(0));
+		assertEquals("b", handled.get(1));
+	}
+
+	@Test
+	public void testFailingDecompressionDoesNotStopLaterFrames() {
+		d = new DecompressionExecutor("test", 2, 0);
+		final List<String> handled = Collections
+				.synchronizedList(new ArrayList<String>());
+		Consumer<String> handle = new Consumer<String>() {
+			@Override
+			public void accept(String s) {
+				handled.add(s);
+			}
+		};
+		d.submit(new Value("a"), handle);
+		d.submit(new Supplier<String>() {
+			@Override
+			public String get() {
+				throw new IllegalStateException("test");
+			}
+		}, handle);
+		d.submit(new Value("b"), handle);
+		assertTrue(d.shutdown(5000));
+		d = null;
+		assertEquals(3, handled.size());
+		assertEquals("a", handled.get(0));
+		assertNull(handled.get(1));
+		assertEquals("b", handled.get(2));
+	}
+
+	@Test
+	public void testErrorRethrown() throws InterruptedException {
+		final List<Throwable> uncaught = Collections
+				.synchronizedList(new ArrayList<Throwable>());
+		Thread.UncaughtExceptionHandler previous = Thread
+				.getDefaultUncaughtExceptionHandler();
+		Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+			@Override
+			public void uncaughtException(Thread t, Throwable e) {
+				uncaught.add(e);
+			}
+		});
+		try {
+			d = new DecompressionExecutor("test", 1, 0);
+			final List<String> handled = Collections
+					.synchronizedList(new ArrayList<String>());
+			Consumer<String> handle = new Consumer<String>() {
+				@Override
+				public void accept(String s) {
+					handled.add(s);
+				}
+			};
+			final Error error = new StackOverflowError("test");
+			d.submit(new Supplier<String>() {
+				@Override
+				public String get() {
+					throw error;
+				}
+			}, handle);
+			d.submit(new Value("a"), handle);
+			assertTrue(d.shutdown(5000));
+			d = null;
+
+			// not swallowed, but later frames are still handled
+			assertEquals(2, handled.size());
+			assertNull(handled.get(0));
+			assertEquals("a", handled.get(1));
+			// thrown on the worker only after the frame was passed on
+			long end = System.currentTimeMillis() + 5000;
+			while (uncaught.isEmpty() && System.currentTimeMillis() < end) {
+				Thread.sleep(5);
+			}
+			assertEquals(1, uncaught.size());
+			assertSame(error, uncaught.get(0));
+		} finally {
+			Thread.setDefaultUncaughtExceptionHandler(previous);
+		}
+	}
+
+	@Test
+	public void testSubmitIfPending() throws InterruptedException {
+		d = new DecompressionExecutor("test", 1, 0);
+		final List<String> handled = Collections
+				.synchronizedList(new ArrayList<String>());
+		Runnable plain = new Runnable() {
+			@Override
+			public void run() {
+				handled.add("plain");
+			}
+		};
+		assertFalse(d.isPending());
+		assertFalse(d.submitIfPending(plain));
+
+		final CountDownLatch release = new CountDownLatch(1);
+		d.submit(new Supplier<String>() {
+			@Override
+			public String get() {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return "large";
+			}
+		}, new Consumer<String>() {
+			@Override
+			public void accept(String s) {
+				handled.add(s);
+			}
+		});
+		assertTrue(d.isPending());
+		assertTrue(d.submitIfPending(plain));
+		assertTrue(handled.isEmpty());
+		release.countDown();
+		assertTrue(d.shutdown(5000));
+		d = null;
+		assertEquals(Arrays.asList("large", "plain"), handled);
+	}
+
+	@Test
+	public void testSubmitAfterShutdown() {
+		d = new DecompressionExecutor("test", 1, 0);
+		assertTrue(d.shutdown(1000));
+		assertFalse(d.submit(new Value("a"), new Consumer<String>() {
+			@Override
+			public void accept(String s) {
+				fail();
+			}
+		}));
+		d = null;
+	}
+
+	private static class Value implements Supplier<String> {
+
+		private final String value;
+
+		public Value(String value) {
+			this.value = value;
+		}
+
+		@Override
+		public String get() {
+			return this.value;
+		}
+	}
+}
@@ -0,0 +1,231 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import javax.websocket.Extension;
+
+import org.glassfish.tyrus.core.extension.ExtendedExtension.ExtensionContext;
+import org.glassfish.tyrus.core.frame.Frame;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestDeflateExtension {
+
+	private static final String TEXT = "{\"op\":\"publish\",\"topic\":\"/scan\","
+			+ "\"msg\":{\"ranges\":[1.0,1.0,1.0,1.0,1.0,1.0,1.0,1.0,1.0,1.0,"
+			+ "1.0,1.0,1.0,1.0,1.0,1.0,1.0,1.0,1.0,1.0,1.0,1.0,1.0,1.0]}}";
+
+	private DeflateExtension ext;
+	private ExtensionContext client, server;
+
+	private static ExtensionContext context() {
+		final Map<String, Object> properties = new HashMap<String, Object>();
+		return new ExtensionContext() {
+			@Override
+			public Map<String, Object> getProperties() {
+				return properties;
+			}
+		};
+	}
+
+	private static Frame frame(byte opcode, boolean fin, byte[] data) {
+		return Frame.builder().opcode(opcode).fin(fin).payloadData(data)
+				.payloadLength(data.length).build();
+	}
+
+	private static Frame text(String text) {
+		return frame((byte) 0x01, true, text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String payload(Frame frame) {
+		return new String(frame.getPayloadData(), StandardCharsets.UTF_8);
+	}
+
+	@Before
+	public void setUp() {
+		ext = new DeflateExtension();
+		client = context();
+		server = context();
+		ext.onHandshakeResponse(client,
+				Collections.<Extension.Parameter> emptyList());
+		ext.onHandshakeResponse(server,
+				Collections.<Extension.Parameter> emptyList());
+	}
+
+	@Test
+	public void testConstructor() {
+		assertEquals(DeflateExtension.NAME, ext.getName());
+		assertEquals(Deflater.DEFAULT_COMPRESSION, ext.getCompressionLevel());
+		assertEquals(DeflateExtension.MAX_WINDOW_BITS,
+				ext.getServerMaxWindowBits());
+		assertFalse(ext.isClientNoContextTakeover());
+		assertFalse(ext.isServerNoContextTakeover());
+		assertEquals(DeflateExtension.DEFAULT_THRESHOLD, ext.getThreshold());
+		assertTrue(ext.getParameters().isEmpty());
+	}
+
+	@Test
+	public void testSetters() {
+		ext.setCompressionLevel(Deflater.BEST_SPEED);
+		ext.setServerMaxWindowBits(10);
+		ext.setClientNoContextTakeover(true);
+		ext.setServerNoContextTakeover(true);
+		ext.setThreshold(100);
+		assertEquals(Deflater.BEST_SPEED, ext.getCompressionLevel());
+		assertEquals(10, ext.getServerMaxWindowBits());
+		assertTrue(ext.isClientNoContextTakeover());
+		assertTrue(ext.isServerNoContextTakeover());
+		assertEquals(100, ext.getThreshold());
+
+		List<Extension.Parameter> params = ext.getParameters();
+		assertEquals(3, params.size());
+		assertEquals(DeflateExtension.CLIENT_NO_CONTEXT_TAKEOVER, params.get(0)
+				.getName());
+		assertNull(params.get(0).getValue());
+		assertEquals(DeflateExtension.SERVER_NO_CONTEXT_TAKEOVER, params.get(1)
+				.getName());
+		assertEquals(DeflateExtension.SERVER_MAX_WINDOW_BITS, params.get(2)
+				.getName());
+		assertEquals("10", params.get(2).getValue());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCompressionLevel() {
+		ext.setCompressionLevel(10);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidWindowBits() {
+		ext.setServerMaxWindowBits(8);
+	}
+
+	@Test
+	public void testOnExtensionNegotiation() {
+		assertTrue(ext.onExtensionNegotiation(server,
+				Collections.<Extension.Parameter> emptyList()).isEmpty());
+	}
+
+	@Test
+	public void testRoundTrip() {
+		for (int i = 0; i < 3; i++) {
+			Frame compressed = ext.processOutgoing(client, text(TEXT));
+			assertTrue(compressed.isRsv1());
+			assertTrue(compressed.getPayloadLength() < TEXT.length());
+			Frame inflated = ext.processIncoming(server, compressed);
+			assertFalse(inflated.isRsv1());
+			assertEquals(TEXT.length(), inflated.getPayloadLength());
+			assertEquals(TEXT, payload(inflated));
+		}
+	}
+
+	@Test
+	public void testContextTakeover() {
+		int first = (int) ext.processOutgoing(client, text(TEXT))
+				.getPayloadLength();
+		int second = (int) ext.processOutgoing(client, text(TEXT))
+				.getPayloadLength();
+		// the second message refers back to the first
+		assertTrue(second < first);
+	}
+
+	@Test
+	public void testClientNoContextTakeover() {
+		ext.setClientNoContextTakeover(true);
+		ext.onHandshakeResponse(client,
+				Collections.<Extension.Parameter> emptyList());
+		Frame f1 = ext.processOutgoing(client, text(TEXT));
+		Frame f2 = ext.processOutgoing(client, text(TEXT));
+		assertArrayEquals(f1.getPayloadData(), f2.getPayloadData());
+
+		// each message can be inflated on its own
+		ExtensionContext fresh = context();
+		ext.onHandshakeResponse(fresh,
+				Collections.<Extension.Parameter> emptyList());
+		assertEquals(TEXT, payload(ext.processIncoming(fresh, f2)));
+	}
+
+	@Test
+	public void testServerRequiresNoContextTakeover() {
+		ext.onHandshakeResponse(client, Arrays
+				.<Extension.Parameter> asList(new Extension.Parameter() {
+					public String getName() {
+						return DeflateExtension.CLIENT_NO_CONTEXT_TAKEOVER;
+					}
+
+					public String getValue() {
+						return null;
+					}
+				}));
+		Frame f1 = ext.processOutgoing(client, text(TEXT));
+		Frame f2 = ext.processOutgoing(client, text(TEXT));
+		assertArrayEquals(f1.getPayloadData(), f2.getPayloadData());
+	}
+
+	@Test
+	public void testThreshold() {
+		Frame small = text("{\"op\":\"publish\"}");
+		assertSame(small, ext.processOutgoing(client, small));
+
+		ext.setThreshold(1000);
+		Frame large = text(TEXT);
+		assertSame(large, ext.processOutgoing(client, large));
+
+		// a per message threshold overrides the default
+		ext.setNextThreshold(0);
+		assertTrue(ext.processOutgoing(client, small).isRsv1());
+		ext.setNextThreshold(-1);
+		assertSame(small, ext.processOutgoing(client, small));
+	}
+
+	@Test
+	public void testUncompressedIncoming() {
+		Frame f = text(TEXT);
+		assertSame(f, ext.processIncoming(server, f));
+	}
+
+	@Test
+	public void testContinuationFrames() {
+		byte[] compressed = ext.processOutgoing(client, text(TEXT))
+				.getPayloadData();
+		int half = compressed.length / 2;
+		Frame first = Frame
+				.builder(frame((byte) 0x01, false,
+						Arrays.copyOfRange(compressed, 0, half))).rsv1(true)
+				.build();
+		Frame rest = frame((byte) 0x00, true,
+				Arrays.copyOfRange(compressed, half, compressed.length));
+		String result = payload(ext.processIncoming(server, first))
+				+ payload(ext.processIncoming(server, rest));
+		assertEquals(TEXT, result);
+	}
+
+	@Test
+	public void testNotCompressed() {
+		// control frames and partial messages are left alone
+		Frame ping = frame((byte) 0x09, true, TEXT.getBytes());
+		assertSame(ping, ext.processOutgoing(client, ping));
+		Frame partial = frame((byte) 0x01, false, TEXT.getBytes());
+		assertSame(partial, ext.processOutgoing(client, partial));
+
+		// no state without a handshake
+		Frame f = text(TEXT);
+		assertSame(f, ext.processOutgoing(context(), f));
+		assertSame(f, ext.processIncoming(context(), f));
+	}
+
+	@Test
+	public void testDestroy() {
+		ext.destroy(client);
+		Frame f = text(TEXT);
+		assertSame(f, ext.processOutgoing(client, f));
+		ext.destroy(context());
+	}
+}
@@ -0,0 +1,260 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class TestDispatchExecutor {
+
+	private DispatchExecutor d;
+
+	@After
+	public void tearDown() {
+		if (d != null) {
+			d.shutdown(1000);
+		}
+	}
+
+	@Test
+	public void testConstructor() {
+		d = new DispatchExecutor("test", 3, 5,
+				JRosbridge.OverflowPolicy.DROP_OLDEST);
+		assertEquals(3, d.getWorkers());
+		assertEquals(5, d.getQueueDepth());
+		assertEquals(JRosbridge.OverflowPolicy.DROP_OLDEST, d.getPolicy());
+		assertEquals(0, d.getActiveLanes());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidWorkers() {
+		new DispatchExecutor("test", 0, 5, JRosbridge.OverflowPolicy.BLOCK);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidQueueDepth() {
+		new DispatchExecutor("test", 1, 0, JRosbridge.OverflowPolicy.BLOCK);
+	}
+
+	@Test
+	public void testOrderedPerKey() throws Exception {
+		d = new DispatchExecutor("test", 4, 1000,
+				JRosbridge.OverflowPolicy.BLOCK);
+		final List<Integer> a = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		final List<Integer> b = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		for (int i = 0; i < 500; i++) {
+			assertTrue(d.dispatch("a", new Append(a, i)));
+			assertTrue(d.dispatch("b", new Append(b, i)));
+		}
+		assertTrue(d.shutdown(5000));
+		d = null;
+
+		assertEquals(500, a.size());
+		assertEquals(500, b.size());
+		for (int i = 0; i < 500; i++) {
+			assertEquals(i, (int) a.get(i));
+			assertEquals(i, (int) b.get(i));
+		}
+	}
+
+	@Test
+	public void testParallelKeys() throws Exception {
+		d = new DispatchExecutor("test", 2, 10,
+				JRosbridge.OverflowPolicy.BLOCK);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(1);
+		d.dispatch("slow", new Runnable() {
+			@Override
+			public void run() {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		d.dispatch("fast", new Runnable() {
+			@Override
+			public void run() {
+				done.countDown();
+			}
+		});
+
+		// the fast key runs while the slow key is still blocked
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		release.countDown();
+	}
+
+	@Test
+	public void testDropNewest() throws Exception {
+		d = new DispatchExecutor("test", 1, 2,
+				JRosbridge.OverflowPolicy.DROP_NEWEST);
+		List<Integer> out = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		CountDownLatch release = this.block("a");
+		assertTrue(d.dispatch("a", new Append(out, 1)));
+		assertTrue(d.dispatch("a", new Append(out, 2)));
+		assertFalse(d.dispatch("a", new Append(out, 3)));
+		release.countDown();
+		assertTrue(d.shutdown(5000));
+		d = null;
+		assertEquals(2, out.size());
+		assertEquals(1, (int) out.get(0));
+		assertEquals(2, (int) out.get(1));
+	}
+
+	@Test
+	public void testDropOldest() throws Exception {
+		d = new DispatchExecutor("test", 1, 2,
+				JRosbridge.OverflowPolicy.DROP_OLDEST);
+		List<Integer> out = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		CountDownLatch release = this.block("a");
+		assertTrue(d.dispatch("a", new Append(out, 1)));
+		assertTrue(d.dispatch("a", new Append(out, 2)));
+		assertTrue(d.dispatch("a", new Append(out, 3)));
+		release.countDown();
+		assertTrue(d.shutdown(5000));
+		d = null;
+		assertEquals(2, out.size());
+		assertEquals(2, (int) out.get(0));
+		assertEquals(3, (int) out.get(1));
+	}
+
+	@Test
+	public void testFail() throws Exception {
+		d = new DispatchExecutor("test", 1, 1, JRosbridge.OverflowPolicy.FAIL);
+		List<Integer> out = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		CountDownLatch release = this.block("a");
+		assertTrue(d.dispatch("a", new Append(out, 1)));
+		assertFalse(d.dispatch("a", new Append(out, 2)));
+
+		// other keys have their own queue
+		assertTrue(d.dispatch("b", new Append(out, 3)));
+		release.countDown();
+	}
+
+	@Test
+	public void testBlock() throws Exception {
+		d = new DispatchExecutor("test", 1, 1, JRosbridge.OverflowPolicy.BLOCK);
+		final List<Integer> out = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		CountDownLatch release = this.block("a");
+		assertTrue(d.dispatch("a", new Append(out, 1)));
+
+		final CountDownLatch accepted = new CountDownLatch(1);
+		Thread t = new Thread() {
+			@Override
+			public void run() {
+				if (d.dispatch("a", new Append(out, 2))) {
+					accepted.countDown();
+				}
+			}
+		};
+		t.start();
+		assertFalse(accepted.await(100, TimeUnit.MILLISECONDS));
+		release.countDown();
+		assertTrue(accepted.await(5, TimeUnit.SECONDS));
+		t.join();
+		assertTrue(d.shutdown(5000));
+		d = null;
+		assertEquals(2, out.size());
+		assertEquals(1, (int) out.get(0));
+		assertEquals(2, (int) out.get(1));
+	}
+
+	@Test
+	public void testCallbackException() throws Exception {
+		d = new DispatchExecutor("test", 1, 10,
+				JRosbridge.OverflowPolicy.BLOCK);
+		List<Integer> out = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		d.dispatch("a", new Runnable() {
+			@Override
+			public void run() {
+				throw new IllegalStateException("test");
+			}
+		});
+		d.dispatch("a", new Append(out, 1));
+		assertTrue(d.shutdown(5000));
+		d = null;
+		assertEquals(1, out.size());
+	}
+
+	@Test
+	public void testLanesRemoved() throws Exception {
+		d = new DispatchExecutor("test", 2, 10,
+				JRosbridge.OverflowPolicy.BLOCK);
+		List<Integer> out = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		for (int i = 0; i < 100; i++) {
+			d.dispatch("key" + i, new Append(out, i));
+		}
+		long deadline = System.currentTimeMillis() + 5000;
+		while (d.getActiveLanes() > 0
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		assertEquals(0, d.getActiveLanes());
+		assertEquals(100, out.size());
+	}
+
+	@Test
+	public void testShutdown() throws Exception {
+		d = new DispatchExecutor("test", 1, 10,
+				JRosbridge.OverflowPolicy.BLOCK);
+		List<Integer> out = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		assertTrue(d.dispatch("a", new Append(out, 1)));
+		assertTrue(d.shutdown(5000));
+		assertFalse(d.dispatch("a", new Append(out, 2)));
+		d = null;
+		assertEquals(1, out.size());
+	}
+
+	/**
+	 * Occupy the lane for the given key until the returned latch is released.
+	 */
+	private CountDownLatch block(String key) throws InterruptedException {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		d.dispatch(key, new Runnable() {
+			@Override
+			public void run() {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		return release;
+	}
+
+	private static class Append implements Runnable {
+
+		private final List<Integer> list;
+		private final int value;
+
+		public Append(List<Integer> list, int value) {
+			this.list = list;
+			this.value = value;
+		}
+
+		@Override
+		public void run() {
+			this.list.add(this.value);
+		}
+	}
+}
@@ -0,0 +1,162 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestFragmentAssembler {
+
+	private FragmentAssembler fa;
+
+	@Before
+	public void setUp() {
+		fa = new FragmentAssembler(1000, 100);
+	}
+
+	@Test
+	public void testConstructor() {
+		FragmentAssembler def = new FragmentAssembler();
+		assertEquals(FragmentAssembler.DEFAULT_TIMEOUT, def.getTimeout());
+		assertEquals(FragmentAssembler.DEFAULT_MAX_BUFFERED,
+				def.getMaxBuffered());
+		assertEquals(0, def.size());
+		assertEquals(0, def.getBuffered());
+	}
+
+	@Test
+	public void testSetters() {
+		fa.setTimeout(5);
+		fa.setMaxBuffered(10);
+		assertEquals(5, fa.getTimeout());
+		assertEquals(10, fa.getMaxBuffered());
+	}
+
+	@Test
+	public void testSingleFragment() {
+		assertEquals("abc", fa.add("id", 0, 1, "abc", 0));
+		assertEquals(0, fa.size());
+	}
+
+	@Test
+	public void testInOrder() {
+		assertNull(fa.add("id", 0, 3, "ab", 0));
+		assertNull(fa.add("id", 1, 3, "cd", 0));
+		assertEquals(1, fa.size());
+		assertEquals(4, fa.getBuffered());
+		assertEquals("abcdef", fa.add("id", 2, 3, "ef", 0));
+		assertEquals(0, fa.size());
+		assertEquals(0, fa.getBuffered());
+	}
+
+	@Test
+	public void testOutOfOrder() {
+		assertNull(fa.add("id", 2, 3, "ef", 0));
+		assertNull(fa.add("id", 0, 3, "ab", 0));
+		assertEquals("abcdef", fa.add("id", 1, 3, "cd", 0));
+	}
+
+	@Test
+	public void testInterleaved() {
+		assertNull(fa.add("a", 0, 2, "1", 0));
+		assertNull(fa.add("b", 0, 2, "3", 0));
+		assertEquals("34", fa.add("b", 1, 2, "4", 0));
+		assertEquals("12", fa.add("a", 1, 2, "2", 0));
+	}
+
+	@Test
+	public void testDuplicate() {
+		assertNull(fa.add("id", 0, 2, "xx", 0));
+		assertNull(fa.add("id", 0, 2, "a", 0));
+		assertEquals(1, fa.getBuffered());
+		assertEquals("ab", fa.add("id", 1, 2, "b", 0));
+	}
+
+	@Test
+	public void testTotalChanged() {
+		assertNull(fa.add("id", 0, 3, "old", 0));
+		assertNull(fa.add("id", 0, 2, "a", 0));
+		assertEquals(1, fa.getBuffered());
+		assertEquals("ab", fa.add("id", 1, 2, "b", 0));
+	}
+
+	@Test
+	public void testExpire() {
+		assertNull(fa.add("a", 0, 2, "1", 0));
+		assertNull(fa.add("b", 0, 2, "3", 900));
+		assertNull(fa.add("a", 1, 2, "2", 1500));
+		// "a" expired and started over
+		assertEquals(2, fa.size());
+		assertEquals("34", fa.add("b", 1, 2, "4", 1500));
+		fa.expire(3000);
+		assertEquals(0, fa.size());
+		assertEquals(0, fa.getBuffered());
+	}
+
+	@Test
+	public void testBufferLimit() {
+		assertNull(fa.add("a", 0, 2, new String(new char[60]), 0));
+		assertNull(fa.add("b", 0, 2, new String(new char[30]), 0));
+		assertEquals(90, fa.getBuffered());
+		// exceeds the limit, so the oldest message is dropped
+		assertNull(fa.add("c", 0, 2, new String(new char[20]), 0));
+		assertEquals(2, fa.size());
+		assertEquals(50, fa.getBuffered());
+		assertEquals(21, fa.add("c", 1, 2, "y", 0).length());
+	}
+
+	@Test
+	public void testMessageLargerThanLimit() {
+		assertNull(fa.add("a", 0, 2, new String(new char[101]), 0));
+		assertEquals(0, fa.size());
+		assertEquals(0, fa.getBuffered());
+	}
+
+	@Test
+	public void testTotalLargerThanLimit() {
+		assertNull(fa.add("a", 0, 101, "x", 0));
+		assertEquals(0, fa.size());
+	}
+
+	@Test
+	public void testLargeTotalNotPreallocated() {
+		FragmentAssembler def = new FragmentAssembler();
+		// a tiny fragment declaring a huge total only holds what was received
+		assertNull(def.add("a", 0, FragmentAssembler.DEFAULT_MAX_BUFFERED, "x",
+				0));
+		assertEquals(1, def.size());
+		assertEquals(1, def.getBuffered());
+	}
+
+	@Test
+	public void testEmptyFragmentsCounted() {
+		for (int i = 0; i < 60; i++) {
+			assertNull(fa.add("a", i, 100, "", 0));
+		}
+		assertEquals(60, fa.getBuffered());
+		for (int i = 0; i < 41; i++) {
+			assertNull(fa.add("b", i, 100, "", 0));
+		}
+		// the empty fragments exceeded the limit, so "a" was dropped
+		assertEquals(1, fa.size());
+		assertEquals(41, fa.getBuffered());
+	}
+
+	@Test
+	public void testClear() {
+		assertNull(fa.add("a", 0, 2, "1", 0));
+		fa.clear();
+		assertEquals(0, fa.size());
+		assertEquals(0, fa.getBuffered());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidNum() {
+		fa.add("a", 2, 2, "1", 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidTotal() {
+		fa.add("a", 0, 0, "1", 0);
+	}
+}
@@ -0,0 +1,79 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestFrameHeader {
+
+	@Test
+	public void testConstructor() {
+		FrameHeader h = new FrameHeader("publish", "/a", "id");
+		assertEquals("publish", h.getOp());
+		assertEquals("/a", h.getTopic());
+		assertEquals("id", h.getId());
+	}
+
+	@Test
+	public void testScan() {
+		FrameHeader h = FrameHeader
+				.scan("{\"op\":\"publish\",\"id\":\"x\",\"topic\":\"/a\",\"msg\":{}}");
+		assertEquals("publish", h.getOp());
+		assertEquals("/a", h.getTopic());
+		assertEquals("x", h.getId());
+	}
+
+	@Test
+	public void testScanStopsAtObject() {
+		// the rest of the frame is never read
+		FrameHeader h = FrameHeader
+				.scan("{\"op\":\"publish\",\"msg\":{\"data\":[1,2,3]},\"topic\":\"/a\"");
+		assertEquals("publish", h.getOp());
+		assertNull(h.getTopic());
+		assertNull(h.getId());
+	}
+
+	@Test
+	public void testScanStopsAtArray() {
+		FrameHeader h = FrameHeader
+				.scan("{\"op\":\"publish\",\"data\":[1],\"topic\":\"/a\"}");
+		assertEquals("publish", h.getOp());
+		assertNull(h.getTopic());
+	}
+
+	@Test
+	public void testScanSkipsOtherValues() {
+		FrameHeader h = FrameHeader
+				.scan("{\"result\":true,\"op\":\"service_response\",\"n\":1.5,"
+						+ "\"x\":null,\"id\":\"call:1\",\"values\":{}}");
+		assertEquals("service_response", h.getOp());
+		assertEquals("call:1", h.getId());
+		assertNull(h.getTopic());
+	}
+
+	@Test
+	public void testScanIgnoresNonStrings() {
+		FrameHeader h = FrameHeader.scan("{\"op\":1,\"topic\":false}");
+		assertNull(h.getOp());
+		assertNull(h.getTopic());
+	}
+
+	@Test
+	public void testScanInvalid() {
+		FrameHeader h = FrameHeader.scan("{\"op\":\"publish\",\"topic\":");
+		assertEquals("publish", h.getOp());
+		assertNull(h.getTopic());
+
+		h = FrameHeader.scan("not json");
+		assertNull(h.getOp());
+
+		h = FrameHeader.scan("");
+		assertNull(h.getOp());
+	}
+
+	@Test
+	public void testScanNotObject() {
+		FrameHeader h = FrameHeader.scan("[\"op\",\"publish\"]");
+		assertNull(h.getOp());
+	}
+}
@@ -9,9 +9,15 @@ public class TestJRosbridge {
 	@Test
 	public void testEnums() {
 		new JRosbridge();
-		assertEquals(2, JRosbridge.CompressionType.values().length);
+		assertEquals(4, JRosbridge.CompressionType.values().length);
 		assertEquals(JRosbridge.CompressionType.png,
 				JRosbridge.CompressionType.valueOf("png"));
+		assertEquals(JRosbridge.CompressionType.cbor,
+				JRosbridge.CompressionType.valueOf("cbor"));
+		assertEquals(JRosbridge.CompressionType.cbor_raw,
+				JRosbridge.CompressionType.valueOf("cbor_raw"));
+		assertEquals("cbor-raw", JRosbridge.CompressionType.cbor_raw.toString());
+		assertEquals("none", JRosbridge.CompressionType.none.toString());
 		assertEquals(JRosbridge.CompressionType.none,
 				JRosbridge.CompressionType.valueOf("none"));
 		assertEquals(2, JRosbridge.WebSocketType.values().length);
@@ -19,6 +25,13 @@ public class TestJRosbridge {
 				JRosbridge.WebSocketType.valueOf("ws"));
 		assertEquals(JRosbridge.WebSocketType.wss,
 				JRosbridge.WebSocketType.valueOf("wss"));
+		assertEquals(3, JRosbridge.EncodingType.values().length);
+		assertEquals(JRosbridge.EncodingType.json,
+				JRosbridge.EncodingType.valueOf("json"));
+		assertEquals(JRosbridge.EncodingType.cbor,
+				JRosbridge.EncodingType.valueOf("cbor"));
+		assertEquals(JRosbridge.EncodingType.bson,
+				JRosbridge.EncodingType.valueOf("bson"));
 	}
 
 }
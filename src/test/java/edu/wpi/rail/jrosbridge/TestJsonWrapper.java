@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -74,6 +75,68 @@ public class TestJsonWrapper {
 		assertFalse(empty.equals(new String(JsonWrapper.EMPTY_JSON)));
 	}
 
+	@Test
+	public void testDeferred() {
+		LazyJsonWrapper lazy = new LazyJsonWrapper(123, "abc");
+		assertEquals(0, lazy.writes);
+		assertEquals(m1.toString(), lazy.toString());
+		assertEquals(m1.toJsonObject(), lazy.toJsonObject());
+		assertEquals(m1.hashCode(), lazy.hashCode());
+		assertTrue(lazy.equals(m1));
+		assertTrue(m1.equals(lazy));
+		// only written once
+		assertEquals(1, lazy.writes);
+	}
+
+	@Test
+	public void testDeferredJsonObjectFirst() {
+		LazyJsonWrapper lazy = new LazyJsonWrapper(1, "x");
+		assertEquals(1, lazy.toJsonObject().getInt("test"));
+		assertEquals("{\"test\":1,\"test2\":\"x\"}", lazy.toString());
+		assertEquals(1, lazy.writes);
+	}
+
+	@Test
+	public void testWriteJsonFields() {
+		java.io.StringWriter writer = new java.io.StringWriter();
+		JsonGenerator generator = Json.createGenerator(writer);
+		generator.writeStartObject();
+		generator.writeStartObject("a");
+		m2.writeJsonFields(generator);
+		generator.writeEnd();
+		generator.writeEnd();
+		generator.close();
+		assertEquals("{\"a\":" + m2.toString() + "}", writer.toString());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testDeferredNotWritten() {
+		new DummyJsonWrapper((JsonObject) null).toString();
+	}
+
+	private class LazyJsonWrapper extends JsonWrapper {
+
+		private final int test;
+		private final String test2;
+		private int writes;
+
+		public LazyJsonWrapper(int test, String test2) {
+			super((JsonObject) null);
+			this.test = test;
+			this.test2 = test2;
+		}
+
+		@Override
+		public void writeJsonFields(JsonGenerator generator) {
+			this.writes++;
+			generator.write("test", this.test).write("test2", this.test2);
+		}
+
+		public JsonWrapper clone() {
+			return null;
+		}
+	}
+
 	private class DummyJsonWrapper extends JsonWrapper {
 		public DummyJsonWrapper() {
 			super();
@@ -0,0 +1,266 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.callback.MapUpdateCallback;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.geometry.Pose;
+import edu.wpi.rail.jrosbridge.messages.map.OccupancyGridUpdate;
+import edu.wpi.rail.jrosbridge.messages.nav.MapMetaData;
+import edu.wpi.rail.jrosbridge.messages.nav.OccupancyGrid;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+public class TestLiveMap {
+
+	private Ros ros;
+	private LiveMap map;
+	private OccupancyGrid g1;
+	private Recorder recorder;
+
+	@Before
+	public void setUp() {
+		ros = new Ros();
+		map = new LiveMap(ros, "/map");
+		// a 4x3 map with cell (x, y) set to 10 * y + x
+		byte[] data = new byte[12];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) (10 * (i / 4) + i % 4);
+		}
+		g1 = new OccupancyGrid(new Header(1, new Time(2, 3), "map"),
+				new MapMetaData(new Time(), 0.5f, 4, 3, new Pose()), data);
+		recorder = new Recorder();
+		map.addCallback(recorder);
+	}
+
+	private static String publish(String topic, Message msg) {
+		return "{\"op\": \"publish\", \"topic\": \"" + topic + "\", \"msg\": "
+				+ msg.toString() + "}";
+	}
+
+	private static OccupancyGridUpdate update(int x, int y, int width,
+			int height, int value) {
+		byte[] data = new byte[width * height];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) (value + i);
+		}
+		return new OccupancyGridUpdate(new Header(2, new Time(), "map"), x, y,
+				width, height, data);
+	}
+
+	private static class Recorder implements MapUpdateCallback {
+
+		private final List<int[]> updates = new ArrayList<int[]>();
+
+		@Override
+		public void handleUpdate(LiveMap map, int x, int y, int width,
+				int height) {
+			this.updates.add(new int[] { x, y, width, height });
+		}
+	}
+
+	@Test
+	public void testConstructor() {
+		assertEquals("/map", map.getMapTopic().getName());
+		assertEquals(OccupancyGrid.TYPE, map.getMapTopic().getType());
+		assertEquals("/map_updates", map.getUpdatesTopic().getName());
+		assertEquals(OccupancyGridUpdate.TYPE, map.getUpdatesTopic()
+				.getType());
+		assertEquals(JRosbridge.CompressionType.none, map.getMapTopic()
+				.getCompression());
+		assertFalse(map.isSubscribed());
+		assertFalse(map.hasMap());
+		assertNull(map.getHeader());
+		assertNull(map.getInfo());
+		assertEquals(0, map.getWidth());
+		assertEquals(0, map.getHeight());
+		assertEquals(0, map.getVersion());
+		assertEquals(OccupancyGrid.UNKNOWN, map.get(0, 0));
+		assertNull(map.toOccupancyGrid());
+	}
+
+	@Test
+	public void testConstructorTopics() {
+		LiveMap m = new LiveMap(ros, "/costmap", "/costmap_updates",
+				JRosbridge.CompressionType.cbor);
+		assertEquals("/costmap", m.getMapTopic().getName());
+		assertEquals("/costmap_updates", m.getUpdatesTopic().getName());
+		assertEquals(JRosbridge.CompressionType.cbor, m.getUpdatesTopic()
+				.getCompression());
+	}
+
+	@Test
+	public void testSetMap() {
+		assertTrue(map.setMap(g1));
+		assertTrue(map.hasMap());
+		assertEquals(g1.getHeader(), map.getHeader());
+		assertEquals(g1.getInfo(), map.getInfo());
+		assertEquals(4, map.getWidth());
+		assertEquals(3, map.getHeight());
+		assertEquals(1, map.getVersion());
+		assertEquals(21, map.get(1, 2));
+		assertEquals(OccupancyGrid.UNKNOWN, map.get(4, 0));
+		assertEquals(OccupancyGrid.UNKNOWN, map.get(0, -1));
+		assertEquals(g1.toString(), map.toOccupancyGrid().toString());
+
+		assertEquals(1, recorder.updates.size());
+		assertArrayEquals(new int[] { 0, 0, 4, 3 }, recorder.updates.get(0));
+	}
+
+	@Test
+	public void testSetMapShortData() {
+		OccupancyGrid g = new OccupancyGrid(new Header(), new MapMetaData(
+				new Time(), 1f, 4, 3, new Pose()), new byte[11]);
+		assertFalse(map.setMap(g));
+		assertFalse(map.hasMap());
+		assertEquals(0, recorder.updates.size());
+	}
+
+	@Test
+	public void testSetMapReplaces() {
+		map.setMap(g1);
+		OccupancyGrid g2 = new OccupancyGrid(new Header(), new MapMetaData(
+				new Time(), 1f, 2, 1, new Pose()), new byte[] { 7, 8 });
+		assertTrue(map.setMap(g2));
+		assertEquals(2, map.getWidth());
+		assertEquals(1, map.getHeight());
+		assertEquals(8, map.get(1, 0));
+		assertEquals(OccupancyGrid.UNKNOWN, map.get(2, 0));
+		assertEquals(2, map.getVersion());
+	}
+
+	@Test
+	public void testApplyUpdate() {
+		map.setMap(g1);
+		assertTrue(map.applyUpdate(update(1, 1, 2, 2, 100)));
+		assertEquals(0, map.get(0, 0));
+		assertEquals(100, map.get(1, 1));
+		assertEquals(101, map.get(2, 1));
+		assertEquals(102, map.get(1, 2));
+		assertEquals(103, map.get(2, 2));
+		assertEquals(13, map.get(3, 1));
+		assertEquals(20, map.get(0, 2));
+		assertEquals(2, map.getHeader().getSeq());
+		assertEquals(2, map.getVersion());
+
+		assertEquals(2, recorder.updates.size());
+		assertArrayEquals(new int[] { 1, 1, 2, 2 }, recorder.updates.get(1));
+	}
+
+	@Test
+	public void testApplyUpdateClipped() {
+		map.setMap(g1);
+		// covers (-1, -1) to (1, 1), of which only (0, 0) to (1, 1) is in
+		// the map
+		assertTrue(map.applyUpdate(update(-1, -1, 3, 3, 100)));
+		assertEquals(104, map.get(0, 0));
+		assertEquals(105, map.get(1, 0));
+		assertEquals(107, map.get(0, 1));
+		assertEquals(108, map.get(1, 1));
+		assertEquals(2, map.get(2, 0));
+		assertArrayEquals(new int[] { 0, 0, 2, 2 }, recorder.updates.get(1));
+
+		// covers (3, 2) to (4, 3), of which only (3, 2) is in the map
+		assertTrue(map.applyUpdate(update(3, 2, 2, 2, 50)));
+		assertEquals(50, map.get(3, 2));
+		assertEquals(22, map.get(2, 2));
+		assertArrayEquals(new int[] { 3, 2, 1, 1 }, recorder.updates.get(2));
+	}
+
+	@Test
+	public void testApplyUpdateOutside() {
+		map.setMap(g1);
+		assertFalse(map.applyUpdate(update(4, 0, 1, 1, 100)));
+		assertFalse(map.applyUpdate(update(-2, 0, 2, 1, 100)));
+		assertFalse(map.applyUpdate(update(0, 3, 1, 1, 100)));
+		assertFalse(map.applyUpdate(update(0, 0, 0, 0, 100)));
+		assertEquals(1, map.getVersion());
+		assertEquals(g1.toString(), map.toOccupancyGrid().toString());
+		assertEquals(1, recorder.updates.size());
+	}
+
+	@Test
+	public void testApplyUpdateShortData() {
+		map.setMap(g1);
+		assertFalse(map.applyUpdate(new OccupancyGridUpdate(new Header(), 0,
+				0, 2, 2, new byte[3])));
+		assertEquals(1, map.getVersion());
+	}
+
+	@Test
+	public void testApplyUpdateNoMap() {
+		assertFalse(map.applyUpdate(update(0, 0, 1, 1, 100)));
+		assertFalse(map.hasMap());
+		assertEquals(0, recorder.updates.size());
+	}
+
+	@Test
+	public void testToOccupancyGridIsCopy() {
+		map.setMap(g1);
+		OccupancyGrid snapshot = map.toOccupancyGrid();
+		map.applyUpdate(update(0, 0, 1, 1, 100));
+		assertEquals(0, snapshot.get(0, 0));
+		assertEquals(100, map.get(0, 0));
+		assertEquals(0, g1.get(0, 0));
+	}
+
+	@Test
+	public void testSubscribe() {
+		map.subscribe();
+		assertTrue(map.isSubscribed());
+		assertTrue(map.getMapTopic().isSubscribed());
+		assertTrue(map.getUpdatesTopic().isSubscribed());
+
+		ros.onMessage(publish("/map_updates", update(0, 0, 1, 1, 100)));
+		assertFalse(map.hasMap());
+
+		ros.onMessage(publish("/map", g1));
+		assertTrue(map.hasMap());
+		assertEquals(g1.toString(), map.toOccupancyGrid().toString());
+
+		ros.onMessage(publish("/map_updates", update(2, 1, 2, 1, 90)));
+		assertEquals(90, map.get(2, 1));
+		assertEquals(91, map.get(3, 1));
+		assertEquals(2, map.getVersion());
+		assertEquals(2, recorder.updates.size());
+	}
+
+	@Test
+	public void testSubscribeTwice() {
+		map.subscribe();
+		map.subscribe();
+		ros.onMessage(publish("/map", g1));
+		assertEquals(1, map.getVersion());
+		assertEquals(1, recorder.updates.size());
+	}
+
+	@Test
+	public void testUnsubscribe() {
+		map.subscribe();
+		ros.onMessage(publish("/map", g1));
+		map.unsubscribe();
+		assertFalse(map.isSubscribed());
+		assertFalse(map.getMapTopic().isSubscribed());
+		assertFalse(map.getUpdatesTopic().isSubscribed());
+
+		// the map is kept, but no longer updated
+		ros.onMessage(publish("/map_updates", update(0, 0, 1, 1, 100)));
+		assertTrue(map.hasMap());
+		assertEquals(0, map.get(0, 0));
+		assertEquals(1, map.getVersion());
+	}
+
+	@Test
+	public void testRemoveCallback() {
+		assertTrue(map.removeCallback(recorder));
+		assertFalse(map.removeCallback(recorder));
+		map.setMap(g1);
+		assertEquals(0, recorder.updates.size());
+	}
+}
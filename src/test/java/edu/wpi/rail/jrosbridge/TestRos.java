@@ -2,7 +2,28 @@ package edu.wpi.rail.jrosbridge;
 
 import static org.junit.Assert.*;
 
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import javax.json.Json;
+import javax.imageio.ImageIO;
+import javax.json.JsonObject;
 import javax.websocket.Session;
 
 import org.junit.After;
@@ -11,10 +32,15 @@ import org.junit.Test;
 
 import edu.wpi.rail.jrosbridge.JRosbridge;
 import edu.wpi.rail.jrosbridge.Ros;
+import edu.wpi.rail.jrosbridge.callback.RawTopicCallback;
 import edu.wpi.rail.jrosbridge.callback.ServiceCallback;
 import edu.wpi.rail.jrosbridge.callback.TopicCallback;
+import edu.wpi.rail.jrosbridge.codec.BsonEncoder;
+import edu.wpi.rail.jrosbridge.codec.CborEncoder;
 import edu.wpi.rail.jrosbridge.handler.RosHandler;
 import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.metrics.RosMetrics;
+import edu.wpi.rail.jrosbridge.primitives.Time;
 import edu.wpi.rail.jrosbridge.services.ServiceResponse;
 
 public class TestRos {
@@ -164,6 +190,118 @@ public class TestRos {
 		assertEquals("value", DummyHandler.latest.getString("test"));
 	}
 
+	@Test
+	public void testFragmentSize() {
+		assertEquals(0, r1.getFragmentSize());
+		r1.setFragmentSize(100);
+		assertEquals(100, r1.getFragmentSize());
+	}
+
+	private static JsonObject publishCall() {
+		return Json
+				.createObjectBuilder()
+				.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_PUBLISH)
+				.add(JRosbridge.FIELD_ID, "publish:myTopic:0")
+				.add(JRosbridge.FIELD_TOPIC, "myTopic")
+				.add(JRosbridge.FIELD_MESSAGE,
+						Json.createObjectBuilder().add("test1",
+								"test2 \ud83d\ude00 test3")).build();
+	}
+
+	@Test
+	public void testSendFragmented() {
+		assertTrue(r1.connect());
+		r1.setFragmentSize(10);
+		assertTrue(r1.send(publishCall()));
+
+		// wait for the last fragment
+		while (DummyHandler.latest == null
+				|| DummyHandler.latest.getInt(JRosbridge.FIELD_NUM) != DummyHandler.latest
+						.getInt(JRosbridge.FIELD_TOTAL) - 1) {
+			Thread.yield();
+		}
+
+		assertEquals(JRosbridge.OP_CODE_FRAGMENT,
+				DummyHandler.latest.getString(JRosbridge.FIELD_OP));
+		assertEquals("publish:myTopic:0",
+				DummyHandler.latest.getString(JRosbridge.FIELD_ID));
+		assertTrue(DummyHandler.latest.getInt(JRosbridge.FIELD_TOTAL) > 1);
+	}
+
+	@Test
+	public void testSendFragmentedRoundTrip() throws Exception {
+		RecordingRos sender = new RecordingRos();
+		sender.setFragmentSize(10);
+		sender.enableAsyncSend(10, JRosbridge.OverflowPolicy.BLOCK);
+		JsonObject call = publishCall();
+		assertTrue(sender.sendAsync(call).get());
+		sender.disableAsyncSend();
+		assertTrue(sender.written.size() > 1);
+
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerTopicCallback("myTopic", cb);
+		for (String fragment : sender.written) {
+			JsonObject json = Json.createReader(new StringReader(fragment))
+					.readObject();
+			assertEquals(JRosbridge.OP_CODE_FRAGMENT,
+					json.getString(JRosbridge.FIELD_OP));
+			assertTrue(json.getString(JRosbridge.FIELD_DATA).length() <= 10);
+			r1.onMessage(fragment);
+		}
+		assertNotNull(cb.latest);
+		assertEquals(call.getJsonObject(JRosbridge.FIELD_MESSAGE),
+				cb.latest.toJsonObject());
+	}
+
+	@Test
+	public void testSendNotFragmented() throws Exception {
+		RecordingRos sender = new RecordingRos();
+		sender.setFragmentSize(10);
+		sender.enableAsyncSend(10, JRosbridge.OverflowPolicy.BLOCK);
+		JsonObject subscribe = Json.createObjectBuilder()
+				.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_SUBSCRIBE)
+				.add(JRosbridge.FIELD_TOPIC, "myLongTopicName").build();
+		assertTrue(sender.sendAsync(subscribe).get());
+		sender.setFragmentSize(1000);
+		assertTrue(sender.sendAsync(publishCall()).get());
+		sender.disableAsyncSend();
+		assertEquals(2, sender.written.size());
+		assertEquals(subscribe.toString(), sender.written.get(0));
+		assertEquals(publishCall().toString(), sender.written.get(1));
+	}
+
+	@Test
+	public void testDeflateExtension() {
+		assertNull(r1.getDeflateExtension());
+		DeflateExtension ext = new DeflateExtension();
+		r1.setDeflateExtension(ext);
+		assertSame(ext, r1.getDeflateExtension());
+	}
+
+	@Test
+	public void testDeflateThreshold() {
+		assertEquals(-1, r1.getDeflateThreshold("myTopic"));
+		r1.setDeflateThreshold("myTopic", 100);
+		assertEquals(100, r1.getDeflateThreshold("myTopic"));
+		r1.setDeflateThreshold("myTopic", -1);
+		assertEquals(-1, r1.getDeflateThreshold("myTopic"));
+	}
+
+	@Test
+	public void testSendWithDeflateNotAccepted() {
+		// the dummy server does not support the extension
+		r1.setDeflateExtension(new DeflateExtension());
+		r1.setDeflateThreshold("myTopic", 0);
+		assertTrue(r1.connect());
+		assertTrue(r1.send(publishCall()));
+
+		while (DummyHandler.latest == null) {
+			Thread.yield();
+		}
+
+		assertEquals(publishCall(), DummyHandler.latest);
+	}
+
 	@Test
 	public void testSendNoConnection() {
 		assertFalse(r1.send(Json.createObjectBuilder().build()));
@@ -173,6 +311,303 @@ public class TestRos {
 		assertNull(DummyHandler.latest);
 	}
 
+	@Test
+	public void testEnableAsyncSend() {
+		assertFalse(r1.isAsyncSendEnabled());
+		r1.enableAsyncSend(10, JRosbridge.OverflowPolicy.BLOCK);
+		assertTrue(r1.isAsyncSendEnabled());
+		r1.disableAsyncSend();
+		assertFalse(r1.isAsyncSendEnabled());
+	}
+
+	@Test
+	public void testSendAsync() throws Exception {
+		assertTrue(r1.connect());
+		r1.enableAsyncSend(10, JRosbridge.OverflowPolicy.BLOCK);
+		assertTrue(r1.sendAsync(
+				Json.createObjectBuilder().add("test", "value").build()).get());
+
+		while (DummyHandler.latest == null) {
+			Thread.yield();
+		}
+
+		assertEquals(1, DummyHandler.latest.size());
+		assertEquals("value", DummyHandler.latest.getString("test"));
+		r1.disableAsyncSend();
+	}
+
+	@Test
+	public void testSendQueued() {
+		assertTrue(r1.connect());
+		r1.enableAsyncSend(10, JRosbridge.OverflowPolicy.DROP_OLDEST);
+		assertTrue(r1.send(Json.createObjectBuilder().add("test", "value")
+				.build()));
+
+		while (DummyHandler.latest == null) {
+			Thread.yield();
+		}
+
+		assertEquals("value", DummyHandler.latest.getString("test"));
+		r1.disableAsyncSend();
+	}
+
+	@Test
+	public void testSendAsyncNoConnection() throws Exception {
+		assertFalse(r1.sendAsync(Json.createObjectBuilder().build()).get());
+		r1.enableAsyncSend(10, JRosbridge.OverflowPolicy.BLOCK);
+		assertFalse(r1.sendAsync(Json.createObjectBuilder().build()).get());
+		r1.disableAsyncSend();
+		assertNull(DummyHandler.latest);
+	}
+
+	@Test
+	public void testEnableDispatch() {
+		assertFalse(r1.isDispatchEnabled());
+		assertEquals(0, r1.getDispatchWorkers());
+		assertEquals(0, r1.getDispatchQueueDepth());
+		r1.enableDispatch(3, 20, JRosbridge.OverflowPolicy.BLOCK);
+		assertTrue(r1.isDispatchEnabled());
+		assertEquals(3, r1.getDispatchWorkers());
+		assertEquals(20, r1.getDispatchQueueDepth());
+		r1.enableDispatch(2, 10, JRosbridge.OverflowPolicy.DROP_OLDEST);
+		assertEquals(2, r1.getDispatchWorkers());
+		assertEquals(10, r1.getDispatchQueueDepth());
+		r1.disableDispatch();
+		assertFalse(r1.isDispatchEnabled());
+		assertEquals(0, r1.getDispatchWorkers());
+	}
+
+	@Test
+	public void testOnMessageDispatched() throws Exception {
+		r1.enableDispatch(4, 1000, JRosbridge.OverflowPolicy.BLOCK);
+		final List<Integer> a = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		final List<Integer> b = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		final List<Thread> threads = Collections
+				.synchronizedList(new ArrayList<Thread>());
+		r1.registerTopicCallback("a", new TopicCallback() {
+			public void handleMessage(Message message) {
+				threads.add(Thread.currentThread());
+				a.add(message.toJsonObject().getInt("i"));
+			}
+		});
+		r1.registerTopicCallback("b", new TopicCallback() {
+			public void handleMessage(Message message) {
+				threads.add(Thread.currentThread());
+				b.add(message.toJsonObject().getInt("i"));
+			}
+		});
+
+		for (int i = 0; i < 200; i++) {
+			r1.onMessage(publish("a", i));
+			r1.onMessage(publish("b", i));
+		}
+		r1.disableDispatch();
+
+		assertEquals(200, a.size());
+		assertEquals(200, b.size());
+		for (int i = 0; i < 200; i++) {
+			assertEquals(i, (int) a.get(i));
+			assertEquals(i, (int) b.get(i));
+		}
+		assertFalse(threads.contains(Thread.currentThread()));
+	}
+
+	@Test
+	public void testOnMessageDispatchedSlowTopic() throws Exception {
+		r1.enableDispatch(2, 10, JRosbridge.OverflowPolicy.BLOCK);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch fast = new CountDownLatch(1);
+		r1.registerTopicCallback("slow", new TopicCallback() {
+			public void handleMessage(Message message) {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		r1.registerTopicCallback("fast", new TopicCallback() {
+			public void handleMessage(Message message) {
+				fast.countDown();
+			}
+		});
+
+		// a slow topic does not hold up other topics
+		r1.onMessage(publish("slow", 0));
+		r1.onMessage(publish("fast", 0));
+		assertTrue(fast.await(5, TimeUnit.SECONDS));
+		release.countDown();
+		r1.disableDispatch();
+	}
+
+	@Test
+	public void testOnMessageServiceCallbackDispatched() throws Exception {
+		r1.enableDispatch(1, 10, JRosbridge.OverflowPolicy.BLOCK);
+		DummyServiceCallback cb1 = new DummyServiceCallback();
+		r1.registerServiceCallback("id123", cb1);
+
+		r1.onMessage("{\"" + JRosbridge.FIELD_OP + "\":\""
+				+ JRosbridge.OP_CODE_SERVICE_RESPONSE + "\",\""
+				+ JRosbridge.FIELD_ID + "\":\"id123\",\""
+				+ JRosbridge.FIELD_VALUES + "\":{\"test1\":\"test2\"}}");
+		r1.disableDispatch();
+		assertNotNull(cb1.latest);
+		assertEquals("{\"test1\":\"test2\"}", cb1.latest.toString());
+	}
+
+	@Test
+	public void testNextIdConcurrent() throws Exception {
+		final Set<Long> ids = Collections
+				.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						ids.add(r1.nextId());
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		assertEquals(80000, ids.size());
+		assertEquals(80000, r1.nextId());
+	}
+
+	@Test
+	public void testConcurrentRegisterAndDispatch() throws Exception {
+		final AtomicInteger received = new AtomicInteger();
+		r1.registerTopicCallback("myTopic", new TopicCallback() {
+			public void handleMessage(Message message) {
+				received.incrementAndGet();
+			}
+		});
+
+		// churn callbacks on the same topic while messages are routed
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				public void run() {
+					try {
+						for (int j = 0; j < 2000; j++) {
+							DummyTopicCallback cb = new DummyTopicCallback();
+							r1.registerTopicCallback("myTopic", cb);
+							r1.deregisterTopicCallback("myTopic", cb);
+						}
+					} catch (Throwable t) {
+						error.set(t);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		int sent = 0;
+		boolean alive = true;
+		while (alive) {
+			r1.onMessage(publish("myTopic", sent++));
+			alive = false;
+			for (Thread t : threads) {
+				alive |= t.isAlive();
+			}
+		}
+
+		assertNull(error.get());
+		assertEquals(sent, received.get());
+	}
+
+	@Test
+	public void testMetrics() {
+		assertNull(r1.getMetrics());
+		RosMetrics m = new RosMetrics();
+		r1.setMetrics(m);
+		assertSame(m, r1.getMetrics());
+		r1.setMetrics(null);
+		assertNull(r1.getMetrics());
+	}
+
+	@Test
+	public void testOnMessageMetrics() {
+		RosMetrics m = new RosMetrics();
+		r1.setMetrics(m);
+		r1.registerTopicCallback("a", new TopicCallback() {
+			public void handleMessage(Message message) {
+			}
+		});
+		r1.registerTopicCallback("a", new TopicCallback() {
+			public void handleMessage(Message message) {
+			}
+		});
+
+		r1.onMessage(publish("a", 0));
+		r1.onMessage(publish("a", 1));
+		r1.onMessage(publish("b", 2));
+
+		String op = JRosbridge.OP_CODE_PUBLISH;
+		assertEquals(2, m.getCount(RosMetrics.Stage.PARSE, op, "a"));
+		// no callbacks, so it is dropped before it is parsed
+		assertEquals(0, m.getCount(RosMetrics.Stage.PARSE, op, "b"));
+		assertEquals(2, m.getCount(RosMetrics.Stage.ROUTE, op, "a"));
+		assertEquals(4, m.getCount(RosMetrics.Stage.CALLBACK, op, "a"));
+		assertEquals(0, m.getCount(RosMetrics.Stage.CALLBACK, op, "b"));
+		assertEquals(2, m.getCount(RosMetrics.Stage.RECEIVE, op, "a"));
+		assertEquals(1, m.getCount(RosMetrics.Stage.RECEIVE, op, "b"));
+	}
+
+	@Test
+	public void testOnMessageMetricsInvalid() {
+		RosMetrics m = new RosMetrics();
+		r1.setMetrics(m);
+		r1.onMessage("{");
+		assertEquals(1, m.getCount(RosMetrics.Stage.RECEIVE, null, null));
+		assertEquals(0, m.getCount(RosMetrics.Stage.PARSE, null, null));
+	}
+
+	@Test
+	public void testOnMessageServiceCallbackMetrics() {
+		RosMetrics m = new RosMetrics();
+		r1.setMetrics(m);
+		DummyServiceCallback cb1 = new DummyServiceCallback();
+		r1.registerServiceCallback("id123", cb1);
+
+		r1.onMessage("{\"" + JRosbridge.FIELD_OP + "\":\""
+				+ JRosbridge.OP_CODE_SERVICE_RESPONSE + "\",\""
+				+ JRosbridge.FIELD_ID + "\":\"id123\",\""
+				+ JRosbridge.FIELD_SERVICE + "\":\"/srv\",\""
+				+ JRosbridge.FIELD_VALUES + "\":{\"test1\":\"test2\"}}");
+		assertNotNull(cb1.latest);
+
+		String op = JRosbridge.OP_CODE_SERVICE_RESPONSE;
+		assertEquals(1, m.getCount(RosMetrics.Stage.ROUTE, op, "/srv"));
+		assertEquals(1, m.getCount(RosMetrics.Stage.CALLBACK, op, "/srv"));
+	}
+
+	@Test
+	public void testSendMetrics() {
+		RosMetrics m = new RosMetrics();
+		r1.setMetrics(m);
+		assertTrue(r1.connect());
+		assertTrue(r1.send(publishCall()));
+
+		String op = JRosbridge.OP_CODE_PUBLISH;
+		assertEquals(1, m.getCount(RosMetrics.Stage.SERIALIZE, op, "myTopic"));
+		assertEquals(1, m.getCount(RosMetrics.Stage.WRITE, op, "myTopic"));
+	}
+
+	@Test
+	public void testSendMetricsNoConnection() {
+		RosMetrics m = new RosMetrics();
+		r1.setMetrics(m);
+		assertFalse(r1.send(publishCall()));
+		assertEquals(0, m.getCount(RosMetrics.Stage.WRITE,
+				JRosbridge.OP_CODE_PUBLISH, "myTopic"));
+	}
+
 	@Test
 	public void testAuthenticate() {
 		assertTrue(r1.connect());
@@ -251,6 +686,340 @@ public class TestRos {
 		assertEquals("{\"test1\":\"test2\"}", cb.latest.toString());
 	}
 
+	@Test
+	public void testEnableDecompressionWorkers() {
+		assertEquals(0, r1.getDecompressionWorkers());
+		assertEquals(0, r1.getDecompressionThreshold());
+		r1.enableDecompressionWorkers(2, 4096);
+		assertEquals(2, r1.getDecompressionWorkers());
+		assertEquals(4096, r1.getDecompressionThreshold());
+		r1.enableDecompressionWorkers(1, 0);
+		assertEquals(1, r1.getDecompressionWorkers());
+		assertEquals(0, r1.getDecompressionThreshold());
+		r1.disableDecompressionWorkers();
+		assertEquals(0, r1.getDecompressionWorkers());
+		assertEquals(0, r1.getDecompressionThreshold());
+	}
+
+	@Test
+	public void testOnMessagePngDataDecompressionWorkers() throws Exception {
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerTopicCallback("myTopic", cb);
+
+		// below the threshold, handled right away
+		r1.enableDecompressionWorkers(2, 1000);
+		r1.onMessage("{\"" + JRosbridge.FIELD_OP + "\":\""
+				+ JRosbridge.OP_CODE_PNG + "\",\"" + JRosbridge.FIELD_DATA
+				+ "\":\"iVBORw0KGgoAAAANSUhEUgAAAAQAAAAFCAIAAADtz9qMAAAATEl"
+				+ "EQVR4nAFBAL7/AXsib/UAy7JOO0D89AL4RrO8ADpNAPQBttECrwVXKE3"
+				+ "8+vO5yQAzBFH6qccUACD2UUgPrwLHu1Ir+FK+vQoJ2ejGjx3lsrwJjwA"
+				+ "AAABJRU5ErkJggg==\"}");
+		assertNotNull(cb.latest);
+		assertEquals("{\"test1\":\"test2\"}", cb.latest.toString());
+
+		// above the threshold, handled once the workers are done
+		cb.latest = null;
+		r1.enableDecompressionWorkers(2, 0);
+		r1.onMessage("{\"" + JRosbridge.FIELD_OP + "\":\""
+				+ JRosbridge.OP_CODE_PNG + "\",\"" + JRosbridge.FIELD_DATA
+				+ "\":\"invalid\"}");
+		r1.onMessage("{\"" + JRosbridge.FIELD_OP + "\":\""
+				+ JRosbridge.OP_CODE_PNG + "\",\"" + JRosbridge.FIELD_DATA
+				+ "\":\"iVBORw0KGgoAAAANSUhEUgAAAAQAAAAFCAIAAADtz9qMAAAATEl"
+				+ "EQVR4nAFBAL7/AXsib/UAy7JOO0D89AL4RrO8ADpNAPQBttECrwVXKE3"
+				+ "8+vO5yQAzBFH6qccUACD2UUgPrwLHu1Ir+FK+vQoJ2ejGjx3lsrwJjwA"
+				+ "AAABJRU5ErkJggg==\"}");
+		r1.disableDecompressionWorkers();
+		assertNotNull(cb.latest);
+		assertEquals("{\"test1\":\"test2\"}", cb.latest.toString());
+		assertNull(DummyHandler.latest);
+	}
+
+	/**
+	 * Build a "png" frame the way rosbridge does: the samples of an RGB image
+	 * hold the text of the frame, padded with newlines.
+	 */
+	private static String png(String text) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		int width = (int) Math.ceil(Math.sqrt(bytes.length / 3.0));
+		int height = (int) Math.ceil((bytes.length / 3.0) / width);
+		byte[] samples = Arrays.copyOf(bytes, width * height * 3);
+		Arrays.fill(samples, bytes.length, samples.length, (byte) '\n');
+		BufferedImage image = new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_RGB);
+		for (int i = 0; i < width * height; i++) {
+			image.setRGB(i % width, i / width, ((samples[3 * i] & 0xff) << 16)
+					| ((samples[3 * i + 1] & 0xff) << 8)
+					| (samples[3 * i + 2] & 0xff));
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return "{\"" + JRosbridge.FIELD_OP + "\":\"" + JRosbridge.OP_CODE_PNG
+				+ "\",\"" + JRosbridge.FIELD_DATA + "\":\""
+				+ Base64.getEncoder().encodeToString(out.toByteArray()) + "\"}";
+	}
+
+	private static JsonObject publish(int i, String pad) {
+		return Json.createObjectBuilder()
+				.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_PUBLISH)
+				.add(JRosbridge.FIELD_TOPIC, "myTopic")
+				.add(JRosbridge.FIELD_MESSAGE,
+						Json.createObjectBuilder().add("i", i).add("pad", pad))
+				.build();
+	}
+
+	@Test
+	public void testOnMessageDecompressionWorkersKeepOrder() throws Exception {
+		Ros ros = new Ros();
+		final List<Integer> received = Collections
+				.synchronizedList(new ArrayList<Integer>());
+		ros.registerTopicCallback("myTopic", new TopicCallback() {
+			@Override
+			public void handleMessage(Message message) {
+				received.add(message.toJsonObject().getInt("i"));
+			}
+		});
+
+		// a large map-like frame that takes a while to decompress
+		char[] pad = new char[1 << 21];
+		Random random = new Random(1);
+		for (int i = 0; i < pad.length; i++) {
+			pad[i] = (char) ('a' + random.nextInt(26));
+		}
+		String large = png(publish(0, new String(pad)).toString());
+		String small = png(publish(1, "").toString());
+		ros.enableDecompressionWorkers(2, 1000);
+		assertTrue(small.length() < 1000);
+
+		// each later frame waits for the large one
+		ros.onMessage(large);
+		ros.onMessage(small);
+		ros.onMessage(publish(2, "").toString());
+		ros.onMessage(CborEncoder.encode(publish(3, "")));
+		ros.disableDecompressionWorkers();
+		assertEquals(Arrays.asList(0, 1, 2, 3), received);
+
+		// handled right away once nothing is pending
+		ros.enableDecompressionWorkers(2, 1000);
+		ros.onMessage(small);
+		assertEquals(5, received.size());
+		ros.disableDecompressionWorkers();
+	}
+
+	@Test
+	public void testOnMessageCborData() {
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerTopicCallback("myTopic", cb);
+
+		r1.onMessage(CborEncoder.encode(Json.createObjectBuilder()
+				.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_PUBLISH)
+				.add(JRosbridge.FIELD_TOPIC, "myTopic")
+				.add(JRosbridge.FIELD_MESSAGE,
+						Json.createObjectBuilder().add("test1", "test2"))
+				.build()));
+		assertNotNull(cb.latest);
+		assertEquals("{\"test1\":\"test2\"}", cb.latest.toString());
+	}
+
+	@Test
+	public void testOnMessageBsonData() {
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerTopicCallback("myTopic", cb);
+		r1.setEncoding(JRosbridge.EncodingType.bson);
+
+		r1.onMessage(BsonEncoder.encode(Json.createObjectBuilder()
+				.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_PUBLISH)
+				.add(JRosbridge.FIELD_TOPIC, "myTopic")
+				.add(JRosbridge.FIELD_MESSAGE,
+						Json.createObjectBuilder().add("test1", "test2"))
+				.build()));
+		assertNotNull(cb.latest);
+		assertEquals("{\"test1\":\"test2\"}", cb.latest.toString());
+	}
+
+	@Test
+	public void testOnMessageInvalidBsonData() {
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerTopicCallback("myTopic", cb);
+		r1.setEncoding(JRosbridge.EncodingType.bson);
+		r1.onMessage(ByteBuffer.wrap(new byte[] { 0x10, 0x00, 0x00, 0x00 }));
+		r1.onMessage(ByteBuffer.wrap(new byte[] { 0x01 }));
+		assertNull(cb.latest);
+	}
+
+	@Test
+	public void testOnMessageInvalidCborData() {
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerTopicCallback("myTopic", cb);
+		r1.onMessage(ByteBuffer.wrap(new byte[] { (byte) 0xa1, 0x61 }));
+		r1.onMessage(ByteBuffer.wrap(new byte[] { 0x01 }));
+		assertNull(cb.latest);
+	}
+
+	private static ByteBuffer rawFrame(String topic, String bytesKey) {
+		ByteBuffer b = ByteBuffer.allocate(256);
+		b.put((byte) 0xa3);
+		putText(b, JRosbridge.FIELD_OP);
+		putText(b, JRosbridge.OP_CODE_PUBLISH);
+		putText(b, JRosbridge.FIELD_MESSAGE);
+		b.put((byte) 0xa3);
+		putText(b, JRosbridge.FIELD_SECS);
+		b.put((byte) 0x05);
+		putText(b, JRosbridge.FIELD_NSECS);
+		b.put((byte) 0x18).put((byte) 100);
+		putText(b, bytesKey);
+		b.put((byte) 0x43).put((byte) 1).put((byte) 2).put((byte) 3);
+		putText(b, JRosbridge.FIELD_TOPIC);
+		putText(b, topic);
+		b.flip();
+		return b;
+	}
+
+	private static void putText(ByteBuffer b, String s) {
+		b.put((byte) (0x60 | s.length())).put(s.getBytes());
+	}
+
+	@Test
+	public void testOnMessageRawData() {
+		DummyRawTopicCallback raw = new DummyRawTopicCallback();
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerRawTopicCallback("myTopic", raw);
+		r1.registerTopicCallback("myTopic", cb);
+
+		ByteBuffer frame = rawFrame("myTopic", JRosbridge.FIELD_BYTES);
+		r1.onMessage(frame);
+		assertNull(cb.latest);
+		assertNotNull(raw.latest);
+		assertTrue(raw.latest.isReadOnly());
+		assertEquals(3, raw.latest.remaining());
+		assertEquals(1, raw.latest.get(0));
+		assertEquals(3, raw.latest.get(2));
+		assertEquals(5, raw.time.getSecs());
+		assertEquals(100, raw.time.getNsecs());
+		assertEquals(0, frame.position());
+	}
+
+	@Test
+	public void testOnMessageRawDataOtherTopic() {
+		DummyRawTopicCallback raw = new DummyRawTopicCallback();
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerRawTopicCallback("myTopic", raw);
+		r1.registerTopicCallback("myTopic2", cb);
+
+		r1.onMessage(rawFrame("myTopic2", JRosbridge.FIELD_BYTES));
+		assertNull(raw.latest);
+		assertNotNull(cb.latest);
+		assertEquals("AQID",
+				cb.latest.toJsonObject().getString(JRosbridge.FIELD_BYTES));
+	}
+
+	@Test
+	public void testOnMessageRawDataNotRaw() {
+		DummyRawTopicCallback raw = new DummyRawTopicCallback();
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerRawTopicCallback("myTopic", raw);
+		r1.registerTopicCallback("myTopic", cb);
+
+		r1.onMessage(rawFrame("myTopic", "other"));
+		assertNull(raw.latest);
+		assertNotNull(cb.latest);
+		assertEquals("AQID", cb.latest.toJsonObject().getString("other"));
+	}
+
+	@Test
+	public void testDeregisterRawTopicCallback() {
+		DummyRawTopicCallback raw1 = new DummyRawTopicCallback();
+		DummyRawTopicCallback raw2 = new DummyRawTopicCallback();
+		r1.registerRawTopicCallback("myTopic", raw1);
+		r1.registerRawTopicCallback("myTopic", raw2);
+		r1.deregisterRawTopicCallback("myTopic", raw1);
+		r1.deregisterRawTopicCallback("myTopic2", raw2);
+
+		r1.onMessage(rawFrame("myTopic", JRosbridge.FIELD_BYTES));
+		assertNull(raw1.latest);
+		assertNotNull(raw2.latest);
+
+		r1.deregisterRawTopicCallback("myTopic", raw2);
+		raw2.latest = null;
+		r1.onMessage(rawFrame("myTopic", JRosbridge.FIELD_BYTES));
+		assertNull(raw2.latest);
+	}
+
+	@Test
+	public void testEncoding() {
+		assertEquals(JRosbridge.EncodingType.json, r1.getEncoding());
+		r1.setEncoding(JRosbridge.EncodingType.cbor);
+		assertEquals(JRosbridge.EncodingType.cbor, r1.getEncoding());
+		r1.setEncoding(JRosbridge.EncodingType.bson);
+		assertEquals(JRosbridge.EncodingType.bson, r1.getEncoding());
+	}
+
+	@Test
+	public void testFragmentSettings() {
+		assertEquals(FragmentAssembler.DEFAULT_TIMEOUT,
+				r1.getFragmentTimeout());
+		assertEquals(FragmentAssembler.DEFAULT_MAX_BUFFERED,
+				r1.getMaxFragmentBuffer());
+		r1.setFragmentTimeout(50);
+		r1.setMaxFragmentBuffer(100);
+		assertEquals(50, r1.getFragmentTimeout());
+		assertEquals(100, r1.getMaxFragmentBuffer());
+	}
+
+	private static String fragment(String id, int num, int total, String data) {
+		return Json.createObjectBuilder()
+				.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_FRAGMENT)
+				.add(JRosbridge.FIELD_ID, id).add(JRosbridge.FIELD_NUM, num)
+				.add(JRosbridge.FIELD_TOTAL, total)
+				.add(JRosbridge.FIELD_DATA, data).build().toString();
+	}
+
+	@Test
+	public void testOnMessageFragments() {
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerTopicCallback("myTopic", cb);
+
+		String message = "{\"" + JRosbridge.FIELD_OP + "\":\""
+				+ JRosbridge.OP_CODE_PUBLISH + "\",\"" + JRosbridge.FIELD_TOPIC
+				+ "\":\"myTopic\",\"" + JRosbridge.FIELD_MESSAGE
+				+ "\":{\"test1\":\"test2\"}}";
+		r1.onMessage(fragment("f1", 2, 3, message.substring(40)));
+		r1.onMessage(fragment("f1", 0, 3, message.substring(0, 20)));
+		assertNull(cb.latest);
+		r1.onMessage(fragment("f1", 1, 3, message.substring(20, 40)));
+		assertNotNull(cb.latest);
+		assertEquals("{\"test1\":\"test2\"}", cb.latest.toString());
+	}
+
+	@Test
+	public void testOnMessageCborFragments() {
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerTopicCallback("myTopic", cb);
+
+		String message = "{\"" + JRosbridge.FIELD_OP + "\":\""
+				+ JRosbridge.OP_CODE_PUBLISH + "\",\"" + JRosbridge.FIELD_TOPIC
+				+ "\":\"myTopic\",\"" + JRosbridge.FIELD_MESSAGE
+				+ "\":{\"test1\":\"test2\"}}";
+		r1.onMessage(CborEncoder.encode(Json
+				.createReader(
+						new StringReader(fragment("f1", 0, 2,
+								message.substring(0, 30)))).readObject()));
+		r1.onMessage(CborEncoder.encode(Json.createReader(
+				new StringReader(fragment("f1", 1, 2, message.substring(30))))
+				.readObject()));
+		assertNotNull(cb.latest);
+		assertEquals("{\"test1\":\"test2\"}", cb.latest.toString());
+	}
+
+	@Test
+	public void testOnMessageInvalidFragment() {
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerTopicCallback("myTopic", cb);
+		r1.onMessage(fragment("f1", 3, 3, "{}"));
+		r1.onMessage(fragment("f2", 0, 1, "{"));
+		assertNull(cb.latest);
+	}
+
 	@Test
 	public void testOnMessageNoTopicCallbacks() {
 		assertTrue(r1.connect());
@@ -285,6 +1054,116 @@ public class TestRos {
 		assertEquals("{\"test1\":\"test2\"}", cb2.latest.toString());
 	}
 
+	@Test
+	public void testOnMessageThrottledCallbacks() {
+		final List<Integer> fast = new ArrayList<Integer>();
+		final List<Integer> slow = new ArrayList<Integer>();
+		r1.registerTopicCallback("a", new TopicCallback() {
+			public void handleMessage(Message message) {
+				fast.add(message.toJsonObject().getInt("i"));
+			}
+		});
+		ThrottledTopicCallback throttled = ThrottledTopicCallback.everyNth(
+				new TopicCallback() {
+					public void handleMessage(Message message) {
+						slow.add(message.toJsonObject().getInt("i"));
+					}
+				}, 5);
+		r1.registerTopicCallback("a", throttled);
+
+		for (int i = 0; i < 20; i++) {
+			r1.onMessage(publish("a", i));
+		}
+		assertEquals(20, fast.size());
+		assertEquals(4, slow.size());
+		assertEquals(0, (int) slow.get(0));
+		assertEquals(5, (int) slow.get(1));
+		assertEquals(4, throttled.getAccepted());
+		assertEquals(16, throttled.getRejected());
+	}
+
+	@Test
+	public void testOnMessageAllCallbacksThrottled() {
+		RosMetrics m = new RosMetrics();
+		r1.setMetrics(m);
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerTopicCallback("a",
+				ThrottledTopicCallback.minInterval(cb, 60000));
+		r1.onMessage(publish("a", 0));
+		assertNotNull(cb.latest);
+		cb.latest = null;
+
+		// rejected before it is routed to any callback
+		r1.onMessage(publish("a", 1));
+		assertNull(cb.latest);
+		assertEquals(1, m.getCount(RosMetrics.Stage.ROUTE,
+				JRosbridge.OP_CODE_PUBLISH, "a"));
+	}
+
+	@Test
+	public void testOnMessageSkipped() {
+		RosMetrics m = new RosMetrics();
+		r1.setMetrics(m);
+		assertEquals(0, r1.getSkippedMessages());
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerTopicCallback("a", cb);
+
+		r1.onMessage(publish("a", 0));
+		assertNotNull(cb.latest);
+		assertEquals(0, r1.getSkippedMessages());
+
+		// the rest of the frame is never parsed, so it may even be invalid
+		r1.onMessage("{\"" + JRosbridge.FIELD_OP + "\":\""
+				+ JRosbridge.OP_CODE_PUBLISH + "\",\"" + JRosbridge.FIELD_TOPIC
+				+ "\":\"b\",\"" + JRosbridge.FIELD_MESSAGE + "\":{\"i\":");
+		assertEquals(1, r1.getSkippedMessages());
+		assertEquals(0, m.getCount(RosMetrics.Stage.PARSE,
+				JRosbridge.OP_CODE_PUBLISH, "b"));
+		assertEquals(1, m.getCount(RosMetrics.Stage.RECEIVE,
+				JRosbridge.OP_CODE_PUBLISH, "b"));
+
+		r1.deregisterTopicCallback("a", cb);
+		cb.latest = null;
+		r1.onMessage(publish("a", 1));
+		assertNull(cb.latest);
+		assertEquals(2, r1.getSkippedMessages());
+	}
+
+	@Test
+	public void testOnMessageThrottledSkipped() {
+		DummyTopicCallback cb = new DummyTopicCallback();
+		ThrottledTopicCallback throttled = ThrottledTopicCallback.everyNth(cb,
+				2);
+		r1.registerTopicCallback("a", throttled);
+		for (int i = 0; i < 10; i++) {
+			r1.onMessage(publish("a", i));
+		}
+		assertEquals(5, r1.getSkippedMessages());
+		assertEquals(5, throttled.getAccepted());
+		assertEquals(8, cb.latest.toJsonObject().getInt("i"));
+	}
+
+	@Test
+	public void testOnMessageTopicAfterMessage() {
+		// the header is incomplete, so the whole frame is parsed
+		DummyTopicCallback cb = new DummyTopicCallback();
+		r1.registerTopicCallback("a", cb);
+		r1.onMessage("{\"" + JRosbridge.FIELD_OP + "\":\""
+				+ JRosbridge.OP_CODE_PUBLISH + "\",\"" + JRosbridge.FIELD_MESSAGE
+				+ "\":{\"i\":3},\"" + JRosbridge.FIELD_TOPIC + "\":\"a\"}");
+		assertEquals(3, cb.latest.toJsonObject().getInt("i"));
+		assertEquals(0, r1.getSkippedMessages());
+	}
+
+	@Test
+	public void testOnMessageServiceResponseSkipped() {
+		r1.onMessage("{\"" + JRosbridge.FIELD_OP + "\":\""
+				+ JRosbridge.OP_CODE_SERVICE_RESPONSE + "\",\""
+				+ JRosbridge.FIELD_ID + "\":\"id123\",\""
+				+ JRosbridge.FIELD_VALUES + "\":{\"test1\":\"test2\"}}");
+		assertEquals(1, r1.getSkippedMessages());
+	}
+
 	@Test
 	public void testDeregisterTopicCallback() {
 		assertTrue(r1.connect());
@@ -431,6 +1310,12 @@ public class TestRos {
 		assertTrue(cb1.latest.getResult());
 	}
 
+	private static String publish(String topic, int i) {
+		return "{\"" + JRosbridge.FIELD_OP + "\":\"" + JRosbridge.OP_CODE_PUBLISH
+				+ "\",\"" + JRosbridge.FIELD_TOPIC + "\":\"" + topic + "\",\""
+				+ JRosbridge.FIELD_MESSAGE + "\":{\"i\":" + i + "}}";
+	}
+
 	private class DummyRosHandler implements RosHandler {
 
 		public boolean connection, disconnection, error;
@@ -448,6 +1333,18 @@ public class TestRos {
 		}
 	}
 
+	private static class RecordingRos extends Ros {
+
+		public final List<String> written = Collections
+				.synchronizedList(new ArrayList<String>());
+
+		@Override
+		boolean write(SendQueue.Frame frame) {
+			this.written.add(frame.getText());
+			return true;
+		}
+	}
+
 	private class DummyTopicCallback implements TopicCallback {
 
 		public Message latest = null;
@@ -457,6 +1354,17 @@ public class TestRos {
 		}
 	}
 
+	private class DummyRawTopicCallback implements RawTopicCallback {
+
+		public ByteBuffer latest = null;
+		public Time time = null;
+
+		public void handleRawMessage(ByteBuffer data, Time receiveTime) {
+			latest = data;
+			time = receiveTime;
+		}
+	}
+
 	private class DummyServiceCallback implements ServiceCallback {
 
 		public ServiceResponse latest = null;
@@ -0,0 +1,385 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+
+import org.junit.Test;
+
+public class TestSendQueue {
+
+	@Test
+	public void testConstructor() {
+		SendQueue q = new SendQueue(new Ros(), 5,
+				JRosbridge.OverflowPolicy.BLOCK);
+		assertEquals(5, q.getCapacity());
+		assertEquals(JRosbridge.OverflowPolicy.BLOCK, q.getPolicy());
+		assertEquals(0, q.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCapacity() {
+		new SendQueue(new Ros(), 0, JRosbridge.OverflowPolicy.BLOCK);
+	}
+
+	@Test
+	public void testDropNewest() throws Exception {
+		SendQueue q = new SendQueue(new Ros(), 2,
+				JRosbridge.OverflowPolicy.DROP_NEWEST);
+		CompletableFuture<Boolean> f1 = q.offer(new SendQueue.Frame("1"));
+		CompletableFuture<Boolean> f2 = q.offer(new SendQueue.Frame("2"));
+		CompletableFuture<Boolean> f3 = q.offer(new SendQueue.Frame("3"));
+		assertEquals(2, q.size());
+		assertFalse(f1.isDone());
+		assertFalse(f2.isDone());
+		assertTrue(f3.isDone());
+		assertFalse(f3.get());
+	}
+
+	@Test
+	public void testDropOldest() throws Exception {
+		SendQueue q = new SendQueue(new Ros(), 2,
+				JRosbridge.OverflowPolicy.DROP_OLDEST);
+		CompletableFuture<Boolean> f1 = q.offer(new SendQueue.Frame("1"));
+		CompletableFuture<Boolean> f2 = q.offer(new SendQueue.Frame("2"));
+		CompletableFuture<Boolean> f3 = q.offer(new SendQueue.Frame("3"));
+		assertEquals(2, q.size());
+		assertTrue(f1.isDone());
+		assertFalse(f1.get());
+		assertFalse(f2.isDone());
+		assertFalse(f3.isDone());
+	}
+
+	@Test
+	public void testFail() throws Exception {
+		SendQueue q = new SendQueue(new Ros(), 1,
+				JRosbridge.OverflowPolicy.FAIL);
+		CompletableFuture<Boolean> f1 = q.offer(new SendQueue.Frame("1"));
+		CompletableFuture<Boolean> f2 = q.offer(new SendQueue.Frame("2"));
+		assertEquals(1, q.size());
+		assertFalse(f1.isDone());
+		assertTrue(f2.isCompletedExceptionally());
+		try {
+			f2.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		}
+	}
+
+	@Test
+	public void testBlockNotRunning() throws Exception {
+		SendQueue q = new SendQueue(new Ros(), 1,
+				JRosbridge.OverflowPolicy.BLOCK);
+		q.offer(new SendQueue.Frame("1"));
+		CompletableFuture<Boolean> f2 = q.offer(new SendQueue.Frame("2"));
+		assertTrue(f2.isDone());
+		assertFalse(f2.get());
+	}
+
+	@Test
+	public void testStop() throws Exception {
+		SendQueue q = new SendQueue(new Ros(), 2,
+				JRosbridge.OverflowPolicy.BLOCK);
+		CompletableFuture<Boolean> f1 = q.offer(new SendQueue.Frame("1"));
+		q.stop();
+		assertEquals(0, q.size());
+		assertTrue(f1.isDone());
+		assertFalse(f1.get());
+	}
+
+	@Test
+	public void testNoConnection() throws Exception {
+		SendQueue q = new SendQueue(new Ros(), 2,
+				JRosbridge.OverflowPolicy.BLOCK);
+		q.start();
+		assertFalse(q.offer(new SendQueue.Frame("1")).get());
+		q.stop();
+	}
+
+	@Test
+	public void testOfferAfterStop() throws Exception {
+		SendQueue q = new SendQueue(new Ros(), 2,
+				JRosbridge.OverflowPolicy.BLOCK);
+		q.start();
+		q.stop();
+		CompletableFuture<Boolean> f1 = q.offer(new SendQueue.Frame("1"));
+		assertTrue(f1.isDone());
+		assertFalse(f1.get());
+		assertEquals(0, q.size());
+	}
+
+	@Test
+	public void testWriteThrows() throws Exception {
+		RecordingRos ros = new RecordingRos();
+		ros.fail = new IllegalStateException("closed");
+		SendQueue q = new SendQueue(ros, 5, JRosbridge.OverflowPolicy.BLOCK);
+		CompletableFuture<Boolean> f1 = q.offer(new SendQueue.Frame("1"));
+		CompletableFuture<Boolean> f2 = q.offer(new SendQueue.Frame("2"));
+		q.start();
+		assertFalse(f1.get());
+		assertTrue(f2.get());
+		q.stop();
+		assertEquals(Arrays.asList("2"), ros.written);
+	}
+
+	@Test
+	public void testWriterInterrupted() throws Exception {
+		RecordingRos ros = new RecordingRos();
+		ros.block = new CountDownLatch(1);
+		ros.blocked = new CountDownLatch(1);
+		SendQueue q = new SendQueue(ros, 1, JRosbridge.OverflowPolicy.BLOCK);
+		q.start();
+		CompletableFuture<Boolean> f1 = q.offer(new SendQueue.Frame("1"));
+		ros.blocked.await();
+		CompletableFuture<Boolean> f2 = q.offer(new SendQueue.Frame("2"));
+
+		// the writer gives up on its frame and stops the queue
+		ros.writer.interrupt();
+		assertFalse(f1.get());
+		assertFalse(f2.get());
+		assertEquals(0, q.size());
+		assertTrue(q.isStopped());
+		assertFalse(q.offer(new SendQueue.Frame("3")).get());
+	}
+
+	@Test
+	public void testWriterError() throws Exception {
+		RecordingRos ros = new RecordingRos();
+		ros.error = new StackOverflowError("test");
+		SendQueue q = new SendQueue(ros, 2, JRosbridge.OverflowPolicy.BLOCK);
+		q.start();
+		Thread.UncaughtExceptionHandler previous = Thread
+				.getDefaultUncaughtExceptionHandler();
+		Thread.setDefaultUncaughtExceptionHandler(new Thread.UncaughtExceptionHandler() {
+			@Override
+			public void uncaughtException(Thread t, Throwable e) {
+				// expected
+			}
+		});
+		try {
+			// the error ends the writer, which stops the queue
+			assertFalse(q.offer(new SendQueue.Frame("1")).get());
+			assertTrue(q.isStopped());
+			assertFalse(q.offer(new SendQueue.Frame("2")).get());
+		} finally {
+			Thread.setDefaultUncaughtExceptionHandler(previous);
+		}
+	}
+
+	@Test
+	public void testRosReplacesStoppedQueue() throws Exception {
+		RecordingRos ros = new RecordingRos();
+		CountDownLatch blocked = new CountDownLatch(1);
+		ros.block = new CountDownLatch(1);
+		ros.blocked = blocked;
+		ros.enableAsyncSend(4, JRosbridge.OverflowPolicy.BLOCK);
+		JsonObject message = Json.createObjectBuilder().add("op", "test")
+				.build();
+		CompletableFuture<Boolean> f1 = ros.sendAsync(message);
+		blocked.await();
+		ros.writer.interrupt();
+		assertFalse(f1.get());
+
+		// later sends go through a new writer instead of failing
+		assertTrue(ros.isAsyncSendEnabled());
+		assertTrue(ros.sendAsync(message).get());
+		assertTrue(ros.send(message));
+		ros.disableAsyncSend();
+		assertEquals(2, ros.written.size());
+		assertEquals(message.toString(), ros.written.get(0));
+	}
+
+	@Test
+	public void testBlockedProducerReleased() throws Exception {
+		RecordingRos ros = new RecordingRos();
+		ros.block = new CountDownLatch(1);
+		ros.blocked = new CountDownLatch(1);
+		final SendQueue q = new SendQueue(ros, 1,
+				JRosbridge.OverflowPolicy.BLOCK);
+		q.start();
+		q.offer(new SendQueue.Frame("1"));
+		ros.blocked.await();
+		q.offer(new SendQueue.Frame("2"));
+
+		// a producer waiting for room is released once the writer exits
+		final List<CompletableFuture<Boolean>> results = Collections
+				.synchronizedList(new ArrayList<CompletableFuture<Boolean>>());
+		Thread producer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				results.add(q.offer(new SendQueue.Frame("3")));
+			}
+		});
+		producer.start();
+		ros.writer.interrupt();
+		producer.join(5000);
+		assertFalse(producer.isAlive());
+		assertFalse(results.get(0).get());
+	}
+
+	private static SendQueue.Frame fragmented(String... parts) {
+		SendQueue.Frame[] frames = new SendQueue.Frame[parts.length];
+		for (int i = 0; i < parts.length; i++) {
+			frames[i] = new SendQueue.Frame(parts[i]);
+		}
+		return new SendQueue.Frame(frames);
+	}
+
+	@Test
+	public void testFragmentedCountsOnce() {
+		SendQueue q = new SendQueue(new Ros(), 2,
+				JRosbridge.OverflowPolicy.DROP_NEWEST);
+		SendQueue.Frame f = fragmented("a", "b", "c");
+		assertTrue(f.isFragmented());
+		assertEquals(3, f.getParts().length);
+		assertFalse(new SendQueue.Frame("a").isFragmented());
+		assertNull(new SendQueue.Frame("a").getParts());
+
+		q.offer(f);
+		assertEquals(1, q.size());
+		assertFalse(q.offer(new SendQueue.Frame("1")).isDone());
+		assertTrue(q.offer(new SendQueue.Frame("2")).isDone());
+		assertEquals(2, q.size());
+	}
+
+	@Test
+	public void testDropOldestFragmented() throws Exception {
+		SendQueue q = new SendQueue(new Ros(), 2,
+				JRosbridge.OverflowPolicy.DROP_OLDEST);
+		CompletableFuture<Boolean> f1 = q.offer(fragmented("a", "b"));
+		CompletableFuture<Boolean> f2 = q.offer(fragmented("c", "d"));
+		CompletableFuture<Boolean> f3 = q.offer(new SendQueue.Frame("1"));
+		assertEquals(2, q.size());
+		assertTrue(f1.isDone());
+		assertFalse(f1.get());
+		assertFalse(f2.isDone());
+		assertFalse(f3.isDone());
+	}
+
+	@Test
+	public void testStopFragmented() throws Exception {
+		SendQueue q = new SendQueue(new Ros(), 2,
+				JRosbridge.OverflowPolicy.BLOCK);
+		CompletableFuture<Boolean> f1 = q.offer(fragmented("a", "b"));
+		q.stop();
+		assertEquals(0, q.size());
+		assertFalse(f1.get());
+	}
+
+	@Test
+	public void testSmallFramesFirst() throws Exception {
+		RecordingRos ros = new RecordingRos();
+		SendQueue q = new SendQueue(ros, 5, JRosbridge.OverflowPolicy.BLOCK);
+		CompletableFuture<Boolean> f1 = q.offer(fragmented("a", "b", "c"));
+		CompletableFuture<Boolean> f2 = q.offer(new SendQueue.Frame("1"));
+		q.start();
+		assertTrue(f1.get());
+		assertTrue(f2.get());
+		q.stop();
+		assertEquals(Arrays.asList("1", "a", "b", "c"),
+				ros.written);
+	}
+
+	@Test
+	public void testInterleaveFragments() throws Exception {
+		RecordingRos ros = new RecordingRos();
+		ros.block = new CountDownLatch(1);
+		ros.blocked = new CountDownLatch(1);
+		SendQueue q = new SendQueue(ros, 5, JRosbridge.OverflowPolicy.BLOCK);
+		q.start();
+		CompletableFuture<Boolean> f1 = q.offer(fragmented("a", "b", "c"));
+
+		// wait until the first fragment is being written
+		ros.blocked.await();
+		CompletableFuture<Boolean> f2 = q.offer(new SendQueue.Frame("1"));
+		CompletableFuture<Boolean> f3 = q.offer(new SendQueue.Frame("2"));
+		ros.block.countDown();
+
+		assertTrue(f1.get());
+		assertTrue(f2.get());
+		assertTrue(f3.get());
+		q.stop();
+		assertEquals(Arrays.asList("a", "1", "2", "b", "c"),
+				ros.written);
+	}
+
+	@Test
+	public void testDropOldestKeepsTakenFragmented() throws Exception {
+		RecordingRos ros = new RecordingRos();
+		ros.block = new CountDownLatch(1);
+		ros.blocked = new CountDownLatch(1);
+		SendQueue q = new SendQueue(ros, 1,
+				JRosbridge.OverflowPolicy.DROP_OLDEST);
+		q.start();
+		CompletableFuture<Boolean> f1 = q.offer(fragmented("a", "b"));
+
+		// the writer owns the message, so the new frame is dropped instead
+		ros.blocked.await();
+		CompletableFuture<Boolean> f2 = q.offer(new SendQueue.Frame("1"));
+		assertTrue(f2.isDone());
+		assertFalse(f2.get());
+		ros.block.countDown();
+
+		assertTrue(f1.get());
+		q.stop();
+		assertEquals(Arrays.asList("a", "b"), ros.written);
+	}
+
+	@Test
+	public void testFragmentWriteFails() throws Exception {
+		SendQueue q = new SendQueue(new Ros(), 2,
+				JRosbridge.OverflowPolicy.BLOCK);
+		q.start();
+		assertFalse(q.offer(fragmented("a", "b")).get());
+		assertEquals(0, q.size());
+		q.stop();
+	}
+
+	private static class RecordingRos extends Ros {
+
+		public final List<String> written = Collections
+				.synchronizedList(new ArrayList<String>());
+		public CountDownLatch block = null;
+		public CountDownLatch blocked = null;
+		public RuntimeException fail = null;
+		public Error error = null;
+		public volatile Thread writer = null;
+
+		@Override
+		boolean write(SendQueue.Frame frame) {
+			this.writer = Thread.currentThread();
+			if (this.error != null) {
+				throw this.error;
+			}
+			if (this.fail != null) {
+				RuntimeException e = this.fail;
+				this.fail = null;
+				throw e;
+			}
+			if (this.blocked != null) {
+				CountDownLatch b = this.blocked;
+				this.blocked = null;
+				b.countDown();
+				try {
+					this.block.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return false;
+				}
+			}
+			this.written.add(frame.getText());
+			return true;
+		}
+	}
+}
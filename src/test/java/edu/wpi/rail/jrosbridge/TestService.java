@@ -14,6 +14,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import edu.wpi.rail.jrosbridge.callback.ServiceCallback;
+import edu.wpi.rail.jrosbridge.callback.TopicCallback;
+import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.services.ServiceRequest;
 import edu.wpi.rail.jrosbridge.services.ServiceResponse;
 
@@ -107,6 +109,97 @@ public class TestService {
 		assertEquals("{\"test3\":\"test4\"}", resp.toString());
 	}
 
+	@Test
+	public void testCallServiceAndWaitTimeout() {
+		ServiceRequest req = new ServiceRequest("{\"test1\":\"test2\"}");
+		long start = System.currentTimeMillis();
+		assertNull(s1.callServiceAndWait(req, 100));
+		assertTrue(System.currentTimeMillis() - start >= 100);
+
+		// the late response of the first call is dropped
+		this.sendResponse("call_service:myService:0", 0);
+		Timer timer = new Timer();
+		timer.schedule(new TimerTask() {
+			public void run() {
+				sendResponse("call_service:myService:1", 1);
+			}
+		}, 100);
+		ServiceResponse resp = s1.callServiceAndWait(req, 10000);
+		assertNotNull(resp);
+		assertEquals(1, resp.toJsonObject().getInt("index"));
+	}
+
+	@Test
+	public void testCallServiceNotSent() {
+		Service s = new Service(new Ros(), "myService", "myType");
+		ServiceRequest req = new ServiceRequest("{\"test1\":\"test2\"}");
+		DummyServiceCallback cb = new DummyServiceCallback();
+		assertFalse(s.tryCallService(req, cb));
+		// returns right away instead of waiting for a response that never
+		// comes
+		assertNull(s.callServiceAndWait(req));
+		assertNull(s.callServiceAndWait(req, 10000));
+		assertNull(cb.latest);
+		assertTrue(s1.tryCallService(req, cb));
+	}
+
+	@Test
+	public void testCallServiceAndWaitConcurrent() throws Exception {
+		final ServiceResponse[] responses = new ServiceResponse[10];
+		Thread[] threads = new Thread[responses.length];
+		for (int i = 0; i < threads.length; i++) {
+			final int index = i;
+			threads[i] = new Thread() {
+				public void run() {
+					responses[index] = s1.callServiceAndWait(new ServiceRequest(
+							"{\"test1\":\"test2\"}"));
+				}
+			};
+			threads[i].start();
+		}
+
+		// answer in reverse order until every caller is released
+		while (this.anyAlive(threads)) {
+			for (int i = responses.length - 1; i >= 0; i--) {
+				this.sendResponse("call_service:myService:" + i, i);
+			}
+			Thread.sleep(10);
+		}
+		this.flush();
+
+		boolean[] seen = new boolean[responses.length];
+		for (ServiceResponse response : responses) {
+			assertNotNull(response);
+			seen[response.toJsonObject().getInt("index")] = true;
+		}
+		for (boolean b : seen) {
+			assertTrue(b);
+		}
+	}
+
+	@Test
+	public void testCallServiceAndWaitFromDispatchedCallback() throws Exception {
+		// a single worker waiting on a service must still get its response
+		ros.enableDispatch(1, 10, JRosbridge.OverflowPolicy.BLOCK);
+		final ServiceResponse[] response = new ServiceResponse[1];
+		ros.registerTopicCallback("myTopic", new TopicCallback() {
+			public void handleMessage(Message message) {
+				response[0] = s1.callServiceAndWait(new ServiceRequest());
+			}
+		});
+		ros.onMessage("{\"" + JRosbridge.FIELD_OP + "\":\""
+				+ JRosbridge.OP_CODE_PUBLISH + "\",\"" + JRosbridge.FIELD_TOPIC
+				+ "\":\"myTopic\",\"" + JRosbridge.FIELD_MESSAGE + "\":{}}");
+
+		while (response[0] == null) {
+			this.sendResponse("call_service:myService:0", 0);
+			Thread.sleep(10);
+		}
+		this.flush();
+		assertEquals(0, response[0].toJsonObject().getInt("index"));
+		ros.disableDispatch();
+	}
+
 	@Test
 	public void testAdvertiseService() {
 		DummyCallServiceCallback cb = new DummyCallServiceCallback();
@@ -182,6 +275,39 @@ public class TestService {
 		}
 	}
 
+	private boolean anyAlive(Thread[] threads) {
+		for (Thread t : threads) {
+			if (t.isAlive()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void flush() {
+		// responses may overtake the calls, so wait for the server to see them
+		JsonObject marker = Json.createObjectBuilder().add("flush", true)
+				.build();
+		ros.send(marker);
+		while (!marker.equals(DummyHandler.latest)) {
+			Thread.yield();
+		}
+	}
+
+	private void sendResponse(String id, int index) {
+		ros.send(Json
+				.createObjectBuilder()
+				.add("echo",
+						Json.createObjectBuilder()
+								.add(JRosbridge.FIELD_OP,
+										JRosbridge.OP_CODE_SERVICE_RESPONSE)
+								.add(JRosbridge.FIELD_ID, id)
+								.add(JRosbridge.FIELD_VALUES,
+										Json.createObjectBuilder()
+												.add("index", index).build())
+								.build().toString()).build());
+	}
+
 	private class SendServiceResponse extends TimerTask {
 
 		private Ros ros;
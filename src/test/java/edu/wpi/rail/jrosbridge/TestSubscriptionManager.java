@@ -0,0 +1,206 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.json.JsonObject;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestSubscriptionManager {
+
+	private RecordingRos ros;
+	private SubscriptionManager manager;
+
+	@Before
+	public void setUp() {
+		ros = new RecordingRos();
+		manager = new SubscriptionManager(ros);
+	}
+
+	@Test
+	public void testConstructor() {
+		assertEquals(0, manager.size());
+		assertNull(manager.getId("/tf", "tf2_msgs/TFMessage",
+				JRosbridge.CompressionType.none));
+		assertEquals(0, manager.getSubscriberCount("/tf",
+				"tf2_msgs/TFMessage", JRosbridge.CompressionType.none));
+	}
+
+	@Test
+	public void testAcquire() {
+		manager.acquire("/tf", "tf2_msgs/TFMessage",
+				JRosbridge.CompressionType.none, 0, 0, 0);
+		assertEquals(1, ros.sent.size());
+		assertEquals(
+				"{\"op\":\"subscribe\",\"id\":\"subscribe:/tf:0\",\"type\":\"tf2_msgs/TFMessage\","
+						+ "\"topic\":\"/tf\",\"compression\":\"none\",\"throttle_rate\":0}",
+				ros.sent.get(0).toString());
+		assertEquals(1, manager.size());
+		assertEquals("subscribe:/tf:0", manager.getId("/tf",
+				"tf2_msgs/TFMessage", JRosbridge.CompressionType.none));
+	}
+
+	@Test
+	public void testAcquireShared() {
+		for (int i = 0; i < 5; i++) {
+			manager.acquire("/tf", "tf2_msgs/TFMessage",
+					JRosbridge.CompressionType.none, 0, 0, 0);
+		}
+		assertEquals(1, ros.sent.size());
+		assertEquals(1, manager.size());
+		assertEquals(5, manager.getSubscriberCount("/tf",
+				"tf2_msgs/TFMessage", JRosbridge.CompressionType.none));
+	}
+
+	@Test
+	public void testAcquireDifferentKeys() {
+		manager.acquire("/tf", "tf2_msgs/TFMessage",
+				JRosbridge.CompressionType.none, 0, 0, 0);
+		manager.acquire("/tf", "tf2_msgs/TFMessage",
+				JRosbridge.CompressionType.cbor, 0, 0, 0);
+		manager.acquire("/tf", "other/Type", JRosbridge.CompressionType.none,
+				0, 0, 0);
+		manager.acquire("/odom", "tf2_msgs/TFMessage",
+				JRosbridge.CompressionType.none, 0, 0, 0);
+		assertEquals(4, ros.sent.size());
+		assertEquals(4, manager.size());
+	}
+
+	@Test
+	public void testRelease() {
+		SubscriptionManager.Subscriber s1 = manager.acquire("/odom",
+				"nav_msgs/Odometry", JRosbridge.CompressionType.none, 0, 0, 0);
+		SubscriptionManager.Subscriber s2 = manager.acquire("/odom",
+				"nav_msgs/Odometry", JRosbridge.CompressionType.none, 0, 0, 0);
+
+		manager.release(s1);
+		assertEquals(1, ros.sent.size());
+		assertEquals(1, manager.getSubscriberCount("/odom",
+				"nav_msgs/Odometry", JRosbridge.CompressionType.none));
+
+		manager.release(s2);
+		assertEquals(2, ros.sent.size());
+		assertEquals(
+				"{\"op\":\"unsubscribe\",\"id\":\"subscribe:/odom:0\",\"topic\":\"/odom\"}",
+				ros.sent.get(1).toString());
+		assertEquals(0, manager.size());
+
+		// a new subscriber gets a new server subscription
+		manager.acquire("/odom", "nav_msgs/Odometry",
+				JRosbridge.CompressionType.none, 0, 0, 0);
+		assertEquals(3, ros.sent.size());
+		assertEquals("subscribe:/odom:1", manager.getId("/odom",
+				"nav_msgs/Odometry", JRosbridge.CompressionType.none));
+	}
+
+	@Test
+	public void testReleaseTwice() {
+		SubscriptionManager.Subscriber s1 = manager.acquire("/odom",
+				"nav_msgs/Odometry", JRosbridge.CompressionType.none, 0, 0, 0);
+		manager.acquire("/odom", "nav_msgs/Odometry",
+				JRosbridge.CompressionType.none, 0, 0, 0);
+		manager.release(s1);
+		manager.release(s1);
+		assertEquals(1, manager.getSubscriberCount("/odom",
+				"nav_msgs/Odometry", JRosbridge.CompressionType.none));
+		assertEquals(1, ros.sent.size());
+	}
+
+	@Test
+	public void testMergeSettings() {
+		SubscriptionManager.Subscriber slow = manager.acquire("/scan",
+				"sensor_msgs/LaserScan", JRosbridge.CompressionType.none, 500,
+				1, 0);
+		assertEquals(
+				"{\"op\":\"subscribe\",\"id\":\"subscribe:/scan:0\",\"type\":\"sensor_msgs/LaserScan\","
+						+ "\"topic\":\"/scan\",\"compression\":\"none\",\"throttle_rate\":500,"
+						+ "\"queue_length\":1}", ros.sent.get(0).toString());
+
+		// a faster subscriber replaces the server subscription
+		SubscriptionManager.Subscriber fast = manager.acquire("/scan",
+				"sensor_msgs/LaserScan", JRosbridge.CompressionType.none, 10,
+				5, 2000);
+		assertEquals(3, ros.sent.size());
+		assertEquals(
+				"{\"op\":\"subscribe\",\"id\":\"subscribe:/scan:1\",\"type\":\"sensor_msgs/LaserScan\","
+						+ "\"topic\":\"/scan\",\"compression\":\"none\",\"throttle_rate\":10,"
+						+ "\"queue_length\":5,\"fragment_size\":2000}", ros.sent
+						.get(1).toString());
+		assertEquals(
+				"{\"op\":\"unsubscribe\",\"id\":\"subscribe:/scan:0\",\"topic\":\"/scan\"}",
+				ros.sent.get(2).toString());
+
+		// a subscriber that changes nothing sends nothing
+		manager.acquire("/scan", "sensor_msgs/LaserScan",
+				JRosbridge.CompressionType.none, 100, 2, 3000);
+		assertEquals(3, ros.sent.size());
+
+		// when the fast one leaves, the remaining settings are merged
+		manager.release(fast);
+		assertEquals(5, ros.sent.size());
+		assertEquals(
+				"{\"op\":\"subscribe\",\"id\":\"subscribe:/scan:2\",\"type\":\"sensor_msgs/LaserScan\","
+						+ "\"topic\":\"/scan\",\"compression\":\"none\",\"throttle_rate\":100,"
+						+ "\"queue_length\":2,\"fragment_size\":3000}", ros.sent
+						.get(3).toString());
+		assertEquals(
+				"{\"op\":\"unsubscribe\",\"id\":\"subscribe:/scan:1\",\"topic\":\"/scan\"}",
+				ros.sent.get(4).toString());
+
+		// the slow one does not change the merged settings
+		manager.release(slow);
+		assertEquals(5, ros.sent.size());
+		assertEquals("subscribe:/scan:2", manager.getId("/scan",
+				"sensor_msgs/LaserScan", JRosbridge.CompressionType.none));
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				public void run() {
+					for (int j = 0; j < 500; j++) {
+						manager.release(manager.acquire("/tf",
+								"tf2_msgs/TFMessage",
+								JRosbridge.CompressionType.none, 0, 0, 0));
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		assertEquals(0, manager.size());
+
+		// every subscribe is matched by an unsubscribe, in order
+		int open = 0;
+		for (JsonObject call : ros.sent) {
+			if (call.getString(JRosbridge.FIELD_OP).equals(
+					JRosbridge.OP_CODE_SUBSCRIBE)) {
+				assertEquals(0, open++);
+			} else {
+				assertEquals(1, open--);
+			}
+		}
+		assertEquals(0, open);
+	}
+
+	private static class RecordingRos extends Ros {
+
+		public final List<JsonObject> sent = Collections
+				.synchronizedList(new ArrayList<JsonObject>());
+
+		@Override
+		public boolean send(JsonObject jsonObject) {
+			this.sent.add(jsonObject);
+			return true;
+		}
+	}
+}
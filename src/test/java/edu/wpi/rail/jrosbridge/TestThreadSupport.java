@@ -0,0 +1,31 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.Test;
+
+public class TestThreadSupport {
+
+	@Test
+	public void testNewThreadFactory() {
+		ThreadFactory factory = ThreadSupport.newThreadFactory("test");
+		Runnable r = new Runnable() {
+			public void run() {
+			}
+		};
+		Thread t1 = factory.newThread(r);
+		Thread t2 = factory.newThread(r);
+		assertEquals("test-0", t1.getName());
+		assertEquals("test-1", t2.getName());
+		assertTrue(t1.isDaemon());
+		assertTrue(t2.isDaemon());
+	}
+
+	@Test
+	public void testIsVirtual() {
+		// the tests run against the Java 8 classes, not the multi-release JAR
+		assertFalse(ThreadSupport.isVirtual());
+	}
+}
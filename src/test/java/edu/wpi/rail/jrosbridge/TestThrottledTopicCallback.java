@@ -0,0 +1,130 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import javax.json.Json;
+
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.callback.TopicCallback;
+import edu.wpi.rail.jrosbridge.messages.Message;
+
+public class TestThrottledTopicCallback {
+
+	private static final long MS = 1000000L;
+
+	private static class CountingCallback implements TopicCallback {
+		public int count = 0;
+		public Message latest = null;
+
+		public void handleMessage(Message message) {
+			count++;
+			latest = message;
+		}
+	}
+
+	@Test
+	public void testEveryNth() {
+		CountingCallback cb = new CountingCallback();
+		ThrottledTopicCallback t = ThrottledTopicCallback.everyNth(cb, 3);
+		assertSame(cb, t.getCallback());
+		assertEquals(ThrottledTopicCallback.Mode.EVERY_NTH, t.getMode());
+
+		boolean[] expected = { true, false, false, true, false, false, true };
+		for (boolean e : expected) {
+			assertEquals(e, t.accept(0));
+		}
+		assertEquals(3, t.getAccepted());
+		assertEquals(4, t.getRejected());
+	}
+
+	@Test
+	public void testEveryFirst() {
+		ThrottledTopicCallback t = ThrottledTopicCallback.everyNth(
+				new CountingCallback(), 1);
+		for (int i = 0; i < 10; i++) {
+			assertTrue(t.accept(0));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testEveryNthInvalid() {
+		ThrottledTopicCallback.everyNth(new CountingCallback(), 0);
+	}
+
+	@Test
+	public void testMinInterval() {
+		ThrottledTopicCallback t = ThrottledTopicCallback.minInterval(
+				new CountingCallback(), 100);
+		assertEquals(ThrottledTopicCallback.Mode.MIN_INTERVAL, t.getMode());
+		assertTrue(t.accept(1000 * MS));
+		assertFalse(t.accept(1050 * MS));
+		assertFalse(t.accept(1099 * MS));
+		assertTrue(t.accept(1130 * MS));
+		// measured from the last accepted message
+		assertFalse(t.accept(1200 * MS));
+		assertTrue(t.accept(1230 * MS));
+		assertEquals(3, t.getAccepted());
+		assertEquals(3, t.getRejected());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMinIntervalInvalid() {
+		ThrottledTopicCallback.minInterval(new CountingCallback(), -1);
+	}
+
+	@Test
+	public void testMaxRate() {
+		ThrottledTopicCallback t = ThrottledTopicCallback.maxRate(
+				new CountingCallback(), 10);
+		assertEquals(ThrottledTopicCallback.Mode.MAX_RATE, t.getMode());
+		assertTrue(t.accept(1000 * MS));
+		assertFalse(t.accept(1050 * MS));
+		// late by 30ms, which is credited to the next message
+		assertTrue(t.accept(1130 * MS));
+		assertTrue(t.accept(1200 * MS));
+		assertFalse(t.accept(1250 * MS));
+		// a long gap does not allow a burst
+		assertTrue(t.accept(5000 * MS));
+		assertFalse(t.accept(5010 * MS));
+	}
+
+	@Test
+	public void testMaxRateJitter() {
+		// 100 Hz with jitter throttled to 30 Hz keeps the rate
+		ThrottledTopicCallback rate = ThrottledTopicCallback.maxRate(
+				new CountingCallback(), 30);
+		ThrottledTopicCallback interval = ThrottledTopicCallback.minInterval(
+				new CountingCallback(), 33);
+		for (int i = 0; i < 1000; i++) {
+			long now = (i * 10 + (i % 3)) * MS;
+			rate.accept(now);
+			interval.accept(now);
+		}
+		assertTrue(Math.abs(rate.getAccepted() - 300) <= 2);
+		assertTrue(interval.getAccepted() < 260);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMaxRateInvalid() {
+		ThrottledTopicCallback.maxRate(new CountingCallback(), 0);
+	}
+
+	@Test
+	public void testHandleMessage() {
+		CountingCallback cb = new CountingCallback();
+		ThrottledTopicCallback t = ThrottledTopicCallback.everyNth(cb, 2);
+		Message m = new Message(Json.createObjectBuilder().build());
+		t.handleMessage(m);
+		assertEquals(1, cb.count);
+		assertSame(m, cb.latest);
+	}
+
+	@Test
+	public void testAccept() {
+		ThrottledTopicCallback t = ThrottledTopicCallback.minInterval(
+				new CountingCallback(), 60000);
+		assertTrue(t.accept());
+		assertFalse(t.accept());
+	}
+}
@@ -2,7 +2,21 @@ package edu.wpi.rail.jrosbridge;
 
 import static org.junit.Assert.*;
 
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
 
 import org.junit.After;
 import org.junit.Before;
@@ -11,14 +25,19 @@ import org.junit.Test;
 import edu.wpi.rail.jrosbridge.JRosbridge;
 import edu.wpi.rail.jrosbridge.Ros;
 import edu.wpi.rail.jrosbridge.Topic;
+import edu.wpi.rail.jrosbridge.callback.RawTopicCallback;
 import edu.wpi.rail.jrosbridge.callback.TopicCallback;
+import edu.wpi.rail.jrosbridge.codec.BsonDecoder;
+import edu.wpi.rail.jrosbridge.codec.CborDecoder;
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.primitives.Time;
 
 public class TestTopic {
 
 	private Ros ros;
 	private DummyServer server;
-	private Topic t1, t2, t3, t4;
+	private Topic t1, t2, t3, t4, t5;
 
 	@Before
 	public void setUp() {
@@ -33,6 +52,8 @@ public class TestTopic {
 		t3 = new Topic(ros, "myTopic3", "myType3", 10);
 		t4 = new Topic(ros, "myTopic4", "myType4",
 				JRosbridge.CompressionType.png, 20);
+		t5 = new Topic(ros, "myTopic5", "myType5",
+				JRosbridge.CompressionType.cbor, 30, 5, 1000);
 	}
 
 	@After
@@ -84,6 +105,21 @@ public class TestTopic {
 		assertFalse(t4.isSubscribed());
 		assertEquals(JRosbridge.CompressionType.png, t4.getCompression());
 		assertEquals(20, t4.getThrottleRate());
+		assertEquals(0, t4.getQueueLength());
+		assertEquals(0, t4.getFragmentSize());
+	}
+
+	@Test
+	public void testFullConstructor() {
+		assertEquals(ros, t5.getRos());
+		assertEquals("myTopic5", t5.getName());
+		assertEquals("myType5", t5.getType());
+		assertFalse(t5.isAdvertised());
+		assertFalse(t5.isSubscribed());
+		assertEquals(JRosbridge.CompressionType.cbor, t5.getCompression());
+		assertEquals(30, t5.getThrottleRate());
+		assertEquals(5, t5.getQueueLength());
+		assertEquals(1000, t5.getFragmentSize());
 	}
 
 	@Test
@@ -117,6 +153,34 @@ public class TestTopic {
 		assertTrue(t1.isSubscribed());
 	}
 
+	@Test
+	public void testSubscribeQueueLengthAndFragmentSize() {
+		Topic t = new Topic(ros, "myTopic1", "myType1",
+				JRosbridge.CompressionType.none, 0, 5, 1000);
+		DummyTopicCallback cb = new DummyTopicCallback();
+		t.subscribe(cb);
+
+		ros.send(Json
+				.createObjectBuilder()
+				.add("echo",
+						"{\"" + JRosbridge.FIELD_OP + "\":\""
+								+ JRosbridge.OP_CODE_PUBLISH + "\",\""
+								+ JRosbridge.FIELD_TOPIC + "\":\"myTopic1\",\""
+								+ JRosbridge.FIELD_MESSAGE
+								+ "\":{\"test1\":\"test2\"}}").build());
+
+		while (cb.latest == null) {
+			Thread.yield();
+		}
+
+		assertNotNull(DummyHandler.latest);
+		assertEquals(
+				"{\"op\":\"subscribe\",\"id\":\"subscribe:myTopic1:0\",\"type\":\"myType1\","
+						+ "\"topic\":\"myTopic1\",\"compression\":\"none\",\"throttle_rate\":0,"
+						+ "\"queue_length\":5,\"fragment_size\":1000}",
+				DummyHandler.latest.toString());
+	}
+
 	@Test
 	public void testUnsubscribe() {
 		DummyTopicCallback cb = new DummyTopicCallback();
@@ -147,6 +211,136 @@ public class TestTopic {
 		assertFalse(t1.isSubscribed());
 	}
 
+	@Test
+	public void testSubscribeShared() {
+		RecordingRos r = new RecordingRos();
+		Topic a = new Topic(r, "/odom", "nav_msgs/Odometry");
+		Topic b = new Topic(r, "/odom", "nav_msgs/Odometry");
+		a.subscribe(new DummyTopicCallback());
+		a.subscribe(new DummyTopicCallback());
+		b.subscribe(new DummyTopicCallback());
+		assertEquals(1, r.ops.size());
+		assertEquals(JRosbridge.OP_CODE_SUBSCRIBE, r.ops.get(0));
+		assertEquals(2, r.getSubscriptions().getSubscriberCount("/odom",
+				"nav_msgs/Odometry", JRosbridge.CompressionType.none));
+
+		// the server subscription stays until the last topic leaves
+		a.unsubscribe();
+		assertEquals(1, r.ops.size());
+		assertTrue(b.isSubscribed());
+		b.unsubscribe();
+		assertEquals(2, r.ops.size());
+		assertEquals(JRosbridge.OP_CODE_UNSUBSCRIBE, r.ops.get(1));
+
+		// nothing is left to unsubscribe
+		a.unsubscribe();
+		b.unsubscribe();
+		assertEquals(2, r.ops.size());
+	}
+
+	@Test
+	public void testSubscribeSharedRaw() {
+		RecordingRos r = new RecordingRos();
+		Topic a = new Topic(r, "/odom", "nav_msgs/Odometry");
+		a.subscribe(new DummyTopicCallback());
+		a.subscribe(new RawTopicCallback() {
+			public void handleRawMessage(ByteBuffer data, Time time) {
+			}
+		});
+		// raw messages need their own server subscription
+		assertEquals(2, r.ops.size());
+		assertEquals(2, r.getSubscriptions().size());
+		a.unsubscribe();
+		assertEquals(4, r.ops.size());
+		assertEquals(0, r.getSubscriptions().size());
+	}
+
+	@Test
+	public void testSubscribeSharedThrottleRate() {
+		RecordingRos r = new RecordingRos();
+		Topic dashboard = new Topic(r, "/scan", "sensor_msgs/LaserScan", 500);
+		Topic controller = new Topic(r, "/scan", "sensor_msgs/LaserScan", 10);
+		dashboard.subscribe(new DummyTopicCallback());
+		controller.subscribe(new DummyTopicCallback());
+		// the faster rate replaces the server subscription
+		assertEquals(3, r.ops.size());
+		assertEquals(JRosbridge.OP_CODE_SUBSCRIBE, r.ops.get(1));
+		assertEquals(JRosbridge.OP_CODE_UNSUBSCRIBE, r.ops.get(2));
+	}
+
+	@Test
+	public void testSubscribeLatest() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<String> received = Collections
+				.synchronizedList(new ArrayList<String>());
+		ConflatingTopicCallback cb = t1.subscribeLatest(new TopicCallback() {
+			public void handleMessage(Message message) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				received.add(message.toString());
+			}
+		});
+		assertNull(cb.getKey());
+		assertTrue(t1.isSubscribed());
+
+		for (int i = 0; i < 5; i++) {
+			ros.onMessage("{\"" + JRosbridge.FIELD_OP + "\":\""
+					+ JRosbridge.OP_CODE_PUBLISH + "\",\""
+					+ JRosbridge.FIELD_TOPIC + "\":\"myTopic1\",\""
+					+ JRosbridge.FIELD_MESSAGE + "\":{\"i\":" + i + "}}");
+			if (i == 0) {
+				assertTrue(started.await(5, TimeUnit.SECONDS));
+			}
+		}
+		assertEquals(5, cb.getReceived());
+		assertEquals(3, cb.getSuperseded());
+
+		release.countDown();
+		while (received.size() < 2) {
+			Thread.yield();
+		}
+		assertEquals("{\"i\":0}", received.get(0));
+		assertEquals("{\"i\":4}", received.get(1));
+
+		t1.unsubscribe();
+		assertTrue(cb.isClosed());
+	}
+
+	@Test
+	public void testSubscribeLatestKey() {
+		ConflatingTopicCallback cb = t1.subscribeLatest(
+				new DummyTopicCallback(), "header.frame_id");
+		assertEquals("header.frame_id", cb.getKey());
+		t1.unsubscribe();
+		assertTrue(cb.isClosed());
+	}
+
+	@Test
+	public void testSubscribeRaw() {
+		t1.subscribe(new RawTopicCallback() {
+			public void handleRawMessage(ByteBuffer data, Time receiveTime) {
+			}
+		});
+
+		while (DummyHandler.latest == null) {
+			Thread.yield();
+		}
+
+		assertEquals(
+				"{\"op\":\"subscribe\",\"id\":\"subscribe:myTopic1:0\",\"type\":\"myType1\","
+						+ "\"topic\":\"myTopic1\",\"compression\":\"cbor-raw\",\"throttle_rate\":0}",
+				DummyHandler.latest.toString());
+		assertTrue(t1.isSubscribed());
+
+		t1.unsubscribe();
+		assertFalse(t1.isSubscribed());
+	}
+
 	@Test
 	public void testUnsubscribeNoSubscribe() {
 		DummyTopicCallback cb = new DummyTopicCallback();
@@ -216,6 +410,210 @@ public class TestTopic {
 		assertFalse(t1.isSubscribed());
 	}
 
+	@Test
+	public void testPublishLazyMessage() throws Exception {
+		for (JRosbridge.EncodingType encoding : JRosbridge.EncodingType
+				.values()) {
+			FrameRos r = new FrameRos();
+			r.setEncoding(encoding);
+			r.enableAsyncSend(8, JRosbridge.OverflowPolicy.BLOCK);
+			Topic t = new Topic(r, "myTopic", "myType");
+			LazyMessage message = new LazyMessage();
+			t.publish(message);
+
+			// the advertisement, then the message
+			assertNotNull(r.written.poll(5, TimeUnit.SECONDS));
+			SendQueue.Frame frame = r.written.poll(5, TimeUnit.SECONDS);
+			assertNotNull(frame);
+			r.disableAsyncSend();
+			JsonObject call;
+			if (encoding == JRosbridge.EncodingType.cbor) {
+				call = CborDecoder.decodeObject(frame.getBinary());
+			} else if (encoding == JRosbridge.EncodingType.bson) {
+				call = BsonDecoder.decodeObject(frame.getBinary());
+			} else {
+				call = Json.createReader(new StringReader(frame.getText()))
+						.readObject();
+			}
+
+			assertEquals(JRosbridge.OP_CODE_PUBLISH,
+					call.getString(JRosbridge.FIELD_OP));
+			assertTrue(call.getString(JRosbridge.FIELD_ID).startsWith(
+					"publish:myTopic:"));
+			assertEquals("myTopic", call.getString(JRosbridge.FIELD_TOPIC));
+			JsonObject msg = call.getJsonObject(JRosbridge.FIELD_MESSAGE);
+			assertEquals(1.5, msg.getJsonNumber("data").doubleValue(), 0);
+			assertEquals(-2.25, msg.getJsonArray("values").getJsonNumber(1)
+					.doubleValue(), 0);
+			assertEquals(3, msg.getInt("count"));
+			assertEquals(0, message.trees.get());
+		}
+	}
+
+	@Test
+	public void testPublishLazyMessageFragmented() throws Exception {
+		FrameRos r = new FrameRos();
+		r.setFragmentSize(20);
+		r.enableAsyncSend(64, JRosbridge.OverflowPolicy.BLOCK);
+		Topic t = new Topic(r, "myTopic", "myType");
+		LazyMessage message = new LazyMessage();
+		t.publish(message);
+
+		// reassemble the fragments which follow the advertisement
+		assertNotNull(r.written.poll(5, TimeUnit.SECONDS));
+		StringBuilder sb = new StringBuilder();
+		int total = -1;
+		for (int i = 0; i != total; i++) {
+			SendQueue.Frame frame = r.written.poll(5, TimeUnit.SECONDS);
+			assertNotNull(frame);
+			JsonObject fragment = Json.createReader(
+					new StringReader(frame.getText())).readObject();
+			assertEquals(JRosbridge.OP_CODE_FRAGMENT,
+					fragment.getString(JRosbridge.FIELD_OP));
+			assertEquals(i, fragment.getInt(JRosbridge.FIELD_NUM));
+			total = fragment.getInt(JRosbridge.FIELD_TOTAL);
+			sb.append(fragment.getString(JRosbridge.FIELD_DATA));
+		}
+		r.disableAsyncSend();
+		assertTrue(total > 1);
+		JsonObject call = Json.createReader(new StringReader(sb.toString()))
+				.readObject();
+		assertEquals(message.toString(),
+				call.getJsonObject(JRosbridge.FIELD_MESSAGE).toString());
+		assertEquals(0, message.trees.get());
+	}
+
+	@Test
+	public void testPublishConcurrentAdvertisesOnce() throws Exception {
+		RecordingRos r = new RecordingRos();
+		final Topic t = new Topic(r, "myTopic", "myType");
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[16];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				public void run() {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int j = 0; j < 50; j++) {
+						t.publish(new Message("{\"test1\":\"test2\"}"));
+					}
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		// exactly one advertise, sent before any publish
+		assertEquals(16 * 50 + 1, r.ops.size());
+		assertEquals(JRosbridge.OP_CODE_ADVERTISE, r.ops.get(0));
+		for (int i = 1; i < r.ops.size(); i++) {
+			assertEquals(JRosbridge.OP_CODE_PUBLISH, r.ops.get(i));
+		}
+		assertTrue(t.isAdvertised());
+	}
+
+	@Test
+	public void testSubscribeUnsubscribeConcurrent() throws Exception {
+		RecordingRos r = new RecordingRos();
+		final Topic t = new Topic(r, "myTopic", "myType");
+		final AtomicInteger received = new AtomicInteger();
+		final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				public void run() {
+					try {
+						for (int j = 0; j < 200; j++) {
+							t.subscribe(new TopicCallback() {
+								public void handleMessage(Message message) {
+									received.incrementAndGet();
+								}
+							});
+							if (j % 10 == 0) {
+								t.unsubscribe();
+							}
+						}
+					} catch (Throwable e) {
+						error.set(e);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertNull(error.get());
+
+		// every callback registered by the topic is removed again
+		t.unsubscribe();
+		assertFalse(t.isSubscribed());
+		r.onMessage("{\"" + JRosbridge.FIELD_OP + "\":\""
+				+ JRosbridge.OP_CODE_PUBLISH + "\",\"" + JRosbridge.FIELD_TOPIC
+				+ "\":\"myTopic\",\"" + JRosbridge.FIELD_MESSAGE + "\":{}}");
+		assertEquals(0, received.get());
+	}
+
+	private static class RecordingRos extends Ros {
+
+		public final List<String> ops = Collections
+				.synchronizedList(new ArrayList<String>());
+
+		@Override
+		public boolean send(JsonObject jsonObject) {
+			this.ops.add(jsonObject.getString(JRosbridge.FIELD_OP));
+			return true;
+		}
+
+		@Override
+		boolean publish(String topic, String id, JsonWrapper message) {
+			this.ops.add(JRosbridge.OP_CODE_PUBLISH);
+			return true;
+		}
+	}
+
+	private static class FrameRos extends Ros {
+
+		public final BlockingQueue<SendQueue.Frame> written =
+				new LinkedBlockingQueue<SendQueue.Frame>();
+
+		@Override
+		boolean write(SendQueue.Frame frame) {
+			this.written.add(frame);
+			return true;
+		}
+	}
+
+	// a message which only writes its fields and counts any JSON objects made
+	private static class LazyMessage extends Message {
+
+		public final AtomicInteger trees = new AtomicInteger();
+
+		public LazyMessage() {
+			super((JsonObject) null, "myType");
+		}
+
+		@Override
+		public void writeJsonFields(JsonGenerator generator) {
+			generator.write("data", 1.5);
+			JsonStreams.writeArray(generator, "values", new double[] { 0.5,
+					-2.25 });
+			generator.write("count", 3);
+		}
+
+		@Override
+		public JsonObject toJsonObject() {
+			this.trees.incrementAndGet();
+			return super.toJsonObject();
+		}
+	}
+
 	private class DummyTopicCallback implements TopicCallback {
 
 		public Message latest = null;
@@ -0,0 +1,294 @@
+package edu.wpi.rail.jrosbridge;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.callback.TopicCallback;
+import edu.wpi.rail.jrosbridge.callback.TypedTopicCallback;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoder;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.geometry.Point;
+import edu.wpi.rail.jrosbridge.messages.geometry.Pose;
+import edu.wpi.rail.jrosbridge.messages.geometry.Quaternion;
+import edu.wpi.rail.jrosbridge.metrics.RosMetrics;
+
+public class TestTypedTopic {
+
+	private Ros ros;
+	private AtomicInteger decodes;
+	private TypedTopic<Pose> t1, t2;
+	private Pose p1;
+
+	@Before
+	public void setUp() {
+		ros = new Ros();
+		decodes = new AtomicInteger();
+		MessageDecoder<Pose> counting = new MessageDecoder<Pose>() {
+			@Override
+			public Pose decode(JsonParser parser) {
+				decodes.incrementAndGet();
+				return Pose.fromJsonParser(parser);
+			}
+		};
+		t1 = new TypedTopic<Pose>(ros, "/pose", "geometry_msgs/Pose", counting,
+				JRosbridge.CompressionType.none, 0, 0, 0);
+		t2 = new TypedTopic<Pose>(ros, "/pose2", "geometry_msgs/Pose",
+				Pose.class, JRosbridge.CompressionType.cbor, 10);
+		p1 = new Pose(new Point(0.5, 1.5, 3.0), new Quaternion(0, 0, 0.5, 1));
+	}
+
+	private static String publish(String topic, Message msg) {
+		return "{\"op\": \"publish\", \"topic\": \"" + topic + "\", \"msg\": "
+				+ msg.toString() + "}";
+	}
+
+	private static String fragment(String data, int num) {
+		return Json.createObjectBuilder().add("op", "fragment").add("id", "f")
+				.add("num", num).add("total", 2).add("data", data).build()
+				.toString();
+	}
+
+	private static class Recorder<T extends Message> implements
+			TypedTopicCallback<T> {
+
+		private final List<T> messages = new ArrayList<T>();
+
+		@Override
+		public void handleMessage(T message) {
+			this.messages.add(message);
+		}
+	}
+
+	@Test
+	public void testConstructor() {
+		assertEquals(ros, t1.getRos());
+		assertEquals("/pose", t1.getName());
+		assertEquals("geometry_msgs/Pose", t1.getType());
+		assertEquals(JRosbridge.CompressionType.none, t1.getCompression());
+		assertFalse(t1.isSubscribed());
+		assertNotNull(t1.getDecoder());
+	}
+
+	@Test
+	public void testClassConstructor() {
+		TypedTopic<Pose> t = new TypedTopic<Pose>(ros, "/p",
+				"geometry_msgs/Pose", Pose.class);
+		assertSame(MessageDecoders.get(Pose.class), t.getDecoder());
+		assertEquals(JRosbridge.CompressionType.none, t.getCompression());
+		assertEquals(0, t.getThrottleRate());
+		assertSame(MessageDecoders.get(Pose.class), t2.getDecoder());
+		assertEquals(JRosbridge.CompressionType.cbor, t2.getCompression());
+		assertEquals(10, t2.getThrottleRate());
+	}
+
+	public static class Unknown extends Message {
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownClass() {
+		new TypedTopic<Unknown>(ros, "/u", "u/U", Unknown.class);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullClass() {
+		new TypedTopic<Pose>(ros, "/u", "u/U", (Class<Pose>) null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNullDecoder() {
+		new TypedTopic<Pose>(ros, "/u", "u/U", (MessageDecoder<Pose>) null,
+				JRosbridge.CompressionType.none, 0, 0, 0);
+	}
+
+	@Test
+	public void testSubscribeDecodesOnce() {
+		Recorder<Pose> a = new Recorder<Pose>();
+		Recorder<Message> b = new Recorder<Message>();
+		t1.subscribeTyped(a);
+		t1.subscribeTyped(b);
+		assertTrue(t1.isSubscribed());
+		// one server subscription and one registered callback
+		assertEquals(1, ros.getSubscriptions().getSubscriberCount("/pose",
+				"geometry_msgs/Pose", JRosbridge.CompressionType.none));
+
+		ros.onMessage(publish("/pose", p1));
+		assertEquals(1, decodes.get());
+		assertEquals(1, a.messages.size());
+		assertEquals(1, b.messages.size());
+		assertSame(a.messages.get(0), b.messages.get(0));
+		assertEquals(p1.toString(), a.messages.get(0).toString());
+		assertEquals(p1.getPosition(), a.messages.get(0).getPosition());
+	}
+
+	@Test
+	public void testSubscribeLambda() {
+		final List<Pose> typed = new ArrayList<Pose>();
+		final List<Message> untyped = new ArrayList<Message>();
+		t1.subscribeTyped(p -> typed.add(p));
+		t1.subscribe(m -> untyped.add(m));
+
+		ros.onMessage(publish("/pose", p1));
+		assertEquals(1, typed.size());
+		assertEquals(p1.getPosition(), typed.get(0).getPosition());
+		assertEquals(1, untyped.size());
+	}
+
+	@Test
+	public void testSubscribeMixed() {
+		final List<Message> untyped = new ArrayList<Message>();
+		t1.subscribe(new TopicCallback() {
+			@Override
+			public void handleMessage(Message message) {
+				untyped.add(message);
+			}
+		});
+		Recorder<Pose> a = new Recorder<Pose>();
+		Recorder<Pose> b = new Recorder<Pose>();
+		t1.subscribeTyped(a);
+		t1.subscribeTyped(b);
+
+		ros.onMessage(publish("/pose", p1));
+		assertEquals(1, decodes.get());
+		assertEquals(1, untyped.size());
+		assertEquals(p1.toJsonObject(), untyped.get(0).toJsonObject());
+		assertSame(a.messages.get(0), b.messages.get(0));
+		assertEquals(p1.toString(), a.messages.get(0).toString());
+	}
+
+	@Test
+	public void testSubscribeSameTopicTwice() {
+		TypedTopic<Pose> t = new TypedTopic<Pose>(ros, "/pose",
+				"geometry_msgs/Pose", t1.getDecoder(),
+				JRosbridge.CompressionType.none, 0, 0, 0);
+		Recorder<Pose> a = new Recorder<Pose>();
+		Recorder<Pose> b = new Recorder<Pose>();
+		t1.subscribeTyped(a);
+		t.subscribeTyped(b);
+
+		// topics sharing a decoder share the decoded message
+		ros.onMessage(publish("/pose", p1));
+		assertEquals(1, decodes.get());
+		assertSame(a.messages.get(0), b.messages.get(0));
+	}
+
+	@Test
+	public void testSubscribeOtherTopic() {
+		Recorder<Pose> a = new Recorder<Pose>();
+		t1.subscribeTyped(a);
+		ros.onMessage(publish("/other", p1));
+		assertEquals(0, decodes.get());
+		assertTrue(a.messages.isEmpty());
+	}
+
+	@Test
+	public void testSubscribeInvalidMessage() {
+		Recorder<Pose> a = new Recorder<Pose>();
+		t1.subscribeTyped(a);
+		ros.onMessage("{\"op\": \"publish\", \"topic\": \"/pose\", \"msg\": {\"position\": {\"x\": \"a\"}}}");
+		ros.onMessage("{\"op\": \"publish\", \"topic\": \"/pose\"}");
+		assertTrue(a.messages.isEmpty());
+
+		// still delivers valid messages
+		ros.onMessage(publish("/pose", p1));
+		assertEquals(1, a.messages.size());
+	}
+
+	@Test
+	public void testSubscribeDecoderThrows() {
+		MessageDecoder<Pose> failing = new MessageDecoder<Pose>() {
+			@Override
+			public Pose decode(JsonParser parser) {
+				if (decodes.incrementAndGet() == 1) {
+					throw new IllegalStateException("bad decoder");
+				}
+				return Pose.fromJsonParser(parser);
+			}
+		};
+		TypedTopic<Pose> t = new TypedTopic<Pose>(ros, "/pose3",
+				"geometry_msgs/Pose", failing,
+				JRosbridge.CompressionType.none, 0, 0, 0);
+		Recorder<Pose> a = new Recorder<Pose>();
+		t.subscribeTyped(a);
+
+		// decoded straight from the frame
+		ros.onMessage(publish("/pose3", p1));
+		assertTrue(a.messages.isEmpty());
+		ros.onMessage(publish("/pose3", p1));
+		assertEquals(1, a.messages.size());
+
+		// decoded from the parsed message
+		decodes.set(0);
+		t.subscribe(new TopicCallback() {
+			@Override
+			public void handleMessage(Message message) {
+			}
+		});
+		ros.onMessage(publish("/pose3", p1));
+		assertEquals(1, a.messages.size());
+		ros.onMessage(publish("/pose3", p1));
+		assertEquals(2, a.messages.size());
+	}
+
+	@Test
+	public void testSubscribeBadNumber() {
+		Recorder<Pose> a = new Recorder<Pose>();
+		t1.subscribeTyped(a);
+		ros.onMessage("{\"op\": \"publish\", \"topic\": \"/pose\", \"msg\": {\"position\": {\"x\": \"1.5x\"}}}");
+		assertTrue(a.messages.isEmpty());
+	}
+
+	@Test
+	public void testSubscribeFragments() {
+		Recorder<Pose> a = new Recorder<Pose>();
+		t1.subscribeTyped(a);
+		String frame = publish("/pose", p1);
+		int half = frame.length() / 2;
+		ros.onMessage(fragment(frame.substring(0, half), 0));
+		ros.onMessage(fragment(frame.substring(half), 1));
+		assertEquals(1, a.messages.size());
+		assertEquals(p1.toString(), a.messages.get(0).toString());
+	}
+
+	@Test
+	public void testSubscribeMetrics() {
+		RosMetrics m = new RosMetrics();
+		ros.setMetrics(m);
+		t1.subscribeTyped(new Recorder<Pose>());
+		ros.onMessage(publish("/pose", p1));
+		assertEquals(1, m.getCount(RosMetrics.Stage.PARSE, "publish",
+				"/pose"));
+		assertEquals(1, m.getCount(RosMetrics.Stage.CALLBACK, "publish",
+				"/pose"));
+		assertEquals(1, m.getCount(RosMetrics.Stage.RECEIVE, "publish",
+				"/pose"));
+	}
+
+	@Test
+	public void testUnsubscribe() {
+		Recorder<Pose> a = new Recorder<Pose>();
+		t1.subscribeTyped(a);
+		t1.unsubscribe();
+		assertFalse(t1.isSubscribed());
+		assertEquals(0, ros.getSubscriptions().getSubscriberCount("/pose",
+				"geometry_msgs/Pose", JRosbridge.CompressionType.none));
+		ros.onMessage(publish("/pose", p1));
+		assertTrue(a.messages.isEmpty());
+
+		// subscribing again registers the callback again
+		Recorder<Pose> b = new Recorder<Pose>();
+		t1.subscribeTyped(b);
+		ros.onMessage(publish("/pose", p1));
+		assertTrue(a.messages.isEmpty());
+		assertEquals(1, b.messages.size());
+	}
+}
@@ -0,0 +1,155 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import javax.json.JsonObject;
+
+import org.junit.Test;
+
+public class TestBsonDecoder {
+
+	private static ByteBuffer document(byte[]... elements) {
+		int size = 5;
+		for (byte[] e : elements) {
+			size += e.length;
+		}
+		ByteBuffer b = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		b.putInt(size);
+		for (byte[] e : elements) {
+			b.put(e);
+		}
+		b.put((byte) 0);
+		b.flip();
+		return b;
+	}
+
+	private static byte[] element(byte type, String key, byte[] value) {
+		ByteBuffer b = ByteBuffer.allocate(2 + key.length() + value.length);
+		b.put(type);
+		b.put(key.getBytes());
+		b.put((byte) 0);
+		b.put(value);
+		return b.array();
+	}
+
+	private static byte[] le(int size, long value) {
+		ByteBuffer b = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+		if (size == 4) {
+			b.putInt((int) value);
+		} else {
+			b.putLong(value);
+		}
+		return b.array();
+	}
+
+	private static byte[] toArray(ByteBuffer b) {
+		byte[] array = new byte[b.remaining()];
+		b.get(array);
+		return array;
+	}
+
+	@Test
+	public void testDecodeEmpty() throws IOException {
+		assertTrue(BsonDecoder.decodeObject(document()).isEmpty());
+	}
+
+	@Test
+	public void testDecodeScalars() throws IOException {
+		JsonObject obj = BsonDecoder.decodeObject(document(
+				element(BsonDecoder.TYPE_INT32, "i", le(4, -7)),
+				element(BsonDecoder.TYPE_INT64, "l", le(8, 1L << 40)),
+				element(BsonDecoder.TYPE_DOUBLE, "d",
+						le(8, Double.doubleToLongBits(0.1))),
+				element(BsonDecoder.TYPE_BOOLEAN, "b", new byte[] { 1 }),
+				element(BsonDecoder.TYPE_NULL, "n", new byte[0])));
+		assertEquals(-7, obj.getInt("i"));
+		assertEquals(1L << 40, obj.getJsonNumber("l").longValue());
+		assertEquals(0.1, obj.getJsonNumber("d").doubleValue(), 0);
+		assertTrue(obj.getBoolean("b"));
+		assertTrue(obj.isNull("n"));
+	}
+
+	@Test
+	public void testDecodeTimestamp() throws IOException {
+		JsonObject obj = BsonDecoder.decodeObject(document(element(
+				BsonDecoder.TYPE_TIMESTAMP, "t", le(8, -1L))));
+		assertEquals(new BigInteger("18446744073709551615"), obj
+				.getJsonNumber("t").bigIntegerValue());
+	}
+
+	@Test
+	public void testDecodeNaN() throws IOException {
+		JsonObject obj = BsonDecoder.decodeObject(document(element(
+				BsonDecoder.TYPE_DOUBLE, "d",
+				le(8, Double.doubleToLongBits(Double.NaN)))));
+		assertTrue(obj.isNull("d"));
+	}
+
+	@Test
+	public void testDecodeBinary() throws IOException {
+		JsonObject obj = BsonDecoder.decodeObject(document(element(
+				BsonDecoder.TYPE_BINARY, "data", new byte[] { 0x03, 0x00,
+						0x00, 0x00, 0x00, 0x01, 0x02, 0x03 })));
+		assertEquals("AQID", obj.getString("data"));
+	}
+
+	@Test
+	public void testDecodeObjectId() throws IOException {
+		JsonObject obj = BsonDecoder.decodeObject(document(element(
+				BsonDecoder.TYPE_OBJECT_ID, "id", new byte[] { 0, 1, 2, 3, 4,
+						5, 6, 7, 8, 9, 10, (byte) 0xff })));
+		assertEquals("000102030405060708090aff", obj.getString("id"));
+	}
+
+	@Test
+	public void testDecodeNested() throws IOException {
+		byte[] inner = toArray(document(element(BsonDecoder.TYPE_STRING, "0",
+				new byte[] { 0x03, 0x00, 0x00, 0x00, 'h', 'i', 0x00 })));
+		JsonObject obj = BsonDecoder.decodeObject(document(
+				element(BsonDecoder.TYPE_ARRAY, "a", inner),
+				element(BsonDecoder.TYPE_DOCUMENT, "o", inner)));
+		assertEquals("hi", obj.getJsonArray("a").getString(0));
+		assertEquals("hi", obj.getJsonObject("o").getString("0"));
+	}
+
+	@Test
+	public void testDecodeDoesNotMoveBuffer() throws IOException {
+		ByteBuffer b = document(element(BsonDecoder.TYPE_INT32, "i",
+				le(4, 1)));
+		BsonDecoder.decodeObject(b);
+		assertEquals(0, b.position());
+		assertEquals(b.limit(), b.remaining());
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeTruncated() throws IOException {
+		ByteBuffer b = document(element(BsonDecoder.TYPE_INT32, "i",
+				le(4, 1)));
+		b.limit(b.limit() - 3);
+		BsonDecoder.decodeObject(b);
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeInvalidSize() throws IOException {
+		BsonDecoder.decodeObject(ByteBuffer.wrap(new byte[] { 0x02, 0x00,
+				0x00, 0x00, 0x00 }));
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeUnsupportedType() throws IOException {
+		BsonDecoder.decodeObject(document(element((byte) 0x13, "x",
+				new byte[16])));
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeSizeMismatch() throws IOException {
+		ByteBuffer b = document(element(BsonDecoder.TYPE_INT32, "i",
+				le(4, 1)), new byte[] { 0x00 });
+		BsonDecoder.decodeObject(b);
+	}
+}
@@ -0,0 +1,203 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerationException;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import org.junit.Test;
+
+public class TestBsonEncoder {
+
+	private static byte[] toArray(ByteBuffer b) {
+		byte[] array = new byte[b.remaining()];
+		b.get(array);
+		return array;
+	}
+
+	// write the given JSON text event by event with the generator
+	private static void replay(String json, JsonGenerator generator) {
+		JsonParser parser = Json.createParser(new StringReader(json));
+		String name = null;
+		while (parser.hasNext()) {
+			JsonParser.Event event = parser.next();
+			switch (event) {
+			case KEY_NAME:
+				name = parser.getString();
+				continue;
+			case START_OBJECT:
+				if (name == null) {
+					generator.writeStartObject();
+				} else {
+					generator.writeStartObject(name);
+				}
+				break;
+			case START_ARRAY:
+				if (name == null) {
+					generator.writeStartArray();
+				} else {
+					generator.writeStartArray(name);
+				}
+				break;
+			case END_OBJECT:
+			case END_ARRAY:
+				generator.writeEnd();
+				break;
+			case VALUE_STRING:
+				if (name == null) {
+					generator.write(parser.getString());
+				} else {
+					generator.write(name, parser.getString());
+				}
+				break;
+			case VALUE_NUMBER:
+				if (name == null) {
+					generator.write(parser.getBigDecimal());
+				} else {
+					generator.write(name, parser.getBigDecimal());
+				}
+				break;
+			case VALUE_TRUE:
+			case VALUE_FALSE:
+				boolean b = event == JsonParser.Event.VALUE_TRUE;
+				if (name == null) {
+					generator.write(b);
+				} else {
+					generator.write(name, b);
+				}
+				break;
+			default:
+				if (name == null) {
+					generator.writeNull();
+				} else {
+					generator.writeNull(name);
+				}
+				break;
+			}
+			name = null;
+		}
+		generator.close();
+	}
+
+	@Test
+	public void testEncodeEmpty() {
+		assertArrayEquals(new byte[] { 0x05, 0x00, 0x00, 0x00, 0x00 },
+				toArray(BsonEncoder.encode(Json.createObjectBuilder().build())));
+	}
+
+	@Test
+	public void testEncodeSimple() {
+		JsonObject obj = Json.createObjectBuilder().add("a", 1)
+				.add("b", true).addNull("c").build();
+		assertArrayEquals(new byte[] { 0x13, 0x00, 0x00, 0x00, 0x10, 'a', 0x00,
+				0x01, 0x00, 0x00, 0x00, 0x08, 'b', 0x00, 0x01, 0x0a, 'c', 0x00,
+				0x00 }, toArray(BsonEncoder.encode(obj)));
+	}
+
+	@Test
+	public void testEncodeString() {
+		JsonObject obj = Json.createObjectBuilder().add("s", "hi").build();
+		assertArrayEquals(new byte[] { 0x0f, 0x00, 0x00, 0x00, 0x02, 's', 0x00,
+				0x03, 0x00, 0x00, 0x00, 'h', 'i', 0x00, 0x00 },
+				toArray(BsonEncoder.encode(obj)));
+	}
+
+	@Test
+	public void testEncodeNumbers() {
+		JsonObject obj = Json.createObjectBuilder().add("i", 2147483648L)
+				.add("d", 0.1).build();
+		ByteBuffer b = BsonEncoder.encode(obj).order(ByteOrder.LITTLE_ENDIAN);
+		assertEquals(b.remaining(), b.getInt(0));
+		assertEquals(BsonDecoder.TYPE_INT64, b.get(4));
+		assertEquals(2147483648L, b.getLong(7));
+		assertEquals(BsonDecoder.TYPE_DOUBLE, b.get(15));
+		assertEquals(0.1, b.getDouble(18), 0);
+	}
+
+	@Test
+	public void testEncodeArray() {
+		JsonObject obj = Json.createObjectBuilder()
+				.add("d", Json.createArrayBuilder().add(1.5).add(-2.25))
+				.build();
+		ByteBuffer b = BsonEncoder.encode(obj).order(ByteOrder.LITTLE_ENDIAN);
+		// header, array element, array header, two doubles, terminators
+		assertEquals(4 + 3 + 4 + 2 * 11 + 1 + 1, b.remaining());
+		assertEquals(BsonDecoder.TYPE_ARRAY, b.get(4));
+		assertEquals(27, b.getInt(7));
+		assertEquals(BsonDecoder.TYPE_DOUBLE, b.get(11));
+		assertEquals('0', b.get(12));
+		assertEquals(1.5, b.getDouble(14), 0);
+		assertEquals('1', b.get(23));
+		assertEquals(-2.25, b.getDouble(25), 0);
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		String json = "{\"op\":\"publish\",\"topic\":\"/pose\",\"msg\":{"
+				+ "\"position\":{\"x\":1.5,\"y\":-2.25,\"z\":0},"
+				+ "\"covariance\":[0.5,1.5,2.5],\"ids\":[1,2,3],"
+				+ "\"big\":9223372036854775807,\"neg\":-9223372036854775808,"
+				+ "\"name\":\"h\\u00e9llo\",\"empty\":[],\"flag\":false,"
+				+ "\"nested\":[[1,2],{\"a\":null}]}}";
+		JsonObject obj = Json.createReader(new StringReader(json))
+				.readObject();
+		JsonObject decoded = BsonDecoder.decodeObject(BsonEncoder.encode(obj));
+		assertEquals(obj, decoded);
+	}
+
+	@Test
+	public void testRoundTripDoublesExact() throws IOException {
+		double[] values = new double[] { 0.1, 1.0 / 3.0, Math.PI, -1e-300,
+				Double.MAX_VALUE };
+		JsonObject obj = Json.createObjectBuilder()
+				.add("v", Json.createArrayBuilder().add(values[0])
+						.add(values[1]).add(values[2]).add(values[3])
+						.add(values[4])).build();
+		JsonObject decoded = BsonDecoder.decodeObject(BsonEncoder.encode(obj));
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(values[i], decoded.getJsonArray("v")
+					.getJsonNumber(i).doubleValue(), 0);
+		}
+	}
+
+	@Test
+	public void testEncodeHugeInteger() throws IOException {
+		JsonObject obj = Json.createReader(
+				new StringReader("{\"u\":18446744073709551615}")).readObject();
+		ByteBuffer b = BsonEncoder.encode(obj);
+		assertEquals(BsonDecoder.TYPE_DOUBLE, b.get(4));
+		assertEquals(1.8446744073709552E19, BsonDecoder.decodeObject(b)
+				.getJsonNumber("u").doubleValue(), 0);
+	}
+
+	@Test
+	public void testGeneratorRoundTrip() throws IOException {
+		String json = "{\"op\":\"publish\",\"topic\":\"/pose\",\"msg\":{"
+				+ "\"position\":{\"x\":1.5,\"y\":-2.25,\"z\":0},"
+				+ "\"covariance\":[0.5,1.5,2.5],\"ids\":[1,2,3],"
+				+ "\"big\":9223372036854775807,\"neg\":-9223372036854775808,"
+				+ "\"name\":\"h\\u00e9llo\",\"empty\":[],\"flag\":false,"
+				+ "\"nested\":[[1,2],{\"a\":null}]}}";
+		JsonObject obj = Json.createReader(new StringReader(json))
+				.readObject();
+		BsonEncoder encoder = new BsonEncoder();
+		replay(json, encoder.createGenerator());
+		// the same document as encoding the object
+		assertArrayEquals(toArray(BsonEncoder.encode(obj)),
+				toArray(encoder.toByteBuffer()));
+		assertEquals(obj, BsonDecoder.decodeObject(encoder.toByteBuffer()));
+	}
+
+	@Test(expected = JsonGenerationException.class)
+	public void testGeneratorTopLevelArray() {
+		new BsonEncoder().createGenerator().writeStartArray();
+	}
+}
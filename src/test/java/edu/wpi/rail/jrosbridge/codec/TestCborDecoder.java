@@ -0,0 +1,139 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.JsonValue;
+
+import org.junit.Test;
+
+public class TestCborDecoder {
+
+	private static ByteBuffer bytes(int... values) {
+		byte[] b = new byte[values.length];
+		for (int i = 0; i < values.length; i++) {
+			b[i] = (byte) values[i];
+		}
+		return ByteBuffer.wrap(b);
+	}
+
+	@Test
+	public void testDecodeObject() throws IOException {
+		// {"a": 1, "b": [true, null], "c": "x"}
+		JsonObject obj = CborDecoder.decodeObject(bytes(0xa3, 0x61, 'a', 0x01,
+				0x61, 'b', 0x82, 0xf5, 0xf6, 0x61, 'c', 0x61, 'x'));
+		assertEquals("{\"a\":1,\"b\":[true,null],\"c\":\"x\"}", obj.toString());
+	}
+
+	@Test
+	public void testDecodeIntegers() throws IOException {
+		assertEquals("[0,23,24,256,65536,4294967296,-1,-500]",
+				new CborDecoder(bytes(0x88, 0x00, 0x17, 0x18, 0x18, 0x19,
+						0x01, 0x00, 0x1a, 0x00, 0x01, 0x00, 0x00, 0x1b, 0x00,
+						0x00, 0x00, 0x01, 0x00, 0x00, 0x00, 0x00, 0x20, 0x39,
+						0x01, 0xf3)).readValue().toString());
+	}
+
+	@Test
+	public void testDecodeUnsigned64() throws IOException {
+		assertEquals("[18446744073709551615]", new CborDecoder(bytes(0x81,
+				0x1b, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff))
+				.readValue().toString());
+	}
+
+	@Test
+	public void testDecodeFloats() throws IOException {
+		JsonArray array = (JsonArray) new CborDecoder(bytes(0x84, 0xf9, 0x3c,
+				0x00, 0xfa, 0x3f, 0xc0, 0x00, 0x00, 0xfb, 0x40, 0x09, 0x21,
+				0xfb, 0x54, 0x44, 0x2d, 0x18, 0xf9, 0x7c, 0x00)).readValue();
+		assertEquals(1.0, array.getJsonNumber(0).doubleValue(), 0);
+		assertEquals(1.5, array.getJsonNumber(1).doubleValue(), 0);
+		assertEquals(Math.PI, array.getJsonNumber(2).doubleValue(), 0);
+		// infinity cannot be represented in JSON
+		assertEquals(JsonValue.NULL, array.get(3));
+	}
+
+	@Test
+	public void testDecodeByteString() throws IOException {
+		// {"data": h'010203'}
+		JsonObject obj = CborDecoder.decodeObject(bytes(0xa1, 0x64, 'd', 'a',
+				't', 'a', 0x43, 0x01, 0x02, 0x03));
+		assertEquals("AQID", obj.getString("data"));
+	}
+
+	@Test
+	public void testDecodeTypedArrays() throws IOException {
+		// [float64 LE [1.5], int16 LE [-2, 3], uint16 BE [258]]
+		JsonArray array = (JsonArray) new CborDecoder(bytes(0x83, 0xd8, 86,
+				0x48, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0xf8, 0x3f, 0xd8,
+				77, 0x44, 0xfe, 0xff, 0x03, 0x00, 0xd8, 65, 0x42, 0x01, 0x02))
+				.readValue();
+		assertEquals("[1.5]", array.get(0).toString());
+		assertEquals("[-2,3]", array.get(1).toString());
+		assertEquals("[258]", array.get(2).toString());
+	}
+
+	@Test
+	public void testDecodeIndefinite() throws IOException {
+		// {_ "a": [_ 1, 2], "b": (_ "x", "y")}
+		JsonObject obj = CborDecoder.decodeObject(bytes(0xbf, 0x61, 'a', 0x9f,
+				0x01, 0x02, 0xff, 0x61, 'b', 0x7f, 0x61, 'x', 0x61, 'y', 0xff,
+				0xff));
+		assertEquals("{\"a\":[1,2],\"b\":\"xy\"}", obj.toString());
+	}
+
+	@Test
+	public void testIgnoredTag() throws IOException {
+		// tag 1 (epoch time) around an integer
+		assertEquals("[5]", new CborDecoder(bytes(0x81, 0xc1, 0x05))
+				.readValue().toString());
+	}
+
+	@Test
+	public void testSkip() throws IOException {
+		CborDecoder d = new CborDecoder(bytes(0xa1, 0x61, 'a', 0x82, 0x01,
+				0x02, 0x63, 'e', 'n', 'd'));
+		d.skip();
+		assertEquals(6, d.position());
+		assertEquals("end", d.readText());
+	}
+
+	@Test
+	public void testReadBytes() throws IOException {
+		ByteBuffer frame = bytes(0x43, 0x01, 0x02, 0x03);
+		ByteBuffer b = new CborDecoder(frame).readBytes();
+		assertTrue(b.isReadOnly());
+		assertEquals(3, b.remaining());
+		assertEquals(2, b.get(1));
+		assertEquals(0, frame.position());
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotMap() throws IOException {
+		CborDecoder.decodeObject(bytes(0x01));
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncated() throws IOException {
+		CborDecoder.decodeObject(bytes(0xa1, 0x61));
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedString() throws IOException {
+		CborDecoder.decodeObject(bytes(0xa1, 0x65, 'a'));
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadTextWrongType() throws IOException {
+		new CborDecoder(bytes(0x01)).readText();
+	}
+
+	@Test(expected = IOException.class)
+	public void testReadBytesWrongType() throws IOException {
+		new CborDecoder(bytes(0x61, 'a')).readBytes();
+	}
+}
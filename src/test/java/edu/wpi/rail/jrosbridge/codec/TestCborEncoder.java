@@ -0,0 +1,176 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+
+import org.junit.Test;
+
+public class TestCborEncoder {
+
+	private static byte[] toArray(ByteBuffer b) {
+		byte[] array = new byte[b.remaining()];
+		b.get(array);
+		return array;
+	}
+
+	// write the given JSON text event by event with the generator
+	private static void replay(String json, JsonGenerator generator) {
+		JsonParser parser = Json.createParser(new StringReader(json));
+		String name = null;
+		while (parser.hasNext()) {
+			JsonParser.Event event = parser.next();
+			switch (event) {
+			case KEY_NAME:
+				name = parser.getString();
+				continue;
+			case START_OBJECT:
+				if (name == null) {
+					generator.writeStartObject();
+				} else {
+					generator.writeStartObject(name);
+				}
+				break;
+			case START_ARRAY:
+				if (name == null) {
+					generator.writeStartArray();
+				} else {
+					generator.writeStartArray(name);
+				}
+				break;
+			case END_OBJECT:
+			case END_ARRAY:
+				generator.writeEnd();
+				break;
+			case VALUE_STRING:
+				if (name == null) {
+					generator.write(parser.getString());
+				} else {
+					generator.write(name, parser.getString());
+				}
+				break;
+			case VALUE_NUMBER:
+				if (name == null) {
+					generator.write(parser.getBigDecimal());
+				} else {
+					generator.write(name, parser.getBigDecimal());
+				}
+				break;
+			case VALUE_TRUE:
+			case VALUE_FALSE:
+				boolean b = event == JsonParser.Event.VALUE_TRUE;
+				if (name == null) {
+					generator.write(b);
+				} else {
+					generator.write(name, b);
+				}
+				break;
+			default:
+				if (name == null) {
+					generator.writeNull();
+				} else {
+					generator.writeNull(name);
+				}
+				break;
+			}
+			name = null;
+		}
+		generator.close();
+	}
+
+	@Test
+	public void testEncodeSimple() {
+		JsonObject obj = Json.createObjectBuilder().add("a", 1)
+				.add("b", true).addNull("c").build();
+		assertArrayEquals(new byte[] { (byte) 0xa3, 0x61, 'a', 0x01, 0x61,
+				'b', (byte) 0xf5, 0x61, 'c', (byte) 0xf6 },
+				toArray(CborEncoder.encode(obj)));
+	}
+
+	@Test
+	public void testEncodeIntegers() {
+		JsonObject obj = Json.createObjectBuilder().add("v", -500).build();
+		assertArrayEquals(new byte[] { (byte) 0xa1, 0x61, 'v', 0x39, 0x01,
+				(byte) 0xf3 }, toArray(CborEncoder.encode(obj)));
+	}
+
+	@Test
+	public void testEncodeDoubleArray() {
+		JsonObject obj = Json.createObjectBuilder()
+				.add("d", Json.createArrayBuilder().add(1.5).add(-2.25))
+				.build();
+		ByteBuffer b = CborEncoder.encode(obj);
+		// map header, key, typed array tag, byte string header, 16 bytes
+		assertEquals(1 + 2 + 2 + 1 + 16, b.remaining());
+		assertEquals((byte) 0xd8, b.get(3));
+		assertEquals((byte) 86, b.get(4));
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		String json = "{\"op\":\"publish\",\"topic\":\"/pose\",\"msg\":{"
+				+ "\"position\":{\"x\":1.5,\"y\":-2.25,\"z\":0},"
+				+ "\"covariance\":[0.5,1.5,2.5],\"ids\":[1,2,3],"
+				+ "\"big\":18446744073709551615,\"neg\":-18446744073709551617,"
+				+ "\"name\":\"h\\u00e9llo\",\"empty\":[],\"flag\":false}}";
+		JsonObject obj = Json.createReader(new StringReader(json))
+				.readObject();
+		JsonObject decoded = CborDecoder.decodeObject(CborEncoder.encode(obj));
+		assertEquals(obj, decoded);
+	}
+
+	@Test
+	public void testGrow() throws IOException {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			sb.append("abcdefghij");
+		}
+		JsonObject obj = Json.createObjectBuilder().add("s", sb.toString())
+				.build();
+		assertEquals(obj, CborDecoder.decodeObject(CborEncoder.encode(obj)));
+	}
+
+	@Test
+	public void testGeneratorRoundTrip() throws IOException {
+		String json = "{\"op\":\"publish\",\"topic\":\"/pose\",\"msg\":{"
+				+ "\"position\":{\"x\":1.5,\"y\":-2.25,\"z\":0},"
+				+ "\"covariance\":[0.5,1.5,2.5],\"ids\":[1,2,3],"
+				+ "\"mixed\":[0.5,\"a\",2],\"nested\":[[1.5],[2],{\"a\":null}],"
+				+ "\"big\":18446744073709551615,\"neg\":-18446744073709551617,"
+				+ "\"name\":\"h\\u00e9llo\",\"empty\":[],\"flag\":false}}";
+		CborEncoder encoder = new CborEncoder();
+		replay(json, encoder.createGenerator());
+		assertEquals(Json.createReader(new StringReader(json)).readObject(),
+				CborDecoder.decodeObject(encoder.toByteBuffer()));
+	}
+
+	@Test
+	public void testGeneratorDoubleArray() throws IOException {
+		CborEncoder encoder = new CborEncoder();
+		JsonGenerator generator = encoder.createGenerator();
+		generator.writeStartObject().writeStartArray("d").write(1.5)
+				.write(-2.25).writeEnd().writeEnd().close();
+		ByteBuffer b = encoder.toByteBuffer();
+		// map start, key, typed array tag, byte string header, 16 bytes, break
+		assertEquals(1 + 2 + 2 + 1 + 16 + 1, b.remaining());
+		assertEquals((byte) 0xbf, b.get(0));
+		assertEquals((byte) 0xd8, b.get(3));
+		assertEquals((byte) 86, b.get(4));
+		assertEquals((byte) 0xff, b.get(22));
+		assertEquals(-2.25, CborDecoder.decodeObject(b).getJsonArray("d")
+				.getJsonNumber(1).doubleValue(), 0);
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testGeneratorNaN() {
+		new CborEncoder().createGenerator().writeStartArray()
+				.write(Double.NaN);
+	}
+}
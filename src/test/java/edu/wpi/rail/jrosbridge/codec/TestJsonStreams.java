@@ -0,0 +1,457 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonException;
+import javax.json.JsonObject;
+import javax.json.stream.JsonGenerator;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParsingException;
+
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.messages.geometry.Point;
+
+public class TestJsonStreams {
+
+	private static JsonParser parser(String json) {
+		return JsonStreams.createParser(new StringReader(json));
+	}
+
+	@Test
+	public void testNextField() {
+		JsonParser parser = parser("{\"a\": 1, \"b\": \"x\"}");
+		JsonStreams.beginObject(parser);
+		assertEquals("a", JsonStreams.nextField(parser));
+		assertEquals(1, JsonStreams.readInt(parser));
+		assertEquals("b", JsonStreams.nextField(parser));
+		assertEquals("x", JsonStreams.readString(parser));
+		assertNull(JsonStreams.nextField(parser));
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testReadObjectFromBytes() {
+		byte[] json = "xx{\"a\": [1, \"\u00e9\"]}\n\n".getBytes(StandardCharsets.UTF_8);
+		JsonObject o = JsonStreams.readObject(json, 2, json.length - 2);
+		assertEquals(1, o.getJsonArray("a").getInt(0));
+		assertEquals("\u00e9", o.getJsonArray("a").getString(1));
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testReadObjectFromBytesInvalid() {
+		byte[] json = "{\"a\": ".getBytes(StandardCharsets.UTF_8);
+		JsonStreams.readObject(json, 0, json.length);
+	}
+
+	@Test
+	public void testNextFieldEmpty() {
+		JsonParser parser = parser("{}");
+		JsonStreams.beginObject(parser);
+		assertNull(JsonStreams.nextField(parser));
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testNextFieldNotInObject() {
+		JsonParser parser = parser("[1]");
+		JsonStreams.beginArray(parser);
+		JsonStreams.nextField(parser);
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testBeginObjectArray() {
+		JsonStreams.beginObject(parser("[]"));
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testBeginArrayObject() {
+		JsonStreams.beginArray(parser("{}"));
+	}
+
+	@Test
+	public void testNextElement() {
+		JsonParser parser = parser("[{\"a\": 1}, {}]");
+		JsonStreams.beginArray(parser);
+		assertTrue(JsonStreams.nextElement(parser));
+		assertEquals("a", JsonStreams.nextField(parser));
+		assertEquals(1, JsonStreams.readInt(parser));
+		assertNull(JsonStreams.nextField(parser));
+		assertTrue(JsonStreams.nextElement(parser));
+		assertNull(JsonStreams.nextField(parser));
+		assertFalse(JsonStreams.nextElement(parser));
+		assertFalse(parser.hasNext());
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testNextElementNotObject() {
+		JsonParser parser = parser("[1]");
+		JsonStreams.beginArray(parser);
+		JsonStreams.nextElement(parser);
+	}
+
+	@Test
+	public void testReadBoolean() {
+		JsonParser parser = parser("[true, false]");
+		JsonStreams.beginArray(parser);
+		assertTrue(JsonStreams.readBoolean(parser));
+		assertFalse(JsonStreams.readBoolean(parser));
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testReadBooleanNumber() {
+		JsonParser parser = parser("[1]");
+		JsonStreams.beginArray(parser);
+		JsonStreams.readBoolean(parser);
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testReadStringNumber() {
+		JsonParser parser = parser("[1]");
+		JsonStreams.beginArray(parser);
+		JsonStreams.readString(parser);
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testReadDoubleString() {
+		JsonParser parser = parser("[\"1\"]");
+		JsonStreams.beginArray(parser);
+		JsonStreams.readDouble(parser);
+	}
+
+	@Test
+	public void testReadNumbers() {
+		JsonParser parser = parser("[1.5, -2.25, 3, 4.9, -7, 1e2, 18446744073709551615]");
+		JsonStreams.beginArray(parser);
+		assertEquals(1.5, JsonStreams.readDouble(parser), 0);
+		assertEquals(-2.25f, JsonStreams.readFloat(parser), 0);
+		assertEquals(3L, JsonStreams.readLong(parser));
+		assertEquals(4L, JsonStreams.readLong(parser));
+		assertEquals(-7, JsonStreams.readInt(parser));
+		assertEquals(100.0, JsonStreams.readDouble(parser), 0);
+		assertEquals(new BigInteger("18446744073709551615"),
+				JsonStreams.readBigInteger(parser));
+	}
+
+	@Test
+	public void testReadDoubleArray() {
+		assertArrayEquals(new double[] { 0.5, -1, 2.75 },
+				JsonStreams.readDoubleArray(parser("[0.5, -1, 2.75]")), 0);
+		assertArrayEquals(new double[] {},
+				JsonStreams.readDoubleArray(parser("[]")), 0);
+	}
+
+	@Test
+	public void testReadDoubleArrayGrow() {
+		StringBuilder json = new StringBuilder("[");
+		double[] expected = new double[1000];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = i * 0.5;
+			json.append(i == 0 ? "" : ",").append(expected[i]);
+		}
+		json.append("]");
+		assertArrayEquals(expected,
+				JsonStreams.readDoubleArray(parser(json.toString())), 0);
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testReadDoubleArrayString() {
+		JsonStreams.readDoubleArray(parser("[1, \"2\"]"));
+	}
+
+	@Test
+	public void testReadFloatArray() {
+		assertArrayEquals(new float[] { 0.5f, -1f, 2.75f },
+				JsonStreams.readFloatArray(parser("[0.5, -1, 2.75]")), 0);
+	}
+
+	@Test
+	public void testReadNullableFloatArray() {
+		float[] values = JsonStreams.readNullableFloatArray(parser(
+				"[0.5, null, -1]"));
+		assertEquals(3, values.length);
+		assertEquals(0.5f, values[0], 0);
+		assertTrue(Float.isNaN(values[1]));
+		assertEquals(-1f, values[2], 0);
+		assertEquals(0,
+				JsonStreams.readNullableFloatArray(parser("[]")).length);
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testReadNullableFloatArrayString() {
+		JsonStreams.readNullableFloatArray(parser("[1, \"2\"]"));
+	}
+
+	@Test
+	public void testReadNullableFloatArrayValue() {
+		JsonObject o = Json.createReader(
+				new StringReader("{\"a\": [0.5, null, 2]}")).readObject();
+		float[] values = JsonStreams.readNullableFloatArray(o.get("a"));
+		assertEquals(3, values.length);
+		assertEquals(0.5f, values[0], 0);
+		assertTrue(Float.isNaN(values[1]));
+		assertEquals(2f, values[2], 0);
+		assertEquals(0, JsonStreams.readNullableFloatArray(o.get("b")).length);
+	}
+
+	@Test(expected = JsonException.class)
+	public void testReadNullableFloatArrayValueInvalid() {
+		JsonObject o = Json.createReader(
+				new StringReader("{\"a\": [true]}")).readObject();
+		JsonStreams.readNullableFloatArray(o.get("a"));
+	}
+
+	@Test
+	public void testWriteNullableArray() {
+		StringWriter writer = new StringWriter();
+		JsonGenerator generator = JsonStreams.createGenerator(writer);
+		generator.writeStartObject();
+		JsonStreams.writeNullableArray(generator, "a", new float[] { 0.5f,
+				Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY,
+				-1f });
+		generator.writeEnd();
+		generator.close();
+		assertEquals("{\"a\":[0.5,null,null,null,-1.0]}", writer.toString());
+	}
+
+	@Test
+	public void testReadLongArray() {
+		long[] expected = new long[100];
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = 4294967296L * i;
+			json.append(i == 0 ? "" : ",").append(expected[i]);
+		}
+		json.append("]");
+		assertArrayEquals(expected,
+				JsonStreams.readLongArray(parser(json.toString())));
+	}
+
+	@Test
+	public void testReadIntArray() {
+		assertArrayEquals(new int[] { 1, -2, 3 },
+				JsonStreams.readIntArray(parser("[1, -2, 3]")));
+		assertArrayEquals(new int[] {}, JsonStreams.readIntArray(parser("[]")));
+	}
+
+	@Test
+	public void testReadBigIntegerArray() {
+		assertArrayEquals(new BigInteger[] { BigInteger.ZERO,
+				new BigInteger("18446744073709551615") },
+				JsonStreams.readBigIntegerArray(parser("[0, 18446744073709551615]")));
+	}
+
+	@Test
+	public void testReadShortArray() {
+		assertArrayEquals(new short[] { 1, -2, (short) 65535 },
+				JsonStreams.readShortArray(parser("[1, -2, 65535]")));
+	}
+
+	@Test
+	public void testReadByteArray() {
+		assertArrayEquals(new byte[] { 0, 1, (byte) 255, -1 },
+				JsonStreams.readByteArray(parser("[0, 1, 255, -1]")));
+		assertArrayEquals(new byte[] {},
+				JsonStreams.readByteArray(parser("[]")));
+	}
+
+	@Test
+	public void testReadByteArrayBase64() {
+		JsonParser parser = parser("[\"AAH/\", \"\"]");
+		JsonStreams.beginArray(parser);
+		assertArrayEquals(new byte[] { 0, 1, (byte) 255 },
+				JsonStreams.readByteArray(parser));
+		assertArrayEquals(new byte[] {}, JsonStreams.readByteArray(parser));
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testReadByteArrayInvalidBase64() {
+		JsonParser parser = parser("[\"!!\"]");
+		JsonStreams.beginArray(parser);
+		JsonStreams.readByteArray(parser);
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testReadByteArrayObject() {
+		JsonStreams.readByteArray(parser("{}"));
+	}
+
+	@Test
+	public void testReadBooleanArray() {
+		assertTrue(Arrays.equals(new boolean[] { true, false, true },
+				JsonStreams.readBooleanArray(parser("[true, false, true]"))));
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testReadBooleanArrayNumber() {
+		JsonStreams.readBooleanArray(parser("[true, 1]"));
+	}
+
+	@Test
+	public void testReadStringArray() {
+		assertArrayEquals(new String[] { "a", "", "b" },
+				JsonStreams.readStringArray(parser("[\"a\", \"\", \"b\"]")));
+	}
+
+	private static String write(Object values) {
+		StringWriter writer = new StringWriter();
+		JsonGenerator generator = JsonStreams.createGenerator(writer);
+		generator.writeStartObject();
+		if (values instanceof double[]) {
+			JsonStreams.writeArray(generator, "a", (double[]) values);
+		} else if (values instanceof float[]) {
+			JsonStreams.writeArray(generator, "a", (float[]) values);
+		} else if (values instanceof long[]) {
+			JsonStreams.writeArray(generator, "a", (long[]) values);
+		} else if (values instanceof int[]) {
+			JsonStreams.writeArray(generator, "a", (int[]) values);
+		} else if (values instanceof short[]) {
+			JsonStreams.writeArray(generator, "a", (short[]) values);
+		} else if (values instanceof byte[]) {
+			JsonStreams.writeArray(generator, "a", (byte[]) values);
+		} else if (values instanceof boolean[]) {
+			JsonStreams.writeArray(generator, "a", (boolean[]) values);
+		} else if (values instanceof String[]) {
+			JsonStreams.writeArray(generator, "a", (String[]) values);
+		} else {
+			JsonStreams.writeArray(generator, "a", (Point[]) values);
+		}
+		generator.writeEnd();
+		generator.close();
+		return writer.toString();
+	}
+
+	@Test
+	public void testWriteArray() {
+		assertEquals("{\"a\":[0.5,-1.0]}", write(new double[] { 0.5, -1 }));
+		assertEquals("{\"a\":[0.5]}", write(new float[] { 0.5f }));
+		assertEquals("{\"a\":[-1,4294967296]}",
+				write(new long[] { -1, 4294967296L }));
+		assertEquals("{\"a\":[-1,2]}", write(new int[] { -1, 2 }));
+		assertEquals("{\"a\":[-1]}", write(new short[] { -1 }));
+		assertEquals("{\"a\":[-1]}", write(new byte[] { -1 }));
+		assertEquals("{\"a\":[true,false]}",
+				write(new boolean[] { true, false }));
+		assertEquals("{\"a\":[\"x\"]}", write(new String[] { "x" }));
+		assertEquals("{\"a\":[]}", write(new double[] {}));
+		assertEquals("{\"a\":[" + new Point(1, 2, 3) + "]}",
+				write(new Point[] { new Point(1, 2, 3) }));
+	}
+
+	@Test
+	public void testWriteUnsignedArray() {
+		StringWriter writer = new StringWriter();
+		JsonGenerator generator = JsonStreams.createGenerator(writer);
+		generator.writeStartObject();
+		JsonStreams.writeUnsignedArray(generator, "a", new byte[] { -1, 1 });
+		JsonStreams.writeUnsignedArray(generator, "b", new short[] { -1 });
+		JsonStreams.writeUnsignedArray(generator, "c", new int[] { -1 });
+		JsonStreams.writeUnsignedArray(generator, "d", new long[] { -1, 1 });
+		JsonStreams.writeObject(generator, "e", new Point(1, 2, 3));
+		generator.writeEnd();
+		generator.close();
+		assertEquals("{\"a\":[255,1],\"b\":[65535],\"c\":[4294967295],"
+				+ "\"d\":[18446744073709551615,1],\"e\":"
+				+ new Point(1, 2, 3) + "}", writer.toString());
+	}
+
+	@Test
+	public void testWriteBinary() {
+		StringWriter writer = new StringWriter();
+		JsonGenerator generator = JsonStreams.createGenerator(writer);
+		generator.writeStartObject();
+		JsonStreams.writeBinary(generator, "a", new byte[] { 0, 1, -1 });
+		JsonStreams.writeBinary(generator, "b", new byte[0]);
+		generator.writeEnd();
+		generator.close();
+		assertEquals("{\"a\":\"AAH/\",\"b\":\"\"}", writer.toString());
+	}
+
+	@Test
+	public void testWriteBinaryBuffer() {
+		ByteBuffer values = ByteBuffer.wrap(new byte[] { 5, 0, 1, -1 });
+		values.position(1);
+		StringWriter writer = new StringWriter();
+		JsonGenerator generator = JsonStreams.createGenerator(writer);
+		generator.writeStartObject();
+		JsonStreams.writeBinary(generator, "a", values);
+		JsonStreams.writeBinary(generator, "b", values.asReadOnlyBuffer());
+		JsonStreams.writeBinary(generator, "c", ByteBuffer.allocate(0));
+		generator.writeEnd();
+		generator.close();
+		assertEquals("{\"a\":\"AAH/\",\"b\":\"AAH/\",\"c\":\"\"}",
+				writer.toString());
+		assertEquals(1, values.position());
+	}
+
+	@Test
+	public void testReadByteArrayValue() {
+		JsonObject o = Json.createReader(
+				new StringReader("{\"a\": \"AAH/\", \"b\": [0, 1, 255, -1]}"))
+				.readObject();
+		assertArrayEquals(new byte[] { 0, 1, -1 },
+				JsonStreams.readByteArray(o.get("a")));
+		assertArrayEquals(new byte[] { 0, 1, -1, -1 },
+				JsonStreams.readByteArray(o.get("b")));
+		assertEquals(0, JsonStreams.readByteArray(o.get("c")).length);
+	}
+
+	@Test
+	public void testReadByteArrayValueInvalid() {
+		String[] invalid = new String[] { "\"*\"", "1", "[\"a\"]", "{}" };
+		for (String json : invalid) {
+			try {
+				JsonStreams.readByteArray(Json
+						.createReader(new StringReader("[" + json + "]"))
+						.readArray().get(0));
+				fail(json);
+			} catch (JsonException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testSkipValue() {
+		JsonParser parser = parser("{\"a\": {\"b\": [1, [2, {\"c\": 3}]]}, \"d\": 4, \"e\": \"x\"}");
+		JsonStreams.beginObject(parser);
+		assertEquals("a", JsonStreams.nextField(parser));
+		JsonStreams.skipValue(parser);
+		assertEquals("d", JsonStreams.nextField(parser));
+		JsonStreams.skipValue(parser);
+		assertEquals("e", JsonStreams.nextField(parser));
+		assertEquals("x", JsonStreams.readString(parser));
+		assertNull(JsonStreams.nextField(parser));
+	}
+
+	@Test
+	public void testReadObject() {
+		String json = "{\"a\":1,\"b\":[true,false,null,\"x\",{\"c\":1.5}],\"d\":{},\"e\":18446744073709551615}";
+		JsonObject expected = Json.createReader(new StringReader(json))
+				.readObject();
+		JsonParser parser = parser(json);
+		JsonStreams.beginObject(parser);
+		JsonObject actual = JsonStreams.readObject(parser);
+		assertEquals(expected, actual);
+		assertEquals(expected.toString(), actual.toString());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testReadArray() {
+		String json = "[1,[2,[]],{\"a\":null}]";
+		JsonArray expected = Json.createReader(new StringReader(json))
+				.readArray();
+		JsonParser parser = parser(json);
+		JsonStreams.beginArray(parser);
+		assertEquals(expected, JsonStreams.readArray(parser));
+	}
+}
@@ -0,0 +1,361 @@
+package edu.wpi.rail.jrosbridge.codec;
+
+import static org.junit.Assert.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+
+public class TestPngDecoder {
+
+	/**
+	 * Build a PNG image the way rosbridge does: the samples of an RGB image
+	 * hold the text, padded with newlines.
+	 */
+	private static byte[] encode(String text) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		int width = (int) Math.floor(Math.sqrt(bytes.length / 3.0));
+		int height = (int) Math.ceil((bytes.length / 3.0) / width);
+		byte[] samples = Arrays.copyOf(bytes, width * height * 3);
+		Arrays.fill(samples, bytes.length, samples.length, (byte) '\n');
+		BufferedImage image = new BufferedImage(width, height,
+				BufferedImage.TYPE_INT_RGB);
+		for (int i = 0; i < width * height; i++) {
+			image.setRGB(i % width, i / width, ((samples[3 * i] & 0xff) << 16)
+					| ((samples[3 * i + 1] & 0xff) << 8)
+					| (samples[3 * i + 2] & 0xff));
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Build a PNG image by hand, filtering each row with the given filter
+	 * type and splitting the image data over several chunks.
+	 */
+	private static byte[] encode(byte[] samples, int width, int height,
+			int color, int channels, int[] filters) throws IOException {
+		int stride = width * channels;
+		byte[] raw = new byte[height * (stride + 1)];
+		for (int y = 0; y < height; y++) {
+			int filter = filters[y % filters.length];
+			raw[y * (stride + 1)] = (byte) filter;
+			for (int x = 0; x < stride; x++) {
+				int s = samples[y * stride + x] & 0xff;
+				int a = x < channels ? 0 : samples[y * stride + x - channels] & 0xff;
+				int b = y == 0 ? 0 : samples[(y - 1) * stride + x] & 0xff;
+				int c = x < channels || y == 0 ? 0 : samples[(y - 1) * stride
+						+ x - channels] & 0xff;
+				int p;
+				if (filter == 1) {
+					p = a;
+				} else if (filter == 2) {
+					p = b;
+				} else if (filter == 3) {
+					p = (a + b) / 2;
+				} else if (filter == 4) {
+					int e = a + b - c;
+					int pa = Math.abs(e - a), pb = Math.abs(e - b), pc = Math
+							.abs(e - c);
+					p = pa <= pb && pa <= pc ? a : (pb <= pc ? b : c);
+				} else {
+					p = 0;
+				}
+				raw[y * (stride + 1) + 1 + x] = (byte) (s - p);
+			}
+		}
+		Deflater deflater = new Deflater();
+		deflater.setInput(raw);
+		deflater.finish();
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		byte[] buffer = new byte[1024];
+		while (!deflater.finished()) {
+			compressed.write(buffer, 0, deflater.deflate(buffer));
+		}
+		byte[] data = compressed.toByteArray();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(new byte[] { (byte) 137, 80, 78, 71, 13, 10, 26, 10 });
+		ByteArrayOutputStream ihdr = new ByteArrayOutputStream();
+		writeInt(ihdr, width);
+		writeInt(ihdr, height);
+		ihdr.write(new byte[] { 8, (byte) color, 0, 0, 0 });
+		chunk(out, "IHDR", ihdr.toByteArray());
+		int half = data.length / 2;
+		chunk(out, "IDAT", Arrays.copyOfRange(data, 0, half));
+		chunk(out, "tEXt", "Comment\0test".getBytes(StandardCharsets.UTF_8));
+		chunk(out, "IDAT", Arrays.copyOfRange(data, half, data.length));
+		chunk(out, "IEND", new byte[0]);
+		return out.toByteArray();
+	}
+
+	private static void chunk(ByteArrayOutputStream out, String type,
+			byte[] data) throws IOException {
+		writeInt(out, data.length);
+		byte[] t = type.getBytes(StandardCharsets.US_ASCII);
+		out.write(t);
+		out.write(data);
+		CRC32 crc = new CRC32();
+		crc.update(t);
+		crc.update(data);
+		writeInt(out, (int) crc.getValue());
+	}
+
+	private static void writeInt(ByteArrayOutputStream out, int value) {
+		out.write(value >>> 24);
+		out.write(value >>> 16);
+		out.write(value >>> 8);
+		out.write(value);
+	}
+
+	private static byte[] random(int n, long seed) {
+		byte[] b = new byte[n];
+		new Random(seed).nextBytes(b);
+		return b;
+	}
+
+	private static String text(PngDecoder d) {
+		return new String(d.getBuffer(), 0, d.getLength(),
+				StandardCharsets.UTF_8);
+	}
+
+	@Test
+	public void testConstructor() {
+		PngDecoder d = new PngDecoder();
+		assertEquals(0, d.getWidth());
+		assertEquals(0, d.getHeight());
+		assertEquals(0, d.getChannels());
+		assertEquals(0, d.getLength());
+		assertEquals(0, d.getBuffer().length);
+	}
+
+	@Test
+	public void testDecodeRosbridgeImage() throws IOException {
+		String json = "{\"op\":\"publish\",\"topic\":\"/map\",\"msg\":{\"data\":[0,100,-1]}}";
+		PngDecoder d = new PngDecoder();
+		int n = d.decode(encode(json));
+		assertEquals(n, d.getLength());
+		assertEquals(d.getWidth() * d.getHeight() * 3, n);
+		assertEquals(3, d.getChannels());
+		assertEquals(json, text(d).trim());
+		assertTrue(text(d).startsWith(json));
+	}
+
+	@Test
+	public void testDecodeBase64() throws IOException {
+		PngDecoder d = new PngDecoder();
+		for (int length = 30; length < 40; length++) {
+			char[] chars = new char[length];
+			Arrays.fill(chars, 'x');
+			String text = "\"" + new String(chars) + "\"";
+			String data = Base64.getEncoder().encodeToString(encode(text));
+			d.decodeBase64(data);
+			assertEquals(text, text(d).trim());
+		}
+	}
+
+	@Test
+	public void testDecodeBase64Unpadded() throws IOException {
+		byte[] png = encode("[1,2,3,4,5,6,7,8,9,10,11,12]");
+		for (int i = 0; i < 3; i++) {
+			byte[] b = Arrays.copyOf(png, png.length + i);
+			String data = Base64.getEncoder().withoutPadding()
+					.encodeToString(b);
+			PngDecoder d = new PngDecoder();
+			d.decodeBase64(data);
+			assertEquals("[1,2,3,4,5,6,7,8,9,10,11,12]", text(d).trim());
+		}
+	}
+
+	@Test
+	public void testDecodeEachFilter() throws IOException {
+		PngDecoder d = new PngDecoder();
+		for (int filter = 0; filter <= 4; filter++) {
+			byte[] samples = random(17 * 9 * 3, filter);
+			d.decode(encode(samples, 17, 9, PngDecoder.COLOR_RGB, 3,
+					new int[] { filter }));
+			assertEquals(17, d.getWidth());
+			assertEquals(9, d.getHeight());
+			assertArrayEquals(samples,
+					Arrays.copyOf(d.getBuffer(), d.getLength()));
+		}
+	}
+
+	@Test
+	public void testDecodeMixedFilters() throws IOException {
+		byte[] samples = random(33 * 20 * 4, 42);
+		PngDecoder d = new PngDecoder();
+		d.decode(encode(samples, 33, 20, PngDecoder.COLOR_RGBA, 4, new int[] {
+				4, 2, 3, 1, 0, 2, 4 }));
+		assertEquals(4, d.getChannels());
+		assertArrayEquals(samples, Arrays.copyOf(d.getBuffer(), d.getLength()));
+	}
+
+	@Test
+	public void testDecodeColorTypes() throws IOException {
+		int[][] types = new int[][] { { PngDecoder.COLOR_GRAYSCALE, 1 },
+				{ PngDecoder.COLOR_PALETTE, 1 },
+				{ PngDecoder.COLOR_GRAYSCALE_ALPHA, 2 },
+				{ PngDecoder.COLOR_RGB, 3 }, { PngDecoder.COLOR_RGBA, 4 } };
+		PngDecoder d = new PngDecoder();
+		for (int[] type : types) {
+			byte[] samples = random(5 * 7 * type[1], type[0]);
+			d.decode(encode(samples, 5, 7, type[0], type[1], new int[] { 4, 1 }));
+			assertEquals(type[1], d.getChannels());
+			assertArrayEquals(samples,
+					Arrays.copyOf(d.getBuffer(), d.getLength()));
+		}
+	}
+
+	@Test
+	public void testDecodeMatchesImageIO() throws IOException {
+		// a noisy gradient, so the writer picks a variety of filters
+		BufferedImage image = new BufferedImage(64, 48,
+				BufferedImage.TYPE_3BYTE_BGR);
+		Random random = new Random(7);
+		for (int y = 0; y < 48; y++) {
+			for (int x = 0; x < 64; x++) {
+				image.setRGB(x, y, ((x * 4) << 16) | ((y * 5) << 8)
+						| random.nextInt(256));
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+
+		PngDecoder d = new PngDecoder();
+		d.decode(out.toByteArray());
+		int[] pixels = ImageIO.read(
+				new java.io.ByteArrayInputStream(out.toByteArray()))
+				.getRaster().getPixels(0, 0, 64, 48, (int[]) null);
+		assertEquals(pixels.length, d.getLength());
+		for (int i = 0; i < pixels.length; i++) {
+			assertEquals(pixels[i], d.getBuffer()[i] & 0xff);
+		}
+	}
+
+	@Test
+	public void testDecodeReusesBuffer() throws IOException {
+		PngDecoder d = new PngDecoder();
+		d.decode(encode(random(40 * 40 * 3, 1), 40, 40,
+				PngDecoder.COLOR_RGB, 3, new int[] { 0 }));
+		byte[] buffer = d.getBuffer();
+		byte[] samples = random(10 * 10 * 3, 2);
+		d.decode(encode(samples, 10, 10, PngDecoder.COLOR_RGB, 3,
+				new int[] { 2 }));
+		assertSame(buffer, d.getBuffer());
+		assertEquals(300, d.getLength());
+		assertArrayEquals(samples, Arrays.copyOf(d.getBuffer(), 300));
+	}
+
+	@Test
+	public void testDecodeOffset() throws IOException {
+		byte[] png = encode("{\"a\":1}");
+		byte[] b = new byte[png.length + 10];
+		System.arraycopy(png, 0, b, 5, png.length);
+		PngDecoder d = new PngDecoder();
+		d.decode(b, 5, png.length);
+		assertEquals("{\"a\":1}", text(d).trim());
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeNotPng() throws IOException {
+		new PngDecoder().decode("not a png image".getBytes());
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeTooShort() throws IOException {
+		new PngDecoder().decode(new byte[] { (byte) 137, 80 });
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeTruncated() throws IOException {
+		byte[] png = encode("{\"a\":1}");
+		new PngDecoder().decode(Arrays.copyOf(png, png.length - 20));
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeInvalidFilter() throws IOException {
+		new PngDecoder().decode(encode(random(12, 3), 2, 2,
+				PngDecoder.COLOR_RGB, 3, new int[] { 5 }));
+	}
+
+	@Test(expected = IOException.class)
+	public void testDecodeInvalidData() throws IOException {
+		byte[] png = encode(random(300, 4), 10, 10, PngDecoder.COLOR_RGB, 3,
+				new int[] { 0 });
+		// corrupt the start of the image data
+		for (int i = 41; i < 50; i++) {
+			png[i] = (byte) 0xff;
+		}
+		new PngDecoder().decode(png);
+	}
+
+	@Test
+	public void testDecodeUnsupported() throws IOException {
+		byte[] png = encode(random(12, 5), 2, 2, PngDecoder.COLOR_RGB, 3,
+				new int[] { 0 });
+		// bit depth, color type, and interlace method of the header
+		int[][] changes = new int[][] { { 24, 16 }, { 25, 5 }, { 28, 1 } };
+		for (int[] change : changes) {
+			byte[] b = png.clone();
+			b[change[0]] = (byte) change[1];
+			try {
+				new PngDecoder().decode(b);
+				fail();
+			} catch (IOException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testDecodeTooLarge() throws IOException {
+		byte[] png = encode(random(12, 6), 2, 2, PngDecoder.COLOR_RGB, 3,
+				new int[] { 0 });
+		// more samples than accepted at all, and more than the image data
+		// could inflate to
+		int[] sizes = new int[] { 40000, 1000 };
+		for (int size : sizes) {
+			byte[] b = png.clone();
+			for (int i = 0; i < 2; i++) {
+				int pos = 16 + 4 * i;
+				b[pos] = (byte) (size >>> 24);
+				b[pos + 1] = (byte) (size >>> 16);
+				b[pos + 2] = (byte) (size >>> 8);
+				b[pos + 3] = (byte) size;
+			}
+			PngDecoder d = new PngDecoder();
+			try {
+				d.decode(b);
+				fail();
+			} catch (IOException e) {
+				// rejected before anything was allocated
+				assertEquals(0, d.getBuffer().length);
+			}
+		}
+	}
+
+	@Test
+	public void testDecodeBase64Invalid() {
+		String[] invalid = new String[] { "iVBO*w0K", "iVBORw0KG" };
+		for (String data : invalid) {
+			try {
+				new PngDecoder().decodeBase64(data);
+				fail(data);
+			} catch (IOException e) {
+				// expected
+			}
+		}
+	}
+}
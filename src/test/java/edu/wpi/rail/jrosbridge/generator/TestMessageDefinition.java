@@ -0,0 +1,85 @@
+package edu.wpi.rail.jrosbridge.generator;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class TestMessageDefinition {
+
+	@Test
+	public void testParse() {
+		MessageDefinition d = MessageDefinition.parse("my_msgs", "Foo",
+				"# a comment\n\nHeader header\r\n"
+						+ "float64[] data  # trailing comment\n"
+						+ "geometry_msgs/Point[4]\tcorners\n"
+						+ "uint8 ACTIVE = 1 # constant\n"
+						+ "string NAME=a # b\n" + "  int32 count\n");
+		assertEquals("my_msgs", d.getPackage());
+		assertEquals("Foo", d.getName());
+		assertEquals("my_msgs/Foo", d.getType());
+
+		List<MessageField> fields = d.getFields();
+		assertEquals(4, fields.size());
+		assertEquals("Header", fields.get(0).getType());
+		assertEquals("header", fields.get(0).getName());
+		assertFalse(fields.get(0).isArray());
+		assertEquals("float64", fields.get(1).getType());
+		assertEquals(MessageField.VARIABLE_LENGTH, fields.get(1)
+				.getArrayLength());
+		assertEquals("geometry_msgs/Point", fields.get(2).getType());
+		assertEquals("corners", fields.get(2).getName());
+		assertEquals(4, fields.get(2).getArrayLength());
+		assertEquals("count", fields.get(3).getName());
+
+		List<MessageField> constants = d.getConstants();
+		assertEquals(2, constants.size());
+		assertEquals("ACTIVE", constants.get(0).getName());
+		assertEquals("1", constants.get(0).getValue());
+		assertEquals("NAME", constants.get(1).getName());
+		assertEquals("a # b", constants.get(1).getValue());
+	}
+
+	@Test
+	public void testParseEmpty() {
+		MessageDefinition d = MessageDefinition.parse("std_msgs", "Empty", "");
+		assertTrue(d.getFields().isEmpty());
+		assertTrue(d.getConstants().isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseMissingName() {
+		MessageDefinition.parse("my_msgs", "Foo", "float64");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseInvalidType() {
+		MessageDefinition.parse("my_msgs", "Foo", "float64[x] data");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseInvalidName() {
+		MessageDefinition.parse("my_msgs", "Foo", "float64 a b");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseArrayConstant() {
+		MessageDefinition.parse("my_msgs", "Foo", "int32[] A=1");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseMessageConstant() {
+		MessageDefinition.parse("my_msgs", "Foo", "time A=1");
+	}
+
+	@Test
+	public void testParseErrorLine() {
+		try {
+			MessageDefinition.parse("my_msgs", "Foo", "int32 a\n\nbad");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().startsWith("my_msgs/Foo line 3: "));
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package edu.wpi.rail.jrosbridge.generator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestMessageField {
+
+	@Test
+	public void testField() {
+		MessageField f = new MessageField("float64", 3, "data", null);
+		assertEquals("float64", f.getType());
+		assertTrue(f.isArray());
+		assertEquals(3, f.getArrayLength());
+		assertEquals("data", f.getName());
+		assertFalse(f.isConstant());
+		assertNull(f.getValue());
+	}
+
+	@Test
+	public void testNotAnArray() {
+		MessageField f = new MessageField("geometry_msgs/Point", -1, "p", null);
+		assertFalse(f.isArray());
+		assertEquals(MessageField.NOT_AN_ARRAY, f.getArrayLength());
+		assertTrue(new MessageField("int8", MessageField.VARIABLE_LENGTH, "a",
+				null).isArray());
+	}
+
+	@Test
+	public void testConstant() {
+		MessageField f = new MessageField("uint8", -1, "ACTIVE", "1");
+		assertTrue(f.isConstant());
+		assertEquals("1", f.getValue());
+	}
+}
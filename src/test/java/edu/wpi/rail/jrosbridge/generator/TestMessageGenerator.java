@@ -0,0 +1,361 @@
+package edu.wpi.rail.jrosbridge.generator;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoder;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.geometry.Point;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+import edu.wpi.rail.jrosbridge.services.ServiceRequest;
+import edu.wpi.rail.jrosbridge.services.ServiceResponse;
+
+public class TestMessageGenerator {
+
+	private static final String BASE = "com.example.msgs";
+
+	private static List<File> written;
+	private static ClassLoader loader;
+
+	private static File location(Class<?> c) throws URISyntaxException {
+		return new File(c.getProtectionDomain().getCodeSource().getLocation()
+				.toURI());
+	}
+
+	@BeforeClass
+	public static void generate() throws IOException, URISyntaxException {
+		File dir = Files.createTempDirectory("generated").toFile();
+		File pkg = new File(TestMessageGenerator.class.getResource(
+				"/generator/test_msgs").toURI());
+		written = new MessageGenerator(BASE).generate(pkg, dir);
+
+		// compile against this library
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		List<String> args = new ArrayList<String>();
+		args.add("-classpath");
+		args.add(location(Message.class) + File.pathSeparator
+				+ location(JsonParser.class));
+		args.add("-d");
+		args.add(dir.getPath());
+		for (File f : written) {
+			args.add(f.getPath());
+		}
+		assertEquals(0, compiler.run(null, null, null,
+				args.toArray(new String[args.size()])));
+		loader = new URLClassLoader(new URL[] { dir.toURI().toURL() },
+				TestMessageGenerator.class.getClassLoader());
+	}
+
+	private static Class<?> load(String name) throws ClassNotFoundException {
+		return Class.forName(BASE + ".test_msgs." + name, true, loader);
+	}
+
+	private static Object call(Object o, String method) throws Exception {
+		return o.getClass().getMethod(method).invoke(o);
+	}
+
+	private static Object fromJsonString(Class<?> c, String json)
+			throws Exception {
+		return c.getMethod("fromJsonString", String.class).invoke(null, json);
+	}
+
+	@Test
+	public void testGenerate() {
+		assertEquals(4, written.size());
+		assertEquals("Everything.java", written.get(0).getName());
+		assertEquals("Nested.java", written.get(1).getName());
+		assertEquals("AddTwoInts.java", written.get(2).getName());
+		assertEquals("Trigger.java", written.get(3).getName());
+		assertTrue(written.get(0).getPath().replace(File.separatorChar, '/')
+				.endsWith("com/example/msgs/test_msgs/Everything.java"));
+	}
+
+	@Test
+	public void testGetJavaClass() {
+		MessageGenerator g = new MessageGenerator(BASE);
+		assertEquals(BASE, g.getBasePackage());
+		assertEquals(BASE + ".my_msgs", g.getJavaPackage("my_msgs"));
+		assertEquals(Header.class.getName(), g.getJavaClass("Header", "my_msgs"));
+		assertEquals(Header.class.getName(),
+				g.getJavaClass("std_msgs/Header", "my_msgs"));
+		assertEquals(Point.class.getName(),
+				g.getJavaClass("geometry_msgs/Point", "my_msgs"));
+		assertEquals(Time.class.getName(), g.getJavaClass("time", "my_msgs"));
+		assertEquals(edu.wpi.rail.jrosbridge.primitives.Duration.class
+				.getName(), g.getJavaClass("duration", "my_msgs"));
+		assertEquals(BASE + ".my_msgs.Foo", g.getJavaClass("Foo", "my_msgs"));
+		assertEquals(BASE + ".other_msgs.Foo",
+				g.getJavaClass("other_msgs/Foo", "my_msgs"));
+		assertEquals(BASE + ".geometry_msgs.Unknown",
+				g.getJavaClass("geometry_msgs/Unknown", "my_msgs"));
+	}
+
+	@Test
+	public void testGenerateMessageSource() {
+		MessageGenerator g = new MessageGenerator(BASE);
+		String src = g.generateMessage(MessageDefinition.parse("my_msgs",
+				"Message", "float64 x"));
+		assertTrue(src.startsWith("package com.example.msgs.my_msgs;\n"));
+		// the class' own name is not imported
+		assertFalse(src.contains("import edu.wpi.rail.jrosbridge.messages.Message;"));
+		assertTrue(src.contains("public class Message extends edu.wpi.rail.jrosbridge.messages.Message {"));
+		assertTrue(src.contains("import java.io.StringReader;\n\nimport javax.json.JsonObject;"));
+	}
+
+	@Test
+	public void testLiteral() {
+		assertEquals("(byte) 200", MessageGenerator.literal(new MessageField(
+				"uint8", -1, "A", "200")));
+		assertEquals("(short) -3", MessageGenerator.literal(new MessageField(
+				"int16", -1, "A", "-3")));
+		assertEquals("7", MessageGenerator.literal(new MessageField("int32",
+				-1, "A", "7")));
+		assertEquals("(int) 4000000000L", MessageGenerator
+				.literal(new MessageField("uint32", -1, "A", "4000000000")));
+		assertEquals("5L", MessageGenerator.literal(new MessageField("int64",
+				-1, "A", "5")));
+		assertEquals("0xffffffffffffffffL", MessageGenerator
+				.literal(new MessageField("uint64", -1, "A",
+						"18446744073709551615")));
+		assertEquals("0.5f", MessageGenerator.literal(new MessageField(
+				"float32", -1, "A", ".5")));
+		assertEquals("2.0", MessageGenerator.literal(new MessageField(
+				"float64", -1, "A", "2")));
+		assertEquals("Double.NaN", MessageGenerator.literal(new MessageField(
+				"float64", -1, "A", "NaN")));
+		assertEquals("true", MessageGenerator.literal(new MessageField("bool",
+				-1, "A", "True")));
+		assertEquals("false", MessageGenerator.literal(new MessageField(
+				"bool", -1, "A", "0")));
+		assertEquals("\"a \\\"b\\\" \\\\ \\u00e9\"", MessageGenerator
+				.literal(new MessageField("string", -1, "A",
+						"a \"b\" \\ \u00e9")));
+	}
+
+	@Test(expected = NumberFormatException.class)
+	public void testLiteralInvalid() {
+		MessageGenerator.literal(new MessageField("int32", -1, "A", "x"));
+	}
+
+	@Test
+	public void testConstants() throws Exception {
+		Class<?> c = load("Everything");
+		assertEquals("test_msgs/Everything", c.getField("TYPE").get(null));
+		assertEquals("seq_num", c.getField("FIELD_SEQ_NUM").get(null));
+		assertEquals((byte) 1, c.getField("LOW").get(null));
+		assertEquals((byte) 200, c.getField("HIGH").get(null));
+		assertEquals(-5, c.getField("NEGATIVE").get(null));
+		assertEquals((int) 4000000000L, c.getField("BIG").get(null));
+		assertEquals(-1L, c.getField("HUGE").get(null));
+		assertEquals(0.5f, c.getField("HALF").get(null));
+		assertEquals(6.28, c.getField("TAU").get(null));
+		assertEquals(true, c.getField("ON").get(null));
+		assertEquals("a \"quoted\" # name", c.getField("NAME").get(null));
+	}
+
+	@Test
+	public void testDefaults() throws Exception {
+		Object e = load("Everything").newInstance();
+		assertTrue(e instanceof Message);
+		assertEquals("test_msgs/Everything", ((Message) e).getMessageType());
+		assertEquals(new Header(), call(e, "getHeader"));
+		assertEquals(0.0, call(e, "getValue"));
+		assertEquals("", call(e, "getLabel"));
+		assertEquals(3, ((float[]) call(e, "getRgb")).length);
+		assertEquals(0, ((double[]) call(e, "getSamples")).length);
+		assertEquals(2, ((Object[]) call(e, "getPair")).length);
+		assertNotNull(((Object[]) call(e, "getPair"))[1]);
+		assertEquals(0, call(e, "getClass_"));
+
+		// the JSON has every field
+		JsonObject json = ((Message) e).toJsonObject();
+		assertEquals(32, json.size());
+		assertEquals("", json.getString("data"));
+		assertEquals(3, json.getJsonArray("rgb").size());
+		assertEquals(0, json.getJsonObject("stamp").getInt("secs"));
+		assertEquals("", json.getJsonObject("nested").getString("name"));
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		String json = "{\"header\": {\"seq\": 4294967295, \"stamp\": {\"secs\": 1, \"nsecs\": 2}, \"frame_id\": \"map\"},"
+				+ "\"flag\": true, \"small\": -3, \"level\": 255, \"medium\": -300, \"port\": 65535,"
+				+ "\"count\": -7, \"seq_num\": 4000000000, \"offset\": -9, \"total\": 18446744073709551615,"
+				+ "\"ratio\": 0.25, \"value\": 1.5, \"label\": \"x\", \"stamp\": {\"secs\": 3, \"nsecs\": 4},"
+				+ "\"timeout\": {\"secs\": 5, \"nsecs\": 6}, \"position\": {\"x\": 1.0, \"y\": 2.0, \"z\": 3.0},"
+				+ "\"nested\": {\"name\": \"n\", \"values\": [1.0, 2.0]}, \"samples\": [0.5, -0.5],"
+				+ "\"rgb\": [1.0, 0.5, 0.0], \"data\": \"AAH/\", \"signed_data\": [-1, 2], \"ports\": [65535, 1],"
+				+ "\"counts\": [1, -2], \"ids\": [4294967295], \"offsets\": [-1], \"totals\": [18446744073709551615, 1],"
+				+ "\"flags\": [true, false], \"names\": [\"a\", \"b\"], \"stamps\": [{\"secs\": 7, \"nsecs\": 8}],"
+				+ "\"points\": [{\"x\": 4.0, \"y\": 5.0, \"z\": 6.0}], \"pair\": [{\"name\": \"p\", \"values\": []}],"
+				+ "\"class\": 9, \"unknown\": {\"a\": [1]}}";
+		Class<?> c = load("Everything");
+		Object e = fromJsonString(c, json);
+
+		assertEquals("map", ((Header) call(e, "getHeader")).getFrameID());
+		assertEquals(-1, ((Header) call(e, "getHeader")).getSeq());
+		assertEquals(true, call(e, "getFlag"));
+		assertEquals((byte) -3, call(e, "getSmall"));
+		assertEquals((byte) -1, call(e, "getLevel"));
+		assertEquals((short) -1, call(e, "getPort"));
+		assertEquals((int) 4000000000L, call(e, "getSeqNum"));
+		assertEquals(-1L, call(e, "getTotal"));
+		assertEquals(0.25f, call(e, "getRatio"));
+		assertEquals(new Time(3, 4), call(e, "getStamp"));
+		assertEquals(new Point(1, 2, 3), call(e, "getPosition"));
+		assertEquals("n", call(call(e, "getNested"), "getName"));
+		assertArrayEquals(new byte[] { 0, 1, -1 }, (byte[]) call(e, "getData"));
+		assertArrayEquals(new byte[] { -1, 2 },
+				(byte[]) call(e, "getSignedData"));
+		assertArrayEquals(new long[] { -1, 1 }, (long[]) call(e, "getTotals"));
+		assertArrayEquals(new String[] { "a", "b" },
+				(String[]) call(e, "getNames"));
+		assertArrayEquals(new Point[] { new Point(4, 5, 6) },
+				(Point[]) call(e, "getPoints"));
+		assertEquals(1, ((Object[]) call(e, "getPair")).length);
+		assertEquals(9, call(e, "getClass_"));
+
+		// written back with unsigned values and uint8[] as base64
+		JsonObject expected = Json.createReader(new StringReader(json))
+				.readObject();
+		JsonObject actual = ((Message) e).toJsonObject();
+		for (String field : expected.keySet()) {
+			if (field.equals("unknown")) {
+				assertFalse(actual.containsKey(field));
+			} else {
+				assertEquals(field, Json.createReader(
+						new StringReader("[" + expected.get(field) + "]"))
+						.readArray(), Json.createReader(
+						new StringReader("[" + actual.get(field) + "]"))
+						.readArray());
+			}
+		}
+
+		// and read again
+		Object again = fromJsonString(c, e.toString());
+		assertEquals(e.toString(), again.toString());
+		assertEquals(e, again);
+	}
+
+	@Test
+	public void testFromMessage() throws Exception {
+		Class<?> c = load("Nested");
+		Object n = c.getMethod("fromMessage", Message.class).invoke(null,
+				new Message("{\"name\": \"a\", \"values\": [1, 2.5]}"));
+		assertEquals("a", call(n, "getName"));
+		assertArrayEquals(new double[] { 1, 2.5 },
+				(double[]) call(n, "getValues"), 0);
+		assertEquals("{\"name\":\"a\",\"values\":[1.0,2.5]}", n.toString());
+
+		Object clone = call(n, "clone");
+		assertNotSame(n, clone);
+		assertNotSame(call(n, "getValues"), call(clone, "getValues"));
+		assertEquals(n, clone);
+	}
+
+	@Test
+	public void testDecoderRegistered() throws Exception {
+		@SuppressWarnings("unchecked")
+		Class<Message> c = (Class<Message>) Class.forName(BASE
+				+ ".test_msgs.Nested", false, loader);
+		// initialized on the first lookup
+		MessageDecoder<Message> decoder = MessageDecoders.get(c);
+		assertNotNull(decoder);
+		assertSame(c.getField("DECODER").get(null), decoder);
+		Message m = MessageDecoders.decodeMessage(c,
+				"{\"op\": \"publish\", \"msg\": {\"name\": \"b\"}}");
+		assertEquals("b", call(m, "getName"));
+	}
+
+	@Test
+	public void testService() throws Exception {
+		Class<?> c = load("AddTwoInts");
+		assertEquals("test_msgs/AddTwoInts", c.getField("TYPE").get(null));
+		Class<?> req = load("AddTwoInts$Request");
+		Class<?> res = load("AddTwoInts$Response");
+
+		Object r = req.getConstructor(long.class, long.class).newInstance(1L,
+				2L);
+		assertTrue(r instanceof ServiceRequest);
+		assertEquals("test_msgs/AddTwoInts",
+				((ServiceRequest) r).getServiceRequestType());
+		assertEquals("{\"a\":1,\"b\":2}", r.toString());
+		Object r2 = req.getMethod("fromServiceRequest", ServiceRequest.class)
+				.invoke(null, new ServiceRequest("{\"a\": 3}"));
+		assertEquals(3L, call(r2, "getA"));
+		assertEquals(0L, call(r2, "getB"));
+
+		Object s = res.getConstructor(long.class).newInstance(3L);
+		assertTrue(((ServiceResponse) s).getResult());
+		assertEquals("{\"sum\":3}", s.toString());
+		Object failed = res.getMethod("fromServiceResponse",
+				ServiceResponse.class).invoke(null,
+				new ServiceResponse("{\"sum\": 4}", false));
+		assertEquals(4L, call(failed, "getSum"));
+		assertFalse(((ServiceResponse) failed).getResult());
+		assertFalse(((ServiceResponse) call(failed, "clone")).getResult());
+	}
+
+	@Test
+	public void testServiceEmptyRequest() throws Exception {
+		Object r = load("Trigger$Request").newInstance();
+		assertEquals("{}", r.toString());
+		Object s = load("Trigger$Response").getMethod("fromJsonString",
+				String.class).invoke(null,
+				"{\"success\": true, \"message\": \"ok\"}");
+		assertEquals(true, call(s, "getSuccess"));
+		assertEquals("ok", call(s, "getMessage"));
+		assertTrue(((ServiceResponse) s).getResult());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMainUsage() throws IOException {
+		MessageGenerator.main(new String[] { "-o", "out" });
+	}
+
+	@Test
+	public void testMain() throws Exception {
+		File dir = Files.createTempDirectory("generated").toFile();
+		File pkg = new File(TestMessageGenerator.class.getResource(
+				"/generator/test_msgs").toURI());
+		MessageGenerator.main(new String[] { "-p", "a.b", "-o", dir.getPath(),
+				pkg.getPath() });
+		assertTrue(new File(dir, "a/b/test_msgs/Nested.java").isFile());
+		assertTrue(new File(dir, "a/b/test_msgs/Trigger.java").isFile());
+	}
+
+	@Test
+	public void testGenerateNoDirectories() throws IOException {
+		File dir = Files.createTempDirectory("empty").toFile();
+		assertTrue(new MessageGenerator(BASE).generate(dir, dir).isEmpty());
+	}
+
+	@Test
+	public void testJsonParserMethod() throws Exception {
+		Method m = load("Everything").getMethod("fromJsonParser",
+				JsonParser.class);
+		assertNotNull(m);
+	}
+}
@@ -0,0 +1,46 @@
+package edu.wpi.rail.jrosbridge.generator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestServiceDefinition {
+
+	@Test
+	public void testParse() {
+		ServiceDefinition d = ServiceDefinition.parse("my_srvs", "Add",
+				"int64 a\nint64 b\n---\nint64 sum\n");
+		assertEquals("my_srvs", d.getPackage());
+		assertEquals("Add", d.getName());
+		assertEquals("my_srvs/Add", d.getType());
+		assertEquals("AddRequest", d.getRequest().getName());
+		assertEquals(2, d.getRequest().getFields().size());
+		assertEquals("b", d.getRequest().getFields().get(1).getName());
+		assertEquals("AddResponse", d.getResponse().getName());
+		assertEquals(1, d.getResponse().getFields().size());
+		assertEquals("sum", d.getResponse().getFields().get(0).getName());
+	}
+
+	@Test
+	public void testParseEmpty() {
+		ServiceDefinition d = ServiceDefinition.parse("std_srvs", "Empty",
+				"---");
+		assertTrue(d.getRequest().getFields().isEmpty());
+		assertTrue(d.getResponse().getFields().isEmpty());
+	}
+
+	@Test
+	public void testParseResponseLines() {
+		try {
+			ServiceDefinition.parse("my_srvs", "Add", "int64 a\n---\nbad");
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertTrue(e.getMessage().startsWith("my_srvs/AddResponse line 3: "));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseMissingSeparator() {
+		ServiceDefinition.parse("my_srvs", "Add", "int64 a");
+	}
+}
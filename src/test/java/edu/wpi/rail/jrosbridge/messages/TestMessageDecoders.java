@@ -0,0 +1,182 @@
+package edu.wpi.rail.jrosbridge.messages;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+
+import javax.json.Json;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParsingException;
+
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.actionlib.GoalID;
+import edu.wpi.rail.jrosbridge.messages.actionlib.GoalStatus;
+import edu.wpi.rail.jrosbridge.messages.actionlib.GoalStatusArray;
+import edu.wpi.rail.jrosbridge.messages.geometry.Point;
+import edu.wpi.rail.jrosbridge.messages.geometry.Pose;
+import edu.wpi.rail.jrosbridge.messages.geometry.PoseWithCovarianceStamped;
+import edu.wpi.rail.jrosbridge.messages.geometry.Quaternion;
+import edu.wpi.rail.jrosbridge.messages.std.Float64MultiArray;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.messages.std.Int32;
+import edu.wpi.rail.jrosbridge.messages.std.UInt64;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+public class TestMessageDecoders {
+
+	public static class Named extends Message {
+
+		private final String name;
+
+		public Named(String name) {
+			super(Json.createObjectBuilder().add("name", name).build(),
+					"test_msgs/Named");
+			this.name = name;
+		}
+
+		public String getName() {
+			return this.name;
+		}
+	}
+
+	@Test
+	public void testBuiltIns() {
+		assertTrue(MessageDecoders.isRegistered(Message.class));
+		assertTrue(MessageDecoders.isRegistered(GoalStatusArray.class));
+		assertTrue(MessageDecoders.isRegistered(PoseWithCovarianceStamped.class));
+		assertTrue(MessageDecoders.isRegistered(Float64MultiArray.class));
+		assertTrue(MessageDecoders
+				.isRegistered(edu.wpi.rail.jrosbridge.messages.std.String.class));
+		assertTrue(MessageDecoders
+				.isRegistered(edu.wpi.rail.jrosbridge.messages.std.Byte.class));
+		assertNotNull(MessageDecoders.get(Header.class));
+		assertFalse(MessageDecoders.isRegistered(Named.class));
+		assertNull(MessageDecoders.get(Named.class));
+	}
+
+	@Test
+	public void testDecodeString() {
+		Pose p1 = new Pose(new Point(0.5, 1.5, 3.0), new Quaternion(-0.5,
+				-1.5, -3.0, -4.5));
+		Pose p = MessageDecoders.decode(Pose.class, p1.toString());
+		assertEquals(p1.toString(), p.toString());
+		assertEquals(p1.getMessageType(), p.getMessageType());
+	}
+
+	@Test
+	public void testDecodeParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"[{\"data\": 1}, {\"data\": 2}]"));
+		JsonStreams.beginArray(parser);
+		assertEquals(1, MessageDecoders.decode(Int32.class, parser).getData());
+		assertEquals(2, MessageDecoders.decode(Int32.class, parser).getData());
+	}
+
+	@Test
+	public void testDecodeMessage() {
+		Message m = MessageDecoders.decode(Message.class,
+				"{\"a\": [1, 2.5], \"b\": {\"c\": \"d\"}}");
+		assertEquals("{\"a\":[1,2.5],\"b\":{\"c\":\"d\"}}", m.toString());
+		assertEquals("", m.getMessageType());
+	}
+
+	@Test
+	public void testDecodeUInt64() {
+		UInt64 i = MessageDecoders.decode(UInt64.class,
+				"{\"data\": 18446744073709551615}");
+		assertEquals(-1L, i.getData());
+	}
+
+	@Test
+	public void testDecodeFrame() {
+		Header header = new Header(5, new Time(10, 20), "base");
+		GoalStatusArray g1 = new GoalStatusArray(header, new GoalStatus[] {
+				new GoalStatus(new GoalID(new Time(1, 2), "a"),
+						GoalStatus.ACTIVE, "x"),
+				new GoalStatus(new GoalID(new Time(3, 4), "b"),
+						GoalStatus.ABORTED, "y") });
+		String frame = "{\"op\": \"publish\", \"extra\": [{\"msg\": 1}], \"msg\": "
+				+ g1.toString() + ", \"topic\": \"/status\"}";
+		GoalStatusArray g = MessageDecoders.decodeMessage(
+				GoalStatusArray.class, frame);
+		assertEquals(g1.toString(), g.toString());
+		assertEquals(2, g.getStatusList().length);
+		assertEquals("b", g.getStatusList()[1].getGoalID().getID());
+	}
+
+	@Test
+	public void testDecodeFrameDecoder() {
+		Int32 i = MessageDecoders.decodeMessage(
+				MessageDecoders.get(Int32.class),
+				"{\"topic\": \"/a\", \"msg\": {\"data\": -5}}");
+		assertEquals(-5, i.getData());
+	}
+
+	@Test
+	public void testDecodeFrameNoMessage() {
+		assertNull(MessageDecoders.decodeMessage(Int32.class,
+				"{\"op\": \"publish\", \"topic\": \"/a\"}"));
+	}
+
+	@Test(expected = JsonParsingException.class)
+	public void testDecodeFrameInvalid() {
+		MessageDecoders.decodeMessage(Int32.class,
+				"{\"op\": \"publish\", \"msg\": {\"data\": \"x\"}}");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDecodeUnregistered() {
+		MessageDecoders.decode(Named.class, "{\"name\": \"x\"}");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDecodeFrameUnregistered() {
+		MessageDecoders.decodeMessage(Named.class, "{\"msg\": {}}");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRegisterNullType() {
+		MessageDecoders.register(null, new MessageDecoder<Message>() {
+			@Override
+			public Message decode(JsonParser parser) {
+				return null;
+			}
+		});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRegisterNullDecoder() {
+		MessageDecoders.register(Named.class, null);
+	}
+
+	@Test
+	public void testRegister() {
+		MessageDecoders.register(Named.class, new MessageDecoder<Named>() {
+			@Override
+			public Named decode(JsonParser parser) {
+				String name = "";
+				String field;
+				while ((field = JsonStreams.nextField(parser)) != null) {
+					if (field.equals("name")) {
+						name = JsonStreams.readString(parser);
+					} else {
+						JsonStreams.skipValue(parser);
+					}
+				}
+				return new Named(name);
+			}
+		});
+		try {
+			assertTrue(MessageDecoders.isRegistered(Named.class));
+			Named n = MessageDecoders.decodeMessage(Named.class,
+					"{\"msg\": {\"skip\": [1], \"name\": \"hello\"}}");
+			assertEquals("hello", n.getName());
+			assertEquals("test_msgs/Named", n.getMessageType());
+		} finally {
+			// the registry is static, leave it as the other tests expect
+			MessageDecoders.unregister(Named.class);
+		}
+	}
+}
@@ -2,12 +2,16 @@ package edu.wpi.rail.jrosbridge.messages.actionlib;
 
 import static org.junit.Assert.*;
 
+import java.io.StringReader;
+
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.primitives.Primitive;
 import edu.wpi.rail.jrosbridge.primitives.Time;
@@ -217,4 +221,25 @@ public class TestGoalStatus {
 		assertEquals(g1.getStatus(), p.getStatus());
 		assertEquals("", p.getText());
 	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(g1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		GoalStatus x = GoalStatus.fromJsonParser(parser);
+		assertEquals(g1.toString(), x.toString());
+		assertEquals(g1.toJsonObject(), x.toJsonObject());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		GoalStatus x = GoalStatus.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
 }
@@ -2,15 +2,18 @@ package edu.wpi.rail.jrosbridge.messages.actionlib;
 
 import static org.junit.Assert.*;
 
+import java.io.StringReader;
 import java.util.Arrays;
 
 import javax.json.Json;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 import edu.wpi.rail.jrosbridge.messages.std.Header;
 import edu.wpi.rail.jrosbridge.primitives.Time;
@@ -216,4 +219,25 @@ public class TestGoalStatusArray {
 		assertTrue(Arrays.deepEquals(new GoalStatus[] {}, p.getStatusList()));
 		assertEquals(0, p.size());
 	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(g1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		GoalStatusArray x = GoalStatusArray.fromJsonParser(parser);
+		assertEquals(g1.toString(), x.toString());
+		assertEquals(g1.toJsonObject(), x.toJsonObject());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		GoalStatusArray x = GoalStatusArray.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
 }
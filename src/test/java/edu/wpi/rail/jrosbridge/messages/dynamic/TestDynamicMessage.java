@@ -0,0 +1,160 @@
+package edu.wpi.rail.jrosbridge.messages.dynamic;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestDynamicMessage {
+
+	private MessageSchema everything, header;
+	private DynamicMessage m;
+
+	@Before
+	public void setUp() {
+		everything = MessageSchema.fromTypedefs("test_msgs/Everything",
+				Typedefs.everything());
+		header = MessageSchema.fromTypedefs("std_msgs/Header",
+				Typedefs.poseStamped());
+		m = header.decode("{\"seq\": 4294967295, \"stamp\": {\"secs\": 1, \"nsecs\": 2}, \"frame_id\": \"map\"}");
+	}
+
+	@Test
+	public void testGetSchema() {
+		assertSame(header, m.getSchema());
+		assertEquals("std_msgs/Header", m.getMessageType());
+	}
+
+	@Test
+	public void testGet() {
+		assertEquals(4294967295L, m.get(0));
+		assertEquals(4294967295L, m.get("seq"));
+		assertEquals("map", m.get("frame_id"));
+		assertSame(m.getMessage(1), m.get("stamp"));
+		assertEquals(1L, m.getMessage(1).get(0));
+
+		DynamicMessage e = everything.newMessage();
+		assertEquals(false, e.get("flag"));
+		assertEquals(0.0, e.get("ratio"));
+		assertSame(e.getDoubleArray(everything.getFieldIndex("values")),
+				e.get("values"));
+	}
+
+	@Test
+	public void testNumberConversions() {
+		assertEquals(4294967295.0, m.getDouble(0), 0);
+		assertEquals(-1, m.getInt(0));
+		DynamicMessage e = everything.newBuilder().set("value", 2.75).build();
+		assertEquals(2, e.getLong(everything.getFieldIndex("value")));
+		assertEquals(2.75f, e.getFloat(everything.getFieldIndex("value")), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetWrongType() {
+		m.getString(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetBooleanOfNumber() {
+		m.getBoolean(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetLongOfString() {
+		m.getLong(2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetWrongArrayType() {
+		everything.newMessage().getIntArray(everything.getFieldIndex("ports"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testGetUnknownField() {
+		m.get("nope");
+	}
+
+	@Test
+	public void testBuilder() {
+		DynamicMessage stamp = header.getFieldSchema(1).newBuilder()
+				.set("secs", 5).build();
+		DynamicMessage h = header.newBuilder().set(0, 3L).set(1, stamp)
+				.set("frame_id", "base").build();
+		assertEquals("{\"seq\":3,\"stamp\":{\"secs\":5,\"nsecs\":0},\"frame_id\":\"base\"}",
+				h.toString());
+
+		int flag = everything.getFieldIndex("flag");
+		int data = everything.getFieldIndex("data");
+		int total = everything.getFieldIndex("total");
+		DynamicMessage e = everything.newBuilder().set(flag, true)
+				.set("ratio", 0.5f).set(data, new byte[] { -1 })
+				.set(total, -1L).build();
+		assertTrue(e.getBoolean(flag));
+		assertEquals(0.5, e.getDouble("ratio"), 0);
+		assertEquals("/w==", e.toJsonObject().getString("data"));
+		assertEquals("18446744073709551615", e.toJsonObject()
+				.getJsonNumber("total").toString());
+	}
+
+	@Test
+	public void testBuilderDoesNotChangeBuilt() {
+		DynamicMessage.Builder b = header.newBuilder().set("seq", 1);
+		DynamicMessage first = b.build();
+		b.set("seq", 2);
+		assertEquals(1, first.getLong("seq"));
+		assertEquals(2, b.build().getLong("seq"));
+	}
+
+	@Test
+	public void testToBuilder() {
+		DynamicMessage h = m.toBuilder().set("frame_id", "odom").build();
+		assertEquals("odom", h.getString(2));
+		assertEquals(4294967295L, h.getLong(0));
+		assertEquals("map", m.getString(2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBuilderWrongClass() {
+		header.newBuilder().set("frame_id", new int[] {});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBuilderDoubleOfInteger() {
+		header.newBuilder().set("seq", 1.5);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBuilderBooleanOfNumber() {
+		header.newBuilder().set(0, true);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBuilderWrongSchema() {
+		header.newBuilder().set("stamp", header.newMessage());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBuilderNull() {
+		header.newBuilder().set("frame_id", null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBuilderUnknownField() {
+		header.newBuilder().set("nope", 1);
+	}
+
+	@Test
+	public void testClone() {
+		DynamicMessage c = m.clone();
+		assertNotSame(m, c);
+		assertEquals(m, c);
+		assertSame(m.getSchema(), c.getSchema());
+	}
+
+	@Test
+	public void testToJsonObject() {
+		assertEquals("map", m.toJsonObject().getString("frame_id"));
+		assertEquals(4294967295L, m.toJsonObject().getJsonNumber("seq")
+				.longValue());
+	}
+}
@@ -0,0 +1,233 @@
+package edu.wpi.rail.jrosbridge.messages.dynamic;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.util.HashMap;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.geometry.Point;
+import edu.wpi.rail.jrosbridge.messages.geometry.Pose;
+import edu.wpi.rail.jrosbridge.messages.geometry.PoseStamped;
+import edu.wpi.rail.jrosbridge.messages.geometry.Quaternion;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+public class TestMessageSchema {
+
+	private static JsonObject json(String json) {
+		return Json.createReader(new StringReader(json)).readObject();
+	}
+
+	@Test
+	public void testFromTypedefs() {
+		MessageSchema s = MessageSchema.fromTypedefs(
+				"geometry_msgs/PoseStamped", Typedefs.poseStamped());
+		assertEquals("geometry_msgs/PoseStamped", s.getType());
+		assertEquals(2, s.getFieldCount());
+		assertEquals("header", s.getFieldName(0));
+		assertEquals("std_msgs/Header", s.getFieldType(0));
+		assertEquals(1, s.getFieldIndex("pose"));
+		assertEquals(-1, s.getFieldIndex("nope"));
+		assertFalse(s.isArray(1));
+		assertEquals(MessageSchema.NOT_AN_ARRAY, s.getArrayLength(1));
+
+		MessageSchema header = s.getFieldSchema(0);
+		assertEquals("std_msgs/Header", header.getType());
+		assertNull(header.getFieldSchema(0));
+		assertEquals("time", header.getFieldSchema(1).getType());
+		assertEquals(Long.class, header.getFieldClass(0));
+		assertEquals(String.class, header.getFieldClass(2));
+		assertEquals(DynamicMessage.class, s.getFieldClass(0));
+	}
+
+	@Test
+	public void testFromTypedefsSharesNestedSchemas() {
+		MessageSchema s = MessageSchema.fromTypedefs("test_msgs/Everything",
+				Typedefs.everything());
+		int point = s.getFieldIndex("point");
+		int points = s.getFieldIndex("points");
+		assertSame(s.getFieldSchema(point), s.getFieldSchema(points));
+		assertEquals(2, s.getArrayLength(points));
+		assertTrue(s.isArray(points));
+		assertEquals(DynamicMessage[].class, s.getFieldClass(points));
+		assertEquals(byte[].class, s.getFieldClass(s.getFieldIndex("data")));
+		assertEquals(short[].class, s.getFieldClass(s.getFieldIndex("ports")));
+		assertEquals(int[].class, s.getFieldClass(s.getFieldIndex("ids")));
+		assertEquals(long[].class, s.getFieldClass(s.getFieldIndex("totals")));
+		assertEquals(float[].class, s.getFieldClass(s.getFieldIndex("ratios")));
+		assertEquals(double[].class, s.getFieldClass(s.getFieldIndex("values")));
+		assertEquals(boolean[].class, s.getFieldClass(s.getFieldIndex("flags")));
+		assertEquals(String[].class, s.getFieldClass(s.getFieldIndex("names")));
+		assertEquals(Double.class, s.getFieldClass(s.getFieldIndex("ratio")));
+		assertEquals(Boolean.class, s.getFieldClass(s.getFieldIndex("flag")));
+		// duration has no typedef but is built in
+		assertEquals("duration", s.getFieldSchema(s.getFieldIndex("stamp"))
+				.getType());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFromTypedefsMissing() {
+		MessageSchema.fromTypedefs("geometry_msgs/Pose", Json
+				.createArrayBuilder()
+				.add(Typedefs.poseStamped().getJsonObject(3)).build());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFromTypedefsInvalid() {
+		JsonArray typedefs = Json.createArrayBuilder()
+				.add(json("{\"type\": \"a/B\", \"fieldnames\": [\"x\"], \"fieldtypes\": []}"))
+				.build();
+		MessageSchema.fromTypedefs("a/B", typedefs);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorInconsistent() {
+		new MessageSchema("a/B", new String[] { "x" }, new String[] {},
+				new int[] { -1 }, new MessageSchema[1]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorNoNestedSchema() {
+		new MessageSchema("a/B", new String[] { "x" },
+				new String[] { "a/C" }, new int[] { -1 }, new MessageSchema[1]);
+	}
+
+	@Test
+	public void testCompileReusesSchemas() {
+		HashMap<String, MessageSchema> schemas = new HashMap<String, MessageSchema>();
+		MessageSchema s = MessageSchema.compile("geometry_msgs/PoseStamped",
+				Typedefs.poseStamped(), schemas);
+		assertEquals(6, schemas.size());
+		assertSame(s, MessageSchema.compile("geometry_msgs/PoseStamped",
+				Typedefs.poseStamped(), schemas));
+		assertSame(schemas.get("geometry_msgs/Pose"), s.getFieldSchema(1));
+	}
+
+	@Test
+	public void testDecodeMatchesMessageClass() {
+		PoseStamped p = new PoseStamped(new Header(7, new Time(1, 2), "map"),
+				new Pose(new Point(1, 2, 3), new Quaternion(0, 0, 0.5, 1)));
+		MessageSchema s = MessageSchema.fromTypedefs(
+				"geometry_msgs/PoseStamped", Typedefs.poseStamped());
+		DynamicMessage m = s.decode(p.toString());
+		assertEquals("map", m.getMessage(0).getString(2));
+		assertEquals(7, m.getMessage("header").getLong("seq"));
+		assertEquals(2, m.getMessage(0).getMessage(1).getInt(1));
+		assertEquals(0.5, m.getMessage("pose").getMessage("orientation")
+				.getDouble("z"), 0);
+		// the same JSON is written back
+		assertEquals(p.toJsonObject(), m.toJsonObject());
+		assertEquals(p.toString(), m.toString());
+	}
+
+	@Test
+	public void testDecodeMessage() {
+		MessageSchema s = MessageSchema.fromTypedefs("geometry_msgs/Point",
+				Typedefs.poseStamped());
+		DynamicMessage m = s.decode(new Message("{\"z\": 3, \"x\": 1}"));
+		assertEquals(1.0, m.getDouble(0), 0);
+		assertEquals(0.0, m.getDouble(1), 0);
+		assertEquals(3.0, m.getDouble(2), 0);
+		assertEquals("geometry_msgs/Point", m.getMessageType());
+	}
+
+	@Test
+	public void testDecodeEverything() {
+		String json = "{\"flag\": true, \"small\": -3, \"level\": 255, \"port\": 65535,"
+				+ "\"seq\": 4294967295, \"total\": 18446744073709551615, \"ratio\": 0.25,"
+				+ "\"value\": -1.5, \"label\": \"x\", \"point\": {\"x\": 1.0, \"y\": 2.0, \"z\": 3.0},"
+				+ "\"flags\": [true, false], \"data\": \"AAH/\", \"signed\": [-1, 1],"
+				+ "\"ports\": [65535], \"ids\": [4294967295], \"totals\": [18446744073709551615],"
+				+ "\"ratios\": [0.5], \"values\": [1.5, 2.5], \"names\": [\"a\"],"
+				+ "\"points\": [{\"x\": 4.0, \"y\": 5.0, \"z\": 6.0}, {\"x\": 7.0, \"y\": 8.0, \"z\": 9.0}],"
+				+ "\"stamp\": {\"secs\": 1, \"nsecs\": 2}, \"covariance\": [1,2,3,4,5,6,7,8,9],"
+				+ "\"extra\": [{\"a\": 1}]}";
+		MessageSchema s = MessageSchema.fromTypedefs("test_msgs/Everything",
+				Typedefs.everything());
+		DynamicMessage m = s.decode(json);
+
+		assertTrue(m.getBoolean(s.getFieldIndex("flag")));
+		assertEquals(-3, m.getLong(s.getFieldIndex("small")));
+		assertEquals(255, m.getLong(s.getFieldIndex("level")));
+		assertEquals(65535, m.getLong(s.getFieldIndex("port")));
+		assertEquals(4294967295L, m.getLong(s.getFieldIndex("seq")));
+		assertEquals(-1L, m.getLong(s.getFieldIndex("total")));
+		assertEquals(0.25f, m.getFloat(s.getFieldIndex("ratio")), 0);
+		assertEquals(-1.5, m.getDouble(s.getFieldIndex("value")), 0);
+		assertEquals("x", m.getString(s.getFieldIndex("label")));
+		assertEquals(2.0, m.getMessage("point").getDouble("y"), 0);
+		assertArrayEquals(new byte[] { 0, 1, -1 },
+				m.getByteArray(s.getFieldIndex("data")));
+		assertArrayEquals(new byte[] { -1, 1 },
+				m.getByteArray(s.getFieldIndex("signed")));
+		assertArrayEquals(new short[] { -1 },
+				m.getShortArray(s.getFieldIndex("ports")));
+		assertArrayEquals(new int[] { -1 },
+				m.getIntArray(s.getFieldIndex("ids")));
+		assertArrayEquals(new long[] { -1 },
+				m.getLongArray(s.getFieldIndex("totals")));
+		assertArrayEquals(new float[] { 0.5f },
+				m.getFloatArray(s.getFieldIndex("ratios")), 0);
+		assertArrayEquals(new double[] { 1.5, 2.5 },
+				m.getDoubleArray(s.getFieldIndex("values")), 0);
+		assertArrayEquals(new String[] { "a" },
+				m.getStringArray(s.getFieldIndex("names")));
+		assertEquals(9.0, m.getMessageArray(s.getFieldIndex("points"))[1]
+				.getDouble(2), 0);
+		assertEquals(2, m.getMessage("stamp").getLong("nsecs"));
+		assertEquals(9, m.getDoubleArray(s.getFieldIndex("covariance")).length);
+
+		// written back with unsigned values and without unknown fields
+		JsonObject expected = json(json.replace(",\"extra\": [{\"a\": 1}]",
+				""));
+		JsonObject actual = m.toJsonObject();
+		assertEquals(expected.keySet(), actual.keySet());
+		for (String field : expected.keySet()) {
+			assertEquals(field, Json.createReader(
+					new StringReader("[" + expected.get(field) + "]"))
+					.readArray().toString().replace(".0", ""), Json
+					.createReader(new StringReader("[" + actual.get(field)
+							+ "]")).readArray().toString().replace(".0", ""));
+		}
+		assertEquals(m.toString(), s.decode(m.toString()).toString());
+	}
+
+	@Test
+	public void testDecodeDefaults() {
+		MessageSchema s = MessageSchema.fromTypedefs("test_msgs/Everything",
+				Typedefs.everything());
+		DynamicMessage m = s.decode("{}");
+		assertFalse(m.getBoolean(0));
+		assertEquals("", m.getString(s.getFieldIndex("label")));
+		assertEquals(0, m.getByteArray(s.getFieldIndex("data")).length);
+		assertEquals(2, m.getMessageArray(s.getFieldIndex("points")).length);
+		assertEquals(0.0, m.getMessageArray(s.getFieldIndex("points"))[1]
+				.getDouble(0), 0);
+		assertEquals(9, m.getDoubleArray(s.getFieldIndex("covariance")).length);
+		assertEquals(s.newMessage(), m);
+	}
+
+	@Test
+	public void testNewMessage() {
+		MessageSchema s = MessageSchema.fromTypedefs(
+				"geometry_msgs/PoseStamped", Typedefs.poseStamped());
+		DynamicMessage m = s.newMessage();
+		assertSame(s, m.getSchema());
+		assertEquals(new PoseStamped().toJsonObject(), m.toJsonObject());
+	}
+
+	@Test
+	public void testNewBuilder() {
+		MessageSchema s = MessageSchema.fromTypedefs("geometry_msgs/Point",
+				Typedefs.poseStamped());
+		DynamicMessage m = s.newBuilder().set(0, 1.5).set("z", 2).build();
+		assertEquals(new Point(1.5, 0, 2).toJsonObject(), m.toJsonObject());
+	}
+}
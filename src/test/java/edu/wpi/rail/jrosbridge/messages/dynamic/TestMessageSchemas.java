@@ -0,0 +1,193 @@
+package edu.wpi.rail.jrosbridge.messages.dynamic;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonObject;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.JRosbridge;
+import edu.wpi.rail.jrosbridge.Ros;
+import edu.wpi.rail.jrosbridge.TypedTopic;
+import edu.wpi.rail.jrosbridge.callback.SchemaCallback;
+import edu.wpi.rail.jrosbridge.callback.TypedTopicCallback;
+import edu.wpi.rail.jrosbridge.messages.geometry.Point;
+
+public class TestMessageSchemas {
+
+	private Ros ros;
+	private MessageSchemas schemas;
+	private List<MessageSchema> received;
+	private SchemaCallback cb;
+
+	@Before
+	public void setUp() {
+		// the calls are taken as sent, and answered with respond()
+		ros = new Ros() {
+			@Override
+			public boolean send(JsonObject jsonObject) {
+				return true;
+			}
+		};
+		schemas = new MessageSchemas(ros);
+		received = new ArrayList<MessageSchema>();
+		cb = new SchemaCallback() {
+			@Override
+			public void handleSchema(MessageSchema schema) {
+				received.add(schema);
+			}
+		};
+	}
+
+	private void respond(long id, boolean result, JsonArray typedefs) {
+		ros.onMessage(Json.createObjectBuilder()
+				.add(JRosbridge.FIELD_OP, JRosbridge.OP_CODE_SERVICE_RESPONSE)
+				.add(JRosbridge.FIELD_ID, "call_service:"
+						+ MessageSchemas.SERVICE_NAME + ":" + id)
+				.add(JRosbridge.FIELD_VALUES, Json.createObjectBuilder()
+						.add(MessageSchemas.FIELD_TYPEDEFS, typedefs))
+				.add(JRosbridge.FIELD_RESULT, result).build().toString());
+	}
+
+	@Test
+	public void testRegister() {
+		assertNull(schemas.getSchema("geometry_msgs/PoseStamped"));
+		MessageSchema s = schemas.register("geometry_msgs/PoseStamped",
+				Typedefs.poseStamped());
+		assertSame(s, schemas.getSchema("geometry_msgs/PoseStamped"));
+		// the types it uses are kept as well, and reused
+		MessageSchema pose = schemas.getSchema("geometry_msgs/Pose");
+		assertSame(pose, s.getFieldSchema(1));
+		assertSame(pose, schemas.register("geometry_msgs/Pose",
+				Typedefs.poseStamped()));
+		assertNotNull(schemas.getSchema("time"));
+	}
+
+	@Test
+	public void testRegisterInvalid() {
+		try {
+			schemas.register("geometry_msgs/PoseStamped", Json
+					.createArrayBuilder()
+					.add(Typedefs.poseStamped().getJsonObject(0)).build());
+			fail();
+		} catch (IllegalArgumentException e) {
+			// nothing is kept
+			assertNull(schemas.getSchema("geometry_msgs/PoseStamped"));
+		}
+	}
+
+	@Test
+	public void testFetch() {
+		schemas.fetch("geometry_msgs/PoseStamped", cb);
+		schemas.fetch("geometry_msgs/PoseStamped", cb);
+		assertTrue(received.isEmpty());
+
+		// one call for both
+		respond(0, true, Typedefs.poseStamped());
+		assertEquals(2, received.size());
+		assertSame(received.get(0), received.get(1));
+		assertEquals("geometry_msgs/PoseStamped", received.get(0).getType());
+
+		// cached from now on
+		schemas.fetch("geometry_msgs/PoseStamped", cb);
+		assertEquals(3, received.size());
+		assertSame(received.get(0), received.get(2));
+		assertEquals(1, ros.nextId());
+	}
+
+	@Test
+	public void testFetchFailed() {
+		schemas.fetch("a/B", cb);
+		respond(0, false, Json.createArrayBuilder().build());
+		assertEquals(1, received.size());
+		assertNull(received.get(0));
+
+		// fetched again next time
+		schemas.fetch("a/B", cb);
+		respond(1, true, Json.createArrayBuilder().build());
+		assertEquals(2, received.size());
+		assertNull(received.get(1));
+		assertNull(schemas.getSchema("a/B"));
+	}
+
+	@Test
+	public void testFetchAndWait() throws InterruptedException {
+		final MessageSchema[] result = new MessageSchema[1];
+		Thread t = new Thread() {
+			@Override
+			public void run() {
+				result[0] = schemas.fetchAndWait("geometry_msgs/Point");
+			}
+		};
+		t.start();
+		while (t.getState() != Thread.State.TIMED_WAITING) {
+			Thread.sleep(5);
+		}
+		respond(0, true, Typedefs.poseStamped());
+		t.join();
+		assertEquals("geometry_msgs/Point", result[0].getType());
+		assertSame(result[0], schemas.fetchAndWait("geometry_msgs/Point"));
+	}
+
+	@Test
+	public void testFetchNotSent() {
+		schemas = new MessageSchemas(new Ros());
+		schemas.fetch("geometry_msgs/Point", cb);
+		assertEquals(1, received.size());
+		assertNull(received.get(0));
+
+		// not left pending, so the next fetch tries again
+		schemas.fetch("geometry_msgs/Point", cb);
+		assertEquals(2, received.size());
+		assertNull(received.get(1));
+		assertNull(schemas.fetchAndWait("geometry_msgs/Point"));
+	}
+
+	@Test
+	public void testFetchAndWaitTimeout() {
+		assertNull(schemas.fetchAndWait("geometry_msgs/Point", 10));
+		// no longer pending, so the next fetch makes a new call
+		schemas.fetch("geometry_msgs/Point", cb);
+		assertEquals(2, ros.nextId());
+		respond(1, true, Typedefs.poseStamped());
+		assertEquals(1, received.size());
+		assertEquals("geometry_msgs/Point", received.get(0).getType());
+	}
+
+	@Test
+	public void testFetchAndWaitTimeoutShared() {
+		schemas.fetch("geometry_msgs/Point", cb);
+		assertNull(schemas.fetchAndWait("geometry_msgs/Point", 10));
+		// the other fetch still waits on the same call
+		respond(0, true, Typedefs.poseStamped());
+		assertEquals(1, received.size());
+		assertNotNull(received.get(0));
+		assertEquals(1, ros.nextId());
+	}
+
+	@Test
+	public void testTypedTopic() {
+		MessageSchema s = schemas.register("geometry_msgs/Point",
+				Typedefs.poseStamped());
+		TypedTopic<DynamicMessage> t = new TypedTopic<DynamicMessage>(ros,
+				"/point", s.getType(), s, JRosbridge.CompressionType.none, 0,
+				0, 0);
+		final List<DynamicMessage> messages = new ArrayList<DynamicMessage>();
+		t.subscribeTyped(new TypedTopicCallback<DynamicMessage>() {
+			@Override
+			public void handleMessage(DynamicMessage message) {
+				messages.add(message);
+			}
+		});
+		ros.onMessage("{\"op\": \"publish\", \"topic\": \"/point\", \"msg\": "
+				+ new Point(1, 2, 3) + "}");
+		assertEquals(1, messages.size());
+		assertEquals(2.0, messages.get(0).getDouble(1), 0);
+	}
+}
@@ -0,0 +1,72 @@
+package edu.wpi.rail.jrosbridge.messages.dynamic;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+
+/**
+ * Type definitions as rosapi/MessageDetails returns them.
+ */
+class Typedefs {
+
+	static JsonObject typedef(String type, String[] names, String[] types,
+			int[] lengths) {
+		JsonArrayBuilder n = Json.createArrayBuilder();
+		JsonArrayBuilder t = Json.createArrayBuilder();
+		JsonArrayBuilder l = Json.createArrayBuilder();
+		for (int i = 0; i < names.length; i++) {
+			n.add(names[i]);
+			t.add(types[i]);
+			l.add(lengths[i]);
+		}
+		return Json.createObjectBuilder().add("type", type)
+				.add("fieldnames", n).add("fieldtypes", t)
+				.add("fieldarraylen", l).add("examples", Json.createArrayBuilder())
+				.add("constnames", Json.createArrayBuilder())
+				.add("constvalues", Json.createArrayBuilder()).build();
+	}
+
+	static JsonArray poseStamped() {
+		return Json.createArrayBuilder()
+				.add(typedef("geometry_msgs/PoseStamped", new String[] {
+						"header", "pose" }, new String[] { "std_msgs/Header",
+						"geometry_msgs/Pose" }, new int[] { -1, -1 }))
+				.add(typedef("std_msgs/Header", new String[] { "seq", "stamp",
+						"frame_id" }, new String[] { "uint32", "time",
+						"string" }, new int[] { -1, -1, -1 }))
+				.add(typedef("time", new String[] { "secs", "nsecs" },
+						new String[] { "int32", "int32" }, new int[] { -1, -1 }))
+				.add(typedef("geometry_msgs/Pose", new String[] { "position",
+						"orientation" }, new String[] { "geometry_msgs/Point",
+						"geometry_msgs/Quaternion" }, new int[] { -1, -1 }))
+				.add(typedef("geometry_msgs/Point",
+						new String[] { "x", "y", "z" }, new String[] {
+								"float64", "float64", "float64" }, new int[] {
+								-1, -1, -1 }))
+				.add(typedef("geometry_msgs/Quaternion", new String[] { "x",
+						"y", "z", "w" }, new String[] { "float64", "float64",
+						"float64", "float64" }, new int[] { -1, -1, -1, -1 }))
+				.build();
+	}
+
+	static JsonArray everything() {
+		return Json.createArrayBuilder()
+				.add(typedef("test_msgs/Everything", new String[] { "flag",
+						"small", "level", "port", "seq", "total", "ratio",
+						"value", "label", "point", "flags", "data", "signed",
+						"ports", "ids", "totals", "ratios", "values", "names",
+						"points", "stamp", "covariance" }, new String[] {
+						"bool", "int8", "uint8", "uint16", "uint32", "uint64",
+						"float32", "float64", "string", "geometry_msgs/Point",
+						"bool", "uint8", "int8", "uint16", "uint32", "uint64",
+						"float32", "float64", "string", "geometry_msgs/Point",
+						"duration", "float64" }, new int[] { -1, -1, -1, -1,
+						-1, -1, -1, -1, -1, -1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 2,
+						-1, 9 }))
+				.add(typedef("geometry_msgs/Point",
+						new String[] { "x", "y", "z" }, new String[] {
+								"float64", "float64", "float64" }, new int[] {
+								-1, -1, -1 })).build();
+	}
+}
@@ -2,12 +2,16 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import static org.junit.Assert.*;
 
+import java.io.StringReader;
+
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 public class TestPoint32 {
@@ -177,4 +181,25 @@ public class TestPoint32 {
 		assertEquals(p1.getY(), p.getY(), 0);
 		assertEquals(0.0f, p.getZ(), 0);
 	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(p1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		Point32 x = Point32.fromJsonParser(parser);
+		assertEquals(p1.toString(), x.toString());
+		assertEquals(p1.toJsonObject(), x.toJsonObject());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		Point32 x = Point32.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
 }
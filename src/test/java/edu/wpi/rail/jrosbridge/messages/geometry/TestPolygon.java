@@ -2,15 +2,18 @@ package edu.wpi.rail.jrosbridge.messages.geometry;
 
 import static org.junit.Assert.*;
 
+import java.io.StringReader;
 import java.util.Arrays;
 
 import javax.json.Json;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 public class TestPolygon {
@@ -159,4 +162,25 @@ public class TestPolygon {
 		assertTrue(Arrays.deepEquals(new Point32[] {}, p.getPoints()));
 		assertEquals(0, p.size());
 	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(p1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		Polygon x = Polygon.fromJsonParser(parser);
+		assertEquals(p1.toString(), x.toString());
+		assertEquals(p1.toJsonObject(), x.toJsonObject());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		Polygon x = Polygon.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
 }
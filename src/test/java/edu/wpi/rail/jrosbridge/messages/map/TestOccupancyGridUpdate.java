@@ -0,0 +1,183 @@
+package edu.wpi.rail.jrosbridge.messages.map;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+public class TestOccupancyGridUpdate {
+
+	private OccupancyGridUpdate empty, u1;
+
+	@Before
+	public void setUp() {
+		empty = new OccupancyGridUpdate();
+		u1 = new OccupancyGridUpdate(new Header(1, new Time(2, 3), "map"), -1,
+				4, 2, 2, new byte[] { 0, 100, -1, 50 });
+	}
+
+	@Test
+	public void testConstructor() {
+		assertEquals(new Header(), empty.getHeader());
+		assertEquals(0, empty.getX());
+		assertEquals(0, empty.getY());
+		assertEquals(0, empty.getWidth());
+		assertEquals(0, empty.getHeight());
+		assertEquals(0, empty.size());
+
+		assertEquals("{\"header\":" + new Header().toString()
+				+ ",\"x\":0,\"y\":0,\"width\":0,\"height\":0,\"data\":[]}",
+				empty.toString());
+
+		assertEquals(6, empty.toJsonObject().size());
+		assertEquals(OccupancyGridUpdate.TYPE, empty.getMessageType());
+	}
+
+	@Test
+	public void testFullConstructor() {
+		assertEquals(new Header(1, new Time(2, 3), "map"), u1.getHeader());
+		assertEquals(-1, u1.getX());
+		assertEquals(4, u1.getY());
+		assertEquals(2, u1.getWidth());
+		assertEquals(2, u1.getHeight());
+		assertEquals(4, u1.size());
+		assertArrayEquals(new byte[] { 0, 100, -1, 50 }, u1.getData());
+
+		assertEquals("{\"header\":" + u1.getHeader().toString()
+				+ ",\"x\":-1,\"y\":4,\"width\":2,\"height\":2,"
+				+ "\"data\":[0,100,-1,50]}", u1.toString());
+	}
+
+	@Test
+	public void testUnsignedSize() {
+		OccupancyGridUpdate u = new OccupancyGridUpdate(new Header(), 0, 0,
+				-1, 1, new byte[] {});
+		assertEquals(4294967295L,
+				u.toJsonObject()
+						.getJsonNumber(OccupancyGridUpdate.FIELD_WIDTH)
+						.longValue());
+		assertEquals(-1, OccupancyGridUpdate.fromJsonString(u.toString())
+				.getWidth());
+	}
+
+	@Test
+	public void testArrayNotShared() {
+		byte[] data = new byte[] { 1 };
+		OccupancyGridUpdate u = new OccupancyGridUpdate(new Header(), 0, 0, 1,
+				1, data);
+		data[0] = 5;
+		assertEquals(1, u.getData()[0]);
+	}
+
+	@Test
+	public void testSetMessageType() {
+		empty.setMessageType("test");
+		assertEquals("test", empty.getMessageType());
+	}
+
+	@Test
+	public void testHashCode() {
+		assertEquals(empty.toString().hashCode(), empty.hashCode());
+		assertEquals(u1.toString().hashCode(), u1.hashCode());
+	}
+
+	@Test
+	public void testEquals() {
+		assertFalse(empty.equals(u1));
+		assertFalse(u1.equals(empty));
+
+		assertTrue(empty.equals(empty));
+		assertTrue(u1.equals(u1));
+	}
+
+	@Test
+	public void testClone() {
+		OccupancyGridUpdate clone = u1.clone();
+		assertEquals(u1.toString(), clone.toString());
+		assertEquals(u1.toJsonObject(), clone.toJsonObject());
+		assertEquals(u1.getMessageType(), clone.getMessageType());
+		assertNotSame(u1, clone);
+		assertNotSame(u1.getData(), clone.getData());
+	}
+
+	@Test
+	public void testFromJsonString() {
+		OccupancyGridUpdate p = OccupancyGridUpdate.fromJsonString(u1
+				.toString());
+		assertEquals(u1.toString(), p.toString());
+		assertEquals(u1.toJsonObject(), p.toJsonObject());
+		assertNotSame(u1, p);
+	}
+
+	@Test
+	public void testFromMessage() {
+		Message m = new Message(u1.toString());
+		OccupancyGridUpdate p = OccupancyGridUpdate.fromMessage(m);
+		assertEquals(u1.toString(), p.toString());
+		assertEquals(u1.toJsonObject(), p.toJsonObject());
+		assertNotSame(u1, p);
+	}
+
+	@Test
+	public void testFromJsonObject() {
+		JsonObject jsonObject = Json.createObjectBuilder()
+				.add(OccupancyGridUpdate.FIELD_HEADER,
+						u1.getHeader().toJsonObject())
+				.add(OccupancyGridUpdate.FIELD_X, -1)
+				.add(OccupancyGridUpdate.FIELD_Y, 4)
+				.add(OccupancyGridUpdate.FIELD_WIDTH, 2)
+				.add(OccupancyGridUpdate.FIELD_HEIGHT, 2)
+				.add(OccupancyGridUpdate.FIELD_DATA,
+						Json.createArrayBuilder().add(0).add(100).add(-1)
+								.add(50)).build();
+		OccupancyGridUpdate p = OccupancyGridUpdate.fromJsonObject(jsonObject);
+		assertEquals(u1.toString(), p.toString());
+	}
+
+	@Test
+	public void testFromJsonObjectNoFields() {
+		OccupancyGridUpdate p = OccupancyGridUpdate.fromJsonObject(Json
+				.createObjectBuilder().build());
+		assertEquals(empty.toString(), p.toString());
+	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(u1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		OccupancyGridUpdate x = OccupancyGridUpdate.fromJsonParser(parser);
+		assertEquals(u1.toString(), x.toString());
+		assertEquals(u1.toJsonObject(), x.toJsonObject());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		OccupancyGridUpdate x = OccupancyGridUpdate.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testDecode() {
+		OccupancyGridUpdate x = MessageDecoders.decode(
+				OccupancyGridUpdate.class, u1.toString());
+		assertEquals(u1.toString(), x.toString());
+	}
+}
@@ -0,0 +1,166 @@
+package edu.wpi.rail.jrosbridge.messages.nav;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.geometry.Point;
+import edu.wpi.rail.jrosbridge.messages.geometry.Pose;
+import edu.wpi.rail.jrosbridge.messages.geometry.Quaternion;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+public class TestMapMetaData {
+
+	private MapMetaData empty, m1;
+
+	@Before
+	public void setUp() {
+		empty = new MapMetaData();
+		m1 = new MapMetaData(new Time(1, 2), 0.5f, 3, 2, new Pose(new Point(
+				1, 2, 0), new Quaternion(0, 0, 0, 1)));
+	}
+
+	@Test
+	public void testConstructor() {
+		assertEquals(new Time(), empty.getMapLoadTime());
+		assertEquals(0, empty.getResolution(), 0);
+		assertEquals(0, empty.getWidth());
+		assertEquals(0, empty.getHeight());
+		assertEquals(new Pose(), empty.getOrigin());
+
+		assertEquals("{\"map_load_time\":{\"secs\":0,\"nsecs\":0},"
+				+ "\"resolution\":0.0,\"width\":0,\"height\":0,\"origin\":"
+				+ new Pose().toString() + "}", empty.toString());
+
+		assertEquals(5, empty.toJsonObject().size());
+		assertEquals(MapMetaData.TYPE, empty.getMessageType());
+	}
+
+	@Test
+	public void testFullConstructor() {
+		assertEquals(new Time(1, 2), m1.getMapLoadTime());
+		assertEquals(0.5f, m1.getResolution(), 0);
+		assertEquals(3, m1.getWidth());
+		assertEquals(2, m1.getHeight());
+		assertEquals(new Point(1, 2, 0), m1.getOrigin().getPosition());
+
+		assertEquals("{\"map_load_time\":{\"secs\":1,\"nsecs\":2},"
+				+ "\"resolution\":0.5,\"width\":3,\"height\":2,\"origin\":"
+				+ m1.getOrigin().toString() + "}", m1.toString());
+	}
+
+	@Test
+	public void testUnsignedSize() {
+		MapMetaData m = new MapMetaData(new Time(), 1f, -1, -2, new Pose());
+		assertEquals(4294967295L,
+				m.toJsonObject().getJsonNumber(MapMetaData.FIELD_WIDTH)
+						.longValue());
+		assertEquals(-2, MapMetaData.fromJsonString(m.toString()).getHeight());
+	}
+
+	@Test
+	public void testSetMessageType() {
+		empty.setMessageType("test");
+		assertEquals("test", empty.getMessageType());
+	}
+
+	@Test
+	public void testHashCode() {
+		assertEquals(empty.toString().hashCode(), empty.hashCode());
+		assertEquals(m1.toString().hashCode(), m1.hashCode());
+	}
+
+	@Test
+	public void testEquals() {
+		assertFalse(empty.equals(m1));
+		assertFalse(m1.equals(empty));
+
+		assertTrue(empty.equals(empty));
+		assertTrue(m1.equals(m1));
+	}
+
+	@Test
+	public void testClone() {
+		MapMetaData clone = m1.clone();
+		assertEquals(m1.toString(), clone.toString());
+		assertEquals(m1.toJsonObject(), clone.toJsonObject());
+		assertEquals(m1.getMessageType(), clone.getMessageType());
+		assertNotSame(m1, clone);
+	}
+
+	@Test
+	public void testFromJsonString() {
+		MapMetaData p = MapMetaData.fromJsonString(m1.toString());
+		assertEquals(m1.toString(), p.toString());
+		assertEquals(m1.toJsonObject(), p.toJsonObject());
+		assertNotSame(m1, p);
+	}
+
+	@Test
+	public void testFromMessage() {
+		Message m = new Message(m1.toString());
+		MapMetaData p = MapMetaData.fromMessage(m);
+		assertEquals(m1.toString(), p.toString());
+		assertEquals(m1.toJsonObject(), p.toJsonObject());
+		assertNotSame(m1, p);
+	}
+
+	@Test
+	public void testFromJsonObject() {
+		JsonObject jsonObject = Json.createObjectBuilder()
+				.add(MapMetaData.FIELD_MAP_LOAD_TIME,
+						new Time(1, 2).toJsonObject())
+				.add(MapMetaData.FIELD_RESOLUTION, 0.5)
+				.add(MapMetaData.FIELD_WIDTH, 3)
+				.add(MapMetaData.FIELD_HEIGHT, 2)
+				.add(MapMetaData.FIELD_ORIGIN, m1.getOrigin().toJsonObject())
+				.build();
+		MapMetaData p = MapMetaData.fromJsonObject(jsonObject);
+		assertEquals(m1.toString(), p.toString());
+	}
+
+	@Test
+	public void testFromJsonObjectNoFields() {
+		MapMetaData p = MapMetaData.fromJsonObject(Json.createObjectBuilder()
+				.build());
+		assertEquals(empty.toString(), p.toString());
+	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(m1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		MapMetaData x = MapMetaData.fromJsonParser(parser);
+		assertEquals(m1.toString(), x.toString());
+		assertEquals(m1.toJsonObject(), x.toJsonObject());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		MapMetaData x = MapMetaData.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testDecode() {
+		MapMetaData x = MessageDecoders.decode(MapMetaData.class,
+				m1.toString());
+		assertEquals(m1.toString(), x.toString());
+	}
+}
@@ -0,0 +1,173 @@
+package edu.wpi.rail.jrosbridge.messages.nav;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.geometry.Pose;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+public class TestOccupancyGrid {
+
+	private OccupancyGrid empty, g1;
+
+	@Before
+	public void setUp() {
+		empty = new OccupancyGrid();
+		g1 = new OccupancyGrid(new Header(1, new Time(2, 3), "map"),
+				new MapMetaData(new Time(1, 2), 0.5f, 3, 2, new Pose()),
+				new byte[] { -1, 0, 100, 50, -1, 0 });
+	}
+
+	@Test
+	public void testConstructor() {
+		assertEquals(new Header(), empty.getHeader());
+		assertEquals(new MapMetaData(), empty.getInfo());
+		assertEquals(0, empty.size());
+		assertEquals(0, empty.getData().length);
+
+		assertEquals("{\"header\":" + new Header().toString() + ",\"info\":"
+				+ new MapMetaData().toString() + ",\"data\":[]}",
+				empty.toString());
+
+		assertEquals(3, empty.toJsonObject().size());
+		assertEquals(OccupancyGrid.TYPE, empty.getMessageType());
+	}
+
+	@Test
+	public void testFullConstructor() {
+		assertEquals(new Header(1, new Time(2, 3), "map"), g1.getHeader());
+		assertEquals(3, g1.getInfo().getWidth());
+		assertEquals(6, g1.size());
+		assertArrayEquals(new byte[] { -1, 0, 100, 50, -1, 0 }, g1.getData());
+
+		assertEquals("{\"header\":" + g1.getHeader().toString()
+				+ ",\"info\":" + g1.getInfo().toString()
+				+ ",\"data\":[-1,0,100,50,-1,0]}", g1.toString());
+	}
+
+	@Test
+	public void testGet() {
+		assertEquals(OccupancyGrid.UNKNOWN, g1.get(0, 0));
+		assertEquals(100, g1.get(2, 0));
+		assertEquals(50, g1.get(0, 1));
+		assertEquals(0, g1.get(2, 1));
+	}
+
+	@Test
+	public void testArrayNotShared() {
+		byte[] data = new byte[] { 1 };
+		OccupancyGrid g = new OccupancyGrid(new Header(), new MapMetaData(),
+				data);
+		data[0] = 5;
+		assertEquals(1, g.getData()[0]);
+	}
+
+	@Test
+	public void testSetMessageType() {
+		empty.setMessageType("test");
+		assertEquals("test", empty.getMessageType());
+	}
+
+	@Test
+	public void testHashCode() {
+		assertEquals(empty.toString().hashCode(), empty.hashCode());
+		assertEquals(g1.toString().hashCode(), g1.hashCode());
+	}
+
+	@Test
+	public void testEquals() {
+		assertFalse(empty.equals(g1));
+		assertFalse(g1.equals(empty));
+
+		assertTrue(empty.equals(empty));
+		assertTrue(g1.equals(g1));
+	}
+
+	@Test
+	public void testClone() {
+		OccupancyGrid clone = g1.clone();
+		assertEquals(g1.toString(), clone.toString());
+		assertEquals(g1.toJsonObject(), clone.toJsonObject());
+		assertEquals(g1.getMessageType(), clone.getMessageType());
+		assertArrayEquals(g1.getData(), clone.getData());
+		assertNotSame(g1, clone);
+		assertNotSame(g1.getData(), clone.getData());
+	}
+
+	@Test
+	public void testFromJsonString() {
+		OccupancyGrid p = OccupancyGrid.fromJsonString(g1.toString());
+		assertEquals(g1.toString(), p.toString());
+		assertEquals(g1.toJsonObject(), p.toJsonObject());
+		assertNotSame(g1, p);
+	}
+
+	@Test
+	public void testFromMessage() {
+		Message m = new Message(g1.toString());
+		OccupancyGrid p = OccupancyGrid.fromMessage(m);
+		assertEquals(g1.toString(), p.toString());
+		assertEquals(g1.toJsonObject(), p.toJsonObject());
+		assertNotSame(g1, p);
+	}
+
+	@Test
+	public void testFromJsonObject() {
+		JsonObject jsonObject = Json.createObjectBuilder()
+				.add(OccupancyGrid.FIELD_HEADER, g1.getHeader().toJsonObject())
+				.add(OccupancyGrid.FIELD_INFO, g1.getInfo().toJsonObject())
+				.add(OccupancyGrid.FIELD_DATA,
+						Json.createArrayBuilder().add(-1).add(0).add(100)
+								.add(50).add(-1).add(0)).build();
+		OccupancyGrid p = OccupancyGrid.fromJsonObject(jsonObject);
+		assertEquals(g1.toString(), p.toString());
+	}
+
+	@Test
+	public void testFromJsonObjectNoFields() {
+		OccupancyGrid p = OccupancyGrid.fromJsonObject(Json
+				.createObjectBuilder().build());
+		assertEquals(empty.toString(), p.toString());
+	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(g1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		OccupancyGrid x = OccupancyGrid.fromJsonParser(parser);
+		assertEquals(g1.toString(), x.toString());
+		assertEquals(g1.toJsonObject(), x.toJsonObject());
+		assertEquals(OccupancyGrid.UNKNOWN, x.get(1, 1));
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		OccupancyGrid x = OccupancyGrid.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testDecode() {
+		OccupancyGrid x = MessageDecoders.decode(OccupancyGrid.class,
+				g1.toString());
+		assertEquals(g1.toString(), x.toString());
+	}
+}
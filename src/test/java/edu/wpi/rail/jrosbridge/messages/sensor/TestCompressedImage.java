@@ -0,0 +1,185 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+public class TestCompressedImage {
+
+	private CompressedImage empty, c1;
+
+	@Before
+	public void setUp() {
+		empty = new CompressedImage();
+		c1 = new CompressedImage(new Header(5, new Time(10, 20), "camera"),
+				"png", new byte[] { (byte) 0x89, 'P', 'N', 'G' });
+	}
+
+	@Test
+	public void testConstructor() {
+		assertEquals(new Header(), empty.getHeader());
+		assertEquals("", empty.getFormat());
+		assertEquals(0, empty.size());
+		assertEquals(0, empty.getData().remaining());
+
+		assertEquals("{\"header\":" + new Header().toString()
+				+ ",\"format\":\"\",\"data\":\"\"}", empty.toString());
+
+		assertEquals(3, empty.toJsonObject().size());
+		assertEquals(CompressedImage.TYPE, empty.getMessageType());
+	}
+
+	@Test
+	public void testFullConstructor() {
+		assertEquals(new Header(5, new Time(10, 20), "camera"),
+				c1.getHeader());
+		assertEquals("png", c1.getFormat());
+		assertEquals(4, c1.size());
+
+		assertEquals("{\"header\":" + c1.getHeader().toString()
+				+ ",\"format\":\"png\",\"data\":\"iVBORw==\"}", c1.toString());
+	}
+
+	@Test
+	public void testGetData() {
+		ByteBuffer data = c1.getData();
+		assertTrue(data.isReadOnly());
+		assertEquals(4, data.remaining());
+		assertEquals((byte) 0x89, data.get());
+		assertEquals(0, c1.getData().position());
+	}
+
+	@Test(expected = ReadOnlyBufferException.class)
+	public void testGetDataReadOnly() {
+		c1.getData().put(0, (byte) 5);
+	}
+
+	@Test
+	public void testDataNotShared() {
+		byte[] data = new byte[] { 1, 2 };
+		CompressedImage c = new CompressedImage(new Header(), "jpeg", data);
+		data[0] = 5;
+		assertEquals((byte) 1, c.getData().get(0));
+	}
+
+	@Test
+	public void testByteBufferConstructor() {
+		ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 9, 1, 2 });
+		buffer.position(1);
+		CompressedImage c = new CompressedImage(new Header(), "jpeg", buffer);
+		assertEquals(2, c.size());
+		assertEquals((byte) 1, c.getData().get(0));
+		assertEquals(1, buffer.position());
+	}
+
+	@Test
+	public void testSetMessageType() {
+		empty.setMessageType("test");
+		assertEquals("test", empty.getMessageType());
+	}
+
+	@Test
+	public void testHashCode() {
+		assertEquals(empty.toString().hashCode(), empty.hashCode());
+		assertEquals(c1.toString().hashCode(), c1.hashCode());
+	}
+
+	@Test
+	public void testEquals() {
+		assertFalse(empty.equals(c1));
+		assertFalse(c1.equals(empty));
+
+		assertTrue(empty.equals(empty));
+		assertTrue(c1.equals(c1));
+	}
+
+	@Test
+	public void testClone() {
+		CompressedImage clone = c1.clone();
+		assertEquals(c1.toString(), clone.toString());
+		assertEquals(c1.toJsonObject(), clone.toJsonObject());
+		assertEquals(c1.getMessageType(), clone.getMessageType());
+		assertEquals(c1.getData(), clone.getData());
+		assertNotSame(c1, clone);
+	}
+
+	@Test
+	public void testFromJsonString() {
+		CompressedImage p = CompressedImage.fromJsonString(c1.toString());
+		assertEquals(c1.toString(), p.toString());
+		assertEquals(c1.toJsonObject(), p.toJsonObject());
+		assertEquals(c1.getData(), p.getData());
+		assertNotSame(c1, p);
+	}
+
+	@Test
+	public void testFromMessage() {
+		Message m = new Message(c1.toString());
+		CompressedImage p = CompressedImage.fromMessage(m);
+		assertEquals(c1.toString(), p.toString());
+		assertEquals(c1.toJsonObject(), p.toJsonObject());
+		assertNotSame(c1, p);
+	}
+
+	@Test
+	public void testFromJsonObject() {
+		JsonObject jsonObject = Json.createObjectBuilder()
+				.add(CompressedImage.FIELD_HEADER,
+						c1.getHeader().toJsonObject())
+				.add(CompressedImage.FIELD_FORMAT, "png")
+				.add(CompressedImage.FIELD_DATA, "iVBORw==").build();
+		CompressedImage p = CompressedImage.fromJsonObject(jsonObject);
+		assertEquals(c1.toString(), p.toString());
+		assertEquals(c1.getData(), p.getData());
+	}
+
+	@Test
+	public void testFromJsonObjectNoFields() {
+		CompressedImage p = CompressedImage.fromJsonObject(Json
+				.createObjectBuilder().build());
+		assertEquals(empty.toString(), p.toString());
+	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(c1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		CompressedImage x = CompressedImage.fromJsonParser(parser);
+		assertEquals(c1.toString(), x.toString());
+		assertEquals(c1.getData(), x.getData());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		CompressedImage x = CompressedImage.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testDecode() {
+		CompressedImage x = MessageDecoders.decode(CompressedImage.class,
+				c1.toString());
+		assertEquals(c1.toString(), x.toString());
+	}
+}
@@ -0,0 +1,302 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+import java.util.Base64;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+public class TestImage {
+
+	private Image empty, i1;
+
+	@Before
+	public void setUp() {
+		empty = new Image();
+		// 2x2 rgb8 with a padding byte at the end of each row
+		i1 = new Image(new Header(5, new Time(10, 20), "camera"), 2, 2,
+				ImageEncodings.RGB8, false, 7, new byte[] { 1, 2, 3, 4, 5, 6,
+						0, 7, 8, 9, 10, 11, (byte) 255, 0 });
+	}
+
+	@Test
+	public void testConstructor() {
+		assertEquals(new Header(), empty.getHeader());
+		assertEquals(0, empty.getHeight());
+		assertEquals(0, empty.getWidth());
+		assertEquals("", empty.getEncoding());
+		assertFalse(empty.isBigEndian());
+		assertEquals(0, empty.getStep());
+		assertEquals(0, empty.size());
+		assertEquals(0, empty.getData().remaining());
+
+		assertEquals("{\"header\":" + new Header().toString()
+				+ ",\"height\":0,\"width\":0,\"encoding\":\"\","
+				+ "\"is_bigendian\":0,\"step\":0,\"data\":\"\"}",
+				empty.toString());
+
+		assertEquals(7, empty.toJsonObject().size());
+		assertEquals(Image.TYPE, empty.getMessageType());
+	}
+
+	@Test
+	public void testFullConstructor() {
+		assertEquals(new Header(5, new Time(10, 20), "camera"),
+				i1.getHeader());
+		assertEquals(2, i1.getHeight());
+		assertEquals(2, i1.getWidth());
+		assertEquals(ImageEncodings.RGB8, i1.getEncoding());
+		assertFalse(i1.isBigEndian());
+		assertEquals(ByteOrder.LITTLE_ENDIAN, i1.getByteOrder());
+		assertEquals(7, i1.getStep());
+		assertEquals(3, i1.getBytesPerPixel());
+		assertEquals(14, i1.size());
+
+		JsonObject json = i1.toJsonObject();
+		assertEquals(2, json.getInt(Image.FIELD_HEIGHT));
+		assertEquals(2, json.getInt(Image.FIELD_WIDTH));
+		assertEquals("rgb8", json.getString(Image.FIELD_ENCODING));
+		assertEquals(0, json.getInt(Image.FIELD_IS_BIGENDIAN));
+		assertEquals(7, json.getInt(Image.FIELD_STEP));
+		assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6, 0, 7, 8, 9, 10, 11,
+				(byte) 255, 0 }, Base64.getDecoder().decode(
+				json.getString(Image.FIELD_DATA)));
+	}
+
+	@Test
+	public void testUnsignedFields() {
+		Image i = new Image(new Header(), -1, -2, "", true, -3, new byte[] {});
+		JsonObject json = i.toJsonObject();
+		assertEquals(4294967295L, json.getJsonNumber(Image.FIELD_HEIGHT)
+				.longValue());
+		assertEquals(4294967294L, json.getJsonNumber(Image.FIELD_WIDTH)
+				.longValue());
+		assertEquals(4294967293L, json.getJsonNumber(Image.FIELD_STEP)
+				.longValue());
+		assertEquals(1, json.getInt(Image.FIELD_IS_BIGENDIAN));
+
+		Image p = Image.fromJsonObject(json);
+		assertEquals(-1, p.getHeight());
+		assertEquals(-2, p.getWidth());
+		assertEquals(-3, p.getStep());
+		assertTrue(p.isBigEndian());
+	}
+
+	@Test
+	public void testGetData() {
+		ByteBuffer data = i1.getData();
+		assertTrue(data.isReadOnly());
+		assertEquals(0, data.position());
+		assertEquals(14, data.remaining());
+		assertEquals(ByteOrder.LITTLE_ENDIAN, data.order());
+		assertEquals((byte) 1, data.get());
+
+		// each view is independent
+		assertEquals(0, i1.getData().position());
+	}
+
+	@Test(expected = ReadOnlyBufferException.class)
+	public void testGetDataReadOnly() {
+		i1.getData().put(0, (byte) 5);
+	}
+
+	@Test
+	public void testDataNotShared() {
+		byte[] data = new byte[] { 1, 2, 3 };
+		Image i = new Image(new Header(), 1, 1, ImageEncodings.RGB8, false, 3,
+				data);
+		data[0] = 5;
+		assertEquals((byte) 1, i.getData().get(0));
+	}
+
+	@Test
+	public void testByteBufferConstructor() {
+		ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 9, 1, 2 });
+		buffer.position(1);
+		Image i = new Image(new Header(), 1, 1, ImageEncodings.MONO16, false,
+				2, buffer);
+		assertEquals(2, i.size());
+		assertEquals((byte) 1, i.getData().get(0));
+		assertEquals(1, buffer.position());
+		assertEquals(0x0201, i.getRow(0).getShort(0));
+	}
+
+	@Test
+	public void testGetRow() {
+		ByteBuffer row = i1.getRow(1);
+		assertTrue(row.isReadOnly());
+		assertEquals(0, row.position());
+		assertEquals(6, row.remaining());
+		assertEquals((byte) 7, row.get(0));
+		assertEquals((byte) 255, row.get(5));
+		assertEquals((byte) 1, i1.getRow(0).get(0));
+		assertEquals(6, i1.getRow(0).remaining());
+	}
+
+	@Test
+	public void testGetRowByteOrder() {
+		byte[] data = new byte[] { 1, 2, 3, 4 };
+		Image little = new Image(new Header(), 1, 2, ImageEncodings.MONO16,
+				false, 4, data);
+		Image big = new Image(new Header(), 1, 2, ImageEncodings.MONO16, true,
+				4, data);
+		assertEquals(0x0201, little.getRow(0).getShort(0));
+		assertEquals(0x0403, little.getRow(0).getShort(2));
+		assertEquals(0x0102, big.getRow(0).getShort(0));
+		assertEquals(0x0304, big.getRow(0).getShort(2));
+		assertEquals(ByteOrder.BIG_ENDIAN, big.getData().order());
+	}
+
+	@Test
+	public void testGetRowUnknownEncoding() {
+		Image i = new Image(new Header(), 2, 2, "unknown", false, 3,
+				new byte[] { 1, 2, 3, 4, 5, 6 });
+		assertEquals(0, i.getBytesPerPixel());
+		assertEquals(3, i.getRow(1).remaining());
+		assertEquals((byte) 4, i.getRow(1).get(0));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetRowNegative() {
+		i1.getRow(-1);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetRowTooLarge() {
+		i1.getRow(2);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetRowShortData() {
+		new Image(new Header(), 2, 2, ImageEncodings.RGB8, false, 6,
+				new byte[] { 1, 2, 3, 4, 5, 6, 7 }).getRow(1);
+	}
+
+	@Test
+	public void testSetMessageType() {
+		empty.setMessageType("test");
+		assertEquals("test", empty.getMessageType());
+	}
+
+	@Test
+	public void testHashCode() {
+		assertEquals(empty.toString().hashCode(), empty.hashCode());
+		assertEquals(i1.toString().hashCode(), i1.hashCode());
+	}
+
+	@Test
+	public void testEquals() {
+		assertFalse(empty.equals(i1));
+		assertFalse(i1.equals(empty));
+
+		assertTrue(empty.equals(empty));
+		assertTrue(i1.equals(i1));
+	}
+
+	@Test
+	public void testClone() {
+		Image clone = i1.clone();
+		assertEquals(i1.toString(), clone.toString());
+		assertEquals(i1.toJsonObject(), clone.toJsonObject());
+		assertEquals(i1.getMessageType(), clone.getMessageType());
+		assertEquals(i1.getHeader(), clone.getHeader());
+		assertEquals(i1.getData(), clone.getData());
+		assertNotSame(i1, clone);
+		assertNotSame(i1.toString(), clone.toString());
+	}
+
+	@Test
+	public void testFromJsonString() {
+		Image p = Image.fromJsonString(i1.toString());
+		assertEquals(i1.toString(), p.toString());
+		assertEquals(i1.toJsonObject(), p.toJsonObject());
+		assertEquals(i1.getMessageType(), p.getMessageType());
+		assertEquals(i1.getData(), p.getData());
+		assertNotSame(i1, p);
+	}
+
+	@Test
+	public void testFromMessage() {
+		Message m = new Message(i1.toString());
+		Image p = Image.fromMessage(m);
+		assertEquals(i1.toString(), p.toString());
+		assertEquals(i1.toJsonObject(), p.toJsonObject());
+		assertEquals(i1.getData(), p.getData());
+		assertNotSame(i1, p);
+	}
+
+	@Test
+	public void testFromJsonObject() {
+		JsonObject jsonObject = Json.createObjectBuilder()
+				.add(Image.FIELD_HEADER, i1.getHeader().toJsonObject())
+				.add(Image.FIELD_HEIGHT, 2).add(Image.FIELD_WIDTH, 2)
+				.add(Image.FIELD_ENCODING, "rgb8")
+				.add(Image.FIELD_IS_BIGENDIAN, 0).add(Image.FIELD_STEP, 7)
+				.add(Image.FIELD_DATA, "AQIDBAUGAAcICQoL/wA=").build();
+		Image p = Image.fromJsonObject(jsonObject);
+		assertEquals(i1.toString(), p.toString());
+		assertEquals(i1.toJsonObject(), p.toJsonObject());
+	}
+
+	@Test
+	public void testFromJsonObjectNumbers() {
+		JsonObject jsonObject = Json.createObjectBuilder()
+				.add(Image.FIELD_DATA,
+						Json.createArrayBuilder().add(0).add(128).add(255))
+				.build();
+		Image p = Image.fromJsonObject(jsonObject);
+		assertEquals(3, p.size());
+		assertEquals((byte) 128, p.getData().get(1));
+		assertEquals("AID/", p.toJsonObject().getString(Image.FIELD_DATA));
+	}
+
+	@Test
+	public void testFromJsonObjectNoFields() {
+		Image p = Image.fromJsonObject(Json.createObjectBuilder().build());
+		assertEquals(empty.toString(), p.toString());
+	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(i1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		Image x = Image.fromJsonParser(parser);
+		assertEquals(i1.toString(), x.toString());
+		assertEquals(i1.toJsonObject(), x.toJsonObject());
+		assertEquals(i1.getData(), x.getData());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		Image x = Image.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testDecode() {
+		Image x = MessageDecoders.decode(Image.class, i1.toString());
+		assertEquals(i1.toString(), x.toString());
+		assertEquals((byte) 7, x.getRow(1).get(0));
+	}
+}
@@ -0,0 +1,73 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestImageEncodings {
+
+	@Test
+	public void testNamed() {
+		assertEquals(3, ImageEncodings.getChannels(ImageEncodings.RGB8));
+		assertEquals(8, ImageEncodings.getBitDepth(ImageEncodings.RGB8));
+		assertEquals(3, ImageEncodings.getBytesPerPixel(ImageEncodings.RGB8));
+
+		assertEquals(4, ImageEncodings.getChannels(ImageEncodings.BGRA16));
+		assertEquals(16, ImageEncodings.getBitDepth(ImageEncodings.BGRA16));
+		assertEquals(8, ImageEncodings.getBytesPerPixel(ImageEncodings.BGRA16));
+
+		assertEquals(1, ImageEncodings.getChannels(ImageEncodings.MONO8));
+		assertEquals(2, ImageEncodings.getBytesPerPixel(ImageEncodings.MONO16));
+		assertEquals(2, ImageEncodings.getBytesPerPixel(ImageEncodings.YUV422));
+		assertEquals(2,
+				ImageEncodings.getBytesPerPixel(ImageEncodings.YUV422_YUY2));
+	}
+
+	@Test
+	public void testBayer() {
+		assertEquals(1, ImageEncodings.getChannels("bayer_rggb8"));
+		assertEquals(8, ImageEncodings.getBitDepth("bayer_rggb8"));
+		assertEquals(2, ImageEncodings.getBytesPerPixel("bayer_gbrg16"));
+		assertFalse(ImageEncodings.isKnown("bayer_rgbg8"));
+		assertFalse(ImageEncodings.isKnown("bayer_rggb32"));
+	}
+
+	@Test
+	public void testGeneric() {
+		assertEquals(1, ImageEncodings.getChannels("32FC1"));
+		assertEquals(4, ImageEncodings.getBytesPerPixel("32FC1"));
+		assertEquals(3, ImageEncodings.getChannels("8UC3"));
+		assertEquals(3, ImageEncodings.getBytesPerPixel("8UC3"));
+		assertEquals(1, ImageEncodings.getChannels("16SC"));
+		assertEquals(16, ImageEncodings.getBitDepth("16SC"));
+		assertEquals(32, ImageEncodings.getBytesPerPixel("64FC4"));
+		assertEquals(10, ImageEncodings.getChannels("8UC10"));
+	}
+
+	@Test
+	public void testGenericInvalid() {
+		assertFalse(ImageEncodings.isKnown("8FC1"));
+		assertFalse(ImageEncodings.isKnown("16FC1"));
+		assertFalse(ImageEncodings.isKnown("64UC1"));
+		assertFalse(ImageEncodings.isKnown("64SC1"));
+		assertFalse(ImageEncodings.isKnown("8UC0"));
+		assertFalse(ImageEncodings.isKnown("12UC1"));
+	}
+
+	@Test
+	public void testUnknown() {
+		assertFalse(ImageEncodings.isKnown("unknown"));
+		assertFalse(ImageEncodings.isKnown(""));
+		assertFalse(ImageEncodings.isKnown(null));
+		assertEquals(0, ImageEncodings.getChannels("unknown"));
+		assertEquals(0, ImageEncodings.getBitDepth("unknown"));
+		assertEquals(0, ImageEncodings.getBytesPerPixel(null));
+	}
+
+	@Test
+	public void testKnown() {
+		assertTrue(ImageEncodings.isKnown(ImageEncodings.RGB8));
+		assertTrue(ImageEncodings.isKnown("bayer_grbg8"));
+		assertTrue(ImageEncodings.isKnown("32SC2"));
+	}
+}
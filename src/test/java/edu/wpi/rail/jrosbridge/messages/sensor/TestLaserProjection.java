@@ -0,0 +1,115 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+
+public class TestLaserProjection {
+
+	private LaserProjection projection;
+	private LaserScan scan;
+
+	@Before
+	public void setUp() {
+		projection = new LaserProjection();
+		// beams at -90, 0, 90, and 180 degrees
+		scan = new LaserScan(new Header(), (float) -Math.PI / 2,
+				(float) Math.PI, (float) Math.PI / 2, 0, 0, 0.5f, 10f,
+				new float[] { 1f, 2f, 3f, 4f }, new float[] {});
+	}
+
+	@Test
+	public void testProject() {
+		float[][] points = projection.project(scan);
+		assertEquals(2, points.length);
+		assertArrayEquals(new float[] { 0f, 2f, 0f, -4f }, points[0], 1e-6f);
+		assertArrayEquals(new float[] { -1f, 0f, 3f, 0f }, points[1], 1e-6f);
+	}
+
+	@Test
+	public void testProjectSkipsInvalid() {
+		LaserScan s = new LaserScan(new Header(), 0, 0, 0, 0, 0, 0.5f, 10f,
+				new float[] { 0.25f, 1f, Float.NaN, Float.POSITIVE_INFINITY,
+						11f, 2f }, new float[] {});
+		float[][] points = projection.project(s);
+		assertArrayEquals(new float[] { 1f, 2f }, points[0], 0);
+		assertArrayEquals(new float[] { 0f, 0f }, points[1], 0);
+	}
+
+	@Test
+	public void testProjectIntoArrays() {
+		float[] x = new float[6];
+		float[] y = new float[6];
+		assertEquals(4, projection.project(scan, x, y));
+		assertEquals(2f, x[1], 1e-6f);
+		assertEquals(3f, y[2], 1e-6f);
+		assertEquals(0f, x[4], 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testProjectIntoShortArrays() {
+		projection.project(scan, new float[4], new float[3]);
+	}
+
+	@Test
+	public void testProjectEmpty() {
+		float[][] points = projection.project(new LaserScan());
+		assertEquals(0, points[0].length);
+		assertEquals(0, points[1].length);
+	}
+
+	@Test
+	public void testTableCached() {
+		assertEquals(0, projection.getCacheSize());
+		float[][] table = projection.getTable(0.1f, 0.01f, 360);
+		assertEquals(1, projection.getCacheSize());
+		assertEquals(360, table[0].length);
+		assertEquals(360, table[1].length);
+		assertEquals((float) Math.cos(0.1f + 5 * (double) 0.01f),
+				table[0][5], 0);
+		assertEquals((float) Math.sin(0.1f + 5 * (double) 0.01f),
+				table[1][5], 0);
+		assertSame(table, projection.getTable(0.1f, 0.01f, 360));
+		assertEquals(1, projection.getCacheSize());
+
+		// any change of geometry gives a new table
+		assertNotSame(table, projection.getTable(0.1f, 0.01f, 361));
+		assertNotSame(table, projection.getTable(0.2f, 0.01f, 360));
+		assertNotSame(table, projection.getTable(0.1f, 0.02f, 360));
+		assertEquals(4, projection.getCacheSize());
+	}
+
+	@Test
+	public void testProjectUsesCache() {
+		projection.project(scan);
+		projection.project(scan.clone());
+		assertEquals(1, projection.getCacheSize());
+	}
+
+	@Test
+	public void testCacheEvictsLeastRecentlyUsed() {
+		LaserProjection p = new LaserProjection(2);
+		float[][] a = p.getTable(0, 0.1f, 10);
+		float[][] b = p.getTable(0, 0.2f, 10);
+		assertSame(a, p.getTable(0, 0.1f, 10));
+		p.getTable(0, 0.3f, 10);
+		assertEquals(2, p.getCacheSize());
+		assertSame(a, p.getTable(0, 0.1f, 10));
+		assertNotSame(b, p.getTable(0, 0.2f, 10));
+	}
+
+	@Test
+	public void testClear() {
+		projection.project(scan);
+		projection.clear();
+		assertEquals(0, projection.getCacheSize());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidCacheSize() {
+		new LaserProjection(0);
+	}
+}
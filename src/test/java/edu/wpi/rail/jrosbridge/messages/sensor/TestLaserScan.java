@@ -0,0 +1,216 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+public class TestLaserScan {
+
+	private LaserScan empty, s1;
+
+	@Before
+	public void setUp() {
+		empty = new LaserScan();
+		s1 = new LaserScan(new Header(1, new Time(2, 3), "laser"), -0.5f,
+				0.5f, 0.5f, 0.25f, 0.125f, 0.5f, 10f, new float[] { 1.5f,
+						Float.POSITIVE_INFINITY, Float.NaN }, new float[] {
+						100f, 0f, 50f });
+	}
+
+	@Test
+	public void testConstructor() {
+		assertEquals(new Header(), empty.getHeader());
+		assertEquals(0, empty.getAngleMin(), 0);
+		assertEquals(0, empty.getAngleMax(), 0);
+		assertEquals(0, empty.getAngleIncrement(), 0);
+		assertEquals(0, empty.getTimeIncrement(), 0);
+		assertEquals(0, empty.getScanTime(), 0);
+		assertEquals(0, empty.getRangeMin(), 0);
+		assertEquals(0, empty.getRangeMax(), 0);
+		assertEquals(0, empty.size());
+		assertEquals(0, empty.getRanges().length);
+		assertEquals(0, empty.getIntensities().length);
+
+		assertEquals("{\"header\":" + new Header().toString()
+				+ ",\"angle_min\":0.0,\"angle_max\":0.0,"
+				+ "\"angle_increment\":0.0,\"time_increment\":0.0,"
+				+ "\"scan_time\":0.0,\"range_min\":0.0,\"range_max\":0.0,"
+				+ "\"ranges\":[],\"intensities\":[]}", empty.toString());
+
+		assertEquals(10, empty.toJsonObject().size());
+		assertEquals(LaserScan.TYPE, empty.getMessageType());
+	}
+
+	@Test
+	public void testFullConstructor() {
+		assertEquals(new Header(1, new Time(2, 3), "laser"), s1.getHeader());
+		assertEquals(-0.5f, s1.getAngleMin(), 0);
+		assertEquals(0.5f, s1.getAngleMax(), 0);
+		assertEquals(0.5f, s1.getAngleIncrement(), 0);
+		assertEquals(0.25f, s1.getTimeIncrement(), 0);
+		assertEquals(0.125f, s1.getScanTime(), 0);
+		assertEquals(0.5f, s1.getRangeMin(), 0);
+		assertEquals(10f, s1.getRangeMax(), 0);
+		assertEquals(3, s1.size());
+		assertEquals(1.5f, s1.getRange(0), 0);
+		assertArrayEquals(new float[] { 100f, 0f, 50f },
+				s1.getIntensities(), 0);
+
+		assertEquals("{\"header\":" + s1.getHeader().toString()
+				+ ",\"angle_min\":-0.5,\"angle_max\":0.5,"
+				+ "\"angle_increment\":0.5,\"time_increment\":0.25,"
+				+ "\"scan_time\":0.125,\"range_min\":0.5,\"range_max\":10.0,"
+				+ "\"ranges\":[1.5,null,null],"
+				+ "\"intensities\":[100.0,0.0,50.0]}", s1.toString());
+	}
+
+	@Test
+	public void testIsValid() {
+		LaserScan s = new LaserScan(new Header(), 0, 0, 0, 0, 0, 1f, 5f,
+				new float[] { 0.5f, 1f, 3f, 5f, 6f, Float.NaN,
+						Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY },
+				new float[] {});
+		assertFalse(s.isValid(0));
+		assertTrue(s.isValid(1));
+		assertTrue(s.isValid(2));
+		assertTrue(s.isValid(3));
+		assertFalse(s.isValid(4));
+		assertFalse(s.isValid(5));
+		assertFalse(s.isValid(6));
+		assertFalse(s.isValid(7));
+	}
+
+	@Test
+	public void testArraysNotShared() {
+		float[] ranges = new float[] { 1f };
+		float[] intensities = new float[] { 2f };
+		LaserScan s = new LaserScan(new Header(), 0, 0, 0, 0, 0, 0, 0,
+				ranges, intensities);
+		ranges[0] = 5f;
+		intensities[0] = 5f;
+		assertEquals(1f, s.getRange(0), 0);
+		assertEquals(2f, s.getIntensities()[0], 0);
+	}
+
+	@Test
+	public void testSetMessageType() {
+		empty.setMessageType("test");
+		assertEquals("test", empty.getMessageType());
+	}
+
+	@Test
+	public void testHashCode() {
+		assertEquals(empty.toString().hashCode(), empty.hashCode());
+		assertEquals(s1.toString().hashCode(), s1.hashCode());
+	}
+
+	@Test
+	public void testEquals() {
+		assertFalse(empty.equals(s1));
+		assertFalse(s1.equals(empty));
+
+		assertTrue(empty.equals(empty));
+		assertTrue(s1.equals(s1));
+	}
+
+	@Test
+	public void testClone() {
+		LaserScan clone = s1.clone();
+		assertEquals(s1.toString(), clone.toString());
+		assertEquals(s1.toJsonObject(), clone.toJsonObject());
+		assertEquals(s1.getMessageType(), clone.getMessageType());
+		assertArrayEquals(s1.getRanges(), clone.getRanges(), 0);
+		assertNotSame(s1, clone);
+		assertNotSame(s1.getRanges(), clone.getRanges());
+		assertNotSame(s1.getIntensities(), clone.getIntensities());
+	}
+
+	@Test
+	public void testFromJsonString() {
+		LaserScan p = LaserScan.fromJsonString(s1.toString());
+		assertEquals(s1.toString(), p.toString());
+		assertEquals(s1.toJsonObject(), p.toJsonObject());
+		assertEquals(1.5f, p.getRange(0), 0);
+		assertTrue(Float.isNaN(p.getRange(1)));
+		assertTrue(Float.isNaN(p.getRange(2)));
+		assertNotSame(s1, p);
+	}
+
+	@Test
+	public void testFromMessage() {
+		Message m = new Message(s1.toString());
+		LaserScan p = LaserScan.fromMessage(m);
+		assertEquals(s1.toString(), p.toString());
+		assertEquals(s1.toJsonObject(), p.toJsonObject());
+		assertNotSame(s1, p);
+	}
+
+	@Test
+	public void testFromJsonObject() {
+		JsonObject jsonObject = Json.createObjectBuilder()
+				.add(LaserScan.FIELD_HEADER, s1.getHeader().toJsonObject())
+				.add(LaserScan.FIELD_ANGLE_MIN, -0.5)
+				.add(LaserScan.FIELD_ANGLE_MAX, 0.5)
+				.add(LaserScan.FIELD_ANGLE_INCREMENT, 0.5)
+				.add(LaserScan.FIELD_TIME_INCREMENT, 0.25)
+				.add(LaserScan.FIELD_SCAN_TIME, 0.125)
+				.add(LaserScan.FIELD_RANGE_MIN, 0.5)
+				.add(LaserScan.FIELD_RANGE_MAX, 10)
+				.add(LaserScan.FIELD_RANGES,
+						Json.createArrayBuilder().add(1.5).addNull().addNull())
+				.add(LaserScan.FIELD_INTENSITIES,
+						Json.createArrayBuilder().add(100).add(0).add(50))
+				.build();
+		LaserScan p = LaserScan.fromJsonObject(jsonObject);
+		assertEquals(s1.toString(), p.toString());
+	}
+
+	@Test
+	public void testFromJsonObjectNoFields() {
+		LaserScan p = LaserScan.fromJsonObject(Json.createObjectBuilder()
+				.build());
+		assertEquals(empty.toString(), p.toString());
+	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(s1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		LaserScan x = LaserScan.fromJsonParser(parser);
+		assertEquals(s1.toString(), x.toString());
+		assertEquals(s1.toJsonObject(), x.toJsonObject());
+		assertEquals(3, x.size());
+		assertTrue(Float.isNaN(x.getRange(1)));
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		LaserScan x = LaserScan.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testDecode() {
+		LaserScan x = MessageDecoders.decode(LaserScan.class, s1.toString());
+		assertEquals(s1.toString(), x.toString());
+	}
+}
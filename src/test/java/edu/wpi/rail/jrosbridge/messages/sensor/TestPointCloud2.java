@@ -0,0 +1,237 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ReadOnlyBufferException;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+import edu.wpi.rail.jrosbridge.messages.MessageDecoders;
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+import edu.wpi.rail.jrosbridge.primitives.Time;
+
+public class TestPointCloud2 {
+
+	private PointCloud2 empty, c1;
+	private PointField[] fields;
+
+	@Before
+	public void setUp() {
+		empty = new PointCloud2();
+		fields = new PointField[] {
+				new PointField("x", 0, PointField.FLOAT32, 1),
+				new PointField("y", 4, PointField.FLOAT32, 1) };
+		ByteBuffer data = ByteBuffer.allocate(16).order(
+				ByteOrder.LITTLE_ENDIAN);
+		data.putFloat(1.5f).putFloat(2.5f).putFloat(-3f).putFloat(4f);
+		c1 = new PointCloud2(new Header(1, new Time(2, 3), "lidar"), 1, 2,
+				fields, false, 8, 16, data.array(), true);
+	}
+
+	@Test
+	public void testConstructor() {
+		assertEquals(new Header(), empty.getHeader());
+		assertEquals(0, empty.getHeight());
+		assertEquals(0, empty.getWidth());
+		assertEquals(0, empty.getNumFields());
+		assertFalse(empty.isBigEndian());
+		assertEquals(0, empty.getPointStep());
+		assertEquals(0, empty.getRowStep());
+		assertEquals(0, empty.size());
+		assertFalse(empty.isDense());
+		assertEquals(0, empty.getNumPoints());
+
+		assertEquals("{\"header\":" + new Header().toString()
+				+ ",\"height\":0,\"width\":0,\"fields\":[],"
+				+ "\"is_bigendian\":false,\"point_step\":0,\"row_step\":0,"
+				+ "\"data\":\"\",\"is_dense\":false}", empty.toString());
+
+		assertEquals(9, empty.toJsonObject().size());
+		assertEquals(PointCloud2.TYPE, empty.getMessageType());
+	}
+
+	@Test
+	public void testFullConstructor() {
+		assertEquals(new Header(1, new Time(2, 3), "lidar"), c1.getHeader());
+		assertEquals(1, c1.getHeight());
+		assertEquals(2, c1.getWidth());
+		assertEquals(2, c1.getNumFields());
+		assertEquals(fields[1], c1.getField(1));
+		assertArrayEquals(fields, c1.getFields());
+		assertFalse(c1.isBigEndian());
+		assertEquals(ByteOrder.LITTLE_ENDIAN, c1.getByteOrder());
+		assertEquals(8, c1.getPointStep());
+		assertEquals(16, c1.getRowStep());
+		assertEquals(16, c1.size());
+		assertTrue(c1.isDense());
+		assertEquals(2, c1.getNumPoints());
+
+		JsonObject json = c1.toJsonObject();
+		assertEquals(2, json.getJsonArray(PointCloud2.FIELD_FIELDS).size());
+		assertEquals(fields[0].toJsonObject(),
+				json.getJsonArray(PointCloud2.FIELD_FIELDS).getJsonObject(0));
+		assertTrue(json.getBoolean(PointCloud2.FIELD_IS_DENSE));
+		assertFalse(json.getBoolean(PointCloud2.FIELD_IS_BIGENDIAN));
+	}
+
+	@Test
+	public void testGetFieldIndex() {
+		assertEquals(0, c1.getFieldIndex("x"));
+		assertEquals(1, c1.getFieldIndex("y"));
+		assertEquals(-1, c1.getFieldIndex("z"));
+	}
+
+	@Test
+	public void testFieldsNotShared() {
+		PointField[] f = fields.clone();
+		PointCloud2 c = new PointCloud2(new Header(), 0, 0, f, false, 0, 0,
+				new byte[] {}, false);
+		f[0] = new PointField();
+		assertEquals(fields[0], c.getField(0));
+		c.getFields()[1] = new PointField();
+		assertEquals(fields[1], c.getField(1));
+	}
+
+	@Test
+	public void testGetData() {
+		ByteBuffer data = c1.getData();
+		assertTrue(data.isReadOnly());
+		assertEquals(ByteOrder.LITTLE_ENDIAN, data.order());
+		assertEquals(1.5f, data.getFloat(0), 0);
+		assertEquals(0, c1.getData().position());
+	}
+
+	@Test(expected = ReadOnlyBufferException.class)
+	public void testGetDataReadOnly() {
+		c1.getData().put(0, (byte) 5);
+	}
+
+	@Test
+	public void testDataNotShared() {
+		byte[] data = new byte[] { 1, 2, 3, 4 };
+		PointCloud2 c = new PointCloud2(new Header(), 1, 1, fields, false, 4,
+				4, data, true);
+		data[0] = 5;
+		assertEquals((byte) 1, c.getData().get(0));
+	}
+
+	@Test
+	public void testSetMessageType() {
+		empty.setMessageType("test");
+		assertEquals("test", empty.getMessageType());
+	}
+
+	@Test
+	public void testHashCode() {
+		assertEquals(empty.toString().hashCode(), empty.hashCode());
+		assertEquals(c1.toString().hashCode(), c1.hashCode());
+	}
+
+	@Test
+	public void testEquals() {
+		assertFalse(empty.equals(c1));
+		assertFalse(c1.equals(empty));
+
+		assertTrue(empty.equals(empty));
+		assertTrue(c1.equals(c1));
+	}
+
+	@Test
+	public void testClone() {
+		PointCloud2 clone = c1.clone();
+		assertEquals(c1.toString(), clone.toString());
+		assertEquals(c1.toJsonObject(), clone.toJsonObject());
+		assertEquals(c1.getMessageType(), clone.getMessageType());
+		assertEquals(c1.getData(), clone.getData());
+		assertNotSame(c1, clone);
+	}
+
+	@Test
+	public void testFromJsonString() {
+		PointCloud2 p = PointCloud2.fromJsonString(c1.toString());
+		assertEquals(c1.toString(), p.toString());
+		assertEquals(c1.toJsonObject(), p.toJsonObject());
+		assertEquals(c1.getData(), p.getData());
+		assertNotSame(c1, p);
+	}
+
+	@Test
+	public void testFromMessage() {
+		Message m = new Message(c1.toString());
+		PointCloud2 p = PointCloud2.fromMessage(m);
+		assertEquals(c1.toString(), p.toString());
+		assertEquals(c1.toJsonObject(), p.toJsonObject());
+		assertNotSame(c1, p);
+	}
+
+	@Test
+	public void testFromJsonObject() {
+		JsonObject jsonObject = Json.createObjectBuilder()
+				.add(PointCloud2.FIELD_HEADER, c1.getHeader().toJsonObject())
+				.add(PointCloud2.FIELD_HEIGHT, 1)
+				.add(PointCloud2.FIELD_WIDTH, 2)
+				.add(PointCloud2.FIELD_FIELDS,
+						Json.createArrayBuilder()
+								.add(fields[0].toJsonObject())
+								.add(fields[1].toJsonObject()))
+				.add(PointCloud2.FIELD_IS_BIGENDIAN, false)
+				.add(PointCloud2.FIELD_POINT_STEP, 8)
+				.add(PointCloud2.FIELD_ROW_STEP, 16)
+				.add(PointCloud2.FIELD_DATA,
+						c1.toJsonObject().getString(PointCloud2.FIELD_DATA))
+				.add(PointCloud2.FIELD_IS_DENSE, true).build();
+		PointCloud2 p = PointCloud2.fromJsonObject(jsonObject);
+		assertEquals(c1.toString(), p.toString());
+		assertEquals(c1.toJsonObject(), p.toJsonObject());
+	}
+
+	@Test
+	public void testFromJsonObjectNoFields() {
+		PointCloud2 p = PointCloud2.fromJsonObject(Json.createObjectBuilder()
+				.build());
+		assertEquals(empty.toString(), p.toString());
+	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(c1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		PointCloud2 x = PointCloud2.fromJsonParser(parser);
+		assertEquals(c1.toString(), x.toString());
+		assertEquals(c1.toJsonObject(), x.toJsonObject());
+		assertEquals(c1.getData(), x.getData());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		PointCloud2 x = PointCloud2.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testDecode() {
+		PointCloud2 x = MessageDecoders.decode(PointCloud2.class,
+				c1.toString());
+		assertEquals(c1.toString(), x.toString());
+		PointCursor cursor = x.cursor();
+		cursor.moveTo(1);
+		assertEquals(-3f, cursor.getX(), 0);
+		assertEquals(4f, cursor.getY(), 0);
+	}
+}
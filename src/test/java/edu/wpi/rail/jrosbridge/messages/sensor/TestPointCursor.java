@@ -0,0 +1,255 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.messages.std.Header;
+
+public class TestPointCursor {
+
+	// x, y, z as float32, padding, intensity as float32, ring as uint16
+	private static final PointField[] XYZI = new PointField[] {
+			new PointField("x", 0, PointField.FLOAT32, 1),
+			new PointField("y", 4, PointField.FLOAT32, 1),
+			new PointField("z", 8, PointField.FLOAT32, 1),
+			new PointField("intensity", 16, PointField.FLOAT32, 1),
+			new PointField("ring", 20, PointField.UINT16, 1) };
+
+	private PointCloud2 cloud;
+
+	@Before
+	public void setUp() {
+		// 2 rows of 2 points, with 8 bytes of padding at the end of each row
+		ByteBuffer data = ByteBuffer.allocate(2 * (2 * 24 + 8)).order(
+				ByteOrder.LITTLE_ENDIAN);
+		for (int row = 0; row < 2; row++) {
+			for (int col = 0; col < 2; col++) {
+				int i = row * 2 + col;
+				int base = row * 56 + col * 24;
+				data.putFloat(base, i);
+				data.putFloat(base + 4, i * 10);
+				data.putFloat(base + 8, i * 100);
+				data.putFloat(base + 16, 0.5f * i);
+				data.putShort(base + 20, (short) (65535 - i));
+			}
+		}
+		cloud = new PointCloud2(new Header(), 2, 2, XYZI, false, 24, 56,
+				data.array(), true);
+	}
+
+	@Test
+	public void testNext() {
+		PointCursor cursor = cloud.cursor();
+		assertEquals(4, cursor.getNumPoints());
+		assertEquals(-1, cursor.getIndex());
+		for (int i = 0; i < 4; i++) {
+			assertTrue(cursor.next());
+			assertEquals(i, cursor.getIndex());
+			assertEquals(i, cursor.getX(), 0);
+			assertEquals(i * 10, cursor.getY(), 0);
+			assertEquals(i * 100, cursor.getZ(), 0);
+			assertEquals(0.5f * i, cursor.getIntensity(), 0);
+			assertEquals(65535 - i, cursor.getDouble(4), 0);
+			assertEquals(65535 - i, cursor.getFloat(4), 0);
+		}
+		assertFalse(cursor.next());
+		assertFalse(cursor.next());
+		assertEquals(4, cursor.getIndex());
+	}
+
+	@Test
+	public void testReset() {
+		PointCursor cursor = cloud.cursor();
+		while (cursor.next()) {
+		}
+		cursor.reset();
+		assertEquals(-1, cursor.getIndex());
+		assertTrue(cursor.next());
+		assertEquals(0, cursor.getX(), 0);
+		assertTrue(cursor.next());
+		assertEquals(1, cursor.getX(), 0);
+	}
+
+	@Test
+	public void testMoveTo() {
+		PointCursor cursor = cloud.cursor();
+		cursor.moveTo(2);
+		assertEquals(2, cursor.getIndex());
+		assertEquals(2, cursor.getX(), 0);
+		cursor.moveTo(1);
+		assertEquals(1, cursor.getX(), 0);
+		assertTrue(cursor.next());
+		assertEquals(2, cursor.getX(), 0);
+		assertTrue(cursor.next());
+		assertEquals(3, cursor.getX(), 0);
+		assertFalse(cursor.next());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testMoveToNegative() {
+		cloud.cursor().moveTo(-1);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testMoveToTooLarge() {
+		cloud.cursor().moveTo(4);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetBeforeFirst() {
+		cloud.cursor().getX();
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetAfterLast() {
+		PointCursor cursor = cloud.cursor();
+		while (cursor.next()) {
+		}
+		cursor.getX();
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetShortData() {
+		PointCloud2 c = new PointCloud2(new Header(), 1, 2, XYZI, false, 24,
+				48, new byte[30], true);
+		PointCursor cursor = c.cursor();
+		cursor.moveTo(1);
+		cursor.getIntensity();
+	}
+
+	@Test
+	public void testMissingFields() {
+		PointCloud2 c = new PointCloud2(new Header(), 1, 1,
+				new PointField[] { new PointField("x", 0, PointField.FLOAT32,
+						1) }, false, 4, 4, new byte[4], true);
+		PointCursor cursor = c.cursor();
+		assertFalse(cursor.hasXYZ());
+		assertFalse(cursor.hasIntensity());
+		assertTrue(cursor.next());
+		assertEquals(0, cursor.getX(), 0);
+		assertTrue(Float.isNaN(cursor.getY()));
+		assertTrue(Float.isNaN(cursor.getZ()));
+		assertTrue(Float.isNaN(cursor.getIntensity()));
+
+		PointCursor full = cloud.cursor();
+		assertTrue(full.hasXYZ());
+		assertTrue(full.hasIntensity());
+	}
+
+	@Test
+	public void testBigEndian() {
+		ByteBuffer data = ByteBuffer.allocate(12).order(ByteOrder.BIG_ENDIAN);
+		data.putFloat(1.25f).putFloat(-2f).putFloat(8f);
+		PointCloud2 c = new PointCloud2(new Header(), 1, 1, XYZI, true, 12,
+				12, data.array(), true);
+		PointCursor cursor = c.cursor();
+		assertTrue(cursor.next());
+		assertEquals(1.25f, cursor.getX(), 0);
+		assertEquals(-2f, cursor.getY(), 0);
+		assertEquals(8f, cursor.getZ(), 0);
+	}
+
+	@Test
+	public void testDatatypes() {
+		PointField[] f = new PointField[] {
+				new PointField("int8", 0, PointField.INT8, 1),
+				new PointField("uint8", 1, PointField.UINT8, 1),
+				new PointField("int16", 2, PointField.INT16, 1),
+				new PointField("uint16", 4, PointField.UINT16, 1),
+				new PointField("int32", 6, PointField.INT32, 1),
+				new PointField("uint32", 10, PointField.UINT32, 1),
+				new PointField("float32", 14, PointField.FLOAT32, 1),
+				new PointField("float64", 18, PointField.FLOAT64, 1),
+				new PointField("unknown", 0, (byte) 9, 1) };
+		ByteBuffer data = ByteBuffer.allocate(26).order(
+				ByteOrder.LITTLE_ENDIAN);
+		data.put((byte) -1).put((byte) -1).putShort((short) -2)
+				.putShort((short) -2).putInt(-3).putInt(-3).putFloat(1.5f)
+				.putDouble(-2.25);
+		PointCloud2 c = new PointCloud2(new Header(), 1, 1, f, false, 26, 26,
+				data.array(), true);
+		PointCursor cursor = c.cursor();
+		assertTrue(cursor.next());
+		assertEquals(-1, cursor.getDouble(0), 0);
+		assertEquals(255, cursor.getDouble(1), 0);
+		assertEquals(-2, cursor.getDouble(2), 0);
+		assertEquals(65534, cursor.getDouble(3), 0);
+		assertEquals(-3, cursor.getDouble(4), 0);
+		assertEquals(4294967293.0, cursor.getDouble(5), 0);
+		assertEquals(1.5, cursor.getDouble(6), 0);
+		assertEquals(1.5f, cursor.getFloat(6), 0);
+		assertEquals(-2.25, cursor.getDouble(7), 0);
+		assertEquals(-2.25f, cursor.getFloat(7), 0);
+		try {
+			cursor.getDouble(8);
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testElements() {
+		ByteBuffer data = ByteBuffer.allocate(12).order(
+				ByteOrder.LITTLE_ENDIAN);
+		data.putFloat(1f).putFloat(2f).putFloat(3f);
+		PointCloud2 c = new PointCloud2(new Header(), 1, 1,
+				new PointField[] { new PointField("normal", 0,
+						PointField.FLOAT32, 3) }, false, 12, 12,
+				data.array(), true);
+		PointCursor cursor = c.cursor();
+		assertTrue(cursor.next());
+		assertEquals(1f, cursor.getFloat(0), 0);
+		assertEquals(2f, cursor.getFloat(0, 1), 0);
+		assertEquals(3f, cursor.getDouble(0, 2), 0);
+	}
+
+	@Test
+	public void testElementOutOfBounds() {
+		PointCloud2 c = new PointCloud2(new Header(), 1, 2,
+				new PointField[] {
+						new PointField("normal", 0, PointField.FLOAT32, 3),
+						new PointField("none", 12, PointField.UINT8, 0) },
+				false, 12, 24, new byte[24], true);
+		PointCursor cursor = c.cursor();
+		assertTrue(cursor.next());
+		// would otherwise read the next point, or the field before
+		int[][] invalid = new int[][] { { 0, 3 }, { 0, -1 }, { 1, 0 } };
+		for (int[] i : invalid) {
+			try {
+				cursor.getDouble(i[0], i[1]);
+				fail();
+			} catch (IndexOutOfBoundsException e) {
+				// expected
+			}
+			try {
+				cursor.getFloat(i[0], i[1]);
+				fail();
+			} catch (IndexOutOfBoundsException e) {
+				// expected
+			}
+		}
+	}
+
+	@Test
+	public void testEmpty() {
+		PointCursor cursor = new PointCloud2().cursor();
+		assertEquals(0, cursor.getNumPoints());
+		assertFalse(cursor.next());
+	}
+
+	@Test
+	public void testIndependentCursors() {
+		PointCursor a = cloud.cursor();
+		PointCursor b = cloud.cursor();
+		a.moveTo(3);
+		assertTrue(b.next());
+		assertEquals(3, a.getX(), 0);
+		assertEquals(0, b.getX(), 0);
+	}
+}
@@ -0,0 +1,170 @@
+package edu.wpi.rail.jrosbridge.messages.sensor;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+import edu.wpi.rail.jrosbridge.messages.Message;
+
+public class TestPointField {
+
+	private PointField empty, f1;
+
+	@Before
+	public void setUp() {
+		empty = new PointField();
+		f1 = new PointField("x", 4, PointField.FLOAT32, 1);
+	}
+
+	@Test
+	public void testConstructor() {
+		assertEquals("", empty.getName());
+		assertEquals(0, empty.getOffset());
+		assertEquals(0, empty.getDatatype());
+		assertEquals(0, empty.getCount());
+		assertEquals(0, empty.getSize());
+
+		assertEquals(
+				"{\"name\":\"\",\"offset\":0,\"datatype\":0,\"count\":0}",
+				empty.toString());
+
+		assertEquals(4, empty.toJsonObject().size());
+		assertEquals(PointField.TYPE, empty.getMessageType());
+	}
+
+	@Test
+	public void testFullConstructor() {
+		assertEquals("x", f1.getName());
+		assertEquals(4, f1.getOffset());
+		assertEquals(PointField.FLOAT32, f1.getDatatype());
+		assertEquals(1, f1.getCount());
+		assertEquals(4, f1.getSize());
+
+		assertEquals(
+				"{\"name\":\"x\",\"offset\":4,\"datatype\":7,\"count\":1}",
+				f1.toString());
+	}
+
+	@Test
+	public void testUnsignedFields() {
+		PointField f = new PointField("a", -1, (byte) -1, -2);
+		assertEquals("{\"name\":\"a\",\"offset\":4294967295,"
+				+ "\"datatype\":255,\"count\":4294967294}", f.toString());
+		PointField p = PointField.fromJsonString(f.toString());
+		assertEquals(-1, p.getOffset());
+		assertEquals((byte) -1, p.getDatatype());
+		assertEquals(-2, p.getCount());
+	}
+
+	@Test
+	public void testGetSize() {
+		assertEquals(1, PointField.getSize(PointField.INT8));
+		assertEquals(1, PointField.getSize(PointField.UINT8));
+		assertEquals(2, PointField.getSize(PointField.INT16));
+		assertEquals(2, PointField.getSize(PointField.UINT16));
+		assertEquals(4, PointField.getSize(PointField.INT32));
+		assertEquals(4, PointField.getSize(PointField.UINT32));
+		assertEquals(4, PointField.getSize(PointField.FLOAT32));
+		assertEquals(8, PointField.getSize(PointField.FLOAT64));
+		assertEquals(0, PointField.getSize((byte) 0));
+		assertEquals(0, PointField.getSize((byte) 9));
+	}
+
+	@Test
+	public void testSetMessageType() {
+		empty.setMessageType("test");
+		assertEquals("test", empty.getMessageType());
+	}
+
+	@Test
+	public void testHashCode() {
+		assertEquals(empty.toString().hashCode(), empty.hashCode());
+		assertEquals(f1.toString().hashCode(), f1.hashCode());
+	}
+
+	@Test
+	public void testEquals() {
+		PointField f2 = new PointField("x", 4, PointField.FLOAT32, 1);
+
+		assertFalse(empty.equals(f1));
+		assertFalse(f1.equals(empty));
+
+		assertTrue(f1.equals(f2));
+		assertTrue(f2.equals(f1));
+		assertTrue(empty.equals(empty));
+	}
+
+	@Test
+	public void testClone() {
+		PointField clone = f1.clone();
+		assertEquals(f1.toString(), clone.toString());
+		assertEquals(f1.toJsonObject(), clone.toJsonObject());
+		assertEquals(f1.getMessageType(), clone.getMessageType());
+		assertEquals(f1.getName(), clone.getName());
+		assertEquals(f1.getOffset(), clone.getOffset());
+		assertEquals(f1.getDatatype(), clone.getDatatype());
+		assertEquals(f1.getCount(), clone.getCount());
+		assertNotSame(f1, clone);
+	}
+
+	@Test
+	public void testFromJsonString() {
+		PointField p = PointField.fromJsonString(f1.toString());
+		assertEquals(f1, p);
+		assertNotSame(f1, p);
+	}
+
+	@Test
+	public void testFromMessage() {
+		Message m = new Message(f1.toString());
+		PointField p = PointField.fromMessage(m);
+		assertEquals(f1, p);
+		assertNotSame(f1, p);
+	}
+
+	@Test
+	public void testFromJsonObject() {
+		JsonObject jsonObject = Json.createObjectBuilder()
+				.add(PointField.FIELD_NAME, "x")
+				.add(PointField.FIELD_OFFSET, 4)
+				.add(PointField.FIELD_DATATYPE, 7)
+				.add(PointField.FIELD_COUNT, 1).build();
+		PointField p = PointField.fromJsonObject(jsonObject);
+		assertEquals(f1, p);
+	}
+
+	@Test
+	public void testFromJsonObjectNoFields() {
+		PointField p = PointField.fromJsonObject(Json.createObjectBuilder()
+				.build());
+		assertEquals(empty, p);
+	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(f1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		PointField x = PointField.fromJsonParser(parser);
+		assertEquals(f1.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		PointField x = PointField.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
+}
@@ -2,15 +2,18 @@ package edu.wpi.rail.jrosbridge.messages.std;
 
 import static org.junit.Assert.*;
 
+import java.io.StringReader;
 import java.util.Arrays;
 
 import javax.json.Json;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 public class TestByteMultiArray {
@@ -199,4 +202,45 @@ public class TestByteMultiArray {
 		assertEquals(a1.size(), p.size());
 		assertEquals(new MultiArrayLayout(), p.getLayout());
 	}
+
+	@Test
+	public void testFromJsonObjectBase64() {
+		JsonObject jsonObject = Json.createObjectBuilder()
+				.add(ByteMultiArray.FIELD_DATA, "AID/").build();
+		ByteMultiArray p = ByteMultiArray.fromJsonObject(jsonObject);
+		assertTrue(Arrays.equals(new byte[] { 0, -128, -1 }, p.getData()));
+		assertEquals("{\"layout\":{\"dim\":[],\"data_offset\":0},"
+				+ "\"data\":[0,-128,-1]}", p.toString());
+	}
+
+	@Test
+	public void testFromJsonParserBase64() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"data\": \"AID/\"}"));
+		JsonStreams.beginObject(parser);
+		ByteMultiArray x = ByteMultiArray.fromJsonParser(parser);
+		assertTrue(Arrays.equals(new byte[] { 0, -128, -1 }, x.getData()));
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(a1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		ByteMultiArray x = ByteMultiArray.fromJsonParser(parser);
+		assertEquals(a1.toString(), x.toString());
+		assertEquals(a1.toJsonObject(), x.toJsonObject());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		ByteMultiArray x = ByteMultiArray.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
 }
@@ -3,13 +3,16 @@ package edu.wpi.rail.jrosbridge.messages.std;
 import static org.junit.Assert.*;
 
 import java.awt.Color;
+import java.io.StringReader;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 public class TestColorRGBA {
@@ -267,4 +270,26 @@ public class TestColorRGBA {
 		assertEquals(c2.getB(), p.getB(), 0);
 		assertEquals(0.0f, p.getA(), 0);
 	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(c1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		ColorRGBA x = ColorRGBA.fromJsonParser(parser);
+		assertEquals(c1.toString(), x.toString());
+		assertEquals(c1.toJsonObject(), x.toJsonObject());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		ColorRGBA x = ColorRGBA.fromJsonParser(parser);
+		// missing values are 0, like fromJsonObject (including alpha)
+		assertEquals(new ColorRGBA(0f, 0f, 0f, 0f).toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
 }
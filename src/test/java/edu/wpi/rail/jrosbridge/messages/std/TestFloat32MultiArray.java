@@ -2,15 +2,18 @@ package edu.wpi.rail.jrosbridge.messages.std;
 
 import static org.junit.Assert.*;
 
+import java.io.StringReader;
 import java.util.Arrays;
 
 import javax.json.Json;
 import javax.json.JsonArrayBuilder;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
 
 public class TestFloat32MultiArray {
@@ -204,4 +207,25 @@ public class TestFloat32MultiArray {
 		assertEquals(a1.size(), p.size());
 		assertEquals(new MultiArrayLayout(), p.getLayout());
 	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(a1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		Float32MultiArray x = Float32MultiArray.fromJsonParser(parser);
+		assertEquals(a1.toString(), x.toString());
+		assertEquals(a1.toJsonObject(), x.toJsonObject());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		Float32MultiArray x = Float32MultiArray.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
 }
@@ -2,17 +2,21 @@ package edu.wpi.rail.jrosbridge.messages.std;
 
 import static org.junit.Assert.*;
 
+import java.io.StringReader;
 import java.util.Arrays;
+import java.util.Base64;
 
 import javax.json.Json;
 import javax.json.JsonArrayBuilder;
+import javax.json.JsonException;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
 import edu.wpi.rail.jrosbridge.messages.Message;
-import edu.wpi.rail.jrosbridge.primitives.Primitive;
 
 public class TestUInt8MultiArray {
 
@@ -35,16 +39,15 @@ public class TestUInt8MultiArray {
 		assertEquals(0, empty.getData().length);
 		assertEquals(0, empty.size());
 
-		assertEquals("{\"layout\":{\"dim\":[],\"data_offset\":0},\"data\":[]}",
+		assertEquals("{\"layout\":{\"dim\":[],\"data_offset\":0},\"data\":\"\"}",
 				empty.toString());
 
 		assertEquals(2, empty.toJsonObject().size());
 		assertEquals(new MultiArrayLayout(),
 				MultiArrayLayout.fromJsonObject(empty.toJsonObject()
 						.getJsonObject(UInt8MultiArray.FIELD_LAYOUT)));
-		assertEquals(0,
-				empty.toJsonObject().getJsonArray(UInt8MultiArray.FIELD_DATA)
-						.size());
+		assertEquals("",
+				empty.toJsonObject().getString(UInt8MultiArray.FIELD_DATA));
 
 		assertEquals(UInt8MultiArray.TYPE, empty.getMessageType());
 	}
@@ -62,7 +65,7 @@ public class TestUInt8MultiArray {
 		assertEquals("{\"layout\":{\"dim\":["
 				+ "{\"label\":\"test\",\"size\":10,\"stride\":20},"
 				+ "{\"label\":\"test2\",\"size\":30,\"stride\":40}"
-				+ "],\"data_offset\":50},\"data\":[5,10]}", a1.toString());
+				+ "],\"data_offset\":50},\"data\":\"BQo=\"}", a1.toString());
 
 		assertEquals(2, a1.toJsonObject().size());
 		assertEquals(new MultiArrayLayout(new MultiArrayDimension[] {
@@ -70,17 +73,11 @@ public class TestUInt8MultiArray {
 				new MultiArrayDimension("test2", 30, 40) }, 50),
 				MultiArrayLayout.fromJsonObject(a1.toJsonObject()
 						.getJsonObject(UInt8MultiArray.FIELD_LAYOUT)));
-		assertEquals(2,
-				a1.toJsonObject().getJsonArray(UInt8MultiArray.FIELD_DATA)
-						.size());
-		assertEquals(
-				(byte) 5,
-				(byte) a1.toJsonObject()
-						.getJsonArray(UInt8MultiArray.FIELD_DATA).getInt(0));
-		assertEquals(
-				(byte) 10,
-				(byte) a1.toJsonObject()
-						.getJsonArray(UInt8MultiArray.FIELD_DATA).getInt(1));
+		assertTrue(Arrays.equals(
+				new byte[] { 5, 10 },
+				Base64.getDecoder().decode(
+						a1.toJsonObject().getString(
+								UInt8MultiArray.FIELD_DATA))));
 
 		assertEquals(UInt8MultiArray.TYPE, a1.getMessageType());
 	}
@@ -96,7 +93,7 @@ public class TestUInt8MultiArray {
 		assertEquals((byte) -1, a.get(0));
 
 		assertEquals(
-				"{\"layout\":{\"dim\":[],\"data_offset\":0},\"data\":[255]}",
+				"{\"layout\":{\"dim\":[],\"data_offset\":0},\"data\":\"/w==\"}",
 				a.toString());
 
 		assertEquals(2, a.toJsonObject().size());
@@ -104,13 +101,10 @@ public class TestUInt8MultiArray {
 				new MultiArrayLayout(),
 				MultiArrayLayout.fromJsonObject(a.toJsonObject().getJsonObject(
 						UInt8MultiArray.FIELD_LAYOUT)));
-		assertEquals(1,
-				a.toJsonObject().getJsonArray(UInt8MultiArray.FIELD_DATA)
-						.size());
-		assertEquals(
-				(byte) -1,
-				Primitive.toUInt8((byte) a.toJsonObject()
-						.getJsonArray(UInt8MultiArray.FIELD_DATA).getInt(0)));
+		assertTrue(Arrays.equals(
+				new byte[] { -1 },
+				Base64.getDecoder().decode(
+						a.toJsonObject().getString(UInt8MultiArray.FIELD_DATA))));
 
 		assertEquals(UInt8MultiArray.TYPE, a.getMessageType());
 	}
@@ -233,4 +227,63 @@ public class TestUInt8MultiArray {
 		assertEquals(a1.size(), p.size());
 		assertEquals(new MultiArrayLayout(), p.getLayout());
 	}
+
+	@Test
+	public void testFromJsonObjectNumbers() {
+		JsonObject jsonObject = Json.createObjectBuilder()
+				.add(UInt8MultiArray.FIELD_DATA,
+						Json.createArrayBuilder().add(0).add(128).add(255))
+				.build();
+		UInt8MultiArray p = UInt8MultiArray.fromJsonObject(jsonObject);
+		assertTrue(Arrays.equals(new byte[] { 0, -128, -1 }, p.getData()));
+		assertEquals("AID/", p.toJsonObject().getString(
+				UInt8MultiArray.FIELD_DATA));
+	}
+
+	@Test(expected = JsonException.class)
+	public void testFromJsonObjectInvalidBase64() {
+		UInt8MultiArray.fromJsonObject(Json.createObjectBuilder()
+				.add(UInt8MultiArray.FIELD_DATA, "*").build());
+	}
+
+	@Test
+	public void testFromJsonParserNumbers() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"data\": [1, 255]}"));
+		JsonStreams.beginObject(parser);
+		UInt8MultiArray x = UInt8MultiArray.fromJsonParser(parser);
+		assertTrue(Arrays.equals(new byte[] { 1, -1 }, x.getData()));
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testDataNotShared() {
+		byte[] data = new byte[] { 1, 2 };
+		UInt8MultiArray a = new UInt8MultiArray(new MultiArrayLayout(), data);
+		data[0] = 5;
+		assertEquals((byte) 1, a.get(0));
+		assertEquals("AQI=", a.toJsonObject().getString(
+				UInt8MultiArray.FIELD_DATA));
+	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(a1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		UInt8MultiArray x = UInt8MultiArray.fromJsonParser(parser);
+		assertEquals(a1.toString(), x.toString());
+		assertEquals(a1.toJsonObject(), x.toJsonObject());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		UInt8MultiArray x = UInt8MultiArray.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
 }
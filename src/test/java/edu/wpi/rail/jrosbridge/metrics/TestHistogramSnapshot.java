@@ -0,0 +1,71 @@
+package edu.wpi.rail.jrosbridge.metrics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestHistogramSnapshot {
+
+	@Test
+	public void testEmpty() {
+		HistogramSnapshot s = new LatencyHistogram().snapshot();
+		assertEquals(0, s.getCount());
+		assertEquals(0.0, s.getMean(), 0);
+		assertEquals(0, s.getValueAtPercentile(50));
+	}
+
+	@Test
+	public void testMean() {
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(10);
+		h.record(20);
+		assertEquals(15.0, h.snapshot().getMean(), 0);
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram h = new LatencyHistogram();
+		for (int i = 1; i <= 1000; i++) {
+			h.record(i * 1000L);
+		}
+		HistogramSnapshot s = h.snapshot();
+		assertEquals(1000, s.getCount());
+		assertWithin(500000, s.getValueAtPercentile(50));
+		assertWithin(990000, s.getValueAtPercentile(99));
+		assertEquals(1000000, s.getValueAtPercentile(100));
+		assertWithin(1000, s.getValueAtPercentile(0));
+		assertEquals(s.getValueAtPercentile(100), s.getValueAtPercentile(150));
+	}
+
+	@Test
+	public void testPercentileNotAboveMax() {
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(1000);
+		assertEquals(1000, h.snapshot().getValueAtPercentile(50));
+	}
+
+	@Test
+	public void testSnapshotIsCopy() {
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(1);
+		HistogramSnapshot s = h.snapshot();
+		h.record(2);
+		assertEquals(1, s.getCount());
+		assertEquals(1, s.getBucketCount(1));
+		assertEquals(0, s.getBucketCount(2));
+	}
+
+	@Test
+	public void testToString() {
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(10);
+		assertEquals("count=1 mean=10ns p50=10ns p99=10ns max=10ns", h
+				.snapshot().toString());
+	}
+
+	private static void assertWithin(long expected, long actual) {
+		// the bucket upper bound is at most 1/16 above the value
+		assertTrue(actual >= expected);
+		assertTrue(actual <= expected + expected / 16);
+	}
+}
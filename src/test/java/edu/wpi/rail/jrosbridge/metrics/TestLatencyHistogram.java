@@ -0,0 +1,110 @@
+package edu.wpi.rail.jrosbridge.metrics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestLatencyHistogram {
+
+	@Test
+	public void testConstructor() {
+		HistogramSnapshot s = new LatencyHistogram().snapshot();
+		assertEquals(0, s.getCount());
+		assertEquals(0, s.getSum());
+		assertEquals(0, s.getMax());
+	}
+
+	@Test
+	public void testRecord() {
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(5);
+		h.record(100);
+		h.record(1000000);
+		HistogramSnapshot s = h.snapshot();
+		assertEquals(3, s.getCount());
+		assertEquals(1000105, s.getSum());
+		assertEquals(1000000, s.getMax());
+	}
+
+	@Test
+	public void testRecordNegative() {
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(-10);
+		HistogramSnapshot s = h.snapshot();
+		assertEquals(1, s.getCount());
+		assertEquals(0, s.getSum());
+		assertEquals(1, s.getBucketCount(0));
+	}
+
+	@Test
+	public void testRecordHuge() {
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(Long.MAX_VALUE);
+		HistogramSnapshot s = h.snapshot();
+		assertEquals(1, s.getBucketCount(LatencyHistogram.BUCKETS - 1));
+		assertEquals(Long.MAX_VALUE, s.getMax());
+	}
+
+	@Test
+	public void testReset() {
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(50);
+		h.reset();
+		HistogramSnapshot s = h.snapshot();
+		assertEquals(0, s.getCount());
+		assertEquals(0, s.getMax());
+	}
+
+	@Test
+	public void testIndexOf() {
+		for (int i = 0; i < 16; i++) {
+			assertEquals(i, LatencyHistogram.indexOf(i));
+		}
+		assertEquals(16, LatencyHistogram.indexOf(16));
+		assertEquals(31, LatencyHistogram.indexOf(31));
+		assertEquals(32, LatencyHistogram.indexOf(32));
+		assertEquals(32, LatencyHistogram.indexOf(33));
+		assertEquals(33, LatencyHistogram.indexOf(34));
+		assertEquals(LatencyHistogram.BUCKETS - 1,
+				LatencyHistogram.indexOf((1L << 41) - 1));
+		assertEquals(LatencyHistogram.BUCKETS - 1,
+				LatencyHistogram.indexOf(1L << 50));
+	}
+
+	@Test
+	public void testBounds() {
+		// every bucket starts right after the previous one ends
+		for (int i = 0; i < LatencyHistogram.BUCKETS - 1; i++) {
+			long lower = LatencyHistogram.lowerBound(i);
+			long upper = LatencyHistogram.upperBound(i);
+			assertEquals(i, LatencyHistogram.indexOf(lower));
+			assertEquals(i, LatencyHistogram.indexOf(upper));
+			assertEquals(upper + 1, LatencyHistogram.lowerBound(i + 1));
+			// at most 1/16 relative error
+			assertTrue(upper - lower <= Math.max(0, lower / 16));
+		}
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		final LatencyHistogram h = new LatencyHistogram();
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						h.record(j);
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		HistogramSnapshot s = h.snapshot();
+		assertEquals(80000, s.getCount());
+		assertEquals(8L * 9999 * 10000 / 2, s.getSum());
+		assertEquals(9999, s.getMax());
+	}
+}
@@ -0,0 +1,110 @@
+package edu.wpi.rail.jrosbridge.metrics;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class TestRosMetrics {
+
+	@Test
+	public void testConstructor() {
+		RosMetrics m = new RosMetrics();
+		assertTrue(m.snapshot().isEmpty());
+		assertNull(m.getSnapshot(RosMetrics.Stage.PARSE, "publish", "/a"));
+		assertEquals(0, m.getCount(RosMetrics.Stage.PARSE, "publish", "/a"));
+	}
+
+	@Test
+	public void testRecord() {
+		RosMetrics m = new RosMetrics();
+		m.record(RosMetrics.Stage.PARSE, "publish", "/a", 100);
+		m.record(RosMetrics.Stage.PARSE, "publish", "/a", 200);
+		m.record(RosMetrics.Stage.PARSE, "publish", "/b", 300);
+		m.record(RosMetrics.Stage.WRITE, "publish", "/a", 400);
+		assertEquals(2, m.getCount(RosMetrics.Stage.PARSE, "publish", "/a"));
+		assertEquals(1, m.getCount(RosMetrics.Stage.PARSE, "publish", "/b"));
+		assertEquals(1, m.getCount(RosMetrics.Stage.WRITE, "publish", "/a"));
+		assertEquals(0, m.getCount(RosMetrics.Stage.WRITE, "publish", "/b"));
+		assertEquals(300, m.getSnapshot(RosMetrics.Stage.PARSE, "publish", "/a")
+				.getSum());
+	}
+
+	@Test
+	public void testRecordSince() {
+		RosMetrics m = new RosMetrics();
+		long start = System.nanoTime();
+		m.recordSince(RosMetrics.Stage.CALLBACK, "publish", "/a", start);
+		HistogramSnapshot s = m.getSnapshot(RosMetrics.Stage.CALLBACK,
+				"publish", "/a");
+		assertEquals(1, s.getCount());
+		assertTrue(s.getMax() >= 0);
+	}
+
+	@Test
+	public void testNullTags() {
+		RosMetrics m = new RosMetrics();
+		m.record(RosMetrics.Stage.RECEIVE, null, null, 1);
+		assertEquals(1, m.getCount(RosMetrics.Stage.RECEIVE, null, null));
+		assertEquals(1, m.getCount(RosMetrics.Stage.RECEIVE, RosMetrics.NONE,
+				RosMetrics.NONE));
+	}
+
+	@Test
+	public void testHistogramReused() {
+		RosMetrics m = new RosMetrics();
+		assertSame(m.histogram(RosMetrics.Stage.ROUTE, "publish", "/a"),
+				m.histogram(RosMetrics.Stage.ROUTE, "publish", "/a"));
+		assertNotSame(m.histogram(RosMetrics.Stage.ROUTE, "publish", "/a"),
+				m.histogram(RosMetrics.Stage.ROUTE, "publish", "/b"));
+	}
+
+	@Test
+	public void testSnapshot() {
+		RosMetrics m = new RosMetrics();
+		m.record(RosMetrics.Stage.WRITE, "publish", "/a", 1);
+		m.record(RosMetrics.Stage.PARSE, "publish", "/a", 2);
+		List<StageSnapshot> snapshots = m.snapshot();
+		assertEquals(2, snapshots.size());
+		assertEquals(RosMetrics.Stage.PARSE, snapshots.get(0).getStage());
+		assertEquals("publish", snapshots.get(0).getOp());
+		assertEquals("/a", snapshots.get(0).getTopic());
+		assertEquals(2, snapshots.get(0).getHistogram().getSum());
+		assertEquals(RosMetrics.Stage.WRITE, snapshots.get(1).getStage());
+	}
+
+	@Test
+	public void testReset() {
+		RosMetrics m = new RosMetrics();
+		m.record(RosMetrics.Stage.WRITE, "publish", "/a", 1);
+		m.reset();
+		assertEquals(0, m.getCount(RosMetrics.Stage.WRITE, "publish", "/a"));
+	}
+
+	@Test
+	public void testConcurrent() throws Exception {
+		final RosMetrics m = new RosMetrics();
+		Thread[] threads = new Thread[8];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				public void run() {
+					for (int j = 0; j < 5000; j++) {
+						m.record(RosMetrics.Stage.CALLBACK, "publish", "/t"
+								+ (j % 10), j);
+						m.snapshot();
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		long total = 0;
+		for (StageSnapshot s : m.snapshot()) {
+			total += s.getHistogram().getCount();
+		}
+		assertEquals(40000, total);
+	}
+}
@@ -0,0 +1,27 @@
+package edu.wpi.rail.jrosbridge.metrics;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TestStageSnapshot {
+
+	@Test
+	public void testConstructor() {
+		HistogramSnapshot h = new LatencyHistogram().snapshot();
+		StageSnapshot s = new StageSnapshot(RosMetrics.Stage.PARSE, "publish",
+				"/test", h);
+		assertEquals(RosMetrics.Stage.PARSE, s.getStage());
+		assertEquals("publish", s.getOp());
+		assertEquals("/test", s.getTopic());
+		assertSame(h, s.getHistogram());
+	}
+
+	@Test
+	public void testToString() {
+		StageSnapshot s = new StageSnapshot(RosMetrics.Stage.WRITE, "publish",
+				"/test", new LatencyHistogram().snapshot());
+		assertEquals("WRITE publish /test: count=0 mean=0ns p50=0ns p99=0ns"
+				+ " max=0ns", s.toString());
+	}
+}
@@ -2,12 +2,17 @@ package edu.wpi.rail.jrosbridge.primitives;
 
 import static org.junit.Assert.*;
 
+import java.io.StringReader;
+
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+
 public class TestDuration {
 
 	private Duration empty, d1, d2, d3;
@@ -299,4 +304,25 @@ public class TestDuration {
 	public boolean greaterThanEquals(long a, long b) {
 		return a >= b;
 	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(d1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		Duration x = Duration.fromJsonParser(parser);
+		assertEquals(d1.toString(), x.toString());
+		assertEquals(d1.toJsonObject(), x.toJsonObject());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		Duration x = Duration.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
 }
@@ -2,15 +2,19 @@ package edu.wpi.rail.jrosbridge.primitives;
 
 import static org.junit.Assert.*;
 
+import java.io.StringReader;
 import java.util.Calendar;
 import java.util.Date;
 
 import javax.json.Json;
 import javax.json.JsonObject;
+import javax.json.stream.JsonParser;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import edu.wpi.rail.jrosbridge.codec.JsonStreams;
+
 public class TestTime {
 
 	private Time empty, t1, t2, t3;
@@ -336,4 +340,25 @@ public class TestTime {
 	public boolean greaterThanEquals(long a, long b) {
 		return a >= b;
 	}
+
+	@Test
+	public void testFromJsonParser() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(t1
+				.toString()));
+		JsonStreams.beginObject(parser);
+		Time x = Time.fromJsonParser(parser);
+		assertEquals(t1.toString(), x.toString());
+		assertEquals(t1.toJsonObject(), x.toJsonObject());
+		assertFalse(parser.hasNext());
+	}
+
+	@Test
+	public void testFromJsonParserEmpty() {
+		JsonParser parser = JsonStreams.createParser(new StringReader(
+				"{\"unknown\": [1, {\"a\": \"b\"}]}"));
+		JsonStreams.beginObject(parser);
+		Time x = Time.fromJsonParser(parser);
+		assertEquals(empty.toString(), x.toString());
+		assertFalse(parser.hasNext());
+	}
 }